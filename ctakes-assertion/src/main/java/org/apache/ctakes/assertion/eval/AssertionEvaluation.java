@@ -49,6 +49,7 @@ import org.apache.ctakes.assertion.medfacts.cleartk.UncertaintyCleartkAnalysisEn
 import org.apache.ctakes.assertion.pipelines.GoldEntityAndAttributeReaderPipelineForSeedCorpus;
 import org.apache.ctakes.core.ae.DocumentIdPrinterAnalysisEngine;
 import org.apache.ctakes.core.util.DocumentIDAnnotationUtil;
+import org.apache.ctakes.core.util.TaskUtil;
 import org.apache.ctakes.typesystem.type.constants.CONST;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.ContractionToken;
@@ -191,6 +192,12 @@ private static Logger logger = Logger.getLogger(AssertionEvaluation.class);
             required = false)
     public Integer crossValidationFolds;
     
+    @Option(
+            name = "--cross-validation-threads",
+            usage = "train and test this many cross-validation folds at the same time. default: 1",
+            required = false)
+    public int crossValidationThreads = 1;
+    
     @Option(
             name = "--train-only",
             usage = "do not test a model, build one from xmi output and store in --models-dir",
@@ -575,6 +582,30 @@ public static void printScore(Map<String, AnnotationStatisticsCompact<String>> m
     this.evaluationOutputDirectory = evaluationOutputDirectory;
   }
 
+  /**
+   * Trains and tests the folds as {@link Evaluation_ImplBase#crossValidation(List, int)} does, each in its own
+   * fold directory, with up to --cross-validation-threads folds at the same time.
+   * 
+   * @return the statistics of the folds in fold order, so they merge to the same statistics for any number of threads
+   */
+  @Override
+  public List<Map<String, AnnotationStatisticsCompact<String>>> crossValidation(List<File> items, int numberOfFolds)
+      throws Exception {
+    if(options.crossValidationThreads <= 1){
+      return super.crossValidation(items, numberOfFolds);
+    }
+    if(numberOfFolds > items.size()){
+      throw new IllegalArgumentException(
+          String.format("Cannot have %d folds with only %d items", numberOfFolds, items.size()));
+    }
+    return TaskUtil.runFolds(numberOfFolds, options.crossValidationThreads, fold -> {
+      File foldDirectory = new File(this.baseDirectory, "fold_" + fold);
+      foldDirectory.mkdirs();
+      this.train(this.getCollectionReader(this.selectFoldTrainItems(items, numberOfFolds, fold)), foldDirectory);
+      return this.test(this.getCollectionReader(this.selectFoldTestItems(items, numberOfFolds, fold)), foldDirectory);
+    });
+  }
+
   @Override
   public CollectionReader getCollectionReader(List<File> items)
       throws ResourceInitializationException {
@@ -33,6 +33,8 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.ctakes.assertion.attributes.features.selection.FeatureSelection;
 import org.apache.ctakes.assertion.medfacts.cleartk.extractors.FedaFeatureFunction;
 import org.apache.ctakes.core.util.DocumentIDAnnotationUtil;
+import org.apache.ctakes.core.util.index.SpanIndex;
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.constants.CONST;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
@@ -175,6 +177,12 @@ public abstract class AssertionCleartkAnalysisEngine extends
   protected List<FeatureExtractor1<IdentifiedAnnotation>> entityFeatureExtractors;
   protected List<FeatureExtractor1<IdentifiedAnnotation>> entityTreeExtractors;
   protected CleartkExtractor<IdentifiedAnnotation,BaseToken> cuePhraseInWindowExtractor;
+  // token window built by initialize, the only token extractor that shared feature set ids describe
+  private CleartkExtractor<IdentifiedAnnotation,BaseToken> tokenWindowExtractor;
+
+  // ids of the shared feature sets that extractSharedFeatures can extract
+  protected static final String SHARED_FEATURES_TOKEN_WINDOW = "TokenWindow_ClosestCue_AnatomicalSite";
+  protected static final String SHARED_FEATURES_NO_TOKENS = "ClosestCue_AnatomicalSite";
   
 
   protected List<FeatureFunctionExtractor<IdentifiedAnnotation>> featureFunctionExtractors = new ArrayList<>();
@@ -256,6 +264,7 @@ public abstract class AssertionCleartkAnalysisEngine extends
     				);
 
     this.tokenCleartkExtractors.add(tokenExtraction1);
+    this.tokenWindowExtractor = tokenExtraction1;
 //    this.tokenCleartkExtractors.add(posExtraction1);
     
 //    this.contextFeatureExtractors.add(new CleartkExtractor(IdentifiedAnnotation.class,
@@ -302,6 +311,34 @@ public abstract class AssertionCleartkAnalysisEngine extends
 
   @Override
   public void process(JCas jCas) throws AnalysisEngineProcessException
+  {
+    SpanIndexService.getInstance().invalidate(jCas);
+    String domainFeature = startDocument(jCas);
+    JCas identifiedAnnotationView = getIdentifiedAnnotationView(jCas);
+
+//    Map<IdentifiedAnnotation, Collection<Sentence>> coveringSentenceMap = JCasUtil.indexCovering(identifiedAnnotationView, IdentifiedAnnotation.class, Sentence.class);
+//    Map<Sentence, Collection<BaseToken>> tokensCoveredInSentenceMap = JCasUtil.indexCovered(identifiedAnnotationView, Sentence.class, BaseToken.class);
+
+//    Map<IdentifiedAnnotation, Collection<Zone>> coveringZoneMap =
+//        JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Zone.class);
+//    Map<IdentifiedAnnotation, Collection<Sentence>> coveringSents =
+//        JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Sentence.class);
+    
+//    List<Instance<String>> instances = new ArrayList<Instance<String>>();
+    // generate a list of training instances for each sentence in the document
+    for (IdentifiedAnnotation entityOrEventMention : selectEntitiesAndEvents(identifiedAnnotationView))
+    {
+      List<Feature> sharedFeatures = extractSharedFeatures(jCas, identifiedAnnotationView, entityOrEventMention, domainFeature);
+      classify(jCas, entityOrEventMention, sharedFeatures);
+    }
+    
+  }
+
+  /**
+   * Sets up the domain of the document and resets the last label.
+   * @return the domain feature value, or null if there is none
+   */
+  protected String startDocument(JCas jCas)
   {
     String documentId = DocumentIDAnnotationUtil.getDocumentID(jCas);
     String domainId = "";
@@ -330,6 +367,14 @@ public abstract class AssertionCleartkAnalysisEngine extends
     
 
     this.lastLabel = "<BEGIN>";
+    return domainFeature;
+  }
+
+  /**
+   * @return the gold view during training, otherwise the cas itself
+   */
+  protected JCas getIdentifiedAnnotationView(JCas jCas) throws AnalysisEngineProcessException
+  {
     
 //    // get gold standard relation instances during testing for error analysis
 //    if (! this.isTraining() && printErrors) {
@@ -343,36 +388,43 @@ public abstract class AssertionCleartkAnalysisEngine extends
 //      //categoryLookup = createCategoryLookup(goldView); 
 //    }
     
-    JCas identifiedAnnotationView;
     if (this.isTraining()) {
       try {
-        identifiedAnnotationView = jCas.getView(this.goldViewName);
+        return jCas.getView(this.goldViewName);
       } catch (CASException e) {
         throw new AnalysisEngineProcessException(e);
       }
-    } else {
-      identifiedAnnotationView = jCas;
     }
+    return jCas;
+  }
 
-
-//    Map<IdentifiedAnnotation, Collection<Sentence>> coveringSentenceMap = JCasUtil.indexCovering(identifiedAnnotationView, IdentifiedAnnotation.class, Sentence.class);
-//    Map<Sentence, Collection<BaseToken>> tokensCoveredInSentenceMap = JCasUtil.indexCovered(identifiedAnnotationView, Sentence.class, BaseToken.class);
-
-//    Map<IdentifiedAnnotation, Collection<Zone>> coveringZoneMap =
-//        JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Zone.class);
-//    Map<IdentifiedAnnotation, Collection<Sentence>> coveringSents =
-//        JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Sentence.class);
-    
-//    List<Instance<String>> instances = new ArrayList<Instance<String>>();
-    // generate a list of training instances for each sentence in the document
+  /**
+   * @return the entity and event mentions whose attributes are classified
+   */
+  protected static List<IdentifiedAnnotation> selectEntitiesAndEvents(JCas identifiedAnnotationView)
+  {
+    List<IdentifiedAnnotation> entitiesAndEvents = new ArrayList<>();
     Collection<IdentifiedAnnotation> entities = JCasUtil.select(identifiedAnnotationView, IdentifiedAnnotation.class);
     for (IdentifiedAnnotation identifiedAnnotation : entities)
     {
-      if (!(identifiedAnnotation instanceof EntityMention || identifiedAnnotation instanceof EventMention))
+      if (identifiedAnnotation instanceof EntityMention || identifiedAnnotation instanceof EventMention)
       {
-        continue;
+        entitiesAndEvents.add(identifiedAnnotation);
       }
-      IdentifiedAnnotation entityOrEventMention = identifiedAnnotation;
+    }
+    return entitiesAndEvents;
+  }
+
+  /**
+   * Extracts the features that every attribute classifier computes the same way for an entity:
+   * the domain, the token window, the closest cue phrase and the anatomical site type.
+   * Feature values are lowercased as in {@link #classify}.
+   * @param domainFeature domain feature value from {@link #startDocument}, or null
+   * @return the shared features, which are not modified by {@link #classify}
+   */
+  protected List<Feature> extractSharedFeatures(JCas jCas, JCas identifiedAnnotationView,
+      IdentifiedAnnotation entityOrEventMention, String domainFeature) throws AnalysisEngineProcessException
+  {
       if (entityOrEventMention.getPolarity() == -1)
       {
         logger.debug(String.format(" - identified annotation: [%d-%d] polarity %d (%s)",
@@ -411,7 +463,8 @@ public abstract class AssertionCleartkAnalysisEngine extends
           instance.addAll(extractor.extract(identifiedAnnotationView, entityMention));
         }
         */
-      List<Sentence> sents = new ArrayList<>(JCasUtil.selectCovering(jCas, Sentence.class, entityOrEventMention.getBegin(), entityOrEventMention.getEnd()));
+      SpanIndexService spanIndexService = SpanIndexService.getInstance();
+      List<Sentence> sents = spanIndexService.getSpanIndex(jCas, Sentence.class).getCovering(entityOrEventMention.getBegin(), entityOrEventMention.getEnd());
       Sentence coveringSent = null;
       if(sents.size() > 0){
         coveringSent = sents.get(0);
@@ -434,11 +487,12 @@ public abstract class AssertionCleartkAnalysisEngine extends
 //          cuePhraseInWindowExtractor.extract(jCas, entityOrEventMention);
           //cuePhraseInWindowExtractor.extractWithin(jCas, entityMention, firstCoveringSentence);
 //      List<Sentence> sents = new ArrayList<Sentence>(coveringSents.get(entityOrEventMention));
-        List<AssertionCuePhraseAnnotation> cues = JCasUtil.selectCovered(AssertionCuePhraseAnnotation.class, coveringSent);
+        List<AssertionCuePhraseAnnotation> cues = spanIndexService.getSpanIndex(jCas, AssertionCuePhraseAnnotation.class).getCovered(coveringSent);
+        SpanIndex<BaseToken> tokenIndex = spanIndexService.getSpanIndex(jCas, BaseToken.class);
         int closest = Integer.MAX_VALUE;
         AssertionCuePhraseAnnotation closestCue = null;
         for(AssertionCuePhraseAnnotation cue : cues){
-          List<BaseToken> tokens = JCasUtil.selectBetween(BaseToken.class, cue, entityOrEventMention);
+          List<BaseToken> tokens = tokenIndex.getBetween(cue, entityOrEventMention);
           if(tokens.size() < closest){
             closestCue = cue;
             closest = tokens.size();
@@ -483,17 +537,35 @@ public abstract class AssertionCleartkAnalysisEngine extends
     	  instance.add(new Feature("ENTITY_TYPE_DRUG"));
       }
       */
+      lowerCaseValues(instance.getFeatures());
+      return instance.getFeatures();
+  }
+
+  /**
+   * Adds the attribute's own features to the shared features, then classifies the attribute,
+   * or writes the instance during training.
+   * @param sharedFeatures features from {@link #extractSharedFeatures}
+   */
+  protected void classify(JCas jCas, IdentifiedAnnotation entityOrEventMention, List<Feature> sharedFeatures)
+      throws AnalysisEngineProcessException
+  {
+      Instance<String> instance = new Instance<>();
+      instance.addAll(sharedFeatures);
+      List<Feature> attributeFeatures = new ArrayList<>();
       
       // only extract these features if not doing domain adaptation
       if (ffDomainAdaptor==null) {
     	  for (FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors) {
-    		  instance.addAll(extractor.extract(jCas, entityOrEventMention));
+    		  attributeFeatures.addAll(extractor.extract(jCas, entityOrEventMention));
     	  }
       }
 
       for (FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors) {
-        instance.addAll(extractor.extract(jCas, entityOrEventMention));
+        attributeFeatures.addAll(extractor.extract(jCas, entityOrEventMention));
       }
+      // the shared features are already lowercased
+      lowerCaseValues(attributeFeatures);
+      instance.addAll(attributeFeatures);
 
 //      List<Feature> zoneFeatures = extractZoneFeatures(coveringZoneMap, entityOrEventMention);
 //      if (zoneFeatures != null && !zoneFeatures.isEmpty())
@@ -502,15 +574,6 @@ public abstract class AssertionCleartkAnalysisEngine extends
 //      }
 
       List<Feature> feats = instance.getFeatures();
-//      List<Feature> lcFeats = new ArrayList<Feature>();
-      
-      for(Feature feat : feats){
-    	  if(feat instanceof TreeFeature || (feat.getName() != null && (feat.getName().startsWith("TreeFrag") || feat.getName().startsWith("WORD") || feat.getName().startsWith("NEG")))) continue;
-    	  if(feat.getName() != null && (feat.getName().contains("_TreeFrag") || feat.getName().contains("_WORD") || feat.getName().contains("_NEG"))) continue;
-    	  if(feat.getValue() instanceof String){
-    		  feat.setValue(((String)feat.getValue()).toLowerCase());
-    	  }
-      }
 
       if (!fileToDomain.isEmpty() && ffDomainAdaptor!=null) {
     	  for (FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors) {
@@ -536,8 +599,56 @@ public abstract class AssertionCleartkAnalysisEngine extends
     	    }
     	  }
       }
+  }
+
+  /**
+   * Names the features that {@link #extractSharedFeatures} extracts with the current configuration.
+   * Engines with the same id extract the same shared features for an entity.
+   * Subclasses that override {@link #extractSharedFeatures} must override this as well.
+   * Call after {@link #startDocument}.
+   * @return the id of the shared feature set, or null if the shared features are particular to this engine:
+   * with domain adaptation, or with token extractors other than the token window of {@link #initialize}
+   */
+  protected String getSharedFeatureSetId()
+  {
+    if (ffDomainAdaptor != null)
+    {
+      return null;
     }
-    
+    if (tokenCleartkExtractors.isEmpty())
+    {
+      return SHARED_FEATURES_NO_TOKENS;
+    }
+    if (tokenCleartkExtractors.size() == 1 && tokenCleartkExtractors.get(0) == tokenWindowExtractor)
+    {
+      return SHARED_FEATURES_TOKEN_WINDOW;
+    }
+    return null;
+  }
+
+  /**
+   * Call after {@link #startDocument} on both engines.
+   * @return true if the engines extract the same shared features for an entity of the document
+   * @see #getSharedFeatureSetId()
+   */
+  protected boolean sharesFeaturesWith(AssertionCleartkAnalysisEngine other)
+  {
+    String featureSetId = getSharedFeatureSetId();
+    return featureSetId != null && featureSetId.equals(other.getSharedFeatureSetId());
+  }
+
+  /**
+   * Lowercases string values, except those of tree fragment, word and negation features.
+   */
+  protected static void lowerCaseValues(List<Feature> feats)
+  {
+      for(Feature feat : feats){
+    	  if(feat instanceof TreeFeature || (feat.getName() != null && (feat.getName().startsWith("TreeFrag") || feat.getName().startsWith("WORD") || feat.getName().startsWith("NEG")))) continue;
+    	  if(feat.getName() != null && (feat.getName().contains("_TreeFrag") || feat.getName().contains("_WORD") || feat.getName().contains("_NEG"))) continue;
+    	  if(feat.getValue() instanceof String){
+    		  feat.setValue(((String)feat.getValue()).toLowerCase());
+    	  }
+      }
   }
 
   /*
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.assertion.medfacts.cleartk.AssertionCleartkAnalysisEngine.FEATURE_CONFIG;
+import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.index.SpanIndexService;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.log4j.Logger;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.UimaContextFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.jar.GenericJarClassifierFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assigns polarity, uncertainty, history, conditional, generic and subject attributes with the cleartk models
+ * of the six attribute engines, extracting the features that they share once per entity.
+ * <p>
+ * Each attribute engine extracts the same token window, closest cue phrase and anatomical site features
+ * before adding its own.  This engine extracts those shared features once for each entity and gives them to
+ * every attribute engine, which extracts only its own features.  The attributes are classified in the order
+ * of the attribute sub pipeline, one attribute for all entities before the next,
+ * so every attribute is assigned the value that the separate engines assign.
+ * </p>
+ * The model and feature configuration of each attribute can be set with the engine's parameters,
+ * which default to those of the separate engines' createAnnotatorDescription methods.
+ * This engine only classifies.  Train with the separate attribute engines.
+ */
+@PipeBitInfo(
+      name = "Attribute Annotator (ClearTK)",
+      description = "Annotates negation, uncertainty, history, conditional, generic and subject properties.",
+      role = PipeBitInfo.Role.ANNOTATOR,
+      dependencies = { PipeBitInfo.TypeProduct.SENTENCE, PipeBitInfo.TypeProduct.IDENTIFIED_ANNOTATION }
+)
+final public class CombinedAttributeCleartkAnalysisEngine extends JCasAnnotator_ImplBase {
+
+   static private final Logger LOGGER = Logger.getLogger( "CombinedAttributeCleartkAnalysisEngine" );
+
+   static public final String POLARITY_MODEL_PARAM = "PolarityModel";
+   static public final String UNCERTAINTY_MODEL_PARAM = "UncertaintyModel";
+   static public final String HISTORY_MODEL_PARAM = "HistoryModel";
+   static public final String CONDITIONAL_MODEL_PARAM = "ConditionalModel";
+   static public final String GENERIC_MODEL_PARAM = "GenericModel";
+   static public final String SUBJECT_MODEL_PARAM = "SubjectModel";
+   static public final String POLARITY_FEATURES_PARAM = "PolarityFeatures";
+   static public final String UNCERTAINTY_FEATURES_PARAM = "UncertaintyFeatures";
+   static public final String HISTORY_FEATURES_PARAM = "HistoryFeatures";
+   static public final String CONDITIONAL_FEATURES_PARAM = "ConditionalFeatures";
+   static public final String GENERIC_FEATURES_PARAM = "GenericFeatures";
+   static public final String SUBJECT_FEATURES_PARAM = "SubjectFeatures";
+
+   @ConfigurationParameter(
+         name = POLARITY_MODEL_PARAM,
+         description = "Path to the polarity model jar",
+         defaultValue = "/org/apache/ctakes/assertion/models/polarity/sharpi2b2mipacqnegex/model.jar" )
+   private String _polarityModel;
+
+   @ConfigurationParameter(
+         name = UNCERTAINTY_MODEL_PARAM,
+         description = "Path to the uncertainty model jar",
+         defaultValue = "/org/apache/ctakes/assertion/models/uncertainty/model.jar" )
+   private String _uncertaintyModel;
+
+   @ConfigurationParameter(
+         name = HISTORY_MODEL_PARAM,
+         description = "Path to the history of model jar",
+         defaultValue = "/org/apache/ctakes/assertion/models/historyOf/model.jar" )
+   private String _historyModel;
+
+   @ConfigurationParameter(
+         name = CONDITIONAL_MODEL_PARAM,
+         description = "Path to the conditional model jar",
+         defaultValue = "/org/apache/ctakes/assertion/models/conditional/model.jar" )
+   private String _conditionalModel;
+
+   @ConfigurationParameter(
+         name = GENERIC_MODEL_PARAM,
+         description = "Path to the generic model jar",
+         defaultValue = "/org/apache/ctakes/assertion/models/generic/model.jar" )
+   private String _genericModel;
+
+   @ConfigurationParameter(
+         name = SUBJECT_MODEL_PARAM,
+         description = "Path to the subject model jar",
+         defaultValue = "/org/apache/ctakes/assertion/models/subject/model.jar" )
+   private String _subjectModel;
+
+   @ConfigurationParameter(
+         name = POLARITY_FEATURES_PARAM,
+         description = "Feature configuration of the polarity model",
+         defaultValue = "ALL_SYN" )
+   private FEATURE_CONFIG _polarityFeatures;
+
+   @ConfigurationParameter(
+         name = UNCERTAINTY_FEATURES_PARAM,
+         description = "Feature configuration of the uncertainty model",
+         defaultValue = "ALL_SYN" )
+   private FEATURE_CONFIG _uncertaintyFeatures;
+
+   @ConfigurationParameter(
+         name = HISTORY_FEATURES_PARAM,
+         description = "Feature configuration of the history of model",
+         defaultValue = "ALL_SYN" )
+   private FEATURE_CONFIG _historyFeatures;
+
+   @ConfigurationParameter(
+         name = CONDITIONAL_FEATURES_PARAM,
+         description = "Feature configuration of the conditional model",
+         defaultValue = "ALL_SYN" )
+   private FEATURE_CONFIG _conditionalFeatures;
+
+   @ConfigurationParameter(
+         name = GENERIC_FEATURES_PARAM,
+         description = "Feature configuration of the generic model",
+         defaultValue = "ALL_SYN" )
+   private FEATURE_CONFIG _genericFeatures;
+
+   @ConfigurationParameter(
+         name = SUBJECT_FEATURES_PARAM,
+         description = "Feature configuration of the subject model",
+         defaultValue = "DEP_REGEX" )
+   private FEATURE_CONFIG _subjectFeatures;
+
+   private final List<AssertionCleartkAnalysisEngine> _engines = new ArrayList<>();
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      _engines.add( createEngine( new PolarityCleartkAnalysisEngine(), _polarityModel, _polarityFeatures ) );
+      _engines.add( createEngine( new UncertaintyCleartkAnalysisEngine(), _uncertaintyModel, _uncertaintyFeatures ) );
+      _engines.add( createEngine( new HistoryCleartkAnalysisEngine(), _historyModel, _historyFeatures ) );
+      _engines.add( createEngine( new ConditionalCleartkAnalysisEngine(), _conditionalModel, _conditionalFeatures ) );
+      _engines.add( createEngine( new GenericCleartkAnalysisEngine(), _genericModel, _genericFeatures ) );
+      _engines.add( createEngine( new SubjectCleartkAnalysisEngine(), _subjectModel, _subjectFeatures ) );
+   }
+
+   /**
+    * @param engine        new attribute engine
+    * @param modelPath     path to the engine's model jar
+    * @param featureConfig feature configuration
+    * @return the engine, initialized to classify
+    */
+   static private AssertionCleartkAnalysisEngine createEngine( final AssertionCleartkAnalysisEngine engine,
+                                                               final String modelPath,
+                                                               final FEATURE_CONFIG featureConfig )
+         throws ResourceInitializationException {
+      engine.initialize( UimaContextFactory.createUimaContext(
+            GenericJarClassifierFactory.PARAM_CLASSIFIER_JAR_PATH, modelPath,
+            AssertionCleartkAnalysisEngine.PARAM_FEATURE_CONFIG, featureConfig.name() ) );
+      return engine;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      SpanIndexService.getInstance().invalidate( jCas );
+      final List<IdentifiedAnnotation> entities = AssertionCleartkAnalysisEngine.selectEntitiesAndEvents( jCas );
+      final List<List<List<Feature>>> sharedFeatures = extractSharedFeatures( jCas, entities );
+      for ( int i = 0; i < _engines.size(); i++ ) {
+         final AssertionCleartkAnalysisEngine engine = _engines.get( i );
+         final List<List<Feature>> engineFeatures = sharedFeatures.get( i );
+         for ( int j = 0; j < entities.size(); j++ ) {
+            engine.classify( jCas, entities.get( j ), engineFeatures.get( j ) );
+         }
+      }
+   }
+
+   /**
+    * Starts the document for every engine and extracts the shared features.
+    *
+    * @param jCas     -
+    * @param entities entities and events of the document
+    * @return for each engine in attribute order, the shared features of each entity
+    */
+   List<List<List<Feature>>> extractSharedFeatures( final JCas jCas, final List<IdentifiedAnnotation> entities )
+         throws AnalysisEngineProcessException {
+      final int engineCount = _engines.size();
+      final String[] domainFeatures = new String[ engineCount ];
+      final List<List<List<Feature>>> sharedFeatures = new ArrayList<>( engineCount );
+      for ( int i = 0; i < engineCount; i++ ) {
+         domainFeatures[ i ] = _engines.get( i ).startDocument( jCas );
+         sharedFeatures.add( getSharedFeatures( jCas, entities, i, domainFeatures, sharedFeatures ) );
+      }
+      return sharedFeatures;
+   }
+
+   /**
+    * @return the attribute engines, in attribute order
+    */
+   List<AssertionCleartkAnalysisEngine> getEngines() {
+      return _engines;
+   }
+
+   /**
+    * @return the shared features of an earlier engine that shares them with the engine at the index,
+    * otherwise the engine's own shared features
+    */
+   private List<List<Feature>> getSharedFeatures( final JCas jCas, final List<IdentifiedAnnotation> entities,
+                                                  final int index, final String[] domainFeatures,
+                                                  final List<List<List<Feature>>> sharedFeatures )
+         throws AnalysisEngineProcessException {
+      final AssertionCleartkAnalysisEngine engine = _engines.get( index );
+      for ( int i = 0; i < index; i++ ) {
+         if ( engine.sharesFeaturesWith( _engines.get( i ) )
+              && Objects.equals( domainFeatures[ index ], domainFeatures[ i ] ) ) {
+            return sharedFeatures.get( i );
+         }
+      }
+      LOGGER.debug( "Extracting shared features for " + engine.getClass().getSimpleName() );
+      final List<List<Feature>> features = new ArrayList<>( entities.size() );
+      for ( IdentifiedAnnotation entity : entities ) {
+         features.add( engine.extractSharedFeatures( jCas, jCas, entity, domainFeatures[ index ] ) );
+      }
+      return features;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      for ( AssertionCleartkAnalysisEngine engine : _engines ) {
+         engine.collectionProcessComplete();
+      }
+   }
+
+   /**
+    * @return description with the default models
+    * @throws ResourceInitializationException -
+    */
+   static public AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription( CombinedAttributeCleartkAnalysisEngine.class );
+   }
+
+   /**
+    * @param parameters parameter names and values, for instance {@link #POLARITY_MODEL_PARAM} and a model path
+    * @return description with the given models and feature configurations, defaults for the others
+    * @throws ResourceInitializationException -
+    */
+   static public AnalysisEngineDescription createAnnotatorDescription( final Object... parameters )
+         throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription( CombinedAttributeCleartkAnalysisEngine.class, parameters );
+   }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.typesystem.type.constants.CONST;
+import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.EntityMention;
+import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.factory.UimaContextFactory;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Feature;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CombinedAttributeCleartkAnalysisEngineTest {
+
+   static private final String[] SENTENCES = {
+         "The patient denies chest pain and has no history of asthma .",
+         "Her mother had breast cancer , possible fracture of the left knee .",
+         "If the fever returns she should take aspirin for the headache ." };
+
+   // cue phrases as word index, family and category in each sentence
+   static private final String[][] CUES = {
+         { "2", "negation", "negationVerb", "6", "negation", "negationDeterminer" },
+         { "1", "subject", "familyMember", "6", "uncertainty", "uncertaintyAdj" },
+         { "0", "conditional", "conditionalWord" } };
+
+   // entity word spans as first and last word index, anatomical sites marked by a site flag
+   static private final int[][] ENTITIES = {
+         { 3, 4, 0, 9, 9, 0, 3, 3, 1 },
+         { 3, 4, 0, 7, 7, 0, 10, 11, 1 },
+         { 2, 2, 0, 7, 7, 0, 10, 10, 0 } };
+
+   @Test
+   public void testCombinedFeaturesMatchSeparateFeatures() throws Exception {
+      final JCas jCas = createNote();
+      final List<IdentifiedAnnotation> entities = AssertionCleartkAnalysisEngine.selectEntitiesAndEvents( jCas );
+      final CombinedAttributeCleartkAnalysisEngine combined = createCombinedEngine();
+      final List<List<List<Feature>>> sharedFeatures = combined.extractSharedFeatures( jCas, entities );
+      final List<AssertionCleartkAnalysisEngine> engines = combined.getEngines();
+      assertEquals( 6, engines.size() );
+      // by default every engine uses the token window, so all reuse the features of the polarity engine
+      for ( int i = 1; i < engines.size(); i++ ) {
+         assertTrue( engines.get( i ).sharesFeaturesWith( engines.get( 0 ) ) );
+         assertTrue( sharedFeatures.get( i ) == sharedFeatures.get( 0 ) );
+      }
+      for ( int i = 0; i < engines.size(); i++ ) {
+         final AssertionCleartkAnalysisEngine engine = engines.get( i );
+         final String domainFeature = engine.startDocument( jCas );
+         for ( int j = 0; j < entities.size(); j++ ) {
+            assertEquals( engine.extractSharedFeatures( jCas, jCas, entities.get( j ), domainFeature ),
+                  sharedFeatures.get( i ).get( j ) );
+         }
+      }
+   }
+
+   @Test
+   public void testDifferentFeatureSetsAreNotShared() throws Exception {
+      final JCas jCas = createNote();
+      final List<IdentifiedAnnotation> entities = AssertionCleartkAnalysisEngine.selectEntitiesAndEvents( jCas );
+      final CombinedAttributeCleartkAnalysisEngine combined = createCombinedEngine(
+            CombinedAttributeCleartkAnalysisEngine.POLARITY_FEATURES_PARAM, "NO_TOK" );
+      final List<List<List<Feature>>> sharedFeatures = combined.extractSharedFeatures( jCas, entities );
+      final List<AssertionCleartkAnalysisEngine> engines = combined.getEngines();
+      assertFalse( engines.get( 1 ).sharesFeaturesWith( engines.get( 0 ) ) );
+      assertTrue( engines.get( 2 ).sharesFeaturesWith( engines.get( 1 ) ) );
+      assertTrue( sharedFeatures.get( 1 ) != sharedFeatures.get( 0 ) );
+      for ( int i = 0; i < engines.size(); i++ ) {
+         final AssertionCleartkAnalysisEngine engine = engines.get( i );
+         final String domainFeature = engine.startDocument( jCas );
+         for ( int j = 0; j < entities.size(); j++ ) {
+            assertEquals( engine.extractSharedFeatures( jCas, jCas, entities.get( j ), domainFeature ),
+                  sharedFeatures.get( i ).get( j ) );
+         }
+      }
+      assertTrue( sharedFeatures.get( 0 ).get( 0 ).size() < sharedFeatures.get( 1 ).get( 0 ).size() );
+   }
+
+   @Test
+   public void testCombinedAttributesMatchSeparateAttributes() throws Exception {
+      final JCas separateCas = createNote();
+      SimplePipeline.runPipeline( separateCas,
+            PolarityCleartkAnalysisEngine.createAnnotatorDescription(),
+            UncertaintyCleartkAnalysisEngine.createAnnotatorDescription(),
+            HistoryCleartkAnalysisEngine.createAnnotatorDescription(),
+            ConditionalCleartkAnalysisEngine.createAnnotatorDescription(),
+            GenericCleartkAnalysisEngine.createAnnotatorDescription(),
+            SubjectCleartkAnalysisEngine.createAnnotatorDescription() );
+      final JCas combinedCas = createNote();
+      final AnalysisEngine combined
+            = AnalysisEngineFactory.createEngine( CombinedAttributeCleartkAnalysisEngine.createAnnotatorDescription() );
+      combined.process( combinedCas );
+      combined.collectionProcessComplete();
+
+      final List<IdentifiedAnnotation> separate = AssertionCleartkAnalysisEngine.selectEntitiesAndEvents( separateCas );
+      final List<IdentifiedAnnotation> together = AssertionCleartkAnalysisEngine.selectEntitiesAndEvents( combinedCas );
+      assertEquals( separate.size(), together.size() );
+      for ( int i = 0; i < separate.size(); i++ ) {
+         final IdentifiedAnnotation expected = separate.get( i );
+         final IdentifiedAnnotation actual = together.get( i );
+         assertEquals( expected.getCoveredText(), actual.getCoveredText() );
+         assertEquals( expected.getPolarity(), actual.getPolarity() );
+         assertEquals( expected.getUncertainty(), actual.getUncertainty() );
+         assertEquals( expected.getHistoryOf(), actual.getHistoryOf() );
+         assertEquals( expected.getConditional(), actual.getConditional() );
+         assertEquals( expected.getGeneric(), actual.getGeneric() );
+         assertEquals( expected.getSubject(), actual.getSubject() );
+      }
+   }
+
+   static private CombinedAttributeCleartkAnalysisEngine createCombinedEngine( final Object... parameters )
+         throws Exception {
+      final CombinedAttributeCleartkAnalysisEngine combined = new CombinedAttributeCleartkAnalysisEngine();
+      combined.initialize( UimaContextFactory.createUimaContext( parameters ) );
+      return combined;
+   }
+
+   /**
+    * @return cas with sentences, tokens, a dependency chain in each sentence, cue phrases, entities and events
+    */
+   static private JCas createNote() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      final StringBuilder text = new StringBuilder();
+      final List<int[]> sentenceWords = new ArrayList<>();
+      for ( String sentence : SENTENCES ) {
+         final String[] words = sentence.split( " " );
+         final int[] offsets = new int[ words.length * 2 ];
+         for ( int i = 0; i < words.length; i++ ) {
+            offsets[ i * 2 ] = text.length();
+            text.append( words[ i ] );
+            offsets[ i * 2 + 1 ] = text.length();
+            text.append( ' ' );
+         }
+         sentenceWords.add( offsets );
+      }
+      jCas.setDocumentText( text.toString() );
+      for ( int s = 0; s < SENTENCES.length; s++ ) {
+         final int[] offsets = sentenceWords.get( s );
+         final int wordCount = offsets.length / 2;
+         new Sentence( jCas, offsets[ 0 ], offsets[ offsets.length - 1 ] ).addToIndexes();
+         final ConllDependencyNode root = new ConllDependencyNode( jCas, offsets[ 0 ], offsets[ offsets.length - 1 ] );
+         root.setId( 0 );
+         root.addToIndexes();
+         ConllDependencyNode head = root;
+         for ( int i = 0; i < wordCount; i++ ) {
+            final int begin = offsets[ i * 2 ];
+            final int end = offsets[ i * 2 + 1 ];
+            final String word = jCas.getDocumentText().substring( begin, end );
+            final String pos = Character.isLetter( word.charAt( 0 ) ) ? "NN" : word;
+            final WordToken token = new WordToken( jCas, begin, end );
+            token.setPartOfSpeech( pos );
+            token.setTokenNumber( i );
+            token.addToIndexes();
+            final ConllDependencyNode node = new ConllDependencyNode( jCas, begin, end );
+            node.setId( i + 1 );
+            node.setForm( word );
+            node.setLemma( word.toLowerCase() );
+            node.setPostag( pos );
+            node.setHead( head );
+            node.setDeprel( head == root ? "root" : "dep" );
+            node.addToIndexes();
+            head = node;
+         }
+         final String[] cues = CUES[ s ];
+         for ( int c = 0; c < cues.length; c += 3 ) {
+            final int word = Integer.parseInt( cues[ c ] );
+            final AssertionCuePhraseAnnotation cue
+                  = new AssertionCuePhraseAnnotation( jCas, offsets[ word * 2 ], offsets[ word * 2 + 1 ] );
+            cue.setCuePhrase( cue.getCoveredText() );
+            cue.setCuePhraseAssertionFamily( cues[ c + 1 ] );
+            cue.setCuePhraseCategory( cues[ c + 2 ] );
+            cue.addToIndexes();
+         }
+         final int[] entities = ENTITIES[ s ];
+         for ( int e = 0; e < entities.length; e += 3 ) {
+            final int begin = offsets[ entities[ e ] * 2 ];
+            final int end = offsets[ entities[ e + 1 ] * 2 + 1 ];
+            final IdentifiedAnnotation entity;
+            if ( entities[ e + 2 ] == 1 ) {
+               entity = new EntityMention( jCas, begin, end );
+               entity.setTypeID( CONST.NE_TYPE_ID_ANATOMICAL_SITE );
+            } else if ( e == 0 ) {
+               entity = new EventMention( jCas, begin, end );
+               entity.setTypeID( CONST.NE_TYPE_ID_FINDING );
+            } else {
+               entity = new EntityMention( jCas, begin, end );
+               entity.setTypeID( CONST.NE_TYPE_ID_DISORDER );
+            }
+            entity.addToIndexes();
+         }
+      }
+      return jCas;
+   }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser;
+
+import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.ParserModel;
+import opennlp.tools.parser.chunking.Parser;
+
+/**
+ * OpenNLP chunking parser that gives up on a sentence once a deadline has passed.
+ * The deadline is checked before every tagging, chunking and building step of the beam search,
+ * so a parse is abandoned shortly after its time is up instead of running to completion.
+ * Without a deadline the parses are exactly those of the plain opennlp parser.
+ * <p>
+ * Like the opennlp parser, an instance is not thread safe.  Instances can share a {@link ParserModel}.
+ * </p>
+ */
+final public class BudgetedParser extends Parser {
+
+   static public final long NO_DEADLINE = Long.MAX_VALUE;
+
+   private long _deadline = NO_DEADLINE;
+
+   /**
+    * @param model parser model, which may be shared with other parsers
+    */
+   public BudgetedParser( final ParserModel model ) {
+      super( model, AbstractBottomUpParser.defaultBeamSize, AbstractBottomUpParser.defaultAdvancePercentage );
+   }
+
+   /**
+    * @param tokens   sentence tokens, as from
+    *                 {@link org.apache.ctakes.constituency.parser.util.TreeUtils#ctakesTokensToOpennlpTokens}
+    * @param deadline {@link System#nanoTime()} after which to give up, or {@link #NO_DEADLINE}
+    * @return the best parse of the sentence
+    * @throws BudgetExceededException if the deadline passes before the parse is complete
+    */
+   public Parse parse( final Parse tokens, final long deadline ) throws BudgetExceededException {
+      _deadline = deadline;
+      try {
+         return parse( tokens );
+      } finally {
+         _deadline = NO_DEADLINE;
+      }
+   }
+
+   @Override
+   protected Parse[] advanceTags( final Parse p ) {
+      checkDeadline();
+      return super.advanceTags( p );
+   }
+
+   @Override
+   protected Parse[] advanceChunks( final Parse p, final double minChunkScore ) {
+      checkDeadline();
+      return super.advanceChunks( p, minChunkScore );
+   }
+
+   @Override
+   protected Parse[] advanceParses( final Parse p, final double probMass ) {
+      checkDeadline();
+      return super.advanceParses( p, probMass );
+   }
+
+   private void checkDeadline() {
+      if ( _deadline != NO_DEADLINE && System.nanoTime() - _deadline > 0 ) {
+         throw new BudgetExceededException();
+      }
+   }
+
+   /**
+    * Thrown when a sentence parse runs past its deadline.
+    */
+   static public final class BudgetExceededException extends RuntimeException {
+      BudgetExceededException() {
+         super( "Parse time budget exceeded", null, false, false );
+      }
+   }
+
+}
@@ -18,13 +18,16 @@
  */
 package org.apache.ctakes.constituency.parser;
 
-import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.Parse;
 import opennlp.tools.parser.ParserModel;
-import opennlp.tools.parser.chunking.Parser;
+import org.apache.ctakes.constituency.parser.BudgetedParser.BudgetExceededException;
+import org.apache.ctakes.constituency.parser.ParseStatistics.ParsePath;
 import org.apache.ctakes.constituency.parser.util.TreeUtils;
 import org.apache.ctakes.core.util.DocumentIDAnnotationUtil;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.Chunk;
+import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
+import org.apache.ctakes.typesystem.type.syntax.TerminalTreebankNode;
 import org.apache.ctakes.typesystem.type.syntax.TopTreebankNode;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
 import org.apache.log4j.Logger;
@@ -38,24 +41,116 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Parses sentences with the opennlp chunking parser.
+ * <p>
+ * Each thread parses with its own {@link BudgetedParser} over a shared model.
+ * Sentences can optionally be parsed in parallel, longest first so that a long sentence does not start last,
+ * and within per-sentence and per-document time budgets.  A sentence that runs out of time gets a shallow tree
+ * built from its part of speech tags and any chunks instead of holding up the document.
+ * Counts of the path taken by each sentence are kept in {@link #getParseStatistics()}.
+ * </p>
+ */
 public class MaxentParserWrapper implements ParserWrapper {
 
-	Parser parser = null;
 	private String parseStr = "";
 	Logger logger = Logger.getLogger(this.getClass().getName());
+	private final ParseCache parseCache;
+	private final ParseStatistics parseStatistics = new ParseStatistics();
+	private final ThreadLocal<SentenceParser> threadParser;
+	private final ForkJoinPool sentencePool;
+	private final long sentenceBudget;
+	private final long documentBudget;
 
 
 	public MaxentParserWrapper(InputStream is){
+		this( is, 0 );
+	}
+
+	/**
+	 * @param is        parser model stream
+	 * @param cacheSize maximum number of sentence parses to cache, 0 for no cache
+	 */
+	public MaxentParserWrapper(InputStream is, int cacheSize){
+		this( is, cacheSize, 1, 0, 0 );
+	}
+
+	/**
+	 * @param is                   parser model stream
+	 * @param cacheSize            maximum number of sentence parses to cache, 0 for no cache
+	 * @param sentenceThreads      number of threads used to parse the sentences of a document
+	 * @param sentenceBudgetMillis time allowed for the parse of a single sentence, 0 for no limit
+	 * @param documentBudgetMillis time allowed for the parse of all sentences in a document, 0 for no limit
+	 */
+	public MaxentParserWrapper( InputStream is, int cacheSize, int sentenceThreads,
+										 long sentenceBudgetMillis, long documentBudgetMillis ) {
+		this( createParserFactory( is ), cacheSize, sentenceThreads, sentenceBudgetMillis, documentBudgetMillis );
+	}
+
+	/**
+	 * @param parserFactory        creates the sentence parser of each parsing thread
+	 * @param cacheSize            maximum number of sentence parses to cache, 0 for no cache
+	 * @param sentenceThreads      number of threads used to parse the sentences of a document
+	 * @param sentenceBudgetMillis time allowed for the parse of a single sentence, 0 for no limit
+	 * @param documentBudgetMillis time allowed for the parse of all sentences in a document, 0 for no limit
+	 */
+	MaxentParserWrapper( Supplier<SentenceParser> parserFactory, int cacheSize, int sentenceThreads,
+								long sentenceBudgetMillis, long documentBudgetMillis ) {
+		threadParser = ThreadLocal.withInitial( parserFactory );
+		parseCache = cacheSize > 0 ? new ParseCache( cacheSize ) : null;
+		sentencePool = sentenceThreads > 1 ? new ForkJoinPool( sentenceThreads ) : null;
+		sentenceBudget = TimeUnit.MILLISECONDS.toNanos( Math.max( 0, sentenceBudgetMillis ) );
+		documentBudget = TimeUnit.MILLISECONDS.toNanos( Math.max( 0, documentBudgetMillis ) );
+	}
+
+	/**
+	 * @param is parser model stream
+	 * @return a factory of {@link BudgetedParser}s over the model read from the stream
+	 */
+	static private Supplier<SentenceParser> createParserFactory( final InputStream is ) {
+		ParserModel model = null;
 		try {
 			if (is!=null) {
-				ParserModel model = new ParserModel(is);
-				parser = new Parser(model, AbstractBottomUpParser.defaultBeamSize, AbstractBottomUpParser.defaultAdvancePercentage);
+				model = new ParserModel(is);
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		final ParserModel sharedModel = model;
+		return () -> new BudgetedParser( sharedModel )::parse;
+	}
+
+	/**
+	 * @return the sentence parse cache, or null if parses are not cached
+	 */
+	public ParseCache getParseCache() {
+		return parseCache;
+	}
+
+	/**
+	 * @return counts of the way in which sentences were given trees
+	 */
+	public ParseStatistics getParseStatistics() {
+		return parseStatistics;
+	}
+
+	/**
+	 * Stops the sentence threads, if any.
+	 */
+	public void close() {
+		if ( sentencePool != null ) {
+			sentencePool.shutdown();
+		}
 	}
 
 	@Override
@@ -74,32 +169,180 @@ public class MaxentParserWrapper implements ParserWrapper {
    public void createAnnotations( final JCas jcas ) throws AnalysisEngineProcessException {
       final String docId = DocumentIDAnnotationUtil.getDocumentID( jcas );
       logger.info( "Started processing: " + docId );
-      // iterate over sentences
-		Parse parse = null;
-//      final Collection<Sentence> allSentences = org.apache.uima.fit.util.JCasUtil.select( jcas, Sentence.class );
-//      for ( Sentence sentence : allSentences ) {
+      final long documentDeadline = documentBudget > 0
+                                    ? System.nanoTime() + documentBudget
+                                    : BudgetedParser.NO_DEADLINE;
+      // Gather everything that needs the cas on this thread, the parser itself does not touch the cas.
+      final List<SentenceJob> jobs = new ArrayList<>();
       final Map<Sentence, Collection<BaseToken>> sentenceTokenMap = JCasUtil.indexCovered( jcas, Sentence.class, BaseToken.class );
       for ( Map.Entry<Sentence, Collection<BaseToken>> sentenceTokens : sentenceTokenMap.entrySet() ) {
          final Sentence sentence = sentenceTokens.getKey();
          final String text = sentence.getCoveredText();
          if ( text.isEmpty() || isBorderOnly( text ) ) {
+            parseStatistics.increment( ParsePath.SKIPPED );
             continue;
          }
-//         final FSArray terminalArray = TreeUtils.getTerminals( jcas, sentence );
-         final FSArray terminalArray = TreeUtils.getTerminals( jcas, new ArrayList<>( sentenceTokens.getValue() ) );
-         final String tokenString = TreeUtils.getSplitSentence( terminalArray );
-         if ( tokenString.isEmpty() ) {
-            parse = null;
-         } else {
-            final Parse inputTokens = TreeUtils.ctakesTokensToOpennlpTokens( sentence.getBegin(), text, terminalArray );
-            parse = parser.parse( inputTokens );
+         final List<BaseToken> tokens = new ArrayList<>( sentenceTokens.getValue() );
+         final FSArray terminalArray = TreeUtils.getTerminals( jcas, tokens );
+         jobs.add( new SentenceJob( sentence, text, tokens, terminalArray ) );
+      }
+      parseJobs( jobs, documentDeadline );
+      for ( SentenceJob job : jobs ) {
+         parseStatistics.increment( job._path );
+         Parse parse = job._parse;
+         if ( job._path == ParsePath.SENTENCE_BUDGET || job._path == ParsePath.DOCUMENT_BUDGET ) {
+            logger.warn( "Parse time budget exceeded, using a shallow tree for sentence at "
+                         + job._sentence.getBegin() + " in " + docId );
+            parse = createShallowParse( jcas, job );
          }
-         final TopTreebankNode top = TreeUtils.buildAlignedTree( jcas, parse, terminalArray, sentence );
+         final TopTreebankNode top = TreeUtils.buildAlignedTree( jcas, parse, job._terminalArray, job._sentence );
          top.addToIndexes();
 		}
       logger.info( "Done parsing: " + docId );
    }
 
+   /**
+    * Parses sentences on the sentence threads if there are any, or on this thread.
+    *
+    * @param jobs             sentences to parse
+    * @param documentDeadline nano time after which no more parsing should be done
+    * @throws AnalysisEngineProcessException if a parse thread fails
+    */
+   private void parseJobs( final List<SentenceJob> jobs, final long documentDeadline )
+         throws AnalysisEngineProcessException {
+      if ( sentencePool == null || jobs.size() < 2 ) {
+         for ( SentenceJob job : jobs ) {
+            job.parse( documentDeadline );
+         }
+         return;
+      }
+      // Longest first, so that the slowest sentences are not left to run alone at the end.
+      final List<SentenceJob> longestFirst = new ArrayList<>( jobs );
+      longestFirst.sort( Comparator.comparingInt( SentenceJob::getTokenCount ).reversed() );
+      final List<Callable<Void>> tasks = new ArrayList<>( longestFirst.size() );
+      for ( SentenceJob job : longestFirst ) {
+         tasks.add( () -> {
+            job.parse( documentDeadline );
+            return null;
+         } );
+      }
+      try {
+         for ( Future<Void> future : sentencePool.invokeAll( tasks ) ) {
+            future.get();
+         }
+      } catch ( InterruptedException | ExecutionException e ) {
+         throw new AnalysisEngineProcessException( e );
+      }
+   }
+
+   /**
+    * @param jcas ye olde ...
+    * @param job  sentence that was not parsed in time
+    * @return a flat tree, or a tree of chunks if the cas has chunks for the sentence
+    */
+   static private Parse createShallowParse( final JCas jcas, final SentenceJob job ) {
+      final List<String> tags = new ArrayList<>( job._tokens.size() );
+      for ( BaseToken token : job._tokens ) {
+         if ( !(token instanceof NewlineToken) ) {
+            tags.add( token.getPartOfSpeech() );
+         }
+      }
+      final List<Chunk> chunks = JCasUtil.selectCovered( jcas, Chunk.class, job._sentence );
+      return TreeUtils.createShallowParse( job._sentence.getBegin(), job._text, job._terminalArray,
+            tags.toArray( new String[ tags.size() ] ), chunks );
+   }
+
+   /**
+    * A sentence to parse and, once parsed, the parse and the path that was taken.
+    */
+   private final class SentenceJob {
+      private final Sentence _sentence;
+      private final String _text;
+      private final List<BaseToken> _tokens;
+      private final FSArray _terminalArray;
+      private final Parse _inputTokens;
+      private final int[] _tokenBegins;
+      private final int[] _tokenEnds;
+      private Parse _parse;
+      private ParsePath _path = ParsePath.SKIPPED;
+
+      private SentenceJob( final Sentence sentence, final String text, final List<BaseToken> tokens,
+                           final FSArray terminalArray ) {
+         _sentence = sentence;
+         _text = text;
+         _tokens = tokens;
+         _terminalArray = terminalArray;
+         final int sentenceOffset = sentence.getBegin();
+         if ( TreeUtils.getSplitSentence( terminalArray ).isEmpty() ) {
+            _inputTokens = null;
+            _tokenBegins = null;
+            _tokenEnds = null;
+            return;
+         }
+         _inputTokens = TreeUtils.ctakesTokensToOpennlpTokens( sentenceOffset, text, terminalArray );
+         final int tokenCount = terminalArray.size();
+         _tokenBegins = new int[ tokenCount ];
+         _tokenEnds = new int[ tokenCount ];
+         for ( int i = 0; i < tokenCount; i++ ) {
+            final TerminalTreebankNode token = (TerminalTreebankNode)terminalArray.get( i );
+            _tokenBegins[ i ] = token.getBegin() - sentenceOffset;
+            _tokenEnds[ i ] = token.getEnd() - sentenceOffset;
+         }
+      }
+
+      private int getTokenCount() {
+         return _tokenBegins == null ? 0 : _tokenBegins.length;
+      }
+
+      /**
+       * Sets the parse and path.  Cache hits do not need the parser.
+       *
+       * @param documentDeadline nano time after which no more parsing should be done
+       */
+      private void parse( final long documentDeadline ) {
+         if ( _inputTokens == null ) {
+            return;
+         }
+         String key = null;
+         if ( parseCache != null ) {
+            key = ParseCache.createKey( _text, _tokenBegins, _tokenEnds );
+            _parse = parseCache.get( key, _text, _tokenBegins, _tokenEnds );
+            if ( _parse != null ) {
+               _path = ParsePath.CACHED;
+               return;
+            }
+         }
+         final long start = System.nanoTime();
+         if ( documentDeadline != BudgetedParser.NO_DEADLINE && start - documentDeadline >= 0 ) {
+            _path = ParsePath.DOCUMENT_BUDGET;
+            return;
+         }
+         long deadline = sentenceBudget > 0 ? start + sentenceBudget : BudgetedParser.NO_DEADLINE;
+         final boolean documentFirst = documentDeadline != BudgetedParser.NO_DEADLINE
+                                       && (deadline == BudgetedParser.NO_DEADLINE || documentDeadline - deadline < 0);
+         if ( documentFirst ) {
+            deadline = documentDeadline;
+         }
+         try {
+            _parse = threadParser.get().parse( _inputTokens, deadline );
+            _path = ParsePath.PARSED;
+         } catch ( BudgetExceededException beE ) {
+            _path = documentFirst ? ParsePath.DOCUMENT_BUDGET : ParsePath.SENTENCE_BUDGET;
+            return;
+         }
+         if ( parseCache != null ) {
+            parseCache.put( key, _parse, _text, _tokenBegins, _tokenEnds );
+         }
+      }
+   }
+
+   /**
+    * Parses a single sentence within a deadline, as {@link BudgetedParser#parse(Parse, long)}.
+    */
+   interface SentenceParser {
+      Parse parse( Parse tokens, long deadline ) throws BudgetExceededException;
+   }
+
    /**
     * The parser has a really tough time dealing with text lines that act as borders
     *
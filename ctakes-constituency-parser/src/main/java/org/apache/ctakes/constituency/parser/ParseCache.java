@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser;
+
+import opennlp.tools.parser.Parse;
+import opennlp.tools.util.Span;
+import org.apache.ctakes.core.util.collection.SegmentedLruCache;
+
+import java.util.Arrays;
+
+/**
+ * Bounded, thread safe cache of sentence parses.
+ * <p>
+ * Clinical notes repeat the same header lines, review of systems sentences and disclaimers across documents.
+ * The maxent parser only looks at the sequence of token texts, so two sentences with the same tokens get the same
+ * parse no matter how they are spaced or where they are in the document.
+ * The key is therefore the exact token text sequence; the parser is case sensitive, so case is not folded.
+ * </p>
+ * <p>
+ * A cached entry is the shape of the parse with spans stored as token indices, so it is independent of the text
+ * between tokens.  On a hit an opennlp {@link Parse} is rebuilt over the new sentence text, giving exactly what
+ * the parser would have returned, including the treebank string.
+ * </p>
+ * Entries are kept in a {@link SegmentedLruCache} so that threads rarely contend.
+ */
+final public class ParseCache {
+
+   static private final char TOKEN_SEPARATOR = '\u0000';
+   // Token index used for the span of the root, which covers the entire sentence text.
+   static private final int SENTENCE_SPAN = -1;
+
+   private final SegmentedLruCache<String, CachedParse> _parses;
+
+   /**
+    * @param maxSize maximum number of sentence parses to hold
+    */
+   public ParseCache( final int maxSize ) {
+      if ( maxSize <= 0 ) {
+         throw new IllegalArgumentException( "Parse cache size must be positive: " + maxSize );
+      }
+      _parses = new SegmentedLruCache<>( maxSize );
+   }
+
+   /**
+    * @param text        sentence text
+    * @param tokenBegins token begin offsets within the sentence text
+    * @param tokenEnds   token end offsets within the sentence text
+    * @return cache key for the sentence
+    */
+   static public String createKey( final String text, final int[] tokenBegins, final int[] tokenEnds ) {
+      final StringBuilder sb = new StringBuilder( text.length() + tokenBegins.length );
+      for ( int i = 0; i < tokenBegins.length; i++ ) {
+         sb.append( text, tokenBegins[ i ], tokenEnds[ i ] ).append( TOKEN_SEPARATOR );
+      }
+      return sb.toString();
+   }
+
+   /**
+    * @param key         cache key from {@link #createKey(String, int[], int[])}
+    * @param text        sentence text
+    * @param tokenBegins token begin offsets within the sentence text
+    * @param tokenEnds   token end offsets within the sentence text
+    * @return a parse of the sentence rebuilt from the cache, or null if the sentence has not been cached
+    */
+   public Parse get( final String key, final String text, final int[] tokenBegins, final int[] tokenEnds ) {
+      final CachedParse cached = _parses.get( key );
+      return cached == null ? null : cached.createParse( text, tokenBegins, tokenEnds );
+   }
+
+   /**
+    * Caches the shape of the parse.  Parses with a constituent that does not align to token boundaries are ignored.
+    *
+    * @param key         cache key from {@link #createKey(String, int[], int[])}
+    * @param parse       parser output for the sentence
+    * @param text        sentence text
+    * @param tokenBegins token begin offsets within the sentence text
+    * @param tokenEnds   token end offsets within the sentence text
+    */
+   public void put( final String key, final Parse parse, final String text,
+                    final int[] tokenBegins, final int[] tokenEnds ) {
+      if ( parse == null ) {
+         return;
+      }
+      final CachedParse cached = CachedParse.create( parse, text, tokenBegins, tokenEnds );
+      if ( cached != null ) {
+         _parses.put( key, cached );
+      }
+   }
+
+   /**
+    * @return number of sentences that were found in the cache
+    */
+   public long getHitCount() {
+      return _parses.getHitCount();
+   }
+
+   /**
+    * @return number of sentences that were not found in the cache
+    */
+   public long getMissCount() {
+      return _parses.getMissCount();
+   }
+
+   /**
+    * @return fraction of lookups that were found in the cache, 0 if there have been no lookups
+    */
+   public double getHitRate() {
+      return _parses.getHitRate();
+   }
+
+   /**
+    * @return number of sentence parses currently cached
+    */
+   public int size() {
+      return _parses.size();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString() {
+      return String.format( "Parse cache hits %d misses %d (%.1f%%) size %d",
+            getHitCount(), getMissCount(), getHitRate() * 100, size() );
+   }
+
+
+   /**
+    * Immutable parse shape.  Nodes are stored in pre-order with spans as first and last token indices.
+    */
+   static private final class CachedParse {
+      private final String[] _types;
+      private final int[] _heads;
+      private final int[] _childCounts;
+      private final int[] _firstTokens;
+      private final int[] _lastTokens;
+
+      private CachedParse( final int nodeCount ) {
+         _types = new String[ nodeCount ];
+         _heads = new int[ nodeCount ];
+         _childCounts = new int[ nodeCount ];
+         _firstTokens = new int[ nodeCount ];
+         _lastTokens = new int[ nodeCount ];
+      }
+
+      static private CachedParse create( final Parse parse, final String text,
+                                         final int[] tokenBegins, final int[] tokenEnds ) {
+         final Span span = parse.getSpan();
+         if ( span.getStart() != 0 || span.getEnd() != text.length() ) {
+            return null;
+         }
+         final CachedParse cached = new CachedParse( countNodes( parse ) );
+         final int filled = cached.fill( parse, 0, true, tokenBegins, tokenEnds );
+         return filled < 0 ? null : cached;
+      }
+
+      static private int countNodes( final Parse parse ) {
+         int count = 1;
+         for ( Parse child : parse.getChildren() ) {
+            count += countNodes( child );
+         }
+         return count;
+      }
+
+      /**
+       * @return index of the next node to fill, or -1 if a span does not align to tokens
+       */
+      private int fill( final Parse parse, final int index, final boolean isRoot,
+                        final int[] tokenBegins, final int[] tokenEnds ) {
+         final Parse[] children = parse.getChildren();
+         _types[ index ] = parse.getType();
+         _heads[ index ] = parse.getHeadIndex();
+         _childCounts[ index ] = children.length;
+         if ( isRoot ) {
+            _firstTokens[ index ] = SENTENCE_SPAN;
+            _lastTokens[ index ] = SENTENCE_SPAN;
+         } else {
+            final Span span = parse.getSpan();
+            final int first = Arrays.binarySearch( tokenBegins, span.getStart() );
+            final int last = Arrays.binarySearch( tokenEnds, span.getEnd() );
+            if ( first < 0 || last < 0 || last < first ) {
+               return -1;
+            }
+            _firstTokens[ index ] = first;
+            _lastTokens[ index ] = last;
+         }
+         int next = index + 1;
+         for ( Parse child : children ) {
+            next = fill( child, next, false, tokenBegins, tokenEnds );
+            if ( next < 0 ) {
+               return -1;
+            }
+         }
+         return next;
+      }
+
+      private Parse createParse( final String text, final int[] tokenBegins, final int[] tokenEnds ) {
+         final Parse[] holder = new Parse[ 1 ];
+         createParse( 0, text, tokenBegins, tokenEnds, holder );
+         return holder[ 0 ];
+      }
+
+      /**
+       * @return index of the next node to build
+       */
+      private int createParse( final int index, final String text, final int[] tokenBegins, final int[] tokenEnds,
+                               final Parse[] built ) {
+         final Span span = _firstTokens[ index ] == SENTENCE_SPAN
+                           ? new Span( 0, text.length() )
+                           : new Span( tokenBegins[ _firstTokens[ index ] ], tokenEnds[ _lastTokens[ index ] ] );
+         final Parse parse = new Parse( text, span, _types[ index ], 0, _heads[ index ] );
+         int next = index + 1;
+         for ( int i = 0; i < _childCounts[ index ]; i++ ) {
+            next = createParse( next, text, tokenBegins, tokenEnds, built );
+            parse.insert( built[ 0 ] );
+         }
+         built[ 0 ] = parse;
+         return next;
+      }
+   }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe counts of the way in which sentences were given trees.
+ */
+final public class ParseStatistics {
+
+   public enum ParsePath {
+      /**
+       * Parsed by the opennlp parser
+       */
+      PARSED,
+      /**
+       * Rebuilt from the {@link ParseCache}
+       */
+      CACHED,
+      /**
+       * Given a flat or chunk tree because the sentence time budget ran out
+       */
+      SENTENCE_BUDGET,
+      /**
+       * Given a flat or chunk tree because the document time budget ran out
+       */
+      DOCUMENT_BUDGET,
+      /**
+       * Not parsed because there was no text to parse, e.g. "=========="
+       */
+      SKIPPED
+   }
+
+   private final AtomicLongArray _counts = new AtomicLongArray( ParsePath.values().length );
+
+   /**
+    * @param path path taken for a sentence
+    */
+   public void increment( final ParsePath path ) {
+      _counts.incrementAndGet( path.ordinal() );
+   }
+
+   /**
+    * @param path some parse path
+    * @return number of sentences that took the path
+    */
+   public long getCount( final ParsePath path ) {
+      return _counts.get( path.ordinal() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString() {
+      final StringBuilder sb = new StringBuilder( "Sentences" );
+      for ( ParsePath path : ParsePath.values() ) {
+         sb.append( ' ' ).append( path.name().toLowerCase() ).append( ' ' ).append( getCount( path ) );
+      }
+      return sb.toString();
+   }
+
+}
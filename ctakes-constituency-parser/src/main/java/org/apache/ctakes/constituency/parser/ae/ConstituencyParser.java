@@ -19,6 +19,7 @@
 package org.apache.ctakes.constituency.parser.ae;
 
 import org.apache.ctakes.constituency.parser.MaxentParserWrapper;
+import org.apache.ctakes.constituency.parser.ParseCache;
 import org.apache.ctakes.constituency.parser.ParserWrapper;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
@@ -52,6 +53,47 @@ public class ConstituencyParser extends JCasAnnotator_ImplBase {
 			defaultValue = "org/apache/ctakes/constituency/parser/models/sharpacq-3.1.bin"
 	)
 	private String modelFilename;
+
+	public static final String PARAM_PARSE_CACHE_SIZE = "ParseCacheSize";
+
+	@ConfigurationParameter(
+			name = PARAM_PARSE_CACHE_SIZE,
+			description = "Maximum number of sentence parses to cache.  Sentences with the same tokens are parsed once.",
+			mandatory = false,
+			defaultValue = "0"
+	)
+	private int parseCacheSize;
+
+	public static final String PARAM_SENTENCE_THREADS = "SentenceThreads";
+
+	@ConfigurationParameter(
+			name = PARAM_SENTENCE_THREADS,
+			description = "Number of threads used to parse the sentences of a document, longest sentences first.",
+			mandatory = false,
+			defaultValue = "1"
+	)
+	private int sentenceThreads;
+
+	public static final String PARAM_SENTENCE_BUDGET = "SentenceTimeBudget";
+
+	@ConfigurationParameter(
+			name = PARAM_SENTENCE_BUDGET,
+			description = "Milliseconds allowed to parse a sentence before it is given a shallow tree.  0 for no limit.",
+			mandatory = false,
+			defaultValue = "0"
+	)
+	private int sentenceBudgetMillis;
+
+	public static final String PARAM_DOCUMENT_BUDGET = "DocumentTimeBudget";
+
+	@ConfigurationParameter(
+			name = PARAM_DOCUMENT_BUDGET,
+			description = "Milliseconds allowed to parse a document before remaining sentences are given shallow trees."
+							  + "  0 for no limit.",
+			mandatory = false,
+			defaultValue = "0"
+	)
+	private int documentBudgetMillis;
 	
 	
 	private ParserWrapper parser = null;
@@ -62,7 +104,8 @@ public class ConstituencyParser extends JCasAnnotator_ImplBase {
 		super.initialize( aContext );
 		logger.info( "Initializing ..." );
 		try ( DotLogger dotter = new DotLogger() ) {
-			parser = new MaxentParserWrapper( FileLocator.getAsStream( modelFilename ) );
+			parser = new MaxentParserWrapper( FileLocator.getAsStream( modelFilename ), parseCacheSize,
+					sentenceThreads, sentenceBudgetMillis, documentBudgetMillis );
 		} catch ( IOException ioE ) {
 			logger.error( "Error reading parser model file/directory: " + ioE.getMessage() );
 			throw new ResourceInitializationException( ioE );
@@ -76,6 +119,36 @@ public class ConstituencyParser extends JCasAnnotator_ImplBase {
 		parser.createAnnotations(jcas);
 	}
 	
+	@Override
+	public void collectionProcessComplete() throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		if ( parser instanceof MaxentParserWrapper ) {
+			logger.info( ((MaxentParserWrapper)parser).getParseStatistics().toString() );
+		}
+		final ParseCache parseCache = getParseCache();
+		if ( parseCache != null ) {
+			logger.info( parseCache.toString() );
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if ( parser instanceof MaxentParserWrapper ) {
+			((MaxentParserWrapper)parser).close();
+		}
+		super.destroy();
+	}
+
+	/**
+	 * @return the sentence parse cache with its hit and miss counts, or null if parses are not cached
+	 */
+	public ParseCache getParseCache() {
+		if ( parser instanceof MaxentParserWrapper ) {
+			return ((MaxentParserWrapper)parser).getParseCache();
+		}
+		return null;
+	}
+
 	  public static AnalysisEngineDescription createAnnotatorDescription(
 		      String modelPath) throws ResourceInitializationException {
 		    return AnalysisEngineFactory.createEngineDescription(
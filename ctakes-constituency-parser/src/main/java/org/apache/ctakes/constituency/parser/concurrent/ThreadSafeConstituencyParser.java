@@ -1,5 +1,6 @@
 package org.apache.ctakes.constituency.parser.concurrent;
 
+import org.apache.ctakes.constituency.parser.ParseCache;
 import org.apache.ctakes.constituency.parser.ae.ConstituencyParser;
 import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
@@ -15,6 +16,8 @@ import java.util.logging.Logger;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
+ * Each thread parses with its own parser over the shared model, so documents share the model and parse cache
+ * without being serialized.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -46,6 +49,22 @@ public class ThreadSafeConstituencyParser extends ConstituencyParser {
       CpSingleton.getInstance().process( jCas );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      CpSingleton.getInstance().collectionProcessComplete();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public ParseCache getParseCache() {
+      return CpSingleton.getInstance().getDelegate().getParseCache();
+   }
+
    public static AnalysisEngineDescription createAnnotatorDescription( final String modelPath )
          throws ResourceInitializationException {
       return AnalysisEngineFactory.createEngineDescription(
@@ -85,6 +104,14 @@ public class ThreadSafeConstituencyParser extends ConstituencyParser {
          return _delegate;
       }
 
+      /**
+       * The delegate parses with per-thread state, so only initialization is locked.
+       */
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         _delegate.process( jCas );
+      }
+
       @Override
       public boolean isInitialized() {
          return _initialized;
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser.treekernel;
+
+import opennlp.tools.parser.Parse;
+import org.apache.ctakes.constituency.parser.util.TreeUtils;
+import org.apache.ctakes.utils.kernel.Kernel;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subtree kernel with the same values as {@link TreeKernel}, computed in the manner of Moschitti's fast tree kernel.
+ * <p>
+ * Each tree is compiled once into arrays of integer node labels and production ids,
+ * and the compiled tree is cached by the identity of the {@link Parse} together with its self similarity.
+ * Only node pairs with the same production can share a subtree, so for each node of one tree
+ * only the nodes of the other tree with the same production are visited.
+ * The number of common subtrees for a node pair is memoized in a table that is reused by each thread.
+ * </p>
+ * Node pairs are summed in the same order as {@link TreeKernel} sums them, so values are identical.
+ * Unary nodes share a production per label because {@link TreeKernel} matches preterminals without comparing words.
+ * The kernel is thread safe.  A compiled tree is released when its parse is garbage collected
+ * or when {@link #clearCache()} is called.
+ */
+final public class FastTreeKernel extends Kernel {
+
+   private final boolean _normalize;
+   private final double _lambdaSquared;
+
+   private final Map<String, Integer> _labelIds = new ConcurrentHashMap<>();
+   private final AtomicInteger _labelCount = new AtomicInteger();
+   private final Map<IntArrayKey, Integer> _productionIds = new ConcurrentHashMap<>();
+   private final AtomicInteger _productionCount = new AtomicInteger();
+   private final Map<IdentityKey, CompiledTree> _compiledTrees = new ConcurrentHashMap<>();
+   private final ReferenceQueue<Parse> _collectedTrees = new ReferenceQueue<>();
+   private final ThreadLocal<DeltaTable> _deltaTable = ThreadLocal.withInitial( DeltaTable::new );
+
+   public FastTreeKernel() {
+      this( false );
+   }
+
+   /**
+    * @param normalize true to divide similarities by the square root of the product of the trees' self similarities
+    */
+   public FastTreeKernel( final boolean normalize ) {
+      _normalize = normalize;
+      _lambdaSquared = TreeKernel.lambdaSquared;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public double eval( final Object o1, final Object o2 ) {
+      final CompiledTree tree1 = getCompiledTree( (Parse)o1 );
+      final CompiledTree tree2 = getCompiledTree( (Parse)o2 );
+      if ( _normalize ) {
+         return sim( tree1, tree2 ) / Math.sqrt( getNorm( tree1 ) * getNorm( tree2 ) );
+      }
+      return sim( tree1, tree2 );
+   }
+
+   /**
+    * @return number of trees that are compiled and cached
+    */
+   public int getCacheSize() {
+      return _compiledTrees.size();
+   }
+
+   /**
+    * Releases all compiled trees.
+    */
+   public void clearCache() {
+      _compiledTrees.clear();
+   }
+
+   private CompiledTree getCompiledTree( final Parse tree ) {
+      removeCollectedTrees();
+      return _compiledTrees.computeIfAbsent( new IdentityKey( tree, _collectedTrees ), k -> compile( tree ) );
+   }
+
+   private void removeCollectedTrees() {
+      Reference<? extends Parse> collected = _collectedTrees.poll();
+      while ( collected != null ) {
+         _compiledTrees.remove( collected );
+         collected = _collectedTrees.poll();
+      }
+   }
+
+   private double getNorm( final CompiledTree tree ) {
+      double norm = tree._norm;
+      if ( Double.isNaN( norm ) ) {
+         norm = sim( tree, tree );
+         tree._norm = norm;
+      }
+      return norm;
+   }
+
+   private double sim( final CompiledTree tree1, final CompiledTree tree2 ) {
+      final DeltaTable table = _deltaTable.get();
+      table.reset( tree1, tree2 );
+      double sim = 0.0;
+      for ( int i = 0; i < tree1._labels.length; i++ ) {
+         final int bucket = Arrays.binarySearch( tree2._productions, tree1._productionIds[ i ] );
+         if ( bucket < 0 ) {
+            continue;
+         }
+         for ( int n = tree2._productionStarts[ bucket ]; n < tree2._productionStarts[ bucket + 1 ]; n++ ) {
+            sim += delta( table, tree1, i, tree2, tree2._sortedNodes[ n ] );
+         }
+      }
+      return sim;
+   }
+
+   /**
+    * @return the number of common subtrees rooted at the two nodes, weighted as in {@link TreeKernel}
+    */
+   private double delta( final DeltaTable table,
+                         final CompiledTree tree1, final int node1,
+                         final CompiledTree tree2, final int node2 ) {
+      final int childCount = tree1._childCounts[ node1 ];
+      if ( childCount != tree2._childCounts[ node2 ] || tree1._labels[ node1 ] != tree2._labels[ node2 ] ) {
+         return 0;
+      }
+      final int child1 = tree1._firstChildren[ node1 ];
+      final int child2 = tree2._firstChildren[ node2 ];
+      if ( childCount == 1 && tree1._childCounts[ child1 ] == 0 && tree2._childCounts[ child2 ] == 0 ) {
+         // same productions and both are preterminals
+         return _lambdaSquared;
+      }
+      for ( int i = 0; i < childCount; i++ ) {
+         if ( tree1._labels[ child1 + i ] != tree2._labels[ child2 + i ] ) {
+            return 0;
+         }
+      }
+      final int cell = node1 * tree2._labels.length + node2;
+      if ( table._stamps[ cell ] == table._stamp ) {
+         return table._values[ cell ];
+      }
+      double product = 1.0;
+      for ( int i = 0; i < childCount; i++ ) {
+         product *= (1 + delta( table, tree1, child1 + i, tree2, child2 + i ));
+      }
+      final double delta = _lambdaSquared * product;
+      table._stamps[ cell ] = table._stamp;
+      table._values[ cell ] = delta;
+      return delta;
+   }
+
+   private CompiledTree compile( final Parse tree ) {
+      // breadth first, the order in which TreeKernel sums node pairs.  Siblings are contiguous.
+      final List<Parse> nodes = TreeUtils.getNodeList( tree );
+      final int size = nodes.size();
+      final int[] labels = new int[ size ];
+      final int[] childCounts = new int[ size ];
+      final int[] firstChildren = new int[ size ];
+      int nextChild = 1;
+      for ( int i = 0; i < size; i++ ) {
+         final Parse node = nodes.get( i );
+         labels[ i ] = _labelIds.computeIfAbsent( node.getType(), l -> _labelCount.getAndIncrement() );
+         childCounts[ i ] = node.getChildCount();
+         firstChildren[ i ] = nextChild;
+         nextChild += childCounts[ i ];
+      }
+      final int[] productionIds = new int[ size ];
+      for ( int i = 0; i < size; i++ ) {
+         productionIds[ i ] = getProductionId( labels, childCounts, firstChildren, i );
+      }
+      return new CompiledTree( labels, childCounts, firstChildren, productionIds );
+   }
+
+   private int getProductionId( final int[] labels, final int[] childCounts, final int[] firstChildren,
+                                final int node ) {
+      final int childCount = childCounts[ node ];
+      final int[] production;
+      if ( childCount <= 1 ) {
+         production = new int[] { labels[ node ], childCount };
+      } else {
+         production = new int[ 2 + childCount ];
+         production[ 0 ] = labels[ node ];
+         production[ 1 ] = childCount;
+         System.arraycopy( labels, firstChildren[ node ], production, 2, childCount );
+      }
+      return _productionIds.computeIfAbsent( new IntArrayKey( production ),
+            k -> _productionCount.getAndIncrement() );
+   }
+
+
+   /**
+    * Tree as arrays indexed by breadth first node order.
+    */
+   static private final class CompiledTree {
+      private final int[] _labels;
+      private final int[] _childCounts;
+      private final int[] _firstChildren;
+      private final int[] _productionIds;
+      // nodes sorted by production, then by node order
+      private final int[] _sortedNodes;
+      // distinct productions, ascending, and the start of each in _sortedNodes
+      private final int[] _productions;
+      private final int[] _productionStarts;
+      private volatile double _norm = Double.NaN;
+
+      private CompiledTree( final int[] labels, final int[] childCounts, final int[] firstChildren,
+                            final int[] productionIds ) {
+         _labels = labels;
+         _childCounts = childCounts;
+         _firstChildren = firstChildren;
+         _productionIds = productionIds;
+         final int size = labels.length;
+         final long[] keys = new long[ size ];
+         for ( int i = 0; i < size; i++ ) {
+            keys[ i ] = ((long)productionIds[ i ] << 32) | i;
+         }
+         Arrays.sort( keys );
+         _sortedNodes = new int[ size ];
+         final int[] productions = new int[ size ];
+         final int[] starts = new int[ size + 1 ];
+         int distinct = 0;
+         for ( int i = 0; i < size; i++ ) {
+            _sortedNodes[ i ] = (int)keys[ i ];
+            final int production = (int)(keys[ i ] >>> 32);
+            if ( distinct == 0 || productions[ distinct - 1 ] != production ) {
+               productions[ distinct ] = production;
+               starts[ distinct ] = i;
+               distinct++;
+            }
+         }
+         starts[ distinct ] = size;
+         _productions = Arrays.copyOf( productions, distinct );
+         _productionStarts = Arrays.copyOf( starts, distinct + 1 );
+      }
+   }
+
+
+   /**
+    * Memo of node pair deltas for one tree pair.  Cells are valid only when stamped for the current pair.
+    */
+   static private final class DeltaTable {
+      private int[] _stamps = new int[ 0 ];
+      private double[] _values = new double[ 0 ];
+      private int _stamp;
+
+      private void reset( final CompiledTree tree1, final CompiledTree tree2 ) {
+         final int size = tree1._labels.length * tree2._labels.length;
+         if ( size > _stamps.length ) {
+            _stamps = new int[ size ];
+            _values = new double[ size ];
+            _stamp = 0;
+         }
+         _stamp++;
+         if ( _stamp == 0 ) {
+            Arrays.fill( _stamps, 0 );
+            _stamp = 1;
+         }
+      }
+   }
+
+
+   static private final class IntArrayKey {
+      private final int[] _values;
+      private final int _hash;
+
+      private IntArrayKey( final int[] values ) {
+         _values = values;
+         _hash = Arrays.hashCode( values );
+      }
+
+      @Override
+      public int hashCode() {
+         return _hash;
+      }
+
+      @Override
+      public boolean equals( final Object other ) {
+         return other instanceof IntArrayKey && Arrays.equals( _values, ((IntArrayKey)other)._values );
+      }
+   }
+
+
+   /**
+    * {@link Parse} overrides equals and hashCode on its text, so trees are keyed by identity.
+    * Keys are weak so that compiled trees do not keep their parses alive.
+    */
+   static private final class IdentityKey extends WeakReference<Parse> {
+      private final int _hash;
+
+      private IdentityKey( final Parse tree, final ReferenceQueue<Parse> queue ) {
+         super( tree, queue );
+         _hash = System.identityHashCode( tree );
+      }
+
+      @Override
+      public int hashCode() {
+         return _hash;
+      }
+
+      /**
+       * A key whose parse has been collected is only equal to itself, so it can still be removed.
+       */
+      @Override
+      public boolean equals( final Object other ) {
+         if ( this == other ) {
+            return true;
+         }
+         if ( !(other instanceof IdentityKey) ) {
+            return false;
+         }
+         final Parse tree = get();
+         return tree != null && tree == ((IdentityKey)other).get();
+      }
+   }
+
+}
@@ -27,6 +27,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Subtree kernel over opennlp parses.  {@link FastTreeKernel} gives the same values much faster.
+ */
 public class TreeKernel extends Kernel {
 
 	public static double lambda = 0.4;
@@ -54,8 +57,6 @@ public class TreeKernel extends Kernel {
 			String node1Str = nodeStr.toString();
 			if(!normalizers.containsKey(node1Str)){
 				double norm = sim(node1, node1);
-				System.out.println(node1Str);
-//				System.out.println
 				normalizers.put(node1Str, norm);
 				normalHits++;
 			}
@@ -421,6 +421,82 @@ final public class TreeUtils {
       return sentenceParse;
    }
 
+   /**
+    * Builds a shallow tree for a sentence that was not given a full parse.
+    * Tokens within a chunk are grouped under a node of the chunk type, other tokens hang directly from the
+    * sentence node.  Without chunks the tree is flat.
+    *
+    * @param sentenceOffset begin offset character index for sentence
+    * @param text           text of the sentence
+    * @param terminalArray  [token] terminals in the sentence
+    * @param tags           part of speech for each terminal, null entries are tagged XX
+    * @param chunks         chunks in the sentence in order of begin offset, may be empty
+    * @return open nlp Parse of the form (TOP (S (NP (DT the) (NN cat)) (VBD sat)))
+    */
+   public static Parse createShallowParse( final int sentenceOffset, final String text,
+                                           final FSArray terminalArray, final String[] tags,
+                                           final List<Chunk> chunks ) {
+      final Parse top = new Parse( text, new Span( 0, text.length() ), AbstractBottomUpParser.TOP_NODE, 1, 0 );
+      final int count = terminalArray.size();
+      if ( count == 0 ) {
+         return top;
+      }
+      final int[] begins = new int[ count ];
+      final int[] ends = new int[ count ];
+      for ( int i = 0; i < count; i++ ) {
+         final TerminalTreebankNode token = (TerminalTreebankNode)terminalArray.get( i );
+         begins[ i ] = token.getBegin();
+         ends[ i ] = token.getEnd();
+      }
+      final Parse sentence = new Parse( text, new Span( begins[ 0 ] - sentenceOffset, ends[ count - 1 ] - sentenceOffset ),
+            "S", 1, 0 );
+      int chunkIndex = 0;
+      int i = 0;
+      while ( i < count ) {
+         while ( chunkIndex < chunks.size() && chunks.get( chunkIndex ).getBegin() < begins[ i ] ) {
+            chunkIndex++;
+         }
+         int last = -1;
+         if ( chunkIndex < chunks.size() ) {
+            final Chunk chunk = chunks.get( chunkIndex );
+            if ( chunk.getBegin() == begins[ i ] && chunk.getChunkType() != null ) {
+               last = i;
+               while ( last + 1 < count && ends[ last + 1 ] <= chunk.getEnd() ) {
+                  last++;
+               }
+               if ( ends[ last ] != chunk.getEnd() ) {
+                  // chunk does not align with the terminals
+                  last = -1;
+               }
+            }
+         }
+         if ( last < 0 ) {
+            sentence.insert( createPreterminal( text, begins[ i ] - sentenceOffset, ends[ i ] - sentenceOffset,
+                  tags[ i ], i ) );
+            i++;
+            continue;
+         }
+         final Parse chunkParse = new Parse( text, new Span( begins[ i ] - sentenceOffset, ends[ last ] - sentenceOffset ),
+               chunks.get( chunkIndex ).getChunkType(), 1, last );
+         for ( int j = i; j <= last; j++ ) {
+            chunkParse.insert( createPreterminal( text, begins[ j ] - sentenceOffset, ends[ j ] - sentenceOffset,
+                  tags[ j ], j ) );
+         }
+         sentence.insert( chunkParse );
+         i = last + 1;
+      }
+      top.insert( sentence );
+      return top;
+   }
+
+   static private Parse createPreterminal( final String text, final int begin, final int end,
+                                           final String tag, final int index ) {
+      final Span span = new Span( begin, end );
+      final Parse preterminal = new Parse( text, span, tag == null ? "XX" : tag, 1, index );
+      preterminal.insert( new Parse( text, span, AbstractBottomUpParser.TOK_NODE, 1, index ) );
+      return preterminal;
+   }
+
    public static String escapePunct(String in){
      if(BRACKET_MAP.containsKey(in)){
        return BRACKET_MAP.get(in);
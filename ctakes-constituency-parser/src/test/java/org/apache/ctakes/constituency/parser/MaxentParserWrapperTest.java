@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser;
+
+import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.util.Span;
+import org.apache.ctakes.constituency.parser.BudgetedParser.BudgetExceededException;
+import org.apache.ctakes.constituency.parser.ParseStatistics.ParsePath;
+import org.apache.ctakes.typesystem.type.syntax.Chunk;
+import org.apache.ctakes.typesystem.type.syntax.TopTreebankNode;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MaxentParserWrapperTest {
+
+   /**
+    * Sentences of word/tag tokens.  The border line is skipped without parsing.
+    */
+   static private final String[] SENTENCES = {
+         "Pain/NN in/IN knee/NN",
+         "==========/:",
+         "Patient/NN walked/VBD home/NN",
+         "No/DT fever/NN" };
+
+   static private JCas createJCas() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      final StringBuilder text = new StringBuilder();
+      final List<int[]> sentenceSpans = new ArrayList<>();
+      final List<int[]> tokenSpans = new ArrayList<>();
+      final List<String> tags = new ArrayList<>();
+      for ( String sentence : SENTENCES ) {
+         final int sentenceBegin = text.length();
+         for ( String token : sentence.split( " " ) ) {
+            if ( text.length() > sentenceBegin ) {
+               text.append( ' ' );
+            }
+            final int slash = token.indexOf( '/' );
+            final String word = token.substring( 0, slash );
+            tokenSpans.add( new int[]{ text.length(), text.length() + word.length() } );
+            tags.add( token.substring( slash + 1 ) );
+            text.append( word );
+         }
+         sentenceSpans.add( new int[]{ sentenceBegin, text.length() } );
+         text.append( '\n' );
+      }
+      jCas.setDocumentText( text.toString() );
+      for ( int[] span : sentenceSpans ) {
+         new Sentence( jCas, span[ 0 ], span[ 1 ] ).addToIndexes();
+      }
+      for ( int i = 0; i < tokenSpans.size(); i++ ) {
+         final WordToken token = new WordToken( jCas, tokenSpans.get( i )[ 0 ], tokenSpans.get( i )[ 1 ] );
+         token.setPartOfSpeech( tags.get( i ) );
+         token.addToIndexes();
+      }
+      // a chunk over "in knee"
+      final Chunk chunk = new Chunk( jCas, tokenSpans.get( 1 )[ 0 ], tokenSpans.get( 2 )[ 1 ] );
+      chunk.setChunkType( "PP" );
+      chunk.addToIndexes();
+      return jCas;
+   }
+
+   /**
+    * @return (TOP (S (NN word) ...)) over the tokens given to the parser
+    */
+   static private Parse flatParse( final Parse tokens ) {
+      final String text = tokens.getText();
+      final Parse[] children = tokens.getChildren();
+      final Parse top = new Parse( text, new Span( 0, text.length() ), AbstractBottomUpParser.TOP_NODE, 1, 0 );
+      final Parse sentence = new Parse( text, new Span( children[ 0 ].getSpan().getStart(),
+            children[ children.length - 1 ].getSpan().getEnd() ), "S", 1, 0 );
+      for ( int i = 0; i < children.length; i++ ) {
+         final Parse tag = new Parse( text, children[ i ].getSpan(), "NN", 1, i );
+         tag.insert( new Parse( text, children[ i ].getSpan(), AbstractBottomUpParser.TOK_NODE, 1, i ) );
+         sentence.insert( tag );
+      }
+      top.insert( sentence );
+      return top;
+   }
+
+   static private Parse waitAndGiveUp( final long deadline ) {
+      assertNotEquals( BudgetedParser.NO_DEADLINE, deadline );
+      while ( System.nanoTime() - deadline <= 0 ) {
+         Thread.yield();
+      }
+      throw new BudgetExceededException();
+   }
+
+   static private List<String> getTrees( final JCas jCas ) {
+      final List<String> trees = new ArrayList<>();
+      for ( TopTreebankNode top : JCasUtil.select( jCas, TopTreebankNode.class ) ) {
+         trees.add( top.getTreebankParse() );
+      }
+      return trees;
+   }
+
+   @Test
+   public void testSentenceBudgetGivesShallowTrees() throws Exception {
+      final MaxentParserWrapper wrapper = new MaxentParserWrapper(
+            () -> ( tokens, deadline ) -> waitAndGiveUp( deadline ), 0, 1, 1, 0 );
+      final JCas jCas = createJCas();
+      wrapper.createAnnotations( jCas );
+      final ParseStatistics statistics = wrapper.getParseStatistics();
+      assertEquals( 3, statistics.getCount( ParsePath.SENTENCE_BUDGET ) );
+      assertEquals( 1, statistics.getCount( ParsePath.SKIPPED ) );
+      assertEquals( 0, statistics.getCount( ParsePath.PARSED ) );
+      assertEquals( 0, statistics.getCount( ParsePath.DOCUMENT_BUDGET ) );
+      final List<String> expected = new ArrayList<>();
+      expected.add( "(TOP (S (NN Pain) (PP (IN in) (NN knee))))" );
+      expected.add( "(TOP (S (NN Patient) (VBD walked) (NN home)))" );
+      expected.add( "(TOP (S (DT No) (NN fever)))" );
+      assertEquals( expected, getTrees( jCas ) );
+   }
+
+   @Test
+   public void testDocumentBudgetStopsParsing() throws Exception {
+      final AtomicInteger calls = new AtomicInteger();
+      final MaxentParserWrapper wrapper = new MaxentParserWrapper( () -> ( tokens, deadline ) -> {
+         if ( calls.incrementAndGet() == 1 ) {
+            return flatParse( tokens );
+         }
+         // the second sentence uses up the rest of the document budget
+         return waitAndGiveUp( deadline );
+      }, 0, 1, 0, 50 );
+      final JCas jCas = createJCas();
+      wrapper.createAnnotations( jCas );
+      final ParseStatistics statistics = wrapper.getParseStatistics();
+      assertEquals( 1, statistics.getCount( ParsePath.PARSED ) );
+      assertEquals( 2, statistics.getCount( ParsePath.DOCUMENT_BUDGET ) );
+      assertEquals( 1, statistics.getCount( ParsePath.SKIPPED ) );
+      assertEquals( 0, statistics.getCount( ParsePath.SENTENCE_BUDGET ) );
+      // the last sentence is not given to the parser at all
+      assertEquals( 2, calls.get() );
+      assertEquals( 3, getTrees( jCas ).size() );
+   }
+
+   @Test
+   public void testNoBudgetParsesEverySentence() throws Exception {
+      final MaxentParserWrapper wrapper = new MaxentParserWrapper( () -> ( tokens, deadline ) -> {
+         assertEquals( BudgetedParser.NO_DEADLINE, deadline );
+         return flatParse( tokens );
+      }, 0, 1, 0, 0 );
+      final JCas jCas = createJCas();
+      wrapper.createAnnotations( jCas );
+      assertEquals( 3, wrapper.getParseStatistics().getCount( ParsePath.PARSED ) );
+      assertEquals( "(TOP (S (NN Pain) (NN in) (NN knee)))", getTrees( jCas ).get( 0 ) );
+   }
+
+}
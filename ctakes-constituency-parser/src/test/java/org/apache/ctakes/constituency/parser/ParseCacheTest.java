@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser;
+
+import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.util.Span;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParseCacheTest {
+
+   static private int[] begins( final String text ) {
+      final String[] tokens = text.trim().split( " +" );
+      final int[] begins = new int[ tokens.length ];
+      int from = 0;
+      for ( int i = 0; i < tokens.length; i++ ) {
+         begins[ i ] = text.indexOf( tokens[ i ], from );
+         from = begins[ i ] + tokens[ i ].length();
+      }
+      return begins;
+   }
+
+   static private int[] ends( final String text ) {
+      final int[] begins = begins( text );
+      final String[] tokens = text.trim().split( " +" );
+      final int[] ends = new int[ tokens.length ];
+      for ( int i = 0; i < tokens.length; i++ ) {
+         ends[ i ] = begins[ i ] + tokens[ i ].length();
+      }
+      return ends;
+   }
+
+   static private Parse node( final String text, final String type, final int begin, final int end,
+                              final Parse... children ) {
+      final Parse parse = new Parse( text, new Span( begin, end ), type, 0, 0 );
+      for ( Parse child : children ) {
+         parse.insert( child );
+      }
+      return parse;
+   }
+
+   static private Parse word( final String text, final String tag, final int begin, final int end ) {
+      return node( text, tag, begin, end, node( text, AbstractBottomUpParser.TOK_NODE, begin, end ) );
+   }
+
+   /**
+    * (TOP (S (NP (NN Pain)) (PP (IN in) (NP (NN knee)))))
+    */
+   static private Parse parse( final String text ) {
+      final int[] b = begins( text );
+      final int[] e = ends( text );
+      return node( text, AbstractBottomUpParser.TOP_NODE, 0, text.length(),
+            node( text, "S", b[ 0 ], e[ 2 ],
+                  node( text, "NP", b[ 0 ], e[ 0 ], word( text, "NN", b[ 0 ], e[ 0 ] ) ),
+                  node( text, "PP", b[ 1 ], e[ 2 ],
+                        word( text, "IN", b[ 1 ], e[ 1 ] ),
+                        node( text, "NP", b[ 2 ], e[ 2 ], word( text, "NN", b[ 2 ], e[ 2 ] ) ) ) ) );
+   }
+
+   static private String show( final Parse parse ) {
+      final StringBuffer sb = new StringBuffer();
+      parse.show( sb );
+      return sb.toString();
+   }
+
+   static private void put( final ParseCache cache, final String text ) {
+      cache.put( ParseCache.createKey( text, begins( text ), ends( text ) ), parse( text ),
+            text, begins( text ), ends( text ) );
+   }
+
+   static private Parse get( final ParseCache cache, final String text ) {
+      return cache.get( ParseCache.createKey( text, begins( text ), ends( text ) ), text, begins( text ), ends( text ) );
+   }
+
+   @Test
+   public void testHitRebuildsParseOverNewText() {
+      final ParseCache cache = new ParseCache( 16 );
+      put( cache, "Pain in knee" );
+      final String text = "Pain   in  knee";
+      final Parse hit = get( cache, text );
+      assertEquals( show( parse( text ) ), show( hit ) );
+      assertEquals( "(TOP (S (NP (NN Pain)) (PP (IN in) (NP (NN knee)))))", show( get( cache, "Pain in knee" ) ) );
+      final Parse knee = hit.getChildren()[ 0 ].getChildren()[ 1 ].getChildren()[ 1 ];
+      assertEquals( new Span( 11, 15 ), knee.getSpan() );
+      assertEquals( 2, cache.getHitCount() );
+      assertEquals( 0, cache.getMissCount() );
+   }
+
+   @Test
+   public void testMisses() {
+      final ParseCache cache = new ParseCache( 16 );
+      assertNull( get( cache, "Pain in knee" ) );
+      put( cache, "Pain in knee" );
+      // the parser is case sensitive
+      assertNull( get( cache, "pain in knee" ) );
+      assertNull( get( cache, "Pain in knees" ) );
+      assertEquals( 0, cache.getHitCount() );
+      assertEquals( 3, cache.getMissCount() );
+      assertNotEquals( ParseCache.createKey( "ab c", new int[]{ 0, 3 }, new int[]{ 2, 4 } ),
+            ParseCache.createKey( "a bc", new int[]{ 0, 2 }, new int[]{ 1, 4 } ) );
+   }
+
+   @Test
+   public void testUnalignedParseIsNotCached() {
+      final ParseCache cache = new ParseCache( 16 );
+      final String text = "Pain in knee";
+      final Parse parse = parse( text );
+      // a constituent that ends inside the word "knee"
+      parse.getChildren()[ 0 ].insert( node( text, "X", 8, 10 ) );
+      cache.put( ParseCache.createKey( text, begins( text ), ends( text ) ), parse, text, begins( text ), ends( text ) );
+      assertEquals( 0, cache.size() );
+      cache.put( "key", null, text, begins( text ), ends( text ) );
+      assertEquals( 0, cache.size() );
+   }
+
+   @Test
+   public void testEviction() {
+      final ParseCache cache = new ParseCache( 32 );
+      for ( int i = 0; i < 1000; i++ ) {
+         put( cache, "Pain" + i + " in knee" );
+      }
+      assertTrue( cache.size() <= 32 );
+      assertEquals( "(TOP (S (NP (NN Pain999)) (PP (IN in) (NP (NN knee)))))",
+            show( get( cache, "Pain999 in knee" ) ) );
+      int hits = 0;
+      for ( int i = 0; i < 1000; i++ ) {
+         if ( get( cache, "Pain" + i + " in knee" ) != null ) {
+            hits++;
+         }
+      }
+      assertEquals( cache.size(), hits );
+   }
+
+}
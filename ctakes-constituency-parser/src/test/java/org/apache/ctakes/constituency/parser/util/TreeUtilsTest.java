@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser.util;
+
+import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.util.Span;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.Chunk;
+import org.apache.ctakes.typesystem.type.syntax.TerminalTreebankNode;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TreeUtilsTest {
+
+   /**
+    * Text before the sentence, so that sentence offsets differ from document offsets.
+    */
+   static private final String PREFIX = "History: ";
+   static private final String SENTENCE = "The cat sat on the mat .";
+
+   static private String show( final Parse parse ) {
+      final StringBuffer sb = new StringBuffer();
+      parse.show( sb );
+      return sb.toString();
+   }
+
+   static private FSArray getTerminals( final JCas jCas ) {
+      final List<BaseToken> tokens = new ArrayList<>();
+      int begin = PREFIX.length();
+      for ( String word : SENTENCE.split( " " ) ) {
+         tokens.add( new WordToken( jCas, begin, begin + word.length() ) );
+         begin += word.length() + 1;
+      }
+      return TreeUtils.getTerminals( jCas, tokens );
+   }
+
+   static private Chunk createChunk( final JCas jCas, final String type, final String words ) {
+      final int begin = PREFIX.length() + SENTENCE.indexOf( words );
+      final Chunk chunk = new Chunk( jCas, begin, begin + words.length() );
+      chunk.setChunkType( type );
+      return chunk;
+   }
+
+   /**
+    * Checks that the tree is TOP over S and that its tokens are the terminals, in order.
+    */
+   static private void assertCoversTerminals( final Parse top, final FSArray terminals ) {
+      assertEquals( AbstractBottomUpParser.TOP_NODE, top.getType() );
+      assertEquals( 1, top.getChildCount() );
+      final Parse sentence = top.getChildren()[ 0 ];
+      assertEquals( "S", sentence.getType() );
+      assertEquals( new Span( 0, SENTENCE.length() ), sentence.getSpan() );
+      final Parse[] tags = top.getTagNodes();
+      assertEquals( terminals.size(), tags.length );
+      for ( int i = 0; i < tags.length; i++ ) {
+         final TerminalTreebankNode terminal = (TerminalTreebankNode)terminals.get( i );
+         assertEquals( terminal.getBegin() - PREFIX.length(), tags[ i ].getSpan().getStart() );
+         assertEquals( terminal.getEnd() - PREFIX.length(), tags[ i ].getSpan().getEnd() );
+         assertEquals( 1, tags[ i ].getChildCount() );
+         assertEquals( AbstractBottomUpParser.TOK_NODE, tags[ i ].getChildren()[ 0 ].getType() );
+         assertEquals( tags[ i ].getSpan(), tags[ i ].getChildren()[ 0 ].getSpan() );
+      }
+   }
+
+   @Test
+   public void testFlatShallowParse() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( PREFIX + SENTENCE );
+      final FSArray terminals = getTerminals( jCas );
+      final String[] tags = { "DT", "NN", "VBD", "IN", "DT", null, "." };
+      final Parse top = TreeUtils.createShallowParse( PREFIX.length(), SENTENCE, terminals, tags,
+            Collections.emptyList() );
+      assertCoversTerminals( top, terminals );
+      assertEquals( "(TOP (S (DT The) (NN cat) (VBD sat) (IN on) (DT the) (XX mat) (. .)))", show( top ) );
+   }
+
+   @Test
+   public void testChunkedShallowParse() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( PREFIX + SENTENCE );
+      final FSArray terminals = getTerminals( jCas );
+      final String[] tags = { "DT", "NN", "VBD", "IN", "DT", "NN", "." };
+      final List<Chunk> chunks = new ArrayList<>();
+      chunks.add( createChunk( jCas, "NP", "The cat" ) );
+      chunks.add( createChunk( jCas, "VP", "sat" ) );
+      chunks.add( createChunk( jCas, "PP", "on" ) );
+      // does not end on a token boundary, so it is ignored
+      chunks.add( createChunk( jCas, "NP", "the ma" ) );
+      final Parse top = TreeUtils.createShallowParse( PREFIX.length(), SENTENCE, terminals, tags, chunks );
+      assertCoversTerminals( top, terminals );
+      assertEquals( "(TOP (S (NP (DT The) (NN cat)) (VP (VBD sat)) (PP (IN on)) (DT the) (NN mat) (. .)))",
+            show( top ) );
+   }
+
+}
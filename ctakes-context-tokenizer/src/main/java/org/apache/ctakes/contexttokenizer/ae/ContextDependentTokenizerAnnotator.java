@@ -33,6 +33,7 @@ import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -54,6 +55,21 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 	// LOG4J logger based on class name
 	private Logger iv_logger = Logger.getLogger(getClass().getName());
 
+	/**
+	 * Value is "FusedExecution".  If true all machines run together in one pass over the tokens of each sentence,
+	 * which are adapted once per document.  The annotations are the same either way.
+	 */
+	public static final String PARAM_FUSED_EXECUTION = "FusedExecution";
+	@ConfigurationParameter(
+		name = PARAM_FUSED_EXECUTION,
+		mandatory = false,
+		description = "Run all finite state machines in a single pass over each sentence",
+		defaultValue = "true"
+	)
+	private boolean fusedExecution;
+
+	private ContextDependentFSM iv_contextDependentFSM;
+
 	private DateFSM iv_dateFSM;
 	private TimeFSM iv_timeFSM;
 	private FractionFSM iv_fractionFSM;
@@ -73,6 +89,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 		iv_rangeFSM = new RangeFSM();
 		iv_measurementFSM = new MeasurementFSM();
 		iv_personTitleFSM = new PersonTitleFSM();
+		iv_contextDependentFSM = new ContextDependentFSM();
 		iv_logger.info("Finite state machines loaded.");
 	}
 
@@ -83,6 +100,11 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 			
 		  iv_logger.info("process(JCas)");
 
+			if (fusedExecution) {
+				executeFusedFSM(jcas);
+				return;
+			}
+
 			Collection<Sentence> sents = JCasUtil.select(jcas, Sentence.class);
 			
 			for(Sentence sentAnnot : sents){
@@ -168,6 +190,85 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 		}
 	}
 
+	/**
+	 * Adapts all tokens of the document once, then runs the fused machines on the tokens covered by each sentence.
+	 */
+	private void executeFusedFSM(JCas jcas) throws Exception {
+		List<BaseToken> documentTokens = new ArrayList<>();
+		for (org.apache.ctakes.typesystem.type.syntax.BaseToken bta
+				: JCasUtil.select(jcas, org.apache.ctakes.typesystem.type.syntax.BaseToken.class)) {
+			// ignore newlines, avoid null tokens
+			BaseToken bt = adaptToBaseToken(bta);
+			if (bt != null && !(bt instanceof EolToken))
+				documentTokens.add(bt);
+		}
+		int[] startOffsets = new int[documentTokens.size()];
+		for (int i = 0; i < startOffsets.length; i++) {
+			startOffsets[i] = documentTokens.get(i).getStartOffset();
+		}
+		for (Sentence sentAnnot : JCasUtil.select(jcas, Sentence.class)) {
+			List<BaseToken> sentenceTokens = getCoveredTokens(documentTokens, startOffsets,
+					sentAnnot.getBegin(), sentAnnot.getEnd());
+			for (BaseToken token : iv_contextDependentFSM.execute(sentenceTokens)) {
+				createAnnotation(jcas, token);
+			}
+		}
+	}
+
+	/**
+	 * @return the tokens that lie within the span, in index order as JCasUtil.selectCovered returns them
+	 */
+	private static List<BaseToken> getCoveredTokens(List<BaseToken> documentTokens, int[] startOffsets,
+			int begin, int end) {
+		// first token that starts at or after the span begin
+		int first = Arrays.binarySearch(startOffsets, begin);
+		if (first < 0) {
+			first = -first - 1;
+		}
+		while (first > 0 && startOffsets[first - 1] == begin) {
+			first--;
+		}
+		int last = first;
+		boolean contiguous = true;
+		List<BaseToken> covered = null;
+		for (int i = first; i < startOffsets.length && startOffsets[i] <= end; i++) {
+			BaseToken token = documentTokens.get(i);
+			if (token.getEndOffset() > end) {
+				if (contiguous) {
+					covered = new ArrayList<>(documentTokens.subList(first, last));
+					contiguous = false;
+				}
+				continue;
+			}
+			if (contiguous) {
+				last = i + 1;
+			} else {
+				covered.add(token);
+			}
+		}
+		return contiguous ? documentTokens.subList(first, last) : covered;
+	}
+
+	private static void createAnnotation(JCas jcas, BaseToken token) {
+		int begin = token.getStartOffset();
+		int end = token.getEndOffset();
+		if (token instanceof DateToken) {
+			new DateAnnotation(jcas, begin, end).addToIndexes();
+		} else if (token instanceof TimeToken) {
+			new TimeAnnotation(jcas, begin, end).addToIndexes();
+		} else if (token instanceof RomanNumeralToken) {
+			new RomanNumeralAnnotation(jcas, begin, end).addToIndexes();
+		} else if (token instanceof FractionToken) {
+			new FractionAnnotation(jcas, begin, end).addToIndexes();
+		} else if (token instanceof RangeToken) {
+			new RangeAnnotation(jcas, begin, end).addToIndexes();
+		} else if (token instanceof MeasurementToken) {
+			new MeasurementAnnotation(jcas, begin, end).addToIndexes();
+		} else if (token instanceof PersonTitleToken) {
+			new PersonTitleAnnotation(jcas, begin, end).addToIndexes();
+		}
+	}
+
 	/**
 	 * Adapts JCas objects to BaseToken interfaces expected by the Finite State
 	 * Machines.
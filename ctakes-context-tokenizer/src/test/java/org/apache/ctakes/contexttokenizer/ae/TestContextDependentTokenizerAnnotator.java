@@ -25,17 +25,26 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.ctakes.core.fsm.output.FractionToken;
+import org.apache.ctakes.typesystem.type.textsem.DateAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.FractionAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.MeasurementAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.PersonTitleAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.RangeAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.RomanNumeralAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.TimeAnnotation;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.ctakes.utils.test.TestUtil;
 import org.apache.uima.UIMAException;
 import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.junit.Test;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.fit.pipeline.SimplePipeline;
 import org.apache.uima.fit.util.JCasUtil;
@@ -61,4 +70,37 @@ public class TestContextDependentTokenizerAnnotator {
 			assertEquals(expected[i], fracs.get(i).getCoveredText());
 		}
 	}
+
+	@Test
+	public void testFusedExecutionSameAnnotations() throws UIMAException {
+		AnalysisEngine ae = TestUtil.getAE(new File("desc/analysis_engine/AggregateAE.xml"));
+		JCas jCas = TestUtil.processAE(ae, "Seen on 07/04/2010 at 10:30 am by Dr. Smith and Mrs. Jones.\n"
+				+ "Take 1/2 tablet or 2 1/2 tablets 3-4 times daily, 5 to 10 mg.\n"
+				+ "Stage II - IV cancer, mass 3.5 x 2.0 x 1.2 cm, BP 120/80, from March 3rd 2009 through 2010.\n");
+		List<String> fused = removeContextAnnotations(jCas);
+		assertEquals(true, fused.size() > 10);
+
+		AnalysisEngine sequential = AnalysisEngineFactory.createEngine(ContextDependentTokenizerAnnotator.class,
+				ContextDependentTokenizerAnnotator.PARAM_FUSED_EXECUTION, false);
+		sequential.process(jCas);
+		assertEquals(removeContextAnnotations(jCas), fused);
+	}
+
+	private static List<String> removeContextAnnotations(JCas jCas) {
+		List<Annotation> annotations = new ArrayList<>();
+		annotations.addAll(JCasUtil.select(jCas, DateAnnotation.class));
+		annotations.addAll(JCasUtil.select(jCas, TimeAnnotation.class));
+		annotations.addAll(JCasUtil.select(jCas, RomanNumeralAnnotation.class));
+		annotations.addAll(JCasUtil.select(jCas, FractionAnnotation.class));
+		annotations.addAll(JCasUtil.select(jCas, RangeAnnotation.class));
+		annotations.addAll(JCasUtil.select(jCas, MeasurementAnnotation.class));
+		annotations.addAll(JCasUtil.select(jCas, PersonTitleAnnotation.class));
+		List<String> descriptions = new ArrayList<>();
+		for (Annotation annotation : annotations) {
+			descriptions.add(annotation.getClass().getSimpleName() + " " + annotation.getBegin() + " " + annotation.getEnd());
+			annotation.removeFromIndexes();
+		}
+		Collections.sort(descriptions);
+		return descriptions;
+	}
 }
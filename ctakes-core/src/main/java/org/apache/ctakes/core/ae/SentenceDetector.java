@@ -28,6 +28,7 @@ import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.core.sentence.EndOfSentenceScannerImpl;
 import org.apache.ctakes.core.sentence.SentenceDetectorCtakes;
+import org.apache.ctakes.core.sentence.SentenceOutcomeCache;
 import org.apache.ctakes.core.sentence.SentenceSpan;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
@@ -47,6 +48,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.util.*;
 
@@ -85,11 +87,27 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
    )
 	private String sdModelPath;
 	
+	/**
+	 * Value is "OutcomeCacheSize".  Maximum number of end of sentence contexts whose model probabilities are cached.
+	 * The cache does not change the detected sentences.  0, the default, disables the cache.
+	 */
+	public static final String PARAM_OUTCOME_CACHE_SIZE = "OutcomeCacheSize";
+	@ConfigurationParameter(
+	    name = PARAM_OUTCOME_CACHE_SIZE,
+	    mandatory = false,
+	    description = "Maximum number of end of sentence contexts whose model probabilities are cached, 0 for none",
+	    defaultValue = "0"
+	)
+	private int outcomeCacheSize;
+
 	private opennlp.tools.sentdetect.SentenceModel sdmodel;
 
-	private SentenceDetectorCtakes sentenceDetector;
+	private SentenceOutcomeCache outcomeCache;
+
+	// The context generator and sentence probabilities are per detector, so each thread gets its own detector.
+	private ThreadLocal<SentenceDetectorCtakes> sentenceDetector;
 
-	private String NEWLINE = "\n";
+	private static final char NEWLINE = '\n';
 
   // LOG4J logger based on class name
   private Logger logger = Logger.getLogger(getClass().getName());
@@ -101,9 +119,10 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
 		try (InputStream is = FileLocator.getAsStream(sdModelPath)){
 		  logger.info("Sentence detector model file: " + sdModelPath);
 		  sdmodel = new SentenceModel(is);
-		  EndOfSentenceScannerImpl eoss = new EndOfSentenceScannerImpl();
-		  DefaultSDContextGenerator cg = new DefaultSDContextGenerator(eoss.getEndOfSentenceCharacters());
-		  sentenceDetector = new SentenceDetectorCtakes(sdmodel.getMaxentModel(), cg, eoss);
+		  if (outcomeCacheSize > 0) {
+		    outcomeCache = new SentenceOutcomeCache(sdmodel.getMaxentModel(), outcomeCacheSize);
+		  }
+		  sentenceDetector = ThreadLocal.withInitial(this::createSentenceDetector);
 
 		  skipSegmentsSet = new HashSet<>();
 		  if(skipSegmentsArray != null){
@@ -115,6 +134,19 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
     }
 	}
 
+	private SentenceDetectorCtakes createSentenceDetector() {
+		EndOfSentenceScannerImpl eoss = new EndOfSentenceScannerImpl();
+		DefaultSDContextGenerator cg = new DefaultSDContextGenerator(eoss.getEndOfSentenceCharacters());
+		return new SentenceDetectorCtakes(sdmodel.getMaxentModel(), cg, eoss, outcomeCache);
+	}
+
+	/**
+	 * @return cache of model probabilities shared by all threads, or null if there is none
+	 */
+	public SentenceOutcomeCache getOutcomeCache() {
+		return outcomeCache;
+	}
+
 	/**
 	 * Entry point for processing.
 	 */
@@ -165,28 +197,16 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
 
 		// Use OpenNLP tools to split text into sentences
 		// The sentence detector returns the offsets of the sentence-endings it
-		// detects
-		// within the string
-		int[] sentenceBreaks = sentenceDetector.sentPosDetect(text.substring(b,
-				e)); // OpenNLP tools 1.5 returns Spans rather than offsets that
-						// 1.4 did
-		int numSentences = sentenceBreaks.length;
-		// There might be text after the last sentence-ending found by detector,
-		// so +1
-		SentenceSpan[] potentialSentSpans = new SentenceSpan[numSentences + 1];
+		// detects within the section, read in place without a substring
+		int[] sentenceBreaks = sentenceDetector.get().sentPosDetect(CharBuffer.wrap(text, b, e));
 
+		SentenceWriter writer = new SentenceWriter(jcas, text, sentenceCount);
 		int sentStart = b;
 		int sentEnd = b;
-		// Start by filling in sentence spans from what OpenNLP tools detected
-		// Will trim leading or trailing whitespace when check for end-of-line
-		// characters
-		for (int i = 0; i < numSentences; i++) {
-			sentEnd = sentenceBreaks[i] + b; // OpenNLP tools 1.5 returns Spans
-												// rather than offsets that 1.4
-												// did
-			String coveredText = text.substring(sentStart, sentEnd);
-			potentialSentSpans[i] = new SentenceSpan(sentStart, sentEnd,
-					coveredText);
+		// Start by adding sentence spans from what OpenNLP tools detected
+		for (int i = 0; i < sentenceBreaks.length; i++) {
+			sentEnd = sentenceBreaks[i] + b;
+			writer.splitAtLineBreaksAndTrim(sentStart, sentEnd);
 			sentStart = sentEnd;
 		}
 
@@ -194,56 +214,75 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
 		// or there was text after the last sentence-ending found,
 		// create a sentence from what's left, as long as it's not all
 		// whitespace.
-		// Will trim leading or trailing whitespace when check for end-of-line
-		// characters
 		if (sentEnd < e) {
-			String coveredText = text.substring(sentEnd, e);
-			if (coveredText.trim() != "") {
-				potentialSentSpans[numSentences] = new SentenceSpan(sentEnd, e,
-						coveredText);
-				numSentences++;
-			}
+			writer.splitAtLineBreaksAndTrim(sentEnd, e);
+		}
+		return writer.sentenceCount;
+	}
+
+	/**
+	 * Adds sentences to the CAS by offsets.  Does what {@link SentenceSpan#splitAtLineBreaksAndTrim(String)}
+	 * does for newlines without creating substrings, ignoring spans that are entirely whitespace,
+	 * trimming the rest and splitting any that contain an end-of-line character.
+	 */
+	private final class SentenceWriter {
+		private final JCas jcas;
+		private final String text;
+		private int sentenceCount;
+		private int previousEnd = -1;
+
+		private SentenceWriter(JCas jcas, String text, int sentenceCount) {
+			this.jcas = jcas;
+			this.text = text;
+			this.sentenceCount = sentenceCount;
 		}
 
-		// Copy potentialSentSpans into sentenceSpans,
-		// ignoring any that are entirely whitespace,
-		// trimming the rest,
-		// and splitting any of those that contain an end-of-line character.
-		// Then trim any leading or trailing whitespace of ones that were split.
-		ArrayList<SentenceSpan> sentenceSpans = new ArrayList<>(0);
-		for (int i = 0; i < potentialSentSpans.length; i++) {
-			if (potentialSentSpans[i] != null) {
-				sentenceSpans.addAll(potentialSentSpans[i]
-						.splitAtLineBreaksAndTrim(NEWLINE)); // TODO Determine
-																// line break
-																// type
+		private void splitAtLineBreaksAndTrim(int spanBegin, int spanEnd) {
+			int lineBegin = spanBegin;
+			while (lineBegin <= spanEnd) {
+				int newline = lineBegin;
+				while (newline < spanEnd && text.charAt(newline) != NEWLINE) {
+					newline++;
+				}
+				// trim as String.trim() does
+				int begin = lineBegin;
+				int end = newline;
+				while (begin < end && text.charAt(begin) <= ' ') {
+					begin++;
+				}
+				while (end > begin && text.charAt(end - 1) <= ' ') {
+					end--;
+				}
+				if (begin != end) { // skip empty lines
+					addSentence(begin, end);
+				}
+				lineBegin = newline + 1;
 			}
 		}
 
-		// Add sentence annotations to the CAS
-		int previousEnd = -1;
-		for (int i = 0; i < sentenceSpans.size(); i++) {
-			SentenceSpan span = sentenceSpans.get(i);
-			if (span.getStart() != span.getEnd()) { // skip empty lines
-				Sentence sa = new Sentence(jcas);
-				sa.setBegin(span.getStart());
-				sa.setEnd(span.getEnd());
-				if (previousEnd <= sa.getBegin()) {
-					// System.out.println("Adding Sentence Annotation for " +
-					// span.toString());
-					sa.setSentenceNumber(sentenceCount);
-					sa.addToIndexes();
-					sentenceCount++;
-					previousEnd = span.getEnd();
-				} else {
-					logger.error("Skipping sentence from " + span.getStart()
-							+ " to " + span.getEnd());
-					logger.error("Overlap with previous sentence that ended at "
-							+ previousEnd);
-				}
+		private void addSentence(int begin, int end) {
+			if (previousEnd <= begin) {
+				Sentence sa = new Sentence(jcas, begin, end);
+				sa.setSentenceNumber(sentenceCount);
+				sa.addToIndexes();
+				sentenceCount++;
+				previousEnd = end;
+			} else {
+				logger.error("Skipping sentence from " + begin + " to " + end);
+				logger.error("Overlap with previous sentence that ended at " + previousEnd);
 			}
 		}
-		return sentenceCount;
+	}
+
+	/**
+	 * Logs use of the outcome cache.
+	 */
+	@Override
+	public void collectionProcessComplete() throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		if (outcomeCache != null) {
+			logger.info(outcomeCache.toString());
+		}
 	}
 
 	public static AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException{
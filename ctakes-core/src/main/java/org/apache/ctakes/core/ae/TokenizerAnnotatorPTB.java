@@ -18,6 +18,8 @@
  */
 package org.apache.ctakes.core.ae;
 
+import org.apache.ctakes.core.nlp.tokenizer.FastTokenizerPTB;
+import org.apache.ctakes.core.nlp.tokenizer.TokenOffsets;
 import org.apache.ctakes.core.nlp.tokenizer.TokenizerPTB;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
@@ -35,6 +37,7 @@ import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
+import java.nio.CharBuffer;
 import java.util.*;
 
 import static org.apache.ctakes.core.pipeline.PipeBitInfo.TypeProduct.*;
@@ -68,7 +71,22 @@ public class TokenizerAnnotatorPTB extends JCasAnnotator_ImplBase
   private String[] skipSegmentsArray;
   private Set<String> skipSegmentsSet;
 
+	/**
+	 * Value is "UseFastTokenizer".  If true, sentences are tokenized in place by {@link FastTokenizerPTB},
+	 * which runs in linear time but is not yet known to give exactly the tokens of {@link TokenizerPTB} for all text.
+	 */
+	public static final String PARAM_USE_FAST_TOKENIZER = "UseFastTokenizer";
+  @ConfigurationParameter(
+      name = PARAM_USE_FAST_TOKENIZER,
+      mandatory = false,
+      defaultValue = "false",
+      description = "Tokenize with the linear time FastTokenizerPTB instead of TokenizerPTB"
+      )
+  private boolean useFastTokenizer;
+
 	private TokenizerPTB tokenizer;
+	private FastTokenizerPTB fastTokenizer;
+	private TokenOffsets tokenOffsets;
 
 	private int tokenCount = 0;
 
@@ -76,7 +94,12 @@ public class TokenizerAnnotatorPTB extends JCasAnnotator_ImplBase
   public void initialize(UimaContext aContext) throws ResourceInitializationException {
 		super.initialize(aContext);
 		logger.info("Initializing " + this.getClass().getName());
-		tokenizer = new TokenizerPTB();
+		if (useFastTokenizer) {
+			fastTokenizer = new FastTokenizerPTB();
+			tokenOffsets = new TokenOffsets();
+		} else {
+			tokenizer = new TokenizerPTB();
+		}
 		skipSegmentsSet = new HashSet<>();
     if(skipSegmentsArray != null){
       Collections.addAll(skipSegmentsSet, skipSegmentsArray);
@@ -143,11 +166,16 @@ public class TokenizerAnnotatorPTB extends JCasAnnotator_ImplBase
 		}
 
 		// Now process each sentence
-		Collection<Sentence> sentences = JCasUtil.select(jcas, Sentence.class);
+		Collection<Sentence> sentences = JCasUtil.selectCovered(jcas, Sentence.class, rangeBegin, rangeEnd);
 		
 		// Tokenize each sentence, adding the tokens to the cas index
 		for(Sentence sentence : sentences){
-			if (sentence.getBegin() < rangeBegin || sentence.getEnd() > rangeEnd) {
+			if (fastTokenizer != null) {
+				CharSequence sentenceText = CharBuffer.wrap(docText, sentence.getBegin(), sentence.getEnd());
+				fastTokenizer.tokenize(sentenceText, tokenOffsets);
+				for (int i = 0; i < tokenOffsets.size(); i++) {
+					FastTokenizerPTB.createToken(jcas, sentenceText, tokenOffsets, i, sentence.getBegin()).addToIndexes();
+				}
 				continue;
 			}
 			List<?> tokens = tokenizer.tokenizeTextSegment(jcas, sentence.getCoveredText(), sentence.getBegin(), true);
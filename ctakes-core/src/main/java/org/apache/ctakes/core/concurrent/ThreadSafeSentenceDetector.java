@@ -2,6 +2,7 @@ package org.apache.ctakes.core.concurrent;
 
 import org.apache.ctakes.core.ae.SentenceDetector;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.sentence.SentenceOutcomeCache;
 import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
@@ -13,6 +14,8 @@ import org.apache.uima.resource.ResourceInitializationException;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
+ * Each thread detects sentences with its own detector over the shared model and outcome cache,
+ * so documents are not serialized.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -44,6 +47,22 @@ final public class ThreadSafeSentenceDetector extends SentenceDetector {
       SdSingleton.getInstance().process( jCas );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      SdSingleton.getInstance().collectionProcessComplete();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public SentenceOutcomeCache getOutcomeCache() {
+      return SdSingleton.getInstance().getDelegate().getOutcomeCache();
+   }
+
    /**
     * @return a sentence detector
     * @throws ResourceInitializationException -
@@ -78,6 +97,15 @@ final public class ThreadSafeSentenceDetector extends SentenceDetector {
          return _delegate;
       }
 
+      /**
+       * The delegate detects sentences with a per-thread detector over the shared model and outcome cache,
+       * so only initialization is locked.
+       */
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         _delegate.process( jCas );
+      }
+
       @Override
       public boolean isInitialized() {
          return _initialized;
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import net.openai.util.fsm.Condition;
+import net.openai.util.fsm.Machine;
+import net.openai.util.fsm.State;
+import net.openai.util.fsm.UnhandledConditionException;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.core.fsm.token.CharacterToken;
+import org.apache.ctakes.core.fsm.token.DecimalToken;
+import org.apache.ctakes.core.fsm.token.IntegerToken;
+import org.apache.ctakes.core.fsm.token.NumberToken;
+import org.apache.ctakes.core.fsm.token.TextToken;
+import org.apache.ctakes.core.fsm.token.WordToken;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table driven replacement for an openai fsm {@link Machine}, with the same transitions and states.
+ * <p>
+ * The states reachable from the machine's start state are numbered once,
+ * and the conditions of each state are kept in the order in which the machine tests them.
+ * A token is reduced to its token class: its runtime type, text, character and numeric values.
+ * The first time a token class is seen, the conditions of every state are evaluated for it,
+ * and the resulting row of next states is kept.  Later tokens of the class only index the row.
+ * Clinical text repeats a small number of token classes, so nearly every input is a table lookup.
+ * Rows are kept for the most recently used token classes, so rare words do not push out the common ones.
+ * </p>
+ * Conditions must depend only on the token class, which holds for the ctakes fsm conditions.
+ * Offsets are not part of the token class and must not be tested by conditions.
+ * Inputs that are not fsm {@link BaseToken}s and conditions that throw are evaluated on each input,
+ * as the machine would evaluate them.
+ * The machine must not be changed after it is compiled.
+ * Like {@link Machine}, a compiled machine holds a current state and should be used by one thread at a time.
+ */
+final public class CompiledMachine {
+
+   // next state markers
+   static private final int UNHANDLED = -1;
+   static private final int EVALUATE = -2;
+   static private final int NO_STATE = -1;
+   static private final int MAX_TOKEN_CLASSES = 8192;
+
+   private final State[] _states;
+   private final Condition[][] _conditions;
+   private final int[][] _targets;
+   private final Map<TokenClass, int[]> _rows
+         = new LinkedHashMap<TokenClass, int[]>( 256, 0.75f, true ) {
+      @Override
+      protected boolean removeEldestEntry( final Map.Entry<TokenClass, int[]> eldest ) {
+         return size() > MAX_TOKEN_CLASSES;
+      }
+   };
+   private int _currentState = NO_STATE;
+
+   /**
+    * @param machine machine with a start state, which is not changed
+    */
+   public CompiledMachine( final Machine machine ) {
+      final State startState = machine.getStartState();
+      if ( startState == null ) {
+         throw new IllegalArgumentException( "Machine has no start state" );
+      }
+      // breadth first from the start state, which is state 0
+      final Map<State, Integer> stateIds = new IdentityHashMap<>();
+      final List<State> states = new ArrayList<>();
+      stateIds.put( startState, 0 );
+      states.add( startState );
+      final List<Condition[]> conditions = new ArrayList<>();
+      for ( int i = 0; i < states.size(); i++ ) {
+         // a state without transitions has no vector
+         final List<?> transitions = states.get( i ).getTransitions();
+         final Condition[] stateConditions = transitions == null
+                                             ? new Condition[ 0 ]
+                                             : transitions.toArray( new Condition[ transitions.size() ] );
+         conditions.add( stateConditions );
+         for ( Condition condition : stateConditions ) {
+            final State target = condition.getTargetState();
+            if ( target != null && !stateIds.containsKey( target ) ) {
+               stateIds.put( target, states.size() );
+               states.add( target );
+            }
+         }
+      }
+      _states = states.toArray( new State[ states.size() ] );
+      _conditions = conditions.toArray( new Condition[ conditions.size() ][] );
+      _targets = new int[ _states.length ][];
+      for ( int i = 0; i < _states.length; i++ ) {
+         _targets[ i ] = new int[ _conditions[ i ].length ];
+         for ( int j = 0; j < _conditions[ i ].length; j++ ) {
+            final State target = _conditions[ i ][ j ].getTargetState();
+            _targets[ i ][ j ] = target == null ? UNHANDLED : stateIds.get( target );
+         }
+      }
+   }
+
+   /**
+    * @return the start state of the machine
+    */
+   public State getStartState() {
+      return _states[ 0 ];
+   }
+
+   /**
+    * @return the current state of the machine, null if there has been no input since the machine was created
+    */
+   public State getCurrentState() {
+      return _currentState == NO_STATE ? null : _states[ _currentState ];
+   }
+
+   /**
+    * Moves the machine to the target of the first condition of the current state satisfied by the token.
+    *
+    * @param token some fsm token
+    * @throws UnhandledConditionException if no condition of the current state is satisfied by the token
+    */
+   public void input( final Object token ) throws UnhandledConditionException {
+      if ( _currentState == NO_STATE ) {
+         _currentState = 0;
+      }
+      int next = EVALUATE;
+      if ( token instanceof BaseToken ) {
+         next = getRow( token )[ _currentState ];
+      }
+      if ( next == EVALUATE ) {
+         next = evaluate( _currentState, token );
+      }
+      if ( next == UNHANDLED ) {
+         throw new UnhandledConditionException( _states[ _currentState ], token );
+      }
+      _currentState = next;
+   }
+
+   /**
+    * Returns the machine to its start state.
+    */
+   public void reset() {
+      _currentState = 0;
+   }
+
+   /**
+    * @return number of states reachable from the start state
+    */
+   public int getStateCount() {
+      return _states.length;
+   }
+
+   /**
+    * @return number of token classes with a row of next states
+    */
+   public int getTokenClassCount() {
+      return _rows.size();
+   }
+
+   private int[] getRow( final Object token ) {
+      final TokenClass tokenClass = new TokenClass( token );
+      int[] row = _rows.get( tokenClass );
+      if ( row == null ) {
+         row = new int[ _states.length ];
+         for ( int i = 0; i < _states.length; i++ ) {
+            try {
+               row[ i ] = evaluate( i, token );
+            } catch ( RuntimeException reException ) {
+               // let the condition throw when the token is actually input in this state
+               row[ i ] = EVALUATE;
+            }
+         }
+         _rows.put( tokenClass, row );
+      }
+      return row;
+   }
+
+   private int evaluate( final int state, final Object token ) {
+      final Condition[] conditions = _conditions[ state ];
+      for ( int i = 0; i < conditions.length; i++ ) {
+         if ( conditions[ i ].satisfiedBy( token ) ) {
+            return _targets[ state ][ i ];
+         }
+      }
+      return UNHANDLED;
+   }
+
+
+   /**
+    * Everything about a token that an fsm condition can test.
+    */
+   static private final class TokenClass {
+      private final Class<?> _type;
+      private final String _text;
+      private final long _value;
+      private final int _char;
+      private final int _caps;
+      private final int _numPosition;
+      private final boolean _positive;
+      private final int _hash;
+
+      private TokenClass( final Object token ) {
+         _type = token.getClass();
+         _text = token instanceof TextToken ? ((TextToken)token).getText() : null;
+         if ( token instanceof IntegerToken ) {
+            _value = ((IntegerToken)token).getValue();
+         } else if ( token instanceof DecimalToken ) {
+            _value = Double.doubleToLongBits( ((DecimalToken)token).getValue() );
+         } else {
+            _value = 0;
+         }
+         _char = token instanceof CharacterToken ? ((CharacterToken)token).getChar() : 0;
+         if ( token instanceof WordToken ) {
+            _caps = ((WordToken)token).getCaps();
+            _numPosition = ((WordToken)token).getNumPosition();
+         } else {
+            _caps = 0;
+            _numPosition = 0;
+         }
+         _positive = token instanceof NumberToken && ((NumberToken)token).getPositive();
+         int hash = _type.hashCode();
+         hash = 31 * hash + (_text == null ? 0 : _text.hashCode());
+         hash = 31 * hash + Long.hashCode( _value );
+         hash = 31 * hash + _char;
+         hash = 31 * hash + _caps;
+         hash = 31 * hash + _numPosition;
+         _hash = 31 * hash + (_positive ? 1 : 0);
+      }
+
+      @Override
+      public int hashCode() {
+         return _hash;
+      }
+
+      @Override
+      public boolean equals( final Object other ) {
+         if ( !(other instanceof TokenClass) ) {
+            return false;
+         }
+         final TokenClass tokenClass = (TokenClass)other;
+         return _hash == tokenClass._hash
+                && _type == tokenClass._type
+                && _value == tokenClass._value
+                && _char == tokenClass._char
+                && _caps == tokenClass._caps
+                && _numPosition == tokenClass._numPosition
+                && _positive == tokenClass._positive
+                && (_text == null ? tokenClass._text == null : _text.equals( tokenClass._text ));
+      }
+   }
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import net.openai.util.fsm.State;
+import net.openai.util.fsm.UnhandledConditionException;
+import org.apache.ctakes.core.fsm.output.DateToken;
+import org.apache.ctakes.core.fsm.output.FractionToken;
+import org.apache.ctakes.core.fsm.output.MeasurementToken;
+import org.apache.ctakes.core.fsm.output.PersonTitleToken;
+import org.apache.ctakes.core.fsm.output.RangeToken;
+import org.apache.ctakes.core.fsm.output.RomanNumeralToken;
+import org.apache.ctakes.core.fsm.output.TimeToken;
+import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Runs the machines of the date, time, roman numeral, fraction, range, measurement and person title fsms
+ * together in a single pass over a list of tokens.
+ * <p>
+ * Each machine keeps its own start index and produces exactly the outputs that its fsm produces.
+ * The range machines read roman numerals in place of the tokens that they cover,
+ * and the measurement machines read ranges, as they do when the fsms are executed one after another.
+ * A range machine is given a token only once no roman numeral can start at or before that token,
+ * and a measurement machine only once no range can, so the range and measurement machines trail the others
+ * by the length of an unfinished roman numeral or range and every token is read once.
+ * </p>
+ * When several roman numerals or ranges start at the same offset the fsms use whichever their output set
+ * happens to return last.  The fused machines consistently use the last one found, which is the longest.
+ * Like the fsms, an instance should be used by one thread at a time.
+ */
+final public class ContextDependentFSM {
+
+   private final List<Track> _tracks = new ArrayList<>();
+   private final List<Track> _romanNumeralTracks = new ArrayList<>();
+   private final OverrideStage _rangeStage = new OverrideStage();
+   private final OverrideStage _measurementStage = new OverrideStage();
+
+   public ContextDependentFSM() {
+      addTracks( _tracks, new DateFSM().getMachines(), DateToken::new, true, false, null );
+      addTracks( _tracks, new TimeFSM().getMachines(), TimeToken::new, false, false, null );
+      addTracks( _romanNumeralTracks, new RomanNumeralFSM().getMachines(), RomanNumeralToken::new,
+            false, false, _rangeStage );
+      _tracks.addAll( _romanNumeralTracks );
+      addTracks( _tracks, new FractionFSM().getMachines(), FractionToken::new, false, true, null );
+      addTracks( _tracks, new PersonTitleFSM().getMachines(), PersonTitleToken::new, false, false, null );
+      addTracks( _rangeStage._tracks, new RangeFSM().getMachines(), RangeToken::new,
+            false, false, _measurementStage );
+      addTracks( _measurementStage._tracks, new MeasurementFSM().getMachines(), MeasurementToken::new,
+            false, false, null );
+   }
+
+   static private void addTracks( final List<Track> tracks, final Collection<CompiledMachine> machines,
+                                  final BiFunction<Integer, Integer, BaseToken> outputFactory,
+                                  final boolean nonTerminalEnd, final boolean keepStart,
+                                  final OverrideStage overrideStage ) {
+      for ( CompiledMachine machine : machines ) {
+         tracks.add( new Track( machine, outputFactory, nonTerminalEnd, keepStart, overrideStage ) );
+      }
+   }
+
+   /**
+    * @param tokens fsm tokens of a sentence
+    * @return date, time, roman numeral, fraction, range, measurement and person title tokens,
+    * the union of the outputs of the fsms
+    * @throws UnhandledConditionException if a machine cannot handle a token, which the fsms' machines never do
+    */
+   public List<BaseToken> execute( final List<? extends BaseToken> tokens ) throws UnhandledConditionException {
+      reset();
+      final List<BaseToken> outputs = new ArrayList<>();
+      for ( int i = 0; i < tokens.size(); i++ ) {
+         final BaseToken token = tokens.get( i );
+         for ( Track track : _tracks ) {
+            track.input( tokens, i, token, outputs );
+         }
+         advance( tokens, getEarliestStart( _romanNumeralTracks ), false, outputs );
+      }
+      advance( tokens, tokens.size(), true, outputs );
+      reset();
+      return outputs;
+   }
+
+   /**
+    * Moves the range machines to the given token and the measurement machines as far as the ranges allow.
+    */
+   private void advance( final List<? extends BaseToken> tokens, final int rangeLimit, final boolean finish,
+                         final List<BaseToken> outputs ) throws UnhandledConditionException {
+      while ( _rangeStage._next < rangeLimit ) {
+         _rangeStage.input( tokens, outputs );
+      }
+      final int measurementLimit = finish ? tokens.size() : getEarliestStart( _rangeStage._tracks );
+      while ( _measurementStage._next < measurementLimit ) {
+         _measurementStage.input( tokens, outputs );
+      }
+   }
+
+   private void reset() {
+      for ( Track track : _tracks ) {
+         track.reset();
+      }
+      _rangeStage.reset();
+      _measurementStage.reset();
+   }
+
+   /**
+    * @return index of the first token at which any of the tracks may yet start an output
+    */
+   static private int getEarliestStart( final List<Track> tracks ) {
+      int earliest = Integer.MAX_VALUE;
+      for ( Track track : tracks ) {
+         earliest = Math.min( earliest, track.getEarliestStart() );
+      }
+      return earliest;
+   }
+
+
+   /**
+    * A machine with the start index bookkeeping of an fsm's execute method.
+    */
+   static private final class Track {
+      private final CompiledMachine _machine;
+      private final BiFunction<Integer, Integer, BaseToken> _outputFactory;
+      // the date fsm ends a date on the previous token for non-terminal end states
+      private final boolean _nonTerminalEnd;
+      // the fraction fsm keeps the start of a fraction after it ends
+      private final boolean _keepStart;
+      // stage that reads the outputs in place of tokens, or null
+      private final OverrideStage _overrideStage;
+      private int _startIndex = -1;
+
+      private Track( final CompiledMachine machine, final BiFunction<Integer, Integer, BaseToken> outputFactory,
+                     final boolean nonTerminalEnd, final boolean keepStart, final OverrideStage overrideStage ) {
+         _machine = machine;
+         _outputFactory = outputFactory;
+         _nonTerminalEnd = nonTerminalEnd;
+         _keepStart = keepStart;
+         _overrideStage = overrideStage;
+      }
+
+      private void reset() {
+         _machine.reset();
+         _startIndex = -1;
+      }
+
+      /**
+       * @return index of the first token of any output that the machine may yet produce
+       */
+      private int getEarliestStart() {
+         // until the machine is first in its start state outputs start at token zero
+         return _startIndex < 0 ? 0 : _startIndex + 1;
+      }
+
+      /**
+       * @param tokens sentence tokens
+       * @param index  index of the token in the sentence
+       * @param token   the token, or an override token that starts at the token
+       * @param outputs list to which an output ending at the token is added
+       */
+      private void input( final List<? extends BaseToken> tokens, final int index, final BaseToken token,
+                          final List<BaseToken> outputs ) throws UnhandledConditionException {
+         _machine.input( token );
+         final State currentState = _machine.getCurrentState();
+         if ( currentState.getStartStateFlag() ) {
+            _startIndex = index;
+         }
+         if ( !currentState.getEndStateFlag() ) {
+            return;
+         }
+         final int startIndex = getEarliestStart();
+         final BaseToken endToken = _nonTerminalEnd && currentState instanceof NonTerminalEndState
+                                    ? tokens.get( index - 1 )
+                                    : token;
+         final BaseToken output = _outputFactory.apply( tokens.get( startIndex ).getStartOffset(),
+               endToken.getEndOffset() );
+         outputs.add( output );
+         if ( _overrideStage != null ) {
+            _overrideStage.addOverride( output );
+         }
+         _machine.reset();
+         if ( _keepStart ) {
+            _startIndex = startIndex;
+         }
+      }
+   }
+
+
+   /**
+    * Machines that read override tokens in place of the tokens that the override tokens cover,
+    * as in the range and measurement fsms.
+    */
+   static private final class OverrideStage {
+      private final List<Track> _tracks = new ArrayList<>();
+      // key = start offset, value = override token
+      private final Map<Integer, BaseToken> _overrides = new HashMap<>();
+      private boolean _overrideOn;
+      private int _overrideEndOffset = -1;
+      private int _next;
+
+      private void reset() {
+         for ( Track track : _tracks ) {
+            track.reset();
+         }
+         _overrides.clear();
+         _overrideOn = false;
+         _overrideEndOffset = -1;
+         _next = 0;
+      }
+
+      private void addOverride( final BaseToken token ) {
+         _overrides.put( token.getStartOffset(), token );
+      }
+
+      /**
+       * Inputs the next token.
+       *
+       * @param outputs list to which outputs ending at the token are added
+       */
+      private void input( final List<? extends BaseToken> tokens, final List<BaseToken> outputs )
+            throws UnhandledConditionException {
+         final int index = _next++;
+         BaseToken token = tokens.get( index );
+         if ( _overrideOn ) {
+            if ( token.getStartOffset() < _overrideEndOffset ) {
+               return;
+            }
+            _overrideOn = false;
+            _overrideEndOffset = -1;
+         } else {
+            final BaseToken override = _overrides.get( token.getStartOffset() );
+            if ( override != null ) {
+               // override one or more tokens until the override token is complete
+               token = override;
+               _overrideOn = true;
+               _overrideEndOffset = token.getEndOffset();
+            }
+         }
+         for ( Track track : _tracks ) {
+            track.input( tokens, index, token, outputs );
+         }
+      }
+   }
+
+}
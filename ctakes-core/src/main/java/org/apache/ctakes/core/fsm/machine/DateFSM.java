@@ -60,7 +60,7 @@ public class DateFSM {
 	private Set<String> iv_monthShortNameSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -95,8 +95,8 @@ public class DateFSM {
 		iv_monthShortNameSet.add("nov");
 		iv_monthShortNameSet.add("dec");
 
-		iv_machineSet.add(getNumericDateMachine());
-		iv_machineSet.add(getTextualDateMachine());
+		iv_machineSet.add(new CompiledMachine(getNumericDateMachine()));
+		iv_machineSet.add(new CompiledMachine(getTextualDateMachine()));
 	}
 
 	/**
@@ -246,6 +246,13 @@ public class DateFSM {
 		return m;
 	}
 
+	/**
+	 * @return the machines, for {@link ContextDependentFSM}
+	 */
+	Set<CompiledMachine> getMachines() {
+		return iv_machineSet;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -256,14 +263,14 @@ public class DateFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		for (int i = 0; i < tokens.size(); i++) {
 			BaseToken token = tokens.get(i);
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -304,9 +311,9 @@ public class DateFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
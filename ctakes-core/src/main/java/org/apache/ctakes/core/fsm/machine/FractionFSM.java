@@ -50,7 +50,7 @@ public class FractionFSM {
 	Set<String> iv_textDenominatorSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -88,7 +88,7 @@ public class FractionFSM {
 		iv_textDenominatorSet.add("tenth");
 		iv_textDenominatorSet.add("tenths");
 
-		iv_machineSet.add(getMachine());
+		iv_machineSet.add(new CompiledMachine(getMachine()));
 	}
 
 	/**
@@ -143,6 +143,13 @@ public class FractionFSM {
 		return m;
 	}
 
+	/**
+	 * @return the machines, for {@link ContextDependentFSM}
+	 */
+	Set<CompiledMachine> getMachines() {
+		return iv_machineSet;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -154,14 +161,14 @@ public class FractionFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		for (int i = 0; i < tokens.size(); i++) {
 			BaseToken token = tokens.get(i);
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -200,9 +207,9 @@ public class FractionFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
@@ -52,7 +52,7 @@ public class MeasurementFSM {
 	Set<String> iv_textNumberSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -143,8 +143,8 @@ public class MeasurementFSM {
 		iv_textNumberSet.add("nine");
 		iv_textNumberSet.add("ten");
 
-		iv_machineSet.add(getBloodPressureMachine());
-		iv_machineSet.add(getSubstanceQuantityMachine());
+		iv_machineSet.add(new CompiledMachine(getBloodPressureMachine()));
+		iv_machineSet.add(new CompiledMachine(getSubstanceQuantityMachine()));
 	}
 
 	/**
@@ -226,6 +226,13 @@ public class MeasurementFSM {
 		return m;
 	}
 
+	/**
+	 * @return the machines, for {@link ContextDependentFSM}
+	 */
+	Set<CompiledMachine> getMachines() {
+		return iv_machineSet;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -237,7 +244,7 @@ public class MeasurementFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		Iterator<? extends BaseToken> overrideTokenItr = overrideSet.iterator();
 		// key = start offset, value = override BaseToken object
@@ -273,9 +280,9 @@ public class MeasurementFSM {
 				}
 			}
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -310,9 +317,9 @@ public class MeasurementFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
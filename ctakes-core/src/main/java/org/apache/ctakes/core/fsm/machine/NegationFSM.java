@@ -70,7 +70,7 @@ public class NegationFSM {
 	private Set<String> iv_negColPartSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -183,9 +183,9 @@ public class NegationFSM {
 		iv_negAdjectivesSet.add("unlikely");
 		iv_negAdjectivesSet.add("negative");
 
-		iv_machineSet.add(getAspectualNegIndicatorMachine());
-		iv_machineSet.add(getNominalNegIndicatorMachine());
-		iv_machineSet.add(getAdjNegIndicatorMachine());
+		iv_machineSet.add(new CompiledMachine(getAspectualNegIndicatorMachine()));
+		iv_machineSet.add(new CompiledMachine(getNominalNegIndicatorMachine()));
+		iv_machineSet.add(new CompiledMachine(getAdjNegIndicatorMachine()));
 
 	}
 
@@ -370,14 +370,14 @@ public class NegationFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		for (int i = 0; i < tokens.size(); i++) {
 			BaseToken token = (BaseToken) tokens.get(i);
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -418,9 +418,9 @@ public class NegationFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
@@ -47,7 +47,7 @@ public class PersonTitleFSM {
 	Set<String> iv_fullTextSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -60,7 +60,7 @@ public class PersonTitleFSM {
 		iv_fullTextSet.add("mrs");
 		iv_fullTextSet.add("dr");
 
-		iv_machineSet.add(getTitleMachine());
+		iv_machineSet.add(new CompiledMachine(getTitleMachine()));
 	}
 
 	/**
@@ -94,6 +94,13 @@ public class PersonTitleFSM {
 		return m;
 	}
 
+	/**
+	 * @return the machines, for {@link ContextDependentFSM}
+	 */
+	Set<CompiledMachine> getMachines() {
+		return iv_machineSet;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -105,14 +112,14 @@ public class PersonTitleFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		for (int i = 0; i < tokens.size(); i++) {
 			BaseToken token = tokens.get(i);
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -146,9 +153,9 @@ public class PersonTitleFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
@@ -49,7 +49,7 @@ public class RangeFSM {
 	Set<String> iv_textNumberSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -68,7 +68,7 @@ public class RangeFSM {
 		iv_textNumberSet.add("nine");
 		iv_textNumberSet.add("ten");
 
-		iv_machineSet.add(getMachine());
+		iv_machineSet.add(new CompiledMachine(getMachine()));
 	}
 
 	/**
@@ -126,6 +126,13 @@ public class RangeFSM {
 		return m;
 	}
 
+	/**
+	 * @return the machines, for {@link ContextDependentFSM}
+	 */
+	Set<CompiledMachine> getMachines() {
+		return iv_machineSet;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -137,7 +144,7 @@ public class RangeFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		Iterator<? extends BaseToken> overrideTokenItr = overrideSet.iterator();
 		// key = start offset, value = override BaseToken object
@@ -173,9 +180,9 @@ public class RangeFSM {
 				}
 			}
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -209,9 +216,9 @@ public class RangeFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
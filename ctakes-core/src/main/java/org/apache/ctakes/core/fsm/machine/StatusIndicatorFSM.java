@@ -53,10 +53,10 @@ public class StatusIndicatorFSM
     private Set<String> iv_familyHistorySet = new HashSet<String>();
 
     // contains the finite state machines
-    private Machine iv_probableMachine;
-    private Machine iv_historyMachine;
-    private Machine iv_familyHistoryMachine;
-    private Set<Machine> iv_machineSet = new HashSet<Machine>();
+    private CompiledMachine iv_probableMachine;
+    private CompiledMachine iv_historyMachine;
+    private CompiledMachine iv_familyHistoryMachine;
+    private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
     /**
      * 
@@ -76,9 +76,9 @@ public class StatusIndicatorFSM
         iv_familyHistorySet.add("fx");
         iv_familyHistorySet.add("fh");
 
-        iv_historyMachine = getHistoryMachine();
-        iv_probableMachine = getProbableMachine();
-        iv_familyHistoryMachine = getFamilyHistoryMachine();
+        iv_historyMachine = new CompiledMachine(getHistoryMachine());
+        iv_probableMachine = new CompiledMachine(getProbableMachine());
+        iv_familyHistoryMachine = new CompiledMachine(getFamilyHistoryMachine());
         iv_machineSet.add(iv_historyMachine);
         iv_machineSet.add(iv_probableMachine);
         iv_machineSet.add(iv_familyHistoryMachine);
@@ -209,16 +209,16 @@ public class StatusIndicatorFSM
 
         // maps a fsm to a token start index
         // key = Machine , value = token start index
-        Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+        Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
         for (int i = 0; i < tokens.size(); i++)
         {
             BaseToken token = tokens.get(i);
 
-            Iterator<Machine> machineItr = iv_machineSet.iterator();
+            Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
             while (machineItr.hasNext())
             {
-                Machine m = machineItr.next();
+                CompiledMachine m = machineItr.next();
 
                 m.input(token);
 
@@ -285,10 +285,10 @@ public class StatusIndicatorFSM
         tokenStartMap.clear();
 
         // reset machines
-        Iterator<Machine> itr = iv_machineSet.iterator();
+        Iterator<CompiledMachine> itr = iv_machineSet.iterator();
         while (itr.hasNext())
         {
-            Machine m = itr.next();
+            CompiledMachine m = itr.next();
             m.reset();
         }
 
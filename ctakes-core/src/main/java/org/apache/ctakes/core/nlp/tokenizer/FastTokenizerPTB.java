@@ -0,0 +1,846 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import org.apache.ctakes.core.ae.TokenizerAnnotator;
+import org.apache.ctakes.typesystem.type.syntax.*;
+import org.apache.uima.jcas.JCas;
+
+import static java.lang.Character.*;
+import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.*;
+
+/**
+ * Penn Treebank tokenizer that gives exactly the tokens of {@link TokenizerPTB} in time linear in the text length.
+ * <p>
+ * {@link TokenizerPTB} lower cases the whole segment and takes substrings of the remaining text for many of its
+ * checks, so long sentences without whitespace (tables, lab panels, base64 blobs) are tokenized in quadratic time.
+ * This tokenizer reads a {@link CharSequence} in place, compares characters case-insensitively one at a time,
+ * and remembers how far each forward scan went so that no character is scanned twice for the same purpose.
+ * Token spans and kinds are written to a reusable {@link TokenOffsets}; cTAKES tokens are only created on request.
+ * </p>
+ * <p>
+ * The rare hyphenated and single quote lookups still use {@link HyphenatedPTB} and {@link ContractionsPTB}
+ * with the lower cased text up to the next whitespace.
+ * Characters whose lower case form has a different length, e.g. a dotted capital I, may be handled differently.
+ * </p>
+ * An instance is not thread safe.
+ */
+final public class FastTokenizerPTB {
+
+   static public final byte NEWLINE_TOKEN = 0;
+   static public final byte WORD_TOKEN = 1;
+   static public final byte NUM_TOKEN = 2;
+   static public final byte PUNCTUATION_TOKEN = 3;
+   static public final byte SYMBOL_TOKEN = 4;
+   static public final byte CONTRACTION_TOKEN = 5;
+   // one character token whose kind is determined by the character
+   static private final byte CHARACTER_TOKEN = -1;
+
+   static private final int NOT_SET = -999;
+   static private final char DASH = '-';
+   static private final char AT = '@';
+   static private final String[] URL_STARTERS = { "http://", "https://", "ftp://", "mailto:" };
+   static private final String POSSIBLE_FINAL_PUNCTUATION = "?!:";
+   // those that can be used without quoting or escaping them
+   static private final String VALID_OTHER_EMAIL_CHARACTERS = "!#$%&'*+/=?^_`{|}~-";
+   static private final String N_APOSTROPHE_T = "n't";
+   // dash offsets in 4-5555, 555-1212, 507-555-1212, 1-507-555-1212 and 55901-0001
+   static private final int[] EXTENSION_DASHES = { 1 };
+   static private final int[] LOCAL_DASHES = { 3 };
+   static private final int[] AREA_CODE_DASHES = { 3, 7 };
+   static private final int[] LONG_DISTANCE_DASHES = { 1, 5, 9 };
+   static private final int[] POSTAL_CODE_DASHES = { 5 };
+   // non letter or digit characters that the apostrophe and hyphen rules can look at
+   static private final int RULE_BREAK_COUNT = 4;
+
+   // Forward scans.  Each stops at whitespace, so none goes past the current whitespace delimited chunk.
+   static private final int WHITESPACE = 0;
+   static private final int NON_LETTER_DIGIT = 1;
+   static private final int NON_LETTER_DIGIT_APOSTROPHE = 2;
+   static private final int NON_DIGIT = 3;
+   static private final int NON_TELEPHONE = 4;
+   static private final int NON_NUMERIC = 5;
+   static private final int AT_SIGN = 6;
+   static private final int SCAN_COUNT = 7;
+
+   private final int[] _scanStarts = new int[ SCAN_COUNT ];
+   private final int[] _scanStops = new int[ SCAN_COUNT ];
+
+   private CharSequence _text;
+   private int _length;
+
+   /**
+    * Tokenize text, replacing the contents of the given offsets.
+    *
+    * @param text    text to tokenize, usually a sentence
+    * @param offsets filled with the token spans within the text and the kind of each token
+    */
+   public void tokenize( final CharSequence text, final TokenOffsets offsets ) {
+      offsets.clear();
+      if ( text == null || text.length() == 0 ) {
+         return;
+      }
+      _text = text;
+      _length = text.length();
+      for ( int i = 0; i < SCAN_COUNT; i++ ) {
+         _scanStarts[ i ] = Integer.MAX_VALUE;
+         _scanStops[ i ] = -1;
+      }
+      try {
+         tokenize( offsets );
+      } finally {
+         _text = null;
+      }
+   }
+
+   private void tokenize( final TokenOffsets offsets ) {
+      int current = 0;
+      while ( (current = findFirstCharOfNextToken( current )) >= 0 ) {
+         final char first = _text.charAt( current );
+         int tokenLen;
+         byte kind;
+         if ( current + 1 >= _length || isWhitespace( _text.charAt( current + 1 ) ) ) {
+            tokenLen = 1;
+            kind = CHARACTER_TOKEN;
+         } else if ( first == NEWLINE ) {
+            tokenLen = 1;
+            kind = NEWLINE_TOKEN;
+         } else if ( first == CR ) {
+            // CR followed by LF is a single end-of-line marker
+            tokenLen = _text.charAt( current + 1 ) == NEWLINE ? 2 : 1;
+            kind = NEWLINE_TOKEN;
+         } else if ( first == PERIOD ) {
+            final int len = lenIfNumberStartingWithPeriod( current );
+            if ( len > 0 ) {
+               tokenLen = len;
+               kind = NUM_TOKEN;
+            } else if ( isEllipsis( current ) ) {
+               tokenLen = 3;
+               kind = PUNCTUATION_TOKEN;
+            } else {
+               tokenLen = 1;
+               kind = PUNCTUATION_TOKEN;
+            }
+         } else if ( first == HYPHEN_OR_MINUS_SIGN ) {
+            tokenLen = 1;
+            kind = PUNCTUATION_TOKEN;
+         } else if ( first == APOSTROPHE ) {
+            final int len = lenIfNameStartingWithApostrophe( current );
+            if ( len > 0 ) {
+               tokenLen = len;
+               kind = WORD_TOKEN;
+            } else if ( isContractionStartingWithApostrophe( current ) ) {
+               // 'tis and 'twas are tokenized as "'t is" and "'t was"
+               tokenLen = 2;
+               kind = CONTRACTION_TOKEN;
+            } else {
+               tokenLen = 1;
+               kind = PUNCTUATION_TOKEN;
+            }
+         } else if ( isPunctuation( first ) ) {
+            tokenLen = 1;
+            kind = PUNCTUATION_TOKEN;
+         } else if ( isLetterOrDigit( first ) ) {
+            current = tokenizeAlphanumeric( current, offsets );
+            continue;
+         } else {
+            tokenLen = 1;
+            kind = SYMBOL_TOKEN;
+         }
+         current = addToken( offsets, kind, current, tokenLen );
+      }
+   }
+
+   /**
+    * Adds the token or tokens starting with a letter or digit.
+    *
+    * @return index after the last added token
+    */
+   private int tokenizeAlphanumeric( final int start, final TokenOffsets offsets ) {
+      int current = start;
+      final int nextWhitespace = scan( WHITESPACE, current );
+      final int nextNonLetterDigit = scan( NON_LETTER_DIGIT, current );
+      if ( scan( NON_DIGIT, current ) == nextWhitespace ) {
+         return addToken( offsets, NUM_TOKEN, current, nextWhitespace - current );
+      }
+      if ( nextNonLetterDigit == nextWhitespace ) {
+         // Things like "cannot" and "gonna" are more than one token according to PTB rules.
+         final int index = getMultiTokenWordIndex( current, nextWhitespace );
+         if ( index < 0 ) {
+            return addToken( offsets, WORD_TOKEN, current, nextWhitespace - current );
+         }
+         current = addToken( offsets, WORD_TOKEN, current, ContractionsPTB.MultiTokenWordLenToken1[ index ] );
+         current = addToken( offsets, CONTRACTION_TOKEN, current, ContractionsPTB.MultiTokenWordLenToken2[ index ] );
+         final int thirdLen = ContractionsPTB.MultiTokenWordLenToken3[ index ];
+         if ( thirdLen > 0 ) {
+            current = addToken( offsets, CONTRACTION_TOKEN, current, thirdLen );
+         }
+         return current;
+      }
+      int tokenLen = NOT_SET;
+      byte kind = WORD_TOKEN;
+      // Need to check for things like 80's before checking for contractions or else 80's looks like a contraction
+      if ( nextNonLetterDigit < _length && _text.charAt( nextNonLetterDigit ) == APOSTROPHE ) {
+         final int len = ContractionsPTB.tokenLengthCheckingForSingleQuoteWordsToKeepTogether(
+               lowerCase( current, getRuleEnd( current, nextWhitespace ) ) );
+         if ( len > nextNonLetterDigit - current ) {
+            tokenLen = len;
+            kind = wordOrNum( current, tokenLen );
+         }
+      }
+      if ( tokenLen != NOT_SET ) {
+         return addToken( offsets, kind, current, tokenLen );
+      }
+      final ContractionResult contraction = getContractionIfNextApostropheIsMiddle( current, nextNonLetterDigit );
+      if ( contraction != null ) {
+         tokenLen = contraction.getWordTokenLen();
+         final char c = lowerCharAt( current + tokenLen );
+         if ( c != 'n' && c != APOSTROPHE ) {
+            throw new RuntimeException( "ERROR: getLengthIfNextApostIsMiddleOfContraction returned " + tokenLen
+                                        + " but the character (" + c + ") after that is not 'n' or apostrophe " );
+         }
+         if ( tokenLen < 0 ) {
+            throw new RuntimeException( "c = " + c + "tokenLen = " + tokenLen + " currentPosition = " + current );
+         }
+         if ( tokenLen > 0 ) {
+            current = addToken( offsets, WORD_TOKEN, current, tokenLen );
+         }
+         return addToken( offsets, CONTRACTION_TOKEN, current, contraction.getContractionTokenLen() );
+      }
+      final int nextNonTelephone = scan( NON_TELEPHONE, current );
+      int len;
+      if ( (len = lenIfTelephoneNumber( current, nextNonTelephone )) > 0
+           || (len = lenIfPostalCode( current, nextNonTelephone )) > 0
+           || (len = lenIfUrl( current, nextWhitespace )) > 0
+           || (len = lenIfEmailAddress( current, nextWhitespace )) > 0
+           || (len = lenIfAbbreviation( current, nextWhitespace )) > 0 ) {
+         return addToken( offsets, WORD_TOKEN, current, len );
+      }
+      final int nextNonNumeric = scan( NON_NUMERIC, current );
+      final int nextNonLetterDigitApostrophe = scan( NON_LETTER_DIGIT_APOSTROPHE, current );
+      if ( nextNonLetterDigit < _length && _text.charAt( nextNonLetterDigit ) == HYPHEN_OR_MINUS_SIGN ) {
+         // telephone numbers and postal codes handled above already
+         tokenLen = HyphenatedPTB.tokenLengthCheckingForHyphenatedTerms(
+               lowerCase( current, getRuleEnd( current, nextWhitespace ) ) );
+         if ( tokenLen < 0 ) {
+            throw new RuntimeException( "tokenLen = " + tokenLen + " currentPosition = " + current
+                                        + " nextNonLetterOrNonDigit = " + nextNonLetterDigit );
+         }
+         kind = wordOrNum( current, tokenLen );
+      } else if ( nextNonNumeric > 0 && (len = lenIfNumberContainingComma( current, nextNonNumeric )) > 0 ) {
+         tokenLen = len;
+         kind = NUM_TOKEN;
+      } else if ( nextNonLetterDigitApostrophe < _length
+                  && _text.charAt( nextNonLetterDigitApostrophe ) == PERIOD ) {
+         final int nextNonDigit = scan( NON_DIGIT, current );
+         if ( nextNonDigit == _length - 1 ) {
+            // end of sentence, the period is punctuation
+            tokenLen = nextNonDigit - current;
+            kind = NUM_TOKEN;
+         } else if ( nextNonLetterDigitApostrophe == nextNonDigit ) {
+            // decimal point
+            tokenLen = nextNonDigit + 1 + lenToNextNonDigit( nextNonDigit + 1 ) - current;
+            kind = NUM_TOKEN;
+         } else {
+            // something like 2J3. or 2'3.
+            tokenLen = nextNonLetterDigit - current;
+            kind = wordOrNum( current, tokenLen );
+         }
+      } else {
+         tokenLen = nextNonLetterDigit - current;
+         kind = wordOrNum( current, tokenLen );
+      }
+      return addToken( offsets, kind, current, tokenLen );
+   }
+
+   /**
+    * @return index after the added token
+    */
+   private int addToken( final TokenOffsets offsets, final byte kind, final int begin, final int tokenLen ) {
+      if ( tokenLen < 0 ) {
+         throw new RuntimeException( "tokenLen = " + tokenLen + " currentPosition = " + begin );
+      }
+      final int end = begin + tokenLen;
+      offsets.add( kind == CHARACTER_TOKEN ? getCharacterKind( _text.charAt( begin ) ) : kind, begin, end );
+      return end;
+   }
+
+   static private byte getCharacterKind( final char c ) {
+      if ( c == NEWLINE || c == CR ) {
+         return NEWLINE_TOKEN;
+      }
+      if ( isDigit( c ) ) {
+         return NUM_TOKEN;
+      }
+      if ( isLetter( c ) ) {
+         return WORD_TOKEN;
+      }
+      if ( isPunctuation( c ) ) {
+         return PUNCTUATION_TOKEN;
+      }
+      return SYMBOL_TOKEN;
+   }
+
+   /**
+    * @return index of the first character of the next token at or after the start, or -1 if there is none.
+    * The only token that can start with whitespace is a newline.
+    */
+   private int findFirstCharOfNextToken( final int start ) {
+      for ( int i = start; i < _length; i++ ) {
+         final char c = _text.charAt( i );
+         if ( !isWhitespace( c ) || c == NEWLINE || c == CR ) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Scans ahead for the first character that stops the given scan.
+    * Scans are monotonic, so a scan from within a previously scanned range has the same answer.
+    *
+    * @return index of the first stopping character at or after the start, or the text length
+    */
+   private int scan( final int scan, final int start ) {
+      if ( start >= _scanStarts[ scan ] && start <= _scanStops[ scan ] ) {
+         return _scanStops[ scan ];
+      }
+      int i = start;
+      while ( i < _length && !isStop( scan, _text.charAt( i ) ) ) {
+         i++;
+      }
+      _scanStarts[ scan ] = start;
+      _scanStops[ scan ] = i;
+      return i;
+   }
+
+   static private boolean isStop( final int scan, final char c ) {
+      if ( isWhitespace( c ) ) {
+         return true;
+      }
+      switch ( scan ) {
+         case NON_LETTER_DIGIT:
+            return !isLetterOrDigit( c );
+         case NON_LETTER_DIGIT_APOSTROPHE:
+            return !isLetterOrDigit( c ) && c != APOSTROPHE;
+         case NON_DIGIT:
+            return !isDigit( c );
+         case NON_TELEPHONE:
+            return !isDigit( c ) && c != DASH;
+         case NON_NUMERIC:
+            return !isDigit( c ) && c != COMMA && c != PERIOD;
+         case AT_SIGN:
+            return c == AT;
+         default:
+            return false;
+      }
+   }
+
+   private char lowerCharAt( final int index ) {
+      return toLowerCase( _text.charAt( index ) );
+   }
+
+   /**
+    * @return true if the lower cased text at the index starts with the lower case string
+    */
+   private boolean matchesLowerCase( final int index, final String lowerCase ) {
+      final int length = lowerCase.length();
+      if ( index < 0 || index + length > _length ) {
+         return false;
+      }
+      for ( int i = 0; i < length; i++ ) {
+         if ( lowerCharAt( index + i ) != lowerCase.charAt( i ) ) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * The apostrophe and hyphen rules of {@link ContractionsPTB} and {@link HyphenatedPTB} look no further than the
+    * fourth character that is not a letter or digit, e.g. the break after "80's-o-torium".
+    * Passing them only that much text keeps long runs without whitespace linear.
+    *
+    * @return index just after the fourth character from start that is not a letter or digit, or end
+    */
+   private int getRuleEnd( final int start, final int end ) {
+      int breaks = 0;
+      for ( int i = start; i < end; i++ ) {
+         if ( !isLetterOrDigit( _text.charAt( i ) ) && ++breaks == RULE_BREAK_COUNT ) {
+            return i + 1;
+         }
+      }
+      return end;
+   }
+
+   private String lowerCase( final int begin, final int end ) {
+      return _text.subSequence( begin, end ).toString().toLowerCase();
+   }
+
+   /**
+    * @return index in {@link ContractionsPTB#MultiTokenWords} of the text between begin and end, or -1
+    */
+   private int getMultiTokenWordIndex( final int begin, final int end ) {
+      final String[] words = ContractionsPTB.MultiTokenWords;
+      for ( int i = 0; i < words.length; i++ ) {
+         if ( words[ i ].length() == end - begin && matchesLowerCase( begin, words[ i ] ) ) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   private byte wordOrNum( final int begin, final int tokenLen ) {
+      for ( int i = begin; i < begin + tokenLen; i++ ) {
+         if ( isLetter( lowerCharAt( i ) ) ) {
+            return WORD_TOKEN;
+         }
+      }
+      return NUM_TOKEN;
+   }
+
+   private boolean isEllipsis( final int index ) {
+      return index + 3 <= _length
+             && _text.charAt( index ) == PERIOD
+             && _text.charAt( index + 1 ) == PERIOD
+             && _text.charAt( index + 2 ) == PERIOD;
+   }
+
+   private int lenIfNumberStartingWithPeriod( final int current ) {
+      final int len = _length - current;
+      if ( len < 2 || !isDigit( _text.charAt( current + 1 ) ) ) {
+         return -1;
+      }
+      for ( int i = current + 2; i < _length; i++ ) {
+         if ( !isDigit( _text.charAt( i ) ) ) {
+            return i - current;
+         }
+      }
+      return len;
+   }
+
+   /**
+    * @see TokenizerPTB#nameStartingWithApostrophe
+    */
+   private int lenIfNameStartingWithApostrophe( final int current ) {
+      if ( _length - current == 1 || !isLetter( _text.charAt( current + 1 ) ) ) {
+         return -1;
+      }
+      // Could be the start of a quoted string like "'The boy ran', she said" or could be a name like 'Assad
+      for ( String name : TokenizerPTB.nameStartingWithApostrophe ) {
+         if ( matchesLowerCase( current, name ) ) {
+            return name.length();
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * @see ContractionsPTB#isContractionThatStartsWithApostrophe(int, String)
+    */
+   private boolean isContractionStartingWithApostrophe( final int current ) {
+      for ( String contraction : ContractionsPTB.contractionsStartingWithApostrophe ) {
+         if ( matchesLowerCase( current, contraction ) ) {
+            final int after = current + contraction.length();
+            if ( after == _length || !isLetter( lowerCharAt( after ) ) ) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Same as {@link ContractionsPTB#getLengthIfNextApostIsMiddleOfContraction(int, int, String)},
+    * including its use of text length and absolute positions, without copying the text.
+    */
+   private ContractionResult getContractionIfNextApostropheIsMiddle( final int position,
+                                                                     final int nextNonLetterDigit ) {
+      if ( position < 0 || _length < position + 3 ) {
+         return null;
+      }
+      // Everything before the next non letter or digit is alphanumeric,
+      // so the next apostrophe is at that index or there is a token break before it.
+      if ( nextNonLetterDigit >= _length || _text.charAt( nextNonLetterDigit ) != APOSTROPHE ) {
+         return null;
+      }
+      final int apostrophe = nextNonLetterDigit;
+      if ( apostrophe < 1 || apostrophe >= _length - 1 || matchesLowerCase( 0, N_APOSTROPHE_T ) ) {
+         return null;
+      }
+      if ( ContractionsPTB.lettersAfterApostropheForMiddleOfContraction.indexOf( lowerCharAt( apostrophe + 1 ) )
+           < 0 ) {
+         return null;
+      }
+      int subsequentNonAlphaNum = apostrophe + 1;
+      while ( subsequentNonAlphaNum < _length && isLetterOrDigit( lowerCharAt( subsequentNonAlphaNum ) ) ) {
+         subsequentNonAlphaNum++;
+      }
+      // length of the rest starting with the apostrophe, e.g. 've or 'll or 't
+      final int restLen = subsequentNonAlphaNum - apostrophe;
+      final char prev = lowerCharAt( apostrophe - 1 );
+      for ( String ending : ContractionsPTB.possibleContractionEndings ) {
+         final boolean isNot = ending.equals( N_APOSTROPHE_T );
+         int lenAfterApostrophe = ending.length() - 1;
+         if ( isNot ) {
+            lenAfterApostrophe--;
+         }
+         if ( _length < apostrophe + lenAfterApostrophe ) {
+            continue;
+         }
+         if ( isNot && prev == 'n' && lowerCharAt( apostrophe + 1 ) == 't' && _length == apostrophe + 2 ) {
+            return createContractionResult( 3, apostrophe - 1 - position );
+         } else if ( restLen == ending.length() && matchesLowerCase( apostrophe, ending ) ) {
+            return createContractionResult( ending.length(), apostrophe - position );
+         }
+         if ( _length == apostrophe + lenAfterApostrophe + 1 ) {
+            continue;
+         }
+         final char after = restLen <= position + lenAfterApostrophe + 1
+                            ? '\00'
+                            : lowerCharAt( apostrophe + position + lenAfterApostrophe + 1 );
+         if ( restLen >= ending.length() && matchesLowerCase( apostrophe, ending )
+              && isLetter( prev ) && !isLetter( after ) ) {
+            return createContractionResult( ending.length(), apostrophe - position );
+         } else if ( isNot && prev == 'n' && restLen >= 2
+                     && lowerCharAt( apostrophe + 1 ) == 't' && !isLetter( after ) ) {
+            return createContractionResult( 3, apostrophe - 1 - position );
+         }
+      }
+      return null;
+   }
+
+   static private ContractionResult createContractionResult( final int contractionLen, final int wordLen ) {
+      final ContractionResult result = new ContractionResult();
+      result.setContractionTokenLen( contractionLen );
+      result.setWordTokenLen( wordLen );
+      return result;
+   }
+
+   private boolean isDigitAt( final int index ) {
+      return isDigit( _text.charAt( index ) );
+   }
+
+   /**
+    * @return true if the characters at the dash offsets from the start are dashes and the others are digits
+    */
+   private boolean isDigitsAndDashes( final int start, final int end, final int[] dashes ) {
+      int dash = 0;
+      for ( int i = start; i < end; i++ ) {
+         if ( dash < dashes.length && i - start == dashes[ dash ] ) {
+            if ( _text.charAt( i ) != DASH ) {
+               return false;
+            }
+            dash++;
+         } else if ( !isDigitAt( i ) ) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Extension like 4-5555, without area code like 555-1212, with area code 507-555-1212,
+    * or with a 1 like 1-507-555-1212.
+    */
+   private int lenIfTelephoneNumber( final int current, final int nextNonTelephone ) {
+      final int len = nextNonTelephone - current;
+      switch ( len ) {
+         case 6:
+            return isDigitsAndDashes( current, nextNonTelephone, EXTENSION_DASHES ) ? len : -1;
+         case 8:
+            return isDigitsAndDashes( current, nextNonTelephone, LOCAL_DASHES ) ? len : -1;
+         case 12:
+            // TokenizerPTB never accepts the 02-2348-2192 format
+            return isDigitsAndDashes( current, nextNonTelephone, AREA_CODE_DASHES ) ? len : -1;
+         case 14:
+            return isDigitsAndDashes( current, nextNonTelephone, LONG_DISTANCE_DASHES ) ? len : -1;
+         default:
+            return -1;
+      }
+   }
+
+   /**
+    * 55901-0001
+    */
+   private int lenIfPostalCode( final int current, final int nextNonPostalCode ) {
+      final int len = nextNonPostalCode - current;
+      return len == 10 && isDigitsAndDashes( current, nextNonPostalCode, POSTAL_CODE_DASHES ) ? len : -1;
+   }
+
+   private int lenIfUrl( final int current, final int end ) {
+      for ( String starter : URL_STARTERS ) {
+         if ( end - current > starter.length() && matchesLowerCase( current, starter ) ) {
+            return end - current;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Same as the email check in {@link TokenizerPTB}, which never accepts a domain with a period or hyphen.
+    */
+   private int lenIfEmailAddress( final int current, final int end ) {
+      final int maxLenLocalPart = 64;
+      final int maxTotalLen = 320;
+      final int at = scan( AT_SIGN, current );
+      final int indexOfAt = at < end ? at - current : -1;
+      if ( indexOfAt < 1 || current + indexOfAt + 1 == end || indexOfAt > maxLenLocalPart ) {
+         return -1;
+      }
+      for ( int i = current; i < current + indexOfAt; i++ ) {
+         final char ch = lowerCharAt( i );
+         if ( !isLetterOrDigit( ch ) && VALID_OTHER_EMAIL_CHARACTERS.indexOf( ch ) < 0 ) {
+            return -1;
+         }
+         if ( ch == PERIOD && (i == current || i == current + indexOfAt - 1) ) {
+            return -1;
+         }
+      }
+      for ( int i = current + indexOfAt + 1; i < end; i++ ) {
+         final char ch = lowerCharAt( i );
+         if ( isLetterOrDigit( ch ) ) {
+            continue;
+         }
+         if ( (ch == HYPHEN_OR_MINUS_SIGN || ch == PERIOD) && i + 1 < end && isLetterOrDigit( lowerCharAt( i + 1 ) ) ) {
+            continue;
+         }
+         return -1;
+      }
+      final int len = end - current;
+      return len > maxTotalLen ? -1 : len;
+   }
+
+   /**
+    * Assumes no white space between the current position and the end.
+    * A period that is the last character of the sentence is not part of the abbreviation.
+    */
+   private int lenIfAbbreviation( final int current, final int end ) {
+      // things like www.nlm.nih.gov (without the http) are separate tokens
+      if ( end - current >= 4 && matchesLowerCase( current, "www." ) ) {
+         return -1;
+      }
+      boolean containsLetter = false;
+      for ( int i = current; i < end; i++ ) {
+         final char ch = _text.charAt( i );
+         if ( isLetter( ch ) ) {
+            containsLetter = true;
+         } else if ( ch != PERIOD ) {
+            return -1;
+         } else if ( !containsLetter || i + 1 == _length ) {
+            return -1;
+         } else {
+            // A period after letters that is not the end of the sentence.  Include following abbreviation parts,
+            // like in A.D. or e.g.
+            final int soFar = i + 1 - current;
+            final int len = lenIfAbbreviation( i + 1, end );
+            if ( len > 0 ) {
+               return soFar + len;
+            }
+            final char peekAhead = i + 1 < end ? _text.charAt( i + 1 ) : ' ';
+            if ( isWhitespace( peekAhead ) || POSSIBLE_FINAL_PUNCTUATION.indexOf( peekAhead ) > -1 ) {
+               // "e.g. edema"
+               return soFar;
+            } else if ( !isLetterOrDigit( peekAhead ) ) {
+               // "e.g.[1]"
+               return soFar - 1;
+            }
+            // "e.g.abc"
+            return -1;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Such as 4,000,153 or 3,456.56
+    */
+   private int lenIfNumberContainingComma( final int current, final int nextNonNumeric ) {
+      final int commaPosition = indexOf( COMMA, current, nextNonNumeric );
+      if ( commaPosition < 0 ) {
+         return -1;
+      }
+      final int periodPosition = indexOf( PERIOD, current, nextNonNumeric );
+      final int endOfWholeNumberPart = periodPosition < 0 ? nextNonNumeric : periodPosition;
+      // if comma appears after the decimal point, then no commas in the whole-number-part.  Can't start with comma.
+      if ( commaPosition > endOfWholeNumberPart || commaPosition == 0 ) {
+         return -1;
+      }
+      // the whole number part can contain commas as long as there are exactly 3 digits after each comma
+      int len = -1;
+      int position = commaPosition;
+      boolean notThreeDigitsAfterComma = false;
+      while ( !notThreeDigitsAfterComma ) {
+         len = position - current;
+         if ( position < endOfWholeNumberPart && _text.charAt( position ) == COMMA ) {
+            position++;
+         }
+         for ( int i = 0; i < 3; i++ ) {
+            if ( position < endOfWholeNumberPart && isDigitAt( position ) ) {
+               position++;
+            } else {
+               notThreeDigitsAfterComma = true;
+            }
+         }
+         if ( position < endOfWholeNumberPart && isDigitAt( position ) ) {
+            notThreeDigitsAfterComma = true;
+         }
+      }
+      if ( len <= 0 ) {
+         return -1;
+      }
+      // A decimal point can continue the number unless it is the final period of the sentence
+      if ( periodPosition != _length - 1 && periodPosition == current + len ) {
+         len++;
+         while ( len < nextNonNumeric - current && isDigitAt( current + len ) ) {
+            len++;
+         }
+      }
+      return len;
+   }
+
+   private int indexOf( final char c, final int begin, final int end ) {
+      for ( int i = begin; i < end; i++ ) {
+         if ( _text.charAt( i ) == c ) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   private int lenToNextNonDigit( final int start ) {
+      for ( int i = start; i < _length; i++ ) {
+         if ( !isDigitAt( i ) ) {
+            return i - start;
+         }
+      }
+      return _length - start;
+   }
+
+   /**
+    * Creates a cTAKES token with the same features that {@link TokenizerPTB} gives it.
+    * The token is not added to the cas indexes.
+    *
+    * @param jcas             ye olde
+    * @param text             text that was tokenized
+    * @param offsets          offsets from {@link #tokenize(CharSequence, TokenOffsets)}
+    * @param index            token index
+    * @param offsetAdjustment offset of the tokenized text within the document
+    * @return new token
+    */
+   static public BaseToken createToken( final JCas jcas, final CharSequence text, final TokenOffsets offsets,
+                                        final int index, final int offsetAdjustment ) {
+      final int begin = offsets.getBegin( index );
+      final int end = offsets.getEnd( index );
+      final int docBegin = begin + offsetAdjustment;
+      final int docEnd = end + offsetAdjustment;
+      switch ( offsets.getKind( index ) ) {
+         case NEWLINE_TOKEN:
+            return new NewlineToken( jcas, docBegin, docEnd );
+         case NUM_TOKEN:
+            final NumToken numToken = new NumToken( jcas, docBegin, docEnd );
+            numToken.setNumType( isNumber( text, begin, end ) && !contains( text, begin, end, PERIOD )
+                                 ? TokenizerAnnotator.TOKEN_NUM_TYPE_INTEGER
+                                 : TokenizerAnnotator.TOKEN_NUM_TYPE_DECIMAL );
+            return numToken;
+         case WORD_TOKEN:
+            final WordToken wordToken = new WordToken( jcas, docBegin, docEnd );
+            wordToken.setCapitalization( getCapitalization( text, begin, end ) );
+            wordToken.setNumPosition( getNumPosition( text, begin, end ) );
+            return wordToken;
+         case PUNCTUATION_TOKEN:
+            return new PunctuationToken( jcas, docBegin, docEnd );
+         case SYMBOL_TOKEN:
+            return new SymbolToken( jcas, docBegin, docEnd );
+         case CONTRACTION_TOKEN:
+            return new ContractionToken( jcas, docBegin, docEnd );
+         default:
+            return new BaseToken( jcas, docBegin, docEnd );
+      }
+   }
+
+   /**
+    * @see Tokenizer#isNumber(String)
+    */
+   static private boolean isNumber( final CharSequence text, final int begin, final int end ) {
+      boolean foundDecimalPoint = false;
+      int charsBeforeDecimal = 0;
+      for ( int i = end - 1; i >= begin; i-- ) {
+         final char c = text.charAt( i );
+         if ( !isDigit( c ) ) {
+            if ( c == PERIOD && !foundDecimalPoint ) {
+               foundDecimalPoint = true;
+               charsBeforeDecimal = 0;
+               continue;
+            } else if ( c == COMMA && charsBeforeDecimal % 3 == 0 ) {
+               // commas are valid only every 3 digits
+               continue;
+            }
+            return false;
+         }
+         charsBeforeDecimal++;
+      }
+      return true;
+   }
+
+   static private boolean contains( final CharSequence text, final int begin, final int end, final char c ) {
+      for ( int i = begin; i < end; i++ ) {
+         if ( text.charAt( i ) == c ) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   static private int getNumPosition( final CharSequence text, final int begin, final int end ) {
+      if ( begin == end ) {
+         return TokenizerAnnotator.TOKEN_NUM_POS_NONE;
+      }
+      if ( isDigit( text.charAt( begin ) ) ) {
+         return TokenizerAnnotator.TOKEN_NUM_POS_FIRST;
+      }
+      if ( isDigit( text.charAt( end - 1 ) ) ) {
+         return TokenizerAnnotator.TOKEN_NUM_POS_LAST;
+      }
+      for ( int i = begin; i < end; i++ ) {
+         if ( isDigit( text.charAt( i ) ) ) {
+            return TokenizerAnnotator.TOKEN_NUM_POS_MIDDLE;
+         }
+      }
+      return TokenizerAnnotator.TOKEN_NUM_POS_NONE;
+   }
+
+   static private int getCapitalization( final CharSequence text, final int begin, final int end ) {
+      int countUpperCase = 0;
+      for ( int i = begin; i < end; i++ ) {
+         if ( isUpperCase( text.charAt( i ) ) ) {
+            countUpperCase++;
+         }
+      }
+      if ( countUpperCase == 0 ) {
+         return TokenizerAnnotator.TOKEN_CAP_NONE;
+      } else if ( countUpperCase == end - begin ) {
+         return TokenizerAnnotator.TOKEN_CAP_ALL;
+      } else if ( countUpperCase == 1 && isUpperCase( text.charAt( begin ) ) ) {
+         return TokenizerAnnotator.TOKEN_CAP_FIRST_ONLY;
+      }
+      return TokenizerAnnotator.TOKEN_CAP_MIXED;
+   }
+
+}
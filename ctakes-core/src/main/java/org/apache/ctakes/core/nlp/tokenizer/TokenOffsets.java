@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, growable buffer of token spans and kinds filled by {@link FastTokenizerPTB}.
+ * Offsets are relative to the start of the tokenized text.
+ * Not thread safe.
+ */
+final public class TokenOffsets {
+
+   static private final int DEFAULT_CAPACITY = 64;
+
+   private int[] _begins;
+   private int[] _ends;
+   private byte[] _kinds;
+   private int _size;
+
+   public TokenOffsets() {
+      this( DEFAULT_CAPACITY );
+   }
+
+   /**
+    * @param capacity initial number of tokens that can be held without growing
+    */
+   public TokenOffsets( final int capacity ) {
+      final int initial = Math.max( 1, capacity );
+      _begins = new int[ initial ];
+      _ends = new int[ initial ];
+      _kinds = new byte[ initial ];
+   }
+
+   /**
+    * Removes all tokens, keeping the allocated arrays.
+    */
+   public void clear() {
+      _size = 0;
+   }
+
+   /**
+    * @param kind  one of the token kinds in {@link FastTokenizerPTB}
+    * @param begin token begin offset
+    * @param end   token end offset
+    */
+   void add( final byte kind, final int begin, final int end ) {
+      if ( _size == _begins.length ) {
+         final int capacity = _size * 2;
+         _begins = Arrays.copyOf( _begins, capacity );
+         _ends = Arrays.copyOf( _ends, capacity );
+         _kinds = Arrays.copyOf( _kinds, capacity );
+      }
+      _begins[ _size ] = begin;
+      _ends[ _size ] = end;
+      _kinds[ _size ] = kind;
+      _size++;
+   }
+
+   /**
+    * @return number of tokens
+    */
+   public int size() {
+      return _size;
+   }
+
+   /**
+    * @param index token index
+    * @return begin offset of the token
+    */
+   public int getBegin( final int index ) {
+      checkIndex( index );
+      return _begins[ index ];
+   }
+
+   /**
+    * @param index token index
+    * @return end offset of the token
+    */
+   public int getEnd( final int index ) {
+      checkIndex( index );
+      return _ends[ index ];
+   }
+
+   /**
+    * @param index token index
+    * @return kind of the token, one of the token kinds in {@link FastTokenizerPTB}
+    */
+   public byte getKind( final int index ) {
+      checkIndex( index );
+      return _kinds[ index ];
+   }
+
+   private void checkIndex( final int index ) {
+      if ( index < 0 || index >= _size ) {
+         throw new IndexOutOfBoundsException( "Token index " + index + " size " + _size );
+      }
+   }
+
+}
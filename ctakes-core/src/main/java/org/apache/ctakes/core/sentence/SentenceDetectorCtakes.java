@@ -25,6 +25,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -91,11 +92,24 @@ public class SentenceDetectorCtakes {
 	   */
 	  private final EndOfSentenceScanner scanner;
 
+	  private final char[] eosCharacters;
+
+	  /**
+	   * Cache of outcome probabilities for repeated contexts, may be null.
+	   */
+	  private final SentenceOutcomeCache outcomeCache;
+
 	  /**
 	   * The list of probabilities associated with each decision.
 	   */
 	  private List<Double> sentProbs = new ArrayList<Double>();
 
+	  /**
+	   * Text being checked by {@link #isAcceptableBreak(CharSequence, int, int)} and its String copy.
+	   */
+	  private CharSequence breakText;
+	  private String breakString;
+
 	  protected boolean useTokenEnd;
 
 	  /**
@@ -104,9 +118,23 @@ public class SentenceDetectorCtakes {
 	   * @param model the {@link SentenceModel}
 	   */
 	  public SentenceDetectorCtakes(MaxentModel model, DefaultSDContextGenerator cg, EndOfSentenceScanner eoss) {
+		  this(model, cg, eoss, null);
+	  }
+
+	  /**
+	   * Initializes the current instance with a cache of outcome probabilities that may be shared with other
+	   * instances, each with its own context generator.
+	   *
+	   * @param model the maxent model of a {@link SentenceModel}
+	   * @param outcomeCache cache of outcome probabilities for the model, or null to always evaluate the model
+	   */
+	  public SentenceDetectorCtakes(MaxentModel model, DefaultSDContextGenerator cg, EndOfSentenceScanner eoss,
+	                                SentenceOutcomeCache outcomeCache) {
 		  this.model = model;
 		  cgen = cg;
 		  scanner = eoss;
+		  this.outcomeCache = outcomeCache;
+		  eosCharacters = eoss.getEndOfSentenceCharacters();
 		  useTokenEnd = false; // TODO
 	  }
 
@@ -137,13 +165,13 @@ public class SentenceDetectorCtakes {
 	    return sentences;
 	  }
 
-	  private int getFirstWS(String s, int pos) {
+	  private int getFirstWS(CharSequence s, int pos) {
 	    while (pos < s.length() && !StringUtil.isWhitespace(s.charAt(pos)))
 	      pos++;
 	    return pos;
 	  }
 
-	  private int getFirstNonWS(String s, int pos) {
+	  private int getFirstNonWS(CharSequence s, int pos) {
 	    while (pos < s.length() && StringUtil.isWhitespace(s.charAt(pos)))
 	      pos++;
 	    return pos;
@@ -159,48 +187,84 @@ public class SentenceDetectorCtakes {
 	   * @see SentenceDetectorME#sentPosDetect(String)  
 	   */
 	  public int[] sentPosDetect(String s) { // return int[] to be line OpenNLP 1.4
-	    double sentProb = 1;
-	    sentProbs.clear();
-	    StringBuffer sb = new StringBuffer(s);
-	    List<Integer> enders = scanner.getPositions(s);
-	    List<Integer> positions = new ArrayList<Integer>(enders.size());
+	    return sentPosDetect((CharSequence) s);
+	  }
 
-	    for (int i = 0, end = enders.size(), index = 0; i < end; i++) {
-	      Integer candidate = enders.get(i);
-	      int cint = candidate;
+	  /**
+	   * Detect the position of the first words of sentences in some text without copying it,
+	   * e.g. a {@link java.nio.CharBuffer} view of a section of a document.
+	   *
+	   * @param s  The text to be processed.
+	   * @return   A integer array containing the positions within the text of the end index of
+	   *          every sentence
+	   */
+	  public int[] sentPosDetect(CharSequence s) {
+	    sentProbs.clear();
+	    breakText = null;
+	    breakString = null;
+	    int[] enders = getEndOfSentencePositions(s);
+	    int[] positions = new int[enders.length];
+	    int positionCount = 0;
+
+	    for (int i = 0, end = enders.length, index = 0; i < end; i++) {
+	      int cint = enders[i];
 	      // skip over the leading parts of non-token final delimiters
 	      int fws = getFirstWS(s,cint + 1);
-	      if (i + 1 < end && enders.get(i + 1) < fws) {
+	      if (i + 1 < end && enders[i + 1] < fws) {
 	        continue;
 	      }
 
-	      double[] probs = model.eval(cgen.getContext(sb, cint));
+	      String[] context = cgen.getContext(s, cint);
+	      double[] probs = outcomeCache == null ? model.eval(context) : outcomeCache.eval(context);
 	      String bestOutcome = model.getBestOutcome(probs);
-	      sentProb *= probs[model.getIndex(bestOutcome)];
 
 	      if (bestOutcome.equals(SPLIT) && isAcceptableBreak(s, index, cint)) {
 	        if (index != cint) {
 	          if (useTokenEnd) {
-	            positions.add(getFirstNonWS(s, getFirstWS(s,cint + 1)));
+	            positions[positionCount++] = getFirstNonWS(s, getFirstWS(s,cint + 1));
 	          }
 	          else {
-	            positions.add(getFirstNonWS(s,cint));
+	            positions[positionCount++] = getFirstNonWS(s,cint);
 	          }
-	          sentProbs.add(new Double(probs[model.getIndex(bestOutcome)]));
+	          sentProbs.add(probs[model.getIndex(bestOutcome)]);
 	        }
 	        index = cint + 1;
 	      }
 	    }
 
-	    int[] sentenceBreaks = new int[positions.size()];
+	    breakText = null;
+	    breakString = null;
+
+	    int[] sentenceBreaks = new int[positionCount];
 	    for (int i = 0; i < sentenceBreaks.length; i++) {
-	      sentenceBreaks[i] = positions.get(i)+1;
+	      sentenceBreaks[i] = positions[i]+1;
 	    }
 
 	    return sentenceBreaks;
 	    
 	  }
 
+	  /**
+	   * Same positions as {@link EndOfSentenceScannerImpl#getPositions(String)}, without copying the text.
+	   */
+	  private int[] getEndOfSentencePositions(CharSequence s) {
+	    int[] positions = new int[16];
+	    int count = 0;
+	    for (int i = 0; i < s.length(); i++) {
+	      char c = s.charAt(i);
+	      for (char eos : eosCharacters) {
+	        if (c == eos) {
+	          if (count == positions.length) {
+	            positions = Arrays.copyOf(positions, count * 2);
+	          }
+	          positions[count++] = i;
+	          break;
+	        }
+	      }
+	    }
+	    return Arrays.copyOf(positions, count);
+	  }
+
 	  /**
 	   * Returns the probabilities associated with the most recent
 	   * calls to sentDetect().
@@ -233,6 +297,29 @@ public class SentenceDetectorCtakes {
 	  protected boolean isAcceptableBreak(String s, int fromIndex, int candidateIndex) {
 	    return true;
 	  }
+
+	  /**
+	   * The break check called by {@link #sentPosDetect(CharSequence)}.
+	   * Subclasses that can check a break without a String should override this method.
+	   *
+	   * <p>The implementation here delegates to {@link #isAcceptableBreak(String, int, int)},
+	   * copying text that is not a String once per call of {@link #sentPosDetect(CharSequence)}.</p>
+	   *
+	   * @param s the text in which the break occurred.
+	   * @param fromIndex the start of the segment currently being evaluated
+	   * @param candidateIndex the index of the candidate sentence ending
+	   * @return true if the break is acceptable
+	   */
+	  protected boolean isAcceptableBreak(CharSequence s, int fromIndex, int candidateIndex) {
+	    if (s instanceof String) {
+	      return isAcceptableBreak((String) s, fromIndex, candidateIndex);
+	    }
+	    if (breakText != s) {
+	      breakText = s;
+	      breakString = s.toString();
+	    }
+	    return isAcceptableBreak(breakString, fromIndex, candidateIndex);
+	  }
 	  
 	  public static SentenceModel train(String languageCode, ObjectStream<SentenceSample> samples,
 	      boolean useTokenEnd, Dictionary abbreviations) throws IOException {
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.sentence;
+
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.MaxentModel;
+import org.apache.ctakes.core.util.collection.SegmentedLruCache;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Bounded, thread safe cache of maxent outcome probabilities for sentence boundary contexts.
+ * <p>
+ * Most end of sentence candidates in clinical notes, e.g. the periods in "mg.", "Dr." and list numbering,
+ * appear in the same few contexts across notes.
+ * Context features are translated once to the model's own predicate ids, and the array of ids is the cache key.
+ * Features unknown to the model do not contribute to the probabilities, so they all share one id.
+ * On a miss the model is evaluated as usual, so probabilities are exactly those of the model.
+ * </p>
+ * Models that are not opennlp {@link AbstractModel}s have no accessible predicate ids and are always evaluated.
+ */
+final public class SentenceOutcomeCache {
+
+   static private final int UNKNOWN_PREDICATE = -1;
+
+   private final MaxentModel _model;
+   private final Map<String, Integer> _predicateIds;
+   private final SegmentedLruCache<ContextKey, double[]> _probabilities;
+
+   /**
+    * @param model   sentence detection model
+    * @param maxSize maximum number of contexts to hold
+    */
+   @SuppressWarnings( "unchecked" )
+   public SentenceOutcomeCache( final MaxentModel model, final int maxSize ) {
+      if ( maxSize <= 0 ) {
+         throw new IllegalArgumentException( "Outcome cache size must be positive: " + maxSize );
+      }
+      _model = model;
+      _predicateIds = model instanceof AbstractModel
+                      ? (Map<String, Integer>)((AbstractModel)model).getDataStructures()[ 1 ]
+                      : null;
+      _probabilities = new SegmentedLruCache<>( maxSize );
+   }
+
+   /**
+    * @return the model whose probabilities are cached
+    */
+   public MaxentModel getModel() {
+      return _model;
+   }
+
+   /**
+    * @param context context features of an end of sentence candidate
+    * @return outcome probabilities of the model for the context.  The array must not be modified.
+    */
+   public double[] eval( final String[] context ) {
+      if ( _predicateIds == null ) {
+         return _model.eval( context );
+      }
+      final int[] ids = new int[ context.length ];
+      for ( int i = 0; i < context.length; i++ ) {
+         final Integer id = _predicateIds.get( context[ i ] );
+         ids[ i ] = id == null ? UNKNOWN_PREDICATE : id;
+      }
+      final ContextKey key = new ContextKey( ids );
+      double[] probabilities = _probabilities.get( key );
+      if ( probabilities == null ) {
+         probabilities = _model.eval( context );
+         _probabilities.put( key, probabilities );
+      }
+      return probabilities;
+   }
+
+   /**
+    * @return number of contexts that were found in the cache
+    */
+   public long getHitCount() {
+      return _probabilities.getHitCount();
+   }
+
+   /**
+    * @return number of contexts that were not found in the cache
+    */
+   public long getMissCount() {
+      return _probabilities.getMissCount();
+   }
+
+   /**
+    * @return fraction of lookups that were found in the cache, 0 if there have been no lookups
+    */
+   public double getHitRate() {
+      return _probabilities.getHitRate();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString() {
+      return String.format( "Sentence outcome cache hits %d misses %d (%.1f%%)",
+            getHitCount(), getMissCount(), getHitRate() * 100 );
+   }
+
+
+   /**
+    * Predicate ids of a context with a precomputed hash.
+    */
+   static private final class ContextKey {
+      private final int[] _ids;
+      private final int _hash;
+
+      private ContextKey( final int[] ids ) {
+         _ids = ids;
+         _hash = Arrays.hashCode( ids );
+      }
+
+      @Override
+      public int hashCode() {
+         return _hash;
+      }
+
+      @Override
+      public boolean equals( final Object other ) {
+         return other instanceof ContextKey
+                && _hash == ((ContextKey)other)._hash
+                && Arrays.equals( _ids, ((ContextKey)other)._ids );
+      }
+   }
+
+}
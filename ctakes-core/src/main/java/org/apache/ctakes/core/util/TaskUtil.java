@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent tasks, such as the folds of a cross-validation, on several threads
+ * and returns their results in task order, so that merged results do not depend on the number of threads.
+ */
+final public class TaskUtil {
+
+   private TaskUtil() {
+   }
+
+   /**
+    * Trains and tests one fold of a cross-validation.
+    *
+    * @param <T> statistics of a fold
+    */
+   public interface Fold<T> {
+      /**
+       * @param fold index of the fold, from 0
+       * @return statistics of the fold
+       * @throws Exception if training or testing fails
+       */
+      T trainAndTest( int fold ) throws Exception;
+   }
+
+   /**
+    * @param foldCount number of folds
+    * @param threads   number of threads, each fold must use its own output directory
+    * @param fold      trains and tests a fold
+    * @param <T>       statistics of a fold
+    * @return statistics of the folds in fold order
+    * @throws Exception the failure of the first failed fold in fold order
+    */
+   static public <T> List<T> runFolds( final int foldCount, final int threads, final Fold<T> fold ) throws Exception {
+      final List<Callable<T>> tasks = new ArrayList<>( foldCount );
+      for ( int i = 0; i < foldCount; i++ ) {
+         final int foldIndex = i;
+         tasks.add( () -> fold.trainAndTest( foldIndex ) );
+      }
+      return runAll( tasks, Math.min( threads, foldCount ) );
+   }
+
+   /**
+    * @param tasks   tasks to run
+    * @param threads number of threads
+    * @param <T>     result of a task
+    * @return results of the tasks in task order
+    * @throws Exception the failure of the first failed task in task order
+    */
+   static public <T> List<T> runAll( final List<Callable<T>> tasks, final int threads ) throws Exception {
+      final ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, threads ) );
+      try {
+         final List<Future<T>> futures = new ArrayList<>();
+         for ( Callable<T> task : tasks ) {
+            futures.add( executor.submit( task ) );
+         }
+         final List<T> results = new ArrayList<>( futures.size() );
+         for ( Future<T> future : futures ) {
+            try {
+               results.add( future.get() );
+            } catch ( ExecutionException e ) {
+               executor.shutdownNow();
+               if ( e.getCause() instanceof Exception ) {
+                  throw (Exception)e.getCause();
+               }
+               throw e;
+            }
+         }
+         return results;
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+}
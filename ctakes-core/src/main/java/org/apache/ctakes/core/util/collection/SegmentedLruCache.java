@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util.collection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread safe least recently used cache.
+ * <p>
+ * Entries are spread over a fixed number of independently locked segments so that threads rarely contend.
+ * Each segment evicts its own least recently used entry, so eviction order is only approximately global.
+ * </p>
+ * Null keys and values are not supported.
+ *
+ * @param <K> key type, with a reasonable hashCode
+ * @param <V> value type
+ */
+final public class SegmentedLruCache<K, V> {
+
+   static private final int SEGMENT_COUNT = 16;
+   static private final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros( SEGMENT_COUNT );
+
+   private final int _maxSize;
+   private final Segment<K, V>[] _segments;
+   private final AtomicLong _hits = new AtomicLong();
+   private final AtomicLong _misses = new AtomicLong();
+
+   /**
+    * @param maxSize maximum number of entries to hold, rounded up to a multiple of the segment count
+    */
+   @SuppressWarnings( "unchecked" )
+   public SegmentedLruCache( final int maxSize ) {
+      if ( maxSize <= 0 ) {
+         throw new IllegalArgumentException( "Cache size must be positive: " + maxSize );
+      }
+      final int segmentSize = (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+      _maxSize = segmentSize * SEGMENT_COUNT;
+      _segments = new Segment[ SEGMENT_COUNT ];
+      for ( int i = 0; i < SEGMENT_COUNT; i++ ) {
+         _segments[ i ] = new Segment<>( segmentSize );
+      }
+   }
+
+   /**
+    * @param key -
+    * @return the cached value, or null if the key is not cached.  Counted as a hit or a miss.
+    */
+   public V get( final K key ) {
+      final V value = getSegment( key ).get( key );
+      if ( value == null ) {
+         _misses.incrementAndGet();
+      } else {
+         _hits.incrementAndGet();
+      }
+      return value;
+   }
+
+   /**
+    * Caches a value, evicting the least recently used entry of its segment if the segment is full.
+    *
+    * @param key   -
+    * @param value -
+    */
+   public void put( final K key, final V value ) {
+      getSegment( key ).put( key, value );
+   }
+
+   /**
+    * Removes every entry.  Hit and miss counts are kept.
+    */
+   public void clear() {
+      for ( Segment<K, V> segment : _segments ) {
+         segment.clear();
+      }
+   }
+
+   /**
+    * @return maximum number of entries held
+    */
+   public int getMaxSize() {
+      return _maxSize;
+   }
+
+   /**
+    * @return number of entries currently cached
+    */
+   public int size() {
+      int size = 0;
+      for ( Segment<K, V> segment : _segments ) {
+         size += segment.size();
+      }
+      return size;
+   }
+
+   /**
+    * @return number of lookups that were found in the cache
+    */
+   public long getHitCount() {
+      return _hits.get();
+   }
+
+   /**
+    * @return number of lookups that were not found in the cache
+    */
+   public long getMissCount() {
+      return _misses.get();
+   }
+
+   /**
+    * @return fraction of lookups that were found in the cache, 0 if there have been no lookups
+    */
+   public double getHitRate() {
+      final long hits = getHitCount();
+      final long total = hits + getMissCount();
+      return total == 0 ? 0 : (double)hits / total;
+   }
+
+   private Segment<K, V> getSegment( final K key ) {
+      // high bits of the mixed hash pick the segment, the segment map uses the low bits
+      final int hash = key.hashCode() * 0x9E3779B9;
+      return _segments[ hash >>> SEGMENT_SHIFT ];
+   }
+
+
+   /**
+    * Least recently used map.
+    */
+   static private final class Segment<K, V> {
+      private final Map<K, V> _map;
+
+      private Segment( final int maxSize ) {
+         _map = new LinkedHashMap<K, V>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<K, V> eldest ) {
+               return size() > maxSize;
+            }
+         };
+      }
+
+      private synchronized V get( final K key ) {
+         return _map.get( key );
+      }
+
+      private synchronized void put( final K key, final V value ) {
+         _map.put( key, value );
+      }
+
+      private synchronized void clear() {
+         _map.clear();
+      }
+
+      private synchronized int size() {
+         return _map.size();
+      }
+   }
+
+}
@@ -0,0 +1,300 @@
+package org.apache.ctakes.core.util.index;
+
+
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.cas.text.AnnotationIndex;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of the annotations of one type in a cas, held in sorted arrays for fast span queries.
+ * <p>
+ * The uimafit JCasUtil select methods scan or re-navigate the annotation index on every call,
+ * and selectCovering scans every annotation in the cas, so calling them once per entity is quadratic.
+ * This index finds the first candidate with a binary search on begin offsets,
+ * and finds covering annotations with a tree of maximum end offsets.
+ * </p>
+ * Every query returns the annotations that the JCasUtil method of the same name returns, in the same order,
+ * as a new list that the caller may modify.
+ * The index does not follow later changes to the cas.  Use {@link SpanIndexService} to get a current index.
+ */
+@Immutable
+final public class SpanIndex<T extends Annotation> {
+
+   private final AnnotationIndex<Annotation> _index;
+   private final T[] _annotations;
+   private final int[] _begins;
+   private final int[] _ends;
+   // implicit binary tree of maximum end offsets, leaves start at _leafStart
+   private final int[] _maxEnds;
+   private final int _leafStart;
+
+   /**
+    * @param jCas ye olde ...
+    * @param type annotation class to index
+    */
+   public SpanIndex( final JCas jCas, final Class<T> type ) {
+      this( jCas, JCasUtil.getType( jCas, type ) );
+   }
+
+   /**
+    * @param jCas ye olde ...
+    * @param type annotation type to index
+    */
+   @SuppressWarnings( "unchecked" )
+   SpanIndex( final JCas jCas, final Type type ) {
+      _index = jCas.getAnnotationIndex( type );
+      final int size = _index.size();
+      _annotations = (T[])new Annotation[ size ];
+      _begins = new int[ size ];
+      _ends = new int[ size ];
+      int i = 0;
+      for ( Annotation annotation : _index ) {
+         _annotations[ i ] = (T)annotation;
+         _begins[ i ] = annotation.getBegin();
+         _ends[ i ] = annotation.getEnd();
+         i++;
+      }
+      int leafStart = 1;
+      while ( leafStart < size ) {
+         leafStart <<= 1;
+      }
+      _leafStart = leafStart;
+      _maxEnds = new int[ 2 * leafStart ];
+      Arrays.fill( _maxEnds, Integer.MIN_VALUE );
+      System.arraycopy( _ends, 0, _maxEnds, leafStart, size );
+      for ( int node = leafStart - 1; node > 0; node-- ) {
+         _maxEnds[ node ] = Math.max( _maxEnds[ 2 * node ], _maxEnds[ 2 * node + 1 ] );
+      }
+   }
+
+   /**
+    * @return the number of indexed annotations
+    */
+   public int size() {
+      return _annotations.length;
+   }
+
+   /**
+    * @return all indexed annotations in index order
+    */
+   public List<T> getAnnotations() {
+      return new ArrayList<>( Arrays.asList( _annotations ) );
+   }
+
+   /**
+    * Same as JCasUtil.selectCovered( jCas, type, begin, end )
+    *
+    * @param begin begin offset of the covering span
+    * @param end   end offset of the covering span
+    * @return annotations that begin and end within the span
+    */
+   public List<T> getCovered( final int begin, final int end ) {
+      return getCovered( begin, end, null, null );
+   }
+
+   /**
+    * Same as JCasUtil.selectCovered( type, covering )
+    *
+    * @param covering covering annotation
+    * @return annotations that begin and end within the covering annotation, other than the covering annotation
+    */
+   public List<T> getCovered( final AnnotationFS covering ) {
+      return getCovered( covering.getBegin(), covering.getEnd(), covering, null );
+   }
+
+   /**
+    * Same as JCasUtil.selectCovering( jCas, type, begin, end )
+    *
+    * @param begin begin offset of the covered span
+    * @param end   end offset of the covered span
+    * @return annotations that begin at or before the begin offset and end at or after the end offset
+    */
+   public List<T> getCovering( final int begin, final int end ) {
+      final List<T> covering = new ArrayList<>();
+      final int limit = upperBound( begin );
+      if ( limit > 0 ) {
+         addCovering( 1, 0, _leafStart, limit, end, covering );
+      }
+      return covering;
+   }
+
+   /**
+    * Same as JCasUtil.selectCovering( type, covered )
+    *
+    * @param covered covered annotation
+    * @return annotations that cover the span of the covered annotation, including the covered annotation
+    */
+   public List<T> getCovering( final AnnotationFS covered ) {
+      return getCovering( covered.getBegin(), covered.getEnd() );
+   }
+
+   /**
+    * Same as JCasUtil.selectBetween( type, annotation1, annotation2 )
+    *
+    * @param annotation1 annotation on one side
+    * @param annotation2 annotation on the other side
+    * @return annotations that begin and end between the two annotations
+    */
+   public List<T> getBetween( final AnnotationFS annotation1, final AnnotationFS annotation2 ) {
+      final AnnotationFS left;
+      final AnnotationFS right;
+      if ( annotation1.getEnd() > annotation2.getBegin() ) {
+         left = annotation2;
+         right = annotation1;
+      } else {
+         left = annotation1;
+         right = annotation2;
+      }
+      return getCovered( left.getEnd(), right.getBegin(), left, right );
+   }
+
+   /**
+    * Same as JCasUtil.selectPreceding( type, annotation, count )
+    *
+    * @param annotation annotation to precede
+    * @param count      maximum number of annotations
+    * @return up to count closest annotations that end at or before the annotation begins, in index order
+    */
+   public List<T> getPreceding( final AnnotationFS annotation, final int count ) {
+      final int size = _annotations.length;
+      if ( size == 0 || count <= 0 ) {
+         return new ArrayList<>();
+      }
+      final int begin = annotation.getBegin();
+      final int last = Math.min( lowerBound( annotation ), size - 1 );
+      final List<T> preceding = new ArrayList<>( Math.min( count, last + 1 ) );
+      for ( int i = last; i >= 0 && preceding.size() < count; i-- ) {
+         if ( _ends[ i ] <= begin ) {
+            preceding.add( _annotations[ i ] );
+         }
+      }
+      Collections.reverse( preceding );
+      return preceding;
+   }
+
+   /**
+    * Same as JCasUtil.selectFollowing( type, annotation, count )
+    *
+    * @param annotation annotation to follow
+    * @param count      maximum number of annotations
+    * @return up to count closest annotations that begin at or after the annotation ends, in index order
+    */
+   public List<T> getFollowing( final AnnotationFS annotation, final int count ) {
+      final int first = Math.max( lowerBound( annotation ), lowerBound( annotation.getEnd() ) );
+      final int last = Math.min( _annotations.length, first + Math.max( count, 0 ) );
+      final List<T> following = new ArrayList<>( Math.max( last - first, 0 ) );
+      for ( int i = first; i < last; i++ ) {
+         following.add( _annotations[ i ] );
+      }
+      return following;
+   }
+
+   /**
+    * @param begin    begin offset of the covering span
+    * @param end      end offset of the covering span
+    * @param exclude1 annotation to exclude, may be null
+    * @param exclude2 another annotation to exclude, may be null
+    * @return annotations that begin and end within the span, without the excluded annotations
+    */
+   private List<T> getCovered( final int begin, final int end,
+                               final AnnotationFS exclude1, final AnnotationFS exclude2 ) {
+      final List<T> covered = new ArrayList<>();
+      for ( int i = lowerBound( begin ); i < _annotations.length && _begins[ i ] <= end; i++ ) {
+         if ( _ends[ i ] > end ) {
+            continue;
+         }
+         final T annotation = _annotations[ i ];
+         if ( annotation.equals( exclude1 ) || annotation.equals( exclude2 ) ) {
+            continue;
+         }
+         covered.add( annotation );
+      }
+      return covered;
+   }
+
+   /**
+    * Adds annotations in the subtree of a node, in index order, that are before the limit and end at or after the end.
+    */
+   private void addCovering( final int node, final int nodeStart, final int nodeWidth,
+                             final int limit, final int end, final List<T> covering ) {
+      if ( nodeStart >= limit || _maxEnds[ node ] < end ) {
+         return;
+      }
+      if ( nodeWidth == 1 ) {
+         covering.add( _annotations[ nodeStart ] );
+         return;
+      }
+      final int halfWidth = nodeWidth / 2;
+      addCovering( 2 * node, nodeStart, halfWidth, limit, end, covering );
+      addCovering( 2 * node + 1, nodeStart + halfWidth, halfWidth, limit, end, covering );
+   }
+
+   /**
+    * @return index of the first annotation that begins at or after the offset
+    */
+   private int lowerBound( final int begin ) {
+      int low = 0;
+      int high = _begins.length;
+      while ( low < high ) {
+         final int mid = ( low + high ) >>> 1;
+         if ( _begins[ mid ] < begin ) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   /**
+    * @return index of the first annotation that begins after the offset
+    */
+   private int upperBound( final int begin ) {
+      int low = 0;
+      int high = _begins.length;
+      while ( low < high ) {
+         final int mid = ( low + high ) >>> 1;
+         if ( _begins[ mid ] <= begin ) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   /**
+    * @return index of the first annotation that is not before the given annotation in the annotation index,
+    * which is where an index iterator moves to
+    */
+   private int lowerBound( final AnnotationFS annotation ) {
+      final int begin = annotation.getBegin();
+      final int end = annotation.getEnd();
+      int low = 0;
+      int high = _begins.length;
+      while ( low < high ) {
+         final int mid = ( low + high ) >>> 1;
+         if ( _begins[ mid ] < begin || ( _begins[ mid ] == begin && _ends[ mid ] > end ) ) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      // same span, ordered by type priority
+      while ( low < _begins.length && _begins[ low ] == begin && _ends[ low ] == end
+              && _index.compare( _annotations[ low ], annotation ) < 0 ) {
+         low++;
+      }
+      return low;
+   }
+
+}
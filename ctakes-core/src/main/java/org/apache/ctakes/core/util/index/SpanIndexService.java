@@ -0,0 +1,181 @@
+package org.apache.ctakes.core.util.index;
+
+
+import org.apache.log4j.Logger;
+import org.apache.uima.UimaContext;
+import org.apache.uima.UimaContextHolder;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.cas.SofaFS;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.cas.text.AnnotationIndex;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Builds a {@link SpanIndex} for an annotation type the first time that it is requested for a cas,
+ * and returns the same index until it is invalidated.
+ * <p>
+ * Indexes are invalidated automatically when a different annotator, known by its {@link UimaContext},
+ * queries the cas view, and when the cas view holds a new document, known by its sofa.
+ * Annotations added or removed by earlier annotators are therefore always seen.
+ * An annotator that adds or removes annotations of a type and then queries that type again in the same process
+ * must call {@link #invalidate(JCas, Class)}.
+ * Code that queries from threads other than the annotator's own, which have no uima context,
+ * should call {@link #invalidate(JCas)} when process starts.
+ * As a guard, an index is also rebuilt when the number of annotations of the type or the first or last annotation
+ * changes.
+ * </p>
+ * Indexes are held softly, keyed weakly by cas view, so they never keep a cas from being collected.
+ * Each cas view has its own lock, so threads that process different cas objects do not wait for each other.
+ */
+public enum SpanIndexService {
+   INSTANCE;
+
+   public static SpanIndexService getInstance() {
+      return INSTANCE;
+   }
+
+
+   static private final Logger LOGGER = Logger.getLogger( "SpanIndexService" );
+
+   // guarded by itself, held only while a cas view's indexes are found
+   private final Map<CAS, CasIndexes> _casIndexes = new WeakHashMap<>();
+
+   /**
+    * @param jCas ye olde ...
+    * @param type annotation class to index
+    * @param <T>  annotation type
+    * @return current span index for the annotations of the type in the cas view
+    */
+   @SuppressWarnings( "unchecked" )
+   public <T extends Annotation> SpanIndex<T> getSpanIndex( final JCas jCas, final Class<T> type ) {
+      final CasIndexes casIndexes = getCasIndexes( jCas.getCas() );
+      synchronized ( casIndexes ) {
+         casIndexes.startPass( jCas.getSofa(), UimaContextHolder.getContext() );
+         final Type casType = JCasUtil.getType( jCas, type );
+         final AnnotationIndex<Annotation> annotationIndex = jCas.getAnnotationIndex( casType );
+         final SoftReference<TypeIndex> reference = casIndexes._typeIndexes.get( casType );
+         final TypeIndex typeIndex = reference == null ? null : reference.get();
+         if ( typeIndex != null && typeIndex.isCurrent( annotationIndex ) ) {
+            return (SpanIndex<T>)typeIndex._spanIndex;
+         }
+         LOGGER.debug( "Indexing " + casType.getShortName() );
+         final TypeIndex newIndex = new TypeIndex( annotationIndex, new SpanIndex<>( jCas, casType ) );
+         casIndexes._typeIndexes.put( casType, new SoftReference<>( newIndex ) );
+         return (SpanIndex<T>)newIndex._spanIndex;
+      }
+   }
+
+   /**
+    * Discards the span indexes of every view of the cas.
+    *
+    * @param jCas ye olde ...
+    */
+   public void invalidate( final JCas jCas ) {
+      final Iterator<CAS> views = jCas.getCas().getViewIterator();
+      synchronized ( _casIndexes ) {
+         while ( views.hasNext() ) {
+            _casIndexes.remove( views.next() );
+         }
+      }
+   }
+
+   /**
+    * Discards the span indexes of the annotation type and of its super and sub types in the cas view.
+    * Call after adding or removing annotations of the type.
+    *
+    * @param jCas ye olde ...
+    * @param type annotation class that has changed
+    */
+   public void invalidate( final JCas jCas, final Class<? extends Annotation> type ) {
+      final Type changed = JCasUtil.getType( jCas, type );
+      final TypeSystem typeSystem = jCas.getTypeSystem();
+      final CasIndexes casIndexes = getCasIndexes( jCas.getCas() );
+      synchronized ( casIndexes ) {
+         casIndexes._typeIndexes.keySet()
+                                .removeIf( t -> typeSystem.subsumes( t, changed ) || typeSystem.subsumes( changed, t ) );
+      }
+   }
+
+   private CasIndexes getCasIndexes( final CAS cas ) {
+      synchronized ( _casIndexes ) {
+         return _casIndexes.computeIfAbsent( cas, c -> new CasIndexes() );
+      }
+   }
+
+   /**
+    * Span indexes for one cas view.  The indexes refer to the cas, so they are held softly.
+    */
+   static private final class CasIndexes {
+      private final Map<Type, SoftReference<TypeIndex>> _typeIndexes = new HashMap<>();
+      // the document and the annotator of the current indexes, weak as both refer to the cas
+      private Reference<SofaFS> _sofa = new WeakReference<>( null );
+      private Reference<UimaContext> _context = new WeakReference<>( null );
+
+      /**
+       * Discards the indexes if they were built for another document or by another annotator.
+       * Only the annotator's own thread knows its context, so a query without a context does not start a pass.
+       *
+       * @param sofa    sofa of the cas view, new for each document
+       * @param context context of the annotator that queries, or null
+       */
+      private void startPass( final SofaFS sofa, final UimaContext context ) {
+         final boolean newDocument = _sofa.get() != sofa;
+         final boolean newAnnotator = context != null && _context.get() != context;
+         if ( !newDocument && !newAnnotator ) {
+            return;
+         }
+         _typeIndexes.clear();
+         _sofa = new WeakReference<>( sofa );
+         if ( context != null ) {
+            _context = new WeakReference<>( context );
+         }
+      }
+   }
+
+   /**
+    * Span index for one type with the state of the annotation index when it was built.
+    */
+   static private final class TypeIndex {
+      private final SpanIndex<?> _spanIndex;
+      private final int _size;
+      private final int _firstAddress;
+      private final int _lastAddress;
+
+      private TypeIndex( final AnnotationIndex<Annotation> annotationIndex, final SpanIndex<?> spanIndex ) {
+         _spanIndex = spanIndex;
+         _size = annotationIndex.size();
+         _firstAddress = getFirstAddress( annotationIndex );
+         _lastAddress = getLastAddress( annotationIndex );
+      }
+
+      private boolean isCurrent( final AnnotationIndex<Annotation> annotationIndex ) {
+         return _size == annotationIndex.size()
+                && _firstAddress == getFirstAddress( annotationIndex )
+                && _lastAddress == getLastAddress( annotationIndex );
+      }
+   }
+
+   static private int getFirstAddress( final AnnotationIndex<Annotation> annotationIndex ) {
+      final FSIterator<Annotation> iterator = annotationIndex.iterator();
+      return iterator.isValid() ? iterator.get().getAddress() : 0;
+   }
+
+   static private int getLastAddress( final AnnotationIndex<Annotation> annotationIndex ) {
+      final FSIterator<Annotation> iterator = annotationIndex.iterator();
+      iterator.moveToLast();
+      return iterator.isValid() ? iterator.get().getAddress() : 0;
+   }
+
+}
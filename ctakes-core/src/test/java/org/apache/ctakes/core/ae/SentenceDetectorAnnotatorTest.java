@@ -19,10 +19,24 @@
 package org.apache.ctakes.core.ae;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import opennlp.tools.sentdetect.DefaultSDContextGenerator;
+import opennlp.tools.sentdetect.SentenceModel;
+import org.apache.ctakes.core.concurrent.ThreadSafeSentenceDetector;
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.core.sentence.EndOfSentenceScannerImpl;
+import org.apache.ctakes.core.sentence.SentenceDetectorCtakes;
+import org.apache.ctakes.core.sentence.SentenceSpan;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
 import org.apache.uima.UIMAException;
@@ -79,6 +93,113 @@ public class SentenceDetectorAnnotatorTest {
     assertEquals(sents.size(), 8);
   }
   
+  @Test
+  public void testOutcomeCacheGivesSameSentences() throws UIMAException, IOException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 1; i <= 20; i++) {
+      sb.append(i).append(". Take 5 mg. po q.d. as directed by Dr. Smith.  Return in 2 wks. \r\n");
+      sb.append(note).append("\n\n   \n");
+    }
+    String text = sb.toString();
+    AnalysisEngine uncached = AnalysisEngineFactory.createEngine(SentenceDetector.class,
+        SentenceDetector.PARAM_OUTCOME_CACHE_SIZE, 0);
+    AnalysisEngine cached = AnalysisEngineFactory.createEngine(SentenceDetector.class,
+        SentenceDetector.PARAM_OUTCOME_CACHE_SIZE, 1000);
+    List<String> expected = detectWithSentenceSpans(text);
+    assertTrue(expected.size() > 100);
+    assertEquals(expected, detect(text, uncached));
+    assertEquals(expected, detect(text, cached));
+    // every note after the first repeats the same contexts
+    assertEquals(expected, detect(text, cached));
+  }
+
+  @Test
+  public void testSharedOutcomeCacheAcrossThreads() throws Exception {
+    final int threadCount = 4;
+    final List<String> texts = new ArrayList<>();
+    final List<List<String>> expected = new ArrayList<>();
+    for (int i = 0; i < 24; i++) {
+      String text = i + ". Take " + i + " mg. po q.d. as directed by Dr. Smith.  Return in " + (i % 3) + " wks.\n"
+          + note + "\n" + "Pt. seen by Dr. Jones, M.D. on " + i + "/" + (i % 12 + 1) + ". No acute distress.";
+      texts.add(text);
+      expected.add(detectWithSentenceSpans(text));
+    }
+    // every thread has its own engine over the one shared detector and outcome cache
+    final List<AnalysisEngine> engines = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      engines.add(AnalysisEngineFactory.createEngine(ThreadSafeSentenceDetector.class,
+          SentenceDetector.PARAM_OUTCOME_CACHE_SIZE, 64));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      List<Future<List<List<String>>>> futures = new ArrayList<>();
+      for (int t = 0; t < threadCount; t++) {
+        final AnalysisEngine engine = engines.get(t);
+        futures.add(executor.submit(() -> {
+          List<List<String>> detected = new ArrayList<>();
+          for (int round = 0; round < 5; round++) {
+            for (String text : texts) {
+              detected.add(detect(text, engine));
+            }
+          }
+          return detected;
+        }));
+      }
+      for (Future<List<List<String>>> future : futures) {
+        List<List<String>> detected = future.get();
+        for (int i = 0; i < detected.size(); i++) {
+          assertEquals(expected.get(i % texts.size()), detected.get(i));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(new ThreadSafeSentenceDetector().getOutcomeCache().getHitCount() > 0);
+  }
+
+  /**
+   * Sentences as found by splitting substrings with {@link SentenceSpan} for a single segment.
+   */
+  private static List<String> detectWithSentenceSpans(String text) throws IOException {
+    SentenceModel model;
+    try (InputStream is = FileLocator.getAsStream("org/apache/ctakes/core/sentdetect/sd-med-model.zip")) {
+      model = new SentenceModel(is);
+    }
+    EndOfSentenceScannerImpl eoss = new EndOfSentenceScannerImpl();
+    SentenceDetectorCtakes detector = new SentenceDetectorCtakes(model.getMaxentModel(),
+        new DefaultSDContextGenerator(eoss.getEndOfSentenceCharacters()), eoss);
+    List<SentenceSpan> spans = new ArrayList<>();
+    int sentStart = 0;
+    for (int sentenceBreak : detector.sentPosDetect(text)) {
+      spans.add(new SentenceSpan(sentStart, sentenceBreak, text.substring(sentStart, sentenceBreak)));
+      sentStart = sentenceBreak;
+    }
+    if (sentStart < text.length()) {
+      spans.add(new SentenceSpan(sentStart, text.length(), text.substring(sentStart)));
+    }
+    List<String> sentences = new ArrayList<>();
+    for (SentenceSpan span : spans) {
+      for (SentenceSpan split : span.splitAtLineBreaksAndTrim("\n")) {
+        if (split.getStart() != split.getEnd()) {
+          sentences.add(sentences.size() + " " + split.getStart() + " " + split.getEnd());
+        }
+      }
+    }
+    return sentences;
+  }
+
+  private static List<String> detect(String text, AnalysisEngine sentenceDetector) throws UIMAException {
+    JCas jcas = JCasFactory.createJCas();
+    jcas.setDocumentText(text);
+    SimplePipeline.runPipeline(jcas,
+        AnalysisEngineFactory.createEngine(SimpleSegmentAnnotator.class), sentenceDetector);
+    List<String> sentences = new ArrayList<>();
+    for (Sentence sentence : JCasUtil.select(jcas, Sentence.class)) {
+      sentences.add(sentence.getSentenceNumber() + " " + sentence.getBegin() + " " + sentence.getEnd());
+    }
+    return sentences;
+  }
+
   private static AnalysisEngineDescription getUimaFitPipeline() throws ResourceInitializationException {
     AggregateBuilder builder = new AggregateBuilder();
     builder.add(SimpleSegmentAnnotator.createAnnotatorDescription());
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import net.openai.util.fsm.Machine;
+import net.openai.util.fsm.State;
+import net.openai.util.fsm.UnhandledConditionException;
+import org.apache.ctakes.core.ae.TokenizerAnnotator;
+import org.apache.ctakes.core.fsm.adapters.ContractionTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.DecimalTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.IntegerTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.PunctuationTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.SymbolTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.WordTokenAdapter;
+import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
+import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.output.StatusIndicator;
+import org.apache.ctakes.core.fsm.state.NamedState;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.core.fsm.token.TextToken;
+import org.apache.ctakes.core.nlp.tokenizer.TokenizerPTB;
+import org.apache.ctakes.typesystem.type.syntax.ContractionToken;
+import org.apache.ctakes.typesystem.type.syntax.NumToken;
+import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.SymbolToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the fsms, which run on {@link CompiledMachine}s, give exactly the outputs
+ * that they gave on openai fsm {@link Machine}s for a corpus of clinical sentences.
+ */
+public class CompiledMachineTest {
+
+   static private final String EXPECTED_OUTPUTS = "org/apache/ctakes/core/fsm/machine/fsm-regression-outputs.txt";
+
+   static private final String[] SENTENCES = {
+         "Seen on 07/04/2010 and again 7/4/10, next visit January 12, 2011 or Jan 12th.",
+         "The patient was seen on March 3rd 2009 at 10:30 am and again at 4 pm on 3-3-2009.",
+         "Take 1/2 tablet or 2 1/2 tablets, 3-4 times daily, 5 to 10 mg, 0.5 - 1.5 ml.",
+         "Mass measures 3.5 x 2.0 x 1.2 cm, and 12 mm in diameter, weight 70 kg, 5'10\".",
+         "Dr. Smith and Mrs Jones met Mr. Brown, M.D., with Prof. White.",
+         "Chapter II, Part IV and Stage III cancer, type XII, grade ii.",
+         "No evidence of pneumonia.  Denies chest pain, without fever, negative for rash.",
+         "Rule out myocardial infarction, possible pneumonia, probable stroke, cannot rule out sepsis.",
+         "History of diabetes, family history of cancer, mother had a history of stroke.",
+         "Not seen in 2 weeks, no longer taking aspirin, absence of edema, free of disease.",
+         "BP 120/80, HR 72, T 98.6 F, 8-10 lbs, 1,000 mg at 0800 and 20:15 hours.",
+         "From 1999 through 2003 and I - V in 1-2 days, 3 to 4 weeks, from two to three.",
+   };
+
+   static private final String[] WORDS = {
+         "no", "not", "denies", "without", "negative", "for", "rule", "out", "possible", "probable",
+         "history", "family", "of", "the", "patient", "with", "and", "or", "to", "through", "from", "at",
+         "Dr.", "Mr", "Mrs.", "Ms", "Jan", "January", "March", "Dec.", "Monday", "am", "pm", "noon",
+         "mg", "ml", "cm", "mm", "kg", "lbs", "weeks", "days", "hours", "daily", "x", "II", "IV", "iii", "XIV",
+         "1", "2", "3", "5", "10", "12", "30", "2010", "1999", "3.5", "0.25", "-2", "1,000", "07/04/2010", "10:30",
+         "1/2", "3-4", "2nd", "12th", "3pm", ".", ",", "-", "/", ":", "(", ")", "%", "'", "\"",
+   };
+
+   /**
+    * The openai fsm machines gave these outputs before the fsms were moved to compiled machines.
+    */
+   @Test
+   public void testSameOutputs() throws Exception {
+      final List<String> expected = readExpectedOutputs();
+      final List<String> actual = describeCorpus();
+      assertEquals( expected.size(), actual.size() );
+      for ( int i = 0; i < expected.size(); i++ ) {
+         assertEquals( "Output " + i, expected.get( i ), actual.get( i ) );
+      }
+   }
+
+   @Test
+   public void testCompiledTransitions() throws Exception {
+      final State startState = new NamedState( "START" );
+      final State numberState = new NamedState( "NUMBER" );
+      final State endState = new NamedState( "END" );
+      endState.setEndStateFlag( true );
+      startState.addTransition( new WordSetCondition( Collections.singleton( "one" ), false ), numberState );
+      numberState.addTransition( new PunctuationValueCondition( '.' ), endState );
+      numberState.addTransition( new WordSetCondition( Collections.singleton( "one" ), false ), numberState );
+      final CompiledMachine machine = new CompiledMachine( new Machine( startState ) );
+      assertEquals( 3, machine.getStateCount() );
+      final JCas jcas = JCasFactory.createJCas();
+      final List<BaseToken> tokens = adaptTokens( jcas, "one one .", "one one ." );
+      for ( BaseToken token : tokens ) {
+         machine.input( token );
+      }
+      assertSame( endState, machine.getCurrentState() );
+      assertEquals( 2, machine.getTokenClassCount() );
+      try {
+         machine.input( tokens.get( 0 ) );
+         fail( "End state has no transitions" );
+      } catch ( UnhandledConditionException ucException ) {
+         assertSame( endState, ucException.getState() );
+      }
+      machine.reset();
+      assertSame( startState, machine.getCurrentState() );
+   }
+
+   @Test
+   public void testRecentTokenClassesAreKept() throws Exception {
+      final State startState = new NamedState( "START" );
+      final State endState = new NamedState( "END" );
+      startState.addTransition( new WordSetCondition( Collections.singleton( "one" ), false ), endState );
+      final CompiledMachine machine = new CompiledMachine( new Machine( startState ) );
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < 10000; i++ ) {
+         sb.append( "w" ).append( i ).append( " one " );
+      }
+      final JCas jcas = JCasFactory.createJCas();
+      int unhandled = 0;
+      for ( BaseToken token : adaptTokens( jcas, sb.toString(), sb.toString() ) ) {
+         machine.reset();
+         try {
+            machine.input( token );
+            assertSame( endState, machine.getCurrentState() );
+         } catch ( UnhandledConditionException ucException ) {
+            unhandled++;
+         }
+      }
+      assertEquals( 10000, unhandled );
+      // the least recently used classes are dropped one at a time, never the whole table
+      assertEquals( 8192, machine.getTokenClassCount() );
+   }
+
+   static private List<String> readExpectedOutputs() throws IOException {
+      final InputStream stream = CompiledMachineTest.class.getClassLoader().getResourceAsStream( EXPECTED_OUTPUTS );
+      assertNotNull( EXPECTED_OUTPUTS, stream );
+      final List<String> lines = new ArrayList<>();
+      try ( BufferedReader reader = new BufferedReader( new InputStreamReader( stream, StandardCharsets.UTF_8 ) ) ) {
+         String line = reader.readLine();
+         while ( line != null ) {
+            lines.add( line );
+            line = reader.readLine();
+         }
+      }
+      return lines;
+   }
+
+   /**
+    * @return a line for each output of each fsm, for the fixed sentences and for random word sequences
+    */
+   static private List<String> describeCorpus() throws Exception {
+      final List<String> sentences = createCorpus();
+      final JCas jcas = JCasFactory.createJCas();
+      jcas.setDocumentText( String.join( "\n", sentences ) );
+      final DateFSM dateFSM = new DateFSM();
+      final TimeFSM timeFSM = new TimeFSM();
+      final FractionFSM fractionFSM = new FractionFSM();
+      final RomanNumeralFSM romanNumeralFSM = new RomanNumeralFSM();
+      final RangeFSM rangeFSM = new RangeFSM();
+      final MeasurementFSM measurementFSM = new MeasurementFSM();
+      final PersonTitleFSM personTitleFSM = new PersonTitleFSM();
+      final NegationFSM negationFSM = new NegationFSM();
+      final StatusIndicatorFSM statusIndicatorFSM = new StatusIndicatorFSM();
+      final List<String> lines = new ArrayList<>();
+      int offset = 0;
+      for ( int i = 0; i < sentences.size(); i++ ) {
+         final List<BaseToken> tokens = adaptTokens( jcas, sentences.get( i ), offset );
+         offset += sentences.get( i ).length() + 1;
+         final List<TextToken> textTokens = new ArrayList<>();
+         for ( BaseToken token : tokens ) {
+            if ( token instanceof TextToken ) {
+               textTokens.add( (TextToken)token );
+            }
+         }
+         describe( lines, i, "date", dateFSM.execute( tokens ) );
+         describe( lines, i, "time", timeFSM.execute( tokens ) );
+         describe( lines, i, "fraction", fractionFSM.execute( tokens ) );
+         final Set<? extends BaseToken> romanNumerals = romanNumeralFSM.execute( tokens );
+         describe( lines, i, "roman", romanNumerals );
+         // the range fsm keeps the last override at each start offset in set order, which for a hash set
+         // of tokens changes from run to run.  The expected outputs were made with the shortest override last.
+         final List<BaseToken> orderedRomanNumerals = new ArrayList<>( romanNumerals );
+         orderedRomanNumerals.sort( Comparator.comparingInt( BaseToken::getStartOffset )
+                                              .thenComparing( BaseToken::getEndOffset, Comparator.reverseOrder() ) );
+         final Set<? extends BaseToken> ranges = rangeFSM.execute( tokens, new LinkedHashSet<>( orderedRomanNumerals ) );
+         describe( lines, i, "range", ranges );
+         describe( lines, i, "measurement", measurementFSM.execute( tokens, ranges ) );
+         describe( lines, i, "title", personTitleFSM.execute( tokens ) );
+         describe( lines, i, "negation", negationFSM.execute( tokens ) );
+         describe( lines, i, "status", statusIndicatorFSM.execute( textTokens ) );
+      }
+      return lines;
+   }
+
+   /**
+    * @return the fixed sentences followed by random word sequences
+    */
+   static List<String> createCorpus() {
+      final List<String> sentences = new ArrayList<>();
+      Collections.addAll( sentences, SENTENCES );
+      final Random random = new Random( 1019 );
+      for ( int i = 0; i < 1000; i++ ) {
+         final StringBuilder sb = new StringBuilder();
+         final int length = 1 + random.nextInt( 12 );
+         for ( int j = 0; j < length; j++ ) {
+            sb.append( WORDS[ random.nextInt( WORDS.length ) ] ).append( ' ' );
+         }
+         sentences.add( sb.toString().trim() );
+      }
+      return sentences;
+   }
+
+   static private void describe( final List<String> lines, final int sentence, final String fsm,
+                                 final Collection<? extends BaseToken> outputs ) {
+      final List<String> sorted = new ArrayList<>();
+      for ( BaseToken output : outputs ) {
+         final StringBuilder sb = new StringBuilder();
+         sb.append( sentence ).append( ' ' ).append( fsm ).append( ' ' )
+           .append( output.getClass().getSimpleName() ).append( ' ' )
+           .append( output.getStartOffset() ).append( ' ' ).append( output.getEndOffset() );
+         if ( output instanceof StatusIndicator ) {
+            sb.append( ' ' ).append( ((StatusIndicator)output).getStatus() );
+         }
+         sorted.add( sb.toString() );
+      }
+      Collections.sort( sorted );
+      lines.addAll( sorted );
+   }
+
+   static private List<BaseToken> adaptTokens( final JCas jcas, final String sentence, final String text ) {
+      jcas.reset();
+      jcas.setDocumentText( text );
+      return adaptTokens( jcas, sentence, 0 );
+   }
+
+   /**
+    * @param jcas     jcas whose document text contains the sentence
+    * @param sentence sentence text
+    * @param offset   offset of the sentence in the document
+    * @return fsm tokens of the sentence
+    */
+   static List<BaseToken> adaptTokens( final JCas jcas, final String sentence, final int offset ) {
+      final List<BaseToken> tokens = new ArrayList<>();
+      for ( Object token : new TokenizerPTB().tokenizeTextSegment( jcas, sentence, offset, true ) ) {
+         if ( token instanceof WordToken ) {
+            tokens.add( new WordTokenAdapter( (WordToken)token ) );
+         } else if ( token instanceof NumToken ) {
+            if ( ((NumToken)token).getNumType() == TokenizerAnnotator.TOKEN_NUM_TYPE_INTEGER ) {
+               tokens.add( new IntegerTokenAdapter( (NumToken)token ) );
+            } else {
+               tokens.add( new DecimalTokenAdapter( (NumToken)token ) );
+            }
+         } else if ( token instanceof PunctuationToken ) {
+            tokens.add( new PunctuationTokenAdapter( (PunctuationToken)token ) );
+         } else if ( token instanceof ContractionToken ) {
+            tokens.add( new ContractionTokenAdapter( (ContractionToken)token ) );
+         } else if ( token instanceof SymbolToken ) {
+            tokens.add( new SymbolTokenAdapter( (SymbolToken)token ) );
+         }
+      }
+      return tokens;
+   }
+
+}
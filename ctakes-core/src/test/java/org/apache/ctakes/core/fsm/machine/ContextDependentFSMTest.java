@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link ContextDependentFSM} gives the outputs of the fsms executed one after another.
+ */
+public class ContextDependentFSMTest {
+
+   // the fsms take the last override token in set order when several start at the same offset
+   static private final Comparator<BaseToken> SPAN_ORDER
+         = Comparator.comparingInt( BaseToken::getStartOffset ).thenComparingInt( BaseToken::getEndOffset );
+
+   @Test
+   public void testSameOutputs() throws Exception {
+      final List<String> sentences = CompiledMachineTest.createCorpus();
+      final JCas jcas = JCasFactory.createJCas();
+      jcas.setDocumentText( String.join( "\n", sentences ) );
+      final DateFSM dateFSM = new DateFSM();
+      final TimeFSM timeFSM = new TimeFSM();
+      final FractionFSM fractionFSM = new FractionFSM();
+      final RomanNumeralFSM romanNumeralFSM = new RomanNumeralFSM();
+      final RangeFSM rangeFSM = new RangeFSM();
+      final MeasurementFSM measurementFSM = new MeasurementFSM();
+      final PersonTitleFSM personTitleFSM = new PersonTitleFSM();
+      final ContextDependentFSM fusedFSM = new ContextDependentFSM();
+      int offset = 0;
+      int outputCount = 0;
+      for ( String sentence : sentences ) {
+         final List<BaseToken> tokens = CompiledMachineTest.adaptTokens( jcas, sentence, offset );
+         offset += sentence.length() + 1;
+         final List<BaseToken> expected = new ArrayList<>();
+         expected.addAll( dateFSM.execute( tokens ) );
+         expected.addAll( timeFSM.execute( tokens ) );
+         expected.addAll( fractionFSM.execute( tokens ) );
+         final Set<BaseToken> romanNumerals = inSpanOrder( romanNumeralFSM.execute( tokens ) );
+         expected.addAll( romanNumerals );
+         final Set<BaseToken> ranges = inSpanOrder( rangeFSM.execute( tokens, romanNumerals ) );
+         expected.addAll( ranges );
+         expected.addAll( measurementFSM.execute( tokens, ranges ) );
+         expected.addAll( personTitleFSM.execute( tokens ) );
+         assertEquals( sentence, describe( expected ), describe( fusedFSM.execute( tokens ) ) );
+         outputCount += expected.size();
+      }
+      assertTrue( outputCount > 1000 );
+   }
+
+   static private Set<BaseToken> inSpanOrder( final Collection<? extends BaseToken> tokens ) {
+      final List<BaseToken> sorted = new ArrayList<>( tokens );
+      sorted.sort( SPAN_ORDER );
+      return new LinkedHashSet<>( sorted );
+   }
+
+   static private List<String> describe( final Collection<BaseToken> tokens ) {
+      final List<String> descriptions = new ArrayList<>();
+      for ( BaseToken token : tokens ) {
+         descriptions.add( token.getClass().getSimpleName() + " " + token.getStartOffset() + " " + token.getEndOffset() );
+      }
+      Collections.sort( descriptions );
+      return descriptions;
+   }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.NumToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link FastTokenizerPTB} gives exactly the tokens of {@link TokenizerPTB}.
+ */
+public class FastTokenizerPTBTests {
+
+   static private final String[] SENTENCES = {
+         "",
+         "   ",
+         "a",
+         "The patient can't walk; he won't, and she shouldn't've.",
+         "I cannot go. We're gonna wanna see whaddya and whatcha got, lemme know.",
+         "'Tis the season and 'twas the night.  'Assad met 'awarta and 'The boy ran', she said.",
+         "Mid-day e-mail re-evaluation of the uh-oh x-ray, 5-6 mg and -400 and anti-inflammatory-ish.",
+         "Dr. Smith, M.D., e.g. edema e.g.[1] e.g.abc i.e., A.D. www.nlm.nih.gov and U.S.A.",
+         "See http://www.mayo.edu/path?x=1 or https://a.b ftp://c mailto:me@x.org and http:// alone.",
+         "Email masanz@mayo.edu, masanz@mayo m@l m.@p 3@4 a!b@cd ab@-cd ab@c. x@y",
+         "Call 4-5555, 555-1212, 507-555-1212, 02-2348-2192, 1-507-555-1212 or 55901-0001 now.",
+         "Take 2,000,123.For 92,000,123. 2,000,123.0 2,000,13 2 2. 2, 22 12345678901@4 2.2.2. 1,234 .5 .25mg",
+         "Wait... what.. and .... and .",
+         "The 80's and P'yongyang, James' and Ted's book, rock 'n' roll, more'n enough.",
+         "Tabs\tand\r\nCRLF\rCR\nLF \n  \r \r\n end",
+         "BP 120/80, HR 72bpm, T 98.6F, SpO2 97% on RA; wbc 12.3K (H) >> 2J3. 2'3. x",
+         "ALLCAPS MixedCase lowercase Capital a1 1a a1b",
+         "n't start and ca n't and don't and DON'T and Don'T and haven't",
+         "it's he'd she'll they've we're y'all o'clock rock'n'roll 'n",
+         "§ ¶ © ® ° ± µ ÷ × € £ ¥ ~ ` @ # $ % ^ & * _ + = | \\ / < > { } [ ] ( ) \" ' ? ! : ; , .",
+         "a.b.c.d.e.f.g.h.i.j.k.l.m.n.o.p.q.r.s.t.u.v.w.x.y.z.",
+         "1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20",
+         "final period.",
+         "final number 42.",
+         "final word's",
+         "ends with n't",
+         "80's-esque,80's-o-torium.80's-like-ish 80's-x 80's' 80's. 80'st 80's2 80's-",
+         "p'yongyang p'yongyang. p'yongyang's P'YONGYANG,x James'. O'Neil-o-torium-ish",
+         "mega-huge-esque,uh-oh-ish.anti-uh-oh salon-o-torium-like-esque x-y-z-w-v-u mid-o-",
+         "re-evaluation's,e-mail's-esque.ab-cd'ef-gh'ij-kl,2-3's-ish 5-o-2 -o-torium a--b a-'b",
+   };
+
+   static private final String ALPHABET = "aAbBnNtTsSlLdDvVrR0123456789"
+                                          + "''''..,,--@:/?!;()\"  \t\n\r#%&*+=_~wWhHpPxXcCgGmMiIe";
+
+   static private JCas _jcas;
+
+   @BeforeClass
+   static public void createJCas() throws Exception {
+      _jcas = JCasFactory.createJCas();
+   }
+
+   @Test
+   public void testSentences() {
+      for ( String sentence : SENTENCES ) {
+         assertSameTokens( sentence );
+      }
+   }
+
+   @Test
+   public void testRandomText() {
+      final Random random = new Random( 1019 );
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < 5000; i++ ) {
+         sb.setLength( 0 );
+         final int length = 1 + random.nextInt( 40 );
+         for ( int j = 0; j < length; j++ ) {
+            sb.append( ALPHABET.charAt( random.nextInt( ALPHABET.length() ) ) );
+         }
+         assertSameTokens( sb.toString() );
+      }
+   }
+
+   @Test
+   public void testSubSequence() {
+      final String document = "Header line.\n" + SENTENCES[ 3 ] + "\nTrailer";
+      final int begin = document.indexOf( SENTENCES[ 3 ] );
+      final int end = begin + SENTENCES[ 3 ].length();
+      final FastTokenizerPTB tokenizer = new FastTokenizerPTB();
+      final TokenOffsets offsets = new TokenOffsets( 1 );
+      final CharSequence text = CharBuffer.wrap( document, begin, end );
+      tokenizer.tokenize( text, offsets );
+      final List<String> fast = new ArrayList<>();
+      for ( int i = 0; i < offsets.size(); i++ ) {
+         fast.add( describe( FastTokenizerPTB.createToken( _jcas, text, offsets, i, begin ), document ) );
+      }
+      final List<String> original = new ArrayList<>();
+      for ( Object token : new TokenizerPTB().tokenizeTextSegment( _jcas, SENTENCES[ 3 ], begin, true ) ) {
+         original.add( describe( (BaseToken)token, document ) );
+      }
+      assertTrue( fast.size() > 10 );
+      assertEquals( original, fast );
+   }
+
+   @Test
+   public void testLongTextWithoutWhitespace() {
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < 200000; i++ ) {
+         sb.append( "ab," );
+      }
+      final FastTokenizerPTB tokenizer = new FastTokenizerPTB();
+      final TokenOffsets offsets = new TokenOffsets();
+      tokenizer.tokenize( sb, offsets );
+      assertEquals( 400000, offsets.size() );
+      assertEquals( FastTokenizerPTB.WORD_TOKEN, offsets.getKind( 0 ) );
+      assertEquals( FastTokenizerPTB.PUNCTUATION_TOKEN, offsets.getKind( 1 ) );
+      assertEquals( sb.length(), offsets.getEnd( offsets.size() - 1 ) );
+   }
+
+   @Test
+   public void testLongApostropheAndHyphenRuns() {
+      final String[] pieces = { "80's-esque,", "mid-day.", "it's;", "uh-oh-ish,", "p'yongyang.", "a-b-c-d'" };
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < 40; i++ ) {
+         sb.append( pieces[ i % pieces.length ] );
+      }
+      assertSameTokens( sb.toString() );
+   }
+
+   @Test( timeout = 20000 )
+   public void testLongApostropheAndHyphenRunIsLinear() {
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < 100000; i++ ) {
+         sb.append( "80's-esque,mid-day." );
+      }
+      final FastTokenizerPTB tokenizer = new FastTokenizerPTB();
+      final TokenOffsets offsets = new TokenOffsets();
+      tokenizer.tokenize( sb, offsets );
+      final TokenOffsets pieceOffsets = new TokenOffsets();
+      tokenizer.tokenize( "80's-esque,mid-day.80's", pieceOffsets );
+      final int pieceTokens = pieceOffsets.size() - 1;
+      assertTrue( pieceTokens > 3 );
+      for ( int i = 0; i < pieceTokens; i++ ) {
+         assertEquals( pieceOffsets.getBegin( i ), offsets.getBegin( i ) );
+         assertEquals( pieceOffsets.getEnd( i ), offsets.getEnd( i ) );
+      }
+      // every piece but the last is followed by "80's", the last ends the text
+      final TokenOffsets lastOffsets = new TokenOffsets();
+      tokenizer.tokenize( "80's-esque,mid-day.", lastOffsets );
+      assertEquals( 99999L * pieceTokens + lastOffsets.size(), (long)offsets.size() );
+      assertEquals( sb.length(), offsets.getEnd( offsets.size() - 1 ) );
+   }
+
+   static private void assertSameTokens( final String text ) {
+      final List<String> original = new ArrayList<>();
+      for ( Object token : new TokenizerPTB().tokenizeTextSegment( _jcas, text, 0, true ) ) {
+         original.add( describe( (BaseToken)token, text ) );
+      }
+      final FastTokenizerPTB tokenizer = new FastTokenizerPTB();
+      final TokenOffsets offsets = new TokenOffsets();
+      tokenizer.tokenize( text, offsets );
+      final List<String> fast = new ArrayList<>();
+      for ( int i = 0; i < offsets.size(); i++ ) {
+         fast.add( describe( FastTokenizerPTB.createToken( _jcas, text, offsets, i, 0 ), text ) );
+      }
+      assertEquals( "Tokens of \"" + text + "\"", original, fast );
+   }
+
+   static private String describe( final BaseToken token, final String text ) {
+      final StringBuilder sb = new StringBuilder( token.getClass().getSimpleName() )
+            .append( ' ' ).append( token.getBegin() )
+            .append( ' ' ).append( token.getEnd() )
+            .append( ' ' ).append( text, token.getBegin(), token.getEnd() );
+      if ( token instanceof NumToken ) {
+         sb.append( " type " ).append( ((NumToken)token).getNumType() );
+      } else if ( token instanceof WordToken ) {
+         sb.append( " cap " ).append( ((WordToken)token).getCapitalization() )
+           .append( " num " ).append( ((WordToken)token).getNumPosition() );
+      }
+      return sb.toString();
+   }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+final public class TaskUtilTest {
+
+   @Test
+   public void testResultsAreInTaskOrder() throws Exception {
+      final CountDownLatch lastDone = new CountDownLatch( 1 );
+      final List<Callable<Integer>> tasks = new ArrayList<>();
+      tasks.add( () -> {
+         // finish after the last task
+         assertTrue( lastDone.await( 10, TimeUnit.SECONDS ) );
+         return 0;
+      } );
+      tasks.add( () -> 1 );
+      tasks.add( () -> {
+         lastDone.countDown();
+         return 2;
+      } );
+      assertEquals( Arrays.asList( 0, 1, 2 ), TaskUtil.runAll( tasks, 3 ) );
+      // the latch is open, so a single thread also runs them
+      assertEquals( Arrays.asList( 0, 1, 2 ), TaskUtil.runAll( tasks, 1 ) );
+   }
+
+   @Test
+   public void testFirstFailureInTaskOrderIsThrown() throws Exception {
+      final CountDownLatch laterFailed = new CountDownLatch( 1 );
+      final List<Callable<Integer>> tasks = new ArrayList<>();
+      tasks.add( () -> 0 );
+      tasks.add( () -> {
+         // fail after the later task has failed
+         assertTrue( laterFailed.await( 10, TimeUnit.SECONDS ) );
+         throw new IOException( "first" );
+      } );
+      tasks.add( () -> {
+         laterFailed.countDown();
+         throw new IllegalStateException( "second" );
+      } );
+      try {
+         TaskUtil.runAll( tasks, 3 );
+         fail( "Expected the failure of the second task" );
+      } catch ( IOException e ) {
+         assertEquals( "first", e.getMessage() );
+      }
+   }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util.collection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentedLruCacheTest {
+
+   /**
+    * Keys with equal hash codes share a segment, which makes eviction order predictable.
+    */
+   static private final class CollidingKey {
+      private final String _name;
+
+      private CollidingKey( final String name ) {
+         _name = name;
+      }
+
+      @Override
+      public int hashCode() {
+         return 7;
+      }
+
+      @Override
+      public boolean equals( final Object other ) {
+         return other instanceof CollidingKey && _name.equals( ((CollidingKey)other)._name );
+      }
+   }
+
+   @Test
+   public void testHitsAndMisses() {
+      final SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>( 64 );
+      assertNull( cache.get( "a" ) );
+      cache.put( "a", 1 );
+      cache.put( "b", 2 );
+      assertEquals( 1, cache.get( "a" ).intValue() );
+      assertEquals( 2, cache.get( "b" ).intValue() );
+      assertNull( cache.get( "c" ) );
+      assertEquals( 2, cache.getHitCount() );
+      assertEquals( 2, cache.getMissCount() );
+      assertEquals( 0.5, cache.getHitRate(), 0 );
+      assertEquals( 2, cache.size() );
+      cache.clear();
+      assertEquals( 0, cache.size() );
+      assertNull( cache.get( "a" ) );
+   }
+
+   @Test
+   public void testLeastRecentlyUsedIsEvicted() {
+      // 16 segments of 2
+      final SegmentedLruCache<CollidingKey, String> cache = new SegmentedLruCache<>( 32 );
+      final CollidingKey a = new CollidingKey( "a" );
+      final CollidingKey b = new CollidingKey( "b" );
+      final CollidingKey c = new CollidingKey( "c" );
+      cache.put( a, "a" );
+      cache.put( b, "b" );
+      // a becomes the most recently used
+      assertEquals( "a", cache.get( a ) );
+      cache.put( c, "c" );
+      assertEquals( 2, cache.size() );
+      assertNull( cache.get( b ) );
+      assertEquals( "a", cache.get( a ) );
+      assertEquals( "c", cache.get( c ) );
+   }
+
+   @Test
+   public void testSizeIsBounded() {
+      final SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>( 100 );
+      assertEquals( 112, cache.getMaxSize() );
+      for ( int i = 0; i < 10000; i++ ) {
+         cache.put( i, i );
+      }
+      assertTrue( cache.size() <= cache.getMaxSize() );
+      // the newest entry is always kept
+      assertEquals( 9999, cache.get( 9999 ).intValue() );
+   }
+
+   @Test( expected = IllegalArgumentException.class )
+   public void testRejectsEmptyCache() {
+      new SegmentedLruCache<String, String>( 0 );
+   }
+
+}
@@ -0,0 +1,192 @@
+package org.apache.ctakes.core.util.index;
+
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times the per entity span queries of the assertion, temporal and relation annotators with uimafit
+ * {@link JCasUtil} and with {@link SpanIndexService}, and reports whether the results differ.
+ * <p>
+ * Each document has sentences of ten to thirty words and an entity on every few words.
+ * For every entity the covering sentence, the tokens in that sentence, the tokens between the entity
+ * and every other entity in the sentence, and the three preceding and following tokens are selected.
+ * Arguments are document sizes in sentences, default 100 400 1600.
+ * </p>
+ */
+final public class SpanIndexBenchmark {
+
+   static private final int ROUNDS = 3;
+
+   private SpanIndexBenchmark() {
+   }
+
+   static public void main( final String... args ) throws UIMAException {
+      final int[] sentenceCounts = args.length == 0
+                                   ? new int[] { 100, 400, 1600 }
+                                   : Arrays.stream( args ).mapToInt( Integer::parseInt ).toArray();
+      for ( int sentenceCount : sentenceCounts ) {
+         benchmark( createDocument( sentenceCount, new Random( 1019 ) ) );
+      }
+   }
+
+   static public void benchmark( final JCas jCas ) {
+      final List<IdentifiedAnnotation> entities = new ArrayList<>( JCasUtil.select( jCas, IdentifiedAnnotation.class ) );
+      long utilMillis = Long.MAX_VALUE;
+      long indexMillis = Long.MAX_VALUE;
+      List<Annotation> expected = null;
+      List<Annotation> actual = null;
+      for ( int i = 0; i < ROUNDS; i++ ) {
+         long start = System.currentTimeMillis();
+         expected = runQueries( entities, new UtilQueries( jCas ) );
+         utilMillis = Math.min( utilMillis, System.currentTimeMillis() - start );
+         SpanIndexService.getInstance().invalidate( jCas );
+         start = System.currentTimeMillis();
+         actual = runQueries( entities, new IndexQueries( jCas ) );
+         indexMillis = Math.min( indexMillis, System.currentTimeMillis() - start );
+      }
+      System.out.println( String.format(
+            "%d sentences %d tokens %d entities  JCasUtil %d ms  SpanIndex %d ms  (%.1fx)  same results %b",
+            JCasUtil.select( jCas, Sentence.class ).size(), JCasUtil.select( jCas, BaseToken.class ).size(),
+            entities.size(), utilMillis, indexMillis, (double)utilMillis / Math.max( 1, indexMillis ),
+            expected.equals( actual ) ) );
+   }
+
+   static private List<Annotation> runQueries( final List<IdentifiedAnnotation> entities, final Queries queries ) {
+      final List<Annotation> results = new ArrayList<>();
+      for ( IdentifiedAnnotation entity : entities ) {
+         for ( Sentence sentence : queries.covering( entity ) ) {
+            results.add( sentence );
+            results.addAll( queries.covered( sentence ) );
+            for ( IdentifiedAnnotation other : queries.coveredEntities( sentence ) ) {
+               results.addAll( queries.between( entity, other ) );
+            }
+         }
+         results.addAll( queries.preceding( entity ) );
+         results.addAll( queries.following( entity ) );
+      }
+      return results;
+   }
+
+   private interface Queries {
+      List<Sentence> covering( IdentifiedAnnotation entity );
+
+      List<BaseToken> covered( Sentence sentence );
+
+      List<IdentifiedAnnotation> coveredEntities( Sentence sentence );
+
+      List<BaseToken> between( IdentifiedAnnotation entity, IdentifiedAnnotation other );
+
+      List<BaseToken> preceding( IdentifiedAnnotation entity );
+
+      List<BaseToken> following( IdentifiedAnnotation entity );
+   }
+
+   static private final class UtilQueries implements Queries {
+      private final JCas _jCas;
+
+      private UtilQueries( final JCas jCas ) {
+         _jCas = jCas;
+      }
+
+      public List<Sentence> covering( final IdentifiedAnnotation entity ) {
+         return JCasUtil.selectCovering( _jCas, Sentence.class, entity.getBegin(), entity.getEnd() );
+      }
+
+      public List<BaseToken> covered( final Sentence sentence ) {
+         return JCasUtil.selectCovered( BaseToken.class, sentence );
+      }
+
+      public List<IdentifiedAnnotation> coveredEntities( final Sentence sentence ) {
+         return JCasUtil.selectCovered( IdentifiedAnnotation.class, sentence );
+      }
+
+      public List<BaseToken> between( final IdentifiedAnnotation entity, final IdentifiedAnnotation other ) {
+         return JCasUtil.selectBetween( BaseToken.class, entity, other );
+      }
+
+      public List<BaseToken> preceding( final IdentifiedAnnotation entity ) {
+         return JCasUtil.selectPreceding( _jCas, BaseToken.class, entity, 3 );
+      }
+
+      public List<BaseToken> following( final IdentifiedAnnotation entity ) {
+         return JCasUtil.selectFollowing( _jCas, BaseToken.class, entity, 3 );
+      }
+   }
+
+   static private final class IndexQueries implements Queries {
+      private final JCas _jCas;
+
+      private IndexQueries( final JCas jCas ) {
+         _jCas = jCas;
+      }
+
+      private <T extends Annotation> SpanIndex<T> index( final Class<T> type ) {
+         return SpanIndexService.getInstance().getSpanIndex( _jCas, type );
+      }
+
+      public List<Sentence> covering( final IdentifiedAnnotation entity ) {
+         return index( Sentence.class ).getCovering( entity );
+      }
+
+      public List<BaseToken> covered( final Sentence sentence ) {
+         return index( BaseToken.class ).getCovered( sentence );
+      }
+
+      public List<IdentifiedAnnotation> coveredEntities( final Sentence sentence ) {
+         return index( IdentifiedAnnotation.class ).getCovered( sentence );
+      }
+
+      public List<BaseToken> between( final IdentifiedAnnotation entity, final IdentifiedAnnotation other ) {
+         return index( BaseToken.class ).getBetween( entity, other );
+      }
+
+      public List<BaseToken> preceding( final IdentifiedAnnotation entity ) {
+         return index( BaseToken.class ).getPreceding( entity, 3 );
+      }
+
+      public List<BaseToken> following( final IdentifiedAnnotation entity ) {
+         return index( BaseToken.class ).getFollowing( entity, 3 );
+      }
+   }
+
+   static private JCas createDocument( final int sentenceCount, final Random random ) throws UIMAException {
+      final JCas jCas = JCasFactory.createJCas();
+      final StringBuilder sb = new StringBuilder();
+      final List<int[]> sentences = new ArrayList<>();
+      final List<int[]> words = new ArrayList<>();
+      for ( int i = 0; i < sentenceCount; i++ ) {
+         final int sentenceBegin = sb.length();
+         final int wordCount = 10 + random.nextInt( 21 );
+         for ( int j = 0; j < wordCount; j++ ) {
+            final int wordBegin = sb.length();
+            sb.append( "word" ).append( random.nextInt( 100 ) );
+            words.add( new int[] { wordBegin, sb.length() } );
+            sb.append( ' ' );
+         }
+         sentences.add( new int[] { sentenceBegin, sb.length() - 1 } );
+         sb.append( '\n' );
+      }
+      jCas.setDocumentText( sb.toString() );
+      sentences.forEach( s -> new Sentence( jCas, s[ 0 ], s[ 1 ] ).addToIndexes() );
+      for ( int[] word : words ) {
+         new WordToken( jCas, word[ 0 ], word[ 1 ] ).addToIndexes();
+         if ( random.nextInt( 4 ) == 0 ) {
+            new IdentifiedAnnotation( jCas, word[ 0 ], word[ 1 ] ).addToIndexes();
+         }
+      }
+      return jCas;
+   }
+
+}
@@ -0,0 +1,244 @@
+package org.apache.ctakes.core.util.index;
+
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.AnatomicalSiteMention;
+import org.apache.ctakes.typesystem.type.textsem.DiseaseDisorderMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+final public class SpanIndexTest {
+
+   static private final int TEXT_LENGTH = 400;
+
+   static private final List<Class<? extends Annotation>> TYPES = Arrays.asList(
+         Sentence.class, BaseToken.class, WordToken.class, IdentifiedAnnotation.class,
+         DiseaseDisorderMention.class );
+
+   static private JCas _testCas;
+   static private List<Annotation> _annotations;
+
+   @BeforeClass
+   static public void setupTestCas() throws UIMAException {
+      _testCas = JCasFactory.createJCas();
+      final char[] text = new char[ TEXT_LENGTH ];
+      Arrays.fill( text, 'a' );
+      _testCas.setDocumentText( new String( text ) );
+      final Random random = new Random( 41 );
+      _annotations = new ArrayList<>();
+      for ( int begin = 0; begin < TEXT_LENGTH; begin += 20 + random.nextInt( 40 ) ) {
+         addAnnotation( new Sentence( _testCas ), begin, Math.min( TEXT_LENGTH, begin + 20 + random.nextInt( 40 ) ) );
+      }
+      for ( int i = 0; i < 300; i++ ) {
+         final int begin = random.nextInt( TEXT_LENGTH );
+         final int end = Math.min( TEXT_LENGTH, begin + random.nextInt( 8 ) );
+         addAnnotation( random.nextBoolean() ? new WordToken( _testCas ) : new PunctuationToken( _testCas ), begin, end );
+      }
+      for ( int i = 0; i < 200; i++ ) {
+         final int begin = random.nextInt( TEXT_LENGTH );
+         final int end = Math.min( TEXT_LENGTH, begin + random.nextInt( 30 ) );
+         final int kind = random.nextInt( 3 );
+         addAnnotation( kind == 0 ? new IdentifiedAnnotation( _testCas )
+                                  : kind == 1 ? new DiseaseDisorderMention( _testCas )
+                                              : new AnatomicalSiteMention( _testCas ), begin, end );
+      }
+   }
+
+   static private void addAnnotation( final Annotation annotation, final int begin, final int end ) {
+      annotation.setBegin( begin );
+      annotation.setEnd( end );
+      annotation.addToIndexes();
+      _annotations.add( annotation );
+   }
+
+   @Test
+   public void testCovered() {
+      for ( Class<? extends Annotation> type : TYPES ) {
+         final SpanIndex<? extends Annotation> index = new SpanIndex<>( _testCas, type );
+         for ( Annotation annotation : _annotations ) {
+            assertEquals( JCasUtil.selectCovered( type, annotation ), index.getCovered( annotation ) );
+            assertEquals( JCasUtil.selectCovered( _testCas, type, annotation.getBegin(), annotation.getEnd() ),
+                  index.getCovered( annotation.getBegin(), annotation.getEnd() ) );
+         }
+      }
+   }
+
+   @Test
+   public void testCovering() {
+      for ( Class<? extends Annotation> type : TYPES ) {
+         final SpanIndex<? extends Annotation> index = new SpanIndex<>( _testCas, type );
+         for ( Annotation annotation : _annotations ) {
+            assertEquals( JCasUtil.selectCovering( type, annotation ), index.getCovering( annotation ) );
+         }
+      }
+   }
+
+   @Test
+   public void testBetween() {
+      final Random random = new Random( 14 );
+      for ( Class<? extends Annotation> type : TYPES ) {
+         final SpanIndex<? extends Annotation> index = new SpanIndex<>( _testCas, type );
+         for ( Annotation annotation : _annotations ) {
+            final Annotation other = _annotations.get( random.nextInt( _annotations.size() ) );
+            assertEquals( JCasUtil.selectBetween( type, annotation, other ), index.getBetween( annotation, other ) );
+         }
+      }
+   }
+
+   @Test
+   public void testPrecedingFollowing() {
+      for ( Class<? extends Annotation> type : TYPES ) {
+         final SpanIndex<? extends Annotation> index = new SpanIndex<>( _testCas, type );
+         for ( Annotation annotation : _annotations ) {
+            for ( int count : new int[] { 0, 1, 5, 20 } ) {
+               assertEquals( JCasUtil.selectPreceding( _testCas, type, annotation, count ),
+                     index.getPreceding( annotation, count ) );
+               assertEquals( JCasUtil.selectFollowing( _testCas, type, annotation, count ),
+                     index.getFollowing( annotation, count ) );
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testServiceInvalidation() throws UIMAException {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( "Sentence one.  Sentence two." );
+      final Sentence sentence = new Sentence( jCas, 0, 13 );
+      sentence.addToIndexes();
+      final SpanIndexService service = SpanIndexService.getInstance();
+      final SpanIndex<Sentence> index = service.getSpanIndex( jCas, Sentence.class );
+      assertSame( "Unchanged cas should reuse the index", index, service.getSpanIndex( jCas, Sentence.class ) );
+      new Sentence( jCas, 15, 28 ).addToIndexes();
+      final SpanIndex<Sentence> added = service.getSpanIndex( jCas, Sentence.class );
+      assertNotSame( "Added sentence should rebuild the index", index, added );
+      assertEquals( 2, added.size() );
+      sentence.removeFromIndexes();
+      assertEquals( 1, service.getSpanIndex( jCas, Sentence.class ).size() );
+      service.invalidate( jCas );
+      assertNotSame( "Invalidated cas should rebuild the index", added, service.getSpanIndex( jCas, Sentence.class ) );
+   }
+
+   @Test
+   public void testServiceTypeInvalidation() throws UIMAException {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( "Sentence one.  Sentence two." );
+      final WordToken first = new WordToken( jCas, 0, 8 );
+      first.addToIndexes();
+      new WordToken( jCas, 9, 12 ).addToIndexes();
+      new WordToken( jCas, 15, 23 ).addToIndexes();
+      final SpanIndexService service = SpanIndexService.getInstance();
+      service.invalidate( jCas );
+      final SpanIndex<BaseToken> tokens = service.getSpanIndex( jCas, BaseToken.class );
+      final SpanIndex<Sentence> sentences = service.getSpanIndex( jCas, Sentence.class );
+      // same count, first and last token, so only an explicit invalidation shows the change
+      final WordToken middle = JCasUtil.selectByIndex( jCas, WordToken.class, 1 );
+      middle.removeFromIndexes();
+      new WordToken( jCas, 10, 12 ).addToIndexes();
+      service.invalidate( jCas, WordToken.class );
+      final SpanIndex<BaseToken> changed = service.getSpanIndex( jCas, BaseToken.class );
+      assertNotSame( "Invalidated super type should rebuild the index", tokens, changed );
+      assertEquals( JCasUtil.select( jCas, BaseToken.class ).size(), changed.size() );
+      assertEquals( 10, changed.getCovered( 9, 23 ).get( 0 ).getBegin() );
+      assertSame( "Other types should keep their index", sentences, service.getSpanIndex( jCas, Sentence.class ) );
+   }
+
+   @Test
+   public void testServiceAnnotatorInvalidation() throws UIMAException {
+      final JCas jCas = createTokenCas();
+      // the second annotator removes one token and adds another without invalidating the indexes
+      SimplePipeline.runPipeline( jCas,
+            AnalysisEngineFactory.createEngineDescription( TokenQuerier.class ),
+            AnalysisEngineFactory.createEngineDescription( TokenReplacer.class ),
+            AnalysisEngineFactory.createEngineDescription( TokenQuerier.class ) );
+      assertEquals( Arrays.asList( 9, 10 ), TokenQuerier._middleBegins );
+   }
+
+   @Test
+   public void testServiceDocumentInvalidation() throws UIMAException {
+      final JCas jCas = createTokenCas();
+      final SpanIndexService service = SpanIndexService.getInstance();
+      assertEquals( 9, service.getSpanIndex( jCas, BaseToken.class ).getCovered( 9, 23 ).get( 0 ).getBegin() );
+      // a new document with the same count of tokens and the same first and last token
+      jCas.reset();
+      jCas.setDocumentText( "Sentence one.  Sentence two." );
+      new WordToken( jCas, 0, 8 ).addToIndexes();
+      new WordToken( jCas, 10, 12 ).addToIndexes();
+      new WordToken( jCas, 15, 23 ).addToIndexes();
+      final List<BaseToken> covered = service.getSpanIndex( jCas, BaseToken.class ).getCovered( 9, 23 );
+      assertEquals( 10, covered.get( 0 ).getBegin() );
+      assertSame( JCasUtil.selectByIndex( jCas, WordToken.class, 1 ), covered.get( 0 ) );
+   }
+
+   static private JCas createTokenCas() throws UIMAException {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( "Sentence one.  Sentence two." );
+      new WordToken( jCas, 0, 8 ).addToIndexes();
+      new WordToken( jCas, 9, 12 ).addToIndexes();
+      new WordToken( jCas, 15, 23 ).addToIndexes();
+      return jCas;
+   }
+
+   /**
+    * Records the begin of the first token covered by the second sentence's span.
+    */
+   static public final class TokenQuerier extends JCasAnnotator_ImplBase {
+      static private final List<Integer> _middleBegins = new ArrayList<>();
+
+      @Override
+      public void process( final JCas jCas ) {
+         _middleBegins.add( SpanIndexService.getInstance().getSpanIndex( jCas, BaseToken.class )
+               .getCovered( 9, 23 ).get( 0 ).getBegin() );
+      }
+   }
+
+   /**
+    * Replaces the middle token, keeping the count of tokens and the first and last token.
+    */
+   static public final class TokenReplacer extends JCasAnnotator_ImplBase {
+      @Override
+      public void process( final JCas jCas ) {
+         JCasUtil.selectByIndex( jCas, WordToken.class, 1 ).removeFromIndexes();
+         new WordToken( jCas, 10, 12 ).addToIndexes();
+      }
+   }
+
+   @Test
+   public void testServiceViewInvalidation() throws UIMAException {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( "Sentence one." );
+      final JCas goldView = jCas.createView( "GoldView" );
+      goldView.setDocumentText( "Sentence one." );
+      new Sentence( goldView, 0, 13 ).addToIndexes();
+      final SpanIndexService service = SpanIndexService.getInstance();
+      final SpanIndex<Sentence> initial = service.getSpanIndex( jCas, Sentence.class );
+      final SpanIndex<Sentence> gold = service.getSpanIndex( goldView, Sentence.class );
+      assertEquals( 0, initial.size() );
+      assertEquals( 1, gold.size() );
+      service.invalidate( jCas );
+      assertNotSame( "Invalidated cas should rebuild the index", initial, service.getSpanIndex( jCas, Sentence.class ) );
+      assertNotSame( "Invalidated cas should rebuild its views' indexes", gold,
+            service.getSpanIndex( goldView, Sentence.class ) );
+   }
+
+}
@@ -36,7 +36,7 @@ public class MentionClusterDistSemExtractor implements
   }
   
   public MentionClusterDistSemExtractor(String embeddingsPath) throws FileNotFoundException, IOException{
-    words = WordVectorReader.getEmbeddings(FileLocator.getAsStream(embeddingsPath));
+    words = WordVectorReader.getEmbeddings(FileLocator.getFile(embeddingsPath));
   }
 
   @Override
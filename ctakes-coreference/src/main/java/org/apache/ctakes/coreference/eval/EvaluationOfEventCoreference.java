@@ -666,7 +666,7 @@ public class EvaluationOfEventCoreference extends EvaluationOfTemporalRelations_
     @Override
     public void initialize(final UimaContext context) throws ResourceInitializationException{
       try {
-        words = WordVectorReader.getEmbeddings(FileLocator.getAsStream("org/apache/ctakes/coreference/distsem/mimic_vectors.txt"));
+        words = WordVectorReader.getEmbeddings(FileLocator.getFile("org/apache/ctakes/coreference/distsem/mimic_vectors.txt"));
       } catch (IOException e) {
         e.printStackTrace();
         throw new ResourceInitializationException(e);
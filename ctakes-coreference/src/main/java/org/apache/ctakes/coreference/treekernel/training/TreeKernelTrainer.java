@@ -24,8 +24,9 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Scanner;
 
-import org.apache.ctakes.constituency.parser.treekernel.TreeKernel;
+import org.apache.ctakes.constituency.parser.treekernel.FastTreeKernel;
 import org.apache.ctakes.coreference.util.ThreadDelegator;
+import org.apache.ctakes.utils.kernel.Kernel;
 
 
 import opennlp.tools.parser.Parse;
@@ -42,7 +43,7 @@ public class TreeKernelTrainer implements ThreadDelegator {
 		outFile = outputFile;
 	}
 	
-	public void run(TreeKernel kernel){
+	public void run(Kernel kernel){
 		int lineNum = 1;
 		Scanner scanner;
 		ArrayList<ArrayList<Double>> rows = new ArrayList<ArrayList<Double>>();
@@ -161,7 +162,7 @@ public class TreeKernelTrainer implements ThreadDelegator {
 		String config = "treeKernels";
 		String path = dir+config;
 		
-		TreeKernel kernel = new TreeKernel(false);
+		FastTreeKernel kernel = new FastTreeKernel(false);
 		TreeKernelTrainer tkt;
 		tkt = new TreeKernelTrainer(path + "/ne/trees.downsampled.txt", path + "/ne/matrix.downsampled.out");
 		tkt.run(kernel);
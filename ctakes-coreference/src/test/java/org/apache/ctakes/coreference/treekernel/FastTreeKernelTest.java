@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.coreference.treekernel;
+
+import opennlp.tools.parser.Parse;
+import org.apache.ctakes.constituency.parser.treekernel.FastTreeKernel;
+import org.apache.ctakes.constituency.parser.treekernel.TreeKernel;
+import org.apache.ctakes.coreference.treekernel.training.TreeKernelBenchmark;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FastTreeKernelTest {
+
+	// mention pair trees as written for coreference training and path enclosed trees as in temporal relations
+	private static final String[] TREES = {
+			"(TOP (S (NP (NN patient)) (VP (VBD denied) (NP (NN pain)))))",
+			"(TOP (S (NP (PRP He)) (VP (VBD denied) (NP (JJ chest) (NN pain)))))",
+			"(TOP (S (NP (DT The) (NN patient)) (VP (VBZ is) (ADJP (JJ stable))) (. .)))",
+			"(TOP (NP (NP (NN pain)) (PP (IN in) (NP (DT the) (NN chest)))))",
+			"(TOP (S (NP (PRP it)) (VP (VBZ is) (NP (NN pain)))))",
+			"(BOP (ANTECEDENT (NN pain)) (ANAPHOR (PRP it)))",
+			"(TOP (EVENT (VBD denied)) (TIMEX (NN today)))",
+			"(TOP (S (EVENT (VBD started)) (PP (IN on) (TIMEX (NNP Monday)))))",
+			"(TOP (S (VP (VB X))))",
+			"(TOP (S (VP (VB X) (NP (NN Y)))))",
+			"(NN x)",
+	};
+
+	private static final String[] LABELS = { "S", "NP", "VP", "PP", "ADJP", "SBAR", "NN", "VB", "DT", "IN", "JJ" };
+	private static final String[] WORDS = { "pain", "denied", "the", "in", "chest", "it", "is" };
+
+	@Test
+	public void testSameValues(){
+		List<Parse> trees = new ArrayList<>();
+		for(String tree : TREES){
+			trees.add(Parse.parseParse(tree));
+		}
+		Random random = new Random(1019);
+		for(int i = 0; i < 60; i++){
+			trees.add(Parse.parseParse(randomTree(random, 4)));
+		}
+		assertSameValues(trees, false);
+		assertSameValues(trees, true);
+	}
+
+	@Test
+	public void testBenchmarkTrees(){
+		List<Parse> trees = TreeKernelBenchmark.createRandomTrees(50, new Random(7));
+		assertSameValues(trees, false);
+	}
+
+	@Test
+	public void testCollectedTreesAreReleased(){
+		FastTreeKernel fastKernel = new FastTreeKernel(true);
+		Parse kept = Parse.parseParse(TREES[0]);
+		for(int i = 0; i < 200; i++){
+			fastKernel.eval(kept, Parse.parseParse(TREES[i % TREES.length]));
+		}
+		// the temporary trees are unreachable, so their compiled trees go once the collector clears their keys
+		for(int i = 0; i < 100 && fastKernel.getCacheSize() > 2; i++){
+			System.gc();
+			fastKernel.eval(kept, kept);
+		}
+		assertTrue(fastKernel.getCacheSize() < 200);
+		assertEquals(1.0, fastKernel.eval(kept, Parse.parseParse(TREES[0])), 1e-12);
+	}
+
+	private static void assertSameValues(List<Parse> trees, boolean normalize){
+		TreeKernel kernel = new TreeKernel(normalize);
+		FastTreeKernel fastKernel = new FastTreeKernel(normalize);
+		double total = 0;
+		for(Parse tree1 : trees){
+			for(Parse tree2 : trees){
+				double expected = kernel.eval(tree1, tree2);
+				assertEquals(tree1 + " " + tree2, expected, fastKernel.eval(tree1, tree2), 0);
+				total += expected;
+			}
+		}
+		assertTrue(total > 0);
+		assertEquals(trees.size(), fastKernel.getCacheSize());
+	}
+
+	private static String randomTree(Random random, int depth){
+		if(depth == 0 || random.nextInt(4) == 0){
+			return "(" + LABELS[6 + random.nextInt(LABELS.length - 6)] + " " + WORDS[random.nextInt(WORDS.length)] + ")";
+		}
+		StringBuilder sb = new StringBuilder("(").append(LABELS[random.nextInt(6)]);
+		int children = 1 + random.nextInt(3);
+		for(int i = 0; i < children; i++){
+			sb.append(' ').append(randomTree(random, depth - 1));
+		}
+		return sb.append(')').toString();
+	}
+}
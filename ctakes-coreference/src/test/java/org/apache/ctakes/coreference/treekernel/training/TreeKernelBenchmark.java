@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.coreference.treekernel.training;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import org.apache.ctakes.constituency.parser.treekernel.FastTreeKernel;
+import org.apache.ctakes.constituency.parser.treekernel.TreeKernel;
+import org.apache.ctakes.utils.kernel.Kernel;
+
+import opennlp.tools.parser.Parse;
+
+/**
+ * Times the gram matrix of a set of trees with {@link TreeKernel} and {@link FastTreeKernel}
+ * and reports the largest difference between them.
+ * <p>
+ * Arguments are tree files, either coreference training files as read by {@link TreeKernelTrainer}
+ * ("label: tree" per line) or tree kernel training data as written for temporal relations
+ * ("label |BT| tree |ET| ..." per line, one or more trees).
+ * With no arguments a set of random parse trees is used.
+ * </p>
+ */
+public class TreeKernelBenchmark {
+
+	private static final String[] PHRASES = { "S", "NP", "VP", "PP", "ADJP", "SBAR", "ADVP" };
+	private static final String[] TAGS = { "NN", "NNS", "VBD", "VBZ", "DT", "IN", "JJ", "PRP", "RB", "CD" };
+	private static final String[] WORDS = { "patient", "pain", "denied", "is", "the", "in", "chest", "he", "no", "2" };
+
+	public static void main(String[] args) throws FileNotFoundException {
+		if(args.length == 0){
+			benchmark("random", createRandomTrees(500, new Random(1019)));
+			return;
+		}
+		for(String path : args){
+			benchmark(path, readTrees(new File(path)));
+		}
+	}
+
+	public static void benchmark(String name, List<Parse> trees){
+		for(boolean normalize : new boolean[]{ false, true }){
+			TreeKernel kernel = new TreeKernel(normalize);
+			FastTreeKernel fastKernel = new FastTreeKernel(normalize);
+			double[] expected = new double[trees.size() * (trees.size() + 1) / 2];
+			double[] actual = new double[expected.length];
+			long millis = fillMatrix(kernel, trees, expected);
+			long fastMillis = fillMatrix(fastKernel, trees, actual);
+			double maxDiff = 0;
+			for(int i = 0; i < expected.length; i++){
+				maxDiff = Math.max(maxDiff, Math.abs(expected[i] - actual[i]));
+			}
+			System.out.println(String.format("%s: %d trees normalize %b  TreeKernel %d ms  FastTreeKernel %d ms  (%.1fx)  max difference %g",
+					name, trees.size(), normalize, millis, fastMillis, (double)millis / Math.max(1, fastMillis), maxDiff));
+		}
+	}
+
+	private static long fillMatrix(Kernel kernel, List<Parse> trees, double[] matrix){
+		long start = System.currentTimeMillis();
+		int cell = 0;
+		for(int i = 0; i < trees.size(); i++){
+			for(int j = 0; j <= i; j++){
+				matrix[cell++] = kernel.eval(trees.get(i), trees.get(j));
+			}
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	public static List<Parse> readTrees(File file) throws FileNotFoundException {
+		List<Parse> trees = new ArrayList<Parse>();
+		Scanner scanner = new Scanner(file);
+		try{
+			while(scanner.hasNextLine()){
+				String line = scanner.nextLine();
+				if(line.contains("|BT|")){
+					String[] parts = line.split("\\|BT\\|");
+					for(int i = 1; i < parts.length; i++){
+						String treeStr = parts[i].split("\\|ET\\|", 2)[0].trim();
+						if(treeStr.startsWith("(")){
+							trees.add(Parse.parseParse(treeStr));
+						}
+					}
+				}else if(line.contains(":")){
+					trees.add(Parse.parseParse(line.split(":", 2)[1].trim()));
+				}
+			}
+		}finally{
+			scanner.close();
+		}
+		return trees;
+	}
+
+	public static List<Parse> createRandomTrees(int count, Random random){
+		List<Parse> trees = new ArrayList<Parse>(count);
+		for(int i = 0; i < count; i++){
+			trees.add(Parse.parseParse("(TOP " + randomTree(random, 2 + random.nextInt(5)) + ")"));
+		}
+		return trees;
+	}
+
+	private static String randomTree(Random random, int depth){
+		if(depth == 0 || random.nextInt(5) == 0){
+			return "(" + TAGS[random.nextInt(TAGS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + ")";
+		}
+		StringBuilder sb = new StringBuilder("(").append(PHRASES[random.nextInt(PHRASES.length)]);
+		int children = 1 + random.nextInt(3);
+		for(int i = 0; i < children; i++){
+			sb.append(' ').append(randomTree(random, depth - 1));
+		}
+		return sb.append(')').toString();
+	}
+}
@@ -27,6 +27,7 @@ import com.googlecode.clearnlp.reader.AbstractReader;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.dependency.parser.ae.shared.DependencySharedModel;
 import org.apache.ctakes.dependency.parser.ae.shared.LemmatizerSharedModel;
+import org.apache.ctakes.dependency.parser.util.ClearComponentUtility;
 import org.apache.ctakes.dependency.parser.util.ClearDependencyUtility;
 import org.apache.ctakes.dependency.parser.util.DependencyUtility;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
@@ -49,7 +50,14 @@ import org.apache.uima.resource.ExternalResourceDescription;
 import org.apache.uima.resource.ResourceInitializationException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * <br>
@@ -63,6 +71,10 @@ import java.util.List;
  * that the output of the CLEAR parser is different than that of the Malt parser and so these two
  * parsers may not be interchangeable (without some effort) for most use cases.
  * <p>
+ * Each thread parses with its own decoder over the shared model, so documents can be processed concurrently.
+ * With {@link #PARAM_SENTENCE_THREADS} above 1 the sentences of a document are also parsed in parallel on
+ * a fork-join pool.  Dependency nodes are always written to the cas on the calling thread, in sentence order.
+ * <p>
  *
  *
  */
@@ -83,6 +95,9 @@ import java.util.List;
 )
 public class ClearNLPDependencyParserAE extends JCasAnnotator_ImplBase {
 
+   /**
+    * Guards a parser that decodes for more than one thread, when no other parser could be loaded.
+    */
    public final static Object LOCK = new Object();
    
    final String language = AbstractReader.LANG_EN;
@@ -127,6 +142,15 @@ public class ClearNLPDependencyParserAE extends JCasAnnotator_ImplBase {
          description = "If true, use the default ClearNLP lemmatizer, otherwise use lemmas from the BaseToken normalizedToken field" )
    private boolean useLemmatizer;
 
+   public static final String PARAM_SENTENCE_THREADS = "SentenceThreads";
+   @ConfigurationParameter(
+         name = PARAM_SENTENCE_THREADS,
+         mandatory = false,
+         defaultValue = "1",
+         description = "Number of threads used to parse the sentences of a document in parallel.  "
+               + "1 parses sentences on the calling thread." )
+   private int sentenceThreads;
+
    public static final String DEP_MODEL_KEY = "DepModel";
    @ExternalResource( key = DEP_MODEL_KEY, mandatory = false )
    private DependencySharedModel parserModel = null;
@@ -137,6 +161,8 @@ public class ClearNLPDependencyParserAE extends JCasAnnotator_ImplBase {
 
    protected AbstractComponent parser = null;
    protected AbstractMPAnalyzer lemmatizer = null;
+   private ThreadLocal<AbstractComponent> threadParser;
+   private ForkJoinPool sentencePool;
 
    @Override
    public void initialize( UimaContext context ) throws ResourceInitializationException {
@@ -159,21 +185,35 @@ public class ClearNLPDependencyParserAE extends JCasAnnotator_ImplBase {
             this.lemmatizer = lemmatizerModel.getLemmatizerModel();
          }
       }
+      final Callable<AbstractComponent> parserLoader;
       if ( this.parserModel == null ) {
 //      this.parser = DependencySharedModel.getDefaultModel();
          logDeprecation( PARAM_PARSER_MODEL_FILE_NAME, DEP_MODEL_KEY );
          this.parser = DependencySharedModel.getModel( parserModelPath, DependencySharedModel.DEFAULT_LANGUAGE );
+         parserLoader = () -> DependencySharedModel.getModel( parserModelPath, DependencySharedModel.DEFAULT_LANGUAGE );
       } else {
          this.parser = parserModel.getParser();
+         parserLoader = parserModel::createParser;
+      }
+      final AbstractComponent sharedParser = this.parser;
+      threadParser = ThreadLocal.withInitial( () -> ClearComponentUtility.createDecoder( sharedParser, parserLoader ) );
+      if ( sentenceThreads > 1 ) {
+         LOGGER.info( "Parsing sentences with " + sentenceThreads + " threads" );
+         sentencePool = new ForkJoinPool( sentenceThreads );
       }
    }
 
    @Override
-   public synchronized void process( JCas jCas ) throws AnalysisEngineProcessException {
+   public void process( JCas jCas ) throws AnalysisEngineProcessException {
       LOGGER.info( "Dependency parser starting with thread:" + Thread.currentThread().getName() );
+      final Map<Sentence, Collection<BaseToken>> sentenceTokens
+            = JCasUtil.indexCovered( jCas, Sentence.class, BaseToken.class );
+      final List<Sentence> sentences = new ArrayList<>();
+      final List<List<BaseToken>> sentencePrintables = new ArrayList<>();
+      final List<DEPTree> trees = new ArrayList<>();
       for ( Sentence sentence : JCasUtil.select( jCas, Sentence.class ) ) {
          List<BaseToken> printableTokens = new ArrayList<>();
-         for ( BaseToken token : JCasUtil.selectCovered( jCas, BaseToken.class, sentence ) ) {
+         for ( BaseToken token : sentenceTokens.getOrDefault( sentence, Collections.emptyList() ) ) {
             if ( token instanceof NewlineToken ) continue;
             printableTokens.add( token );
          }
@@ -191,17 +231,72 @@ public class ClearNLPDependencyParserAE extends JCasAnnotator_ImplBase {
             DEPNode node = new DEPNode( i + 1, token.getCoveredText(), lemma, token.getPartOfSpeech(), new DEPFeat() );
             tree.add( node );
          }
+         sentences.add( sentence );
+         sentencePrintables.add( printableTokens );
+         trees.add( tree );
+      }
 
-         // Run parser and convert output back to CAS friendly data types
-         synchronized(LOCK){
-           parser.process( tree );
-           ArrayList<ConllDependencyNode> nodes = ClearDependencyUtility.convert( jCas, tree, sentence, printableTokens );
-           DependencyUtility.addToIndexes( jCas, nodes );
-         }
+      // Run parser
+      parseTrees( trees );
+
+      // Convert output back to CAS friendly data types, in sentence order
+      for ( int i = 0; i < trees.size(); i++ ) {
+         ArrayList<ConllDependencyNode> nodes
+               = ClearDependencyUtility.convert( jCas, trees.get( i ), sentences.get( i ), sentencePrintables.get( i ) );
+         DependencyUtility.addToIndexes( jCas, nodes );
       }
       LOGGER.info( "Dependency parser ending with thread:" + Thread.currentThread().getName() );
    }
 
+   /**
+    * Parses trees on the calling thread, or on the sentence pool if there is one.
+    *
+    * @param trees trees to parse in place
+    * @throws AnalysisEngineProcessException if parsing was interrupted or failed on a pool thread
+    */
+   private void parseTrees( final List<DEPTree> trees ) throws AnalysisEngineProcessException {
+      if ( sentencePool == null || trees.size() < 2 ) {
+         final AbstractComponent decoder = threadParser.get();
+         for ( DEPTree tree : trees ) {
+            parseTree( decoder, tree );
+         }
+         return;
+      }
+      final List<Callable<DEPTree>> tasks = new ArrayList<>( trees.size() );
+      for ( DEPTree tree : trees ) {
+         tasks.add( () -> {
+            parseTree( threadParser.get(), tree );
+            return tree;
+         } );
+      }
+      try {
+         for ( Future<DEPTree> future : sentencePool.invokeAll( tasks ) ) {
+            future.get();
+         }
+      } catch ( InterruptedException | ExecutionException e ) {
+         throw new AnalysisEngineProcessException( e );
+      }
+   }
+
+   private void parseTree( final AbstractComponent decoder, final DEPTree tree ) {
+      if ( decoder == parser ) {
+         // The loaded parser may be shared with threads that could not load their own
+         synchronized ( LOCK ) {
+            decoder.process( tree );
+         }
+      } else {
+         decoder.process( tree );
+      }
+   }
+
+   @Override
+   public void destroy() {
+      if ( sentencePool != null ) {
+         sentencePool.shutdown();
+      }
+      super.destroy();
+   }
+
    static private void logDeprecation( final String parameterName, final String resourceName ) {
       LOGGER.warn( "Use of configuration parameter " + parameterName
             + " may be deprecated in the future in favor of external resource " + resourceName );
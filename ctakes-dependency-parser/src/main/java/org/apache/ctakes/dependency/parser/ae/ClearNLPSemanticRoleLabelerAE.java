@@ -26,6 +26,7 @@ import org.apache.ctakes.core.util.ListFactory;
 import org.apache.ctakes.dependency.parser.ae.shared.SRLSharedParserModel;
 import org.apache.ctakes.dependency.parser.ae.shared.SRLSharedPredictionModel;
 import org.apache.ctakes.dependency.parser.ae.shared.SRLSharedRoleModel;
+import org.apache.ctakes.dependency.parser.util.ClearComponentUtility;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
 import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
@@ -38,6 +39,7 @@ import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.ExternalResource;
 import org.apache.uima.fit.descriptor.TypeCapability;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
@@ -54,6 +56,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  *This class provides a UIMA wrapper for the ClearNLP Semantic Role Labeler, which is
@@ -67,6 +73,10 @@ import java.util.Map;
  * Please see /ClearNLP-wrapper/resources/dependency/clear/README for
  * important information pertaining to the models provided for this parser.
  * <p>
+ * Each thread labels with its own decoders over the shared models, so documents can be processed concurrently.
+ * With {@link #PARAM_SENTENCE_THREADS} above 1 the sentences of a document are also labeled in parallel on
+ * a fork-join pool.  Semantic roles are always written to the cas on the calling thread, in sentence order.
+ * <p>
  *
  */
 @TypeCapability(
@@ -111,39 +121,69 @@ public class ClearNLPSemanticRoleLabelerAE extends JCasAnnotator_ImplBase {
        SRLSharedRoleModel.class, 
        SRLSharedRoleModel.DEFAULT_ROLE_MODEL_FILE_NAME);
    
+   public static final String PARAM_SENTENCE_THREADS = "SentenceThreads";
+   @ConfigurationParameter(
+         name = PARAM_SENTENCE_THREADS,
+         mandatory = false,
+         defaultValue = "1",
+         description = "Number of threads used to label the sentences of a document in parallel.  "
+               + "1 labels sentences on the calling thread." )
+   private int sentenceThreads;
+
    protected AbstractComponent parser;
    protected AbstractComponent identifier;
    protected AbstractComponent classifier;
 
+   private ThreadLocal<AbstractComponent[]> threadComponents;
+   private ForkJoinPool sentencePool;
+
 
    @Override
    public void initialize( UimaContext context ) throws ResourceInitializationException {
       super.initialize( context );
 
       logger.info("Initializing ClearNLP semantic role labeler");
+      final List<Callable<AbstractComponent>> loaders = new ArrayList<>( 3 );
       try {
         if(this.predModel == null){
           this.identifier = SRLSharedPredictionModel.getDefaultModel();
+          loaders.add( SRLSharedPredictionModel::getDefaultModel );
         }else{
           this.identifier = predModel.getComponent();
+          loaders.add( predModel::createComponent );
         }
         if(this.roleModel == null){
           this.classifier = SRLSharedRoleModel.getDefaultModel();
+          loaders.add( SRLSharedRoleModel::getDefaultModel );
         }else{
           this.classifier = roleModel.getComponent();
+          loaders.add( roleModel::createComponent );
         }
         if(this.parserModel == null){
           this.parser = SRLSharedParserModel.getDefaultModel();
+          loaders.add( SRLSharedParserModel::getDefaultModel );
         }else{
           this.parser = parserModel.getComponent();
+          loaders.add( parserModel::createComponent );
         }
       } catch ( Exception e ) {
          throw new ResourceInitializationException( e );
       }
+      final AbstractComponent[] sharedComponents = { identifier, classifier, parser };
+      threadComponents = ThreadLocal.withInitial( () -> new AbstractComponent[] {
+            ClearComponentUtility.createDecoder( sharedComponents[ 0 ], loaders.get( 0 ) ),
+            ClearComponentUtility.createDecoder( sharedComponents[ 1 ], loaders.get( 1 ) ),
+            ClearComponentUtility.createDecoder( sharedComponents[ 2 ], loaders.get( 2 ) ) } );
+      if ( sentenceThreads > 1 ) {
+         logger.info( "Labeling sentences with " + sentenceThreads + " threads" );
+         sentencePool = new ForkJoinPool( sentenceThreads );
+      }
    }
 
    @Override
    public void process( JCas jCas ) throws AnalysisEngineProcessException {
+      final List<List<BaseToken>> sentencePrintables = new ArrayList<>();
+      final List<DEPTree> trees = new ArrayList<>();
       for ( Sentence sentence : JCasUtil.select( jCas, Sentence.class ) ) {
          List<BaseToken> printableTokens = new ArrayList<>();
          for ( BaseToken token : JCasUtil.selectCovered( jCas, BaseToken.class, sentence ) ) {
@@ -219,19 +259,70 @@ public class ClearNLPSemanticRoleLabelerAE extends JCasAnnotator_ImplBase {
          }
 
          tree.initSHeads();
+         sentencePrintables.add( printableTokens );
+         trees.add( tree );
+      }
 
-         // Run the SRL
-         identifier.process( tree );
-         classifier.process( tree );
-         parser.process( tree );
-
+      // Run the SRL
+      labelTrees( trees );
 
-         // Convert ClearNLP SRL output to CAS types
-         extractSRLInfo( jCas, printableTokens, tree );
+      // Convert ClearNLP SRL output to CAS types, in sentence order
+      for ( int i = 0; i < trees.size(); i++ ) {
+         extractSRLInfo( jCas, sentencePrintables.get( i ), trees.get( i ) );
+      }
+   }
 
+   /**
+    * Labels trees on the calling thread, or on the sentence pool if there is one.
+    *
+    * @param trees trees to label in place
+    * @throws AnalysisEngineProcessException if labeling was interrupted or failed on a pool thread
+    */
+   private void labelTrees( final List<DEPTree> trees ) throws AnalysisEngineProcessException {
+      if ( sentencePool == null || trees.size() < 2 ) {
+         final AbstractComponent[] components = threadComponents.get();
+         for ( DEPTree tree : trees ) {
+            labelTree( components, tree );
+         }
+         return;
+      }
+      final List<Callable<DEPTree>> tasks = new ArrayList<>( trees.size() );
+      for ( DEPTree tree : trees ) {
+         tasks.add( () -> {
+            labelTree( threadComponents.get(), tree );
+            return tree;
+         } );
+      }
+      try {
+         for ( Future<DEPTree> future : sentencePool.invokeAll( tasks ) ) {
+            future.get();
+         }
+      } catch ( InterruptedException | ExecutionException e ) {
+         throw new AnalysisEngineProcessException( e );
+      }
+   }
 
+   private void labelTree( final AbstractComponent[] components, final DEPTree tree ) {
+      if ( components[ 0 ] == identifier || components[ 1 ] == classifier || components[ 2 ] == parser ) {
+         // The loaded components may be shared with threads that could not load their own
+         synchronized ( identifier ) {
+            components[ 0 ].process( tree );
+            components[ 1 ].process( tree );
+            components[ 2 ].process( tree );
+         }
+      } else {
+         components[ 0 ].process( tree );
+         components[ 1 ].process( tree );
+         components[ 2 ].process( tree );
       }
+   }
 
+   @Override
+   public void destroy() {
+      if ( sentencePool != null ) {
+         sentencePool.shutdown();
+      }
+      super.destroy();
    }
 
    /**
@@ -17,6 +17,7 @@ import java.net.URI;
 public class DependencySharedModel implements SharedResourceObject {
 
    private AbstractComponent parser;
+   private String modelPath;
    public static final String DEFAULT_MODEL_FILE_NAME = "org/apache/ctakes/dependency/parser/models/dependency/mayo-en-dep-1.3.0.jar";
    static public final String DEFAULT_LANGUAGE = AbstractReader.LANG_EN;
    // If this is final then why don't we just use a default such as above?  Future mutability?
@@ -35,17 +36,22 @@ public class DependencySharedModel implements SharedResourceObject {
 //    }catch(IOException e){
 //      throw new ResourceInitializationException(e);
 //    }
-      if ( uri != null ) {
-         this.parser = getModel( uri.getPath(), this.language );
-      } else {
-         this.parser = getDefaultModel();
-      }
+      modelPath = uri != null ? uri.getPath() : DEFAULT_MODEL_FILE_NAME;
+      this.parser = getModel( modelPath, this.language );
    }
 
    public AbstractComponent getParser() {
       return parser;
    }
 
+   /**
+    * @return a new parser loaded from the same model as {@link #getParser()}
+    * @throws ResourceInitializationException if the model cannot be read
+    */
+   public AbstractComponent createParser() throws ResourceInitializationException {
+      return getModel( modelPath, this.language );
+   }
+
    static public AbstractComponent getModel( final String modelPath, final String language ) throws ResourceInitializationException {
       try {
          final InputStream modelStream = FileLocator.getAsStream( modelPath );
@@ -16,16 +16,26 @@ public abstract class SRLSharedModel implements SharedResourceObject {
 
   protected AbstractComponent component;
   protected String language = AbstractReader.LANG_EN;
+  private String modelUri;
   
   @Override
   public void load(DataResource aData) throws ResourceInitializationException {
     URI modelUri = aData.getUri();
-    this.component = getUriComponent(modelUri.toString(), this.language, this.getMode() );
+    this.modelUri = modelUri.toString();
+    this.component = getUriComponent(this.modelUri, this.language, this.getMode() );
   }
 
   public AbstractComponent getComponent(){
     return this.component;
   }
+
+  /**
+   * @return a new component loaded from the same model as {@link #getComponent()}
+   * @throws ResourceInitializationException if the model cannot be read
+   */
+  public AbstractComponent createComponent() throws ResourceInitializationException{
+    return getUriComponent(this.modelUri, this.language, this.getMode() );
+  }
   
   public static AbstractComponent getUriComponent(String uri, String lang, String mode) throws ResourceInitializationException{
     try {
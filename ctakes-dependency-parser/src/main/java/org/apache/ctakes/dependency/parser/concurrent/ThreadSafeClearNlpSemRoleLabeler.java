@@ -15,7 +15,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
- * ClearNLPSemanticRoleLabelerAE is almost thread safe ... the shared models are not immutable.
+ * ClearNLPSemanticRoleLabelerAE decodes with per-thread state over the shared models, so documents are not serialized.
  * <p>
  * {@inheritDoc}
  *
@@ -96,6 +96,14 @@ final public class ThreadSafeClearNlpSemRoleLabeler extends ClearNLPSemanticRole
          return _delegate;
       }
 
+      /**
+       * The delegate is safe to call from multiple threads, so only initialization is locked.
+       */
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         _delegate.process( jCas );
+      }
+
       @Override
       public boolean isInitialized() {
          return _initialized;
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dependency.parser.util;
+
+import com.googlecode.clearnlp.component.AbstractComponent;
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+
+/**
+ * ClearNLP statistical components (dependency parser, predicate identifier, roleset classifier, role labeler)
+ * keep the tree being decoded and its transition state in instance fields, so a single component cannot
+ * process two trees at once.
+ * <p>
+ * This utility hands each thread a component of its own.  The first thread to ask uses the loaded component,
+ * every other thread gets a component loaded again through the ClearNLP engine factory.
+ * Each extra component holds its own copy of the model, so memory grows with the number of decoding threads.
+ * </p>
+ */
+final public class ClearComponentUtility {
+
+   static private final Logger LOGGER = Logger.getLogger( "ClearComponentUtility" );
+
+   /**
+    * Loaded components that already decode for a thread.
+    */
+   static private final Map<AbstractComponent, Boolean> CLAIMED_COMPONENTS = new WeakHashMap<>();
+
+   private ClearComponentUtility() {
+   }
+
+   /**
+    * @param component a loaded ClearNLP component
+    * @param loader    loads another component from the same model, e.g. through {@code EngineGetter.getComponent}
+    * @return the given component if no other thread decodes with it, otherwise a newly loaded component,
+    * or the given component itself if loading failed.  Whenever the given component is returned the caller must not share it
+    * without synchronization.
+    */
+   static public AbstractComponent createDecoder( final AbstractComponent component,
+                                                  final Callable<AbstractComponent> loader ) {
+      synchronized ( CLAIMED_COMPONENTS ) {
+         if ( CLAIMED_COMPONENTS.put( component, Boolean.TRUE ) == null ) {
+            return component;
+         }
+      }
+      try {
+         final AbstractComponent decoder = loader.call();
+         if ( decoder != null ) {
+            return decoder;
+         }
+         LOGGER.warn( "Could not load a decoder for " + component.getClass().getName() );
+      } catch ( Exception e ) {
+         LOGGER.warn( "Could not load a decoder for " + component.getClass().getName() + " " + e.getMessage() );
+      }
+      return component;
+   }
+
+}
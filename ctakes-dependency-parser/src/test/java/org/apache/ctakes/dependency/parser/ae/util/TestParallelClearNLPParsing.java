@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dependency.parser.ae.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ctakes.dependency.parser.ae.ClearNLPDependencyParserAE;
+import org.apache.ctakes.dependency.parser.ae.ClearNLPSemanticRoleLabelerAE;
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.dependency.parser.ae.shared.DependencySharedModel;
+import org.apache.ctakes.dependency.parser.ae.shared.SRLSharedPredictionModel;
+import org.apache.ctakes.dependency.parser.util.ClearComponentUtility;
+import org.apache.ctakes.dependency.parser.util.DependencyUtility;
+import org.apache.ctakes.dependency.parser.util.SRLUtility;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import com.googlecode.clearnlp.component.AbstractComponent;
+import com.googlecode.clearnlp.dependency.DEPFeat;
+import com.googlecode.clearnlp.dependency.DEPLib;
+import com.googlecode.clearnlp.dependency.DEPNode;
+import com.googlecode.clearnlp.dependency.DEPTree;
+
+/**
+ * Checks that per-thread decoders and sentence-parallel parsing give the same output as a single shared parser.
+ */
+public class TestParallelClearNLPParsing {
+
+	@Test
+	public void testSentenceThreadsGiveSameOutput() throws Exception {
+		// The dependency and srl models are distributed separately
+		assumeTrue(FileLocator.getStreamQuiet(DependencySharedModel.DEFAULT_MODEL_FILE_NAME) != null);
+		String text = new String(Files.readAllBytes(new File(TestClearNLPAnalysisEngines.INPUT_FILE).toPath()),
+				StandardCharsets.UTF_8);
+		JCas sequential = parse(text, 1);
+		JCas parallel = parse(text, 4);
+		List<String> expected = dump(sequential);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, dump(parallel));
+	}
+
+	@Test
+	public void testDecoderMatchesSharedComponent() throws Exception {
+		// The dependency and srl models are distributed separately
+		assumeTrue(FileLocator.getStreamQuiet(DependencySharedModel.DEFAULT_MODEL_FILE_NAME) != null);
+		assumeTrue(FileLocator.getStreamQuiet(SRLSharedPredictionModel.DEFAULT_PRED_MODEL_FILE_NAME) != null);
+		String text = new String(Files.readAllBytes(new File(TestClearNLPAnalysisEngines.INPUT_FILE).toPath()),
+				StandardCharsets.UTF_8);
+		JCas jCas = JCasFactory.createJCas();
+		jCas.setDocumentText(text);
+		SimplePipeline.runPipeline(jCas,
+				WriteClearNLPDescriptors.getPlaintextAggregateBuilder().createAggregateDescription());
+		AbstractComponent shared = SRLSharedPredictionModel.getDefaultModel();
+		// the first thread decodes with the loaded component, any other gets a component of its own
+		assertSame(shared, ClearComponentUtility.createDecoder(shared, SRLSharedPredictionModel::getDefaultModel));
+		AbstractComponent decoder = ClearComponentUtility.createDecoder(shared, SRLSharedPredictionModel::getDefaultModel);
+		assertNotSame(shared, decoder);
+		int compared = 0;
+		for (Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
+			DEPTree sharedTree = createTree(jCas, sentence);
+			DEPTree decoderTree = createTree(jCas, sentence);
+			if (sharedTree.size() < 2) {
+				continue;
+			}
+			shared.process(sharedTree);
+			decoder.process(decoderTree);
+			assertEquals(predicates(sharedTree), predicates(decoderTree));
+			compared++;
+		}
+		assertFalse(compared == 0);
+	}
+
+	private static JCas parse(String text, int threads) throws Exception {
+		JCas jCas = JCasFactory.createJCas();
+		jCas.setDocumentText(text);
+		AnalysisEngineDescription preprocessing = WriteClearNLPDescriptors.getPlaintextAggregateBuilder()
+				.createAggregateDescription();
+		AnalysisEngineDescription parser = AnalysisEngineFactory.createEngineDescription(
+				ClearNLPDependencyParserAE.class,
+				ClearNLPDependencyParserAE.PARAM_SENTENCE_THREADS, threads);
+		AnalysisEngineDescription labeler = AnalysisEngineFactory.createEngineDescription(
+				ClearNLPSemanticRoleLabelerAE.class,
+				ClearNLPSemanticRoleLabelerAE.PARAM_SENTENCE_THREADS, threads);
+		SimplePipeline.runPipeline(jCas, preprocessing, parser, labeler);
+		return jCas;
+	}
+
+	private static List<String> dump(JCas jCas) {
+		List<String> dumps = new ArrayList<>();
+		for (Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
+			dumps.add(DependencyUtility.dumpDependencyGraph(sentence) + SRLUtility.dumpSRLOutput(sentence));
+		}
+		return dumps;
+	}
+
+	private static List<String> predicates(DEPTree tree) {
+		List<String> rolesets = new ArrayList<>();
+		for (int i = 1; i < tree.size(); i++) {
+			rolesets.add(tree.get(i).getFeat(DEPLib.FEAT_PB));
+		}
+		return rolesets;
+	}
+
+	private static DEPTree createTree(JCas jCas, Sentence sentence) {
+		DEPTree tree = new DEPTree();
+		int id = 1;
+		for (BaseToken token : JCasUtil.selectCovered(jCas, BaseToken.class, sentence)) {
+			if (token instanceof NewlineToken) {
+				continue;
+			}
+			String word = token.getCoveredText();
+			tree.add(new DEPNode(id++, word, word.toLowerCase(), token.getPartOfSpeech(), new DEPFeat()));
+		}
+		// a simple chain is enough of a dependency structure to compare decoders
+		for (int i = 1; i < tree.size(); i++) {
+			tree.get(i).setHead(tree.get(i - 1), "dep");
+		}
+		tree.initSHeads();
+		return tree;
+	}
+
+}
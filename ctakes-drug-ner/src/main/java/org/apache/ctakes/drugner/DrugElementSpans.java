@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner;
+
+import org.apache.ctakes.drugner.type.DecimalStrengthAnnotation;
+import org.apache.ctakes.drugner.type.DosagesAnnotation;
+import org.apache.ctakes.drugner.type.DrugChangeStatusAnnotation;
+import org.apache.ctakes.drugner.type.DurationAnnotation;
+import org.apache.ctakes.drugner.type.FormAnnotation;
+import org.apache.ctakes.drugner.type.FractionStrengthAnnotation;
+import org.apache.ctakes.drugner.type.FrequencyAnnotation;
+import org.apache.ctakes.drugner.type.FrequencyUnitAnnotation;
+import org.apache.ctakes.drugner.type.RangeStrengthAnnotation;
+import org.apache.ctakes.drugner.type.RouteAnnotation;
+import org.apache.ctakes.drugner.type.StrengthAnnotation;
+import org.apache.ctakes.drugner.type.StrengthUnitAnnotation;
+import org.apache.ctakes.drugner.type.SuffixStrengthAnnotation;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Drug attribute elements found by the drug ner fsms in one document, e.g. strengths, frequencies and routes,
+ * held in primitive arrays of offsets and values instead of as annotations in the cas indexes.
+ * <p>
+ * Elements are ordered and queried as in the cas annotation index, including the position of elements with equal spans,
+ * so code that reads elements from here sees what it would see in the cas.
+ * An element annotation is created, but never indexed, only when an element is first read as an annotation.
+ * </p>
+ * An instance should be used by one thread at a time.
+ */
+final public class DrugElementSpans {
+
+   static private final int[] ELEMENT_TYPES = {
+         FrequencyAnnotation.type,
+         DurationAnnotation.type,
+         RouteAnnotation.type,
+         SuffixStrengthAnnotation.type,
+         FractionStrengthAnnotation.type,
+         RangeStrengthAnnotation.type,
+         DecimalStrengthAnnotation.type,
+         DrugChangeStatusAnnotation.type,
+         DosagesAnnotation.type,
+         StrengthAnnotation.type,
+         StrengthUnitAnnotation.type,
+         FrequencyUnitAnnotation.type,
+         FormAnnotation.type };
+   static private final int NO_VALUE = -1;
+
+   // indexed by jcas type, null for types that are not elements
+   private final Spans[] _spans;
+   private final List<String> _strings = new ArrayList<>();
+   private final Map<String, Integer> _stringIds = new HashMap<>();
+   private JCas _jcas;
+
+   public DrugElementSpans() {
+      int maxType = 0;
+      for ( int type : ELEMENT_TYPES ) {
+         maxType = Math.max( maxType, type );
+      }
+      _spans = new Spans[ maxType + 1 ];
+      for ( int type : ELEMENT_TYPES ) {
+         _spans[ type ] = new Spans( type );
+      }
+   }
+
+   /**
+    * @param type jcas type
+    * @return true if elements of the type are held here
+    */
+   static public boolean isElementType( final int type ) {
+      for ( int elementType : ELEMENT_TYPES ) {
+         if ( elementType == type ) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Removes all elements.
+    *
+    * @param jcas document in which element annotations are created, or null after the document is processed
+    */
+   public void reset( final JCas jcas ) {
+      _jcas = jcas;
+      for ( Spans spans : _spans ) {
+         if ( spans != null ) {
+            spans.clear();
+         }
+      }
+      _strings.clear();
+      _stringIds.clear();
+   }
+
+   /**
+    * @param type  element type
+    * @param begin begin offset
+    * @param end   end offset
+    */
+   public void add( final int type, final int begin, final int end ) {
+      getSpans( type ).add( begin, end, NO_VALUE );
+   }
+
+   /**
+    * @param type  element type
+    * @param begin begin offset
+    * @param end   end offset
+    * @param value change status of a {@link DrugChangeStatusAnnotation} or intake method of a {@link RouteAnnotation}
+    */
+   public void add( final int type, final int begin, final int end, final String value ) {
+      int id = NO_VALUE;
+      if ( value != null ) {
+         id = _stringIds.computeIfAbsent( value, v -> {
+            _strings.add( v );
+            return _strings.size() - 1;
+         } );
+      }
+      getSpans( type ).add( begin, end, id );
+   }
+
+   /**
+    * @param type  element type
+    * @param begin begin offset
+    * @param end   end offset
+    * @param value period of a {@link FrequencyUnitAnnotation}
+    */
+   public void add( final int type, final int begin, final int end, final float value ) {
+      getSpans( type ).add( begin, end, Float.floatToIntBits( value ) );
+   }
+
+   /**
+    * Removes an element, as if its annotation were removed from the cas indexes.
+    *
+    * @param annotation annotation read from here
+    */
+   public void remove( final Annotation annotation ) {
+      getSpans( annotation.getTypeIndexID() ).remove( annotation );
+   }
+
+   /**
+    * @param type element type
+    * @return number of elements of the type
+    */
+   public int size( final int type ) {
+      return getSpans( type )._orderSize;
+   }
+
+   /**
+    * @param type  element type
+    * @param begin begin offset of a span
+    * @param end   end offset of a span
+    * @return begin offset of the first element returned by {@link #iterator(int, int, int)}, or -1 if there is none
+    */
+   public int getFirstBegin( final int type, final int begin, final int end ) {
+      final Spans spans = getSpans( type );
+      final int position = spans.getFirstInSpan( begin, end );
+      return position < 0 ? -1 : spans._begins[ spans._order[ position ] ];
+   }
+
+   /**
+    * @param type element type
+    * @return elements of the type in annotation index order
+    */
+   public Iterator<Annotation> iterator( final int type ) {
+      final Spans spans = getSpans( type );
+      return new ElementIterator( spans, Arrays.copyOf( spans._order, spans._orderSize ) );
+   }
+
+   /**
+    * Elements within a span, as returned by {@link org.apache.ctakes.core.util.FSUtil#getAnnotationsIteratorInSpan}.
+    * Elements with exactly the span are not within it.
+    *
+    * @param type  element type
+    * @param begin begin offset of the span
+    * @param end   end offset of the span
+    * @return elements of the type within the span in annotation index order
+    */
+   public Iterator<Annotation> iterator( final int type, final int begin, final int end ) {
+      final Spans spans = getSpans( type );
+      final int[] ids = new int[ spans._orderSize ];
+      int count = 0;
+      for ( int position = spans.getFirstInSpan( begin, end ); position >= 0;
+            position = spans.getNextInSpan( position, begin, end ) ) {
+         ids[ count++ ] = spans._order[ position ];
+      }
+      return new ElementIterator( spans, Arrays.copyOf( ids, count ) );
+   }
+
+   private Spans getSpans( final int type ) {
+      if ( type < 0 || type >= _spans.length || _spans[ type ] == null ) {
+         throw new IllegalArgumentException( "Not a drug element type: " + type );
+      }
+      return _spans[ type ];
+   }
+
+   private Annotation createAnnotation( final Spans spans, final int id ) {
+      final Annotation annotation = (Annotation)_jcas.getCas().createAnnotation( _jcas.getCasType( spans._type ),
+            spans._begins[ id ], spans._ends[ id ] );
+      final int value = spans._values[ id ];
+      if ( value == NO_VALUE ) {
+         return annotation;
+      }
+      if ( spans._type == DrugChangeStatusAnnotation.type ) {
+         ((DrugChangeStatusAnnotation)annotation).setChangeStatus( _strings.get( value ) );
+      } else if ( spans._type == RouteAnnotation.type ) {
+         ((RouteAnnotation)annotation).setIntakeMethod( _strings.get( value ) );
+      } else if ( spans._type == FrequencyUnitAnnotation.type ) {
+         ((FrequencyUnitAnnotation)annotation).setPeriod( Float.intBitsToFloat( value ) );
+      }
+      return annotation;
+   }
+
+
+   /**
+    * Elements of one type.  Elements are numbered in the order that they are added,
+    * and the order array holds the numbers of elements that have not been removed in annotation index order.
+    */
+   private final class Spans {
+      private final int _type;
+      private int _size;
+      private int[] _begins = new int[ 16 ];
+      private int[] _ends = new int[ 16 ];
+      private int[] _values = new int[ 16 ];
+      private Annotation[] _annotations = new Annotation[ 16 ];
+      private int _orderSize;
+      private int[] _order = new int[ 16 ];
+
+      private Spans( final int type ) {
+         _type = type;
+      }
+
+      private void clear() {
+         Arrays.fill( _annotations, 0, _size, null );
+         _size = 0;
+         _orderSize = 0;
+      }
+
+      private void add( final int begin, final int end, final int value ) {
+         if ( _size == _begins.length ) {
+            final int capacity = _size * 2;
+            _begins = Arrays.copyOf( _begins, capacity );
+            _ends = Arrays.copyOf( _ends, capacity );
+            _values = Arrays.copyOf( _values, capacity );
+            _annotations = Arrays.copyOf( _annotations, capacity );
+            _order = Arrays.copyOf( _order, capacity );
+         }
+         final int id = _size++;
+         _begins[ id ] = begin;
+         _ends[ id ] = end;
+         _values[ id ] = value;
+         final int position = getInsertPosition( id );
+         System.arraycopy( _order, position, _order, position + 1, _orderSize - position );
+         _order[ position ] = id;
+         _orderSize++;
+      }
+
+      private void remove( final Annotation annotation ) {
+         for ( int position = 0; position < _orderSize; position++ ) {
+            if ( _annotations[ _order[ position ] ] == annotation ) {
+               System.arraycopy( _order, position + 1, _order, position, _orderSize - position - 1 );
+               _orderSize--;
+               return;
+            }
+         }
+      }
+
+      private Annotation getAnnotation( final int id ) {
+         if ( _annotations[ id ] == null ) {
+            _annotations[ id ] = createAnnotation( this, id );
+         }
+         return _annotations[ id ];
+      }
+
+      /**
+       * Annotation index order: by begin, then longest first.
+       */
+      private int compare( final int id1, final int id2 ) {
+         if ( _begins[ id1 ] != _begins[ id2 ] ) {
+            return _begins[ id1 ] < _begins[ id2 ] ? -1 : 1;
+         }
+         if ( _ends[ id1 ] != _ends[ id2 ] ) {
+            return _ends[ id1 ] > _ends[ id2 ] ? -1 : 1;
+         }
+         return 0;
+      }
+
+      /**
+       * The position at which a sorted cas index inserts an annotation.
+       * An annotation equal to others goes after whichever of them a binary search finds,
+       * which is not necessarily after all of them.
+       */
+      private int getInsertPosition( final int id ) {
+         if ( _orderSize == 0 || compare( _order[ _orderSize - 1 ], id ) < 0 ) {
+            return _orderSize;
+         }
+         int start = 0;
+         int end = _orderSize - 1;
+         while ( start <= end ) {
+            final int i = (start + end) >>> 1;
+            final int comparison = compare( id, _order[ i ] );
+            if ( comparison == 0 ) {
+               return i + 1;
+            }
+            if ( start == end ) {
+               return comparison < 0 ? i : i + 1;
+            }
+            if ( comparison < 0 ) {
+               end = i - 1;
+            } else {
+               start = i + 1;
+            }
+         }
+         return start;
+      }
+
+      /**
+       * @return position of the first element within the span, or -1
+       */
+      private int getFirstInSpan( final int begin, final int end ) {
+         int low = 0;
+         int high = _orderSize;
+         while ( low < high ) {
+            final int middle = (low + high) >>> 1;
+            if ( _begins[ _order[ middle ] ] < begin ) {
+               low = middle + 1;
+            } else {
+               high = middle;
+            }
+         }
+         return isInSpan( low, begin, end ) ? low : getNextInSpan( low, begin, end );
+      }
+
+      /**
+       * @return position of the next element after the given position within the span, or -1
+       */
+      private int getNextInSpan( final int position, final int begin, final int end ) {
+         for ( int next = position + 1; next < _orderSize && _begins[ _order[ next ] ] <= end; next++ ) {
+            if ( isInSpan( next, begin, end ) ) {
+               return next;
+            }
+         }
+         return -1;
+      }
+
+      private boolean isInSpan( final int position, final int begin, final int end ) {
+         if ( position >= _orderSize ) {
+            return false;
+         }
+         final int id = _order[ position ];
+         return _begins[ id ] <= end && _ends[ id ] <= end && (_begins[ id ] != begin || _ends[ id ] != end);
+      }
+   }
+
+
+   /**
+    * Iterates over a snapshot of elements, so elements may be added and removed during iteration.
+    */
+   static private final class ElementIterator implements Iterator<Annotation> {
+      private final Spans _spans;
+      private final int[] _ids;
+      private int _next;
+
+      private ElementIterator( final Spans spans, final int[] ids ) {
+         _spans = spans;
+         _ids = ids;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return _next < _ids.length;
+      }
+
+      @Override
+      public Annotation next() {
+         if ( !hasNext() ) {
+            throw new NoSuchElementException();
+         }
+         return _spans.getAnnotation( _ids[ _next++ ] );
+      }
+   }
+
+}
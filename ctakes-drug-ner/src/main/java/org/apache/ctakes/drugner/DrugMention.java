@@ -166,8 +166,21 @@ public class DrugMention implements DrugModel {
 	 */
 	private static final Pattern lookForPercent = Pattern.compile("[%]");
 
+	/**
+	 * Drug attribute elements, when they are not held in the cas
+	 */
+	private DrugElementSpans iv_elementSpans;
+
 	public DrugMention(JCas jcas, int beginPos, int endPos) {
-		Iterator drugStatusTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas, DrugChangeStatusAnnotation.type, beginPos, endPos);
+		this(jcas, null, beginPos, endPos);
+	}
+
+	/**
+	 * @param elementSpans drug attribute elements of the document, or null if they are held in the cas
+	 */
+	public DrugMention(JCas jcas, DrugElementSpans elementSpans, int beginPos, int endPos) {
+		iv_elementSpans = elementSpans;
+		Iterator drugStatusTokenItr = getElementsIteratorInSpan(jcas, DrugChangeStatusAnnotation.type, beginPos, endPos);
 		while (drugStatusTokenItr.hasNext()){
 			DrugChangeStatusAnnotation focusToken = (DrugChangeStatusAnnotation) drugStatusTokenItr.next();
 			String localStatus = null;
@@ -189,7 +202,7 @@ public class DrugMention implements DrugModel {
 			
 		}
 			
-		Iterator dateTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator dateTokenItr = getElementsIteratorInSpan(jcas,
 				DateAnnotation.type, beginPos, endPos);
 		while (dateTokenItr.hasNext()){
 			DateAnnotation focusToken = (DateAnnotation) dateTokenItr.next();
@@ -205,7 +218,7 @@ public class DrugMention implements DrugModel {
 			}
 		}
 			
-		Iterator doseTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator doseTokenItr = getElementsIteratorInSpan(jcas,
 				DosagesAnnotation.type, beginPos, endPos);
 		while (doseTokenItr.hasNext()){
 			DosagesAnnotation focusToken = (DosagesAnnotation) doseTokenItr.next();
@@ -221,7 +234,7 @@ public class DrugMention implements DrugModel {
 				
 			}
 		}
-		Iterator frequencyTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator frequencyTokenItr = getElementsIteratorInSpan(jcas,
 				FrequencyAnnotation.type, beginPos, endPos);
 		while (frequencyTokenItr.hasNext()){
 			FrequencyAnnotation focusToken = (FrequencyAnnotation) frequencyTokenItr.next();
@@ -247,7 +260,7 @@ public class DrugMention implements DrugModel {
 					focusToken.getEnd());
 		}
 		}	
-			Iterator frequencyUnitTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+			Iterator frequencyUnitTokenItr = getElementsIteratorInSpan(jcas,
 					FrequencyUnitAnnotation.type, beginPos, endPos);
 			while (frequencyUnitTokenItr.hasNext()){
 				FrequencyUnitAnnotation focusToken = (FrequencyUnitAnnotation) frequencyUnitTokenItr.next();
@@ -265,13 +278,13 @@ public class DrugMention implements DrugModel {
 							focusToken.getEnd());
 				}
 			}
-			Iterator strengthUnitTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas, StrengthUnitAnnotation.type, beginPos, endPos);
+			Iterator strengthUnitTokenItr = getElementsIteratorInSpan(jcas, StrengthUnitAnnotation.type, beginPos, endPos);
 			while (strengthUnitTokenItr.hasNext()){
 				StrengthUnitAnnotation focusToken = (StrengthUnitAnnotation) strengthUnitTokenItr.next();
 				setStrengthUnitElement(focusToken.getCoveredText(),
 						focusToken.getBegin(), focusToken.getEnd());
 			}
-			Iterator strengthTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas, StrengthAnnotation.type, beginPos, endPos);
+			Iterator strengthTokenItr = getElementsIteratorInSpan(jcas, StrengthAnnotation.type, beginPos, endPos);
 			while (strengthTokenItr.hasNext()){
 				StrengthAnnotation focusToken = (StrengthAnnotation) strengthTokenItr.next();
 				 
@@ -349,7 +362,7 @@ public class DrugMention implements DrugModel {
 							}
 						}
 			}
-			Iterator formTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas, FormAnnotation.type, beginPos, endPos);
+			Iterator formTokenItr = getElementsIteratorInSpan(jcas, FormAnnotation.type, beginPos, endPos);
 			while (formTokenItr.hasNext()){
 				FormAnnotation focusToken = (FormAnnotation) formTokenItr.next();
 				String localForm = null;
@@ -362,7 +375,7 @@ public class DrugMention implements DrugModel {
 							.getEnd());
 				}
 			}
-			Iterator routeTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas, RouteAnnotation.type, beginPos, endPos);
+			Iterator routeTokenItr = getElementsIteratorInSpan(jcas, RouteAnnotation.type, beginPos, endPos);
 			while (routeTokenItr.hasNext()){
 				RouteAnnotation focusToken = (RouteAnnotation) routeTokenItr.next();
 				String localRoute = null;
@@ -375,7 +388,7 @@ public class DrugMention implements DrugModel {
 							focusToken.getEnd());
 				}
 			}
-			Iterator durationTokenItr = FSUtil.getAnnotationsIteratorInSpan(jcas, DurationAnnotation.type, beginPos, endPos);
+			Iterator durationTokenItr = getElementsIteratorInSpan(jcas, DurationAnnotation.type, beginPos, endPos);
 			while (durationTokenItr.hasNext()){
 				DurationAnnotation focusToken = (DurationAnnotation) durationTokenItr.next();
 				String localDuration = null;
@@ -564,9 +577,15 @@ public class DrugMention implements DrugModel {
 			return 0;
 	}
 
+	private Iterator getElementsIteratorInSpan(JCas jcas, int type, int beginOffset, int endOffset) {
+		if (iv_elementSpans != null && DrugElementSpans.isElementType(type))
+			return iv_elementSpans.iterator(type, beginOffset, endOffset);
+		return FSUtil.getAnnotationsIteratorInSpan(jcas, type, beginOffset, endOffset);
+	}
+
 	private String findStartDateElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				DateAnnotation.type, beginOffset, endOffset + 1);
 
 		while (firItr.hasNext()) {
@@ -578,7 +597,7 @@ public class DrugMention implements DrugModel {
 	}
 
 	private String findEndDateElement(JCas jcas, int beginOffset, int endOffset) {
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas, DateAnnotation.type, beginOffset, endOffset + 1);
+		Iterator firItr = getElementsIteratorInSpan(jcas, DateAnnotation.type, beginOffset, endOffset + 1);
 		while (firItr.hasNext()) {
 			DateAnnotation da = (DateAnnotation) firItr.next();
 			if (da.getBegin() == beginOffset)
@@ -589,7 +608,7 @@ public class DrugMention implements DrugModel {
 
 	private String findDosageElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				DosagesAnnotation.type, beginOffset, endOffset + 1);
 
 		while (firItr.hasNext()) {
@@ -636,7 +655,7 @@ public class DrugMention implements DrugModel {
 
 	private String findFormElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				FormAnnotation.type, beginOffset, endOffset + 1);
 
 		while (firItr.hasNext()) {
@@ -781,7 +800,7 @@ public class DrugMention implements DrugModel {
 
 	private String findFrequencyElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				FrequencyAnnotation.type, beginOffset, endOffset + 1);
 		while (firItr.hasNext()) {
 			FrequencyAnnotation da = (FrequencyAnnotation) firItr.next();
@@ -828,7 +847,7 @@ public class DrugMention implements DrugModel {
 	private String findFrequencyUnitElement(JCas jcas, int beginOffset,
 			int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				FrequencyUnitAnnotation.type, beginOffset, endOffset + 1);
 
 		while (firItr.hasNext()) {
@@ -1084,7 +1103,7 @@ public class DrugMention implements DrugModel {
 
 	private String findDurationElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				DurationAnnotation.type, beginOffset, endOffset + 1);
 		while (firItr.hasNext()) {
 			DurationAnnotation da = (DurationAnnotation) firItr.next();
@@ -1096,7 +1115,7 @@ public class DrugMention implements DrugModel {
 
 	private String findRouteElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				RouteAnnotation.type, beginOffset, endOffset + 1);
 		while (firItr.hasNext()) {
 			RouteAnnotation ra = (RouteAnnotation) firItr.next();
@@ -1137,7 +1156,7 @@ public class DrugMention implements DrugModel {
 	private String findDrugChangeStatusElement(JCas jcas, int beginOffset,
 			int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				DrugChangeStatusAnnotation.type, beginOffset, endOffset + 1);
 		while (firItr.hasNext()) {
 			DrugChangeStatusAnnotation dcsa = (DrugChangeStatusAnnotation) firItr
@@ -1160,7 +1179,7 @@ public class DrugMention implements DrugModel {
 
 	private String findStrengthElement(JCas jcas, int beginOffset, int endOffset) {
 
-		Iterator firItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		Iterator firItr = getElementsIteratorInSpan(jcas,
 				StrengthAnnotation.type, beginOffset, endOffset + 1);
 		while (firItr.hasNext()) {
 			StrengthAnnotation dcsa = (StrengthAnnotation) firItr.next();
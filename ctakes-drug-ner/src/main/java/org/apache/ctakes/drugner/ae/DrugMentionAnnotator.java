@@ -39,6 +39,7 @@ import org.apache.ctakes.core.util.DateParser;
 import org.apache.ctakes.core.util.FSUtil;
 import org.apache.ctakes.core.util.JCasUtil;
 import org.apache.ctakes.core.util.ParamUtil;
+import org.apache.ctakes.drugner.DrugElementSpans;
 import org.apache.ctakes.drugner.DrugMention;
 import org.apache.ctakes.drugner.elements.DrugChangeStatusElement;
 import org.apache.ctakes.drugner.fsm.machines.elements.DecimalStrengthFSM;
@@ -150,6 +151,14 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 	 */
 	public static final String PARAM_SEGMENTS_MEDICATION_RELATED = "medicationRelatedSection";
 
+	/**
+	 * Value is "useElementSpans".  True to hold the strength, dosage, frequency and other elements found by the
+	 * finite state machines in primitive span arrays instead of adding them to the CAS and removing them afterward.
+	 * Only the final MedicationMention annotations and their attributes are written to the CAS either way.
+	 * Default is false.
+	 */
+	public static final String PARAM_ELEMENT_SPANS = "useElementSpans";
+
 	public static String DISTANCE = "DISTANCE";  
 	/**
 	 * Annotation type that is used to count the distance.
@@ -185,6 +194,8 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 	private static boolean handledRanges;
 	private Set<String> iv_exclusionTagSet = null;
 	private Set<String> iv_medicationRelatedSections = new HashSet<String>();
+	// drug attribute elements of the current document, null if they are held in the cas
+	private DrugElementSpans iv_elementSpans;
 
 
 	public void initialize(UimaContext annotCtx)
@@ -211,6 +222,10 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 		iv_formFSM = new FormFSM();
 		iv_subMedSectionFSM = new SubSectionIndicatorFSM();
 		iv_logger.info("Finite state machines loaded.");
+
+		Boolean useElementSpans = (Boolean)annotCtx.getConfigParameterValue(PARAM_ELEMENT_SPANS);
+		if (useElementSpans != null && useElementSpans.booleanValue())
+			iv_elementSpans = new DrugElementSpans();
 		
 		try {
 			//gather window size and annotation type
@@ -237,6 +252,8 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 
 		iv_logger.info("process(JCas)");
 
+		if (iv_elementSpans != null)
+			iv_elementSpans.reset(jcas);
 		try
 		{
 			JFSIndexRepository indexes = jcas.getJFSIndexRepository();
@@ -272,6 +289,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 		{
 			throw new AnalysisEngineProcessException(e);
 		}
+		finally
+		{
+			if (iv_elementSpans != null)
+				iv_elementSpans.reset(null);
+		}
 	}
 
 	private int [] intermediateTypesToRemove = { 
@@ -661,7 +683,14 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			Annotation ann = null;
 			BaseTokenImpl oldAnn = (BaseTokenImpl)annItr.next();
 
-			if(FractionStrengthAnnotation.type == type)
+			if (iv_elementSpans != null)
+			{
+				if (DrugChangeStatusAnnotation.type == type)
+					iv_elementSpans.add(type, oldAnn.getStartOffset(), oldAnn.getEndOffset(), ((DrugChangeStatusToken)oldAnn).getDrugChangeStatus());
+				else
+					iv_elementSpans.add(type, oldAnn.getStartOffset(), oldAnn.getEndOffset());
+			}
+			else if(FractionStrengthAnnotation.type == type)
 				ann = new FractionStrengthAnnotation(jcas, oldAnn.getStartOffset(), oldAnn.getEndOffset());
 			else if (DecimalStrengthAnnotation.type == type)
 				ann = new DecimalStrengthAnnotation(jcas, oldAnn.getStartOffset(), oldAnn.getEndOffset());
@@ -765,13 +794,22 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
         if (mt instanceof  StrengthUnitToken) {
         	// StrengthUnitToken mt = (StrengthUnitToken) measurementTokenItr.next();
         	int begSeg = ((StrengthUnitToken) mt).getStartOffset(), endSeg = ((StrengthUnitToken) mt).getEndOffset();
-        	StrengthUnitAnnotation ma = new StrengthUnitAnnotation(jcas, begSeg, endSeg);
-        	ma.addToIndexes();
+        	if (iv_elementSpans != null) {
+        		iv_elementSpans.add(StrengthUnitAnnotation.type, begSeg, endSeg);
+        	} else {
+        		StrengthUnitAnnotation ma = new StrengthUnitAnnotation(jcas, begSeg, endSeg);
+        		ma.addToIndexes();
+        	}
         } else {
         	int begSeg = ((StrengthUnitCombinedToken) mt).getStartOffset(), endSeg = ((StrengthUnitCombinedToken) mt).getEndOffset();
-        	StrengthUnitAnnotation ma = new StrengthUnitAnnotation(jcas, begSeg, endSeg);
-        	ma.setBegin(findTextualStringOffset(ma.getCoveredText()) + begSeg);
-        	ma.addToIndexes();
+        	if (iv_elementSpans != null) {
+        		String coveredText = jcas.getDocumentText().substring(begSeg, endSeg);
+        		iv_elementSpans.add(StrengthUnitAnnotation.type, findTextualStringOffset(coveredText) + begSeg, endSeg);
+        	} else {
+        		StrengthUnitAnnotation ma = new StrengthUnitAnnotation(jcas, begSeg, endSeg);
+        		ma.setBegin(findTextualStringOffset(ma.getCoveredText()) + begSeg);
+        		ma.addToIndexes();
+        	}
         }
  
 				//TODO: Does this need to be commented out? Created Strength        
@@ -802,6 +840,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			while (formTokenItr.hasNext())
 			{
 				FormToken mt = (FormToken) formTokenItr.next();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(FormAnnotation.type, mt.getStartOffset(), mt.getEndOffset());
+					continue;
+				}
 				FormAnnotation ma = new FormAnnotation(jcas, mt.getStartOffset(), mt.getEndOffset());
 
 				ma.addToIndexes();
@@ -823,8 +866,14 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
           StrengthToken mt = (StrengthToken) preTokenItr.next();
           int begOff = mt.getStartOffset();
           int endOff = mt.getEndOffset();
+          if (iv_elementSpans != null)
+          {
+            int subStrengthBegin = iv_elementSpans.getFirstBegin(StrengthUnitAnnotation.type, begOff, endOff);
+            iv_elementSpans.add(StrengthAnnotation.type, begOff, subStrengthBegin >= 0 ? subStrengthBegin : endOff);
+            continue;
+          }
           StrengthAnnotation ma = new StrengthAnnotation(jcas, begOff, endOff);
-          Iterator subStrengthItr = FSUtil.getAnnotationsIteratorInSpan(jcas, StrengthUnitAnnotation.type, begOff, endOff);
+          Iterator subStrengthItr = getElementsIteratorInSpan(jcas, StrengthUnitAnnotation.type, begOff, endOff);
           if (subStrengthItr.hasNext() )
             	  ma.setEnd(((StrengthUnitAnnotation)subStrengthItr.next()).getBegin());
           ma.addToIndexes();
@@ -846,6 +895,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				DosageToken mt = (DosageToken) dosTokenItr.next();
 				begSegDose = mt.getStartOffset();
 				endSegDose = mt.getEndOffset();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(DosagesAnnotation.type, begSegDose, endSegDose);
+					continue;
+				}
 				DosagesAnnotation ma = new DosagesAnnotation(jcas, begSegDose,
 						endSegDose);
 
@@ -858,6 +912,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			while (suffixTokenItr.hasNext())
 			{
 				SuffixStrengthToken mt = (SuffixStrengthToken) suffixTokenItr.next();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(SuffixStrengthAnnotation.type, mt.getStartOffset(), mt.getEndOffset());
+					continue;
+				}
 				SuffixStrengthAnnotation ma = new SuffixStrengthAnnotation(jcas, mt.getStartOffset(), mt.getEndOffset());
 				ma.addToIndexes();
 			}
@@ -873,6 +932,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				RouteToken mt = (RouteToken) routeTokenItr.next();
 				begSegRT = mt.getStartOffset();
 				endSegRT = mt.getEndOffset();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(RouteAnnotation.type, begSegRT, endSegRT, new Integer(mt.getFormMethod()).toString());
+					continue;
+				}
 				RouteAnnotation ma = new RouteAnnotation(jcas, begSegRT, endSegRT);
 				ma.setIntakeMethod(new Integer(mt.getFormMethod()).toString());
 				ma.addToIndexes();
@@ -890,6 +954,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 
 				begSegFUT = fut.getStartOffset();
 				endSegFUT = fut.getEndOffset();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(FrequencyUnitAnnotation.type, begSegFUT, endSegFUT, new Float(fut.getFrequencyUnitQuantity()).floatValue());
+					continue;
+				}
 				FrequencyUnitAnnotation ma = new FrequencyUnitAnnotation(jcas,
 						begSegFUT, endSegFUT);
 				ma.setPeriod(new Float(fut.getFrequencyUnitQuantity()).floatValue());
@@ -909,6 +978,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				FrequencyToken ft = (FrequencyToken) frequencyTokenItr.next();
 				begSegFT = ft.getStartOffset();
 				endSegFT = ft.getEndOffset();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(FrequencyAnnotation.type, begSegFT, endSegFT);
+					continue;
+				}
 				FrequencyAnnotation ma = new FrequencyAnnotation(jcas, begSegFT,
 						endSegFT);
 				ma.addToIndexes();
@@ -927,6 +1001,11 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				DurationToken du = (DurationToken) durationTokenItr.next();
 				begSegDU = du.getStartOffset();
 				endSegDU = du.getEndOffset();
+				if (iv_elementSpans != null)
+				{
+					iv_elementSpans.add(DurationAnnotation.type, begSegDU, endSegDU);
+					continue;
+				}
 				DurationAnnotation ma = new DurationAnnotation(jcas, begSegDU, endSegDU);
 				// dm.setDurationElement(jcas, begSegDU, endSegDU);
 				ma.addToIndexes();
@@ -1160,6 +1239,46 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 		}
 	}
 
+	/**
+	 * Annotations of a type within a span, taken from the element spans for drug attribute elements
+	 * when they are not held in the CAS
+	 */
+	private Iterator getElementsIteratorInSpan(JCas jcas, int type, int begin, int end)
+	{
+		if (iv_elementSpans != null && DrugElementSpans.isElementType(type))
+			return iv_elementSpans.iterator(type, begin, end);
+		return FSUtil.getAnnotationsIteratorInSpan(jcas, type, begin, end);
+	}
+
+	/**
+	 * All annotations of a type, taken from the element spans for drug attribute elements
+	 * when they are not held in the CAS
+	 */
+	private Iterator getElementsIterator(JCas jcas, int type)
+	{
+		if (iv_elementSpans != null && DrugElementSpans.isElementType(type))
+			return iv_elementSpans.iterator(type);
+		return jcas.getJFSIndexRepository().getAnnotationIndex(type).iterator();
+	}
+
+	/**
+	 * Like FSUtil.isAnnotationPresentInSpan, which checks for any annotation of the type in the document
+	 */
+	private boolean isElementPresentInSpan(JCas jcas, int type, int begin, int end)
+	{
+		if (iv_elementSpans != null && DrugElementSpans.isElementType(type))
+			return iv_elementSpans.size(type) > 0;
+		return FSUtil.isAnnotationPresentInSpan(jcas, type, begin, end);
+	}
+
+	private void removeElement(Annotation element)
+	{
+		if (iv_elementSpans != null && DrugElementSpans.isElementType(element.getTypeIndexID()))
+			iv_elementSpans.remove(element);
+		else
+			element.removeFromIndexes();
+	}
+
 	private boolean findCoveredTextInSpan(JCas jcas, int annotationType, int beginOffset, int endOffset, String[] searchStrs)
 	{
 		boolean foundCoveredText = false;
@@ -1190,7 +1309,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 	private List<Annotation> getAnnotationsInSpan(JCas jcas, int type, int begin, int end)
 	{
 		List<Annotation> list = new ArrayList<Annotation>();
-		FSIterator annItr = FSUtil.getAnnotationsIteratorInSpan(jcas, type, begin,
+		Iterator annItr = getElementsIteratorInSpan(jcas, type, begin,
 				end);
 		while (annItr.hasNext())
 		{
@@ -1265,7 +1384,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				tokenAnt.setTypeID(NERTypeIdentifier);
 				holdDrugNERArr.add(drugTokenAnt);
 
-				Iterator statusChangeItr = FSUtil.getAnnotationsIteratorInSpan(jcas, DrugChangeStatusAnnotation.type, holdLeftStart, holdRightEnd);
+				Iterator statusChangeItr = getElementsIteratorInSpan(jcas, DrugChangeStatusAnnotation.type, holdLeftStart, holdRightEnd);
 				List holdStatusChanges = new ArrayList();
 				// Separate the subsection from the change status elements
 				int[] localSpan = getNarrativeSpansContainingGivenSpanType(jcas, drugTokenAnt.getBegin(), iBoundaryAnnType);
@@ -1397,7 +1516,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 								skipNext = true;
 								checkSkippedOffsetBegin = hos2.getBegin();
 								checkSkippedOffsetEnd = hos2.getEnd();
-								hos2.removeFromIndexes();
+								removeElement(hos2);
 								modifiedOrderDrugStatusChanges.add(hos1);
 
 							} else {
@@ -1432,7 +1551,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 					}            
 					// No change is default state since the change state has been handled
 				}
-				DrugMention dm = new DrugMention(jcas, begin, end);	
+				DrugMention dm = new DrugMention(jcas, iv_elementSpans, begin, end);	
 				boolean overrideStatus = false;
 				boolean statusFound = false;
 				if (!keepNoChangeStatus) {
@@ -1500,7 +1619,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 								}
 								if (statusKey.compareTo(DrugChangeStatusToken.NOCHANGE) == 0)
 								{
-									Iterator oneDrugChangeStatus = FSUtil.getAnnotationsIteratorInSpan(jcas,
+									Iterator oneDrugChangeStatus = getElementsIteratorInSpan(jcas,
 											DrugChangeStatusAnnotation.type, ssid.getBegin(), ssid.getEnd() + 1);
 									if (oneDrugChangeStatus.hasNext())
 									{
@@ -1525,7 +1644,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 					// find the beginning
 					// accurately.
 
-					Iterator statusSpecialChangeItr = FSUtil.getAnnotationsIteratorInSpan(jcas, DrugChangeStatusAnnotation.type, begin - 20, drugTokenAnt.getBegin() + 1);
+					Iterator statusSpecialChangeItr = getElementsIteratorInSpan(jcas, DrugChangeStatusAnnotation.type, begin - 20, drugTokenAnt.getBegin() + 1);
 					while (statusSpecialChangeItr.hasNext())
 					{
 						DrugChangeStatusAnnotation specialDsa = (DrugChangeStatusAnnotation) statusSpecialChangeItr.next();
@@ -1641,7 +1760,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				}
 				String doseText = null;
 				if (!keepNoChangeStatus || (drugTokenAnt.getDosage() == null)) {
-					Iterator dosageItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+					Iterator dosageItr = getElementsIteratorInSpan(jcas,
 							DosagesAnnotation.type, begin, end + 1);
 					List holdDosages = new ArrayList();
 					double doseValue = 0;
@@ -1701,7 +1820,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				}
 				String frequencyText = null;
 				if (!keepNoChangeStatus || (drugTokenAnt.getFrequency() == null)) {
-					Iterator freqItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+					Iterator freqItr = getElementsIteratorInSpan(jcas,
 							FrequencyAnnotation.type, begin, end + 1);
 
 					List holdFreqItr = new ArrayList();
@@ -1739,7 +1858,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 				boolean foundPRN = false;
 				String frequencyUnitText = null;
 				if (!keepNoChangeStatus || (drugTokenAnt.getFrequencyUnit() == null)) {
-					Iterator frequencyUnitItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+					Iterator frequencyUnitItr = getElementsIteratorInSpan(jcas,
 							FrequencyUnitAnnotation.type, begin, end + 1);
 					List holdFrequencyUnit = new ArrayList();
 					double frequencyUnitValue = 0;
@@ -2142,8 +2261,8 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 		MedicationMention neAnnot = new MedicationMention(jcas, tokenDrugNER.getBegin(),
 				tokenDrugNER.getEnd());
 		int beginChunk = drugChangeStatus.getEnd();
-		DrugMention compareDM = new DrugMention(jcas, beginChunk, endSpan);
-		DrugMention priorDM = new DrugMention(jcas, beginSpan, drugChangeStatus.getBegin());
+		DrugMention compareDM = new DrugMention(jcas, iv_elementSpans, beginChunk, endSpan);
+		DrugMention priorDM = new DrugMention(jcas, iv_elementSpans, beginSpan, drugChangeStatus.getBegin());
 		if ((priorDM.dosage == null) && (priorDM.strength == null) && (priorDM.frequency == null ) )
 			noPriorMention = true;
 		if ((compareDM.dosage == null) && (compareDM.strength == null) && (compareDM.frequency == null ) )
@@ -2193,7 +2312,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 					midChunk, tokenDrugNER, changeStatusArray, count,
 					globalNER);
 			if (noPriorMention) {
-				compareDM = new DrugMention(jcas, startChunk, endChunk);
+				compareDM = new DrugMention(jcas, iv_elementSpans, startChunk, endChunk);
 				if (compareDM.dosage != null) {
 					tokenDrugNER.setDosage(compareDM.getDosageElement());
 					tokenDrugNER.setDosageBegin(compareDM.getDosageBegin());
@@ -2228,7 +2347,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 					buildNewNER, beginChunk, endSpan,
 					tokenDrugNER, changeStatusArray, count, globalNER);
 			if (noPriorMention) {
-				priorDM = new DrugMention(jcas, originalBeginSpan, beginChunk);
+				priorDM = new DrugMention(jcas, iv_elementSpans, originalBeginSpan, beginChunk);
 				if (priorDM.dosage != null) {
 					tokenDrugNER.setDosage(priorDM.getDosageElement());
 					tokenDrugNER.setDosageBegin(priorDM.getDosageBegin());
@@ -2262,7 +2381,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 					endSpan, tokenDrugNER, changeStatusArray, count,
 					globalNER);
 			if (noPriorMention) {
-				compareDM = new DrugMention(jcas, endSpan, originalEndSpan);
+				compareDM = new DrugMention(jcas, iv_elementSpans, endSpan, originalEndSpan);
 				if (compareDM.dosage != null) {
 					tokenDrugNER.setDosage(compareDM.getDosageElement());
 					tokenDrugNER.setDosageBegin(compareDM.getDosageBegin());
@@ -2299,7 +2418,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 					endChunk, tokenDrugNER,
 					changeStatusArray, count, globalNER);
 			if (noPriorMention) {
-				priorDM = new DrugMention(jcas, originalBeginSpan, midChunk);
+				priorDM = new DrugMention(jcas, iv_elementSpans, originalBeginSpan, midChunk);
 				if (priorDM.dosage != null) {
 					tokenDrugNER.setDosage(priorDM.getDosageElement());
 					tokenDrugNER.setDosageBegin(priorDM.getDosageBegin());
@@ -2336,7 +2455,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			double frequencyChange = 1;
 			if (noPriorMention) {
 				int [] updateSpan =   getAdjustedWindowSpan(jcas,  beginChunk, endSpan, false);
-				compareDM = new DrugMention(jcas, endSpan, originalEndSpan);
+				compareDM = new DrugMention(jcas, iv_elementSpans, endSpan, originalEndSpan);
 				if (compareDM.dosage != null) {
 					tokenDrugNER.setDosage(compareDM.getDosageElement());
 					tokenDrugNER.setDosageBegin(compareDM.getDosageBegin());
@@ -2639,21 +2758,21 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 	private boolean hasMultipleElementsInSpan(JCas jcas, int begin, int end)
 	{
 		int numElements = 0;
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				StrengthAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				FrequencyAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				FrequencyUnitAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				DosagesAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				FormAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				RouteAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				DurationAnnotation.type, begin, end) == true) ? 1 : 0);
-		numElements += ((FSUtil.isAnnotationPresentInSpan(jcas,
+		numElements += ((isElementPresentInSpan(jcas,
 				DrugChangeStatusAnnotation.type, begin, end) == true) ? 1 : 0);
 
 		return (numElements > 1);
@@ -2778,8 +2897,7 @@ private int[] getNarrativeSpansContainingGivenSpanType(JCas jcas, int begin, int
 	 * @return
 	 */
 	private int [] findOffsetsInPattern(JCas jcas, int begin, int end, int elementType, int[][] location, boolean highest) {
-		JFSIndexRepository indexes = jcas.getJFSIndexRepository();
-		Iterator neItr = indexes.getAnnotationIndex(elementType).iterator();
+		Iterator neItr = getElementsIterator(jcas, elementType);
 		int [] lastLocation =  {-1,-1};
 		boolean wantMuliple = true;
 		if (elementType == StrengthUnitAnnotation.type) {
@@ -2897,8 +3015,7 @@ private int[] getNarrativeSpansContainingGivenSpanType(JCas jcas, int begin, int
 	 * @return
 	 */
 	private int findInPattern(JCas jcas, int begin, int end, int elementType, int[][] location) {
-		JFSIndexRepository indexes = jcas.getJFSIndexRepository();
-		Iterator neItr = indexes.getAnnotationIndex(elementType).iterator();
+		Iterator neItr = getElementsIterator(jcas, elementType);
 		int [] lastLocation =  {-1,-1};
 		int counter = 0;
 		if (elementType == StrengthUnitAnnotation.type) {
@@ -3112,7 +3229,7 @@ private int[][] getWindowSpan(JCas jcas,  String sectionType, int typeAnnotation
 		Iterator neItr = null;
 		// Iterator neItr= indexes.getAnnotationIndex(elementType).iterator();
 		int numElements = 0;
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		neItr = getElementsIteratorInSpan(jcas,
 				StrengthAnnotation.type, begin, end);
 		while (neItr.hasNext()) {
 			StrengthAnnotation nea = (StrengthAnnotation) neItr.next();
@@ -3120,7 +3237,7 @@ private int[][] getWindowSpan(JCas jcas,  String sectionType, int typeAnnotation
 			numElements++;
 
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		neItr = getElementsIteratorInSpan(jcas,
 				FrequencyAnnotation.type, begin, end);
 		while (neItr.hasNext()) {
 			FrequencyAnnotation nea = (FrequencyAnnotation) neItr.next();
@@ -3128,7 +3245,7 @@ private int[][] getWindowSpan(JCas jcas,  String sectionType, int typeAnnotation
 			numElements++;
 			// }
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		neItr = getElementsIteratorInSpan(jcas,
 				FrequencyUnitAnnotation.type, begin, end);
 		while (neItr.hasNext()) {
 			FrequencyUnitAnnotation nea = (FrequencyUnitAnnotation) neItr.next();
@@ -3136,35 +3253,35 @@ private int[][] getWindowSpan(JCas jcas,  String sectionType, int typeAnnotation
 			numElements++;
 			// }
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		neItr = getElementsIteratorInSpan(jcas,
 				DosagesAnnotation.type, begin, end);
 		while (neItr.hasNext()) {
 			DosagesAnnotation nea = (DosagesAnnotation) neItr.next();
 
 			numElements++;
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas, FormAnnotation.type,
+		neItr = getElementsIteratorInSpan(jcas, FormAnnotation.type,
 				begin, end);
 		while (neItr.hasNext()) {
 			FormAnnotation nea = (FormAnnotation) neItr.next();
 
 			numElements++;
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas, RouteAnnotation.type,
+		neItr = getElementsIteratorInSpan(jcas, RouteAnnotation.type,
 				begin, end);
 		while (neItr.hasNext()) {
 			RouteAnnotation nea = (RouteAnnotation) neItr.next();
 
 			numElements++;
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		neItr = getElementsIteratorInSpan(jcas,
 				DurationAnnotation.type, begin, end);
 		while (neItr.hasNext()) {
 			DurationAnnotation nea = (DurationAnnotation) neItr.next();
 
 			numElements++;
 		}
-		neItr = FSUtil.getAnnotationsIteratorInSpan(jcas,
+		neItr = getElementsIteratorInSpan(jcas,
 				DrugChangeStatusAnnotation.type, begin, end);
 		while (neItr.hasNext()) {
 			DrugChangeStatusAnnotation nea = (DrugChangeStatusAnnotation) neItr.next();
@@ -3535,8 +3652,7 @@ private int[][] getWindowSpan(JCas jcas,  String sectionType, int typeAnnotation
 	 * @return
 	 */
 	private int lastInPattern(JCas jcas, int begin, int end, int elementType, int[][] location) {
-		JFSIndexRepository indexes = jcas.getJFSIndexRepository();
-		Iterator neItr = indexes.getAnnotationIndex(elementType).iterator();
+		Iterator neItr = getElementsIterator(jcas, elementType);
 		int [] lastLocation =  {-1,-1};
 		int counter = 0;
 		if (elementType == StrengthAnnotation.type) {
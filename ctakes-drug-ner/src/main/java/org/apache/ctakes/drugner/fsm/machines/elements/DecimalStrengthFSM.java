@@ -28,6 +28,7 @@ import java.util.Set;
 import org.apache.ctakes.core.fsm.condition.IntegerValueCondition;
 import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.output.util.DecimalStrengthToken;
@@ -55,7 +56,7 @@ public class DecimalStrengthFSM
     public DecimalStrengthFSM()
     {
 
-        iv_machineSet.add(getDecimalStrengthMachine());
+        iv_machineSet.add(new CompiledMachine(getDecimalStrengthMachine()));
        
     }
 
@@ -114,7 +115,7 @@ public class DecimalStrengthFSM
             Iterator machineItr = iv_machineSet.iterator();
             while (machineItr.hasNext())
             {
-                Machine fsm = (Machine) machineItr.next();
+                CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
                 fsm.input(token);
 
@@ -159,7 +160,7 @@ public class DecimalStrengthFSM
         Iterator itr = iv_machineSet.iterator();
         while (itr.hasNext())
         {
-            Machine fsm = (Machine) itr.next();
+            CompiledMachine fsm = (CompiledMachine) itr.next();
             fsm.reset();
         }
 
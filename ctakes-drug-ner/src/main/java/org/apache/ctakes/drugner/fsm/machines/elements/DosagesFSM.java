@@ -32,6 +32,7 @@ import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
@@ -97,7 +98,7 @@ public class DosagesFSM {
 		iv_soloTextSet.add("one-half-tablet");
 		iv_soloTextSet.add("half-tablet");
 
-		iv_machineSet.add(getDosageQuantityMachine());
+		iv_machineSet.add(new CompiledMachine(getDosageQuantityMachine()));
 
 	}
 
@@ -294,7 +295,7 @@ public class DosagesFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -366,7 +367,7 @@ public class DosagesFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -423,7 +424,7 @@ public class DosagesFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -477,7 +478,7 @@ public class DosagesFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -30,6 +30,7 @@ import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.RangeCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.RangeStrengthCondition;
@@ -94,25 +95,25 @@ public class DrugChangeStatusFSM {
 	// contains the finite state machines
 	private Set iv_machineSet = new HashSet();
 
-	private Machine iv_startStatusMachine;
+	private CompiledMachine iv_startStatusMachine;
 
-	private Machine iv_stopStatusMachine;
+	private CompiledMachine iv_stopStatusMachine;
 	
-	private Machine iv_increaseStatusMachine;
+	private CompiledMachine iv_increaseStatusMachine;
 	
-	private Machine iv_decreaseStatusMachine;
+	private CompiledMachine iv_decreaseStatusMachine;
 	
-	private Machine iv_increaseFromStatusMachine;
+	private CompiledMachine iv_increaseFromStatusMachine;
 	
-	private Machine iv_decreaseFromStatusMachine;
+	private CompiledMachine iv_decreaseFromStatusMachine;
 	
-	private Machine iv_noChangeStatusMachine;
+	private CompiledMachine iv_noChangeStatusMachine;
 	
-	private Machine iv_changeStatusMachine;
+	private CompiledMachine iv_changeStatusMachine;
 	
-	private Machine iv_sumStatusMachine;
+	private CompiledMachine iv_sumStatusMachine;
 	
-	private Machine iv_maxStatusMachine;
+	private CompiledMachine iv_maxStatusMachine;
 
 	/**
 	 * 
@@ -244,16 +245,16 @@ public class DrugChangeStatusFSM {
 		iv_secondMaxDualWordSet.add("of");
 
 
-		iv_startStatusMachine = getStartStatusMachine();
-		iv_stopStatusMachine = getStopStatusMachine();
-		iv_increaseStatusMachine = getIncreaseStatusMachine();
-		iv_decreaseStatusMachine = getDecreaseStatusMachine();
-		iv_noChangeStatusMachine = getNoChangeStatusMachine();
-		iv_changeStatusMachine = getChangeStatusMachine();
-		iv_sumStatusMachine = getSumStatusMachine();
-		iv_maxStatusMachine = getMaximumStatusMachine();
-		iv_increaseFromStatusMachine = getIncreaseFromAndTheStatusMachine();
-		iv_decreaseFromStatusMachine = getDecreaseFromAndTheStatusMachine();
+		iv_startStatusMachine = new CompiledMachine(getStartStatusMachine());
+		iv_stopStatusMachine = new CompiledMachine(getStopStatusMachine());
+		iv_increaseStatusMachine = new CompiledMachine(getIncreaseStatusMachine());
+		iv_decreaseStatusMachine = new CompiledMachine(getDecreaseStatusMachine());
+		iv_noChangeStatusMachine = new CompiledMachine(getNoChangeStatusMachine());
+		iv_changeStatusMachine = new CompiledMachine(getChangeStatusMachine());
+		iv_sumStatusMachine = new CompiledMachine(getSumStatusMachine());
+		iv_maxStatusMachine = new CompiledMachine(getMaximumStatusMachine());
+		iv_increaseFromStatusMachine = new CompiledMachine(getIncreaseFromAndTheStatusMachine());
+		iv_decreaseFromStatusMachine = new CompiledMachine(getDecreaseFromAndTheStatusMachine());
 		
 		iv_machineSet.add(iv_startStatusMachine);
 		iv_machineSet.add(iv_stopStatusMachine);
@@ -783,7 +784,7 @@ public class DrugChangeStatusFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -854,7 +855,7 @@ public class DrugChangeStatusFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -28,6 +28,7 @@ import java.util.Set;
 import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.RangeStrengthCondition;
@@ -175,8 +176,8 @@ public class DurationFSM {
 		iv_periodSet.add("mos");
 		iv_periodSet.add("wks");
 
-		iv_machineSet.add(geDurationMachine());
-		iv_machineSet.add(geDuration2ndMachine());
+		iv_machineSet.add(new CompiledMachine(geDurationMachine()));
+		iv_machineSet.add(new CompiledMachine(geDuration2ndMachine()));
 
 	}
 
@@ -401,7 +402,7 @@ public class DurationFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -438,7 +439,7 @@ public class DurationFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -464,7 +465,7 @@ public class DurationFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -501,7 +502,7 @@ public class DurationFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
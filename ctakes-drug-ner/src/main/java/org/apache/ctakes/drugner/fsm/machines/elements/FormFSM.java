@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.output.elements.FormToken;
@@ -113,7 +114,7 @@ public class FormFSM {
 		iv_fullTextSet.add("milliliter");
 		iv_fullTextSet.add("milliliters");
  
-		iv_machineSet.add(getFormMachine());
+		iv_machineSet.add(new CompiledMachine(getFormMachine()));
 		
 
 	}
@@ -196,7 +197,7 @@ public class FormFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -233,7 +234,7 @@ public class FormFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -257,7 +258,7 @@ public class FormFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -289,7 +290,7 @@ public class FormFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -29,6 +29,7 @@ import org.apache.ctakes.core.fsm.condition.DecimalCondition;
 import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.ContainsSetTextValueCondition;
@@ -52,7 +53,7 @@ public class FractionStrengthFSM
     Set<String> iv_textDenominatorSet = new HashSet<String>();
 
     // contains the finite state machines
-    private Set<Machine> iv_machineSet = new HashSet<Machine>();
+    private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
     /**
      * Constructor
@@ -89,8 +90,8 @@ public class FractionStrengthFSM
         iv_textDenominatorSet.add("tenth");
         iv_textDenominatorSet.add("tenths");
 
-        iv_machineSet.add(getStrengthSlashMachine());
-        iv_machineSet.add(getStandardMachine());
+        iv_machineSet.add(new CompiledMachine(getStrengthSlashMachine()));
+        iv_machineSet.add(new CompiledMachine(getStandardMachine()));
        
     }
 
@@ -235,7 +236,7 @@ public class FractionStrengthFSM
             Iterator machineItr = iv_machineSet.iterator();
             while (machineItr.hasNext())
             {
-            	Machine fsm = (Machine) machineItr.next();
+            	CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
             	fsm.input(token);
 
@@ -276,10 +277,10 @@ public class FractionStrengthFSM
         tokenStartMap.clear();
 
         // reset machines
-        Iterator<Machine> itr = iv_machineSet.iterator();
+        Iterator<CompiledMachine> itr = iv_machineSet.iterator();
         while (itr.hasNext())
         {
-            Machine fsm = itr.next();
+            CompiledMachine fsm = itr.next();
             fsm.reset();
         }
 
@@ -30,6 +30,7 @@ import org.apache.ctakes.core.fsm.condition.IntegerRangeCondition;
 import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.RangeCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
@@ -202,7 +203,7 @@ public class FrequencyFSM {
 		iv_hyphenatedSet.add("eight-times-each-hour");
 		iv_hyphenatedSet.add("nine-times-each-hour");
 
-		iv_machineSet.add(getFrequencyMachine());
+		iv_machineSet.add(new CompiledMachine(getFrequencyMachine()));
 
 
 	}
@@ -347,7 +348,7 @@ public class FrequencyFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -396,7 +397,7 @@ public class FrequencyFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -422,7 +423,7 @@ public class FrequencyFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -472,7 +473,7 @@ public class FrequencyFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -577,7 +578,7 @@ public class FrequencyFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 				State currentState = fsm.getCurrentState();
@@ -646,7 +647,7 @@ public class FrequencyFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -34,6 +34,7 @@ import org.apache.ctakes.core.fsm.condition.NegateCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.TextSetCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
@@ -108,37 +109,37 @@ public class FrequencyUnitFSM {
 	// contains the finite state machines
 	private Set iv_machineSet = new HashSet();
 	
-    private Machine iv_DailyMachine;
+    private CompiledMachine iv_DailyMachine;
     
-    private Machine iv_HourlyMachine;
+    private CompiledMachine iv_HourlyMachine;
     
-    private Machine iv_ThreeTimesADayMachine;
+    private CompiledMachine iv_ThreeTimesADayMachine;
     
-    private Machine iv_FourTimesADayMachine;
+    private CompiledMachine iv_FourTimesADayMachine;
     
-    private Machine iv_FiveTimesADayMachine;
+    private CompiledMachine iv_FiveTimesADayMachine;
     
-    private Machine iv_SixTimesADayMachine;
+    private CompiledMachine iv_SixTimesADayMachine;
     
-    private Machine iv_EveryOtherHourMachine;
+    private CompiledMachine iv_EveryOtherHourMachine;
     
-    private Machine iv_EveryOtherDayMachine;
+    private CompiledMachine iv_EveryOtherDayMachine;
     
-    private Machine iv_TwiceADayMachine;
+    private CompiledMachine iv_TwiceADayMachine;
     
-    private Machine iv_DailySuffixMachine;
+    private CompiledMachine iv_DailySuffixMachine;
     
-    private Machine iv_HourlySuffixMachine;
+    private CompiledMachine iv_HourlySuffixMachine;
     
-    private Machine iv_WeeklySuffixMachine;
+    private CompiledMachine iv_WeeklySuffixMachine;
     
-    private Machine iv_MonthlySuffixMachine;
+    private CompiledMachine iv_MonthlySuffixMachine;
     
-    private Machine iv_YearlySuffixMachine;
+    private CompiledMachine iv_YearlySuffixMachine;
 
-    private Machine iv_WeeklyMachine;
+    private CompiledMachine iv_WeeklyMachine;
     
-	private Machine iv_PrnMachine;
+	private CompiledMachine iv_PrnMachine;
 
 
 	/**
@@ -336,21 +337,21 @@ public class FrequencyUnitFSM {
 		iv_everyOtherDayWordSet.add("every-other-morning");
 
 		// 2 letter latin abbreviations
-		iv_DailyMachine = getDailyMachine();
-		iv_SixTimesADayMachine = getSixTimesADayMachine();
-		iv_FiveTimesADayMachine = getFiveTimesADayMachine();
-        iv_ThreeTimesADayMachine = getThreeTimesADayMachine();
-        iv_FourTimesADayMachine = getFourTimesADayMachine();
-        iv_EveryOtherHourMachine = getEveryOtherHourMachine();
-        iv_EveryOtherDayMachine = getEveryOtherDayMachine();
-        iv_TwiceADayMachine = getTwiceADayMachine();
-        iv_DailySuffixMachine = getDailySuffixMachine();
-        iv_WeeklyMachine = getWeeklyMachine();
-        iv_HourlySuffixMachine = getHourlySuffixMachine();
-        iv_WeeklySuffixMachine = getWeeklySuffixMachine();
-        iv_MonthlySuffixMachine = getMonthlySuffixMachine();
-        iv_YearlySuffixMachine = getYearlySuffixMachine();
-        iv_PrnMachine = getAsNeededMachine();
+		iv_DailyMachine = new CompiledMachine(getDailyMachine());
+		iv_SixTimesADayMachine = new CompiledMachine(getSixTimesADayMachine());
+		iv_FiveTimesADayMachine = new CompiledMachine(getFiveTimesADayMachine());
+        iv_ThreeTimesADayMachine = new CompiledMachine(getThreeTimesADayMachine());
+        iv_FourTimesADayMachine = new CompiledMachine(getFourTimesADayMachine());
+        iv_EveryOtherHourMachine = new CompiledMachine(getEveryOtherHourMachine());
+        iv_EveryOtherDayMachine = new CompiledMachine(getEveryOtherDayMachine());
+        iv_TwiceADayMachine = new CompiledMachine(getTwiceADayMachine());
+        iv_DailySuffixMachine = new CompiledMachine(getDailySuffixMachine());
+        iv_WeeklyMachine = new CompiledMachine(getWeeklyMachine());
+        iv_HourlySuffixMachine = new CompiledMachine(getHourlySuffixMachine());
+        iv_WeeklySuffixMachine = new CompiledMachine(getWeeklySuffixMachine());
+        iv_MonthlySuffixMachine = new CompiledMachine(getMonthlySuffixMachine());
+        iv_YearlySuffixMachine = new CompiledMachine(getYearlySuffixMachine());
+        iv_PrnMachine = new CompiledMachine(getAsNeededMachine());
         
 		iv_machineSet.add(iv_DailyMachine);
 		iv_machineSet.add(iv_SixTimesADayMachine);
@@ -1379,7 +1380,7 @@ public class FrequencyUnitFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 				BaseToken startToken = null;
@@ -1491,7 +1492,7 @@ public class FrequencyUnitFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -1517,7 +1518,7 @@ public class FrequencyUnitFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -1626,7 +1627,7 @@ public class FrequencyUnitFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -30,6 +30,7 @@ import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.RangeCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.FractionStrengthCondition;
@@ -188,9 +189,9 @@ public class RangeStrengthFSM
 		
 		iv_hyphenatedSet.add("nine-to-ten");
 		
-		iv_machineSet.add(getDashMachine());
-		iv_machineSet.add(getDotDashMachine());
-		iv_machineSet.add(getDashDashMachine());
+		iv_machineSet.add(new CompiledMachine(getDashMachine()));
+		iv_machineSet.add(new CompiledMachine(getDotDashMachine()));
+		iv_machineSet.add(new CompiledMachine(getDashDashMachine()));
 
 	}
 
@@ -426,7 +427,7 @@ public class RangeStrengthFSM
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext())
 			{
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -471,7 +472,7 @@ public class RangeStrengthFSM
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext())
 		{
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -496,7 +497,7 @@ public class RangeStrengthFSM
 	
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 	
 				fsm.input(token);
 	
@@ -533,7 +534,7 @@ public class RangeStrengthFSM
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 	
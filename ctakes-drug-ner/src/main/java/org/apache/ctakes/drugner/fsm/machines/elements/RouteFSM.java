@@ -30,6 +30,7 @@ import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.RangeCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.RangeStrengthCondition;
@@ -70,17 +71,17 @@ public class RouteFSM {
 	// contains the finite state machines
 	private Set iv_machineSet = new HashSet();
 	
-    private Machine iv_PatchesMachine;
+    private CompiledMachine iv_PatchesMachine;
     
-    private Machine iv_GastricMachine;
+    private CompiledMachine iv_GastricMachine;
     
-    private Machine iv_TopicalMachine;
+    private CompiledMachine iv_TopicalMachine;
     
-    private Machine iv_OralMachine;
+    private CompiledMachine iv_OralMachine;
     
-    private Machine iv_RectalMachine;
+    private CompiledMachine iv_RectalMachine;
     
-    private Machine iv_InjectMachine;
+    private CompiledMachine iv_InjectMachine;
     
 
 	/**
@@ -146,12 +147,12 @@ public class RouteFSM {
 		iv_middleTermSet.add("via");
 		iv_middleTermSet.add("tube");
 		iv_middleTermSet.add("in");
-		iv_PatchesMachine = getPatchesMachine();
-		iv_GastricMachine = getGastricMachine();
-		iv_TopicalMachine = getTopicalMachine();
-		iv_OralMachine = getOralMachine();
-		iv_RectalMachine = getRectalMachine();
-		iv_InjectMachine = getInjectionMachine();
+		iv_PatchesMachine = new CompiledMachine(getPatchesMachine());
+		iv_GastricMachine = new CompiledMachine(getGastricMachine());
+		iv_TopicalMachine = new CompiledMachine(getTopicalMachine());
+		iv_OralMachine = new CompiledMachine(getOralMachine());
+		iv_RectalMachine = new CompiledMachine(getRectalMachine());
+		iv_InjectMachine = new CompiledMachine(getInjectionMachine());
 		
 		iv_machineSet.add(iv_PatchesMachine);
 		iv_machineSet.add(iv_GastricMachine);
@@ -615,7 +616,7 @@ public class RouteFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -688,7 +689,7 @@ public class RouteFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -713,7 +714,7 @@ public class RouteFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -787,7 +788,7 @@ public class RouteFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
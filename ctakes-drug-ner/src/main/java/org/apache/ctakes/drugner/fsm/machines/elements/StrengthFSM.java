@@ -31,6 +31,7 @@ import org.apache.ctakes.core.fsm.condition.NegateCondition;
 import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
@@ -56,7 +57,7 @@ public class StrengthFSM {
 	Set iv_numberTextSet = new HashSet();
 //	Set iv_oneOfTwoTextSet = new HashSet();
 //	Set iv_twoOfTwoTextSet = new HashSet();
-	private Machine iv_strengthMachine;
+	private CompiledMachine iv_strengthMachine;
 	private Set iv_machineSet = new HashSet();
 
 	/**
@@ -78,7 +79,7 @@ public class StrengthFSM {
 		//Mayo SPM 2/20/2012 Changed due to separation of strength tokens	
 
 		
-		iv_strengthMachine = getStrengthMachine();
+		iv_strengthMachine = new CompiledMachine(getStrengthMachine());
 		iv_machineSet.add(iv_strengthMachine);
 
 
@@ -254,7 +255,7 @@ public class StrengthFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -323,7 +324,7 @@ public class StrengthFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -388,7 +389,7 @@ public class StrengthFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -451,7 +452,7 @@ public class StrengthFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -483,7 +484,7 @@ public class StrengthFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -541,7 +542,7 @@ public class StrengthFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
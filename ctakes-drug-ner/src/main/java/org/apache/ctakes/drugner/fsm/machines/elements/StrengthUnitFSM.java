@@ -28,6 +28,7 @@ import java.util.Set;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.SymbolValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.ContainsSetTextValueCondition;
@@ -49,8 +50,8 @@ public class StrengthUnitFSM {
 	Set<String> iv_fullTextSet = new HashSet();
 	Set iv_oneOfTwoTextSet = new HashSet();
 	Set iv_twoOfTwoTextSet = new HashSet();
-	private Machine iv_strengthMachine;
-	private Machine iv_strengthCombinedMachine;
+	private CompiledMachine iv_strengthMachine;
+	private CompiledMachine iv_strengthCombinedMachine;
 	private Set iv_machineSet = new HashSet();
 
 	/**
@@ -95,8 +96,8 @@ public class StrengthUnitFSM {
 		iv_fullTextSet.add("mg");
 		iv_fullTextSet.add("ou");
 		
-		iv_strengthMachine = getStrengthMachine();
-		iv_strengthCombinedMachine = getStrengthCombinedMachine();
+		iv_strengthMachine = new CompiledMachine(getStrengthMachine());
+		iv_strengthCombinedMachine = new CompiledMachine(getStrengthCombinedMachine());
 		iv_machineSet.add(iv_strengthCombinedMachine);
 		iv_machineSet.add(iv_strengthMachine);
 
@@ -272,7 +273,7 @@ public class StrengthUnitFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -347,7 +348,7 @@ public class StrengthUnitFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -412,7 +413,7 @@ public class StrengthUnitFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -480,7 +481,7 @@ public class StrengthUnitFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
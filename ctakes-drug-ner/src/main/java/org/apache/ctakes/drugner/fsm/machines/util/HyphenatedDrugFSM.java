@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.output.util.HyphenatedDrugToken;
@@ -133,7 +134,7 @@ public class HyphenatedDrugFSM {
 		iv_hyphenDrugSet.add("vitamin-d2");
 		iv_hyphenDrugSet.add("vitamin-e");
 
-		iv_machineSet.add(getDashMachine());
+		iv_machineSet.add(new CompiledMachine(getDashMachine()));
 
 	}
 
@@ -186,7 +187,7 @@ public class HyphenatedDrugFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -224,7 +225,7 @@ public class HyphenatedDrugFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -29,6 +29,7 @@ import org.apache.ctakes.core.fsm.condition.DisjoinCondition;
 import org.apache.ctakes.core.fsm.condition.NegateCondition;
 import org.apache.ctakes.core.fsm.condition.TextSetCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.machine.FSM;
 import org.apache.ctakes.core.fsm.output.NegationIndicator;
 import org.apache.ctakes.core.fsm.state.NamedState;
@@ -85,7 +86,7 @@ public class NegIndicatorFSM implements FSM
     // beginning with capitalize. E.g 'No'
     private Set iv_negInitialDeterminersSet = new HashSet();
     
-    private Machine iv_negInitialDetermineMachine = new Machine();
+    private CompiledMachine iv_negInitialDetermineMachine;
     /**
      * 
      * Constructor
@@ -253,10 +254,10 @@ public class NegIndicatorFSM implements FSM
         iv_negAdjectivesSet.add("unlikely");
         iv_negAdjectivesSet.add("negative");
 
-        iv_negInitialDetermineMachine = getInitialNegIndicatorMachine();
-        iv_machineSet.add(getAspectualNegIndicatorMachine());
-        iv_machineSet.add(getNominalNegIndicatorMachine());
-        iv_machineSet.add(getAdjNegIndicatorMachine());
+        iv_negInitialDetermineMachine = new CompiledMachine(getInitialNegIndicatorMachine());
+        iv_machineSet.add(new CompiledMachine(getAspectualNegIndicatorMachine()));
+        iv_machineSet.add(new CompiledMachine(getNominalNegIndicatorMachine()));
+        iv_machineSet.add(new CompiledMachine(getAdjNegIndicatorMachine()));
         iv_machineSet.add(iv_negInitialDetermineMachine);
 
     }
@@ -484,7 +485,7 @@ public class NegIndicatorFSM implements FSM
             Iterator machineItr = iv_machineSet.iterator();
             while (machineItr.hasNext())
             {
-                Machine fsm = (Machine) machineItr.next();
+                CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
                 fsm.input(token);
 
@@ -544,7 +545,7 @@ public class NegIndicatorFSM implements FSM
         Iterator itr = iv_machineSet.iterator();
         while (itr.hasNext())
         {
-            Machine fsm = (Machine) itr.next();
+            CompiledMachine fsm = (CompiledMachine) itr.next();
             fsm.reset();
         }
 
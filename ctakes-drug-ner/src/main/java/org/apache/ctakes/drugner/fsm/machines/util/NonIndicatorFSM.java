@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.ctakes.core.fsm.condition.TextSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
@@ -53,7 +54,7 @@ public class NonIndicatorFSM
     // beginning with capitalize. E.g 'No'
     private Set iv_negInitialDeterminersSet = new HashSet();
     
-    private Machine iv_negInitialDetermineMachine = new Machine();
+    private CompiledMachine iv_negInitialDetermineMachine;
     /**
      * 
      * Constructor
@@ -66,9 +67,9 @@ public class NonIndicatorFSM
         
         iv_negInitialDeterminersSet.add("No");
         
-        iv_negInitialDetermineMachine = getInitialNegIndicatorMachine();
+        iv_negInitialDetermineMachine = new CompiledMachine(getInitialNegIndicatorMachine());
 
-        iv_machineSet.add(getAdjNegIndicatorMachine());
+        iv_machineSet.add(new CompiledMachine(getAdjNegIndicatorMachine()));
         iv_machineSet.add(iv_negInitialDetermineMachine);
 
     }
@@ -143,7 +144,7 @@ public class NonIndicatorFSM
             Iterator machineItr = iv_machineSet.iterator();
             while (machineItr.hasNext())
             {
-                Machine fsm = (Machine) machineItr.next();
+                CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
                 fsm.input(token);
 
@@ -203,7 +204,7 @@ public class NonIndicatorFSM
         Iterator itr = iv_machineSet.iterator();
         while (itr.hasNext())
         {
-            Machine fsm = (Machine) itr.next();
+            CompiledMachine fsm = (CompiledMachine) itr.next();
             fsm.reset();
         }
 
@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.apache.ctakes.core.fsm.condition.TextSetCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.output.StatusIndicator;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
@@ -53,10 +54,10 @@ public class StatusIndicatorFSM
     private Set iv_familyHistorySet = new HashSet();
 
     // contains the finite state machines
-    private Machine iv_probableMachine;
-    private Machine iv_probableMachineNoTerm;
-    private Machine iv_historyMachine;
-    private Machine iv_familyHistoryMachine;
+    private CompiledMachine iv_probableMachine;
+    private CompiledMachine iv_probableMachineNoTerm;
+    private CompiledMachine iv_historyMachine;
+    private CompiledMachine iv_familyHistoryMachine;
     /**
 	 * Gets a finite state machine that detects the following:
 	 * <ol>
@@ -146,10 +147,10 @@ public class StatusIndicatorFSM
         iv_familyHistorySet.add("grandfather");
         iv_familyHistorySet.add("grandmother");
 
-        iv_historyMachine = getHistoryMachine();
-        iv_probableMachine = getProbableMachine();
-        iv_probableMachineNoTerm = getProbableMachineNonTerm();
-        iv_familyHistoryMachine = getFamilyHistoryMachine();
+        iv_historyMachine = new CompiledMachine(getHistoryMachine());
+        iv_probableMachine = new CompiledMachine(getProbableMachine());
+        iv_probableMachineNoTerm = new CompiledMachine(getProbableMachineNonTerm());
+        iv_familyHistoryMachine = new CompiledMachine(getFamilyHistoryMachine());
         iv_machineSet.add(iv_historyMachine);
         iv_machineSet.add(iv_probableMachineNoTerm);
         iv_machineSet.add(iv_probableMachine);
@@ -343,7 +344,7 @@ public class StatusIndicatorFSM
             Iterator machineItr = iv_machineSet.iterator();
             while (machineItr.hasNext())
             {
-                Machine m = (Machine) machineItr.next();
+                CompiledMachine m = (CompiledMachine) machineItr.next();
                 m.input(token);
 
                 State currentState = m.getCurrentState();
@@ -417,7 +418,7 @@ public class StatusIndicatorFSM
         Iterator itr = iv_machineSet.iterator();
         while (itr.hasNext())
         {
-            Machine m = (Machine) itr.next();
+            CompiledMachine m = (CompiledMachine) itr.next();
             m.reset();
         }
 
@@ -28,6 +28,7 @@ import java.util.Set;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.TextSetCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.machine.FSM;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
@@ -67,11 +68,11 @@ public class SubSectionIndicatorFSM implements FSM {
 	
 	private Set iv_probableSubEndSet = new HashSet();
 
-	private Machine iv_subSectionIDProbableMachine = new Machine();
+	private CompiledMachine iv_subSectionIDProbableMachine;
 
-	private Machine iv_subSectionIDHistoryMachine = new Machine();
+	private CompiledMachine iv_subSectionIDHistoryMachine;
 	
-	private Machine iv_subSectionIDConfirmMachine = new Machine();
+	private CompiledMachine iv_subSectionIDConfirmMachine;
 
 	/**
 	 * 
@@ -129,9 +130,9 @@ public class SubSectionIndicatorFSM implements FSM {
 		
 		iv_middleWordSet.add("and");
 		iv_middleWordSet.add("may");
-		iv_subSectionIDProbableMachine = getProbableSubSectionMachine();
-		iv_subSectionIDHistoryMachine = getHistorySubSectionMachine();
-		iv_subSectionIDConfirmMachine = getConfirmSubSectionMachine();
+		iv_subSectionIDProbableMachine = new CompiledMachine(getProbableSubSectionMachine());
+		iv_subSectionIDHistoryMachine = new CompiledMachine(getHistorySubSectionMachine());
+		iv_subSectionIDConfirmMachine = new CompiledMachine(getConfirmSubSectionMachine());
 		iv_machineSet.add(iv_subSectionIDProbableMachine);
 		iv_machineSet.add(iv_subSectionIDHistoryMachine);
 		iv_machineSet.add(iv_subSectionIDConfirmMachine);
@@ -194,7 +195,7 @@ public class SubSectionIndicatorFSM implements FSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -253,7 +254,7 @@ public class SubSectionIndicatorFSM implements FSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 	
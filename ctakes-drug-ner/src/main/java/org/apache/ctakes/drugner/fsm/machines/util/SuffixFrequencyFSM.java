@@ -29,6 +29,7 @@ import org.apache.ctakes.core.fsm.condition.IntegerCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.TextValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
 import org.apache.ctakes.drugner.fsm.elements.conditions.ContainsSetTextValueCondition;
@@ -236,9 +237,9 @@ public class SuffixFrequencyFSM {
 		iv_hyphenatedSet.add("eight-times-each-hour");
 		iv_hyphenatedSet.add("nine-times-each-hour");
 
-		iv_machineSet.add(getLatin3AbbreviationMachine());
-		iv_machineSet.add(getLatin2AbbreviationMachine());
-		iv_machineSet.add(getFrequencyMachine());
+		iv_machineSet.add(new CompiledMachine(getLatin3AbbreviationMachine()));
+		iv_machineSet.add(new CompiledMachine(getLatin2AbbreviationMachine()));
+		iv_machineSet.add(new CompiledMachine(getFrequencyMachine()));
 
 	}
 
@@ -780,7 +781,7 @@ public class SuffixFrequencyFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -818,7 +819,7 @@ public class SuffixFrequencyFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -843,7 +844,7 @@ public class SuffixFrequencyFSM {
 
 			Iterator machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = (Machine) machineItr.next();
+				CompiledMachine fsm = (CompiledMachine) machineItr.next();
 
 				fsm.input(token);
 
@@ -881,7 +882,7 @@ public class SuffixFrequencyFSM {
 		// reset machines
 		Iterator itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = (Machine) itr.next();
+			CompiledMachine fsm = (CompiledMachine) itr.next();
 			fsm.reset();
 		}
 
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner.ae;
+
+import org.apache.ctakes.core.ae.TokenizerAnnotatorPTB;
+import org.apache.ctakes.typesystem.type.constants.CONST;
+import org.apache.ctakes.typesystem.type.refsem.UmlsConcept;
+import org.apache.ctakes.typesystem.type.textsem.MedicationMention;
+import org.apache.ctakes.typesystem.type.textspan.Segment;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that holding drug elements in {@link org.apache.ctakes.drugner.DrugElementSpans} gives exactly the
+ * annotations that holding them in the cas gives.
+ */
+public class DrugMentionAnnotatorTest {
+
+   /**
+    * A medication list section, a narrative section and the drug names found in each line.
+    */
+   static private final String[][] SECTIONS = {
+         { "20103",
+               "Aspirin 81 mg tablet by mouth once daily for 2 weeks, then increase to 325 mg po bid.",
+               "Lasix 20-40 mg iv q6h prn, hold if SBP < 90, discontinued on 3/4.",
+               "Metoprolol 12.5 mg po b.i.d., 1/2 tablet three times a day.",
+               "Prednisone 10 mg daily x 10 days; taper off over 1 week.",
+               "Albuterol two puffs inhaled twice a day as needed, maximum dose 4 puffs per day." },
+         { "SIMPLE_SEGMENT",
+               "The patient was started on Coumadin 5 mg po qhs and Lisinopril 10 mg daily for 3 months.",
+               "Her Aspirin was stopped, and Metoprolol was increased to 50 mg bid.",
+               "She denies taking Insulin 10 units subcutaneous qhs.",
+               "Continue Lasix 40 mg every morning and Prednisone 5 mg daily until follow up in 2 weeks." }
+   };
+
+   static private final String[] DRUGS = { "Aspirin", "Lasix", "Metoprolol", "Prednisone", "Albuterol",
+         "Coumadin", "Lisinopril", "Insulin" };
+
+   @Test
+   public void testElementSpansGiveSameMentions() throws Exception {
+      final List<String> casElements = annotate( false );
+      final List<String> spanElements = annotate( true );
+      int strengths = 0;
+      int dosages = 0;
+      int frequencies = 0;
+      int durations = 0;
+      for ( String annotation : casElements ) {
+         if ( annotation.startsWith( MedicationMention.class.getName() ) ) {
+            strengths += annotation.contains( "medicationStrength=MedicationStrengthModifier" ) ? 1 : 0;
+            dosages += annotation.contains( "medicationDosage=MedicationDosageModifier" ) ? 1 : 0;
+            frequencies += annotation.contains( "medicationFrequency=MedicationFrequencyModifier" ) ? 1 : 0;
+            durations += annotation.contains( "medicationDuration=MedicationDurationModifier" ) ? 1 : 0;
+         }
+      }
+      // the notes exercise every element that the spans hold
+      assertTrue( "strengths " + strengths, strengths > 3 );
+      assertTrue( "dosages " + dosages, dosages > 0 );
+      assertTrue( "frequencies " + frequencies, frequencies > 3 );
+      assertTrue( "durations " + durations, durations > 0 );
+      assertEquals( casElements.size(), spanElements.size() );
+      for ( int i = 0; i < casElements.size(); i++ ) {
+         assertEquals( "Annotation " + i, casElements.get( i ), spanElements.get( i ) );
+      }
+   }
+
+   /**
+    * @param useElementSpans true to hold drug elements in span arrays
+    * @return a description of every annotation in the cas after drug ner
+    */
+   static private List<String> annotate( final boolean useElementSpans ) throws Exception {
+      final JCas jCas = createJCas();
+      final AnalysisEngine tokenizer = AnalysisEngineFactory.createEngine( TokenizerAnnotatorPTB.class );
+      tokenizer.process( jCas );
+      addDrugs( jCas );
+      final AnalysisEngine drugNer = AnalysisEngineFactory.createEngine( DrugMentionAnnotator.class,
+            DrugMentionAnnotator.PARAM_SEGMENTS_MEDICATION_RELATED, new String[]{ "20101", "20102", "20103" },
+            DrugMentionAnnotator.DISTANCE, "1",
+            DrugMentionAnnotator.DISTANCE_ANN_TYPE, Sentence.class.getName(),
+            DrugMentionAnnotator.BOUNDARY_ANN_TYPE, Sentence.class.getName(),
+            DrugMentionAnnotator.PARAM_ELEMENT_SPANS, useElementSpans );
+      drugNer.process( jCas );
+      final List<String> annotations = new ArrayList<>();
+      for ( Annotation annotation : JCasUtil.select( jCas, Annotation.class ) ) {
+         annotations.add( describe( annotation, 0 ) );
+      }
+      return annotations;
+   }
+
+   static private JCas createJCas() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      final StringBuilder text = new StringBuilder();
+      final List<int[]> sentences = new ArrayList<>();
+      final List<int[]> segments = new ArrayList<>();
+      for ( String[] section : SECTIONS ) {
+         final int segmentBegin = text.length();
+         for ( int i = 1; i < section.length; i++ ) {
+            sentences.add( new int[]{ text.length(), text.length() + section[ i ].length() } );
+            text.append( section[ i ] ).append( '\n' );
+         }
+         segments.add( new int[]{ segmentBegin, text.length() } );
+         text.append( '\n' );
+      }
+      jCas.setDocumentText( text.toString() );
+      for ( int i = 0; i < SECTIONS.length; i++ ) {
+         final Segment segment = new Segment( jCas, segments.get( i )[ 0 ], segments.get( i )[ 1 ] );
+         segment.setId( SECTIONS[ i ][ 0 ] );
+         segment.addToIndexes();
+      }
+      for ( int[] span : sentences ) {
+         new Sentence( jCas, span[ 0 ], span[ 1 ] ).addToIndexes();
+      }
+      return jCas;
+   }
+
+   /**
+    * Adds the drug names as a dictionary lookup would.
+    */
+   static private void addDrugs( final JCas jCas ) {
+      final String text = jCas.getDocumentText();
+      for ( String drug : DRUGS ) {
+         int begin = text.indexOf( drug );
+         while ( begin >= 0 ) {
+            final MedicationMention mention = new MedicationMention( jCas, begin, begin + drug.length() );
+            mention.setTypeID( CONST.NE_TYPE_ID_DRUG );
+            final UmlsConcept concept = new UmlsConcept( jCas );
+            concept.setCodingScheme( "RXNORM" );
+            concept.setCode( drug.toLowerCase() );
+            final FSArray concepts = new FSArray( jCas, 1 );
+            concepts.set( 0, concept );
+            mention.setOntologyConceptArr( concepts );
+            mention.addToIndexes();
+            begin = text.indexOf( drug, begin + 1 );
+         }
+      }
+   }
+
+   /**
+    * @return type, span and features of the structure, with referenced structures described to a small depth
+    */
+   static private String describe( final FeatureStructure fs, final int depth ) {
+      final Type type = fs.getType();
+      final StringBuilder sb = new StringBuilder( depth == 0 ? type.getName() : type.getShortName() );
+      if ( fs instanceof Annotation ) {
+         sb.append( ' ' ).append( ((Annotation)fs).getBegin() ).append( ' ' ).append( ((Annotation)fs).getEnd() );
+      }
+      sb.append( '[' );
+      for ( Feature feature : type.getFeatures() ) {
+         final String name = feature.getShortName();
+         if ( name.equals( "sofa" ) || name.equals( "begin" ) || name.equals( "end" ) ) {
+            continue;
+         }
+         sb.append( ' ' ).append( name ).append( '=' );
+         if ( feature.getRange().isPrimitive() ) {
+            sb.append( fs.getFeatureValueAsString( feature ) );
+         } else {
+            final FeatureStructure value = fs.getFeatureValue( feature );
+            if ( value == null ) {
+               sb.append( "null" );
+            } else if ( depth < 3 ) {
+               sb.append( describe( value, depth + 1 ) );
+            } else {
+               sb.append( value.getType().getShortName() );
+            }
+         }
+      }
+      return sb.append( " ]" ).toString();
+   }
+
+}
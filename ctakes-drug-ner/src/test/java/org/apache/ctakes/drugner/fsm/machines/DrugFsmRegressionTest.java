@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner.fsm.machines;
+
+import org.apache.ctakes.core.ae.TokenizerAnnotator;
+import org.apache.ctakes.core.fsm.adapters.ContractionTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.DecimalTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.IntegerTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.PunctuationTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.SymbolTokenAdapter;
+import org.apache.ctakes.core.fsm.adapters.WordTokenAdapter;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.core.nlp.tokenizer.TokenizerPTB;
+import org.apache.ctakes.drugner.fsm.machines.elements.DecimalStrengthFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.DosagesFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.DrugChangeStatusFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.DurationFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.FormFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.FractionStrengthFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.FrequencyFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.FrequencyUnitFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.RangeStrengthFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.RouteFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.StrengthFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.StrengthUnitFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.HyphenatedDrugFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.NegIndicatorFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.NonIndicatorFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.StatusIndicatorFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.SubSectionIndicatorFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.SuffixFrequencyFSM;
+import org.apache.ctakes.drugner.fsm.machines.util.SuffixStrengthFSM;
+import org.apache.ctakes.typesystem.type.syntax.ContractionToken;
+import org.apache.ctakes.typesystem.type.syntax.NumToken;
+import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.SymbolToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Checks that the drug fsms, which run on compiled machines, give exactly the outputs
+ * that they gave on openai fsm machines for a corpus of medication sentences.
+ */
+public class DrugFsmRegressionTest {
+
+   static private final String EXPECTED_OUTPUTS = "org/apache/ctakes/drugner/fsm/machines/drug-fsm-regression-outputs.txt";
+
+   static private final Class<?>[] FSMS = {
+         DecimalStrengthFSM.class, DosagesFSM.class, DrugChangeStatusFSM.class, DurationFSM.class, FormFSM.class,
+         FractionStrengthFSM.class, FrequencyFSM.class, FrequencyUnitFSM.class, RangeStrengthFSM.class,
+         RouteFSM.class, StrengthFSM.class, StrengthUnitFSM.class, HyphenatedDrugFSM.class, NegIndicatorFSM.class,
+         NonIndicatorFSM.class, StatusIndicatorFSM.class, SubSectionIndicatorFSM.class, SuffixFrequencyFSM.class,
+         SuffixStrengthFSM.class
+   };
+
+   static private final String[] SENTENCES = {
+         "Aspirin 81 mg tablet by mouth once daily for 2 weeks, then increase to 325 mg po bid.",
+         "Lasix 20-40 mg iv q6h prn, hold if SBP < 90, discontinued on 3/4.",
+         "Metoprolol 12.5 mg po b.i.d., 1/2 tablet three times a day, 2.5 mg/kg every 4-6 hours as needed.",
+         "Take two puffs inhaled twice a day x 10 days; taper off over 1 week; maximum dose 4 g per day.",
+         "No history of allergies.  Patient denies taking insulin 10 units subcutaneous qhs.",
+   };
+
+   static private final String[] WORDS = ( "aspirin tablet tablets po by mouth bid tid q.i.d. qid every 4 6 8 hours "
+         + "increase decrease increased stop start started discontinue discontinued mg mcg units unit times a day "
+         + "daily once twice prn as needed for pain weeks days x capsule orally iv subcutaneous injection topical "
+         + "sustained release dosage maximum max hold taper tapering - / one two three half 1/2 0.5 2-3 10-20 "
+         + "Medications : Allergies history of no not denies never , . ( ) 1 2 5 10 25 100 1.5 q4h q6h qd qhs at "
+         + "bedtime morning evening inhaled puff puffs drops ml cc teaspoon tsp gram g % cream ointment patch "
+         + "solution spray week month months weekly monthly then reduce dose change continue continued resume off "
+         + "on until through 3x 2x alternate days other hs ac pc with meals" ).split( " " );
+
+   /**
+    * The openai fsm machines gave these outputs before the fsms were moved to compiled machines.
+    */
+   @Test
+   public void testSameOutputs() throws Exception {
+      final List<String> expected = readExpectedOutputs();
+      final List<String> actual = describeCorpus();
+      assertEquals( expected.size(), actual.size() );
+      for ( int i = 0; i < expected.size(); i++ ) {
+         assertEquals( "Output " + i, expected.get( i ), actual.get( i ) );
+      }
+   }
+
+   static private List<String> readExpectedOutputs() throws IOException {
+      final InputStream stream = DrugFsmRegressionTest.class.getClassLoader().getResourceAsStream( EXPECTED_OUTPUTS );
+      assertNotNull( EXPECTED_OUTPUTS, stream );
+      final List<String> lines = new ArrayList<>();
+      try ( BufferedReader reader = new BufferedReader( new InputStreamReader( stream, StandardCharsets.UTF_8 ) ) ) {
+         String line = reader.readLine();
+         while ( line != null ) {
+            lines.add( line );
+            line = reader.readLine();
+         }
+      }
+      return lines;
+   }
+
+   /**
+    * Every execute method of every fsm is run on each sentence, once with empty override sets
+    * and once with the outputs of all of the fsms as the first override set.
+    *
+    * @return a line for each output of each fsm, for the fixed sentences and for random word sequences
+    */
+   static List<String> describeCorpus() throws Exception {
+      final List<String> sentences = new ArrayList<>( Arrays.asList( SENTENCES ) );
+      final Random random = new Random( 1019 );
+      for ( int i = 0; i < 150; i++ ) {
+         final StringBuilder sb = new StringBuilder();
+         final int length = 1 + random.nextInt( 14 );
+         for ( int j = 0; j < length; j++ ) {
+            sb.append( WORDS[ random.nextInt( WORDS.length ) ] ).append( ' ' );
+         }
+         sentences.add( sb.toString().trim() );
+      }
+      final JCas jcas = JCasFactory.createJCas();
+      jcas.setDocumentText( String.join( "\n", sentences ) );
+      final List<Object> fsms = new ArrayList<>();
+      for ( Class<?> fsmClass : FSMS ) {
+         fsms.add( fsmClass.newInstance() );
+      }
+      final List<String> lines = new ArrayList<>();
+      int offset = 0;
+      for ( int i = 0; i < sentences.size(); i++ ) {
+         final List<BaseToken> tokens = adaptTokens( jcas, sentences.get( i ), offset );
+         offset += sentences.get( i ).length() + 1;
+         final List<BaseToken> outputs = new ArrayList<>();
+         for ( Object fsm : fsms ) {
+            final Method execute = getExecute( fsm, 1 );
+            if ( execute != null ) {
+               try {
+                  outputs.addAll( execute( execute, fsm, tokens ) );
+               } catch ( InvocationTargetException itException ) {
+                  // some fsms throw for token sequences that their machines do not handle
+               }
+            }
+         }
+         outputs.sort( Comparator.comparingInt( BaseToken::getStartOffset )
+                                 .thenComparingInt( BaseToken::getEndOffset )
+                                 .thenComparing( t -> t.getClass().getName() ) );
+         final Set<BaseToken> overrides = new LinkedHashSet<>( outputs );
+         for ( Object fsm : fsms ) {
+            for ( int arity = 1; arity <= 3; arity++ ) {
+               final Method execute = getExecute( fsm, arity );
+               if ( execute == null ) {
+                  continue;
+               }
+               for ( int variant = 0; variant < (arity == 1 ? 1 : 2); variant++ ) {
+                  final Object[] args = new Object[ arity ];
+                  args[ 0 ] = tokens;
+                  for ( int k = 1; k < arity; k++ ) {
+                     args[ k ] = variant == 1 && k == 1 ? overrides : new HashSet<>();
+                  }
+                  final String prefix = i + " " + fsm.getClass().getSimpleName() + arity + variant + " ";
+                  final List<String> fsmLines = new ArrayList<>();
+                  try {
+                     for ( BaseToken token : execute( execute, fsm, args ) ) {
+                        fsmLines.add( prefix + describe( token ) );
+                     }
+                  } catch ( InvocationTargetException itException ) {
+                     fsmLines.add( prefix + "EXC " + itException.getCause().getClass().getName() );
+                  }
+                  Collections.sort( fsmLines );
+                  lines.addAll( fsmLines );
+               }
+            }
+         }
+      }
+      return lines;
+   }
+
+   static private Method getExecute( final Object fsm, final int arity ) {
+      for ( Method method : fsm.getClass().getMethods() ) {
+         if ( method.getName().equals( "execute" ) && method.getParameterCount() == arity ) {
+            return method;
+         }
+      }
+      return null;
+   }
+
+   @SuppressWarnings( "unchecked" )
+   static private Collection<BaseToken> execute( final Method execute, final Object fsm, final Object... args )
+         throws IllegalAccessException, InvocationTargetException {
+      return (Collection<BaseToken>)execute.invoke( fsm, args );
+   }
+
+   /**
+    * @return the type, offsets and simple properties of an output token
+    */
+   static private String describe( final BaseToken token ) {
+      final StringBuilder sb = new StringBuilder( token.getClass().getSimpleName() )
+            .append( ' ' ).append( token.getStartOffset() )
+            .append( ' ' ).append( token.getEndOffset() );
+      final List<String> properties = new ArrayList<>();
+      for ( Method method : token.getClass().getMethods() ) {
+         if ( method.getParameterCount() == 0 && method.getDeclaringClass() != Object.class
+              && method.getName().startsWith( "get" ) && !method.getName().endsWith( "Offset" )
+              && (method.getReturnType().isPrimitive() || method.getReturnType() == String.class) ) {
+            try {
+               properties.add( method.getName() + "=" + method.invoke( token ) );
+            } catch ( ReflectiveOperationException roException ) {
+               properties.add( method.getName() + "!" );
+            }
+         }
+      }
+      Collections.sort( properties );
+      for ( String property : properties ) {
+         sb.append( ' ' ).append( property );
+      }
+      return sb.toString();
+   }
+
+   static private List<BaseToken> adaptTokens( final JCas jcas, final String sentence, final int offset ) {
+      final List<BaseToken> tokens = new ArrayList<>();
+      for ( Object token : new TokenizerPTB().tokenizeTextSegment( jcas, sentence, offset, true ) ) {
+         if ( token instanceof WordToken ) {
+            tokens.add( new WordTokenAdapter( (WordToken)token ) );
+         } else if ( token instanceof NumToken ) {
+            if ( ((NumToken)token).getNumType() == TokenizerAnnotator.TOKEN_NUM_TYPE_INTEGER ) {
+               tokens.add( new IntegerTokenAdapter( (NumToken)token ) );
+            } else {
+               tokens.add( new DecimalTokenAdapter( (NumToken)token ) );
+            }
+         } else if ( token instanceof PunctuationToken ) {
+            tokens.add( new PunctuationTokenAdapter( (PunctuationToken)token ) );
+         } else if ( token instanceof ContractionToken ) {
+            tokens.add( new ContractionTokenAdapter( (ContractionToken)token ) );
+         } else if ( token instanceof SymbolToken ) {
+            tokens.add( new SymbolTokenAdapter( (SymbolToken)token ) );
+         }
+      }
+      return tokens;
+   }
+
+}
@@ -45,6 +45,7 @@ import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.ListFactory;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResource;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResourceImpl;
+import org.apache.ctakes.lvg.table.LvgTable;
 import org.apache.ctakes.typesystem.type.syntax.Lemma;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
@@ -198,6 +199,18 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 	    )
 	private String[] wordsToExclude = defaultExclusionWords;
   private Set<String> exclusionSet;
+
+	/**
+	 * Value is "LvgTableLocation". This parameter points to a precompiled
+	 * lvg table created by {@link org.apache.ctakes.lvg.table.LvgTableWriter}.
+	 */
+	public static final String PARAM_LVG_TABLE = "LvgTableLocation";
+	@ConfigurationParameter(
+	    name = PARAM_LVG_TABLE,
+	    mandatory = false,
+	    description = "Path to a precompiled lvg table that is checked before the cache and lvg api"
+	    )
+  private String lvgTableLocation;
   
 	// LOG4J logger based on class name
 	private Logger logger = Logger.getLogger(getClass().getName());
@@ -213,6 +226,8 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 	private LvgLexItemApi lvgLexItem;
 
+	private LvgTable lvgTable;
+
 	// key = word, value = canonical word
 	private Map<String, String> normCacheMap;
 
@@ -232,7 +247,9 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 		configInit();
 		try {
-			lvgCmd = lvgResource.getLvg();
+			if (lvgTableLocation != null && !lvgTableLocation.isEmpty()) {
+				lvgTable = LvgTable.getInstance(lvgTableLocation);
+			}
 
 			if (useCmdCache) {
 				logger.info("Loading Cmd cache=" + cmdCacheFileLocation);
@@ -241,7 +258,6 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 			}
 
 			if (postLemmas) {
-				lvgLexItem = lvgResource.getLvgLex();
 				if (useLemmaCache) {
 					logger.info("Loading Lemma cache=" + lemmaCacheFileLocation);
 					loadLemmaCacheFile(lemmaCacheFileLocation);
@@ -353,6 +369,15 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 			throws AnalysisEngineProcessException {
 		// apply LVG processing to get canonical form
 		String canonicalForm = null;
+		if (lvgTable != null) {
+			canonicalForm = lvgTable.getNormalizedForm(word);
+			if (canonicalForm != null) {
+				if (!canonicalForm.isEmpty()) {
+					wordAnnotation.setCanonicalForm(canonicalForm);
+				}
+				return;
+			}
+		}
 		if (useCmdCache) {
 			canonicalForm = normCacheMap.get(word);
 			if (canonicalForm == null) {
@@ -363,6 +388,10 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		// only apply LVG processing if not found in cache first
 		if (canonicalForm == null) {
 			try {
+				if (lvgCmd == null) {
+					// the lvg api is only opened once a word is missing from the table and cache
+					lvgCmd = lvgResource.getLvg();
+				}
 				String out = lvgCmd.MutateToString(word);
 
 				String[] output = out.split("\\|");
@@ -388,7 +417,17 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		// key = lemma string, value = Set of POS tags
 		Map<String, Set<String>> lemmaMap = null;
 
-		if (useLemmaCache) {
+		if (lvgTable != null) {
+			Map<String, Long> tableLemmas = lvgTable.getLemmas(word);
+			if (tableLemmas != null) {
+				lemmaMap = new HashMap<>();
+				for (Map.Entry<String, Long> tableLemma : tableLemmas.entrySet()) {
+					addLemmaPos(lemmaMap, tableLemma.getKey(), tableLemma.getValue());
+				}
+			}
+		}
+
+		if (lemmaMap == null && useLemmaCache) {
 			Set<?> lemmaSet = lemmaCacheMap.get(word);
 			if (lemmaSet == null) {
 				// logger.info("["+ word+
@@ -406,6 +445,9 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		if (lemmaMap == null) {
 			lemmaMap = new HashMap<>();
 			try {
+				if (lvgLexItem == null) {
+					lvgLexItem = lvgResource.getLvgLex();
+				}
 				Vector<?> lexItems = lvgLexItem.MutateLexItem(word);
 				Iterator<?> lexItemItr = lexItems.iterator();
 				while (lexItemItr.hasNext()) {
@@ -413,24 +455,7 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 					Category c = li.GetTargetCategory();
 					String lemmaStr = li.GetTargetTerm();
-					long[] bitValues = Category.ToValuesArray(c.GetValue());
-					for (int i = 0; i < bitValues.length; i++) {
-						// note that POS is Xerox tagset
-						String lemmaPos = Category.ToName(bitValues[i]);
-						// convert Xerox tagset to PennTreebank tagset
-						String treebankTag = xeroxTreebankMap
-								.get(lemmaPos);
-						if (treebankTag != null) {
-							Set<String> posSet = null;
-							if (lemmaMap.containsKey(lemmaStr)) {
-								posSet = lemmaMap.get(lemmaStr);
-							} else {
-								posSet = new HashSet<>();
-							}
-							posSet.add(treebankTag);
-							lemmaMap.put(lemmaStr, posSet);
-						}
-					}
+					addLemmaPos(lemmaMap, lemmaStr, c.GetValue());
 				}
 			} catch (Exception e) {
 				throw new AnalysisEngineProcessException(e);
@@ -459,6 +484,27 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		wordAnnotation.setLemmaEntries(fsList);
 	}
 
+	/**
+	 * Adds the Treebank equivalents of lvg category bits to the pos tags of a lemma.
+	 */
+	private void addLemmaPos(Map<String, Set<String>> lemmaMap, String lemmaStr, long categories) {
+		long[] bitValues = Category.ToValuesArray(categories);
+		for (int i = 0; i < bitValues.length; i++) {
+			// note that POS is Xerox tagset
+			String lemmaPos = Category.ToName(bitValues[i]);
+			// convert Xerox tagset to PennTreebank tagset
+			String treebankTag = xeroxTreebankMap.get(lemmaPos);
+			if (treebankTag != null) {
+				Set<String> posSet = lemmaMap.get(lemmaStr);
+				if (posSet == null) {
+					posSet = new HashSet<>();
+					lemmaMap.put(lemmaStr, posSet);
+				}
+				posSet.add(treebankTag);
+			}
+		}
+	}
+
 	/**
 	 * Helper method that loads a Norm cache file.
 	 * 
@@ -21,6 +21,7 @@ package org.apache.ctakes.lvg.ae;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.ListFactory;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResource;
+import org.apache.ctakes.lvg.table.LvgTable;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.Lemma;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
@@ -92,6 +93,11 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 	 * the frequency of a lemma to be loaded into the cache.
 	 */
 	public static final String PARAM_LEMMA_CACHE_FREQUENCY_CUTOFF = "LemmaCacheFrequencyCutoff";
+	/**
+	 * Value is "LvgTableLocation". This optional parameter points to a
+	 * precompiled lvg table that is checked before the cache and lvg api.
+	 */
+	public static final String PARAM_LVG_TABLE = "LvgTableLocation";
 
 	// LOG4J logger based on class name
 	private Logger logger = Logger.getLogger(getClass().getName());
@@ -102,6 +108,10 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 
 	private LvgLexItemApi lvgLexItem;
 
+	private LvgCmdApiResource lvgResource;
+
+	private LvgTable lvgTable;
+
 	private UimaContext context;
 
 	private boolean useSegments;
@@ -141,7 +151,7 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 		configInit();
 
 		try {
-			LvgCmdApiResource lvgResource = (LvgCmdApiResource) context
+			lvgResource = (LvgCmdApiResource) context
 					.getResourceObject(LVGCMDAPI_RESRC_KEY);
 
 			if (lvgResource == null)
@@ -149,7 +159,11 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 						"Unable to locate resource with key="
 								+ LVGCMDAPI_RESRC_KEY + "."));
 
-			lvgCmd = lvgResource.getLvg();
+			String lvgTableLocation = (String) context
+					.getConfigParameterValue(PARAM_LVG_TABLE);
+			if (lvgTableLocation != null && !lvgTableLocation.isEmpty()) {
+				lvgTable = LvgTable.getInstance(lvgTableLocation);
+			}
 
 			if (useCmdCache) {
 				logger.info("Loading Cmd cache=" + cmdCacheFileLocation);
@@ -158,7 +172,6 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 			}
 
 			if (postLemmas) {
-				lvgLexItem = lvgResource.getLvgLex();
 				if (useLemmaCache) {
 					logger.info("Loading Lemma cache=" + lemmaCacheFileLocation);
 					loadLemmaCacheFile(lemmaCacheFileLocation);
@@ -303,6 +316,15 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 			throws AnalysisEngineProcessException {
 		// apply LVG processing to get canonical form
 		String normalizedForm = null;
+		if (lvgTable != null) {
+			normalizedForm = lvgTable.getNormalizedForm(token);
+			if (normalizedForm != null) {
+				if (!normalizedForm.isEmpty()) {
+					tokenAnnotation.setNormalizedForm(normalizedForm);
+				}
+				return;
+			}
+		}
 		if (useCmdCache) {
 			normalizedForm = (String) normCacheMap.get(token);
 			if (normalizedForm == null) {
@@ -313,6 +335,10 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 		// only apply LVG processing if not found in cache first
 		if (normalizedForm == null) {
 			try {
+				if (lvgCmd == null) {
+					// the lvg api is only opened once a token is missing from the table and cache
+					lvgCmd = lvgResource.getLvg();
+				}
 				String out = lvgCmd.MutateToString(token);
 
 				String[] output = out.split("\\|");
@@ -338,7 +364,17 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 		// key = lemma string, value = Set of POS tags
 		Map lemmaMap = null;
 
-		if (useLemmaCache) {
+		if (lvgTable != null) {
+			Map<String, Long> tableLemmas = lvgTable.getLemmas(word);
+			if (tableLemmas != null) {
+				lemmaMap = new HashMap();
+				for (Map.Entry<String, Long> tableLemma : tableLemmas.entrySet()) {
+					addLemmaPos(lemmaMap, tableLemma.getKey(), tableLemma.getValue());
+				}
+			}
+		}
+
+		if (lemmaMap == null && useLemmaCache) {
 			Set lemmaSet = (Set) lemmaCacheMap.get(word);
 			if (lemmaSet == null) {
 				// logger.info("["+ word+
@@ -356,6 +392,9 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 		if (lemmaMap == null) {
 			lemmaMap = new HashMap();
 			try {
+				if (lvgLexItem == null) {
+					lvgLexItem = lvgResource.getLvgLex();
+				}
 				Vector lexItems = lvgLexItem.MutateLexItem(word);
 				Iterator lexItemItr = lexItems.iterator();
 				while (lexItemItr.hasNext()) {
@@ -363,24 +402,7 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 
 					Category c = li.GetTargetCategory();
 					String lemmaStr = li.GetTargetTerm();
-					long[] bitValues = Category.ToValuesArray(c.GetValue());
-					for (int i = 0; i < bitValues.length; i++) {
-						// note that POS is Xerox tagset
-						String lemmaPos = Category.ToName(bitValues[i]);
-						// convert Xerox tagset to PennTreebank tagset
-						String treebankTag = (String) xeroxTreebankMap
-								.get(lemmaPos);
-						if (treebankTag != null) {
-							Set posSet = null;
-							if (lemmaMap.containsKey(lemmaStr)) {
-								posSet = (Set) lemmaMap.get(lemmaStr);
-							} else {
-								posSet = new HashSet();
-							}
-							posSet.add(treebankTag);
-							lemmaMap.put(lemmaStr, posSet);
-						}
-					}
+					addLemmaPos(lemmaMap, lemmaStr, c.GetValue());
 				}
 			} catch (Exception e) {
 				throw new AnalysisEngineProcessException(e);
@@ -409,6 +431,27 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 		wordAnnotation.setLemmaEntries(fsList);
 	}
 
+	/**
+	 * Adds the Treebank equivalents of lvg category bits to the pos tags of a lemma.
+	 */
+	private void addLemmaPos(Map lemmaMap, String lemmaStr, long categories) {
+		long[] bitValues = Category.ToValuesArray(categories);
+		for (int i = 0; i < bitValues.length; i++) {
+			// note that POS is Xerox tagset
+			String lemmaPos = Category.ToName(bitValues[i]);
+			// convert Xerox tagset to PennTreebank tagset
+			String treebankTag = (String) xeroxTreebankMap.get(lemmaPos);
+			if (treebankTag != null) {
+				Set posSet = (Set) lemmaMap.get(lemmaStr);
+				if (posSet == null) {
+					posSet = new HashSet();
+					lemmaMap.put(lemmaStr, posSet);
+				}
+				posSet.add(treebankTag);
+			}
+		}
+	}
+
 	/**
 	 * Helper method that loads a Norm cache file.
 	 * 
@@ -41,6 +41,12 @@ import org.apache.uima.resource.SharedResourceObject;
  * AUTO_MODE indicates to lvg to look in the current working directory for
  * its files, so using AUTO_MODE requires this class to change the current 
  * working directory temporarily so the lvg files can be found by lvg.
+ * The working directory is a JVM-wide property, so it is only changed while
+ * holding a static lock; pipelines created on several threads are safe.
+ *
+ * Lvg and its hsqldb database are opened on the first call to {@link #getLvg()}
+ * or {@link #getLvgLex()}, so annotators that find all of their words in a
+ * precompiled {@link org.apache.ctakes.lvg.table.LvgTable} never pay for them.
  *
  * @author Mayo Clinic
  */
@@ -50,19 +56,38 @@ public class LvgCmdApiResourceImpl
     // LOG4J logger based on class name
     private Logger logger = Logger.getLogger(getClass().getName());
 
+    private File configFile;
     private LvgCmdApi lvg;
     private LvgLexItemApi lvgLexItem;
     
     private static String CWD_PROPERTY = "user.dir"; // Name of property for current working directory
+    private static final Object CWD_LOCK = new Object(); // Held while CWD_PROPERTY is changed
     
     public void load(DataResource dr) throws ResourceInitializationException
+    {
+    	configFile = new File(dr.getUrl().toExternalForm());
+    	logger.info("LVG config file = " + configFile.getPath());
+    }
+
+    /**
+     * Opens lvg if it has not already been opened.
+     */
+    private synchronized void loadLvg()
+    {
+    	if (lvg != null) {
+    		return;
+    	}
+    	synchronized ( CWD_LOCK ) {
+    		loadLvgInDirectory();
+    	}
+    }
+
+    private void loadLvgInDirectory()
     {
     	String configFileName = null;
     	String cwd = null;
     	try
     	{
-    		
-    		File configFile = new File(dr.getUrl().toExternalForm());
 	        configFileName = configFile.getPath();
 	         
 	        logger.info("Loading NLM Norm and Lvg with config file = " + configFileName);
@@ -167,6 +192,7 @@ public class LvgCmdApiResourceImpl
      * @see org.apache.ctakes.lvg.resource.LvgCmdApiResource#getLvg()
      */
     public LvgCmdApi getLvg() {
+    	loadLvg();
     	return lvg;
     }
 
@@ -174,6 +200,7 @@ public class LvgCmdApiResourceImpl
      * The thing to run through Lvg
      */
 	public LvgLexItemApi getLvgLex() {
+		loadLvg();
 		return lvgLexItem;
 	}
 
@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.lvg.table;
+
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped table of lvg normalized forms and lemmas, as written by {@link LvgTableWriter}.
+ * <p>
+ * The table lets the lvg annotators skip the hsqldb backed lvg api and the text cache files for every word that it
+ * contains.  Nothing is parsed when the table is opened, so startup time and heap use do not depend on table size.
+ * A single instance can be shared by all threads.
+ * </p>
+ * Layout, all values big-endian:
+ * <pre>
+ *   int    magic {@link #MAGIC}
+ *   int    version {@link #VERSION}
+ *   int    entry count n
+ *   int[n] entry offsets from the start of the file, entries sorted by the utf-8 bytes of their words
+ *   entry: short word length, word bytes, byte flags,
+ *          [short norm length, norm bytes]                      if {@link #HAS_NORM}
+ *          [short lemma count, (short length, bytes, long categories)*]   if {@link #HAS_LEMMAS}
+ * </pre>
+ * A norm length of zero indicates that lvg produces no output for the word.
+ */
+final public class LvgTable {
+
+   static private final Logger LOGGER = Logger.getLogger( "LvgTable" );
+
+   static final int MAGIC = 0x4C564754;
+   static final int VERSION = 1;
+   static final byte HAS_NORM = 0x1;
+   static final byte HAS_LEMMAS = 0x2;
+
+   /**
+    * Returned by {@link #getNormalizedForm(String)} when the word is known but lvg produces no output for it.
+    */
+   static public final String NO_OUTPUT = "";
+
+   static private final Map<String, LvgTable> TABLES = new HashMap<>();
+
+   private final ByteBuffer _buffer;
+   private final int _entryCount;
+
+   /**
+    * @param location path to the table file, following the rules of {@link FileLocator}
+    * @return a table shared with every other caller that used the same location
+    * @throws IOException if the table cannot be found or is not a valid lvg table
+    */
+   static public LvgTable getInstance( final String location ) throws IOException {
+      synchronized ( TABLES ) {
+         LvgTable table = TABLES.get( location );
+         if ( table == null ) {
+            final File file = FileLocator.getFile( location );
+            LOGGER.info( "Mapping LVG table " + file.getPath() );
+            table = new LvgTable( file );
+            LOGGER.info( "Mapped " + table.size() + " LVG table entries" );
+            TABLES.put( location, table );
+         }
+         return table;
+      }
+   }
+
+   /**
+    * @param file lvg table file
+    * @throws IOException if the file cannot be mapped or is not a valid lvg table
+    */
+   public LvgTable( final File file ) throws IOException {
+      if ( !file.canRead() ) {
+         throw new FileNotFoundException( "Unable to read LVG table " + file.getPath() );
+      }
+      try ( RandomAccessFile raf = new RandomAccessFile( file, "r" );
+            FileChannel channel = raf.getChannel() ) {
+         final MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+         if ( buffer.getInt( 0 ) != MAGIC ) {
+            throw new IOException( file.getPath() + " is not an LVG table" );
+         }
+         if ( buffer.getInt( 4 ) != VERSION ) {
+            throw new IOException( "Unsupported LVG table version " + buffer.getInt( 4 ) + " in " + file.getPath() );
+         }
+         _buffer = buffer;
+         _entryCount = buffer.getInt( 8 );
+      }
+   }
+
+   /**
+    * @return number of words in the table
+    */
+   public int size() {
+      return _entryCount;
+   }
+
+   /**
+    * @param word -
+    * @return the normalized form of the word, {@link #NO_OUTPUT} if lvg produces none,
+    * or null if the table does not hold a normalized form for the word
+    */
+   public String getNormalizedForm( final String word ) {
+      final int entry = findEntry( word );
+      if ( entry < 0 ) {
+         return null;
+      }
+      final int flagIndex = entry + 2 + _buffer.getShort( entry );
+      if ( (_buffer.get( flagIndex ) & HAS_NORM) == 0 ) {
+         return null;
+      }
+      return readString( flagIndex + 1 );
+   }
+
+   /**
+    * @param word -
+    * @return map of lemma to lvg (Xerox) category bits, empty if lvg has no lemmas for the word,
+    * or null if the table does not hold lemmas for the word
+    */
+   public Map<String, Long> getLemmas( final String word ) {
+      final int entry = findEntry( word );
+      if ( entry < 0 ) {
+         return null;
+      }
+      final int flagIndex = entry + 2 + _buffer.getShort( entry );
+      final byte flags = _buffer.get( flagIndex );
+      if ( (flags & HAS_LEMMAS) == 0 ) {
+         return null;
+      }
+      int index = flagIndex + 1;
+      if ( (flags & HAS_NORM) != 0 ) {
+         index += 2 + _buffer.getShort( index );
+      }
+      final int lemmaCount = _buffer.getShort( index );
+      if ( lemmaCount == 0 ) {
+         return Collections.emptyMap();
+      }
+      index += 2;
+      final Map<String, Long> lemmas = new LinkedHashMap<>( lemmaCount );
+      for ( int i = 0; i < lemmaCount; i++ ) {
+         final String lemma = readString( index );
+         index += 2 + _buffer.getShort( index );
+         lemmas.put( lemma, _buffer.getLong( index ) );
+         index += 8;
+      }
+      return lemmas;
+   }
+
+   /**
+    * Binary search over the sorted entry offsets, comparing raw utf-8 bytes so that no strings are decoded.
+    *
+    * @param word -
+    * @return file offset of the entry for the word, or -1 if it is not in the table
+    */
+   private int findEntry( final String word ) {
+      final byte[] key = word.getBytes( StandardCharsets.UTF_8 );
+      int low = 0;
+      int high = _entryCount - 1;
+      while ( low <= high ) {
+         final int mid = (low + high) >>> 1;
+         final int entry = _buffer.getInt( 12 + mid * 4 );
+         final int compare = compareKey( entry, key );
+         if ( compare < 0 ) {
+            low = mid + 1;
+         } else if ( compare > 0 ) {
+            high = mid - 1;
+         } else {
+            return entry;
+         }
+      }
+      return -1;
+   }
+
+   private int compareKey( final int entry, final byte[] key ) {
+      final int length = _buffer.getShort( entry );
+      final int min = Math.min( length, key.length );
+      for ( int i = 0; i < min; i++ ) {
+         final int compare = (_buffer.get( entry + 2 + i ) & 0xff) - (key[ i ] & 0xff);
+         if ( compare != 0 ) {
+            return compare;
+         }
+      }
+      return length - key.length;
+   }
+
+   private String readString( final int index ) {
+      final int length = _buffer.getShort( index );
+      if ( length == 0 ) {
+         return NO_OUTPUT;
+      }
+      final byte[] bytes = new byte[ length ];
+      for ( int i = 0; i < length; i++ ) {
+         bytes[ i ] = _buffer.get( index + 2 + i );
+      }
+      return new String( bytes, StandardCharsets.UTF_8 );
+   }
+
+}
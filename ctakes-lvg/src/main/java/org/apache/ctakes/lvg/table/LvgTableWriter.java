@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.lvg.table;
+
+import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
+import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
+import gov.nih.nlm.nls.lvg.Lib.Category;
+import gov.nih.nlm.nls.lvg.Lib.LexItem;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.Vector;
+
+/**
+ * Builds an {@link LvgTable} file from the lvg norm and lemma cache files
+ * and, optionally, from a word list run through the lvg distribution.
+ * <p>
+ * The cache files use the same formats and frequency cutoff semantics as the
+ * {@code CmdCacheFileLocation} and {@code LemmaCacheFileLocation} files of the lvg annotators.
+ * Words in the word list are normalized with the same lvg flows as {@code LvgCmdApiResourceImpl}.
+ * When a word appears in more than one source the first value found is kept, cache files before the word list.
+ * </p>
+ */
+final public class LvgTableWriter {
+
+   static private final Logger LOGGER = Logger.getLogger( "LvgTableWriter" );
+
+   static private final String NO_OUTPUT = "No Output";
+
+   // key = word, value = normalized form, sorted by utf-8 bytes
+   private final Map<String, String> _norms = new TreeMap<>( LvgTableWriter::compareUtf8 );
+   // key = word, value = lemma to xerox category bits
+   private final Map<String, Map<String, Long>> _lemmas = new TreeMap<>( LvgTableWriter::compareUtf8 );
+
+   /**
+    * Adds entries from an lvg norm cache file, e.g. 2005_norm.voc
+    *
+    * @param path            norm cache file
+    * @param frequencyCutoff lines with a frequency at or below this value are ignored
+    * @throws IOException -
+    */
+   public void addNormCache( final String path, final int frequencyCutoff ) throws IOException {
+      try ( BufferedReader reader = createReader( path ) ) {
+         String line = reader.readLine();
+         while ( line != null ) {
+            final StringTokenizer st = new StringTokenizer( line, "|" );
+            if ( st.countTokens() == 7 ) {
+               final int freq = Integer.parseInt( st.nextToken() );
+               if ( freq > frequencyCutoff ) {
+                  final String word = st.nextToken();
+                  final String norm = st.nextToken();
+                  _norms.putIfAbsent( word, norm );
+               }
+            } else {
+               LOGGER.warn( "Invalid LVG norm cache line: " + line );
+            }
+            line = reader.readLine();
+         }
+      }
+   }
+
+   /**
+    * Adds entries from an lvg lemma cache file, e.g. 2005_lemma.voc
+    *
+    * @param path            lemma cache file
+    * @param frequencyCutoff lines with a frequency at or below this value are ignored
+    * @throws IOException -
+    */
+   public void addLemmaCache( final String path, final int frequencyCutoff ) throws IOException {
+      final Map<String, Map<String, Long>> lemmas = new LinkedHashMap<>();
+      try ( BufferedReader reader = createReader( path ) ) {
+         String line = reader.readLine();
+         while ( line != null ) {
+            final StringTokenizer st = new StringTokenizer( line, "|" );
+            if ( st.countTokens() == 4 ) {
+               final int freq = Integer.parseInt( st.nextToken() );
+               if ( freq > frequencyCutoff ) {
+                  final String word = st.nextToken();
+                  final String lemma = st.nextToken();
+                  String categories = st.nextToken();
+                  // strip < and > chars
+                  categories = categories.substring( 1, categories.length() - 1 );
+                  lemmas.computeIfAbsent( word, w -> new LinkedHashMap<>() )
+                        .merge( lemma, Category.ToValue( categories ), ( a, b ) -> a | b );
+               }
+            } else {
+               LOGGER.warn( "Invalid LVG lemma cache line: " + line );
+            }
+            line = reader.readLine();
+         }
+      }
+      lemmas.forEach( _lemmas::putIfAbsent );
+   }
+
+   /**
+    * Runs every word in a word list (one per line) through the lvg distribution and adds the results.
+    *
+    * @param path           word list file
+    * @param lvgConfigPath  path to lvg.properties
+    * @param includeLemmas  true to also generate lemmas for each word
+    * @throws Exception if lvg fails
+    */
+   public void addWordList( final String path, final String lvgConfigPath, final boolean includeLemmas )
+         throws Exception {
+      final LvgCmdApi lvgCmd = new LvgCmdApi( "-f:l:b", lvgConfigPath );
+      final LvgLexItemApi lvgLexItem = includeLemmas ? new LvgLexItemApi( "-f:i -SC", lvgConfigPath ) : null;
+      int count = 0;
+      try ( BufferedReader reader = createReader( path ) ) {
+         String word = reader.readLine();
+         while ( word != null ) {
+            word = word.trim();
+            if ( !word.isEmpty() ) {
+               if ( !_norms.containsKey( word ) ) {
+                  final String[] output = lvgCmd.MutateToString( word ).split( "\\|" );
+                  _norms.put( word, output.length >= 2 ? output[ 1 ] : NO_OUTPUT );
+               }
+               if ( lvgLexItem != null && !_lemmas.containsKey( word ) ) {
+                  final Map<String, Long> lemmas = new LinkedHashMap<>();
+                  final Vector<LexItem> lexItems = lvgLexItem.MutateLexItem( word );
+                  for ( LexItem lexItem : lexItems ) {
+                     lemmas.merge( lexItem.GetTargetTerm(), lexItem.GetTargetCategory().GetValue(), ( a, b ) -> a | b );
+                  }
+                  _lemmas.put( word, lemmas );
+               }
+               count++;
+               if ( count % 10000 == 0 ) {
+                  LOGGER.info( "Processed " + count + " words" );
+               }
+            }
+            word = reader.readLine();
+         }
+      } finally {
+         lvgCmd.CleanUp();
+         if ( lvgLexItem != null ) {
+            lvgLexItem.CleanUp();
+         }
+      }
+   }
+
+   /**
+    * Writes the table in the format read by {@link LvgTable}.
+    *
+    * @param path output file
+    * @throws IOException -
+    */
+   public void write( final String path ) throws IOException {
+      final Map<String, Boolean> words = new TreeMap<>( LvgTableWriter::compareUtf8 );
+      _norms.keySet().forEach( w -> words.put( w, Boolean.TRUE ) );
+      _lemmas.keySet().forEach( w -> words.put( w, Boolean.TRUE ) );
+
+      final ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+      final DataOutputStream entries = new DataOutputStream( entryBytes );
+      final List<Integer> offsets = new ArrayList<>( words.size() );
+      final int headerSize = 12 + 4 * words.size();
+      for ( String word : words.keySet() ) {
+         offsets.add( headerSize + entries.size() );
+         writeString( entries, word );
+         final String norm = _norms.get( word );
+         final Map<String, Long> lemmas = _lemmas.get( word );
+         byte flags = 0;
+         if ( norm != null ) {
+            flags |= LvgTable.HAS_NORM;
+         }
+         if ( lemmas != null ) {
+            flags |= LvgTable.HAS_LEMMAS;
+         }
+         entries.writeByte( flags );
+         if ( norm != null ) {
+            writeString( entries, NO_OUTPUT.equals( norm ) ? LvgTable.NO_OUTPUT : norm );
+         }
+         if ( lemmas != null ) {
+            entries.writeShort( lemmas.size() );
+            for ( Map.Entry<String, Long> lemma : lemmas.entrySet() ) {
+               writeString( entries, lemma.getKey() );
+               entries.writeLong( lemma.getValue() );
+            }
+         }
+      }
+      entries.flush();
+
+      try ( DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream( new FileOutputStream( path ) ) ) ) {
+         out.writeInt( LvgTable.MAGIC );
+         out.writeInt( LvgTable.VERSION );
+         out.writeInt( offsets.size() );
+         for ( int offset : offsets ) {
+            out.writeInt( offset );
+         }
+         entryBytes.writeTo( out );
+      }
+      LOGGER.info( "Wrote " + offsets.size() + " LVG table entries to " + path );
+   }
+
+   static private void writeString( final DataOutputStream out, final String text ) throws IOException {
+      final byte[] bytes = text.getBytes( StandardCharsets.UTF_8 );
+      if ( bytes.length > Short.MAX_VALUE ) {
+         throw new IOException( "LVG table text too long: " + text.substring( 0, 64 ) );
+      }
+      out.writeShort( bytes.length );
+      out.write( bytes );
+   }
+
+   static private BufferedReader createReader( final String path ) throws IOException {
+      return new BufferedReader( new InputStreamReader( new FileInputStream( path ), StandardCharsets.UTF_8 ) );
+   }
+
+   /**
+    * Orders strings by their unsigned utf-8 bytes, which is the order used by the {@link LvgTable} binary search.
+    */
+   static int compareUtf8( final String s1, final String s2 ) {
+      final byte[] b1 = s1.getBytes( StandardCharsets.UTF_8 );
+      final byte[] b2 = s2.getBytes( StandardCharsets.UTF_8 );
+      final int min = Math.min( b1.length, b2.length );
+      for ( int i = 0; i < min; i++ ) {
+         final int compare = (b1[ i ] & 0xff) - (b2[ i ] & 0xff);
+         if ( compare != 0 ) {
+            return compare;
+         }
+      }
+      return b1.length - b2.length;
+   }
+
+
+   public static void main( final String... args ) {
+      if ( args.length > 0 && (args[ 0 ].equals( "-h" ) || args[ 0 ].equals( "--help" )) ) {
+         printUsage();
+         return;
+      }
+      if ( args.length < 2 ) {
+         printUsage();
+         System.exit( 1 );
+      }
+      final LvgTableWriter writer = new LvgTableWriter();
+      String outputPath = null;
+      int cutoff = 20;
+      String lvgConfig = null;
+      boolean lemmas = false;
+      try {
+         for ( int i = 0; i < args.length - 1; i += 2 ) {
+            final String value = args[ i + 1 ];
+            switch ( args[ i ] ) {
+               case "-o":
+                  outputPath = value;
+                  break;
+               case "-f":
+                  cutoff = Integer.parseInt( value );
+                  break;
+               case "-n":
+                  writer.addNormCache( value, cutoff );
+                  break;
+               case "-l":
+                  writer.addLemmaCache( value, cutoff );
+                  break;
+               case "-c":
+                  lvgConfig = value;
+                  break;
+               case "-L":
+                  lemmas = Boolean.parseBoolean( value );
+                  break;
+               case "-w":
+                  if ( lvgConfig == null ) {
+                     System.err.println( "-c <lvg.properties> must precede -w" );
+                     printUsage();
+                     System.exit( 1 );
+                  }
+                  writer.addWordList( value, lvgConfig, lemmas );
+                  break;
+               default:
+                  System.err.println( "Unknown option " + args[ i ] );
+                  printUsage();
+                  System.exit( 1 );
+            }
+         }
+         if ( outputPath == null ) {
+            System.err.println( "No output file specified" );
+            printUsage();
+            System.exit( 1 );
+         }
+         writer.write( outputPath );
+      } catch ( Exception e ) {
+         LOGGER.error( "Could not create LVG table", e );
+         // build scripts must see the failure
+         System.exit( 1 );
+      }
+   }
+
+   static private void printUsage() {
+      System.out.println( "Usage: java LvgTableWriter [-f <cutoff>] [-n <norm-cache>] [-l <lemma-cache>]"
+                          + " [-c <lvg.properties> [-L true] -w <word-list>] -o <table-file>" );
+      System.out.println( "  where <cutoff> is the cache frequency cutoff for following cache files, default 20" );
+      System.out.println( "  where <norm-cache> and <lemma-cache> are lvg cache files, e.g. 2005_norm.voc" );
+      System.out.println( "  where <word-list> is a file of words, one per line, to run through lvg" );
+      System.out.println( "  -L true also generates lemmas for words in the word list" );
+      System.out.println( "  where <table-file> is the output file to be used as LvgTableLocation" );
+   }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.lvg.table;
+
+import gov.nih.nlm.nls.lvg.Lib.Category;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LvgTableTest {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   private File write( final String name, final String... lines ) throws IOException {
+      final File file = _folder.newFile( name );
+      Files.write( file.toPath(), Arrays.asList( lines ), StandardCharsets.UTF_8 );
+      return file;
+   }
+
+   private LvgTable writeTable() throws IOException {
+      final File norms = write( "norm.voc",
+            "5|Pains|pain|1|1|l+b|1|",
+            "5|was|be|1|1|l+b|1|",
+            "5|???|No Output|1|1|l+b|1|",
+            "5|naïve|naive|1|1|l+b|1|",
+            "1|rare|rarely|1|1|l+b|1|",
+            "5|Pains|pains|1|1|l+b|1|",
+            "not a cache line" );
+      final File lemmas = write( "lemma.voc",
+            "5|pains|pain|<noun>",
+            "5|pains|pain|<verb>",
+            "5|ran|run|<verb>",
+            "5|Zeta|zeta|<noun>",
+            "1|rarer|rare|<adj>" );
+      final LvgTableWriter writer = new LvgTableWriter();
+      writer.addNormCache( norms.getPath(), 2 );
+      writer.addLemmaCache( lemmas.getPath(), 2 );
+      final File table = new File( _folder.getRoot(), "lvg.table" );
+      writer.write( table.getPath() );
+      return new LvgTable( table );
+   }
+
+   @Test
+   public void testNormalizedForms() throws IOException {
+      final LvgTable table = writeTable();
+      // Pains, was, ???, naïve, pains, ran, Zeta
+      assertEquals( 7, table.size() );
+      // the first value in a cache file is kept
+      assertEquals( "pain", table.getNormalizedForm( "Pains" ) );
+      assertEquals( "be", table.getNormalizedForm( "was" ) );
+      assertEquals( "naive", table.getNormalizedForm( "naïve" ) );
+      assertEquals( LvgTable.NO_OUTPUT, table.getNormalizedForm( "???" ) );
+      // below the frequency cutoff
+      assertNull( table.getNormalizedForm( "rare" ) );
+      // lemma only
+      assertNull( table.getNormalizedForm( "ran" ) );
+      assertNull( table.getNormalizedForm( "absent" ) );
+      assertNull( table.getNormalizedForm( "" ) );
+   }
+
+   @Test
+   public void testLemmas() throws IOException {
+      final LvgTable table = writeTable();
+      final Map<String, Long> pains = table.getLemmas( "pains" );
+      assertEquals( 1, pains.size() );
+      assertEquals( Category.ToValue( "noun" ) | Category.ToValue( "verb" ), pains.get( "pain" ).longValue() );
+      assertEquals( Category.ToValue( "verb" ), table.getLemmas( "ran" ).get( "run" ).longValue() );
+      assertEquals( Category.ToValue( "noun" ), table.getLemmas( "Zeta" ).get( "zeta" ).longValue() );
+      // norm only, below the cutoff and absent
+      assertNull( table.getLemmas( "Pains" ) );
+      assertNull( table.getLemmas( "rarer" ) );
+      assertNull( table.getLemmas( "absent" ) );
+   }
+
+   @Test
+   public void testEveryWordIsFound() throws IOException {
+      final LvgTable table = writeTable();
+      for ( String word : new String[]{ "Pains", "was", "???", "naïve", "pains", "ran", "Zeta" } ) {
+         assertTrue( word, table.getNormalizedForm( word ) != null || table.getLemmas( word ) != null );
+      }
+   }
+
+   @Test( expected = IOException.class )
+   public void testRejectsOtherFiles() throws IOException {
+      new LvgTable( write( "not.table", "not an lvg table" ) );
+   }
+
+}
@@ -152,6 +152,15 @@ public class ContextAnnotator extends org.apache.uima.fit.component.JCasAnnotato
 	 * @see ContextHitConsumer
 	 */
 	public static final String CONTEXT_HIT_CONSUMER_CLASS_PARAM = "ContextHitConsumerClass";
+	/**
+	 * "UseWindowArrays" is an optional, single, boolean parameter that
+	 * specifies whether the focus and context annotations of each window are
+	 * collected once into arrays. The context of every focus annotation in the
+	 * window is then found by binary search and array positions rather than by
+	 * navigating a new subiterator for every focus annotation and scope. The
+	 * context annotations found are the same either way. The default is true.
+	 */
+	public static final String WINDOW_ARRAYS_PARAM = "UseWindowArrays";
 
 	public static final int LEFT_SCOPE = 1;
 	/**
@@ -200,6 +209,10 @@ public class ContextAnnotator extends org.apache.uima.fit.component.JCasAnnotato
 			description = "", defaultValue = "org.apache.ctakes.necontexts.negation.NegationContextHitConsumer" )
 	private String contextConsumerClassName;
 
+	@ConfigurationParameter( name = WINDOW_ARRAYS_PARAM, mandatory = false,
+			description = "Collect the focus and context annotations of each window once", defaultValue = "true" )
+	private boolean useWindowArrays;
+
 
 	protected List<Integer> scopes = new ArrayList<Integer>();
 
@@ -240,6 +253,7 @@ public class ContextAnnotator extends org.apache.uima.fit.component.JCasAnnotato
 //			contextType = JCasUtil.getType((String) uimaContext.getConfigParameterValue(CONTEXT_ANNOTATION_CLASS_PARAM));
 			iv_logger.info( "Using context type: " + contextClassName );
 			contextType = JCasUtil.getType( contextClassName );
+			iv_logger.info( "Using window arrays: " + useWindowArrays );
 		} catch (Exception e) {
 			throw new ResourceInitializationException(e);
 		}
@@ -273,6 +287,10 @@ public class ContextAnnotator extends org.apache.uima.fit.component.JCasAnnotato
 			FSIterator windowIterator = jCas.getAnnotationIndex(windowType).iterator();
 			while (windowIterator.hasNext()) {
 				Annotation window = (Annotation) windowIterator.next();
+				if (useWindowArrays) {
+					processWindow(jCas, window);
+					continue;
+				}
 				List<Annotation> focusList = constrainToWindow(jCas, focusType, window);
 
 				// why is this list reversed?
@@ -299,6 +317,35 @@ public class ContextAnnotator extends org.apache.uima.fit.component.JCasAnnotato
 
 	}
 
+	/**
+	 * Analyzes the focus annotations of a window in the same order as process,
+	 * collecting the focus and context annotations of the window only once.
+	 */
+	private void processWindow(JCas jCas, Annotation window) throws AnalysisEngineProcessException {
+		List<Annotation> focusList = new ArrayList<Annotation>(
+				WindowAnnotations.create(jCas, focusType, window).asList());
+		if (focusList.isEmpty())
+			return;
+		Collections.reverse(focusList);
+		WindowAnnotations windowContext = WindowAnnotations.create(jCas, contextType, window);
+		for (int scope : scopes) {
+			for (Annotation focus : focusList) {
+				List<Annotation> scopeContextAnnotations;
+				if (windowContext.size() == 0
+						|| (focus.getBegin() == window.getBegin() && focus.getEnd() == window.getEnd())) {
+					// the subiterators treat these differently, so navigate them
+					scopeContextAnnotations = getScopeContextAnnotations(jCas, focus, window, scope);
+				} else {
+					scopeContextAnnotations = getScopeContextAnnotations(jCas, windowContext, focus, scope);
+				}
+				ContextHit contextHit = contextAnalyzer.analyzeContext(scopeContextAnnotations, scope);
+				if (contextHit != null) {
+					contextConsumer.consumeHit(jCas, focus, scope, contextHit);
+				}
+			}
+		}
+	}
+
 	protected List<Annotation> getScopeContextAnnotations(JCas jCas, Annotation focus, Annotation window, int scope)
 			throws AnalysisEngineProcessException {
 		List<Annotation> scopeContextAnnotations = new ArrayList<Annotation>();
@@ -401,15 +448,116 @@ public class ContextAnnotator extends org.apache.uima.fit.component.JCasAnnotato
 		while (subiterator.hasNext()) {
 			scopeContextAnnotations.add((Annotation) subiterator.next());
 		}
-		if (scopeContextAnnotations.size() == 0 && JCasUtil.getType(focus.getClass()) == contextType)
+		if (scopeContextAnnotations.size() == 0)
+			addEmptyMiddleScopeFocus(jCas, focus, scopeContextAnnotations);
+		return scopeContextAnnotations;
+	}
+
+	/**
+	 * A focus annotation that contains no context annotations is its own
+	 * middle scope context if it is a context annotation or focus annotation.
+	 */
+	private void addEmptyMiddleScopeFocus(JCas jCas, Annotation focus, List<Annotation> scopeContextAnnotations) {
+		if (JCasUtil.getType(focus.getClass()) == contextType)
 			scopeContextAnnotations.add(focus);
-		else if (scopeContextAnnotations.size() == 0) {
+		else {
 			TypeSystem typeSystem = jCas.getTypeSystem();
 			Type superType = jCas.getType(focusType).casType;
 			Type subType = focus.getType();
 			if (typeSystem.subsumes(superType, subType))
 				scopeContextAnnotations.add(focus);
 		}
+	}
+
+	/**
+	 * Gets the same context annotations as
+	 * {@link #getScopeContextAnnotations(JCas, Annotation, Annotation, int)}
+	 * from the context annotations of a window that contains the focus.
+	 */
+	private List<Annotation> getScopeContextAnnotations(JCas jCas, WindowAnnotations windowContext, Annotation focus,
+			int scope)
+			throws AnalysisEngineProcessException {
+		List<Annotation> scopeContextAnnotations = new ArrayList<Annotation>();
+		switch (scope) {
+		case LEFT_SCOPE:
+			scopeContextAnnotations = getLeftScopeContextAnnotations(windowContext, focus);
+			break;
+		case MIDDLE_SCOPE:
+			scopeContextAnnotations = getMiddleScopeContextAnnotations(jCas, windowContext, focus);
+			break;
+		case RIGHT_SCOPE:
+			scopeContextAnnotations = getRightScopeContextAnnotations(windowContext, focus);
+			break;
+		case ALL_SCOPE:
+			scopeContextAnnotations.addAll(getLeftScopeContextAnnotations(windowContext, focus));
+			scopeContextAnnotations.addAll(getMiddleScopeContextAnnotations(jCas, windowContext, focus));
+			scopeContextAnnotations.addAll(getRightScopeContextAnnotations(windowContext, focus));
+			break;
+		}
+		return scopeContextAnnotations;
+	}
+
+	private List<Annotation> getLeftScopeContextAnnotations(WindowAnnotations windowContext, Annotation focus)
+			throws AnalysisEngineProcessException {
+		List<Annotation> scopeContextAnnotations = new ArrayList<Annotation>();
+		int focusIndex = windowContext.indexOf(focus);
+		if (focusIndex == windowContext.size()) {
+			// the subiterator is past the window and cannot move back into it
+			return scopeContextAnnotations;
+		}
+		// the subiterator steps past the focus position unless that leaves the window
+		int index = focusIndex + 1 < windowContext.size() ? focusIndex + 1 : focusIndex;
+		while (scopeContextAnnotations.size() < leftScopeSize && index > 0) {
+			index--;
+			if (windowContext.getEnd(index) > focus.getBegin()) {
+				continue;
+			}
+			Annotation contextAnnotation = windowContext.get(index);
+			if (!contextAnalyzer.isBoundary(contextAnnotation, LEFT_SCOPE)) {
+				scopeContextAnnotations.add(contextAnnotation);
+			} else {
+				break;
+			}
+		}
+		Collections.reverse(scopeContextAnnotations);
+		return scopeContextAnnotations;
+	}
+
+	private List<Annotation> getRightScopeContextAnnotations(WindowAnnotations windowContext, Annotation focus)
+			throws AnalysisEngineProcessException {
+		List<Annotation> scopeContextAnnotations = new ArrayList<Annotation>();
+		int focusIndex = windowContext.indexOf(focus);
+		// the subiterator steps before the focus position unless that leaves the window
+		int index = focusIndex > 0 ? focusIndex - 1 : focusIndex;
+		while (scopeContextAnnotations.size() < rightScopeSize && index + 1 < windowContext.size()) {
+			index++;
+			if (windowContext.getBegin(index) < focus.getEnd()) {
+				continue;
+			}
+			Annotation contextAnnotation = windowContext.get(index);
+			if (!contextAnalyzer.isBoundary(contextAnnotation, RIGHT_SCOPE)) {
+				scopeContextAnnotations.add(contextAnnotation);
+			} else {
+				break;
+			}
+		}
+		return scopeContextAnnotations;
+	}
+
+	private List<Annotation> getMiddleScopeContextAnnotations(JCas jCas, WindowAnnotations windowContext,
+			Annotation focus) {
+		List<Annotation> scopeContextAnnotations = new ArrayList<Annotation>();
+		int index = windowContext.indexOf(focus);
+		while (index < windowContext.size() && windowContext.isEqualInIndex(index, focus)) {
+			index++;
+		}
+		for (; index < windowContext.size() && windowContext.getBegin(index) <= focus.getEnd(); index++) {
+			if (windowContext.getEnd(index) <= focus.getEnd()) {
+				scopeContextAnnotations.add(windowContext.get(index));
+			}
+		}
+		if (scopeContextAnnotations.size() == 0)
+			addEmptyMiddleScopeFocus(jCas, focus, scopeContextAnnotations);
 		return scopeContextAnnotations;
 	}
 
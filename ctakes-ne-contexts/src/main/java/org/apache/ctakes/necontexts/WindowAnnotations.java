@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.necontexts;
+
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.cas.text.AnnotationIndex;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The annotations of one type within a window, collected once in index order.
+ * <p>
+ * The annotations are those of the window's strict subiterator, but they are collected with a single pass over
+ * the index that stops at the end of the window.  Begin and end offsets are held in arrays
+ * so that the position of a focus annotation can be found by binary search.
+ * </p>
+ * The annotations should not be added to or removed from the cas while the window annotations are in use.
+ */
+final class WindowAnnotations {
+
+   private final AnnotationIndex<Annotation> _index;
+   private final Annotation[] _annotations;
+   private final int[] _begins;
+   private final int[] _ends;
+
+   /**
+    * @param jCas   ye olde
+    * @param type   jcas type of the annotations
+    * @param window window annotation
+    * @return the annotations of the type that the window's subiterator returns, in the same order
+    */
+   static WindowAnnotations create( final JCas jCas, final int type, final Annotation window ) {
+      final AnnotationIndex<Annotation> index = jCas.getAnnotationIndex( type );
+      final int windowEnd = window.getEnd();
+      final FSIterator<Annotation> iterator = index.iterator();
+      iterator.moveTo( window );
+      // like the subiterator, skip annotations that sort equal to the window
+      while ( iterator.isValid() && index.compare( window, iterator.get() ) == 0 ) {
+         iterator.moveToNext();
+      }
+      Annotation[] annotations = new Annotation[ 16 ];
+      int size = 0;
+      while ( iterator.isValid() ) {
+         final Annotation annotation = iterator.get();
+         if ( annotation.getBegin() > windowEnd ) {
+            // no later annotation can end within the window
+            break;
+         }
+         if ( annotation.getEnd() <= windowEnd ) {
+            if ( size == annotations.length ) {
+               annotations = Arrays.copyOf( annotations, size * 2 );
+            }
+            annotations[ size++ ] = annotation;
+         }
+         iterator.moveToNext();
+      }
+      return new WindowAnnotations( index, Arrays.copyOf( annotations, size ) );
+   }
+
+   private WindowAnnotations( final AnnotationIndex<Annotation> index, final Annotation[] annotations ) {
+      _index = index;
+      _annotations = annotations;
+      _begins = new int[ annotations.length ];
+      _ends = new int[ annotations.length ];
+      for ( int i = 0; i < annotations.length; i++ ) {
+         _begins[ i ] = annotations[ i ].getBegin();
+         _ends[ i ] = annotations[ i ].getEnd();
+      }
+   }
+
+   /**
+    * @return number of annotations in the window
+    */
+   int size() {
+      return _annotations.length;
+   }
+
+   /**
+    * @param i position in index order
+    * @return the annotation at the position
+    */
+   Annotation get( final int i ) {
+      return _annotations[ i ];
+   }
+
+   int getBegin( final int i ) {
+      return _begins[ i ];
+   }
+
+   int getEnd( final int i ) {
+      return _ends[ i ];
+   }
+
+   /**
+    * @return the annotations in index order
+    */
+   List<Annotation> asList() {
+      return Arrays.asList( _annotations );
+   }
+
+   /**
+    * @param annotation some annotation of any type
+    * @return position of the first annotation that does not sort before the given annotation in the index,
+    * or the number of annotations if all sort before it
+    */
+   int indexOf( final Annotation annotation ) {
+      final int begin = annotation.getBegin();
+      final int end = annotation.getEnd();
+      // annotations are sorted by ascending begin, then descending end
+      int low = 0;
+      int high = _annotations.length;
+      while ( low < high ) {
+         final int mid = (low + high) >>> 1;
+         if ( _begins[ mid ] < begin || (_begins[ mid ] == begin && _ends[ mid ] > end) ) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      // annotations with the same offsets are sorted by type priority
+      while ( low < _annotations.length && _begins[ low ] == begin && _ends[ low ] == end
+              && _index.compare( _annotations[ low ], annotation ) < 0 ) {
+         low++;
+      }
+      return low;
+   }
+
+   /**
+    * @param i          position in index order
+    * @param annotation some annotation of any type
+    * @return true if the annotation at the position sorts equal to the given annotation in the index
+    */
+   boolean isEqualInIndex( final int i, final Annotation annotation ) {
+      return _begins[ i ] == annotation.getBegin() && _ends[ i ] == annotation.getEnd()
+             && _index.compare( _annotations[ i ], annotation ) == 0;
+   }
+
+}
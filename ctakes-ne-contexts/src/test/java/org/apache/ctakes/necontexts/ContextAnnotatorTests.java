@@ -21,20 +21,27 @@ package org.apache.ctakes.necontexts;
 import static org.junit.Assert.assertEquals;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.analysis_engine.annotator.AnnotatorConfigurationException;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.UIMAException;
 import org.junit.Test;
 
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
 import org.apache.ctakes.utils.test.TestUtil;
 
@@ -504,6 +511,58 @@ public class ContextAnnotatorTests {
 
 	}
 
+	/**
+	 * The window arrays must find the same contexts as the subiterators.
+	 */
+	@Test
+	public void testWindowArrays() throws UIMAException {
+		String text = "No evidence of ankle edema is noted. He denies gastric reflux symptoms, and he denies any"
+				+ " symptoms referable to his genitourinary system. He does not have diabetes or chest pain."
+				+ " Her pain problem began gradually without prior incident, injury, or illness.";
+		String[] entities = { "ankle edema", "edema", "reflux", "gastric reflux symptoms", "symptoms",
+				"genitourinary system", "diabetes", "chest pain", "pain", "incident", "injury", "illness" };
+		List<Integer> polarities = new ArrayList<Integer>();
+		for (boolean useWindowArrays : new boolean[] { false, true }) {
+			JCas jCas = JCasFactory.createJCas();
+			jCas.setDocumentText(text);
+			int sentenceBegin = 0;
+			Matcher matcher = Pattern.compile("\\w+|[^\\w\\s]").matcher(text);
+			while (matcher.find()) {
+				if (matcher.group().equals(".")) {
+					new PunctuationToken(jCas, matcher.start(), matcher.end()).addToIndexes();
+					new Sentence(jCas, sentenceBegin, matcher.end()).addToIndexes();
+					sentenceBegin = matcher.end() + 1;
+				} else if (matcher.group().equals(",")) {
+					new PunctuationToken(jCas, matcher.start(), matcher.end()).addToIndexes();
+				} else {
+					new WordToken(jCas, matcher.start(), matcher.end()).addToIndexes();
+				}
+			}
+			List<IdentifiedAnnotation> namedEntities = new ArrayList<IdentifiedAnnotation>();
+			for (String entity : entities) {
+				int begin = text.indexOf(entity);
+				while (begin >= 0) {
+					IdentifiedAnnotation namedEntity = new IdentifiedAnnotation(jCas, begin, begin + entity.length());
+					namedEntity.addToIndexes();
+					namedEntities.add(namedEntity);
+					begin = text.indexOf(entity, begin + 1);
+				}
+			}
+			AnalysisEngine negationAE = AnalysisEngineFactory.createEngine(ContextAnnotator.class,
+					ContextAnnotator.MAX_LEFT_SCOPE_SIZE_PARAM, 10, ContextAnnotator.MAX_RIGHT_SCOPE_SIZE_PARAM, 10,
+					ContextAnnotator.WINDOW_ARRAYS_PARAM, useWindowArrays);
+			negationAE.process(jCas);
+			for (IdentifiedAnnotation namedEntity : namedEntities) {
+				polarities.add(namedEntity.getPolarity());
+			}
+		}
+		int half = polarities.size() / 2;
+		assertEquals(polarities.subList(0, half), polarities.subList(half, polarities.size()));
+		// "edema" and "reflux" are negated
+		assertEquals(-1, (int)polarities.get(half + 1));
+		assertEquals(-1, (int)polarities.get(half + 2));
+	}
+
 	@Test
 	public void testParseScopeOrder() throws AnnotatorConfigurationException {
 		ContextAnnotator ca = new ContextAnnotator();
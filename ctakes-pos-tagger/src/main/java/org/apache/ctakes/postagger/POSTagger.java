@@ -50,13 +50,11 @@
 
 package org.apache.ctakes.postagger;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
-import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
@@ -106,8 +104,9 @@ public class POSTagger extends JCasAnnotator_ImplBase {
 
 		logger.info("POS tagger model file: " + posModelPath);
 
-		try (InputStream fis = FileLocator.getAsStream(posModelPath)) {
-			POSModel modelFile = new POSModel(fis);
+		try {
+			// the model is immutable, so it is shared by every tagger in the jvm
+			POSModel modelFile = PosModelRegistry.getInstance().getModel(posModelPath);
 			tagger = new opennlp.tools.postag.POSTaggerME(modelFile);
 		} catch (Exception e) {
 			logger.info("Error loading POS tagger model: " + posModelPath);
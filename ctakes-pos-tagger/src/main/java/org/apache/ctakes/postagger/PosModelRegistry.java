@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.postagger;
+
+import opennlp.tools.postag.POSModel;
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds one {@link POSModel} per model path for the whole jvm.
+ * An OpenNLP POSModel is immutable once loaded and can be shared by any number of
+ * {@link opennlp.tools.postag.POSTaggerME} instances, which are not themselves thread safe.
+ */
+public enum PosModelRegistry {
+   INSTANCE;
+
+   static public PosModelRegistry getInstance() {
+      return INSTANCE;
+   }
+
+   private final Logger LOGGER = Logger.getLogger( "PosModelRegistry" );
+
+   private final Map<String, POSModel> _models = new HashMap<>();
+
+   /**
+    * @param modelPath path to a part of speech model, following the rules of {@link FileLocator}
+    * @return the model, loaded the first time that it is requested
+    * @throws IOException if the model cannot be read
+    */
+   public POSModel getModel( final String modelPath ) throws IOException {
+      synchronized ( _models ) {
+         POSModel model = _models.get( modelPath );
+         if ( model == null ) {
+            LOGGER.info( "Loading POS tagger model file: " + modelPath );
+            try ( InputStream stream = FileLocator.getAsStream( modelPath ) ) {
+               model = new POSModel( stream );
+            }
+            _models.put( modelPath, model );
+         }
+         return model;
+      }
+   }
+
+}
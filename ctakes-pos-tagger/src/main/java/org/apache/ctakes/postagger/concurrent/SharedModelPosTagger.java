@@ -0,0 +1,181 @@
+package org.apache.ctakes.postagger.concurrent;
+
+import opennlp.tools.postag.POSTaggerME;
+import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.postagger.POSTagger;
+import org.apache.ctakes.postagger.PosModelRegistry;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
+import org.apache.ctakes.typesystem.type.textspan.Segment;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.log4j.Logger;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.TypePrioritiesFactory;
+import org.apache.uima.fit.factory.TypeSystemDescriptionFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Part of speech tagger that does not lock.
+ * The {@link opennlp.tools.postag.POSModel} is loaded once per jvm through the {@link PosModelRegistry},
+ * and every thread that runs this annotator gets its own lightweight {@link POSTaggerME} over the shared model.
+ * Token and word buffers are reused across sentences.
+ * <p>
+ * Tags are identical to those of {@link POSTagger} with the same model.
+ * Unlike {@link ThreadSafePosTagger}, throughput scales with the number of pipeline threads.
+ * </p>
+ */
+@PipeBitInfo(
+      name = "Shared Model Part of Speech Tagger",
+      description = "Annotate Parts of Speech with a per-thread tagger over a shared model.",
+      dependencies = { PipeBitInfo.TypeProduct.SECTION, PipeBitInfo.TypeProduct.SENTENCE,
+            PipeBitInfo.TypeProduct.BASE_TOKEN, }
+)
+final public class SharedModelPosTagger extends JCasAnnotator_ImplBase {
+
+   static private final Logger LOGGER = Logger.getLogger( "SharedModelPosTagger" );
+
+   // Word arrays up to this length are reused.  Longer sentences are rare and get a new array.
+   static private final int MAX_REUSED_LENGTH = 128;
+
+   @ConfigurationParameter(
+         name = POSTagger.PARAM_POS_MODEL_FILE,
+         mandatory = false,
+         defaultValue = "org/apache/ctakes/postagger/models/mayo-pos.zip",
+         description = "Model file for OpenNLP POS tagger"
+   )
+   private String _posModelPath;
+
+   private ThreadLocal<TaggerState> _taggerState;
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      try {
+         final PosModelRegistry registry = PosModelRegistry.getInstance();
+         // Load now so that a bad model path fails at initialization.
+         registry.getModel( _posModelPath );
+         _taggerState = ThreadLocal.withInitial( () -> new TaggerState( createTagger() ) );
+      } catch ( IOException ioE ) {
+         LOGGER.error( "Error loading POS tagger model: " + _posModelPath );
+         throw new ResourceInitializationException( ioE );
+      }
+   }
+
+   private POSTaggerME createTagger() {
+      try {
+         return new POSTaggerME( PosModelRegistry.getInstance().getModel( _posModelPath ) );
+      } catch ( IOException ioE ) {
+         // The model was loaded at initialization, so this should never happen.
+         throw new IllegalStateException( ioE );
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      LOGGER.info( "Starting processing" );
+      final TaggerState state = _taggerState.get();
+      final Map<Sentence, Collection<BaseToken>> sentenceTokens
+            = JCasUtil.indexCovered( jCas, Sentence.class, BaseToken.class );
+      for ( Sentence sentence : JCasUtil.select( jCas, Sentence.class ) ) {
+         final Collection<BaseToken> tokens = sentenceTokens.get( sentence );
+         if ( tokens == null || tokens.isEmpty() ) {
+            continue;
+         }
+         state.tagSentence( tokens );
+      }
+      LOGGER.info( "Finished processing" );
+   }
+
+   /**
+    * Tagger and reusable buffers for a single thread.
+    */
+   static private final class TaggerState {
+      private final POSTaggerME _tagger;
+      private final List<BaseToken> _tokens = new ArrayList<>();
+      private final String[][] _wordArrays = new String[ MAX_REUSED_LENGTH + 1 ][];
+
+      private TaggerState( final POSTaggerME tagger ) {
+         _tagger = tagger;
+      }
+
+      private void tagSentence( final Collection<BaseToken> sentenceTokens ) {
+         _tokens.clear();
+         for ( BaseToken token : sentenceTokens ) {
+            if ( !(token instanceof NewlineToken) ) {
+               _tokens.add( token );
+            }
+         }
+         final int count = _tokens.size();
+         if ( count == 0 ) {
+            return;
+         }
+         // POSTaggerME tags the entire array, so the array must exactly fit the sentence.
+         final String[] words = getWordArray( count );
+         for ( int i = 0; i < count; i++ ) {
+            words[ i ] = _tokens.get( i ).getCoveredText();
+         }
+         final String[] tags = _tagger.tag( words );
+         for ( int i = 0; i < count; i++ ) {
+            _tokens.get( i ).setPartOfSpeech( tags[ i ] );
+         }
+         _tokens.clear();
+      }
+
+      private String[] getWordArray( final int length ) {
+         if ( length > MAX_REUSED_LENGTH ) {
+            return new String[ length ];
+         }
+         String[] words = _wordArrays[ length ];
+         if ( words == null ) {
+            words = new String[ length ];
+            _wordArrays[ length ] = words;
+         }
+         return words;
+      }
+   }
+
+   /**
+    * @return a part of speech tagger using a default model
+    * @throws ResourceInitializationException -
+    */
+   public static AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription(
+            SharedModelPosTagger.class,
+            TypeSystemDescriptionFactory.createTypeSystemDescription(),
+            TypePrioritiesFactory.createTypePriorities( Segment.class, Sentence.class, BaseToken.class ) );
+   }
+
+   /**
+    * @param model a part of speech model
+    * @return a part of speech tagger using the given model
+    * @throws ResourceInitializationException -
+    */
+   public static AnalysisEngineDescription createAnnotatorDescription( final String model )
+         throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription(
+            SharedModelPosTagger.class,
+            TypeSystemDescriptionFactory.createTypeSystemDescription(),
+            TypePrioritiesFactory.createTypePriorities( Segment.class, Sentence.class, BaseToken.class ),
+            POSTagger.PARAM_POS_MODEL_FILE, model );
+   }
+
+}
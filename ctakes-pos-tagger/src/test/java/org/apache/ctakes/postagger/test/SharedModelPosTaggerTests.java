@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.postagger.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ctakes.postagger.POSTagger;
+import org.apache.ctakes.postagger.concurrent.SharedModelPosTagger;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+public class SharedModelPosTaggerTests {
+
+	private static final String TEXT = "The patient was given 2 mg of morphine. She denies chest pain and shortness of breath.";
+
+	@Test
+	public void testSameTagsAsPosTagger() throws UIMAException {
+		List<String> expected = tag(POSTagger.createAnnotatorDescription());
+		List<String> actual = tag(SharedModelPosTagger.createAnnotatorDescription());
+		assertEquals(expected, actual);
+	}
+
+	private static List<String> tag(AnalysisEngineDescription tagger) throws UIMAException {
+		JCas jCas = JCasFactory.createJCas();
+		jCas.setDocumentText(TEXT);
+		int sentenceBegin = 0;
+		for (int i = 0; i < TEXT.length(); i++) {
+			if (TEXT.charAt(i) == '.') {
+				new Sentence(jCas, sentenceBegin, i + 1).addToIndexes();
+				sentenceBegin = i + 2;
+			}
+		}
+		int tokenBegin = -1;
+		for (int i = 0; i <= TEXT.length(); i++) {
+			boolean boundary = i == TEXT.length() || TEXT.charAt(i) == ' ' || TEXT.charAt(i) == '.';
+			if (boundary && tokenBegin >= 0) {
+				new WordToken(jCas, tokenBegin, i).addToIndexes();
+				tokenBegin = -1;
+			}
+			if (i < TEXT.length() && TEXT.charAt(i) == '.') {
+				new WordToken(jCas, i, i + 1).addToIndexes();
+			} else if (!boundary && tokenBegin < 0) {
+				tokenBegin = i;
+			}
+		}
+		SimplePipeline.runPipeline(jCas, tagger);
+		List<String> tags = new ArrayList<>();
+		for (BaseToken token : JCasUtil.select(jCas, BaseToken.class)) {
+			assertNotNull(token.getPartOfSpeech());
+			tags.add(token.getPartOfSpeech());
+		}
+		return tags;
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.TerminalTreebankNode;
 import org.apache.ctakes.typesystem.type.syntax.TreebankNode;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
@@ -62,9 +63,7 @@ public class IdentifiedAnnotationExpander extends JCasAnnotator_ImplBase {
 
     // map each covering treebank node to its character length
     Map<TreebankNode, Integer> treebankNodeSizes = new HashMap<TreebankNode, Integer>();
-    for(TreebankNode treebankNode : JCasUtil.selectCovering(
-        jCas, 
-        TreebankNode.class, 
+    for(TreebankNode treebankNode : SpanIndexService.getInstance().getSpanIndex(jCas, TreebankNode.class).getCovering(
         identifiedAnnotation.getBegin(), 
         identifiedAnnotation.getEnd())) {
 
@@ -98,9 +97,7 @@ public class IdentifiedAnnotationExpander extends JCasAnnotator_ImplBase {
 
     // map each covering treebank node to its character length
     Map<TreebankNode, Integer> treebankNodeSizes = new HashMap<TreebankNode, Integer>();
-    for(TreebankNode treebankNode : JCasUtil.selectCovering(
-        jCas, 
-        TreebankNode.class, 
+    for(TreebankNode treebankNode : SpanIndexService.getInstance().getSpanIndex(jCas, TreebankNode.class).getCovering(
         identifiedAnnotation.getBegin(), 
         identifiedAnnotation.getEnd())) {
 
@@ -18,34 +18,48 @@
  */
 package org.apache.ctakes.relationextractor.ae;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.relationextractor.ae.features.DependencyPathFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.DependencyTreeFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.NamedEntityFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.PhraseChunkingExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
+import org.apache.ctakes.relationextractor.ae.features.SeparableRelationFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.TokenFeaturesExtractor;
+import org.apache.ctakes.relationextractor.ae.pruning.ArgumentTypePruner;
+import org.apache.ctakes.relationextractor.ae.pruning.CandidatePairPruner;
+import org.apache.ctakes.relationextractor.ae.pruning.ProximityCapPruner;
+import org.apache.ctakes.relationextractor.ae.pruning.PruningStatistics;
+import org.apache.ctakes.relationextractor.ae.pruning.TokenDistancePruner;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.UimaContext;
 import org.apache.uima.UimaContextAdmin;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.CASException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ConfigurationManager;
 import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.util.Level;
 import org.cleartk.ml.CleartkAnnotator;
 import org.cleartk.ml.CleartkProcessingException;
 import org.cleartk.ml.Feature;
@@ -70,15 +84,57 @@ public abstract class RelationExtractorAnnotator extends CleartkAnnotator<String
 			description = "probability that a negative example should be retained for training")
 	protected double probabilityOfKeepingANegativeExample = 1.0;
 
+	public static final String PARAM_MAX_TOKEN_DISTANCE = "MaxTokenDistance";
+
+	@ConfigurationParameter(
+			name = PARAM_MAX_TOKEN_DISTANCE,
+			mandatory = false,
+			description = "largest number of tokens between the arguments of a candidate pair, -1 for no limit")
+	protected int maxTokenDistance = -1;
+
+	public static final String PARAM_MAX_PAIRS_PER_ARGUMENT = "MaxPairsPerArgument";
+
+	@ConfigurationParameter(
+			name = PARAM_MAX_PAIRS_PER_ARGUMENT,
+			mandatory = false,
+			description = "number of closest candidate pairs kept for each argument, -1 for no limit")
+	protected int maxPairsPerArgument = -1;
+
+	public static final String PARAM_ARGUMENT_TYPE_FILE = "ArgumentTypeFile";
+
+	@ConfigurationParameter(
+			name = PARAM_ARGUMENT_TYPE_FILE,
+			mandatory = false,
+			description = "file of the argument type pairs of relations; written in training, "
+					+ "used to prune candidate pairs in classification")
+	protected String argumentTypeFile = null;
+
+	public static final String PARAM_GOLD_VIEW_NAME = "GoldViewName";
+
+	@ConfigurationParameter(
+			name = PARAM_GOLD_VIEW_NAME,
+			mandatory = false,
+			description = "view with gold relations, used in classification to count the gold relations "
+					+ "removed by candidate pruning")
+	protected String goldViewName = null;
+
 	protected Random coin = new Random(0);
 
 	private List<RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation>> featureExtractors = this.getFeatureExtractors();
 
 	private Class<? extends Annotation> coveringClass = getCoveringClass();
 
+	private List<CandidatePairPruner> pruners = new ArrayList<>();
+
+	private List<PruningStatistics> pruningStatistics = new ArrayList<>();
+
+	private ArgumentTypePruner argumentTypeLearner;
+
 	/**
 	 * Defines the list of feature extractors used by the classifier. Subclasses
 	 * may override this method to provide a different set of feature extractors.
+	 * Extractors that implement {@link SeparableRelationFeaturesExtractor} extract
+	 * the features of each argument and sentence once per document, not once per pair.
 	 * 
 	 * @return The list of feature extractors to use.
 	 */
@@ -110,6 +166,33 @@ public abstract class RelationExtractorAnnotator extends CleartkAnnotator<String
 			JCas identifiedAnnotationView,
 			Annotation coveringAnnotation);
 
+	/**
+	 * Defines the pruners that remove candidate pairs before their features are
+	 * extracted, applied in order. By default these are a pruner by the argument
+	 * types of training relations, a token distance bound and a cap on the pairs
+	 * of each argument, each only if configured. Subclasses may override this
+	 * method to add other pruners.
+	 * 
+	 * @return The list of pruners to use.
+	 */
+	protected List<CandidatePairPruner> createCandidatePairPruners() throws ResourceInitializationException {
+		List<CandidatePairPruner> candidatePruners = new ArrayList<>();
+		if (this.argumentTypeFile != null && !this.isTraining()) {
+			try {
+				candidatePruners.add(ArgumentTypePruner.load(new File(this.argumentTypeFile)));
+			} catch (IOException e) {
+				throw new ResourceInitializationException(e);
+			}
+		}
+		if (this.maxTokenDistance >= 0) {
+			candidatePruners.add(new TokenDistancePruner(this.maxTokenDistance));
+		}
+		if (this.maxPairsPerArgument > 0) {
+			candidatePruners.add(new ProximityCapPruner(this.maxPairsPerArgument));
+		}
+		return candidatePruners;
+	}
+
 	/**
 	 * Workaround for https://code.google.com/p/cleartk/issues/detail?id=346
 	 * 
@@ -133,6 +216,14 @@ public abstract class RelationExtractorAnnotator extends CleartkAnnotator<String
 	public void initialize(UimaContext context) throws ResourceInitializationException {
 		allowClassifierModelOnClasspath(context);
 		super.initialize(context);
+		this.pruners = this.createCandidatePairPruners();
+		this.pruningStatistics = new ArrayList<>();
+		for (CandidatePairPruner pruner : this.pruners) {
+			this.pruningStatistics.add(new PruningStatistics(pruner.getName()));
+		}
+		if (this.argumentTypeFile != null && this.isTraining()) {
+			this.argumentTypeLearner = new ArgumentTypePruner();
+		}
 	}
 
 	/*
@@ -140,6 +231,7 @@ public abstract class RelationExtractorAnnotator extends CleartkAnnotator<String
 	 */
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
+		SpanIndexService.getInstance().invalidate(jCas);
 		// lookup from pair of annotations to binary text relation
 		// note: assumes that there will be at most one relation per pair
 		Map<List<Annotation>, BinaryTextRelation> relationLookup;
@@ -160,11 +252,17 @@ public abstract class RelationExtractorAnnotator extends CleartkAnnotator<String
 			}
 		}
 
+		Predicate<IdentifiedAnnotationPair> isGoldPair = this.getGoldPairTest(jCas, relationLookup);
+
 		// walk through each sentence in the text
 		for (Annotation coveringAnnotation : JCasUtil.select(jCas, coveringClass)) {
 
 			// walk through the pairs of annotations
-			for (IdentifiedAnnotationPair pair : this.getCandidateRelationArgumentPairs(jCas, coveringAnnotation)) {
+			for (IdentifiedAnnotationPair pair : this.pruneCandidatePairs(
+					jCas,
+					coveringAnnotation,
+					this.getCandidateRelationArgumentPairs(jCas, coveringAnnotation),
+					isGoldPair)) {
 				IdentifiedAnnotation arg1 = pair.getArg1();
 				IdentifiedAnnotation arg2 = pair.getArg2();
 				// apply all the feature extractors to extract the list of features
@@ -226,6 +324,108 @@ public abstract class RelationExtractorAnnotator extends CleartkAnnotator<String
 		} // end for(Sentence)
 	}
 
+	@Override
+	public void collectionProcessComplete() throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		for (PruningStatistics statistics : this.pruningStatistics) {
+			this.getContext().getLogger().log(Level.INFO, "Candidate pruning " + statistics);
+		}
+		if (this.argumentTypeLearner != null) {
+			try {
+				this.argumentTypeLearner.save(new File(this.argumentTypeFile));
+			} catch (IOException e) {
+				throw new AnalysisEngineProcessException(e);
+			}
+		}
+	}
+
+	/**
+	 * @return The statistics of each candidate pair pruner, in pruner order.
+	 */
+	public List<PruningStatistics> getPruningStatistics() {
+		return this.pruningStatistics;
+	}
+
+	/**
+	 * Applies the pruners to the candidate pairs, learning the argument types of
+	 * gold pairs in training and counting the gold pairs that each pruner removes.
+	 */
+	private List<IdentifiedAnnotationPair> pruneCandidatePairs(
+			JCas jCas,
+			Annotation coveringAnnotation,
+			Iterable<IdentifiedAnnotationPair> candidatePairs,
+			Predicate<IdentifiedAnnotationPair> isGoldPair) throws AnalysisEngineProcessException {
+		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList(candidatePairs);
+		if (this.argumentTypeLearner != null && isGoldPair != null) {
+			for (IdentifiedAnnotationPair pair : pairs) {
+				if (isGoldPair.test(pair)) {
+					this.argumentTypeLearner.addRelation(pair.getArg1(), pair.getArg2());
+				}
+			}
+		}
+		for (int i = 0; i < this.pruners.size() && !pairs.isEmpty(); i++) {
+			List<IdentifiedAnnotationPair> kept = this.pruners.get(i).prune(jCas, coveringAnnotation, pairs);
+			this.pruningStatistics.get(i).add(
+					pairs.size(),
+					kept.size(),
+					countGoldPairs(pairs, isGoldPair),
+					countGoldPairs(kept, isGoldPair));
+			pairs = kept;
+		}
+		return pairs;
+	}
+
+	private static int countGoldPairs(
+			List<IdentifiedAnnotationPair> pairs,
+			Predicate<IdentifiedAnnotationPair> isGoldPair) {
+		if (isGoldPair == null) {
+			return 0;
+		}
+		int count = 0;
+		for (IdentifiedAnnotationPair pair : pairs) {
+			if (isGoldPair.test(pair)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return A test for pairs with a gold relation in either direction, or null
+	 *         if there are no gold relations or nothing to learn or count.
+	 */
+	private Predicate<IdentifiedAnnotationPair> getGoldPairTest(
+			JCas jCas,
+			final Map<List<Annotation>, BinaryTextRelation> relationLookup) throws AnalysisEngineProcessException {
+		if (this.pruners.isEmpty() && this.argumentTypeLearner == null) {
+			return null;
+		}
+		if (this.isTraining()) {
+			return pair -> relationLookup.containsKey(Arrays.asList(pair.getArg1(), pair.getArg2()))
+					|| relationLookup.containsKey(Arrays.asList(pair.getArg2(), pair.getArg1()));
+		}
+		if (this.goldViewName == null) {
+			return null;
+		}
+		// system arguments are not the gold annotations, so match them by span
+		final Set<List<Integer>> goldSpans = new HashSet<>();
+		try {
+			for (BinaryTextRelation relation : JCasUtil.select(jCas.getView(this.goldViewName), this.getRelationClass())) {
+				Annotation arg1 = relation.getArg1().getArgument();
+				Annotation arg2 = relation.getArg2().getArgument();
+				goldSpans.add(Arrays.asList(arg1.getBegin(), arg1.getEnd(), arg2.getBegin(), arg2.getEnd()));
+				goldSpans.add(Arrays.asList(arg2.getBegin(), arg2.getEnd(), arg1.getBegin(), arg1.getEnd()));
+			}
+		} catch (CASException e) {
+			throw new AnalysisEngineProcessException(e);
+		}
+		return pair -> goldSpans.contains(Arrays.asList(
+				pair.getArg1().getBegin(),
+				pair.getArg1().getEnd(),
+				pair.getArg2().getBegin(),
+				pair.getArg2().getEnd()));
+	}
+
 	/**
 	 * Looks up the arguments in the specified lookup table and converts the
 	 * relation into a label for classification
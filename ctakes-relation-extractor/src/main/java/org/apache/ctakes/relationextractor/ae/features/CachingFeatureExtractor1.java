@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import java.util.List;
+
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.CleartkExtractorException;
+import org.cleartk.ml.feature.extractor.FeatureExtractor1;
+
+/**
+ * Returns the features of another extractor from the {@link RelationFeatureCache}, so that each annotation
+ * is extracted once per document by all extractors with the same key.  The features are returned as new
+ * plain features, so the extractor should not return feature subclasses.
+ */
+public class CachingFeatureExtractor1<T extends Annotation> implements FeatureExtractor1<T> {
+
+  private final String key;
+
+  private final FeatureExtractor1<? super T> extractor;
+
+  /**
+   * @param key
+   *          name of the extractor and its configuration, shared by extractors with the same features
+   * @param extractor
+   *          extractor of features that depend only on the text, tokens, syntax and sections
+   */
+  public CachingFeatureExtractor1(String key, FeatureExtractor1<? super T> extractor) {
+    this.key = key;
+    this.extractor = extractor;
+  }
+
+  /**
+   * @return caching extractor keyed by the class of an extractor without configuration
+   */
+  public static <T extends Annotation> CachingFeatureExtractor1<T> of(FeatureExtractor1<? super T> extractor) {
+    return new CachingFeatureExtractor1<>(extractor.getClass().getName(), extractor);
+  }
+
+  @Override
+  public List<Feature> extract(JCas view, T annotation) throws CleartkExtractorException {
+    try {
+      return RelationFeatureCache.getInstance().getFeatures(view, annotation, this.key, this.extractor);
+    } catch (CleartkExtractorException e) {
+      throw e;
+    } catch (AnalysisEngineProcessException e) {
+      throw new CleartkExtractorException(e);
+    }
+  }
+}
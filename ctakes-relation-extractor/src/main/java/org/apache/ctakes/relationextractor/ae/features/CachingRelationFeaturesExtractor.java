@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import java.util.List;
+
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Feature;
+
+/**
+ * Returns the pair features of another extractor from the {@link RelationFeatureCache}, so that relation
+ * annotators that see the same ordered pair, e.g. event-time annotators in one pipeline, extract it once.
+ * Meant for extractors whose pair features are expensive, such as tree fragments and dependency paths.
+ */
+public class CachingRelationFeaturesExtractor
+    implements RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> {
+
+  private final String key;
+
+  private final RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> extractor;
+
+  /**
+   * @param key
+   *          name of the extractor and its configuration, shared by extractors with the same features
+   * @param extractor
+   *          extractor of features that depend only on the text, syntax and the arguments
+   */
+  public CachingRelationFeaturesExtractor(
+      String key,
+      RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> extractor) {
+    this.key = key;
+    this.extractor = extractor;
+  }
+
+  /**
+   * @return caching extractor keyed by the class of an extractor without configuration
+   */
+  public static CachingRelationFeaturesExtractor of(
+      RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> extractor) {
+    return new CachingRelationFeaturesExtractor(extractor.getClass().getName(), extractor);
+  }
+
+  @Override
+  public List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
+      throws AnalysisEngineProcessException {
+    return RelationFeatureCache.getInstance().getPairFeatures(jCas, arg1, arg2, this.key, this.extractor);
+  }
+}
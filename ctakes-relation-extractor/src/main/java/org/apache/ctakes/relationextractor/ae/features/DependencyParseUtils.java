@@ -30,6 +30,10 @@ import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
 
 public class DependencyParseUtils {
 
+	private static final String HEAD_KEY = DependencyParseUtils.class.getName() + ".head";
+
+	private static final String PATH_KEY = DependencyParseUtils.class.getName() + ".path";
+
 	/**
 	 * Returns the paths from each node to the common ancestor between them
 	 */
@@ -77,6 +81,15 @@ public class DependencyParseUtils {
 	    return null;
 	}
 
+	/**
+	 * Finds the head word within a given annotation span once per document,
+	 * for every extractor and relation annotator that asks for it
+	 */
+	public static ConllDependencyNode findCachedAnnotationHead(JCas jcas, Annotation annotation) {
+		return RelationFeatureCache.getInstance().getValue(jcas, annotation, HEAD_KEY,
+				() -> findAnnotationHead(jcas, annotation));
+	}
+
 	public static LinkedList<ConllDependencyNode> getPathToSentenceHead(ConllDependencyNode node) {
 	     LinkedList<ConllDependencyNode> path = new LinkedList<ConllDependencyNode>();
 	     ConllDependencyNode currNode = node;
@@ -113,6 +126,16 @@ public class DependencyParseUtils {
 	}
 	
 
+	/**
+	 * Finds the path between two dependency nodes once per document,
+	 * for every extractor and relation annotator that asks for it.
+	 * The returned path must not be modified.
+	 */
+	public static LinkedList<ConllDependencyNode> getCachedPathBetweenNodes(JCas jcas, ConllDependencyNode srcNode, ConllDependencyNode tgtNode) {
+		return RelationFeatureCache.getInstance().getPairValue(jcas, srcNode, tgtNode, PATH_KEY,
+				() -> getPathBetweenNodes(srcNode, tgtNode));
+	}
+
 	/**
 	 * This will convert a path into a string lexicalized at the end points with arc labels and POS tags in between
 	 */
@@ -37,8 +37,8 @@ public class DependencyPathFeaturesExtractor implements RelationFeaturesExtracto
 		
 		List<Feature> features = new ArrayList<Feature>();
 		
-	    ConllDependencyNode node1 = DependencyParseUtils.findAnnotationHead(jCas, arg1);
-	    ConllDependencyNode node2 = DependencyParseUtils.findAnnotationHead(jCas, arg2);
+	    ConllDependencyNode node1 = DependencyParseUtils.findCachedAnnotationHead(jCas, arg1);
+	    ConllDependencyNode node2 = DependencyParseUtils.findCachedAnnotationHead(jCas, arg2);
 	    if (node1 == null || node2 == null) { return features; }
 	    
 	    List<LinkedList<ConllDependencyNode>> paths = DependencyParseUtils.getPathsToCommonAncestor(node1, node2);
@@ -49,7 +49,7 @@ public class DependencyPathFeaturesExtractor implements RelationFeaturesExtracto
 	    features.add(new Feature("DEPENDENCY_PATH_MAX_DISTANCE_TO_COMMON_ANCESTOR", Math.max(path1.size(), path2.size())));
 	    features.add(new Feature("DEPENDENCY_PATH_MIN_DISTANCE_TO_COMMON_ANCESTOR", Math.min(path1.size(), path2.size())));
 	    
-	    LinkedList<ConllDependencyNode> node1ToNode2Path = DependencyParseUtils.getPathBetweenNodes(node1, node2);
+	    LinkedList<ConllDependencyNode> node1ToNode2Path = DependencyParseUtils.getCachedPathBetweenNodes(jCas, node1, node2);
 	    features.add(new Feature("DEPENDENCY_PATH", DependencyParseUtils.pathToString(node1ToNode2Path)));
 	    
 	    return features;
@@ -27,34 +27,44 @@ import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
-public class DependencyTreeFeaturesExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation>{
+public class DependencyTreeFeaturesExtractor implements SeparableRelationFeaturesExtractor {
 
 	@Override
-	public List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1,
+	public List<Feature> extractArgument(JCas jCas, IdentifiedAnnotation mention)
+			throws AnalysisEngineProcessException {
+		return extractForNode(jCas, mention, null);
+	}
+
+	@Override
+	public String getArgumentPrefix(int position) {
+		return "MENTION" + position;
+	}
+
+	@Override
+	public List<Feature> extractPair(JCas jCas, IdentifiedAnnotation arg1,
 			IdentifiedAnnotation arg2) throws AnalysisEngineProcessException {
-		
-	    List<Feature> features = new ArrayList<Feature>();
-	    features.addAll(extractForNode(jCas, arg1, "MENTION1"));
-	    features.addAll(extractForNode(jCas, arg2, "MENTION2"));
-	    return features;
+		return new ArrayList<Feature>();
 	}
-	
+
+	/**
+	 * @param ftrPrefix prefix of the feature names, or null for unprefixed names
+	 */
 	public static List<Feature> extractForNode(JCas jCas, IdentifiedAnnotation mention, String ftrPrefix) {
 	    List<Feature> features = new ArrayList<Feature>();
-	    ConllDependencyNode mentionHeadNode = DependencyParseUtils.findAnnotationHead(jCas, mention);
+	    ConllDependencyNode mentionHeadNode = DependencyParseUtils.findCachedAnnotationHead(jCas, mention);
 		
 	    if (mentionHeadNode != null) {
 	    	ConllDependencyNode dependsOn = mentionHeadNode.getHead();
 	    	if (dependsOn != null) {
-	    		features.add(new Feature(ftrPrefix + "_DEPENDS_ON_WORD", dependsOn.getCoveredText()));
-	    		features.add(new Feature(ftrPrefix + "_DEPENDS_ON_POS", dependsOn.getPostag()));
+	    		features.add(new Feature(Feature.createName(ftrPrefix, "DEPENDS_ON_WORD"), dependsOn.getCoveredText()));
+	    		features.add(new Feature(Feature.createName(ftrPrefix, "DEPENDS_ON_POS"), dependsOn.getPostag()));
 	    		// Following features come from Zhou et al. 2005
 	    		// ET1DW1: combination of the entity type and the dependent word for M1
-	    		features.add(new Feature(ftrPrefix + "_TYPE-GOVERNING_WORD", String.format("%d-%s", mention.getTypeID(), dependsOn.getCoveredText())));
+	    		features.add(new Feature(Feature.createName(ftrPrefix, "TYPE-GOVERNING_WORD"), String.format("%d-%s", mention.getTypeID(), dependsOn.getCoveredText())));
 	    		// H1DW1: combination of the head word and the dependent word for M1 
-	    		features.add(new Feature(ftrPrefix + "_HEAD_WORD-GOVERNING_WORD", String.format("%s-%s", mentionHeadNode.getCoveredText(), dependsOn.getCoveredText())));
-	    		features.add(new Feature(ftrPrefix + "_TYPE-GOVERNING_POS", String.format("%d-%s", mention.getTypeID(), dependsOn.getPostag())));
-	    		features.add(new Feature(ftrPrefix + "_HEAD_POS-GOVERNING_POS", String.format("%s-%s", mentionHeadNode.getPostag(), dependsOn.getPostag())));
+	    		features.add(new Feature(Feature.createName(ftrPrefix, "HEAD_WORD-GOVERNING_WORD"), String.format("%s-%s", mentionHeadNode.getCoveredText(), dependsOn.getCoveredText())));
+	    		features.add(new Feature(Feature.createName(ftrPrefix, "TYPE-GOVERNING_POS"), String.format("%d-%s", mention.getTypeID(), dependsOn.getPostag())));
+	    		features.add(new Feature(Feature.createName(ftrPrefix, "HEAD_POS-GOVERNING_POS"), String.format("%s-%s", mentionHeadNode.getPostag(), dependsOn.getPostag())));
 	    	}
 	    }
 	    return features;
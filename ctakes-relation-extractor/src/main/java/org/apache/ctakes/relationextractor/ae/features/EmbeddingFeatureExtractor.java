@@ -19,13 +19,17 @@
 package org.apache.ctakes.relationextractor.ae.features;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.ctakes.relationextractor.data.analysis.Utils;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.utils.distsem.MappedEmbeddings;
+import org.apache.ctakes.utils.distsem.VectorMath;
+import org.apache.ctakes.utils.distsem.WordEmbeddings;
+import org.apache.ctakes.utils.distsem.WordVector;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -35,15 +39,30 @@ import org.cleartk.ml.Feature;
  * Word embedding based features.
  * OOV words are handled by the average vector which should be 
  * included with the rest of the vectors and indexed as "oov".
+ * Vectors are read from {@link WordEmbeddings}, which may be backed by a
+ * {@link MappedEmbeddings} store, and are combined as primitive arrays.
  */
 public class EmbeddingFeatureExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> {
 
   private int numberOfDimensions;
-  private Map<String, List<Double>> wordVectors;
+  private WordEmbeddings wordVectors;
 
   public EmbeddingFeatureExtractor(Map<String, List<Double>> wordVectors) {
+    Map<String, WordVector> vectors = new HashMap<>();
+    for(Map.Entry<String, List<Double>> entry : wordVectors.entrySet()) {
+      double[] vector = new double[entry.getValue().size()];
+      for(int dim = 0; dim < vector.length; dim++) {
+        vector[dim] = entry.getValue().get(dim);
+      }
+      vectors.put(entry.getKey(), new WordVector(entry.getKey(), vector));
+    }
+    this.wordVectors = new WordEmbeddings(vectors);
+    numberOfDimensions = wordVectors.get("oov").size();
+  }
+
+  public EmbeddingFeatureExtractor(WordEmbeddings wordVectors) {
     this.wordVectors = wordVectors;
-    numberOfDimensions = this.wordVectors.get("oov").size();
+    numberOfDimensions = wordVectors.getDimensionality();
   }
 
   @Override
@@ -54,27 +73,23 @@ public class EmbeddingFeatureExtractor implements RelationFeaturesExtractor<Iden
     String arg1LastWord = Utils.getLastWord(jCas, arg1).toLowerCase();
     String arg2LastWord = Utils.getLastWord(jCas, arg2).toLowerCase();
 
-    List<Double> arg1Vector;
-    if(wordVectors.containsKey(arg1LastWord)) {
-      arg1Vector = wordVectors.get(arg1LastWord);
-    } else {
-      arg1Vector = wordVectors.get("oov");
+    double[] arg1Vector = new double[numberOfDimensions];
+    if(!wordVectors.copyVector(arg1LastWord, arg1Vector)) {
+      wordVectors.copyVector("oov", arg1Vector);
     }
-    List<Double> arg2Vector;
-    if(wordVectors.containsKey(arg2LastWord)) {
-      arg2Vector = wordVectors.get(arg2LastWord);
-    } else {
-      arg2Vector = wordVectors.get("oov");
+    double[] arg2Vector = new double[numberOfDimensions];
+    if(!wordVectors.copyVector(arg2LastWord, arg2Vector)) {
+      wordVectors.copyVector("oov", arg2Vector);
     }
     
     // head word feataures
     for(int dim = 0; dim < numberOfDimensions; dim++) {
       String featureName = String.format("arg1_dim_%d", dim);
-      features.add(new Feature(featureName, arg1Vector.get(dim)));
+      features.add(new Feature(featureName, arg1Vector[dim]));
     }
     for(int dim = 0; dim < numberOfDimensions; dim++) {
       String featureName = String.format("arg2_dim_%d", dim);
-      features.add(new Feature(featureName, arg2Vector.get(dim)));
+      features.add(new Feature(featureName, arg2Vector[dim]));
     }    
 
     // head word similarity features
@@ -87,20 +102,16 @@ public class EmbeddingFeatureExtractor implements RelationFeaturesExtractor<Iden
       return features;  
     }
     
-    List<Double> sum = new ArrayList<>(Collections.nCopies(numberOfDimensions, 0.0));
+    double[] sum = new double[numberOfDimensions];
     for(WordToken wordToken : wordsBetweenArgs) {
-      List<Double> wordVector;
-      if(wordVectors.containsKey(wordToken.getCoveredText().toLowerCase())) {
-        wordVector = wordVectors.get(wordToken.getCoveredText().toLowerCase());
-      } else {
-        wordVector = wordVectors.get("oov");
+      if(!wordVectors.addVector(wordToken.getCoveredText().toLowerCase(), sum)) {
+        wordVectors.addVector("oov", sum);
       }
-      sum = addVectors(sum, wordVector);      
     }
 
     for(int dim = 0; dim < numberOfDimensions; dim++) {
       String featureName = String.format("average_dim_%d", dim);
-      features.add(new Feature(featureName, sum.get(dim) / wordsBetweenArgs.size()));
+      features.add(new Feature(featureName, sum[dim] / wordsBetweenArgs.size()));
     }
 
     return features;
@@ -109,31 +120,7 @@ public class EmbeddingFeatureExtractor implements RelationFeaturesExtractor<Iden
   /**
    * Compute cosine similarity between two vectors.
    */
-  public double computeCosineSimilarity(List<Double> vector1, List<Double> vector2) {
-
-    double dotProduct = 0.0;
-    double norm1 = 0.0;
-    double norm2 = 0.0;
-
-    for (int dim = 0; dim < numberOfDimensions; dim++) {
-      dotProduct = dotProduct + vector1.get(dim) * vector2.get(dim);
-      norm1 = norm1 + Math.pow(vector1.get(dim), 2);
-      norm2 = norm2 + Math.pow(vector2.get(dim), 2);
-    }
-
-    return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
-  }
-  
-  /**
-   * Add two vectors. Return the sum vector.
-   */
-  public List<Double> addVectors(List<Double> vector1, List<Double> vector2) {
-    
-    List<Double> sum = new ArrayList<>();
-    for(int dim = 0; dim < numberOfDimensions; dim++) {
-      sum.add(vector1.get(dim) + vector2.get(dim));
-    }
-    
-    return sum;
+  public double computeCosineSimilarity(double[] vector1, double[] vector2) {
+    return VectorMath.cosine(vector1, vector2);
   }
 }
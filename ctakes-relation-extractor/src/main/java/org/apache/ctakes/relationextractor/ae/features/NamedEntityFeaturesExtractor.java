@@ -31,9 +31,8 @@ import org.cleartk.ml.Feature;
 import org.cleartk.ml.feature.extractor.CleartkExtractorException;
 import org.cleartk.ml.feature.extractor.DistanceExtractor;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
-import org.cleartk.ml.feature.extractor.NamingExtractor1;
 
-public class NamedEntityFeaturesExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
+public class NamedEntityFeaturesExtractor implements SeparableRelationFeaturesExtractor {
 
   private FeatureExtractor1 namedEntityType = new FeatureExtractor1() {
     @Override
@@ -43,32 +42,27 @@ public class NamedEntityFeaturesExtractor implements RelationFeaturesExtractor<I
     }
   };
 
-  /**
-   * All extractors for mention 1, with features named to distinguish them from mention 2
-   */
-  private FeatureExtractor1 mention1FeaturesExtractor = new NamingExtractor1(
-      "mention1",
-      namedEntityType);
-
-  /**
-   * All extractors for mention 2, with features named to distinguish them from mention 1
-   */
-  private FeatureExtractor1 mention2FeaturesExtractor = new NamingExtractor1(
-      "mention2",
-      namedEntityType);
-
   /**
    * Number of named entities between the two mentions
    */
   private DistanceExtractor nEntityMentionsBetween = new DistanceExtractor(null, EntityMention.class);
 
   @Override
-  public List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
+  public List<Feature> extractArgument(JCas jCas, IdentifiedAnnotation mention)
+      throws AnalysisEngineProcessException {
+    return this.namedEntityType.extract(jCas, mention);
+  }
+
+  @Override
+  public String getArgumentPrefix(int position) {
+    return "mention" + position;
+  }
+
+  @Override
+  public List<Feature> extractPair(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
       throws AnalysisEngineProcessException {
 
     List<Feature> features = new ArrayList<Feature>();
-    features.addAll(this.mention1FeaturesExtractor.extract(jCas, arg1));
-    features.addAll(this.mention2FeaturesExtractor.extract(jCas, arg2));
     features.addAll(this.nEntityMentionsBetween.extract(jCas, arg1, arg2));
 
     // entity type of both mentions, concatenated
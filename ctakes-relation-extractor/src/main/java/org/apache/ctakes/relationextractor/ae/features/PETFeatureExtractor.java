@@ -38,7 +38,7 @@ public class PETFeatureExtractor implements RelationFeaturesExtractor<Identified
 	public List<Feature> extract(JCas jcas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2) throws AnalysisEngineProcessException {
 		List<Feature> features = new ArrayList<Feature>();
 		// first get the root and print it out...
-		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jcas, AnnotationTreeUtils.getAnnotationTree(jcas, arg1));
+		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jcas, ParseTreeUtils.getAnnotationTree(jcas, arg1));
 		
 //		SimpleTree tempClone = TreeExtractor.getSimpleClone(root);
 //		features.add(new Feature("TK_FULL", tempClone.toString()));
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import org.apache.ctakes.constituency.parser.util.AnnotationTreeUtils;
+import org.apache.ctakes.typesystem.type.syntax.TopTreebankNode;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Constituency tree lookups shared by the tree fragment extractors of all relation annotators.
+ */
+public class ParseTreeUtils {
+
+  private static final String TREE_KEY = ParseTreeUtils.class.getName() + ".tree";
+
+  private ParseTreeUtils() {
+  }
+
+  /**
+   * {@link AnnotationTreeUtils#getAnnotationTree(JCas, Annotation)} scans every tree of the document.  This
+   * finds the tree of an argument once per document, for every pair and every extractor.
+   *
+   * @return the tree covering the annotation, which must not be modified; copy it before inserting nodes
+   */
+  public static TopTreebankNode getAnnotationTree(JCas jCas, Annotation annotation) {
+    return RelationFeatureCache.getInstance().getValue(jCas, annotation, TREE_KEY,
+        () -> AnnotationTreeUtils.getAnnotationTree(jCas, annotation));
+  }
+}
@@ -30,10 +30,9 @@ import org.cleartk.ml.feature.extractor.CleartkExtractor;
 import org.cleartk.ml.feature.extractor.CleartkExtractor.Bag;
 import org.cleartk.ml.feature.extractor.CleartkExtractor.Covered;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
-import org.cleartk.ml.feature.extractor.NamingExtractor1;
 import org.cleartk.ml.feature.extractor.TypePathExtractor;
 
-public class PartOfSpeechFeaturesExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
+public class PartOfSpeechFeaturesExtractor implements SeparableRelationFeaturesExtractor {
 
   private FeatureExtractor1 pos = new TypePathExtractor(BaseToken.class, "partOfSpeech");
 
@@ -45,27 +44,21 @@ public class PartOfSpeechFeaturesExtractor implements RelationFeaturesExtractor<
       pos,
       new Bag(new Covered()));
 
-  /**
-   * All extractors for mention 1, with features named to distinguish them from mention 2
-   */
-  private FeatureExtractor1 mention1FeaturesExtractor = new NamingExtractor1(
-      "mention1",
-      tokenPOS);
+  @Override
+  public List<Feature> extractArgument(JCas jCas, IdentifiedAnnotation mention)
+      throws AnalysisEngineProcessException {
+    return this.tokenPOS.extract(jCas, mention);
+  }
 
-  /**
-   * All extractors for mention 2, with features named to distinguish them from mention 1
-   */
-  private FeatureExtractor1 mention2FeaturesExtractor = new NamingExtractor1(
-      "mention2",
-      tokenPOS);
+  @Override
+  public String getArgumentPrefix(int position) {
+    return "mention" + position;
+  }
 
   @Override
-  public List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
+  public List<Feature> extractPair(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
       throws AnalysisEngineProcessException {
-    List<Feature> features = new ArrayList<Feature>();
-    features.addAll(this.mention1FeaturesExtractor.extract(jCas, arg1));
-    features.addAll(this.mention2FeaturesExtractor.extract(jCas, arg2));
-    return features;
+    return new ArrayList<Feature>();
   }
 
 }
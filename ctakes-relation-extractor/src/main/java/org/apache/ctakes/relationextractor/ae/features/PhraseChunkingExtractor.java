@@ -21,11 +21,11 @@ package org.apache.ctakes.relationextractor.ae.features;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.TerminalTreebankNode;
 import org.apache.ctakes.typesystem.type.syntax.TreebankNode;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
@@ -37,7 +37,7 @@ public class PhraseChunkingExtractor implements RelationFeaturesExtractor<Identi
 		  for(TreebankNode tb : treenodesList) {
 			  if(tb.getHeadIndex() > 0 && tb.getNodeType().endsWith("P") && !tb.getNodeType().equals("NNP")) {
 				  	int headIndex = tb.getHeadIndex();
-				  	for(TerminalTreebankNode ttb : JCasUtil.selectCovered(jCas, TerminalTreebankNode.class, tb)) {
+				  	for(TerminalTreebankNode ttb : SpanIndexService.getInstance().getSpanIndex(jCas, TerminalTreebankNode.class).getCovered(tb)) {
 				  		if(ttb.getIndex() == headIndex) {
 				  			addPhraseHead(rTNodeList, ttb);
 				  			break;
@@ -77,7 +77,7 @@ public class PhraseChunkingExtractor implements RelationFeaturesExtractor<Identi
 		List<Feature> features = new ArrayList<Feature>();
 				
 		// Extract features between 
-		List<TerminalTreebankNode> headList = this.extractPhraseHeadByTreenode(jCas, JCasUtil.selectCovered(jCas, TreebankNode.class, arg1.getEnd(), arg2.getBegin()));
+		List<TerminalTreebankNode> headList = this.extractPhraseHeadByTreenode(jCas, SpanIndexService.getInstance().getSpanIndex(jCas, TreebankNode.class).getCovered(arg1.getEnd(), arg2.getBegin()));
 
 		if(headList.size() > 0) {
 			features.add(new Feature("PhraseChunk_Between_FirstHead", headList.get(0).getNodeValue()));
@@ -95,7 +95,7 @@ public class PhraseChunkingExtractor implements RelationFeaturesExtractor<Identi
 		}
 		
 		// Extract feature before M1
-		headList = this.extractPhraseHeadByTreenode(jCas, JCasUtil.selectPreceding(jCas, TreebankNode.class, arg1, 20));
+		headList = this.extractPhraseHeadByTreenode(jCas, SpanIndexService.getInstance().getSpanIndex(jCas, TreebankNode.class).getPreceding(arg1, 20));
 
 		boolean isFirst = false;
 		for(int i=headList.size()-1;i>=0;i--) {
@@ -112,7 +112,7 @@ public class PhraseChunkingExtractor implements RelationFeaturesExtractor<Identi
 		}
 		
 		// Extract feature after M2
-		headList = this.extractPhraseHeadByTreenode(jCas, JCasUtil.selectFollowing(jCas, TreebankNode.class, arg2, 20));
+		headList = this.extractPhraseHeadByTreenode(jCas, SpanIndexService.getInstance().getSpanIndex(jCas, TreebankNode.class).getFollowing(arg2, 20));
 		
 		
 		isFirst = false;
@@ -23,10 +23,10 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
@@ -50,7 +50,7 @@ public class PrepositionFeatureExtractor implements RelationFeaturesExtractor<Id
   	
   	// entity1 ... entity2 scenario
   	if(arg1.getEnd() < arg2.getBegin()) {
-  		for(BaseToken token : JCasUtil.selectCovered(jCas, BaseToken.class, arg1.getEnd(), arg2.getBegin())) {
+  		for(BaseToken token : SpanIndexService.getInstance().getSpanIndex(jCas, BaseToken.class).getCovered(arg1.getEnd(), arg2.getBegin())) {
   			if(prepositions.contains(token.getCoveredText())) {
   				features.add(new Feature("arg1_preposition_arg2", token.getCoveredText()));
   			}
@@ -59,7 +59,7 @@ public class PrepositionFeatureExtractor implements RelationFeaturesExtractor<Id
   	
   	// entity2 ... entity1 scenario
   	if(arg2.getEnd() < arg1.getBegin()) {
-  		for(BaseToken token : JCasUtil.selectCovered(jCas, BaseToken.class, arg2.getEnd(), arg1.getBegin())) {
+  		for(BaseToken token : SpanIndexService.getInstance().getSpanIndex(jCas, BaseToken.class).getCovered(arg2.getEnd(), arg1.getBegin())) {
   			if(prepositions.contains(token.getCoveredText())) {
   				features.add(new Feature("arg2_preposition_arg1", token.getCoveredText()));
   			}
@@ -21,10 +21,10 @@ package org.apache.ctakes.relationextractor.ae.features;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
@@ -40,7 +40,7 @@ public class PunctuationFeatureExtractor implements RelationFeaturesExtractor<Id
   	
   	// entity1 ... entity2 scenario
   	if(arg1.getEnd() < arg2.getBegin()) {
-  		for(PunctuationToken token : JCasUtil.selectCovered(jCas, PunctuationToken.class, arg1.getEnd(), arg2.getBegin())) {
+  		for(PunctuationToken token : SpanIndexService.getInstance().getSpanIndex(jCas, PunctuationToken.class).getCovered(arg1.getEnd(), arg2.getBegin())) {
   			features.add(new Feature("arg1_punctuation_arg2", token.getCoveredText()));
   			break;
   		}
@@ -48,7 +48,7 @@ public class PunctuationFeatureExtractor implements RelationFeaturesExtractor<Id
   	
   	// entity2 ... entity1 scenario
   	if(arg2.getEnd() < arg1.getBegin()) {
-  		for(PunctuationToken token : JCasUtil.selectCovered(jCas, PunctuationToken.class, arg2.getEnd(), arg1.getBegin())) {
+  		for(PunctuationToken token : SpanIndexService.getInstance().getSpanIndex(jCas, PunctuationToken.class).getCovered(arg2.getEnd(), arg1.getBegin())) {
   			features.add(new Feature("arg2_punctuation_arg1", token.getCoveredText()));
   			break;
   		}
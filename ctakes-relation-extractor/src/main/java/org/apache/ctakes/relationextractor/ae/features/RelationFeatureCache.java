@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ctakes.core.util.index.SpanIndexService;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.SofaFS;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.FeatureExtractor1;
+
+/**
+ * Features and other values of annotations and annotation pairs for the current document, shared by every
+ * relation annotator in a pipeline, including the temporal relation annotators.
+ * <p>
+ * Values are keyed by a key that names the extractor and its configuration, and by an annotation or an
+ * ordered pair of annotations.  Two extractors may use the same key only if they always produce the same
+ * value.  The values of a cas view are discarded when the view holds a new document, known by its sofa, which
+ * a cas reset replaces.  Values are held softly and keyed weakly by cas view, as cached annotations refer to
+ * their cas, so the cache never keeps a cas from being collected.
+ * </p>
+ * With n arguments in a sentence there are n&sup2; candidate pairs, but only n sets of argument features.
+ * Only values that depend on the text, tokens, syntax, sections and the arguments as they are when relation
+ * annotators run should be cached.  Properties that a relation annotator sets, such as DocTimeRel, must not
+ * be read by cached extractors.
+ */
+public enum RelationFeatureCache {
+  INSTANCE;
+
+  public static RelationFeatureCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Computes a value for an annotation or a pair.
+   *
+   * @param <T> value type
+   * @param <E> exception thrown by the loader, inferred as a runtime exception for loaders that throw none
+   */
+  public interface Loader<T, E extends Exception> {
+    T load() throws E;
+  }
+
+  private static final String SENTENCE_KEY = RelationFeatureCache.class.getName() + ".sentence";
+
+  // values may be null, but a ConcurrentHashMap cannot hold null
+  private static final Object NULL_VALUE = new Object();
+
+  private final Map<CAS, Reference<DocumentValues>> casValues = new WeakHashMap<>();
+
+  /**
+   * @return features of the pair, assembled from the cached argument and sentence features and the pair
+   *         features of the extractor
+   */
+  public List<Feature> extract(
+      JCas jCas,
+      SeparableRelationFeaturesExtractor extractor,
+      IdentifiedAnnotation arg1,
+      IdentifiedAnnotation arg2) throws AnalysisEngineProcessException {
+    String key = extractor.getCacheKey();
+    List<Feature> pairFeatures = new ArrayList<>();
+    addNamed(pairFeatures, extractor.getArgumentPrefix(1),
+        this.getValue(jCas, arg1, key, () -> copy(extractor.extractArgument(jCas, arg1))));
+    addNamed(pairFeatures, extractor.getArgumentPrefix(2),
+        this.getValue(jCas, arg2, key, () -> copy(extractor.extractArgument(jCas, arg2))));
+    Sentence sentence = this.getSentence(jCas, arg1);
+    if (sentence != null) {
+      addNamed(pairFeatures, null,
+          this.getValue(jCas, sentence, key, () -> copy(extractor.extractSentence(jCas, sentence))));
+    }
+    List<Feature> extracted = extractor.extractPair(jCas, arg1, arg2);
+    if (extracted != null) {
+      pairFeatures.addAll(extracted);
+    }
+    return pairFeatures;
+  }
+
+  /**
+   * @return the first sentence covering the annotation, found once per document, or null if there is none
+   */
+  public Sentence getSentence(JCas jCas, Annotation annotation) {
+    return this.getValue(jCas, annotation, SENTENCE_KEY, () -> {
+      List<Sentence> sentences = SpanIndexService.getInstance().getSpanIndex(jCas, Sentence.class).getCovering(annotation);
+      return sentences.isEmpty() ? null : sentences.get(0);
+    });
+  }
+
+  /**
+   * @param key
+   *          name of the extractor and its configuration
+   * @param extractor
+   *          extractor to run if the features are not cached
+   * @return copies of the features of the annotation
+   */
+  public <A extends Annotation> List<Feature> getFeatures(
+      JCas jCas,
+      A annotation,
+      String key,
+      FeatureExtractor1<? super A> extractor) throws AnalysisEngineProcessException {
+    List<Feature> features = new ArrayList<>();
+    addNamed(features, null, this.getValue(jCas, annotation, key, () -> copy(extractor.extract(jCas, annotation))));
+    return features;
+  }
+
+  /**
+   * @param key
+   *          name of the extractor and its configuration
+   * @param extractor
+   *          extractor to run if the features of the ordered pair are not cached
+   * @return copies of the features of the pair
+   */
+  public List<Feature> getPairFeatures(
+      JCas jCas,
+      IdentifiedAnnotation arg1,
+      IdentifiedAnnotation arg2,
+      String key,
+      RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> extractor)
+      throws AnalysisEngineProcessException {
+    List<Feature> features = new ArrayList<>();
+    addNamed(features, null, this.getPairValue(jCas, arg1, arg2, key, () -> copy(extractor.extract(jCas, arg1, arg2))));
+    return features;
+  }
+
+  /**
+   * @param key
+   *          name of the value and its configuration
+   * @param loader
+   *          computes the value if it is not cached
+   * @return value for the annotation, which must not be modified
+   */
+  public <T, E extends Exception> T getValue(JCas jCas, Annotation annotation, String key, Loader<T, E> loader)
+      throws E {
+    return this.getValue(jCas, new ValueKey(key, annotation, null), loader);
+  }
+
+  /**
+   * @param key
+   *          name of the value and its configuration
+   * @param loader
+   *          computes the value if it is not cached
+   * @return value for the ordered pair of annotations, which must not be modified
+   */
+  public <T, E extends Exception> T getPairValue(
+      JCas jCas,
+      Annotation arg1,
+      Annotation arg2,
+      String key,
+      Loader<T, E> loader) throws E {
+    return this.getValue(jCas, new ValueKey(key, arg1, arg2), loader);
+  }
+
+  /**
+   * Discards all values for the cas view.
+   */
+  public synchronized void clear(JCas jCas) {
+    this.casValues.remove(jCas.getCas());
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T, E extends Exception> T getValue(JCas jCas, ValueKey valueKey, Loader<T, E> loader) throws E {
+    Map<ValueKey, Object> values = this.getDocumentValues(jCas);
+    Object value = values.get(valueKey);
+    if (value == null) {
+      // not computeIfAbsent, as loaders may themselves use the cache
+      value = loader.load();
+      values.put(valueKey, value == null ? NULL_VALUE : value);
+    }
+    return value == NULL_VALUE ? null : (T) value;
+  }
+
+  /**
+   * Cached features are never handed out, as feature extractors such as NamingExtractor1 rename features.
+   */
+  private static void addNamed(List<Feature> features, String prefix, List<Feature> cached) {
+    for (Feature feature : cached) {
+      features.add(new Feature(Feature.createName(prefix, feature.getName()), feature.getValue()));
+    }
+  }
+
+  private static List<Feature> copy(List<Feature> features) {
+    if (features == null || features.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Feature> copies = new ArrayList<>(features.size());
+    for (Feature feature : features) {
+      copies.add(new Feature(feature.getName(), feature.getValue()));
+    }
+    return Collections.unmodifiableList(copies);
+  }
+
+  private synchronized Map<ValueKey, Object> getDocumentValues(JCas jCas) {
+    SofaFS sofa = jCas.getSofa();
+    Reference<DocumentValues> reference = this.casValues.get(jCas.getCas());
+    DocumentValues documentValues = reference == null ? null : reference.get();
+    if (documentValues == null || documentValues.sofa.get() != sofa) {
+      documentValues = new DocumentValues(sofa);
+      this.casValues.put(jCas.getCas(), new SoftReference<>(documentValues));
+    }
+    return documentValues.values;
+  }
+
+  /**
+   * Values for one document in a cas view.
+   */
+  private static final class DocumentValues {
+    private final Map<ValueKey, Object> values = new ConcurrentHashMap<>();
+    // the cover object of the sofa is replaced when the cas is reset for the next document
+    private final Reference<SofaFS> sofa;
+
+    private DocumentValues(SofaFS sofa) {
+      this.sofa = new WeakReference<>(sofa);
+    }
+  }
+
+  /**
+   * Names a value and the annotations that it is for by their addresses, which are unique within a document,
+   * so that keys do not refer to the cas.
+   */
+  private static final class ValueKey {
+    // 0 is not the address of any feature structure
+    private static final int NO_ANNOTATION = 0;
+
+    private final String key;
+    private final int annotation;
+    private final int other;
+
+    private ValueKey(String key, Annotation annotation, Annotation other) {
+      this.key = key;
+      this.annotation = annotation.getAddress();
+      this.other = other == null ? NO_ANNOTATION : other.getAddress();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (!(object instanceof ValueKey)) {
+        return false;
+      }
+      ValueKey valueKey = (ValueKey) object;
+      return this.annotation == valueKey.annotation
+          && this.other == valueKey.other
+          && this.key.equals(valueKey.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.key, this.annotation, this.other);
+    }
+  }
+}
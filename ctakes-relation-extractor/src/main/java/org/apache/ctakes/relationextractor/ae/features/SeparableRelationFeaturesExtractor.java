@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Feature;
+
+/**
+ * A relation feature extractor whose features are split into features of one argument, features of the
+ * sentence that holds the arguments, and features of the pair.
+ * <p>
+ * The features of a pair are those of the first argument named with the first argument prefix, those of the
+ * second argument named with the second argument prefix, those of the sentence, then those of the pair.
+ * Argument and sentence features are computed once per document by {@link RelationFeatureCache}, so
+ * extractors that share a cache key, e.g. the same extractor in different relation annotators, share them.
+ * </p>
+ * Argument and sentence features must not depend on anything that changes while a document is processed.
+ */
+public interface SeparableRelationFeaturesExtractor
+    extends RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> {
+
+  /**
+   * Extract the features of one argument, the same in either argument position.
+   *
+   * @param jCas
+   *          The JCas containing the argument.
+   * @param argument
+   *          An argument of a relation.
+   * @return Features of the argument, without a position prefix
+   */
+  public List<Feature> extractArgument(JCas jCas, IdentifiedAnnotation argument)
+      throws AnalysisEngineProcessException;
+
+  /**
+   * @param position
+   *          1 for the first argument, 2 for the second
+   * @return prefix added to the names of the features of the argument in the position
+   */
+  public String getArgumentPrefix(int position);
+
+  /**
+   * Extract the features of the sentence that holds the first argument.
+   *
+   * @param jCas
+   *          The JCas containing the sentence.
+   * @param sentence
+   *          The sentence of the first argument.
+   * @return Features of the sentence, none by default
+   */
+  public default List<Feature> extractSentence(JCas jCas, Sentence sentence)
+      throws AnalysisEngineProcessException {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Extract the features that depend on both arguments.
+   *
+   * @param jCas
+   *          The JCas containing the two arguments.
+   * @param arg1
+   *          The first identified annotation in the text.
+   * @param arg2
+   *          The second identified annotation in the text.
+   * @return Features of the pair
+   */
+  public List<Feature> extractPair(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
+      throws AnalysisEngineProcessException;
+
+  /**
+   * @return key of the cached argument and sentence features.  Extractors with the same key must produce
+   *         the same argument and sentence features.
+   */
+  public default String getCacheKey() {
+    return this.getClass().getName();
+  }
+
+  /**
+   * Assembles the pair features from the cached argument and sentence features and the pair features.
+   */
+  @Override
+  public default List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
+      throws AnalysisEngineProcessException {
+    return RelationFeatureCache.getInstance().extract(jCas, this, arg1, arg2);
+  }
+}
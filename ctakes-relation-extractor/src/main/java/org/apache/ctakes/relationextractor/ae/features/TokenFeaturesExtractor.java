@@ -45,7 +45,7 @@ import org.cleartk.ml.feature.extractor.DistanceExtractor;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 import org.cleartk.ml.feature.extractor.NamingExtractor1;
 
-public class TokenFeaturesExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
+public class TokenFeaturesExtractor implements SeparableRelationFeaturesExtractor {
 
   private FeatureExtractor1 coveredText = new CoveredTextExtractor();
 
@@ -63,18 +63,9 @@ public class TokenFeaturesExtractor implements RelationFeaturesExtractor<Identif
       new Following(3));
 
   /**
-   * All extractors for mention 1, with features named to distinguish them from mention 2
+   * All extractors for a mention, with features named "mention1" or "mention2" by argument position
    */
-  private FeatureExtractor1 mention1FeaturesExtractor = new NamingExtractor1(
-      "mention1",
-      new CombinedExtractor1(coveredText, tokenContext));
-
-  /**
-   * All extractors for mention 2, with features named to distinguish them from mention 1
-   */
-  private FeatureExtractor1 mention2FeaturesExtractor = new NamingExtractor1(
-      "mention2",
-      new CombinedExtractor1(coveredText, tokenContext));
+  private FeatureExtractor1 mentionFeaturesExtractor = new CombinedExtractor1(coveredText, tokenContext);
 
   /**
    * First word, last word, and all words between the mentions
@@ -92,29 +83,38 @@ public class TokenFeaturesExtractor implements RelationFeaturesExtractor<Identif
   private DistanceExtractor nTokensBetween = new DistanceExtractor(null, BaseToken.class);
 
   @Override
-  public List<Feature> extract(JCas jCas, IdentifiedAnnotation mention1, IdentifiedAnnotation mention2)
+  public List<Feature> extractArgument(JCas jCas, IdentifiedAnnotation mention)
+      throws AnalysisEngineProcessException {
+    return this.mentionFeaturesExtractor.extract(jCas, getArgumentAnnotation(jCas, mention));
+  }
+
+  @Override
+  public String getArgumentPrefix(int position) {
+    return "mention" + position;
+  }
+
+  @Override
+  public List<Feature> extractPair(JCas jCas, IdentifiedAnnotation mention1, IdentifiedAnnotation mention2)
       throws AnalysisEngineProcessException {
     List<Feature> features = new ArrayList<Feature>();
-    Annotation arg1 = mention1;
-    Annotation arg2 = mention2;
-    
-    if(arg1 instanceof EventMention){
-      arg1 = getExpandedEvent(jCas, mention1);
-      if(arg1 == null) arg1 = mention1;
-    }
-    
-    if(arg2 instanceof EventMention){
-      arg2 = getExpandedEvent(jCas, mention2);
-      if(arg2 == null) arg2 = mention2;
-    }
-    
-    features.addAll(this.mention1FeaturesExtractor.extract(jCas, arg1));
-    features.addAll(this.mention2FeaturesExtractor.extract(jCas, arg2));
+    Annotation arg1 = getArgumentAnnotation(jCas, mention1);
+    Annotation arg2 = getArgumentAnnotation(jCas, mention2);
     features.addAll(this.tokensBetween.extractBetween(jCas, arg1, arg2));
     features.addAll(this.nTokensBetween.extract(jCas, arg1, arg2));
     return features;
   }
 
+  /**
+   * @return the phrase of an event, or the mention itself
+   */
+  private static Annotation getArgumentAnnotation(JCas jCas, IdentifiedAnnotation mention) {
+    if(mention instanceof EventMention){
+      Annotation expanded = getExpandedEvent(jCas, mention);
+      if(expanded != null) return expanded;
+    }
+    return mention;
+  }
+
   private static TreebankNode getExpandedEvent(JCas jCas, IdentifiedAnnotation mention){
     // since events are single words, we are at a terminal node:
     List<TerminalTreebankNode> terms = JCasUtil.selectCovered(TerminalTreebankNode.class, mention);
@@ -72,7 +72,7 @@ public class TreeFragmentFeatureExtractor implements RelationFeaturesExtractor<I
 			IdentifiedAnnotation arg2) throws AnalysisEngineProcessException {
 		List<Feature> features = new ArrayList<Feature>();
 		// first get the root and print it out...
-		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jcas, AnnotationTreeUtils.getAnnotationTree(jcas, arg1));
+		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jcas, ParseTreeUtils.getAnnotationTree(jcas, arg1));
 //		SimpleTree tempClone = TreeExtractor.getSimpleClone(root);
 		TreebankNode t1 = AnnotationTreeUtils.insertAnnotationNode(jcas, root, arg1, "ARG1");
 		TreebankNode t2 = AnnotationTreeUtils.insertAnnotationNode(jcas, root, arg2, "ARG2");
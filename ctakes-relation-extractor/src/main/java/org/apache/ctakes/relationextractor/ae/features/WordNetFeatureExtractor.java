@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.relationextractor.ae.features;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -35,6 +36,42 @@ import edu.mit.jwi.IDictionary;
  */
 public class WordNetFeatureExtractor {
 
+  /**
+   * Hypernym features of the first token, looked up in the shared in-memory WordNet of {@link WordNetService}.
+   */
+  public static List<Feature> extract(JCas jCas, IdentifiedAnnotation identifiedAnnotation) throws IOException {
+
+    List<Feature> features = new ArrayList<Feature>();
+
+    List<BaseToken> baseTokens = JCasUtil.selectCovered(
+        jCas, 
+        BaseToken.class, 
+        identifiedAnnotation.getBegin(), 
+        identifiedAnnotation.getEnd());
+
+    if(baseTokens.size() < 1) {
+      return features;
+    }
+
+    String token = baseTokens.get(0).getCoveredText().toLowerCase();
+    String pos = baseTokens.get(0).getPartOfSpeech();
+
+    WordNetService wordNet = WordNetService.getInstance();
+    List<String> stems = wordNet.getStems(token, pos);
+
+    if(stems.size() > 0) {
+      for(String hypernym : wordNet.getHypernyms(stems.get(0), pos, true)) {
+        features.add(new Feature("wn_hypernym", hypernym));
+      }
+    }
+
+    return features;
+  }
+
+  /**
+   * @deprecated looks up every token in the given dictionary, use {@link #extract(JCas, IdentifiedAnnotation)}
+   */
+  @Deprecated
   public static List<Feature> extract(JCas jCas, IdentifiedAnnotation identifiedAnnotation, IDictionary iDictionary) {
   	
     List<Feature> features = new ArrayList<Feature>();
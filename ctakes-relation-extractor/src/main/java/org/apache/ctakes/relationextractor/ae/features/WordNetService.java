@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.RAMDictionary;
+import edu.mit.jwi.data.ILoadPolicy;
+import edu.mit.jwi.item.POS;
+
+/**
+ * WordNet for the whole JVM, loaded into memory once, with the results of {@link WordNetUtils} lookups
+ * memoized per word and part of speech.
+ * <p>
+ * A relation feature extractor looks up the same few thousand words for every token and argument pair,
+ * and each lookup in the on-disk dictionary reads and parses index and data lines.  The service loads
+ * the dictionary from {@link WordNetUtils#wordNetPath} into a JWI RAM dictionary the first time that it is needed,
+ * and then answers repeated lookups from concurrent maps.  Results are unmodifiable and may be shared by threads.
+ * </p>
+ * Each map is cleared when it grows past a million entries, which only happens with open-ended input such as numbers.
+ */
+public enum WordNetService {
+  INSTANCE;
+
+  public static WordNetService getInstance() {
+    return INSTANCE;
+  }
+
+  private static final int MAX_ENTRIES = 1000000;
+
+  private volatile IDictionary dictionary;
+
+  private final Map<String, List<String>> stems = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> synonyms = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> hypernyms = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> hyperHypernyms = new ConcurrentHashMap<>();
+
+  /**
+   * @return the shared in-memory dictionary, which must not be closed
+   * @throws IOException if the dictionary cannot be read
+   */
+  public IDictionary getDictionary() throws IOException {
+    IDictionary loaded = dictionary;
+    if(loaded != null) {
+      return loaded;
+    }
+    synchronized(this) {
+      if(dictionary == null) {
+        RAMDictionary ramDictionary = new RAMDictionary(new File(WordNetUtils.wordNetPath), ILoadPolicy.IMMEDIATE_LOAD);
+        if(!ramDictionary.open()) {
+          throw new IOException("Could not open WordNet at " + WordNetUtils.wordNetPath);
+        }
+        dictionary = ramDictionary;
+      }
+      return dictionary;
+    }
+  }
+
+  /**
+   * Same as {@link WordNetUtils#getStems(String, String, IDictionary)}.
+   */
+  public List<String> getStems(String word, String posTag) throws IOException {
+    IDictionary dict = getDictionary();
+    return lookup(stems, word, posTag, false,
+        pos -> Collections.unmodifiableList(WordNetUtils.getStems(word, posTag, dict)));
+  }
+
+  /**
+   * Same as {@link WordNetUtils#getSynonyms(IDictionary, String, String, boolean)}.
+   */
+  public Set<String> getSynonyms(String word, String posTag, boolean firstSenseOnly) throws IOException {
+    IDictionary dict = getDictionary();
+    return lookup(synonyms, word, posTag, firstSenseOnly,
+        pos -> Collections.unmodifiableSet(WordNetUtils.getSynonyms(dict, word, posTag, firstSenseOnly)));
+  }
+
+  /**
+   * Same as {@link WordNetUtils#getHypernyms(IDictionary, String, String, boolean)}.
+   */
+  public Set<String> getHypernyms(String word, String posTag, boolean firstSenseOnly) throws IOException {
+    IDictionary dict = getDictionary();
+    return lookup(hypernyms, word, posTag, firstSenseOnly,
+        pos -> Collections.unmodifiableSet(WordNetUtils.getHypernyms(dict, word, posTag, firstSenseOnly)));
+  }
+
+  /**
+   * Same as {@link WordNetUtils#getHyperHypernyms(IDictionary, String, String, boolean)}.
+   */
+  public Set<String> getHyperHypernyms(String word, String posTag, boolean firstSenseOnly) throws IOException {
+    IDictionary dict = getDictionary();
+    return lookup(hyperHypernyms, word, posTag, firstSenseOnly,
+        pos -> Collections.unmodifiableSet(WordNetUtils.getHyperHypernyms(dict, word, posTag, firstSenseOnly)));
+  }
+
+  /**
+   * Discards the memoized lookups, but keeps the dictionary.
+   */
+  public void clear() {
+    stems.clear();
+    synonyms.clear();
+    hypernyms.clear();
+    hyperHypernyms.clear();
+  }
+
+  /**
+   * Looks up the word for the WordNet part of speech of the tag, which is all that the result depends on.
+   */
+  private static <T> T lookup(Map<String, T> results, String word, String posTag, boolean firstSenseOnly,
+      Function<POS, T> compute) {
+    POS pos = POS.getPartOfSpeech(posTag.charAt(0));
+    if(pos == null) {
+      return compute.apply(null);
+    }
+    if(results.size() > MAX_ENTRIES) {
+      results.clear();
+    }
+    String key = pos.getTag() + (firstSenseOnly ? "1" : "0") + word;
+    return results.computeIfAbsent(key, k -> compute.apply(pos));
+  }
+}
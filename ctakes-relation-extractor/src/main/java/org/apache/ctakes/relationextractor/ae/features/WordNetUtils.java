@@ -67,6 +67,15 @@ public class WordNetUtils {
     return iDictionary;
   }
 
+  /**
+   * Get the WordNet dictionary shared by the JVM, loaded into memory by {@link WordNetService}.
+   * Unlike {@link #getDictionary()} the dictionary must not be closed.
+   */
+  public static IDictionary getSharedDictionary() throws IOException {
+
+    return WordNetService.getInstance().getDictionary();
+  }
+
   /**
    * Get a list of possible stems. Assume we are looking up a noun.
    */
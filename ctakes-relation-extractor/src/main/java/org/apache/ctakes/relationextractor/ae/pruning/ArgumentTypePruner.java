@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.pruning;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Keeps the pairs whose argument types, in candidate order, were seen in a relation in the training data.
+ * <p>
+ * The table is learned by {@link #addRelation(IdentifiedAnnotation, IdentifiedAnnotation)} for each training
+ * pair with a relation, saved with the model, and loaded to prune at classification time.  A type is the
+ * short name of the annotation type and its type id, e.g. "DiseaseDisorderMention:2".
+ * </p>
+ */
+public class ArgumentTypePruner implements CandidatePairPruner {
+
+  private static final String SEPARATOR = "\t";
+
+  private final Set<String> typePairs;
+
+  /**
+   * An empty table, to learn from training data.
+   */
+  public ArgumentTypePruner() {
+    this.typePairs = new TreeSet<>();
+  }
+
+  /**
+   * @param file
+   *          A table written by {@link #save(File)}.
+   * @return The pruner for the table.
+   */
+  public static ArgumentTypePruner load(File file) throws IOException {
+    ArgumentTypePruner pruner = new ArgumentTypePruner();
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.trim().isEmpty()) {
+          pruner.typePairs.add(line.trim());
+        }
+      }
+    }
+    return pruner;
+  }
+
+  /**
+   * Writes the table, one type pair per line.
+   */
+  public void save(File file) throws IOException {
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      for (String typePair : this.typePairs) {
+        writer.write(typePair);
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Adds the types of the arguments of a pair with a relation to the table.
+   */
+  public synchronized void addRelation(IdentifiedAnnotation arg1, IdentifiedAnnotation arg2) {
+    this.typePairs.add(getTypePair(arg1, arg2));
+  }
+
+  /**
+   * @return The type pairs in the table, sorted.
+   */
+  public synchronized Set<String> getTypePairs() {
+    return Collections.unmodifiableSet(new TreeSet<>(this.typePairs));
+  }
+
+  @Override
+  public synchronized List<IdentifiedAnnotationPair> prune(
+      JCas jCas,
+      Annotation coveringAnnotation,
+      List<IdentifiedAnnotationPair> pairs) {
+    List<IdentifiedAnnotationPair> kept = new ArrayList<>(pairs.size());
+    for (IdentifiedAnnotationPair pair : pairs) {
+      if (this.typePairs.contains(getTypePair(pair.getArg1(), pair.getArg2()))) {
+        kept.add(pair);
+      }
+    }
+    return kept;
+  }
+
+  @Override
+  public String getName() {
+    return "argument types of training relations";
+  }
+
+  private static String getTypePair(IdentifiedAnnotation arg1, IdentifiedAnnotation arg2) {
+    return getType(arg1) + SEPARATOR + getType(arg2);
+  }
+
+  private static String getType(IdentifiedAnnotation argument) {
+    return argument.getType().getShortName() + ":" + argument.getTypeID();
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.pruning;
+
+import java.util.List;
+
+import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Removes candidate argument pairs before features are extracted and classified, to bound the cost of a
+ * sentence with many entities.  Pairs that are removed are classified as having no relation.
+ */
+public interface CandidatePairPruner {
+
+  /**
+   * @param jCas
+   *          The JCas containing the pairs.
+   * @param coveringAnnotation
+   *          The annotation, e.g. the sentence, that the pairs were selected from.
+   * @param pairs
+   *          Candidate pairs in the order they were generated.
+   * @return The pairs to keep, in the same order.
+   */
+  public List<IdentifiedAnnotationPair> prune(
+      JCas jCas,
+      Annotation coveringAnnotation,
+      List<IdentifiedAnnotationPair> pairs) throws AnalysisEngineProcessException;
+
+  /**
+   * @return A short description of the pruner and its settings, for reports.
+   */
+  public String getName();
+}
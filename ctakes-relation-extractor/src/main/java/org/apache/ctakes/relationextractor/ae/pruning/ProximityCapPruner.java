@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.pruning;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Keeps, for each argument, only its pairs with the closest other arguments.  A pair is kept if it is
+ * among the closest pairs of either of its arguments, so an argument in a long list keeps its neighbors.
+ * Distance is in tokens; ties keep the order the pairs were generated in.
+ */
+public class ProximityCapPruner implements CandidatePairPruner {
+
+  private final int maxPairsPerArgument;
+
+  /**
+   * @param maxPairsPerArgument
+   *          The number of closest pairs kept for each argument.
+   */
+  public ProximityCapPruner(int maxPairsPerArgument) {
+    if (maxPairsPerArgument < 1) {
+      throw new IllegalArgumentException("Maximum pairs per argument must be positive: " + maxPairsPerArgument);
+    }
+    this.maxPairsPerArgument = maxPairsPerArgument;
+  }
+
+  @Override
+  public List<IdentifiedAnnotationPair> prune(
+      JCas jCas,
+      Annotation coveringAnnotation,
+      List<IdentifiedAnnotationPair> pairs) {
+    TokenPositions positions = new TokenPositions(jCas, coveringAnnotation);
+    int[] distances = new int[pairs.size()];
+    Map<IdentifiedAnnotation, List<Integer>> argumentPairs = new HashMap<>();
+    for (int i = 0; i < pairs.size(); i++) {
+      IdentifiedAnnotationPair pair = pairs.get(i);
+      distances[i] = positions.getDistance(pair.getArg1(), pair.getArg2());
+      argumentPairs.computeIfAbsent(pair.getArg1(), a -> new ArrayList<>()).add(i);
+      if (pair.getArg2() != pair.getArg1()) {
+        argumentPairs.computeIfAbsent(pair.getArg2(), a -> new ArrayList<>()).add(i);
+      }
+    }
+    boolean[] keep = new boolean[pairs.size()];
+    for (List<Integer> indexes : argumentPairs.values()) {
+      if (indexes.size() <= this.maxPairsPerArgument) {
+        for (int index : indexes) {
+          keep[index] = true;
+        }
+      } else {
+        // stable, so ties keep the generated order
+        indexes.sort((index1, index2) -> Integer.compare(distances[index1], distances[index2]));
+        for (int index : indexes.subList(0, this.maxPairsPerArgument)) {
+          keep[index] = true;
+        }
+      }
+    }
+    List<IdentifiedAnnotationPair> kept = new ArrayList<>();
+    for (int i = 0; i < pairs.size(); i++) {
+      if (keep[i]) {
+        kept.add(pairs.get(i));
+      }
+    }
+    return kept;
+  }
+
+  @Override
+  public String getName() {
+    return "closest " + this.maxPairsPerArgument + " per argument";
+  }
+}
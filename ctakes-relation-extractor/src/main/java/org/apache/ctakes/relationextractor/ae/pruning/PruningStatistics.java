@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.pruning;
+
+/**
+ * Counts of the candidate pairs that a pruner was given and kept, and of those that have a gold relation.
+ * Gold recall is the fraction of pairs with a gold relation that the pruner kept, so 1 - gold recall is the
+ * most recall that the pruner can cost.
+ */
+public class PruningStatistics {
+
+  private final String name;
+
+  private long candidates;
+
+  private long kept;
+
+  private long goldCandidates;
+
+  private long goldKept;
+
+  public PruningStatistics(String name) {
+    this.name = name;
+  }
+
+  public synchronized void add(int candidates, int kept, int goldCandidates, int goldKept) {
+    this.candidates += candidates;
+    this.kept += kept;
+    this.goldCandidates += goldCandidates;
+    this.goldKept += goldKept;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public synchronized long getCandidates() {
+    return this.candidates;
+  }
+
+  public synchronized long getKept() {
+    return this.kept;
+  }
+
+  public synchronized long getGoldCandidates() {
+    return this.goldCandidates;
+  }
+
+  public synchronized long getGoldKept() {
+    return this.goldKept;
+  }
+
+  /**
+   * @return The fraction of pairs with a gold relation that were kept, 1 if there were none.
+   */
+  public synchronized double getGoldRecall() {
+    return this.goldCandidates == 0 ? 1.0 : (double) this.goldKept / this.goldCandidates;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "%s: kept %d of %d candidates (%.1f%%), %d of %d gold relations (recall %.4f)",
+        this.name,
+        this.kept,
+        this.candidates,
+        this.candidates == 0 ? 100.0 : 100.0 * this.kept / this.candidates,
+        this.goldKept,
+        this.goldCandidates,
+        this.getGoldRecall());
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.pruning;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Keeps the pairs whose arguments have at most a maximum number of tokens between them.
+ */
+public class TokenDistancePruner implements CandidatePairPruner {
+
+  private final int maxTokenDistance;
+
+  /**
+   * @param maxTokenDistance
+   *          The largest number of tokens between the arguments of a kept pair.
+   */
+  public TokenDistancePruner(int maxTokenDistance) {
+    if (maxTokenDistance < 0) {
+      throw new IllegalArgumentException("Maximum token distance must not be negative: " + maxTokenDistance);
+    }
+    this.maxTokenDistance = maxTokenDistance;
+  }
+
+  @Override
+  public List<IdentifiedAnnotationPair> prune(
+      JCas jCas,
+      Annotation coveringAnnotation,
+      List<IdentifiedAnnotationPair> pairs) {
+    TokenPositions positions = new TokenPositions(jCas, coveringAnnotation);
+    List<IdentifiedAnnotationPair> kept = new ArrayList<>(pairs.size());
+    for (IdentifiedAnnotationPair pair : pairs) {
+      if (positions.getDistance(pair.getArg1(), pair.getArg2()) <= this.maxTokenDistance) {
+        kept.add(pair);
+      }
+    }
+    return kept;
+  }
+
+  @Override
+  public String getName() {
+    return "token distance <= " + this.maxTokenDistance;
+  }
+}
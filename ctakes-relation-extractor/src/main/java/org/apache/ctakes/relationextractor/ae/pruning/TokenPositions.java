@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.pruning;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ctakes.core.util.index.SpanIndexService;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Token positions of annotations within a covering annotation, for token distances in O(log n).
+ */
+final class TokenPositions {
+
+  private final int[] tokenBegins;
+
+  TokenPositions(JCas jCas, Annotation coveringAnnotation) {
+    List<BaseToken> tokens =
+        SpanIndexService.getInstance().getSpanIndex(jCas, BaseToken.class).getCovered(coveringAnnotation);
+    this.tokenBegins = new int[tokens.size()];
+    for (int i = 0; i < this.tokenBegins.length; i++) {
+      this.tokenBegins[i] = tokens.get(i).getBegin();
+    }
+  }
+
+  /**
+   * @return The number of tokens between the two annotations, 0 if they overlap.
+   */
+  int getDistance(Annotation annotation1, Annotation annotation2) {
+    Annotation left = annotation1;
+    Annotation right = annotation2;
+    if (annotation1.getBegin() > annotation2.getBegin()) {
+      left = annotation2;
+      right = annotation1;
+    }
+    if (left.getEnd() >= right.getBegin()) {
+      return 0;
+    }
+    return Math.max(0, this.firstAtOrAfter(right.getBegin()) - this.firstAtOrAfter(left.getEnd()));
+  }
+
+  private int firstAtOrAfter(int offset) {
+    int index = Arrays.binarySearch(this.tokenBegins, offset);
+    if (index < 0) {
+      return -index - 1;
+    }
+    // tokens may share a begin
+    while (index > 0 && this.tokenBegins[index - 1] == offset) {
+      index--;
+    }
+    return index;
+  }
+}
@@ -104,6 +104,23 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 				description = "expand events to their covering or covered events")
 		public boolean getExpandEvents();
 
+		@Option(
+				longName = "max-token-distance",
+				defaultValue = "-1",
+				description = "prune candidate pairs with more tokens between the arguments, -1 for no limit")
+		public int getMaxTokenDistance();
+
+		@Option(
+				longName = "max-pairs-per-argument",
+				defaultValue = "-1",
+				description = "keep only the closest candidate pairs of each argument, -1 for no limit")
+		public int getMaxPairsPerArgument();
+
+		@Option(
+				longName = "prune-argument-types",
+				description = "prune candidate pairs whose argument types had no relation in the training data")
+		public boolean getPruneArgumentTypes();
+
 	}
 
 	public static final Map<String, Class<? extends BinaryTextRelation>> RELATION_CLASSES =
@@ -194,7 +211,7 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 					new Function<ParameterSettings, RelationExtractorEvaluation>() {
 						@Override
 						public RelationExtractorEvaluation apply(@Nullable ParameterSettings params) {
-							return new RelationExtractorEvaluation(
+							RelationExtractorEvaluation evaluation = new RelationExtractorEvaluation(
 									new File("target/models/" + relationCategory),
 									relationClass,
 									ANNOTATOR_CLASSES.get(relationClass),
@@ -205,6 +222,11 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 									options.getPrintErrors(),
 									options.getClassWeights(),
 									options.getExpandEvents());
+							evaluation.setCandidatePruning(
+									options.getMaxTokenDistance(),
+									options.getMaxPairsPerArgument(),
+									options.getPruneArgumentTypes());
+							return evaluation;
 						}
 					});
 		}
@@ -226,6 +248,12 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 
 	private boolean setClassWeights;
 
+	private int maxTokenDistance = -1;
+
+	private int maxPairsPerArgument = -1;
+
+	private boolean pruneArgumentTypes;
+
 	private static PrintWriter outPrint;
 	
 	public static boolean expandEvent = false;
@@ -293,6 +321,43 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 				false);
 	}
 
+	/**
+	 * Prunes candidate pairs in training and testing. The statistics of each
+	 * pruner, including the gold relations it removed, are logged at the end of
+	 * training and of testing.
+	 * 
+	 * @param maxTokenDistance
+	 *          Largest number of tokens between the arguments of a pair, -1 for no
+	 *          limit
+	 * @param maxPairsPerArgument
+	 *          Number of closest pairs kept for each argument, -1 for no limit
+	 * @param pruneArgumentTypes
+	 *          Prune pairs whose argument types had no relation in the training
+	 *          data
+	 */
+	public void setCandidatePruning(int maxTokenDistance, int maxPairsPerArgument, boolean pruneArgumentTypes) {
+		this.maxTokenDistance = maxTokenDistance;
+		this.maxPairsPerArgument = maxPairsPerArgument;
+		this.pruneArgumentTypes = pruneArgumentTypes;
+	}
+
+	private void addCandidatePruningParameters(AnalysisEngineDescription classifierAnnotator, File directory) {
+		ConfigurationParameterFactory.addConfigurationParameters(
+				classifierAnnotator,
+				RelationExtractorAnnotator.PARAM_MAX_TOKEN_DISTANCE,
+				this.maxTokenDistance,
+				RelationExtractorAnnotator.PARAM_MAX_PAIRS_PER_ARGUMENT,
+				this.maxPairsPerArgument,
+				RelationExtractorAnnotator.PARAM_GOLD_VIEW_NAME,
+				SHARPXMI.GOLD_VIEW_NAME);
+		if (this.pruneArgumentTypes) {
+			ConfigurationParameterFactory.addConfigurationParameters(
+					classifierAnnotator,
+					RelationExtractorAnnotator.PARAM_ARGUMENT_TYPE_FILE,
+					new File(directory, "argument-types.txt").getPath());
+		}
+	}
+
 	@Override
 	public void train(CollectionReader collectionReader, File directory) throws Exception {
 		System.err.printf(
@@ -322,6 +387,7 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 				this.parameterSettings.dataWriterClass,
 				DirectoryDataWriterFactory.PARAM_OUTPUT_DIRECTORY,
 				directory.getPath());
+		this.addCandidatePruningParameters(classifierAnnotator, directory);
 		builder.add(classifierAnnotator);
 
 		// run the data-writing pipeline
@@ -474,6 +540,7 @@ public class RelationExtractorEvaluation extends SHARPXMI.Evaluation_ImplBase {
 				classifierAnnotator,
 				GenericJarClassifierFactory.PARAM_CLASSIFIER_JAR_PATH,
 				JarClassifierBuilder.getModelJarFile(directory));
+		this.addCandidatePruningParameters(classifierAnnotator, directory);
 		builder.add(classifierAnnotator);
 
 		// statistics will be based on the "category" feature of the
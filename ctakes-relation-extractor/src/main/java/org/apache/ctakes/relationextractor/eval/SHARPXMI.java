@@ -26,6 +26,7 @@ import com.lexicalscope.jewel.cli.Option;
 import org.apache.ctakes.core.ae.SHARPKnowtatorXMLReader;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.DocumentIDAnnotationUtil;
+import org.apache.ctakes.core.util.TaskUtil;
 import org.apache.ctakes.typesystem.type.structured.DocumentID;
 import org.apache.uima.UIMAFramework;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
@@ -226,15 +227,56 @@ public class SHARPXMI {
           description = "evaluate on these XMI files; they must contain the necessary preprocessing " 
               + "in system view and gold annotation in gold view")
       public File getTestXmiDir();
+
+      @Option(
+            longName = "fold-threads",
+            defaultValue = "1",
+            description = "train and test this many cross-validation folds at the same time")
+      public int getFoldThreads();
    }
 
    public static abstract class Evaluation_ImplBase
          extends org.cleartk.eval.Evaluation_ImplBase<File, AnnotationStatistics<String>> {
 
+      private int foldThreads = 1;
+
       public Evaluation_ImplBase( File baseDirectory ) {
          super( baseDirectory );
       }
 
+      /**
+       * @param foldThreads number of cross-validation folds that are trained and tested at the same time
+       */
+      public void setFoldThreads( int foldThreads ) {
+         if ( foldThreads < 1 ) {
+            throw new IllegalArgumentException( "Fold threads must be at least 1, not " + foldThreads );
+         }
+         this.foldThreads = foldThreads;
+      }
+
+      /**
+       * Trains and tests the folds as {@link org.cleartk.eval.Evaluation_ImplBase#crossValidation(List, int)} does,
+       * each in its own fold directory, with up to the set number of folds at the same time.
+       *
+       * @return the statistics of the folds in fold order, so they merge to the same statistics for any number of threads
+       */
+      @Override
+      public List<AnnotationStatistics<String>> crossValidation( List<File> items, int numberOfFolds ) throws Exception {
+         if ( foldThreads <= 1 ) {
+            return super.crossValidation( items, numberOfFolds );
+         }
+         if ( numberOfFolds > items.size() ) {
+            throw new IllegalArgumentException(
+                  String.format( "Cannot have %d folds with only %d items", numberOfFolds, items.size() ) );
+         }
+         return TaskUtil.runFolds( numberOfFolds, foldThreads, fold -> {
+            File foldDirectory = new File( baseDirectory, "fold_" + fold );
+            foldDirectory.mkdirs();
+            train( getCollectionReader( selectFoldTrainItems( items, numberOfFolds, fold ) ), foldDirectory );
+            return test( getCollectionReader( selectFoldTestItems( items, numberOfFolds, fold ) ), foldDirectory );
+         } );
+      }
+
       @Override
       public CollectionReader getCollectionReader( List<File> items ) throws Exception {
          return CollectionReaderFactory.createReader(
@@ -269,6 +311,7 @@ public class SHARPXMI {
       Map<ParameterSettings, Double> scoredParams = new HashMap<>();
       for ( ParameterSettings params : possibleParams ) {
          Evaluation_ImplBase evaluation = getEvaluation.apply( params );
+         evaluation.setFoldThreads( options.getFoldThreads() );
 
          List<File> trainFiles, devFiles, testFiles;
          switch ( options.getEvaluteOn() ) {
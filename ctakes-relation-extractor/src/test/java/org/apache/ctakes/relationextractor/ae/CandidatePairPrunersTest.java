@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.ctakes.relationextractor.ae.pruning.ArgumentTypePruner;
+import org.apache.ctakes.relationextractor.ae.pruning.ProximityCapPruner;
+import org.apache.ctakes.relationextractor.ae.pruning.TokenDistancePruner;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.textsem.AnatomicalSiteMention;
+import org.apache.ctakes.typesystem.type.textsem.DiseaseDisorderMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.SignSymptomMention;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CandidatePairPrunersTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private JCas jCas;
+
+  private Sentence sentence;
+
+  private List<IdentifiedAnnotation> mentions = new ArrayList<>();
+
+  /**
+   * "pain in arm and fever and rash in leg" with a mention on every word but "in" and "and"
+   */
+  private void createJCas() throws Exception {
+    this.jCas = JCasFactory.createJCas();
+    String text = "pain in arm and fever and rash in leg";
+    this.jCas.setDocumentText(text);
+    this.sentence = new Sentence(this.jCas, 0, text.length());
+    this.sentence.addToIndexes();
+    int begin = 0;
+    for (String word : text.split(" ")) {
+      int end = begin + word.length();
+      new BaseToken(this.jCas, begin, end).addToIndexes();
+      IdentifiedAnnotation mention = null;
+      if (word.equals("arm") || word.equals("leg")) {
+        mention = new AnatomicalSiteMention(this.jCas, begin, end);
+      } else if (word.equals("pain") || word.equals("rash")) {
+        mention = new SignSymptomMention(this.jCas, begin, end);
+      } else if (word.equals("fever")) {
+        mention = new DiseaseDisorderMention(this.jCas, begin, end);
+      }
+      if (mention != null) {
+        mention.addToIndexes();
+        this.mentions.add(mention);
+      }
+      begin = end + 1;
+    }
+  }
+
+  private List<IdentifiedAnnotationPair> allPairs() {
+    List<IdentifiedAnnotationPair> pairs = new ArrayList<>();
+    for (IdentifiedAnnotation arg1 : this.mentions) {
+      for (IdentifiedAnnotation arg2 : this.mentions) {
+        if (arg1 != arg2) {
+          pairs.add(new IdentifiedAnnotationPair(arg1, arg2));
+        }
+      }
+    }
+    return pairs;
+  }
+
+  private static List<String> toStrings(List<IdentifiedAnnotationPair> pairs) {
+    List<String> strings = new ArrayList<>();
+    for (IdentifiedAnnotationPair pair : pairs) {
+      strings.add(pair.getArg1().getCoveredText() + "-" + pair.getArg2().getCoveredText());
+    }
+    return strings;
+  }
+
+  @Test
+  public void testTokenDistance() throws Exception {
+    this.createJCas();
+    List<IdentifiedAnnotationPair> kept =
+        new TokenDistancePruner(1).prune(this.jCas, this.sentence, this.allPairs());
+    assertEquals(
+        Arrays.asList("pain-arm", "arm-pain", "arm-fever", "fever-arm", "fever-rash", "rash-fever", "rash-leg", "leg-rash"),
+        toStrings(kept));
+    assertEquals(20, new TokenDistancePruner(100).prune(this.jCas, this.sentence, this.allPairs()).size());
+  }
+
+  @Test
+  public void testProximityCap() throws Exception {
+    this.createJCas();
+    List<IdentifiedAnnotationPair> pairs = new ArrayList<>();
+    IdentifiedAnnotation pain = this.mentions.get(0);
+    for (IdentifiedAnnotation other : this.mentions.subList(1, this.mentions.size())) {
+      pairs.add(new IdentifiedAnnotationPair(pain, other));
+    }
+    // pain keeps its closest 2, and the other arguments have only one pair each
+    assertEquals(
+        Arrays.asList("pain-arm", "pain-fever", "pain-rash", "pain-leg"),
+        toStrings(new ProximityCapPruner(2).prune(this.jCas, this.sentence, pairs)));
+    List<IdentifiedAnnotationPair> kept = new ProximityCapPruner(1).prune(this.jCas, this.sentence, this.allPairs());
+    for (IdentifiedAnnotation mention : this.mentions) {
+      boolean hasPair = false;
+      for (IdentifiedAnnotationPair pair : kept) {
+        hasPair = hasPair || pair.getArg1() == mention || pair.getArg2() == mention;
+      }
+      assertEquals(true, hasPair);
+    }
+    assertEquals(true, kept.size() < 20);
+  }
+
+  @Test
+  public void testArgumentTypes() throws Exception {
+    this.createJCas();
+    ArgumentTypePruner learner = new ArgumentTypePruner();
+    // pain in arm
+    learner.addRelation(this.mentions.get(0), this.mentions.get(1));
+    File file = new File(this.folder.getRoot(), "model/argument-types.txt");
+    learner.save(file);
+    ArgumentTypePruner pruner = ArgumentTypePruner.load(file);
+    assertEquals(learner.getTypePairs(), pruner.getTypePairs());
+    assertEquals(
+        Arrays.asList("pain-arm", "pain-leg", "rash-arm", "rash-leg"),
+        toStrings(pruner.prune(this.jCas, this.sentence, this.allPairs())));
+  }
+}
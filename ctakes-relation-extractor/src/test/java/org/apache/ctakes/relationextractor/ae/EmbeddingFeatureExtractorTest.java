@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ctakes.relationextractor.ae.features.EmbeddingFeatureExtractor;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.EntityMention;
+import org.apache.ctakes.utils.distsem.MappedEmbeddings;
+import org.apache.ctakes.utils.distsem.WordEmbeddings;
+import org.apache.ctakes.utils.distsem.WordVectorConverter;
+import org.apache.ctakes.utils.distsem.WordVectorReader;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EmbeddingFeatureExtractorTest {
+
+  // values that float32 holds exactly, so text and store features are equal
+  private static final String[] LINES = {
+      "6 3",
+      "oov 0.25 0.25 0.25",
+      "pain 1.0 0.5 -0.5",
+      "in -0.125 2.0 0.75",
+      "the 0.5 -0.5 0.5",
+      "knee 3.0 -1.5 0.0625",
+      "in 1.5 -0.25 1.0" };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File writeVectors() throws Exception {
+    File textFile = folder.newFile("vectors.txt");
+    Files.write(textFile.toPath(), Arrays.asList(LINES), StandardCharsets.UTF_8);
+    return textFile;
+  }
+
+  @Test
+  public void testStoreFeaturesMatchMapFeatures() throws Exception {
+    File textFile = writeVectors();
+    Map<String, List<Double>> wordVectors = new HashMap<>();
+    for (String line : Arrays.asList(LINES).subList(1, LINES.length)) {
+      String[] fields = line.split(" ");
+      List<Double> vector = new ArrayList<>();
+      for (int dim = 1; dim < fields.length; dim++) {
+        vector.add(Double.parseDouble(fields[dim]));
+      }
+      wordVectors.put(fields[0], vector);
+    }
+    File storeFile = folder.newFile("vectors.bin");
+    WordVectorConverter.convert(textFile, storeFile);
+
+    JCas jCas = JCasFactory.createJCas();
+    String text = "pain in the left knee";
+    jCas.setDocumentText(text);
+    int begin = 0;
+    for (String word : text.split(" ")) {
+      new WordToken(jCas, begin, begin + word.length()).addToIndexes();
+      begin += word.length() + 1;
+    }
+    EntityMention arg1 = new EntityMention(jCas, 0, 4);
+    arg1.addToIndexes();
+    EntityMention arg2 = new EntityMention(jCas, 17, 21);
+    arg2.addToIndexes();
+
+    EmbeddingFeatureExtractor mapExtractor = new EmbeddingFeatureExtractor(wordVectors);
+    EmbeddingFeatureExtractor storeExtractor = new EmbeddingFeatureExtractor(WordVectorReader.getEmbeddings(storeFile));
+    assertEquals(3 + 3 + 1 + 3, mapExtractor.extract(jCas, arg1, arg2).size());
+    assertEquals(mapExtractor.extract(jCas, arg1, arg2), storeExtractor.extract(jCas, arg1, arg2));
+    assertEquals(mapExtractor.extract(jCas, arg2, arg1), storeExtractor.extract(jCas, arg2, arg1));
+  }
+
+  @Test
+  public void testStoreMatchesTextEmbeddings() throws Exception {
+    File textFile = writeVectors();
+    WordEmbeddings text = WordVectorReader.getEmbeddings(textFile);
+    // converted next to the text file, where the reader looks for it
+    assertEquals(5, WordVectorConverter.convert(textFile, MappedEmbeddings.getStoreFile(textFile)));
+    WordEmbeddings store = WordVectorReader.getEmbeddings(textFile);
+
+    assertEquals(text.size(), store.size());
+    assertEquals(text.getDimensionality(), store.getDimensionality());
+    assertFalse(store.containsKey("left"));
+    assertTrue(store.containsKey("in"));
+    for (String word : new String[] { "oov", "pain", "in", "the", "knee" }) {
+      double[] vector = new double[3];
+      assertTrue(store.copyVector(word, vector));
+      for (int dim = 0; dim < 3; dim++) {
+        assertEquals(text.getVector(word).getValue(dim), vector[dim], 0.0);
+      }
+      assertEquals(text.getSimilarity("pain", word), store.getSimilarity("pain", word), 1e-12);
+    }
+    assertEquals(text.getSimilarWords("pain", 3), store.getSimilarWords("pain", 3));
+
+    MappedEmbeddings mapped = MappedEmbeddings.open(MappedEmbeddings.getStoreFile(textFile));
+    assertEquals(-1, mapped.indexOf("left"));
+    assertEquals("knee", mapped.getWord(mapped.indexOf("knee")));
+    assertEquals(Math.sqrt(3.0 * 0.25 * 0.25), mapped.getNorm(mapped.indexOf("oov")), 1e-12);
+  }
+}
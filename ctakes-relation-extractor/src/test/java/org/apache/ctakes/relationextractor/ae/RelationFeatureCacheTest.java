@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ctakes.relationextractor.ae.features.CachingFeatureExtractor1;
+import org.apache.ctakes.relationextractor.ae.features.CachingRelationFeaturesExtractor;
+import org.apache.ctakes.relationextractor.ae.features.RelationFeatureCache;
+import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.CleartkExtractor;
+import org.cleartk.ml.feature.extractor.CleartkExtractorException;
+import org.cleartk.ml.feature.extractor.CoveredTextExtractor;
+import org.cleartk.ml.feature.extractor.FeatureExtractor1;
+import org.cleartk.ml.feature.extractor.NamingExtractor1;
+import org.junit.Test;
+
+public class RelationFeatureCacheTest {
+
+  private static JCas createJCas(String text) throws Exception {
+    JCas jCas = JCasFactory.createJCas();
+    jCas.setDocumentText(text);
+    int begin = 0;
+    for (String word : text.split(" ")) {
+      new WordToken(jCas, begin, begin + word.length()).addToIndexes();
+      begin += word.length() + 1;
+    }
+    return jCas;
+  }
+
+  @Test
+  public void testSameFeaturesExtractedOnce() throws Exception {
+    JCas jCas = createJCas("the pain began two days ago");
+    EventMention event = new EventMention(jCas, 4, 8);
+    event.addToIndexes();
+    FeatureExtractor1<Annotation> context = new CleartkExtractor<>(
+        WordToken.class,
+        new CoveredTextExtractor<WordToken>(),
+        new CleartkExtractor.Preceding(2),
+        new CleartkExtractor.Following(2));
+    CountingExtractor counting = new CountingExtractor(context);
+    FeatureExtractor1<Annotation> cached1 = new NamingExtractor1<>(
+        "mention1",
+        new CachingFeatureExtractor1<>("test.context", counting));
+    FeatureExtractor1<Annotation> cached2 = new NamingExtractor1<>(
+        "mention2",
+        new CachingFeatureExtractor1<>("test.context", counting));
+    List<Feature> expected1 = new NamingExtractor1<>("mention1", context).extract(jCas, event);
+    List<Feature> expected2 = new NamingExtractor1<>("mention2", context).extract(jCas, event);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(expected1, cached1.extract(jCas, event));
+      assertEquals(expected2, cached2.extract(jCas, event));
+    }
+    assertEquals("Features should be extracted once for both argument positions", 1, counting.count.get());
+  }
+
+  @Test
+  public void testNewDocumentDiscardsFeatures() throws Exception {
+    JCas jCas = createJCas("pain");
+    EventMention event = new EventMention(jCas, 0, 4);
+    event.addToIndexes();
+    CountingExtractor counting = new CountingExtractor(new CoveredTextExtractor<>());
+    FeatureExtractor1<Annotation> cached = CachingFeatureExtractor1.of(counting);
+    assertEquals("pain", cached.extract(jCas, event).get(0).getValue());
+    assertEquals("pain", cached.extract(jCas, event).get(0).getValue());
+    assertEquals(1, counting.count.get());
+
+    jCas.reset();
+    jCas.setDocumentText("rash");
+    EventMention nextEvent = new EventMention(jCas, 0, 4);
+    nextEvent.addToIndexes();
+    assertEquals("rash", cached.extract(jCas, nextEvent).get(0).getValue());
+    assertEquals(2, counting.count.get());
+
+    RelationFeatureCache.getInstance().clear(jCas);
+    assertEquals("rash", cached.extract(jCas, nextEvent).get(0).getValue());
+    assertEquals(3, counting.count.get());
+  }
+
+  @Test
+  public void testSameTextInNextDocument() throws Exception {
+    // the same text instance, and the same annotation addresses with other spans
+    String text = "pain rash";
+    JCas jCas = createJCas(text);
+    EventMention event = new EventMention(jCas, 0, 4);
+    event.addToIndexes();
+    FeatureExtractor1<Annotation> cached = CachingFeatureExtractor1.of(new CoveredTextExtractor<>());
+    assertEquals("pain", cached.extract(jCas, event).get(0).getValue());
+
+    jCas.reset();
+    jCas.setDocumentText(text);
+    new WordToken(jCas, 0, 4).addToIndexes();
+    new WordToken(jCas, 5, 9).addToIndexes();
+    EventMention nextEvent = new EventMention(jCas, 5, 9);
+    nextEvent.addToIndexes();
+    assertEquals(event.getAddress(), nextEvent.getAddress());
+    assertEquals("rash", cached.extract(jCas, nextEvent).get(0).getValue());
+  }
+
+  @Test
+  public void testPairFeaturesAreOrdered() throws Exception {
+    JCas jCas = createJCas("pain began yesterday");
+    EventMention event = new EventMention(jCas, 0, 4);
+    event.addToIndexes();
+    EventMention other = new EventMention(jCas, 11, 20);
+    other.addToIndexes();
+    AtomicInteger count = new AtomicInteger();
+    RelationFeaturesExtractor<IdentifiedAnnotation, IdentifiedAnnotation> order = (view, arg1, arg2) -> {
+      count.incrementAndGet();
+      return Collections.singletonList(new Feature("order", arg1.getCoveredText() + "-" + arg2.getCoveredText()));
+    };
+    CachingRelationFeaturesExtractor cached1 = new CachingRelationFeaturesExtractor("test.order", order);
+    CachingRelationFeaturesExtractor cached2 = new CachingRelationFeaturesExtractor("test.order", order);
+    assertEquals(order.extract(jCas, event, other), cached1.extract(jCas, event, other));
+    assertEquals(order.extract(jCas, event, other), cached2.extract(jCas, event, other));
+    assertEquals(order.extract(jCas, other, event), cached2.extract(jCas, other, event));
+    // three direct extractions, and one cached extraction for each order
+    assertEquals(5, count.get());
+  }
+
+  @Test
+  public void testNullValueIsCached() throws Exception {
+    JCas jCas = createJCas("pain");
+    EventMention event = new EventMention(jCas, 0, 4);
+    event.addToIndexes();
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      assertNull(RelationFeatureCache.getInstance().getValue(jCas, event, "test.null", () -> {
+        count.incrementAndGet();
+        return null;
+      }));
+    }
+    assertEquals(1, count.get());
+  }
+
+  @Test
+  public void testCoveringSentence() throws Exception {
+    JCas jCas = createJCas("pain began . rash");
+    Sentence sentence = new Sentence(jCas, 0, 12);
+    sentence.addToIndexes();
+    EventMention event = new EventMention(jCas, 0, 4);
+    event.addToIndexes();
+    EventMention outside = new EventMention(jCas, 13, 17);
+    outside.addToIndexes();
+    assertSame(sentence, RelationFeatureCache.getInstance().getSentence(jCas, event));
+    assertSame(sentence, RelationFeatureCache.getInstance().getSentence(jCas, event));
+    assertNull(RelationFeatureCache.getInstance().getSentence(jCas, outside));
+  }
+
+  private static final class CountingExtractor implements FeatureExtractor1<Annotation> {
+    private final FeatureExtractor1<Annotation> extractor;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private CountingExtractor(FeatureExtractor1<Annotation> extractor) {
+      this.extractor = extractor;
+    }
+
+    @Override
+    public List<Feature> extract(JCas view, Annotation annotation) throws CleartkExtractorException {
+      this.count.incrementAndGet();
+      List<Feature> features = this.extractor.extract(view, annotation);
+      return features == null ? Collections.emptyList() : features;
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ctakes.relationextractor.ae.features.NamedEntityFeaturesExtractor;
+import org.apache.ctakes.relationextractor.ae.features.TokenFeaturesExtractor;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.textsem.EntityMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.CleartkExtractor;
+import org.cleartk.ml.feature.extractor.CleartkExtractor.Bag;
+import org.cleartk.ml.feature.extractor.CleartkExtractor.Covered;
+import org.cleartk.ml.feature.extractor.CleartkExtractor.FirstCovered;
+import org.cleartk.ml.feature.extractor.CleartkExtractor.Following;
+import org.cleartk.ml.feature.extractor.CleartkExtractor.LastCovered;
+import org.cleartk.ml.feature.extractor.CleartkExtractor.Preceding;
+import org.cleartk.ml.feature.extractor.CombinedExtractor1;
+import org.cleartk.ml.feature.extractor.CoveredTextExtractor;
+import org.cleartk.ml.feature.extractor.DistanceExtractor;
+import org.cleartk.ml.feature.extractor.NamingExtractor1;
+import org.junit.Test;
+
+public class SeparableRelationFeaturesExtractorTest {
+
+  private static JCas createJCas(List<EntityMention> mentions) throws Exception {
+    JCas jCas = JCasFactory.createJCas();
+    String text = "the patient had aaa in bbb and ccc today";
+    jCas.setDocumentText(text);
+    new Sentence(jCas, 0, text.length()).addToIndexes();
+    int begin = 0;
+    for (String word : text.split(" ")) {
+      new BaseToken(jCas, begin, begin + word.length()).addToIndexes();
+      if (word.length() == 3 && word.charAt(0) == word.charAt(1)) {
+        EntityMention mention = new EntityMention(jCas, begin, begin + word.length());
+        mention.setTypeID(mentions.size() + 1);
+        mention.addToIndexes();
+        mentions.add(mention);
+      }
+      begin += word.length() + 1;
+    }
+    return jCas;
+  }
+
+  @Test
+  public void testTokenFeaturesUnchanged() throws Exception {
+    List<EntityMention> mentions = new ArrayList<>();
+    JCas jCas = createJCas(mentions);
+    CoveredTextExtractor<BaseToken> coveredText = new CoveredTextExtractor<>();
+    CleartkExtractor<IdentifiedAnnotation, BaseToken> tokenContext = new CleartkExtractor<>(
+        BaseToken.class,
+        coveredText,
+        new FirstCovered(1),
+        new LastCovered(1),
+        new Bag(new Covered()),
+        new Preceding(3),
+        new Following(3));
+    CleartkExtractor<IdentifiedAnnotation, BaseToken> tokensBetween = new CleartkExtractor<>(
+        BaseToken.class,
+        new NamingExtractor1<>("BetweenMentions", coveredText),
+        new FirstCovered(1),
+        new LastCovered(1),
+        new Bag(new Covered()));
+    DistanceExtractor nTokensBetween = new DistanceExtractor(null, BaseToken.class);
+    TokenFeaturesExtractor extractor = new TokenFeaturesExtractor();
+    for (EntityMention arg1 : mentions) {
+      for (EntityMention arg2 : mentions) {
+        if (arg1 == arg2) {
+          continue;
+        }
+        List<Feature> expected = new ArrayList<>();
+        expected.addAll(new NamingExtractor1<IdentifiedAnnotation>(
+            "mention1",
+            new CombinedExtractor1<IdentifiedAnnotation>(new CoveredTextExtractor<IdentifiedAnnotation>(), tokenContext)).extract(jCas, arg1));
+        expected.addAll(new NamingExtractor1<IdentifiedAnnotation>(
+            "mention2",
+            new CombinedExtractor1<IdentifiedAnnotation>(new CoveredTextExtractor<IdentifiedAnnotation>(), tokenContext)).extract(jCas, arg2));
+        expected.addAll(tokensBetween.extractBetween(jCas, arg1, arg2));
+        expected.addAll(nTokensBetween.extract(jCas, arg1, arg2));
+        // twice, the second time from the cache
+        assertEquals(expected, extractor.extract(jCas, arg1, arg2));
+        assertEquals(expected, extractor.extract(jCas, arg1, arg2));
+      }
+    }
+  }
+
+  @Test
+  public void testArgumentFeaturesSharedByExtractors() throws Exception {
+    List<EntityMention> mentions = new ArrayList<>();
+    JCas jCas = createJCas(mentions);
+    int[] count = new int[1];
+    List<NamedEntityFeaturesExtractor> extractors = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      extractors.add(new CountingNamedEntityFeaturesExtractor(count));
+    }
+    for (NamedEntityFeaturesExtractor extractor : extractors) {
+      for (EntityMention arg1 : mentions) {
+        for (EntityMention arg2 : mentions) {
+          if (arg1 != arg2) {
+            List<Feature> features = extractor.extract(jCas, arg1, arg2);
+            assertEquals(
+                Arrays.asList(
+                    new Feature("mention1_TypeID", String.valueOf(arg1.getTypeID())),
+                    new Feature("mention2_TypeID", String.valueOf(arg2.getTypeID()))),
+                features.subList(0, 2));
+          }
+        }
+      }
+    }
+    assertEquals("Argument features should be extracted once per argument", mentions.size(), count[0]);
+
+    // a new document discards the features
+    jCas.reset();
+    mentions.clear();
+    jCas = createJCas(mentions);
+    extractors.get(0).extract(jCas, mentions.get(0), mentions.get(1));
+    assertEquals(mentions.size() + 2, count[0]);
+  }
+
+  private static class CountingNamedEntityFeaturesExtractor extends NamedEntityFeaturesExtractor {
+    private final int[] count;
+
+    CountingNamedEntityFeaturesExtractor(int[] count) {
+      this.count = count;
+    }
+
+    @Override
+    public List<Feature> extractArgument(JCas jCas, IdentifiedAnnotation mention)
+        throws AnalysisEngineProcessException {
+      this.count[0]++;
+      return super.extractArgument(jCas, mention);
+    }
+
+    @Override
+    public String getCacheKey() {
+      return NamedEntityFeaturesExtractor.class.getName() + ".counting";
+    }
+  }
+}
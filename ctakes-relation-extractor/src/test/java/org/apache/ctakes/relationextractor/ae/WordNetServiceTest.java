@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+
+import org.apache.ctakes.relationextractor.ae.features.WordNetService;
+import org.apache.ctakes.relationextractor.ae.features.WordNetUtils;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.mit.jwi.IDictionary;
+
+public class WordNetServiceTest {
+
+  private static final String[][] WORDS = {
+      { "pain", "NN" },
+      { "patients", "NNS" },
+      { "began", "VBD" },
+      { "severe", "JJ" },
+      { "quickly", "RB" },
+      { "xyzzy", "NN" },
+      { "the", "DT" } };
+
+  private IDictionary dictionary;
+
+  @Before
+  public void openDictionary() throws Exception {
+    Assume.assumeTrue("WordNet is not installed at " + WordNetUtils.wordNetPath,
+        new File(WordNetUtils.wordNetPath).isDirectory());
+    this.dictionary = WordNetUtils.getDictionary();
+  }
+
+  @After
+  public void closeDictionary() {
+    if (this.dictionary != null) {
+      this.dictionary.close();
+    }
+  }
+
+  @Test
+  public void testMemoizedLookupsMatchWordNetUtils() throws Exception {
+    WordNetService service = WordNetService.getInstance();
+    service.clear();
+    // the second round is answered from the memoized results
+    for (int round = 0; round < 2; round++) {
+      for (String[] word : WORDS) {
+        String text = word[0];
+        String pos = word[1];
+        assertEquals(text, WordNetUtils.getStems(text, pos, this.dictionary), service.getStems(text, pos));
+        for (boolean firstSenseOnly : new boolean[] { true, false }) {
+          assertEquals(text, WordNetUtils.getSynonyms(this.dictionary, text, pos, firstSenseOnly),
+              service.getSynonyms(text, pos, firstSenseOnly));
+          assertEquals(text, WordNetUtils.getHypernyms(this.dictionary, text, pos, firstSenseOnly),
+              service.getHypernyms(text, pos, firstSenseOnly));
+          assertEquals(text, WordNetUtils.getHyperHypernyms(this.dictionary, text, pos, firstSenseOnly),
+              service.getHyperHypernyms(text, pos, firstSenseOnly));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDictionaryIsFreshAndSharedDictionaryIsNot() throws Exception {
+    assertNotSame(this.dictionary, WordNetUtils.getSharedDictionary());
+    assertSame(WordNetUtils.getSharedDictionary(), WordNetService.getInstance().getDictionary());
+    IDictionary other = WordNetUtils.getDictionary();
+    assertNotSame(this.dictionary, other);
+    // closing a fresh dictionary leaves the shared one open
+    other.close();
+    assertEquals(
+        WordNetUtils.getStems("patients", "NNS", this.dictionary),
+        WordNetService.getInstance().getStems("patients", "NNS"));
+  }
+}
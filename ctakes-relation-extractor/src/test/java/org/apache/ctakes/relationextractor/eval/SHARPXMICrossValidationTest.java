@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.eval;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.uima.cas.impl.XmiCasSerializer;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.eval.AnnotationStatistics;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class SHARPXMICrossValidationTest {
+
+  private static final String[] LABELS = { "pain", "rash", "pain", "fever", "rash", "rash", "pain", "fever",
+      "fever", "pain", "rash", "fever" };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testMergedStatisticsDoNotDependOnThreads() throws Exception {
+    List<File> items = new ArrayList<>();
+    for (int i = 0; i < LABELS.length; i++) {
+      JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText(LABELS[i]);
+      File xmi = folder.newFile("doc" + i + ".xmi");
+      try (OutputStream out = new FileOutputStream(xmi)) {
+        XmiCasSerializer.serialize(jCas.getCas(), out);
+      }
+      items.add(xmi);
+    }
+    List<AnnotationStatistics<String>> oneThread = crossValidate(items, 1);
+    List<AnnotationStatistics<String>> fourThreads = crossValidate(items, 4);
+    assertEquals(4, fourThreads.size());
+    assertEquals(oneThread.toString(), fourThreads.toString());
+    assertEquals(
+        AnnotationStatistics.addAll(oneThread).toString(),
+        AnnotationStatistics.addAll(fourThreads).toString());
+  }
+
+  private List<AnnotationStatistics<String>> crossValidate(List<File> items, int threads) throws Exception {
+    File baseDirectory = folder.newFolder("threads" + threads);
+    MajorityEvaluation evaluation = new MajorityEvaluation(baseDirectory);
+    evaluation.setFoldThreads(threads);
+    List<AnnotationStatistics<String>> foldStats = evaluation.crossValidation(items, 4);
+    for (int fold = 0; fold < 4; fold++) {
+      assertTrue(new File(new File(baseDirectory, "fold_" + fold), MajorityEvaluation.MODEL).exists());
+    }
+    return foldStats;
+  }
+
+  /**
+   * Predicts the most frequent label of the training documents, whose text is their label.
+   */
+  private static final class MajorityEvaluation extends SHARPXMI.Evaluation_ImplBase {
+    private static final String MODEL = "majority.txt";
+
+    private MajorityEvaluation(File baseDirectory) {
+      super(baseDirectory);
+    }
+
+    @Override
+    protected void train(CollectionReader collectionReader, File directory) throws Exception {
+      Map<String, Integer> counts = new TreeMap<>();
+      for (String label : readLabels(collectionReader)) {
+        counts.merge(label, 1, Integer::sum);
+      }
+      String majority = Collections.max(counts.entrySet(), Map.Entry.comparingByValue()).getKey();
+      Files.write(majority, new File(directory, MODEL), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected AnnotationStatistics<String> test(CollectionReader collectionReader, File directory)
+        throws Exception {
+      String majority = Files.toString(new File(directory, MODEL), StandardCharsets.UTF_8);
+      AnnotationStatistics<String> stats = new AnnotationStatistics<>();
+      JCas jCas = JCasFactory.createJCas();
+      for (String label : readLabels(collectionReader)) {
+        Annotation gold = new Annotation(jCas, 0, label.length());
+        Annotation predicted = new Annotation(jCas, 0, label.length());
+        Map<Annotation, String> outcomes = new HashMap<>();
+        outcomes.put(gold, label);
+        outcomes.put(predicted, majority);
+        stats.add(
+            Collections.singletonList(gold),
+            Collections.singletonList(predicted),
+            AnnotationStatistics.<Annotation>annotationToSpan(),
+            outcomes::get);
+      }
+      return stats;
+    }
+
+    private static List<String> readLabels(CollectionReader collectionReader) throws Exception {
+      List<String> labels = new ArrayList<>();
+      JCas jCas = JCasFactory.createJCas();
+      while (collectionReader.hasNext()) {
+        jCas.reset();
+        collectionReader.getNext(jCas.getCas());
+        labels.add(jCas.getDocumentText());
+      }
+      collectionReader.close();
+      return labels;
+    }
+  }
+}
@@ -28,6 +28,7 @@ import java.util.Set;
 import org.apache.ctakes.core.fsm.condition.DisjoinCondition;
 import org.apache.ctakes.core.fsm.condition.NegateCondition;
 import org.apache.ctakes.core.fsm.condition.TextSetCondition;
+import org.apache.ctakes.core.fsm.machine.CompiledMachine;
 import org.apache.ctakes.core.fsm.output.NegationIndicator;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
@@ -70,7 +71,7 @@ public class NegationFSM {
 	private Set<String> iv_negColPartSet = new HashSet<String>();
 
 	// contains the finite state machines
-	private Set<Machine> iv_machineSet = new HashSet<Machine>();
+	private Set<CompiledMachine> iv_machineSet = new HashSet<CompiledMachine>();
 
 	/**
 	 * 
@@ -187,9 +188,9 @@ public class NegationFSM {
 		iv_negAdjectivesSet.add("unlikely");
 		iv_negAdjectivesSet.add("negative");
 
-		iv_machineSet.add(getAspectualNegIndicatorMachine());
-		iv_machineSet.add(getNominalNegIndicatorMachine());
-		iv_machineSet.add(getAdjNegIndicatorMachine());
+		iv_machineSet.add(new CompiledMachine(getAspectualNegIndicatorMachine()));
+		iv_machineSet.add(new CompiledMachine(getNominalNegIndicatorMachine()));
+		iv_machineSet.add(new CompiledMachine(getAdjNegIndicatorMachine()));
 
 	}
 
@@ -376,14 +377,14 @@ public class NegationFSM {
 
 		// maps a fsm to a token start index
 		// key = fsm , value = token start index
-		Map<Machine, Integer> tokenStartMap = new HashMap<Machine, Integer>();
+		Map<CompiledMachine, Integer> tokenStartMap = new HashMap<CompiledMachine, Integer>();
 
 		for (int i = 0; i < tokens.size(); i++) {
 			BaseToken token = (BaseToken) tokens.get(i);
 
-			Iterator<Machine> machineItr = iv_machineSet.iterator();
+			Iterator<CompiledMachine> machineItr = iv_machineSet.iterator();
 			while (machineItr.hasNext()) {
-				Machine fsm = machineItr.next();
+				CompiledMachine fsm = machineItr.next();
 
 				fsm.input(token);
 
@@ -424,9 +425,9 @@ public class NegationFSM {
 		tokenStartMap.clear();
 
 		// reset machines
-		Iterator<Machine> itr = iv_machineSet.iterator();
+		Iterator<CompiledMachine> itr = iv_machineSet.iterator();
 		while (itr.hasNext()) {
-			Machine fsm = itr.next();
+			CompiledMachine fsm = itr.next();
 			fsm.reset();
 		}
 
@@ -0,0 +1,51 @@
+#!python
+
+## Frames for the batch classifier protocol of ScriptWorkerPool:
+## a big-endian int count followed by count strings,
+## each a big-endian int byte length followed by that many utf-8 bytes.
+
+import struct
+import sys
+
+
+def _read_exactly(stream, size):
+    data = b''
+    while len(data) < size:
+        chunk = stream.read(size - len(data))
+        if not chunk:
+            return None
+        data = data + chunk
+    return data
+
+
+def read_frame(stream):
+    """ Return the list of strings in the next frame, or None when the stream is closed. """
+    header = _read_exactly(stream, 4)
+    if header is None:
+        return None
+    count = struct.unpack('>i', header)[0]
+    strings = []
+    for i in range(count):
+        size = struct.unpack('>i', _read_exactly(stream, 4))[0]
+        strings.append(_read_exactly(stream, size).decode('utf-8') if size > 0 else u'')
+    return strings
+
+
+def write_frame(stream, strings):
+    stream.write(struct.pack('>i', len(strings)))
+    for string in strings:
+        data = string.encode('utf-8')
+        stream.write(struct.pack('>i', len(data)))
+        stream.write(data)
+    stream.flush()
+
+
+def serve(predict_batch):
+    """ Answer each request frame on stdin with the outcomes from predict_batch(lines) until stdin is closed. """
+    stdin = getattr(sys.stdin, 'buffer', sys.stdin)
+    stdout = getattr(sys.stdout, 'buffer', sys.stdout)
+    while True:
+        lines = read_frame(stdin)
+        if lines is None:
+            break
+        write_frame(stdout, predict_batch(lines) if lines else [])
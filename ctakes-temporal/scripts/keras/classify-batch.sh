@@ -0,0 +1,11 @@
+#!/bin/bash
+
+source $(dirname $0)/env/bin/activate
+
+python $(dirname $0)/rCNN-predict-batch.py $*
+
+ret=$?
+
+deactivate
+
+exit $ret
@@ -6,6 +6,7 @@ import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.temporal.ae.feature.*;
+import org.apache.ctakes.temporal.utils.CandidateArgumentUtil;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.relation.TemporalTextRelation;
@@ -117,28 +118,9 @@ public class ConsecutiveSentencesEventEventRelationAnnotator extends RelationExt
 				for (int i=0; i<sentListLength-1; i++ ) {
 					Sentence currentSent = sentList.get(i);
 					Sentence nextSent	 = sentList.get(i+1);
-					List<EventMention> currentEvents = JCasUtil.selectCovered(jCas, EventMention.class, currentSent);
-					List<EventMention> nextEvents	 = JCasUtil.selectCovered(jCas, EventMention.class, nextSent);
-
-					//filtering events
-					List<EventMention> realEvents = new ArrayList<>();
-					//filtering events
-					for(EventMention event : currentEvents){
-						// filter out ctakes events
-						if(event.getClass().equals(EventMention.class)){
-							realEvents.add(event);
-						}
-					}
-					currentEvents = realEvents;
-					realEvents = new ArrayList<>();
-					//filtering events
-					for(EventMention event : nextEvents){
-						// filter out ctakes events
-						if(event.getClass().equals(EventMention.class)){
-							realEvents.add(event);
-						}
-					}
-					nextEvents = realEvents;
+					// filtered events, without ctakes events
+					List<EventMention> currentEvents = CandidateArgumentUtil.getEvents(jCas, currentSent);
+					List<EventMention> nextEvents	 = CandidateArgumentUtil.getEvents(jCas, nextSent);
 
 					//scheme2 : pairing major events + time
 					int currentSize = currentEvents == null ? 0 : currentEvents.size();
@@ -6,6 +6,7 @@ import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.temporal.ae.feature.*;
+import org.apache.ctakes.temporal.utils.CandidateArgumentUtil;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.relation.TemporalTextRelation;
@@ -122,15 +123,8 @@ public class ConsecutiveSentencesEventTimeRelationAnnotator extends RelationExtr
 					consecutiveSents.addAll(sents);
 				}
 				for(Sentence sent : consecutiveSents){
-					List<EventMention> events = new ArrayList<>(JCasUtil.selectCovered(jCas, EventMention.class, sent));
-					//filter events:
-					List<EventMention> realEvents = Lists.newArrayList();
-					for( EventMention event : events){
-						if(event.getClass().equals(EventMention.class)){
-							realEvents.add(event);
-						}
-					}
-					events = realEvents;
+					// filtered events
+					List<EventMention> events = CandidateArgumentUtil.getEvents(jCas, sent);
 					int eventNum = events.size();
 					if(eventNum >=1){
 						pairs.add(new IdentifiedAnnotationPair(events.get(0), time));//pair up the first event and the time
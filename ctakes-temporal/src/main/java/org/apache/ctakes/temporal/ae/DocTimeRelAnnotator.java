@@ -20,6 +20,8 @@ package org.apache.ctakes.temporal.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.DotLogger;
+import org.apache.ctakes.core.util.index.SpanIndexService;
+import org.apache.ctakes.relationextractor.ae.features.CachingFeatureExtractor1;
 import org.apache.ctakes.temporal.ae.feature.*;
 import org.apache.ctakes.temporal.utils.SoftMaxUtil;
 import org.apache.ctakes.typesystem.type.refsem.Event;
@@ -115,14 +117,14 @@ public class DocTimeRelAnnotator extends CleartkAnnotator<String> {
 	private CleartkExtractor<EventMention, BaseToken> tokenVectorContext2;
 	private ContinuousTextExtractor continuousText;
 	private ContinuousTextExtractor continuousText2;
-	private SectionHeaderExtractor sectionIDExtractor;
-	private ClosestVerbExtractor closestVerbExtractor;
+	private FeatureExtractor1<EventMention> sectionIDExtractor;
+	private FeatureExtractor1<EventMention> closestVerbExtractor;
 	private TimeXExtractor timeXExtractor;
 	private EventPropertyExtractor genericExtractor;
 //	private UmlsSingleFeatureExtractor umlsExtractor;
-	private NearbyVerbTenseXExtractor verbTensePatternExtractor;
+	private FeatureExtractor1<EventMention> verbTensePatternExtractor;
 
-	private DateAndMeasurementExtractor dateExtractor;  
+	private FeatureExtractor1<EventMention> dateExtractor;  
 //	private CoveredTextToValuesExtractor disSemExtractor;
 //	private DurationExpectationFeatureExtractor durationExtractor;
 
@@ -166,14 +168,14 @@ public class DocTimeRelAnnotator extends CleartkAnnotator<String> {
                BaseToken.class,
                continuousText2,
                new Covered() );
-         this.sectionIDExtractor = new SectionHeaderExtractor();
-         this.closestVerbExtractor = new ClosestVerbExtractor();
+         this.sectionIDExtractor = CachingFeatureExtractor1.of(new SectionHeaderExtractor());
+         this.closestVerbExtractor = CachingFeatureExtractor1.of(new ClosestVerbExtractor());
          this.timeXExtractor = new TimeXExtractor();
          this.genericExtractor = new EventPropertyExtractor();
          //		this.umlsExtractor = new UmlsSingleFeatureExtractor();
-         this.verbTensePatternExtractor = new NearbyVerbTenseXExtractor();
+         this.verbTensePatternExtractor = CachingFeatureExtractor1.of(new NearbyVerbTenseXExtractor());
 
-         this.dateExtractor = new DateAndMeasurementExtractor();
+         this.dateExtractor = CachingFeatureExtractor1.of(new DateAndMeasurementExtractor());
 
          //		try {
          //			Map<String, double[]> word_disSem = CoveredTextToValuesExtractor.parseTextDoublesMap(new File("src/main/resources/embeddings.size25.txt"), Charsets.UTF_8);
@@ -190,8 +192,9 @@ public class DocTimeRelAnnotator extends CleartkAnnotator<String> {
 
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
+		SpanIndexService.getInstance().invalidate(jCas);
 		for (EventMention eventMention : JCasUtil.select(jCas, EventMention.class)) {
-			List<Sentence> sents = JCasUtil.selectCovering(jCas, Sentence.class, eventMention);
+			List<Sentence> sents = SpanIndexService.getInstance().getSpanIndex(jCas, Sentence.class).getCovering(eventMention);
 			List<Feature> features = new ArrayList<>();
 			if(sents!=null && sents.size()>0){
 				features.addAll(this.contextExtractor.extractWithin(jCas, eventMention, sents.get(0)));
@@ -28,6 +28,8 @@ import java.util.Map;
 //import java.util.Map;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.index.SpanIndexService;
+import org.apache.ctakes.relationextractor.ae.features.CachingFeatureExtractor1;
 import org.apache.ctakes.temporal.ae.feature.ClosestVerbExtractor;
 //import org.apache.ctakes.temporal.ae.feature.CoveredTextToValuesExtractor;
 import org.apache.ctakes.temporal.ae.feature.DateAndMeasurementExtractor;
@@ -64,6 +66,7 @@ import org.cleartk.ml.feature.extractor.CleartkExtractor.Preceding;
 import org.cleartk.ml.feature.extractor.CleartkExtractorException;
 import org.cleartk.ml.feature.extractor.CombinedExtractor1;
 import org.cleartk.ml.feature.extractor.CoveredTextExtractor;
+import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 import org.cleartk.ml.feature.extractor.TypePathExtractor;
 import org.cleartk.ml.jar.DefaultDataWriterFactory;
 import org.cleartk.ml.jar.DirectoryDataWriterFactory;
@@ -121,14 +124,14 @@ public class EventAdmissionTimeAnnotator extends CleartkAnnotator<String> {
 	}
 
 	private CleartkExtractor<EventMention, BaseToken> contextExtractor;
-	private NearbyVerbTenseXExtractor verbTensePatternExtractor;
+	private FeatureExtractor1<EventMention> verbTensePatternExtractor;
 	//	private SectionHeaderExtractor sectionIDExtractor;
 	private EventPositionFeatureExtractor eventPositionExtractor;
-	private ClosestVerbExtractor closestVerbExtractor;
+	private FeatureExtractor1<EventMention> closestVerbExtractor;
 	private TimeXExtractor timeXExtractor;
 	private EventPropertyExtractor genericExtractor;
-	private DateAndMeasurementExtractor dateExtractor;
-	private UmlsSingleFeatureExtractor umlsExtractor;
+	private FeatureExtractor1<EventMention> dateExtractor;
+	private FeatureExtractor1<EventMention> umlsExtractor;
 	//  private CoveredTextToValuesExtractor disSemExtractor;
 	//  private DurationExpectationFeatureExtractor durationExtractor;
 
@@ -144,18 +147,19 @@ public class EventAdmissionTimeAnnotator extends CleartkAnnotator<String> {
 				new Preceding(3),
 				new Covered(),
 				new Following(3));
-		this.verbTensePatternExtractor = new NearbyVerbTenseXExtractor();
+		this.verbTensePatternExtractor = CachingFeatureExtractor1.of(new NearbyVerbTenseXExtractor());
 		//		this.sectionIDExtractor = new SectionHeaderExtractor();
 		this.eventPositionExtractor = new EventPositionFeatureExtractor();
-		this.closestVerbExtractor = new ClosestVerbExtractor();
+		this.closestVerbExtractor = CachingFeatureExtractor1.of(new ClosestVerbExtractor());
 		this.timeXExtractor = new TimeXExtractor();
 		this.genericExtractor = new EventPropertyExtractor();
-		this.dateExtractor = new DateAndMeasurementExtractor();
-		this.umlsExtractor = new UmlsSingleFeatureExtractor();
+		this.dateExtractor = CachingFeatureExtractor1.of(new DateAndMeasurementExtractor());
+		this.umlsExtractor = CachingFeatureExtractor1.of(new UmlsSingleFeatureExtractor());
 	}
 
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
+		SpanIndexService.getInstance().invalidate(jCas);
 		//get discharge Time id: T1:
 		TimeMention admissionTime = null;
 		//TODO
@@ -25,6 +25,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.index.SpanIndex;
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.temporal.ae.feature.ChunkingExtractor;
 import org.apache.ctakes.temporal.ae.feature.PredicateArgumentExtractor;
 import org.apache.ctakes.temporal.ae.feature.selection.Chi2FeatureSelection;
@@ -234,9 +236,13 @@ public class EventAnnotator extends TemporalEntityAnnotator_ImplBase {
 
     // Create features for tokens that end UMLS (or other) entities
     Multimap<BaseToken, Feature> endOfEntityFeatures = HashMultimap.create();
+    // tokens, sentences and chunks are not changed by this annotator, so their span indexes last the segment.
+    // events are added while classifying, so entities are selected from the cas
+    SpanIndex<BaseToken> tokenSpanIndex = SpanIndexService.getInstance().getSpanIndex(jCas, BaseToken.class);
+    SpanIndex<Chunk> chunkSpanIndex = SpanIndexService.getInstance().getSpanIndex(jCas, Chunk.class);
     for (IdentifiedAnnotation entity : JCasUtil.select(jCas, IdentifiedAnnotation.class)) {
       if (!entity.getClass().equals(EventMention.class)) {
-        List<BaseToken> tokens = JCasUtil.selectCovered(jCas, BaseToken.class, entity);
+        List<BaseToken> tokens = tokenSpanIndex.getCovered(entity);
         if (tokens.size() > 0){
         	BaseToken lastToken = tokens.get(tokens.size() - 1);
             String value = String.format("%s_%s", entity.getClass().getSimpleName(), entity.getTypeID());
@@ -250,8 +256,8 @@ public class EventAnnotator extends TemporalEntityAnnotator_ImplBase {
     SMOTEplus smote = new SMOTEplus((int)Math.ceil(this.smoteNumOfNeighbors));
         
     // classify tokens within each sentence
-    for (Sentence sentence : JCasUtil.selectCovered(jCas, Sentence.class, segment)) {
-      List<BaseToken> tokens = JCasUtil.selectCovered(jCas, BaseToken.class, sentence);
+    for (Sentence sentence : SpanIndexService.getInstance().getSpanIndex(jCas, Sentence.class).getCovered(segment)) {
+      List<BaseToken> tokens = tokenSpanIndex.getCovered(sentence);
 
       // during training, the list of all outcomes for the tokens
       List<String> outcomes;
@@ -298,7 +304,7 @@ public class EventAnnotator extends TemporalEntityAnnotator_ImplBase {
       }
       
       // add extractor for phase chunks
-      List<Chunk> chunks = JCasUtil.selectCovered(jCas, Chunk.class, sentence);
+      List<Chunk> chunks = chunkSpanIndex.getCovered(sentence);
       chunkingExtractors.add(new ChunkingExtractor("PhraseTag", this.phraseChunking, jCas, tokens, chunks));
 
       // extract features for all tokens
@@ -25,6 +25,7 @@ import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.temporal.ae.feature.*;
+import org.apache.ctakes.temporal.utils.CandidateArgumentUtil;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.relation.TemporalTextRelation;
@@ -199,15 +200,8 @@ public class EventEventRelationAnnotator extends TemporalRelationExtractorAnnota
 //				JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
 
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
-		List<EventMention> events = new ArrayList<>(JCasUtil.selectCovered(jCas, EventMention.class, sentence));
-		//filter events:
-		List<EventMention> realEvents = Lists.newArrayList();
-		for( EventMention event : events){
-			if(event.getClass().equals(EventMention.class)){
-				realEvents.add(event);
-			}
-		}
-		events = realEvents;
+		// filtered events, shared with the other temporal relation annotators
+		List<EventMention> events = CandidateArgumentUtil.getEvents(jCas, sentence);
 
 		int eventNum = events.size();
 
@@ -216,22 +210,6 @@ public class EventEventRelationAnnotator extends TemporalRelationExtractorAnnota
 				EventMention eventA = events.get(i);
 				EventMention eventB = events.get(j);
 
-				boolean eventAMedical = false;
-				for( EventMention aEve : JCasUtil.selectCovering(jCas, EventMention.class, eventA)){
-					if(!aEve.getClass().equals(EventMention.class)){//this event cover a UMLS semantic type
-						eventAMedical = true;
-						break;
-					}
-				}
-
-				boolean eventBMedical = false;
-				for( EventMention bEve : JCasUtil.selectCovering(jCas, EventMention.class, eventB)){
-					if(!bEve.getClass().equals(EventMention.class)){//this event cover a UMLS semantic type
-						eventBMedical = true;
-						break;
-					}
-				}
-
 				//				List<EventMention> key = Arrays.asList(eventA, eventB);
 				
 //				if(this.isTraining()){
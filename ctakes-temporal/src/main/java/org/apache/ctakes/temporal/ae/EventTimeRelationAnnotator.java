@@ -22,10 +22,12 @@ import com.google.common.collect.Lists;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.DotLogger;
 import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
+import org.apache.ctakes.relationextractor.ae.features.CachingRelationFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.TokenFeaturesExtractor;
 import org.apache.ctakes.temporal.ae.feature.*;
+import org.apache.ctakes.temporal.utils.CandidateArgumentUtil;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.relation.TemporalTextRelation;
@@ -155,7 +157,7 @@ public class EventTimeRelationAnnotator extends RelationExtractorAnnotator {
 				, new ConjunctionRelationFeaturesExtractor()
 				//				, new EventPositionRelationFeaturesExtractor() //tried, but not helpful
 				, new TimeXRelationFeaturesExtractor()
-				, new TemporalPETFlatExtractor()
+				, CachingRelationFeaturesExtractor.of(new TemporalPETFlatExtractor())
 				, new TimeXPropertyRelationFeaturesExtractor()
 				//				, new TimeWordTypeRelationExtractor() //tried, but not helpful
 				//				, new EventIndexOfSameSentenceRelationFeaturesExtractor() //tried, but not helpful
@@ -172,22 +174,20 @@ public class EventTimeRelationAnnotator extends RelationExtractorAnnotator {
 			JCas jCas,
 			Annotation sentence) {
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
-		for (EventMention event : JCasUtil.selectCovered(jCas, EventMention.class, sentence)) {
-			// ignore subclasses like Procedure and Disease/Disorder
-			if (event.getClass().equals(EventMention.class)) {
-//				boolean eventValid = false;
-//				for (EventMention ev : JCasUtil.selectCovered(jCas, EventMention.class, event)){
-//					if(!ev.getClass().equals(EventMention.class)){// if there is an valid UMLS type in the same span, then true
-//						eventValid = true;
-//						break;
-//					}
+		// ignore subclasses like Procedure and Disease/Disorder
+		for (EventMention event : CandidateArgumentUtil.getEvents(jCas, sentence)) {
+//			boolean eventValid = false;
+//			for (EventMention ev : JCasUtil.selectCovered(jCas, EventMention.class, event)){
+//				if(!ev.getClass().equals(EventMention.class)){// if there is an valid UMLS type in the same span, then true
+//					eventValid = true;
+//					break;
 //				}
-//				if(eventValid){
-					for (TimeMention time : JCasUtil.selectCovered(jCas, TimeMention.class, sentence)) {
-						pairs.add(new IdentifiedAnnotationPair(event, time));
-					}
-//				}
-			}
+//			}
+//			if(eventValid){
+				for (TimeMention time : CandidateArgumentUtil.getTimes(jCas, sentence)) {
+					pairs.add(new IdentifiedAnnotationPair(event, time));
+				}
+//			}
 		}
 
 		//only use gold pairs:
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.index.SpanIndex;
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
@@ -60,6 +62,7 @@ import org.apache.ctakes.temporal.ae.feature.UnexpandedTokenFeaturesExtractor;
 //import org.apache.ctakes.temporal.ae.feature.treekernel.EventVerbRelationTreeExtractor;
 //import org.apache.ctakes.temporal.ae.feature.treekernel.TemporalPETExtractor;
 //import org.apache.ctakes.temporal.ae.feature.treekernel.TemporalPathExtractor;
+import org.apache.ctakes.temporal.utils.CandidateArgumentUtil;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.relation.TemporalTextRelation;
@@ -180,36 +183,26 @@ public class EventTimeSelfRelationAnnotator extends TemporalRelationExtractorAnn
 	public List<IdentifiedAnnotationPair> getCandidateRelationArgumentPairs(
 			JCas jCas,
 			Annotation sentence) {
-		Map<EventMention, Collection<EventMention>> coveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
+		SpanIndex<EventMention> eventIndex = SpanIndexService.getInstance().getSpanIndex(jCas, EventMention.class);
+		List<TimeMention> times = CandidateArgumentUtil.getTimes(jCas, sentence);
 
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
-		for (EventMention event : JCasUtil.selectCovered(jCas, EventMention.class, sentence)) {
-			boolean eventValid = false;
-			if (event.getClass().equals(EventMention.class)) {//event is a gold event
-//				for( EventMention aEve : JCasUtil.selectCovered(jCas, EventMention.class, event)){
-//					if(!aEve.getClass().equals(EventMention.class)){//this event cover a UMLS semantic type
-						eventValid = true;
-//						break;
-//					}
-//				}
-			}
-
-			if(eventValid){
-				// ignore subclasses like Procedure and Disease/Disorder
-				if(this.isTraining()){//if training mode, train on both gold event and span-overlapping system events
-					for (TimeMention time : JCasUtil.selectCovered(jCas, TimeMention.class, sentence)) {
-						
-						Collection<EventMention> eventList = coveringMap.get(event);
-						for(EventMention covEvent : eventList){
-							pairs.add(new IdentifiedAnnotationPair(covEvent, time));
-						}
-						pairs.add(new IdentifiedAnnotationPair(event, time));
-					}
-				}else{//if testing mode, only test on system generated events
-					for (TimeMention time : JCasUtil.selectCovered(jCas, TimeMention.class, sentence)) {
-						pairs.add(new IdentifiedAnnotationPair(event, time));
+		// gold events, without subclasses like Procedure and Disease/Disorder
+		for (EventMention event : CandidateArgumentUtil.getEvents(jCas, sentence)) {
+			if(this.isTraining()){//if training mode, train on both gold event and span-overlapping system events
+				for (TimeMention time : times) {
+					
+					// the events that cover this event, without this event
+					Collection<EventMention> eventList = eventIndex.getCovering(event);
+					eventList.remove(event);
+					for(EventMention covEvent : eventList){
+						pairs.add(new IdentifiedAnnotationPair(covEvent, time));
 					}
+					pairs.add(new IdentifiedAnnotationPair(event, time));
+				}
+			}else{//if testing mode, only test on system generated events
+				for (TimeMention time : times) {
+					pairs.add(new IdentifiedAnnotationPair(event, time));
 				}
 			}
 		}
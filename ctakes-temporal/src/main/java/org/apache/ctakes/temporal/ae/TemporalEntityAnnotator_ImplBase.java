@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.temporal.ae;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.temporal.eval.THYMEData;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
@@ -30,6 +31,7 @@ public abstract class TemporalEntityAnnotator_ImplBase extends CleartkAnnotator<
 
   @Override
   public void process(JCas jCas) throws AnalysisEngineProcessException {
+    SpanIndexService.getInstance().invalidate(jCas);
     for (Segment segment : JCasUtil.select(jCas, Segment.class)) {
       if (!THYMEData.SEGMENTS_TO_SKIP.contains(segment.getId())) {
         this.process(jCas, segment);
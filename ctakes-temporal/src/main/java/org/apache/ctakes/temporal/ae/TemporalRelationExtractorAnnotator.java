@@ -24,6 +24,7 @@ package org.apache.ctakes.temporal.ae;
 
 import com.google.common.collect.Lists;
 import org.apache.ctakes.relationextractor.ae.features.*;
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -167,6 +168,7 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 	 */
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
+		SpanIndexService.getInstance().invalidate(jCas);
 
 		// lookup from pair of annotations to binary text relation
 		// note: assumes that there will be at most one relation per pair
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 //import java.util.Map;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.temporal.ae.feature.ClosestVerbExtractor;
 //import org.apache.ctakes.temporal.ae.feature.CoveredTextToValuesExtractor;
 import org.apache.ctakes.temporal.ae.feature.DateAndMeasurementExtractor;
@@ -145,6 +146,7 @@ public class TimexDischargeTimeAnnotator extends CleartkAnnotator<String> {
 
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
+		SpanIndexService.getInstance().invalidate(jCas);
 		//get discharge Time id: T1:
 		TimeMention dischargeTime = null;
 		List<Segment> courses = Lists.newArrayList();
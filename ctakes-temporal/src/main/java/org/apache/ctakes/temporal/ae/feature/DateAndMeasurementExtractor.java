@@ -21,14 +21,13 @@ package org.apache.ctakes.temporal.ae.feature;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.NumToken;
 import org.apache.ctakes.typesystem.type.textsem.DateAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textsem.MeasurementAnnotation;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.cleartk.ml.Feature;
@@ -50,15 +49,13 @@ public class DateAndMeasurementExtractor implements FeatureExtractor1<Annotation
 	  List<Feature> features = new ArrayList<>();
 	  
 	  //1 get covering sentence:
-	  Map<EventMention, Collection<Sentence>> coveringMap =
-			  JCasUtil.indexCovering(view, EventMention.class, Sentence.class);
 	  EventMention targetTokenAnnotation = (EventMention)annotation;
-	  Collection<Sentence> sentList = coveringMap.get(targetTokenAnnotation);
+	  Collection<Sentence> sentList = SpanIndexService.getInstance().getSpanIndex(view, Sentence.class).getCovering(targetTokenAnnotation);
 	  
 	  //2 get DateX
 	  if (sentList != null && !sentList.isEmpty()){
 		  for(Sentence sent : sentList) {
-			  for (@SuppressWarnings("unused") DateAnnotation date : JCasUtil.selectCovered(view, DateAnnotation.class, sent)) {
+			  for (@SuppressWarnings("unused") DateAnnotation date : SpanIndexService.getInstance().getSpanIndex(view, DateAnnotation.class).getCovered(sent)) {
 				  Feature indicator = new Feature("DateXNearby", this.name);
 				  features.add(indicator);
 				  break;
@@ -69,7 +66,7 @@ public class DateAndMeasurementExtractor implements FeatureExtractor1<Annotation
 	//3 get Measurement
 	  if (sentList != null && !sentList.isEmpty()){
 		  for(Sentence sent : sentList) {
-			  for (@SuppressWarnings("unused") MeasurementAnnotation date : JCasUtil.selectCovered(view, MeasurementAnnotation.class, sent)) {
+			  for (@SuppressWarnings("unused") MeasurementAnnotation date : SpanIndexService.getInstance().getSpanIndex(view, MeasurementAnnotation.class).getCovered(sent)) {
 				  Feature indicator = new Feature("MeasurementNearby", "measure");
 				  features.add(indicator);
 				  break;
@@ -80,7 +77,7 @@ public class DateAndMeasurementExtractor implements FeatureExtractor1<Annotation
 	//4 get number
 	  if (sentList != null && !sentList.isEmpty()){
 		  for(Sentence sent : sentList) {
-			  for (@SuppressWarnings("unused") NumToken date : JCasUtil.selectCovered(view, NumToken.class, sent)) {
+			  for (@SuppressWarnings("unused") NumToken date : SpanIndexService.getInstance().getSpanIndex(view, NumToken.class).getCovered(sent)) {
 				  Feature indicator = new Feature("NumTokenNearby", "NumToken");
 				  features.add(indicator);
 				  break;
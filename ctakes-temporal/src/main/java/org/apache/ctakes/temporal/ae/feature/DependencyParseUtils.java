@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.ctakes.relationextractor.ae.features.RelationFeatureCache;
 import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
@@ -33,6 +34,9 @@ import org.apache.uima.fit.util.JCasUtil;
  */
 public class DependencyParseUtils {
 
+  // not the relation extraction key, as this version finds a different head
+  private static final String HEAD_KEY = DependencyParseUtils.class.getName() + ".head";
+
   /**
    * Returns the paths from each node to the common ancestor between them
    */
@@ -106,6 +110,15 @@ public class DependencyParseUtils {
     return null;
   }
 
+  /**
+   * Finds the head word within a given annotation span once per document,
+   * for every extractor and relation annotator that asks for it
+   */
+  public static ConllDependencyNode findCachedAnnotationHead(JCas jcas, Annotation annotation) {
+    return RelationFeatureCache.getInstance().getValue(jcas, annotation, HEAD_KEY,
+        () -> findAnnotationHead(jcas, annotation));
+  }
+
   public static LinkedList<ConllDependencyNode> getPathToSentenceHead(ConllDependencyNode node) {
 
     LinkedList<ConllDependencyNode> path = new LinkedList<ConllDependencyNode>();
@@ -145,6 +158,14 @@ public class DependencyParseUtils {
   }
 
 
+  /**
+   * Finds the path between two dependency nodes once per document, shared with relation extraction,
+   * which finds the same path.  The returned path must not be modified.
+   */
+  public static LinkedList<ConllDependencyNode> getCachedPathBetweenNodes(JCas jcas, ConllDependencyNode srcNode, ConllDependencyNode tgtNode) {
+    return org.apache.ctakes.relationextractor.ae.features.DependencyParseUtils.getCachedPathBetweenNodes(jcas, srcNode, tgtNode);
+  }
+
   /**
    * This will convert a path into a string lexicalized at the end points with arc labels and POS tags in between
    */
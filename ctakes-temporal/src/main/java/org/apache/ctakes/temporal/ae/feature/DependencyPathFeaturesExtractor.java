@@ -38,14 +38,14 @@ public class DependencyPathFeaturesExtractor implements RelationFeaturesExtracto
 
     List<Feature> features = new ArrayList<Feature>();
 
-    ConllDependencyNode node1 = DependencyParseUtils.findAnnotationHead(jCas, arg1);
-    ConllDependencyNode node2 = DependencyParseUtils.findAnnotationHead(jCas, arg2);
+    ConllDependencyNode node1 = DependencyParseUtils.findCachedAnnotationHead(jCas, arg1);
+    ConllDependencyNode node2 = DependencyParseUtils.findCachedAnnotationHead(jCas, arg2);
     if (node1 == null || node2 == null) 
     { 
       return features; 
     }
 
-    LinkedList<ConllDependencyNode> node1ToNode2Path = DependencyParseUtils.getPathBetweenNodes(node1, node2);
+    LinkedList<ConllDependencyNode> node1ToNode2Path = DependencyParseUtils.getCachedPathBetweenNodes(jCas, node1, node2);
     features.add(new Feature("dependency_path", DependencyParseUtils.pathToString(node1ToNode2Path)));
     features.add(new Feature("dependency_path_length", node1ToNode2Path.size()));//add path length as a feature
 
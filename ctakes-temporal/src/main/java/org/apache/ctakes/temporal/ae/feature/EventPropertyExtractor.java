@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.Set;
 
 import org.apache.ctakes.core.util.DocumentIDAnnotationUtil;
+import org.apache.ctakes.core.util.index.SpanIndex;
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
 import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
@@ -122,11 +124,12 @@ public class EventPropertyExtractor implements FeatureExtractor1<Annotation> {
 		//		}
 
 		Set<Sentence> coveringSents = new HashSet<>();
-		coveringSents.addAll(JCasUtil.selectCovering(view, Sentence.class, event.getBegin(), event.getEnd()));
+		SpanIndexService spanIndexService = SpanIndexService.getInstance();
+		coveringSents.addAll(spanIndexService.getSpanIndex(view, Sentence.class).getCovering(event.getBegin(), event.getEnd()));
 
 
 		for(Sentence coveringSent : coveringSents){
-			List<EventMention> events = JCasUtil.selectCovered(EventMention.class, coveringSent);
+			List<EventMention> events = spanIndexService.getSpanIndex(view, EventMention.class).getCovered(coveringSent);
 			List<EventMention> realEvents = new ArrayList<>();
 			for(EventMention eventa : events){
 				// filter out ctakes events
@@ -146,8 +149,9 @@ public class EventPropertyExtractor implements FeatureExtractor1<Annotation> {
 			}
 			
 			//check if this event is generic:
-			List<WordToken> words = new ArrayList<>(JCasUtil.selectPreceding(view, WordToken.class, event, 15));
-			words.addAll(JCasUtil.selectFollowing(view, WordToken.class, event, 15));
+			SpanIndex<WordToken> wordIndex = spanIndexService.getSpanIndex(view, WordToken.class);
+			List<WordToken> words = wordIndex.getPreceding(event, 15);
+			words.addAll(wordIndex.getFollowing(event, 15));
 			for(WordToken word : words){
 				if(outsideScope(word, coveringSent)){//if the word is outside the sentence
 					continue;
@@ -168,7 +172,8 @@ public class EventPropertyExtractor implements FeatureExtractor1<Annotation> {
 			
 			//check if there is any newLine token in close vicinity:
 			int newlineNum = 0;
-			for (BaseToken btoken: JCasUtil.selectPreceding(view, BaseToken.class, event, 20)){
+			SpanIndex<BaseToken> tokenIndex = spanIndexService.getSpanIndex(view, BaseToken.class);
+			for (BaseToken btoken: tokenIndex.getPreceding(event, 20)){
 				if(btoken instanceof NewlineToken){
 					newlineNum++;
 				}
@@ -178,7 +183,7 @@ public class EventPropertyExtractor implements FeatureExtractor1<Annotation> {
 				features.add(new Feature("newLineNum_preceding", newlineNum));
 			}
 			newlineNum = 0;
-			for (BaseToken btoken: JCasUtil.selectFollowing(view, BaseToken.class, event, 20)){
+			for (BaseToken btoken: tokenIndex.getFollowing(event, 20)){
 				if(btoken instanceof NewlineToken){
 					newlineNum++;
 				}
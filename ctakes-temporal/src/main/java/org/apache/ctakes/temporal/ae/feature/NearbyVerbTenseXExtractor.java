@@ -21,13 +21,12 @@ package org.apache.ctakes.temporal.ae.feature;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 //import java.util.logging.Logger;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.cleartk.ml.Feature;
@@ -51,16 +50,14 @@ public class NearbyVerbTenseXExtractor implements FeatureExtractor1 {
 	  List<Feature> features = new ArrayList<>();
 	  
 	  //1 get covering sentence:
-	  Map<EventMention, Collection<Sentence>> coveringMap =
-			  JCasUtil.indexCovering(view, EventMention.class, Sentence.class);
 	  EventMention targetTokenAnnotation = (EventMention)annotation;
-	  Collection<Sentence> sentList = coveringMap.get(targetTokenAnnotation);
+	  Collection<Sentence> sentList = SpanIndexService.getInstance().getSpanIndex(view, Sentence.class).getCovering(targetTokenAnnotation);
 	  
 	  //2 get Verb Tense
 	  if (sentList != null && !sentList.isEmpty()){
 		  for(Sentence sent : sentList) {
 			  String verbTP ="";
-			  for ( WordToken wt : JCasUtil.selectCovered(view, WordToken.class, sent)) {
+			  for ( WordToken wt : SpanIndexService.getInstance().getSpanIndex(view, WordToken.class).getCovered(sent)) {
 				  if (wt != null){
 					  String pos = wt.getPartOfSpeech();
 					  if (pos.startsWith("VB")){
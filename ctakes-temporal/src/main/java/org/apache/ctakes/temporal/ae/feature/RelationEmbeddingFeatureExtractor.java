@@ -20,7 +20,6 @@ package org.apache.ctakes.temporal.ae.feature;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import org.apache.ctakes.core.resource.FileLocator;
@@ -48,7 +47,7 @@ public class RelationEmbeddingFeatureExtractor implements RelationFeaturesExtrac
 	CleartkExtractorException {
 		try {
 			words =
-					WordVectorReader.getEmbeddings(FileLocator.getAsStream(vecFile));
+					WordVectorReader.getEmbeddings(FileLocator.getFile(vecFile));
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new CleartkExtractorException(e);
@@ -78,7 +77,7 @@ public class RelationEmbeddingFeatureExtractor implements RelationFeaturesExtrac
 		}
 		
 		//get the 2 words before the first argument
-		List<Double> sum = getSumVector(preWords);
+		double[] sum = getSumVector(preWords);
 		features = addFeatures(features, sum, preWords.size(), "pre");		
 
 		// head words of the first argument features
@@ -101,31 +100,27 @@ public class RelationEmbeddingFeatureExtractor implements RelationFeaturesExtrac
 		return features;
 	}
 
-	private List<Feature> addFeatures(List<Feature> features, List<Double> sum, int size, String field) {
+	private List<Feature> addFeatures(List<Feature> features, double[] sum, int size, String field) {
 		if(size == 0){
 			for(int dim = 0; dim < numberOfDimensions; dim++) {
 				String featureName = String.format(field+"_dim_%d", dim);
-				features.add(new Feature(featureName, sum.get(dim)));
+				features.add(new Feature(featureName, sum[dim]));
 			}
 		}else{
 			for(int dim = 0; dim < numberOfDimensions; dim++) {
 				String featureName = String.format(field+"_dim_%d", dim);
-				features.add(new Feature(featureName, sum.get(dim) / size));
+				features.add(new Feature(featureName, sum[dim] / size));
 			}
 		}
 		return features;
 	}
 
-	private List<Double> getSumVector(List<WordToken> wordsInCheck) {
-		List<Double> sum = new ArrayList<>(Collections.nCopies(numberOfDimensions, 0.0));
+	private double[] getSumVector(List<WordToken> wordsInCheck) {
+		double[] sum = new double[numberOfDimensions];
 		for(WordToken wordToken : wordsInCheck) {
-			WordVector wordVector;
-			if(words.containsKey(wordToken.getCoveredText().toLowerCase())) {
-				wordVector = words.getVector(wordToken.getCoveredText().toLowerCase());
-			} else {
-				wordVector = words.getVector("and");
+			if(!words.addVector(wordToken.getCoveredText().toLowerCase(), sum)) {
+				words.addVector("and", sum);
 			}
-			sum = addVectors(sum, wordVector);      
 		}
 		return sum;
 	}
@@ -170,31 +165,18 @@ public class RelationEmbeddingFeatureExtractor implements RelationFeaturesExtrac
 		return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
 	}
 
-	public double computeCosineSimilarity(List<Double> vector1, List<Double> vector2) {
+	public double computeCosineSimilarity(double[] vector1, double[] vector2) {
 
 		double dotProduct = 0.0;
 		double norm1 = 0.01;
 		double norm2 = 0.01;
 
 		for (int dim = 0; dim < numberOfDimensions; dim++) {
-			dotProduct = dotProduct + vector1.get(dim) * vector2.get(dim);
-			norm1 = norm1 + Math.pow(vector1.get(dim), 2);
-			norm2 = norm2 + Math.pow(vector2.get(dim), 2);
+			dotProduct = dotProduct + vector1[dim] * vector2[dim];
+			norm1 = norm1 + Math.pow(vector1[dim], 2);
+			norm2 = norm2 + Math.pow(vector2[dim], 2);
 		}
 
 		return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
 	}
-
-	/**
-	 * Add two vectors. Return the sum vector.
-	 */
-	public List<Double> addVectors(List<Double> vector1, WordVector vector2) {
-
-		List<Double> sum = new ArrayList<>();
-		for(int dim = 0; dim < numberOfDimensions; dim++) {
-			sum.add(vector1.get(dim) + vector2.getValue(dim));
-		}
-
-		return sum;
-	}
 }
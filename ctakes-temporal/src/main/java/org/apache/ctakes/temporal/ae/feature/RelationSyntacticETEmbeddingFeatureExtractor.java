@@ -21,6 +21,7 @@ package org.apache.ctakes.temporal.ae.feature;
 import org.apache.ctakes.constituency.parser.treekernel.TreeExtractor;
 import org.apache.ctakes.constituency.parser.util.AnnotationTreeUtils;
 import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.relationextractor.ae.features.ParseTreeUtils;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.TopTreebankNode;
 import org.apache.ctakes.typesystem.type.syntax.TreebankNode;
@@ -35,7 +36,6 @@ import org.cleartk.ml.feature.extractor.CleartkExtractorException;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -50,7 +50,7 @@ public class RelationSyntacticETEmbeddingFeatureExtractor implements RelationFea
 	CleartkExtractorException {
 		try {
 			paths =
-					WordVectorReader.getEmbeddings(FileLocator.getAsStream(vecFile));
+					WordVectorReader.getEmbeddings(FileLocator.getFile(vecFile));
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new CleartkExtractorException(e);
@@ -65,7 +65,7 @@ public class RelationSyntacticETEmbeddingFeatureExtractor implements RelationFea
 
 		//get the PET tree between arg1 and arg2:
 		// first get the root and print it out...
-		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jCas, AnnotationTreeUtils.getAnnotationTree(jCas, arg1));
+		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jCas, ParseTreeUtils.getAnnotationTree(jCas, arg1));
 
 		if(root == null){
 			return features; 
@@ -98,31 +98,23 @@ public class RelationSyntacticETEmbeddingFeatureExtractor implements RelationFea
 			pathsBetweenArgs.add(getPathBetweenNodes(t2, lca,""));
 		}
 
-		List<Double> sum = new ArrayList<>(Collections.nCopies(numberOfDimensions, 0.0));
+		double[] sum = new double[numberOfDimensions];
 		for(String path : pathsBetweenArgs) {
-			WordVector wordVector;
-			if(paths.containsKey(path)) {
-				wordVector = paths.getVector(path);
-			} else {
-				while(!paths.containsKey(path)){
-					String trimmedPath = removeTail(path);
-					if(trimmedPath==null){
-						break;
-					}
-					path = trimmedPath;
-				}
-				if(paths.containsKey(path)){
-					wordVector = paths.getVector(path);
-				}else{
-					wordVector = paths.getVector("<unk>");
+			while(!paths.containsKey(path)){
+				String trimmedPath = removeTail(path);
+				if(trimmedPath==null){
+					break;
 				}
+				path = trimmedPath;
+			}
+			if(!paths.addVector(path, sum)){
+				paths.addVector("<unk>", sum);
 			}
-			sum = addVectors(sum, wordVector);      
 		}
 
 		for(int dim = 0; dim < numberOfDimensions; dim++) {
 			String featureName = String.format("syntactic_average_dim_%d", dim);
-			features.add(new Feature(featureName, sum.get(dim) / pathsBetweenArgs.size()));
+			features.add(new Feature(featureName, sum[dim] / pathsBetweenArgs.size()));
 		}
 
 		return features;
@@ -172,31 +164,18 @@ public class RelationSyntacticETEmbeddingFeatureExtractor implements RelationFea
 		return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
 	}
 
-	public double computeCosineSimilarity(List<Double> vector1, List<Double> vector2) {
+	public double computeCosineSimilarity(double[] vector1, double[] vector2) {
 
 		double dotProduct = 0.0;
 		double norm1 = 0.01;
 		double norm2 = 0.01;
 
 		for (int dim = 0; dim < numberOfDimensions; dim++) {
-			dotProduct = dotProduct + vector1.get(dim) * vector2.get(dim);
-			norm1 = norm1 + Math.pow(vector1.get(dim), 2);
-			norm2 = norm2 + Math.pow(vector2.get(dim), 2);
+			dotProduct = dotProduct + vector1[dim] * vector2[dim];
+			norm1 = norm1 + Math.pow(vector1[dim], 2);
+			norm2 = norm2 + Math.pow(vector2[dim], 2);
 		}
 
 		return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
 	}
-
-	/**
-	 * Add two vectors. Return the sum vector.
-	 */
-	public List<Double> addVectors(List<Double> vector1, WordVector vector2) {
-
-		List<Double> sum = new ArrayList<>();
-		for(int dim = 0; dim < numberOfDimensions; dim++) {
-			sum.add(vector1.get(dim) + vector2.getValue(dim));
-		}
-
-		return sum;
-	}
 }
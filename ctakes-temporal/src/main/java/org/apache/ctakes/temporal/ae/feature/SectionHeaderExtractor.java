@@ -21,12 +21,11 @@ package org.apache.ctakes.temporal.ae.feature;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 //import java.util.logging.Logger;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.cleartk.ml.Feature;
@@ -50,10 +49,8 @@ public class SectionHeaderExtractor implements FeatureExtractor1 {
 		List<Feature> features = new ArrayList<>();
 
 		//1 get covering sentence:
-		Map<EventMention, Collection<Segment>> coveringMap =
-				JCasUtil.indexCovering(view, EventMention.class, Segment.class);
 		EventMention targetTokenAnnotation = (EventMention)annotation;
-		Collection<Segment> segList = coveringMap.get(targetTokenAnnotation);
+		Collection<Segment> segList = SpanIndexService.getInstance().getSpanIndex(view, Segment.class).getCovering(targetTokenAnnotation);
 
 		//2 get Verb Tense
 		if (segList != null && !segList.isEmpty()){
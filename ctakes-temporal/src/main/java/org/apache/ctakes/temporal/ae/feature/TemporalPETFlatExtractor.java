@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.apache.ctakes.constituency.parser.treekernel.TreeExtractor;
 import org.apache.ctakes.constituency.parser.util.AnnotationTreeUtils;
+import org.apache.ctakes.relationextractor.ae.features.ParseTreeUtils;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.TopTreebankNode;
 import org.apache.ctakes.typesystem.type.syntax.TreebankNode;
@@ -26,7 +27,7 @@ public class TemporalPETFlatExtractor implements RelationFeaturesExtractor<Ident
 			IdentifiedAnnotation arg2) throws AnalysisEngineProcessException {
 		List<Feature> features = new ArrayList<>();
 		// first get the root and print it out...
-		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jcas, AnnotationTreeUtils.getAnnotationTree(jcas, arg1));
+		TopTreebankNode root = AnnotationTreeUtils.getTreeCopy(jcas, ParseTreeUtils.getAnnotationTree(jcas, arg1));
 
 		if(root == null){
 			SimpleTree fakeTree = new SimpleTree("(S (NN null))");
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.TreeMap;
 //import java.util.logging.Logger;
 
+import org.apache.ctakes.core.util.index.SpanIndexService;
 import org.apache.ctakes.typesystem.type.syntax.NumToken;
 //import org.apache.ctakes.temporal.ae.feature.treekernel.TemporalPETExtractor;
 //import org.apache.ctakes.temporal.ae.feature.treekernel.TemporalSingleTreeExtractor;
@@ -68,10 +69,8 @@ public class TimeXExtractor implements FeatureExtractor1 {
 	  List<Feature> features = new ArrayList<>();
 	  
 	  //1 get covering sentence:
-	  Map<EventMention, Collection<Sentence>> coveringMap =
-			  JCasUtil.indexCovering(view, EventMention.class, Sentence.class);
 	  EventMention targetTokenAnnotation = (EventMention)annotation;
-	  Collection<Sentence> sentList = coveringMap.get(targetTokenAnnotation);
+	  Collection<Sentence> sentList = SpanIndexService.getInstance().getSpanIndex(view, Sentence.class).getCovering(targetTokenAnnotation);
 	  
 	  //2 get TimeX
 	  Map<Integer, IdentifiedAnnotation> timeDistMap = null;
@@ -95,13 +94,13 @@ public class TimeXExtractor implements FeatureExtractor1 {
 		  //boolean hasNumberToken = false;
 		  
 		  for(Sentence sent : sentList) {
-			  for (TimeMention time : JCasUtil.selectCovered(view, TimeMention.class, sent)) {
+			  for (TimeMention time : SpanIndexService.getInstance().getSpanIndex(view, TimeMention.class).getCovered(sent)) {
 				  timeDistMap.put(Math.abs(time.getBegin() - annotation.getBegin()), time);
 			  }
-			  for (TimeAnnotation time : JCasUtil.selectCovered(view, TimeAnnotation.class, sent)) {
+			  for (TimeAnnotation time : SpanIndexService.getInstance().getSpanIndex(view, TimeAnnotation.class).getCovered(sent)) {
 				  timeDistMap.put(Math.abs(time.getBegin() - annotation.getBegin()), time);
 			  }
-			  for (DateAnnotation time : JCasUtil.selectCovered(view, DateAnnotation.class, sent)) {
+			  for (DateAnnotation time : SpanIndexService.getInstance().getSpanIndex(view, DateAnnotation.class).getCovered(sent)) {
 				  timeDistMap.put(Math.abs(time.getBegin() - annotation.getBegin()), time);
 			  }
 			  //for (NumToken number : JCasUtil.selectCovered(view, NumToken.class, sent)){
@@ -126,9 +125,7 @@ public class TimeXExtractor implements FeatureExtractor1 {
 			  features.add(type);
 
 			  //add PP get Heading preposition
-			  for(TreebankNode treebankNode : JCasUtil.selectCovering(
-					  view, 
-					  TreebankNode.class, 
+			  for(TreebankNode treebankNode : SpanIndexService.getInstance().getSpanIndex(view, TreebankNode.class).getCovering(
 					  entry.getValue().getBegin(), 
 					  entry.getValue().getEnd())) {
 
@@ -21,6 +21,7 @@ package org.apache.ctakes.temporal.ae.feature;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.ctakes.relationextractor.ae.features.RelationFeatureCache;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.constants.CONST;
 import org.apache.ctakes.typesystem.type.textsem.EntityMention;
@@ -37,6 +38,9 @@ import com.google.common.collect.Lists;
 
 public class UmlsFeatureExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 
+  // type counts of an argument are computed once per document and reused for every pair with that argument
+  private static final String TYPE_COUNTS_KEY = UmlsFeatureExtractor.class.getName() + ".typeCounts";
+
   @Override
   public List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
       throws AnalysisEngineProcessException {
@@ -55,8 +59,7 @@ public class UmlsFeatureExtractor implements RelationFeaturesExtractor<Identifie
     if(arg1 instanceof EventMention) {
 //      List<EntityMention> entityMentions = JCasUtil.selectCovering(systemView, EntityMention.class, arg1.getBegin(), arg1.getEnd());
 
-      CounterMap<String> typeCounts = 
-          getMentionTypes(JCasUtil.selectCovering(systemView, EventMention.class, arg1.getBegin(), arg1.getEnd()));
+      CounterMap<String> typeCounts = getMentionTypes(systemView, arg1);
       
       // print out totals:
       for(String typeId : typeCounts.keySet()){
@@ -78,8 +81,7 @@ public class UmlsFeatureExtractor implements RelationFeaturesExtractor<Identifie
     }
 
     if(arg2 instanceof EventMention){
-      CounterMap<String> typeCounts = 
-          getMentionTypes(JCasUtil.selectCovering(systemView, EventMention.class, arg2.getBegin(), arg2.getEnd()));
+      CounterMap<String> typeCounts = getMentionTypes(systemView, arg2);
       
       // print out totals:
       for(String typeId : typeCounts.keySet()){
@@ -99,6 +101,12 @@ public class UmlsFeatureExtractor implements RelationFeaturesExtractor<Identifie
     return features;
   }
   
+  private static CounterMap<String> getMentionTypes(final JCas systemView, final IdentifiedAnnotation arg)
+      throws AnalysisEngineProcessException {
+    return RelationFeatureCache.getInstance().getValue(systemView, arg, TYPE_COUNTS_KEY,
+        () -> getMentionTypes(JCasUtil.selectCovering(systemView, EventMention.class, arg.getBegin(), arg.getEnd())));
+  }
+
   private static CounterMap<String> getMentionTypes(List<EventMention> entities){
     CounterMap<String> typeCounts = new CounterMap<String>();
     for(EventMention entityMention : entities) {
@@ -3,6 +3,7 @@ package org.apache.ctakes.temporal.ae.feature;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.ctakes.relationextractor.ae.features.CachingFeatureExtractor1;
 import org.apache.ctakes.relationextractor.ae.features.TokenFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -40,19 +41,26 @@ public class UnexpandedTokenFeaturesExtractor extends TokenFeaturesExtractor {
 			new Preceding(3),
 			new Following(3));
 
+	/**
+	 * Covered text and token context of a mention, extracted once per document for either argument position
+	 */
+	private FeatureExtractor1 mentionFeaturesExtractor = new CachingFeatureExtractor1(
+			UnexpandedTokenFeaturesExtractor.class.getName() + ".mention",
+			new CombinedExtractor1(coveredText, tokenContext));
+
 	/**
 	 * All extractors for mention 1, with features named to distinguish them from mention 2
 	 */
 	private FeatureExtractor1 mention1FeaturesExtractor = new NamingExtractor1(
 			"mention1",
-			new CombinedExtractor1(coveredText, tokenContext));
+			mentionFeaturesExtractor);
 
 	/**
 	 * All extractors for mention 2, with features named to distinguish them from mention 1
 	 */
 	private FeatureExtractor1 mention2FeaturesExtractor = new NamingExtractor1(
 			"mention2",
-			new CombinedExtractor1(coveredText, tokenContext));
+			mentionFeaturesExtractor);
 
 	/**
 	 * First word, last word, and all words between the mentions
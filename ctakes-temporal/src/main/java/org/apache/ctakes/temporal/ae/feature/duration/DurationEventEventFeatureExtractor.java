@@ -18,24 +18,32 @@
  */
 package org.apache.ctakes.temporal.ae.feature.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
+import org.apache.ctakes.temporal.duration.DurationDistributionStore;
 import org.apache.ctakes.temporal.duration.Utils;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 public class DurationEventEventFeatureExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 
+  private final DurationDistributionStore store;
+
+  /**
+   * Use the shared duration distribution store.
+   */
+  public DurationEventEventFeatureExtractor() {
+    this(DurationDistributionStore.getInstance());
+  }
+
+  public DurationEventEventFeatureExtractor(DurationDistributionStore store) {
+    this.store = store;
+  }
+
   @Override
   public List<Feature> extract(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2)
       throws AnalysisEngineProcessException {
@@ -45,34 +53,28 @@ public class DurationEventEventFeatureExtractor implements RelationFeaturesExtra
     String arg1text = Utils.normalizeEventText(jCas, arg1);
     String arg2text = Utils.normalizeEventText(jCas, arg2);
     
-    Float expectedDuration1;
-    Float expectedDuration2;
+    float expectedDuration1;
+    float expectedDuration2;
     
-    Map<String, Map<String, Float>> textToDistribution = null;
-    try {
-      textToDistribution = Files.readLines(new File(Utils.durationDistributionPath), Charsets.UTF_8, new Utils.Callback());
-    } catch(IOException e) {
-      e.printStackTrace();
+    if(!store.isLoaded()) {
       return features;
     }
     
-    Map<String, Float> arg1Distribution = textToDistribution.get(arg1text);
-    if(arg1Distribution == null) {
+    if(!store.contains(arg1text)) {
       // this shouldn't happen if relations with no durations for args filtered out
       features.add(new Feature("arg1_no_duration_info"));
       return features;
     } 
     
-    expectedDuration1 = Utils.expectedDuration(arg1Distribution);
+    expectedDuration1 = store.getExpectedDuration(arg1text);
     
-    Map<String, Float> arg2Distribution = textToDistribution.get(arg2text);
-    if(arg2Distribution == null) {
+    if(!store.contains(arg2text)) {
       // this shouldn't happen if relations with no durations for args filtered out
       features.add(new Feature("arg2_no_duration_info"));
       return features;
     }
     
-    expectedDuration2 = Utils.expectedDuration(arg2Distribution);
+    expectedDuration2 = store.getExpectedDuration(arg2text);
     features.add(new Feature("expected_duration_difference", expectedDuration1 - expectedDuration2));
     return features;
   }
@@ -18,12 +18,10 @@
  */
 package org.apache.ctakes.temporal.ae.feature.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
+import org.apache.ctakes.temporal.duration.DurationDistributionStore;
 import org.apache.ctakes.temporal.duration.Utils;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
@@ -32,17 +30,25 @@ import org.cleartk.ml.Feature;
 import org.cleartk.ml.feature.extractor.CleartkExtractorException;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 public class DurationExpectationFeatureExtractor implements FeatureExtractor1 {
 
+  private final DurationDistributionStore store;
+
+  /**
+   * Use the shared duration distribution store.
+   */
+  public DurationExpectationFeatureExtractor() {
+    this(DurationDistributionStore.getInstance());
+  }
+
+  public DurationExpectationFeatureExtractor(DurationDistributionStore store) {
+    this.store = store;
+  }
+
   @Override
   public List<Feature> extract(JCas view, Annotation annotation) throws CleartkExtractorException { 
 
     List<Feature> features = new ArrayList<>();
-    File durationLookup = new File(Utils.durationDistributionPath);
-    
     String eventText;
     try {
       eventText = Utils.normalizeEventText(view, annotation);
@@ -51,15 +57,11 @@ public class DurationExpectationFeatureExtractor implements FeatureExtractor1 {
       return features;
     } 
     
-    Map<String, Map<String, Float>> textToDistribution = null;
-    try {
-      textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());
-    } catch(IOException e) {
-      e.printStackTrace();
+    if(!store.isLoaded()) {
       return features;
     }
     
-    Map<String, Float> eventDistribution = textToDistribution.get(eventText);
+    float[] eventDistribution = store.getDistribution(eventText);
     if(eventDistribution == null) {
       features.add(new Feature("no_duration_info"));
       return features;
@@ -68,16 +70,18 @@ public class DurationExpectationFeatureExtractor implements FeatureExtractor1 {
     float expectation = Utils.expectedDuration(eventDistribution);
     features.add(new Feature("expected_duration", expectation));
     
-    for(String bin : Utils.bins) {
-      features.add(new Feature(bin, eventDistribution.get(bin)));
+    for(int bin = 0; bin < Utils.bins.length; bin++) {
+      // a bin missing from the distribution file has no value
+      Float value = Float.isNaN(eventDistribution[bin]) ? null : eventDistribution[bin];
+      features.add(new Feature(Utils.bins[bin], value));
     }
 
     String largestBin = null;
     float largestValue = 0f;
-    for(String bin : Utils.bins) {
-      if(eventDistribution.get(bin) > largestValue) {
-        largestBin = bin;
-        largestValue = eventDistribution.get(bin);
+    for(int bin = 0; bin < Utils.bins.length; bin++) {
+      if(eventDistribution[bin] > largestValue) {
+        largestBin = Utils.bins[bin];
+        largestValue = eventDistribution[bin];
       }
     }
     features.add(new Feature("largest_bin_" + largestBin));
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.duration;
+
+import org.apache.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable event duration distributions, read once and shared by the duration feature extractors and duration utilities.
+ * <p>
+ * Each event text maps to an array of probabilities in the order of {@link Utils#bins}.
+ * A bin that is not in the distribution file has the value NaN.
+ * The distributions are read from a text file with lines such as
+ * "pain, second:0.000, minute:0.005, hour:0.099, ..." as read by {@link Utils.Callback},
+ * or from a binary snapshot of such a file written by {@link #writeSnapshot(File)}.
+ * </p>
+ * The shared store is read from the path in the system property {@value #DISTRIBUTION_PATH_PROPERTY},
+ * by default {@link Utils#durationDistributionPath}.
+ * If that file cannot be read then the shared store is empty and {@link #isLoaded()} is false.
+ */
+final public class DurationDistributionStore {
+
+   static private final Logger LOGGER = Logger.getLogger( "DurationDistributionStore" );
+
+   static public final String DISTRIBUTION_PATH_PROPERTY = "ctakes.temporal.durationDistributionPath";
+
+   // "DUR1"
+   static private final int SNAPSHOT_MAGIC = 0x44555231;
+
+   static private final class SharedStore {
+      static private final DurationDistributionStore INSTANCE = loadShared();
+   }
+
+   private final Map<String, float[]> _distributions;
+   private final boolean _loaded;
+
+   /**
+    * @return the store for the configured distribution file, read on first use
+    */
+   static public DurationDistributionStore getInstance() {
+      return SharedStore.INSTANCE;
+   }
+
+   static private DurationDistributionStore loadShared() {
+      final String path = System.getProperty( DISTRIBUTION_PATH_PROPERTY, Utils.durationDistributionPath );
+      try {
+         final DurationDistributionStore store = load( new File( path ) );
+         LOGGER.info( "Loaded " + store.size() + " duration distributions from " + path );
+         return store;
+      } catch ( IOException ioE ) {
+         LOGGER.error( "Could not read duration distributions from " + path + " : " + ioE.getMessage() );
+         return new DurationDistributionStore( Collections.emptyMap(), false );
+      }
+   }
+
+   private DurationDistributionStore( final Map<String, float[]> distributions, final boolean loaded ) {
+      _distributions = distributions;
+      _loaded = loaded;
+   }
+
+   /**
+    * @param file distribution text file or binary snapshot
+    * @return store with the distributions in the file
+    * @throws IOException if the file cannot be read
+    */
+   static public DurationDistributionStore load( final File file ) throws IOException {
+      try ( DataInputStream input = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) ) ) {
+         input.mark( Integer.BYTES );
+         final boolean isSnapshot = input.available() >= Integer.BYTES && input.readInt() == SNAPSHOT_MAGIC;
+         if ( isSnapshot ) {
+            return readSnapshot( input );
+         }
+         input.reset();
+         return readText( new BufferedReader( new InputStreamReader( input, StandardCharsets.UTF_8 ) ) );
+      }
+   }
+
+   /**
+    * @param reader reader of distribution text lines
+    * @return store with the distributions in the text
+    * @throws IOException if the text cannot be read
+    */
+   static public DurationDistributionStore readText( final BufferedReader reader ) throws IOException {
+      final Map<String, float[]> distributions = new HashMap<>();
+      String line = reader.readLine();
+      while ( line != null ) {
+         // same parse as Utils.Callback
+         final String[] elements = line.split( ", " );
+         final float[] distribution = new float[ Utils.bins.length ];
+         Arrays.fill( distribution, Float.NaN );
+         for ( int i = 1; i < elements.length; i++ ) {
+            final String[] durationAndValue = elements[ i ].split( ":" );
+            final int bin = Arrays.asList( Utils.bins ).indexOf( durationAndValue[ 0 ] );
+            if ( bin < 0 ) {
+               LOGGER.warn( "Unknown duration bin " + durationAndValue[ 0 ] + " for " + elements[ 0 ] );
+               continue;
+            }
+            distribution[ bin ] = Float.parseFloat( durationAndValue[ 1 ] );
+         }
+         distributions.put( elements[ 0 ], distribution );
+         line = reader.readLine();
+      }
+      return new DurationDistributionStore( Collections.unmodifiableMap( distributions ), true );
+   }
+
+   static private DurationDistributionStore readSnapshot( final DataInputStream input ) throws IOException {
+      final int binCount = input.readInt();
+      if ( binCount != Utils.bins.length ) {
+         throw new IOException( "Snapshot has " + binCount + " duration bins, not " + Utils.bins.length );
+      }
+      final int size = input.readInt();
+      final Map<String, float[]> distributions = new HashMap<>( 2 * size );
+      for ( int i = 0; i < size; i++ ) {
+         final String text = input.readUTF();
+         final float[] distribution = new float[ binCount ];
+         for ( int bin = 0; bin < binCount; bin++ ) {
+            distribution[ bin ] = input.readFloat();
+         }
+         distributions.put( text, distribution );
+      }
+      return new DurationDistributionStore( Collections.unmodifiableMap( distributions ), true );
+   }
+
+   /**
+    * Writes the distributions as a binary snapshot, which {@link #load(File)} reads without parsing text.
+    *
+    * @param file snapshot file
+    * @throws IOException if the file cannot be written
+    */
+   public void writeSnapshot( final File file ) throws IOException {
+      try ( DataOutputStream output = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) ) ) {
+         output.writeInt( SNAPSHOT_MAGIC );
+         output.writeInt( Utils.bins.length );
+         output.writeInt( _distributions.size() );
+         for ( Map.Entry<String, float[]> entry : _distributions.entrySet() ) {
+            output.writeUTF( entry.getKey() );
+            for ( float value : entry.getValue() ) {
+               output.writeFloat( value );
+            }
+         }
+      }
+   }
+
+   /**
+    * @return false if the distribution file could not be read
+    */
+   public boolean isLoaded() {
+      return _loaded;
+   }
+
+   /**
+    * @return number of event texts with a distribution
+    */
+   public int size() {
+      return _distributions.size();
+   }
+
+   /**
+    * @param eventText lowercase event text
+    * @return true if the event text has a distribution
+    */
+   public boolean contains( final String eventText ) {
+      return _distributions.containsKey( eventText );
+   }
+
+   /**
+    * @param eventText lowercase event text
+    * @return copy of the probabilities for the event text in the order of {@link Utils#bins}, or null if none
+    */
+   public float[] getDistribution( final String eventText ) {
+      final float[] distribution = _distributions.get( eventText );
+      return distribution == null ? null : distribution.clone();
+   }
+
+   /**
+    * @param eventText lowercase event text
+    * @return expected duration of the event as computed by {@link Utils#expectedDuration(float[])},
+    * or NaN if the event text has no distribution
+    */
+   public float getExpectedDuration( final String eventText ) {
+      final float[] distribution = _distributions.get( eventText );
+      return distribution == null ? Float.NaN : Utils.expectedDuration( distribution );
+   }
+
+   /**
+    * Writes a binary snapshot of a distribution text file.
+    *
+    * @param args distribution text file, snapshot file
+    * @throws IOException if a file cannot be read or written
+    */
+   static public void main( final String... args ) throws IOException {
+      if ( args.length != 2 ) {
+         System.err.println( "Usage: DurationDistributionStore <distribution text file> <snapshot file>" );
+         System.exit( 1 );
+      }
+      final DurationDistributionStore store = load( new File( args[ 0 ] ) );
+      store.writeSnapshot( new File( args[ 1 ] ) );
+      LOGGER.info( "Wrote " + store.size() + " duration distributions to " + args[ 1 ] );
+   }
+
+}
@@ -43,7 +43,6 @@ import org.apache.uima.jcas.JCas;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Analyze duration information for the relation arguments of CONTAINS relation.
@@ -103,14 +102,10 @@ public class EventEventDurationStatistics {
     @Override                                                                                                                  
     public void process(JCas jCas) throws AnalysisEngineProcessException {                                                     
 
-      File durationLookup = new File(Utils.durationDistributionPath);                      
-      Map<String, Map<String, Float>> textToDistribution = null;                                                                 
-      try {                                                                                                                      
-        textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());                                    
-      } catch(IOException e) {                                                                                                   
-        e.printStackTrace();                                                                                                     
-        return;                                                                                                                  
-      }  
+      DurationDistributionStore durationStore = DurationDistributionStore.getInstance();
+      if(!durationStore.isLoaded()) {
+        return;
+      }
 
       JCas goldView;                                                                                                           
       try {                                                                                                                    
@@ -137,10 +132,10 @@ public class EventEventDurationStatistics {
           continue;
         }
 
-        if(textToDistribution.containsKey(event1Text) && textToDistribution.containsKey(event2Text)) {
+        if(durationStore.contains(event1Text) && durationStore.contains(event2Text)) {
           // there is duration information for both arguments
-          float event1ExpectedDuration = Utils.expectedDuration(textToDistribution.get(event1Text));
-          float event2ExpectedDuration = Utils.expectedDuration(textToDistribution.get(event2Text));
+          float event1ExpectedDuration = durationStore.getExpectedDuration(event1Text);
+          float event2ExpectedDuration = durationStore.getExpectedDuration(event2Text);
           String context = Utils.getTextBetweenAnnotations(goldView, arg1.getArgument(), arg2.getArgument());
           String out = String.format("%s|%.5f|%s|%.5f|%s\n", 
               event1Text, event1ExpectedDuration * 3650, 
@@ -107,14 +107,10 @@ public class EventTimeDurationStatistics {
     @Override                                                                                                                  
     public void process(JCas jCas) throws AnalysisEngineProcessException {                                                     
 
-      File durationLookup = new File(Utils.durationDistributionPath);                      
-      Map<String, Map<String, Float>> textToDistribution = null;                                                                 
-      try {                                                                                                                      
-        textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());                                    
-      } catch(IOException e) {                                                                                                   
-        e.printStackTrace();                                                                                                     
-        return;                                                                                                                  
-      }  
+      DurationDistributionStore durationStore = DurationDistributionStore.getInstance();
+      if(!durationStore.isLoaded()) {
+        return;
+      }
 
       JCas goldView;                                                                                                           
       try {                                                                                                                    
@@ -146,11 +142,10 @@ public class EventTimeDurationStatistics {
         }    
 
         HashSet<String> timeUnits = Utils.getTimeUnits(timeText);
-        if(textToDistribution.containsKey(eventText) && timeUnits.size() > 0) {
+        if(durationStore.contains(eventText) && timeUnits.size() > 0) {
           // there is duration information and we are able to get time units
-          Map<String, Float> eventDistribution = textToDistribution.get(eventText);
           Map<String, Float> timeDistribution = Utils.convertToDistribution(timeUnits.iterator().next());
-          float eventExpectedDuration = Utils.expectedDuration(eventDistribution);
+          float eventExpectedDuration = durationStore.getExpectedDuration(eventText);
           float timeExpectedDuration = Utils.expectedDuration(timeDistribution);
           String context = Utils.getTextBetweenAnnotations(goldView, arg1.getArgument(), arg2.getArgument());
           String out = String.format("%s|%.5f|%s|%.5f|%s\n", 
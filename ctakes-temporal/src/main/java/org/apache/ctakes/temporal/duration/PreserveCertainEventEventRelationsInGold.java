@@ -18,9 +18,6 @@
  */
 package org.apache.ctakes.temporal.duration;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.Map;
 
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -31,9 +28,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.util.JCasUtil;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
-import com.google.common.io.Files;
 
 /**
  * Preserve only those event-event relations whose both event arguments have duration data.
@@ -45,13 +40,10 @@ public class PreserveCertainEventEventRelationsInGold extends JCasAnnotator_Impl
   @Override                                                                                                                  
   public void process(JCas jCas) throws AnalysisEngineProcessException {                                                     
 
-    Map<String, Map<String, Float>> textToDistribution = null;                                                                 
-    try {                                                                                                                      
-      textToDistribution = Files.readLines(new File(Utils.durationDistributionPath), Charsets.UTF_8, new Utils.Callback());                                    
-    } catch(IOException e) {                                                                                                   
-      e.printStackTrace();                                                                                                     
-      return;                                                                                                                  
-    }  
+    DurationDistributionStore durationStore = DurationDistributionStore.getInstance();
+    if(!durationStore.isLoaded()) {
+      return;
+    }
 
     JCas goldView;                                                                                                           
     try {                                                                                                                    
@@ -75,7 +67,7 @@ public class PreserveCertainEventEventRelationsInGold extends JCasAnnotator_Impl
         continue;
       }
 
-      if(textToDistribution.containsKey(event1Text) && textToDistribution.containsKey(event2Text)) {
+      if(durationStore.contains(event1Text) && durationStore.contains(event2Text)) {
         // we have duration distributions for both arguments, so keep it
         continue;
       }
@@ -88,7 +80,7 @@ public class PreserveCertainEventEventRelationsInGold extends JCasAnnotator_Impl
     // remove events (that didn't participate in relations) that have no data
     for(EventMention mention : Lists.newArrayList(JCasUtil.select(goldView, EventMention.class))) {
       String mentionText = Utils.normalizeEventText(jCas, mention);
-      if(textToDistribution.containsKey(mentionText)) {
+      if(durationStore.contains(mentionText)) {
         // these are the kind we keep
         continue;
       } 
@@ -18,10 +18,7 @@
  */
 package org.apache.ctakes.temporal.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.HashSet;
-import java.util.Map;
 
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -33,9 +30,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.util.JCasUtil;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
-import com.google.common.io.Files;
 
 /**
  * Preserve only those event-time relations whose event argument has duration data
@@ -48,14 +43,10 @@ public class PreserveCertainEventTimeRelationsInGold extends JCasAnnotator_ImplB
   @Override                                                                                                                  
   public void process(JCas jCas) throws AnalysisEngineProcessException {                                                     
 
-    File durationLookup = new File(Utils.durationDistributionPath);                      
-    Map<String, Map<String, Float>> textToDistribution = null;                                                                 
-    try {                                                                                                                      
-      textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());                                    
-    } catch(IOException e) {                                                                                                   
-      e.printStackTrace();                                                                                                     
-      return;                                                                                                                  
-    }  
+    DurationDistributionStore durationStore = DurationDistributionStore.getInstance();
+    if(!durationStore.isLoaded()) {
+      return;
+    }
     
     JCas goldView;                                                                                                           
     try {                                                                                                                    
@@ -83,7 +74,7 @@ public class PreserveCertainEventTimeRelationsInGold extends JCasAnnotator_ImplB
       }    
 
       HashSet<String> timeUnits = Utils.getTimeUnits(timeText);
-      if(textToDistribution.containsKey(eventText) && timeUnits.size() > 0) {
+      if(durationStore.contains(eventText) && timeUnits.size() > 0) {
         // there is duration information and we are able to get time units, so keep this
         continue;
       }
@@ -96,7 +87,7 @@ public class PreserveCertainEventTimeRelationsInGold extends JCasAnnotator_ImplB
     // remove events (that didn't participate in relations) that have no data
     for(EventMention mention : Lists.newArrayList(JCasUtil.select(goldView, EventMention.class))) {
       String eventText = Utils.normalizeEventText(jCas, mention);
-      if(textToDistribution.containsKey(eventText)) {
+      if(durationStore.contains(eventText)) {
         // these are the kind we keep
         continue;
       } 
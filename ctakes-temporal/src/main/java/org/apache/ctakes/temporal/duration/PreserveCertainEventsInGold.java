@@ -18,9 +18,6 @@
  */
 package org.apache.ctakes.temporal.duration;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.Map;
 
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
@@ -29,9 +26,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.util.JCasUtil;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
-import com.google.common.io.Files;
 
 /**
  * Preserve only those events that have duration data.
@@ -43,14 +38,10 @@ public class PreserveCertainEventsInGold extends JCasAnnotator_ImplBase {
   @Override                                                                                                                  
   public void process(JCas jCas) throws AnalysisEngineProcessException {                                                     
 
-    File durationLookup = new File(Utils.durationDistributionPath);                      
-    Map<String, Map<String, Float>> textToDistribution = null;                                                                 
-    try {                                                                                                                      
-      textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());                                    
-    } catch(IOException e) {                                                                                                   
-      e.printStackTrace();                                                                                                     
-      return;                                                                                                                  
-    }  
+    DurationDistributionStore durationStore = DurationDistributionStore.getInstance();
+    if(!durationStore.isLoaded()) {
+      return;
+    }
     
     JCas goldView;                                                                                                           
     try {                                                                                                                    
@@ -60,7 +51,7 @@ public class PreserveCertainEventsInGold extends JCasAnnotator_ImplBase {
     }                                                                                                                                                                                                                                         
     
     for(EventMention mention : Lists.newArrayList(JCasUtil.select(goldView, EventMention.class))) {
-      if(textToDistribution.containsKey(mention.getCoveredText().toLowerCase())) {
+      if(durationStore.contains(mention.getCoveredText().toLowerCase())) {
         // these are the kind we keep
         continue;
       } 
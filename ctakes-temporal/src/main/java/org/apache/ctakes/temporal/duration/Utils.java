@@ -76,6 +76,23 @@ public class Utils {
   
   // eight bins over which we define a duration distribution
   public static final String[] bins = {"second", "minute", "hour", "day", "week", "month", "year", "decade"};
+
+  // duration of each bin in seconds
+  private static final int[] binSeconds = {
+      1, 60, 60 * 60, 60 * 60 * 24, 60 * 60 * 24 * 7, 60 * 60 * 24 * 30, 60 * 60 * 24 * 365, 60 * 60 * 24 * 365 * 10};
+
+  // bin indexes in the iteration order of a hash map of the bins
+  private static final int[] binMapOrder = new int[bins.length];
+  static {
+    Map<String, Integer> binIndexes = new HashMap<>();
+    for(int i = 0; i < bins.length; i++) {
+      binIndexes.put(bins[i], i);
+    }
+    int i = 0;
+    for(Integer binIndex : binIndexes.values()) {
+      binMapOrder[i++] = binIndex;
+    }
+  }
   
   /**
    * Extract time unit(s) from a temporal expression 
@@ -237,6 +254,32 @@ public class Utils {
     return expectation / timeUnitInSeconds.get("decade");
   }
   
+  /**
+   * Compute expected duration in seconds for a distribution in the order of the bins,
+   * skipping bins with no value (NaN). Normalize by number of seconds in a decade.
+   * Gives the same value as expectedDuration(Map) for the same distribution read by Callback.
+   */
+  public static float expectedDuration(float[] distribution) {
+
+    float expectation = 0f;
+    // sum in the order that a map read by Callback iterates over its bins
+    for(int bin : binMapOrder) {
+      if(!Float.isNaN(distribution[bin])) {
+        expectation = expectation + (binSeconds[bin] * distribution[bin]);
+      }
+    }
+
+    return expectation / binSeconds[bins.length - 1];
+  }
+
+  /**
+   * Indexes of the bins in the order that a hash map of the bins,
+   * such as a distribution read by Callback, iterates over them.
+   */
+  public static int[] getBinMapOrder() {
+    return binMapOrder.clone();
+  }
+
   /**
    * Take a time unit and return a probability distribution
    * in which p(this time unit) = 1 and all others are zero.
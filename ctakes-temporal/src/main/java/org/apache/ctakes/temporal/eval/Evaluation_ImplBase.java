@@ -32,6 +32,7 @@ import org.apache.ctakes.core.ae.TokenizerAnnotatorPTB;
 import org.apache.ctakes.core.patient.PatientNoteStore;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.core.util.TaskUtil;
 import org.apache.ctakes.dependency.parser.ae.ClearNLPDependencyParserAE;
 import org.apache.ctakes.dictionary.lookup2.ae.DefaultJCasTermAnnotator;
 import org.apache.ctakes.lvg.ae.LvgAnnotator;
@@ -103,6 +104,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -126,6 +128,19 @@ org.cleartk.eval.Evaluation_ImplBase<Integer, STATISTICS_TYPE> {
 	
 	public static final int MAX_DOC_VIEWS = 3;
 
+	/**
+	 * System property for the number of threads used to prepare xmis, default 1.
+	 */
+	public static final String THREADS_PROPERTY = "ctakes.temporal.eval.threads";
+
+	/**
+	 * Held while a thread creates its preprocessing aggregate.
+	 * Lvg changes user.dir while it loads.  LvgCmdApiResourceImpl holds its own CWD_LOCK for that,
+	 * but that lock does not stop other engines of an aggregate from resolving relative paths
+	 * against the changed directory, so aggregates are created one at a time.
+	 */
+	private static final Object AGGREGATE_LOCK = new Object();
+
 	public enum XMLFormat {Knowtator, Anafora, I2B2, AnaforaCoref}
 
 	public enum Subcorpus {Colon, Brain, DeepPhe}
@@ -246,6 +261,8 @@ org.cleartk.eval.Evaluation_ImplBase<Integer, STATISTICS_TYPE> {
 
 	protected String[] kernelParams;
 
+	protected int threadCount = Math.max( 1, Integer.getInteger( THREADS_PROPERTY, 1 ) );
+
 	public Evaluation_ImplBase(
 			File baseDirectory,
 			File rawTextDirectory,
@@ -284,6 +301,17 @@ org.cleartk.eval.Evaluation_ImplBase<Integer, STATISTICS_TYPE> {
 		i2b2Output = outDir;
 	}
 
+	/**
+	 * @param threadCount number of threads used to prepare xmis.
+	 *                    Every thread creates its own preprocessing engines.
+	 */
+	public void setThreadCount( int threadCount ) {
+		if ( threadCount < 1 ) {
+			throw new IllegalArgumentException( "Thread count must be at least 1, not " + threadCount );
+		}
+		this.threadCount = threadCount;
+	}
+
 	public void prepareXMIsFor( List<Integer> patientSets ) throws Exception {
 		boolean needsXMIs = false;
 		for ( File textFile : this.getFilesFor( patientSets ) ) {
@@ -293,13 +321,50 @@ org.cleartk.eval.Evaluation_ImplBase<Integer, STATISTICS_TYPE> {
 			}
 		}
 		if ( needsXMIs ) {
-			CollectionReader reader = this.getCollectionReader( patientSets );
-			AnalysisEngine engine = this.getXMIWritingPreprocessorAggregateBuilder().createAggregate();
-			SimplePipeline.runPipeline( reader, engine );
+			int threads = Math.min( this.threadCount, patientSets.size() );
+			if ( threads <= 1 ) {
+				CollectionReader reader = this.getCollectionReader( patientSets );
+				AnalysisEngine engine = this.getXMIWritingPreprocessorAggregateBuilder().createAggregate();
+				SimplePipeline.runPipeline( reader, engine );
+			} else {
+				prepareXMIsInParallel( patientSets, threads );
+			}
 		}
 		this.xmiExists = true;
 	}
 
+	/**
+	 * Writes the xmis of the patient sets in shards, one shard per thread.
+	 * Each shard holds whole patient sets so that all notes of a patient are processed by the same pipeline.
+	 * Each thread creates its own reader and preprocessing engines, one thread at a time, and then runs them.
+	 */
+	private void prepareXMIsInParallel( List<Integer> patientSets, int threads ) throws Exception {
+		List<Integer> sortedSets = new ArrayList<>( patientSets );
+		Collections.sort( sortedSets );
+		List<List<Integer>> shards = new ArrayList<>();
+		for ( int i = 0; i < threads; i++ ) {
+			shards.add( new ArrayList<>() );
+		}
+		for ( int i = 0; i < sortedSets.size(); i++ ) {
+			shards.get( i % threads ).add( sortedSets.get( i ) );
+		}
+		LOGGER.info( "Preparing xmis for " + sortedSets.size() + " patient sets with " + threads + " threads" );
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for ( final List<Integer> shard : shards ) {
+			tasks.add( () -> {
+				CollectionReader reader;
+				AnalysisEngine engine;
+				synchronized ( AGGREGATE_LOCK ) {
+					reader = this.getCollectionReader( shard );
+					engine = this.getXMIWritingPreprocessorAggregateBuilder().createAggregate();
+				}
+				SimplePipeline.runPipeline( reader, engine );
+				return null;
+			} );
+		}
+		TaskUtil.runAll( tasks, threads );
+	}
+
 	private List<File> getFilesFor( List<Integer> patientSets ) throws FileNotFoundException {
 		List<File> files = new ArrayList<>();
 		if ( this.xmlFormat == XMLFormat.Anafora ) {
@@ -52,6 +52,8 @@ public class KerasStringOutcomeClassifierBuilder extends ScriptStringOutcomeClas
     
     // grab the script dir from the manifest:
     this.scriptDir = new File(modelStream.getManifest().getMainAttributes().getValue(SCRIPT_DIR_PARAM));
+    // models packaged before batch classification existed have no attribute, and classify line by line
+    this.batchClassify = Boolean.parseBoolean(modelStream.getManifest().getMainAttributes().getValue(BATCH_CLASSIFY_PARAM));
     
     extractFileToDir(modelDir, modelStream, "outcome-lookup.txt");
 
@@ -74,7 +76,7 @@ public class KerasStringOutcomeClassifierBuilder extends ScriptStringOutcomeClas
   
   @Override
   protected KerasStringOutcomeClassifier newClassifier() {
-    return new KerasStringOutcomeClassifier(this.featuresEncoder, this.outcomeEncoder, this.modelDir, this.scriptDir);
+    return new KerasStringOutcomeClassifier(this.featuresEncoder, this.outcomeEncoder, this.modelDir, this.scriptDir, this.batchClassify);
   }
 
   private static String getArchFilename(int num){
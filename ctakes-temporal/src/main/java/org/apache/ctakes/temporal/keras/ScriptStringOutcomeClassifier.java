@@ -5,12 +5,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 import org.apache.uima.UIMAFramework;
 import org.apache.uima.util.Level;
 import org.apache.uima.util.Logger;
+import org.cleartk.ml.Classifier;
 import org.cleartk.ml.CleartkProcessingException;
 import org.cleartk.ml.Feature;
 import org.cleartk.ml.encoder.features.FeaturesEncoder;
@@ -21,6 +24,13 @@ import org.cleartk.ml.util.featurevector.FeatureVector;
 import com.google.common.annotations.Beta;
 
 /**
+ * Classifies instances with a script in the script directory.
+ * <p>
+ * By default a single process running classify.sh is sent one line per instance and answers with one line.
+ * If batch classification is turned on, instances are instead classified in batches by a
+ * {@link ScriptWorkerPool} of processes running the directory's classify-batch.* script, and
+ * {@link #classifyAll(List)} sends all of its instances as one request.
+ * </p>
  * <br>
  * Copyright (c) 2016, Regents of the University of Colorado <br>
  * All rights reserved.
@@ -36,6 +46,7 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
   PrintStream toClassifier = null;
   BufferedReader reader = null;
   BufferedReader errReader = null;
+  ScriptWorkerPool workerPool = null;
   Logger logger = UIMAFramework.getLogger(ScriptStringOutcomeClassifier.class);
 
   public ScriptStringOutcomeClassifier(
@@ -43,17 +54,49 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
       OutcomeEncoder<String, Integer> outcomeEncoder,
       File modelDir,
       File scriptDir) {
+    this(featuresEncoder, outcomeEncoder, modelDir, scriptDir, false);
+  }
+
+  /**
+   * @param batchClassify true to classify in batches with the classify-batch script of the script directory
+   */
+  public ScriptStringOutcomeClassifier(
+      FeaturesEncoder<FeatureVector> featuresEncoder,
+      OutcomeEncoder<String, Integer> outcomeEncoder,
+      File modelDir,
+      File scriptDir,
+      boolean batchClassify) {
     super(featuresEncoder, outcomeEncoder);
     this.modelDir = modelDir;
     
     File classifyScript = null;
+    File batchScript = null;
     for(File file : scriptDir.listFiles()){
       if(file.getName().startsWith("classify.sh")){
         if(classifyScript != null){
           throw new RuntimeException("There are multiple files named classify.*");
         }
         classifyScript = file;
+      } else if(file.getName().startsWith("classify-batch.")){
+        if(batchScript != null){
+          throw new RuntimeException("There are multiple files named classify-batch.*");
+        }
+        batchScript = file;
+      }
+    }
+    
+    if(batchClassify){
+      if(batchScript == null){
+        throw new RuntimeException("There are no files named classify-batch.*");
+      }
+      try {
+        this.workerPool = ScriptWorkerPool.getSharedPool(new String[]{
+            batchScript.getAbsolutePath(),
+            modelDir.getAbsolutePath()});
+      } catch (IOException e) {
+        throw new RuntimeException(e);
       }
+      return;
     }
     
     if(classifyScript == null){
@@ -82,19 +125,11 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     // and then read the standard output prediction, which will be in the string format expected by
     // the annotator.    
 
-    StringBuilder buf = new StringBuilder();
-    
-//    for (FeatureVector.Entry featureNode : this.featuresEncoder.encodeAll(features)) {
-//      buf.append(String.format(Locale.US, " %d:%.7f", featureNode.index, featureNode.value));  
-//    }
-    for (int i = 0; i < features.size(); i ++){
-    	buf.append(features.get(i).getValue());
-    	if( i < features.size()-1){
-    		buf.append(" ");
-    	}
+    if(this.workerPool != null){
+      return this.workerPool.classify(Collections.singletonList(toFeatureString(features))).get(0);
     }
 
-    this.toClassifier.println(buf);
+    this.toClassifier.println(toFeatureString(features));
     this.toClassifier.flush();
     
     String line = "";
@@ -113,10 +148,70 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     return line;
   }
 
+  /**
+   * Classifies all of the instances, as one request if the classifier classifies in batches.
+   * 
+   * @param instances features of each instance
+   * @return the predicted outcome of each instance, in the same order
+   */
+  public List<String> classifyAll(List<List<Feature>> instances)
+      throws CleartkProcessingException {
+    if(this.workerPool == null){
+      List<String> outcomes = new ArrayList<>(instances.size());
+      for(List<Feature> features : instances){
+        outcomes.add(classify(features));
+      }
+      return outcomes;
+    }
+    List<String> featureStrings = new ArrayList<>(instances.size());
+    for(List<Feature> features : instances){
+      featureStrings.add(toFeatureString(features));
+    }
+    return this.workerPool.classify(featureStrings);
+  }
+
+  /**
+   * Classifies all of the instances with a classifier, in batches if it is a script classifier.
+   * 
+   * @param classifier any string outcome classifier
+   * @param instances features of each instance
+   * @return the predicted outcome of each instance, in the same order
+   */
+  public static List<String> classifyAll(Classifier<String> classifier, List<List<Feature>> instances)
+      throws CleartkProcessingException {
+    if(classifier instanceof ScriptStringOutcomeClassifier){
+      return ((ScriptStringOutcomeClassifier) classifier).classifyAll(instances);
+    }
+    List<String> outcomes = new ArrayList<>(instances.size());
+    for(List<Feature> features : instances){
+      outcomes.add(classifier.classify(features));
+    }
+    return outcomes;
+  }
+
+  private static String toFeatureString(List<Feature> features) {
+    StringBuilder buf = new StringBuilder();
+    
+//    for (FeatureVector.Entry featureNode : this.featuresEncoder.encodeAll(features)) {
+//      buf.append(String.format(Locale.US, " %d:%.7f", featureNode.index, featureNode.value));  
+//    }
+    for (int i = 0; i < features.size(); i ++){
+    	buf.append(features.get(i).getValue());
+    	if( i < features.size()-1){
+    		buf.append(" ");
+    	}
+    }
+    return buf.toString();
+  }
+
   @Override
   protected void finalize() throws Throwable {
     super.finalize();
     
+    // batch worker processes are shared and closed when the jvm exits
+    if(this.classifierProcess == null){
+      return;
+    }
     this.toClassifier.print('\n');
     classifierProcess.waitFor();
   }
@@ -18,16 +18,26 @@ import org.cleartk.ml.util.featurevector.FeatureVector;
 
 public abstract class ScriptStringOutcomeClassifierBuilder<T extends ScriptStringOutcomeClassifier> extends ClassifierBuilder_ImplBase<T, FeatureVector, String, Integer> {
   public static final Attributes.Name SCRIPT_DIR_PARAM = new Attributes.Name("ScriptDirectory");
+  public static final Attributes.Name BATCH_CLASSIFY_PARAM = new Attributes.Name("BatchClassify");
   protected static final Logger logger = UIMAFramework.getLogger(ScriptStringOutcomeClassifierBuilder.class);
   
   protected File modelDir = null;
   protected File scriptDir = null;
+  protected boolean batchClassify = false;
   
   public void setScriptDirectory(String scriptDir){
     Attributes atts = this.manifest.getMainAttributes();
     atts.put(SCRIPT_DIR_PARAM, scriptDir); 
   }
   
+  /**
+   * @param batchClassify true if the packaged classifier should classify in batches with the classify-batch script
+   */
+  public void setBatchClassify(boolean batchClassify){
+    Attributes atts = this.manifest.getMainAttributes();
+    atts.put(BATCH_CLASSIFY_PARAM, Boolean.toString(batchClassify));
+  }
+  
   @Override
   public File getTrainingDataFile(File dir) {
     return new File(dir, "training-data.liblinear");
@@ -23,6 +23,14 @@ public abstract class ScriptStringOutcomeDataWriter<T extends ScriptStringOutcom
   public static final String PARAM_SCRIPT_DIR = "DataWriterScriptDirectory";
   @ConfigurationParameter(name=PARAM_SCRIPT_DIR)
   public String dir;
+
+  public static final String PARAM_BATCH_CLASSIFY = "DataWriterBatchClassify";
+  @ConfigurationParameter(
+      name=PARAM_BATCH_CLASSIFY,
+      mandatory=false,
+      description="Classify in batches with the classify-batch script of the script directory.",
+      defaultValue="false")
+  public boolean batchClassify = false;
   
   public ScriptStringOutcomeDataWriter(File outputDirectory)
       throws FileNotFoundException {
@@ -50,5 +58,8 @@ public abstract class ScriptStringOutcomeDataWriter<T extends ScriptStringOutcom
       throws ResourceInitializationException {
     this.dir = (String) context.getConfigParameterValue(PARAM_SCRIPT_DIR);
     this.classifierBuilder.setScriptDirectory(this.dir);
+    Object batch = context.getConfigParameterValue(PARAM_BATCH_CLASSIFY);
+    this.batchClassify = batch != null && Boolean.parseBoolean(batch.toString());
+    this.classifierBuilder.setBatchClassify(this.batchClassify);
   }
 }
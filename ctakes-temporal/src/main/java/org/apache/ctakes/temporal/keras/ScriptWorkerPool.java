@@ -0,0 +1,270 @@
+package org.apache.ctakes.temporal.keras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.util.Level;
+import org.apache.uima.util.Logger;
+import org.cleartk.ml.CleartkProcessingException;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A set of classifier processes that each classify a batch of instances per request.
+ * <p>
+ * Each process is started with the same command and reads request frames from its standard input and writes
+ * one response frame to its standard output for each request.  A frame is a big-endian int count followed by
+ * count strings, each a big-endian int byte length followed by that many UTF-8 bytes.  A request holds the
+ * space separated feature values of each instance, as written by {@link ScriptStringOutcomeClassifier}, and
+ * the response holds the predicted outcome of each instance in the same order.  A process should exit when its
+ * standard input is closed.  scripts/keras/batch_io.py serves this protocol for a Python predict function.
+ * </p>
+ * A batch is sent to whichever process is idle, so concurrent pipeline threads are served by different processes.
+ * The number of processes is set with the system property {@value #WORKERS_PROPERTY}, default 1.
+ */
+@Beta
+public class ScriptWorkerPool implements Closeable {
+
+  public static final String WORKERS_PROPERTY = "ctakes.temporal.keras.workers";
+
+  private static final Logger logger = UIMAFramework.getLogger(ScriptWorkerPool.class);
+
+  private static final Map<List<String>, ScriptWorkerPool> sharedPools = new HashMap<>();
+
+  private final String[] command;
+  private final BlockingQueue<Worker> idleWorkers;
+  // every running process, idle or classifying
+  private final Set<Worker> workers;
+  private volatile boolean closed;
+
+  /**
+   * @param command command and arguments that start one classifier process
+   * @return a pool of processes started with the command, shared by all classifiers that use the same command
+   * @throws IOException if a process cannot be started
+   */
+  public static ScriptWorkerPool getSharedPool(String[] command) throws IOException {
+    synchronized(sharedPools) {
+      List<String> key = Arrays.asList(command.clone());
+      ScriptWorkerPool pool = sharedPools.get(key);
+      if(pool == null) {
+        pool = new ScriptWorkerPool(command, Integer.getInteger(WORKERS_PROPERTY, 1));
+        sharedPools.put(key, pool);
+        if(sharedPools.size() == 1) {
+          Runtime.getRuntime().addShutdownHook(new Thread(ScriptWorkerPool::closeSharedPools));
+        }
+      }
+      return pool;
+    }
+  }
+
+  private static void closeSharedPools() {
+    synchronized(sharedPools) {
+      for(ScriptWorkerPool pool : sharedPools.values()) {
+        pool.close();
+      }
+      sharedPools.clear();
+    }
+  }
+
+  /**
+   * @param command command and arguments that start one classifier process
+   * @param size    number of processes
+   * @throws IOException if a process cannot be started
+   */
+  public ScriptWorkerPool(String[] command, int size) throws IOException {
+    if(size < 1) {
+      throw new IllegalArgumentException("A worker pool needs at least one process, not " + size);
+    }
+    this.command = command.clone();
+    this.idleWorkers = new LinkedBlockingQueue<>();
+    this.workers = ConcurrentHashMap.newKeySet();
+    try {
+      for(int i = 0; i < size; i++) {
+        startWorker();
+      }
+    } catch(IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Sends the instances to an idle process as one request and waits for its response.
+   *
+   * @param instances feature strings of the instances
+   * @return predicted outcome of each instance, in the same order
+   * @throws CleartkProcessingException if no process could classify the instances
+   */
+  public List<String> classify(List<String> instances) throws CleartkProcessingException {
+    if(instances.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Worker worker = takeWorker();
+    List<String> outcomes;
+    try {
+      outcomes = worker.classify(instances);
+    } catch(IOException e) {
+      destroyWorker(worker);
+      replaceWorker();
+      throw new CleartkProcessingException(e);
+    }
+    if(closed) {
+      destroyWorker(worker);
+    } else {
+      idleWorkers.add(worker);
+    }
+    if(outcomes.size() != instances.size()) {
+      throw new CleartkProcessingException(new IOException(
+          "Classifier returned " + outcomes.size() + " outcomes for " + instances.size() + " instances"));
+    }
+    return outcomes;
+  }
+
+  /**
+   * Closes the standard input of every idle process and waits for it to exit,
+   * then destroys the processes that are still classifying a batch.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    Worker worker;
+    while((worker = idleWorkers.poll()) != null) {
+      worker.close();
+      workers.remove(worker);
+    }
+    for(Worker busyWorker : workers) {
+      destroyWorker(busyWorker);
+    }
+  }
+
+  private Worker takeWorker() throws CleartkProcessingException {
+    try {
+      while(true) {
+        Worker worker = idleWorkers.poll(1, TimeUnit.SECONDS);
+        if(worker != null) {
+          return worker;
+        }
+        if(closed || workers.isEmpty()) {
+          throw new CleartkProcessingException(new IOException(
+              "No classifier process is running for " + Arrays.toString(command)));
+        }
+      }
+    } catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CleartkProcessingException(e);
+    }
+  }
+
+  private void startWorker() throws IOException {
+    Worker worker = new Worker(command);
+    workers.add(worker);
+    idleWorkers.add(worker);
+  }
+
+  private void destroyWorker(Worker worker) {
+    worker.destroy();
+    workers.remove(worker);
+  }
+
+  private void replaceWorker() {
+    if(closed) {
+      return;
+    }
+    try {
+      startWorker();
+    } catch(IOException e) {
+      logger.log(Level.SEVERE, "Could not restart classifier process: " + e.getMessage());
+    }
+  }
+
+  static void writeFrame(DataOutputStream out, List<String> strings) throws IOException {
+    out.writeInt(strings.size());
+    for(String string : strings) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+    out.flush();
+  }
+
+  static List<String> readFrame(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    List<String> strings = new ArrayList<>(count);
+    for(int i = 0; i < count; i++) {
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      strings.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+    return strings;
+  }
+
+  /**
+   * One classifier process.
+   */
+  private static class Worker {
+    private final Process process;
+    private final DataOutputStream toWorker;
+    private final DataInputStream fromWorker;
+
+    private Worker(String[] command) throws IOException {
+      process = new ProcessBuilder(command).start();
+      toWorker = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+      fromWorker = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+      // a full error pipe would block the process, so log it as it is written
+      Thread errThread = new Thread(() -> logErrors(process), "ScriptWorker stderr " + command[0]);
+      errThread.setDaemon(true);
+      errThread.start();
+    }
+
+    private List<String> classify(List<String> instances) throws IOException {
+      writeFrame(toWorker, instances);
+      return readFrame(fromWorker);
+    }
+
+    private void close() {
+      try {
+        toWorker.close();
+        process.waitFor();
+      } catch(IOException e) {
+        process.destroy();
+      } catch(InterruptedException e) {
+        process.destroy();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void destroy() {
+      process.destroy();
+    }
+
+    private static void logErrors(Process process) {
+      try(BufferedReader errReader = new BufferedReader(
+          new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while((line = errReader.readLine()) != null) {
+          logger.log(Level.INFO, line);
+        }
+      } catch(IOException e) {
+        // the process has exited
+      }
+    }
+  }
+}
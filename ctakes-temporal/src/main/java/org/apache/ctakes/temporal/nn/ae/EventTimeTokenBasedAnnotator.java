@@ -17,6 +17,7 @@ import java.util.Map.Entry;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.temporal.ae.TemporalRelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.ctakes.temporal.keras.ScriptStringOutcomeClassifier;
 import org.apache.ctakes.temporal.nn.data.ArgContextProvider;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -136,6 +137,10 @@ public class EventTimeTokenBasedAnnotator extends CleartkAnnotator<String> {
 			}
 		}
 
+		// during classification, the instances of the document are classified together
+		List<IdentifiedAnnotationPair> classifyPairs = new ArrayList<>();
+		List<List<Feature>> classifyFeatures = new ArrayList<>();
+
 		// go over sentences, extracting event-time relation instances
 		for(Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
 			// collect all relevant relation arguments from the sentence
@@ -182,35 +187,44 @@ public class EventTimeTokenBasedAnnotator extends CleartkAnnotator<String> {
 					this.dataWriter.write(new Instance<>(category, features));
 				}
 
-				// during classification feed the features to the classifier and create annotations
+				// during classification keep the features to classify with the rest of the document
 				else {
-					String predictedCategory = this.classifier.classify(features);
-
-					// add a relation annotation if a true relation was predicted
-					if(predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
-
-						// if we predict an inverted relation, reverse the order of the arguments
-						if(predictedCategory.endsWith("-1")) {
-							predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
-							if(arg1 instanceof TimeMention){
-								IdentifiedAnnotation temp = arg1;
-								arg1 = arg2;
-								arg2 = temp;
-							}
-						} else {
-							if(arg1 instanceof EventMention){
-								IdentifiedAnnotation temp = arg1;
-								arg1 = arg2;
-								arg2 = temp;
-							}
-						}
-
-						createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
-					}
+					classifyPairs.add(pair);
+					classifyFeatures.add(features);
 				}
 			}
 
 		}
+
+		// feed the features to the classifier and create annotations
+		List<String> predictedCategories = ScriptStringOutcomeClassifier.classifyAll(this.classifier, classifyFeatures);
+		for(int i = 0; i < classifyPairs.size(); i++) {
+			IdentifiedAnnotation arg1 = classifyPairs.get(i).getArg1();
+			IdentifiedAnnotation arg2 = classifyPairs.get(i).getArg2();
+			String predictedCategory = predictedCategories.get(i);
+
+			// add a relation annotation if a true relation was predicted
+			if(predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
+
+				// if we predict an inverted relation, reverse the order of the arguments
+				if(predictedCategory.endsWith("-1")) {
+					predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
+					if(arg1 instanceof TimeMention){
+						IdentifiedAnnotation temp = arg1;
+						arg1 = arg2;
+						arg2 = temp;
+					}
+				} else {
+					if(arg1 instanceof EventMention){
+						IdentifiedAnnotation temp = arg1;
+						arg1 = arg2;
+						arg2 = temp;
+					}
+				}
+
+				createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
+			}
+		}
 		if(timexMode== OutputMode.IndexTags && !this.isTraining()){//in test time update the hashmap file for each cas
 			try {
 				TimexIdxWriter();
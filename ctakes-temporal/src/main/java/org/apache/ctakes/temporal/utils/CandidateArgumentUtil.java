@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ctakes.relationextractor.ae.features.RelationFeatureCache;
+import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.typesystem.type.textsem.TimeMention;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Candidate arguments of the temporal relation annotators, which pair the events and times of a sentence.
+ * The arguments of a sentence are selected once per document in the {@link RelationFeatureCache},
+ * for every annotator in a pipeline.
+ * Cached lists are keyed by the number of event and time mentions in the cas,
+ * so mentions added by an annotator later in the pipeline are seen.
+ */
+public class CandidateArgumentUtil {
+
+  private static final String EVENTS_KEY = CandidateArgumentUtil.class.getName() + ".events";
+  private static final String TIMES_KEY = CandidateArgumentUtil.class.getName() + ".times";
+
+  private CandidateArgumentUtil() {
+  }
+
+  /**
+   * @return event mentions covered by the sentence, without subclasses such as Procedure and Disease/Disorder.
+   *         The list must not be modified.
+   */
+  public static List<EventMention> getEvents(JCas jCas, Annotation sentence) {
+    return RelationFeatureCache.getInstance().getValue(jCas, sentence, EVENTS_KEY + getMentionCounts(jCas),
+        () -> {
+          List<EventMention> events = new ArrayList<>();
+          for (EventMention event : JCasUtil.selectCovered(jCas, EventMention.class, sentence)) {
+            if (event.getClass().equals(EventMention.class)) {
+              events.add(event);
+            }
+          }
+          return Collections.unmodifiableList(events);
+        });
+  }
+
+  /**
+   * @return time mentions covered by the sentence.  The list must not be modified.
+   */
+  public static List<TimeMention> getTimes(JCas jCas, Annotation sentence) {
+    return RelationFeatureCache.getInstance().getValue(jCas, sentence, TIMES_KEY + getMentionCounts(jCas),
+        () -> Collections.unmodifiableList(JCasUtil.selectCovered(jCas, TimeMention.class, sentence)));
+  }
+
+  private static String getMentionCounts(JCas jCas) {
+    return ":" + jCas.getAnnotationIndex(EventMention.type).size()
+        + ":" + jCas.getAnnotationIndex(TimeMention.type).size();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.duration;
+
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+final public class DurationDistributionStoreTest {
+
+   static private final String[] LINES = {
+         "pain, second:0.000, minute:0.005, hour:0.099, day:0.475, week:0.214, month:0.121, year:0.071, decade:0.015",
+         "surgery, second:0.001, minute:0.012, hour:0.512, day:0.310, week:0.098, month:0.041, year:0.019, decade:0.007",
+         "diabetes, month:0.113, year:0.402, decade:0.485",
+         "cough, hour:0.25, day:0.5, week:0.25",
+         "blood pressure, second:0.9, decade:0.1" };
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   private File writeText() throws IOException {
+      final File file = _folder.newFile( "distributions.txt" );
+      java.nio.file.Files.write( file.toPath(), Arrays.asList( LINES ), StandardCharsets.UTF_8 );
+      return file;
+   }
+
+   @Test
+   public void testLookupsMatchCallbackMap() throws IOException {
+      final File textFile = writeText();
+      final Map<String, Map<String, Float>> map = Files.readLines( textFile, StandardCharsets.UTF_8, new Utils.Callback() );
+      final DurationDistributionStore store = DurationDistributionStore.load( textFile );
+      assertTrue( store.isLoaded() );
+      assertEquals( map.size(), store.size() );
+      for ( Map.Entry<String, Map<String, Float>> entry : map.entrySet() ) {
+         final String eventText = entry.getKey();
+         assertTrue( store.contains( eventText ) );
+         final float[] distribution = store.getDistribution( eventText );
+         for ( int bin = 0; bin < Utils.bins.length; bin++ ) {
+            final Float expected = entry.getValue().get( Utils.bins[ bin ] );
+            if ( expected == null ) {
+               assertTrue( eventText + " " + Utils.bins[ bin ], Float.isNaN( distribution[ bin ] ) );
+            } else {
+               assertEquals( eventText + " " + Utils.bins[ bin ], expected, distribution[ bin ], 0f );
+            }
+         }
+         assertEquals( eventText, Utils.expectedDuration( entry.getValue() ), store.getExpectedDuration( eventText ), 0f );
+      }
+      assertFalse( store.contains( "headache" ) );
+      assertNull( store.getDistribution( "headache" ) );
+      assertTrue( Float.isNaN( store.getExpectedDuration( "headache" ) ) );
+   }
+
+   @Test
+   public void testDistributionIsCopied() throws IOException {
+      final DurationDistributionStore store = DurationDistributionStore.load( writeText() );
+      store.getDistribution( "pain" )[ 0 ] = 1f;
+      assertEquals( 0f, store.getDistribution( "pain" )[ 0 ], 0f );
+   }
+
+   @Test
+   public void testSnapshotRoundTrip() throws IOException {
+      final DurationDistributionStore text = DurationDistributionStore.load( writeText() );
+      final File snapshotFile = _folder.newFile( "distributions.dur" );
+      text.writeSnapshot( snapshotFile );
+      try ( DataInputStream input = new DataInputStream( new FileInputStream( snapshotFile ) ) ) {
+         final byte[] magic = new byte[ 4 ];
+         input.readFully( magic );
+         assertEquals( "DUR1", new String( magic, StandardCharsets.US_ASCII ) );
+      }
+      final DurationDistributionStore snapshot = DurationDistributionStore.load( snapshotFile );
+      assertTrue( snapshot.isLoaded() );
+      assertEquals( text.size(), snapshot.size() );
+      for ( String line : LINES ) {
+         final String eventText = line.split( ", " )[ 0 ];
+         // Arrays.equals compares NaN bins as equal
+         assertTrue( eventText, Arrays.equals( text.getDistribution( eventText ), snapshot.getDistribution( eventText ) ) );
+         assertEquals( text.getExpectedDuration( eventText ), snapshot.getExpectedDuration( eventText ), 0f );
+      }
+   }
+
+   @Test( expected = IOException.class )
+   public void testSnapshotWithOtherBinsIsRejected() throws IOException {
+      final File snapshotFile = _folder.newFile( "other.dur" );
+      try ( DataOutputStream output = new DataOutputStream( new FileOutputStream( snapshotFile ) ) ) {
+         output.writeBytes( "DUR1" );
+         output.writeInt( Utils.bins.length - 1 );
+         output.writeInt( 0 );
+      }
+      DurationDistributionStore.load( snapshotFile );
+   }
+
+}
@@ -0,0 +1,85 @@
+package org.apache.ctakes.temporal.keras;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.cleartk.ml.Feature;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class ScriptStringOutcomeClassifierTest {
+
+  private static final String[] OUTCOMES = { "none", "contains", "contains-1" };
+
+  private static final List<Feature> FEATURES = Arrays.asList(new Feature("w0", "<e>"), new Feature("w1", "pain"),
+      new Feature("w2", "</e>"));
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  // answers each line with a fixed outcome, after the line about its backend that the classifier skips
+  private void writeLineScript(File scriptDir) throws IOException {
+    writeScript(new File(scriptDir, "classify.sh"), "echo backend >&2\n"
+        + "while read line; do\n  if [ -z \"$line\" ]; then break; fi\n  echo line-outcome\ndone\n");
+  }
+
+  private void writeBatchScript(File scriptDir) throws IOException {
+    String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath();
+    writeScript(new File(scriptDir, "classify-batch.sh"), "exec '" + java + "' -cp '"
+        + System.getProperty("java.class.path") + "' " + StubScriptWorker.class.getName() + " "
+        + String.join(" ", OUTCOMES) + "\n");
+  }
+
+  private static void writeScript(File script, String body) throws IOException {
+    Files.write("#!/bin/bash\n" + body, script, StandardCharsets.UTF_8);
+    script.setExecutable(true);
+  }
+
+  @Test
+  public void testLineModeIsTheDefault() throws Exception {
+    File scriptDir = folder.newFolder("scripts");
+    writeLineScript(scriptDir);
+    writeBatchScript(scriptDir);
+    KerasStringOutcomeClassifier classifier = new KerasStringOutcomeClassifier(null, null, folder.newFolder("model"),
+        scriptDir);
+    assertEquals("line-outcome", classifier.classify(FEATURES));
+    assertEquals(Arrays.asList("line-outcome", "line-outcome"),
+        classifier.classifyAll(Arrays.asList(FEATURES, FEATURES)));
+  }
+
+  @Test
+  public void testBatchModeIsOptIn() throws Exception {
+    File scriptDir = folder.newFolder("scripts");
+    writeLineScript(scriptDir);
+    writeBatchScript(scriptDir);
+    KerasStringOutcomeClassifier classifier = new KerasStringOutcomeClassifier(null, null, folder.newFolder("model"),
+        scriptDir, true);
+    String outcome = StubScriptWorker.predict(OUTCOMES, "<e> pain </e>");
+    assertEquals(outcome, classifier.classify(FEATURES));
+    assertEquals(Arrays.asList(outcome, outcome), classifier.classifyAll(Arrays.asList(FEATURES, FEATURES)));
+  }
+
+  @Test
+  public void testBatchModeNeedsBatchScript() throws Exception {
+    File scriptDir = folder.newFolder("scripts");
+    writeLineScript(scriptDir);
+    try {
+      new KerasStringOutcomeClassifier(null, null, folder.newFolder("model"), scriptDir, true);
+      fail("Batch classification without a classify-batch script should fail");
+    } catch(RuntimeException e) {
+      // expected
+    }
+    assertEquals(Collections.singletonList("line-outcome"), new KerasStringOutcomeClassifier(null, null,
+        folder.newFolder("other"), scriptDir).classifyAll(Collections.singletonList(FEATURES)));
+  }
+}
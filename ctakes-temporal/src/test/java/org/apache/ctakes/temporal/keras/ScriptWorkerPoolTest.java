@@ -0,0 +1,155 @@
+package org.apache.ctakes.temporal.keras;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.cleartk.ml.CleartkProcessingException;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ScriptWorkerPoolTest {
+
+  private static final String[] OUTCOMES = { "none", "contains", "contains-1" };
+
+  private static String[] stubCommand() {
+    List<String> command = new ArrayList<>();
+    command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath());
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(StubScriptWorker.class.getName());
+    command.addAll(Arrays.asList(OUTCOMES));
+    return command.toArray(new String[command.size()]);
+  }
+
+  // serves the frames with the batch_io module of the keras scripts, predicting the length and first word
+  private static String[] batchIoCommand() {
+    String script = "import sys; sys.path.insert(0, sys.argv[1]); import batch_io; "
+        + "batch_io.serve(lambda lines: [u'%d %s' % (len(line), line.split(u' ')[0]) for line in lines])";
+    return new String[] { "python3", "-c", script, new File("scripts/keras").getAbsolutePath() };
+  }
+
+  private static boolean hasPython() {
+    try {
+      return new ProcessBuilder("python3", "--version").start().waitFor() == 0;
+    } catch(Exception e) {
+      return false;
+    }
+  }
+
+  private static List<String> instances(int batch, int size) {
+    List<String> instances = new ArrayList<>();
+    for(int i = 0; i < size; i++) {
+      instances.add("<e> pain </e> ü batch" + batch + " instance" + i + " <t> timex_" + (i % 7) + " </t>");
+    }
+    return instances;
+  }
+
+  @Test
+  public void testBatchOrder() throws Exception {
+    try(ScriptWorkerPool pool = new ScriptWorkerPool(stubCommand(), 1)) {
+      assertTrue(pool.classify(new ArrayList<String>()).isEmpty());
+      for(int size : new int[] { 1, 10, 1000 }) {
+        List<String> instances = instances(0, size);
+        List<String> outcomes = pool.classify(instances);
+        assertEquals(size, outcomes.size());
+        for(int i = 0; i < size; i++) {
+          assertEquals(StubScriptWorker.predict(OUTCOMES, instances.get(i)), outcomes.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentBatches() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try(ScriptWorkerPool pool = new ScriptWorkerPool(stubCommand(), 2)) {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for(int batch = 0; batch < 20; batch++) {
+        final List<String> instances = instances(batch, 50 + batch);
+        results.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() throws Exception {
+            List<String> outcomes = pool.classify(instances);
+            for(int i = 0; i < instances.size(); i++) {
+              if(!StubScriptWorker.predict(OUTCOMES, instances.get(i)).equals(outcomes.get(i))) {
+                return false;
+              }
+            }
+            return outcomes.size() == instances.size();
+          }
+        }));
+      }
+      for(Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testBatchIoFraming() throws Exception {
+    Assume.assumeTrue("python3 is not available", hasPython());
+    try(ScriptWorkerPool pool = new ScriptWorkerPool(batchIoCommand(), 1)) {
+      for(int size : new int[] { 1, 10, 1000 }) {
+        List<String> instances = instances(size, size);
+        instances.set(0, "");
+        List<String> outcomes = pool.classify(instances);
+        assertEquals(size, outcomes.size());
+        for(int i = 0; i < size; i++) {
+          String instance = instances.get(i);
+          assertEquals(instance.length() + " " + instance.split(" ")[0], outcomes.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCloseDestroysBusyWorkers() throws Exception {
+    // reads requests but never answers
+    ScriptWorkerPool pool = new ScriptWorkerPool(new String[] { "sh", "-c", "cat > /dev/null" }, 2);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<List<String>>> results = new ArrayList<>();
+      for(int batch = 0; batch < 2; batch++) {
+        final List<String> instances = instances(batch, 10);
+        results.add(executor.submit(new Callable<List<String>>() {
+          @Override
+          public List<String> call() throws Exception {
+            return pool.classify(instances);
+          }
+        }));
+      }
+      Thread.sleep(500);
+      pool.close();
+      for(Future<List<String>> result : results) {
+        try {
+          result.get(10, TimeUnit.SECONDS);
+          fail("A destroyed process should not answer");
+        } catch(ExecutionException e) {
+          assertTrue(e.getCause() instanceof CleartkProcessingException);
+        }
+      }
+      try {
+        pool.classify(instances(2, 1));
+        fail("A closed pool should not classify");
+      } catch(CleartkProcessingException e) {
+        // expected
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
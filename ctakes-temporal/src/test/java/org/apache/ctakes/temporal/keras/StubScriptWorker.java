@@ -0,0 +1,54 @@
+package org.apache.ctakes.temporal.keras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A classifier process for {@link ScriptWorkerPool} that needs no model, for testing the pool without Python.
+ * <p>
+ * The arguments are the outcomes.  Each instance is given the outcome chosen by the hash code of its feature
+ * string, so the same instance always gets the same outcome.
+ * </p>
+ */
+public class StubScriptWorker {
+
+  private StubScriptWorker() {
+  }
+
+  /**
+   * @param outcomes possible outcomes
+   * @param instance feature string of an instance
+   * @return the outcome that the stub worker predicts for the instance
+   */
+  public static String predict(String[] outcomes, String instance) {
+    return outcomes[Math.floorMod(instance.hashCode(), outcomes.length)];
+  }
+
+  public static void main(String[] args) throws IOException {
+    if(args.length == 0) {
+      System.err.println("Usage: StubScriptWorker <outcome> [<outcome> ...]");
+      System.exit(-1);
+    }
+    DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+    while(true) {
+      List<String> instances;
+      try {
+        instances = ScriptWorkerPool.readFrame(in);
+      } catch(EOFException e) {
+        break;
+      }
+      List<String> predictions = new ArrayList<>(instances.size());
+      for(String instance : instances) {
+        predictions.add(predict(args, instance));
+      }
+      ScriptWorkerPool.writeFrame(out, predictions);
+    }
+  }
+}
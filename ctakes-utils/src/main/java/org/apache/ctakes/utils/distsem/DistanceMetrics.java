@@ -1,5 +1,6 @@
 package org.apache.ctakes.utils.distsem;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
@@ -10,6 +11,11 @@ public class DistanceMetrics {
   public static void main(String[] args) throws IOException{
     System.out.println("Reading embeddings...");
     WordEmbeddings words = WordVectorReader.getEmbeddings(args[0]);
+    if(args.length > 1){
+      // optional approximate index for neighbors, see HnswIndex
+      System.out.println("Reading index...");
+      words.setSimilarWordIndex(HnswIndex.load(new File(args[1]), words));
+    }
     
     String prompt = "Enter a single word to get neighbors, or two comma separated words for similarity score (or <ctrl>+d to exit):";
     Scanner scanner = new Scanner(System.in);
@@ -0,0 +1,866 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Approximate nearest neighbour index of word vectors by cosine similarity,
+ * a hierarchical navigable small world graph (Malkov and Yashunin, 2016).
+ * <p>
+ * A query walks the graph from the top layer down and visits a few thousand words
+ * instead of comparing the word with every word in the vocabulary as
+ * {@link WordEmbeddings#getSimilarWords(String, int)} does.
+ * Results are approximate; {@link HnswIndexEvaluation} measures their recall against an exact search.
+ * </p>
+ * <p>
+ * The index holds only the graph.  Vectors are read from the {@link WordEmbeddings} that it was built for,
+ * which may be a {@link MappedEmbeddings} store, and a saved index can only be loaded for the same vocabulary.
+ * Once built or loaded the index does not change, and queries may run from several threads.
+ * </p>
+ * Usage: HnswIndex vectorFile [indexFile [m [efConstruction [threads]]]]
+ * The index is written next to the vector file with the extension {@link #FILE_EXTENSION} when no index file is given.
+ */
+public class HnswIndex {
+
+  public static final int DEFAULT_M = 16;
+  public static final int DEFAULT_EF_CONSTRUCTION = 200;
+  public static final int DEFAULT_EF_SEARCH = 100;
+  public static final String FILE_EXTENSION = ".hnsw";
+
+  static final int MAGIC = 0x57534e48;
+  static final int VERSION = 1;
+
+  private final Vectors vectors;
+  private final long fingerprint;
+  private final int size;
+  private final int m;
+  private final int maxLinks0;
+  private final byte[] levels;
+  // links of layer 0, maxLinks0 per word
+  private final int[] links0;
+  private final int[] linkCounts0;
+  // links of layers above 0, per word a count and m links for each layer
+  private final int[][] upperLinks;
+  private volatile int entryPoint = -1;
+  private volatile int maxLevel = -1;
+  private volatile int efSearch = DEFAULT_EF_SEARCH;
+
+  // only set while the graph is built
+  private volatile Object[] locks;
+
+  private final ThreadLocal<Visited> visited;
+
+  private HnswIndex(Vectors vectors, int m, byte[] levels) {
+    this.vectors = vectors;
+    this.fingerprint = vectors.getFingerprint();
+    this.size = vectors.size();
+    this.m = m;
+    this.maxLinks0 = 2 * m;
+    this.levels = levels;
+    this.links0 = new int[size * maxLinks0];
+    this.linkCounts0 = new int[size];
+    this.upperLinks = new int[size][];
+    for(int node = 0; node < size; node++){
+      if(levels[node] > 0){
+        upperLinks[node] = new int[levels[node] * (m + 1)];
+      }
+    }
+    this.visited = ThreadLocal.withInitial(() -> new Visited(size));
+  }
+
+  public static void main(String[] args) throws Exception {
+    if(args.length < 1 || args.length > 5){
+      System.err.println("Usage: HnswIndex <vectors> [<index file> [<m> [<ef construction> [<threads>]]]]");
+      System.exit(1);
+    }
+    File vectorFile = new File(args[0]);
+    File indexFile = args.length > 1 ? new File(args[1]) : new File(vectorFile.getPath() + FILE_EXTENSION);
+    int m = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_M;
+    int efConstruction = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_EF_CONSTRUCTION;
+    int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+    WordEmbeddings embeddings = WordVectorReader.getEmbeddings(vectorFile);
+    long start = System.currentTimeMillis();
+    HnswIndex index = build(embeddings, m, efConstruction, threads, 42L);
+    index.save(indexFile);
+    System.out.println("Indexed " + index.size() + " words in " + (System.currentTimeMillis() - start) / 1000
+        + " seconds to " + indexFile);
+  }
+
+  /**
+   * Builds an index with the default parameters on all processors.
+   */
+  public static HnswIndex build(WordEmbeddings embeddings) throws IOException {
+    return build(embeddings, DEFAULT_M, DEFAULT_EF_CONSTRUCTION, Runtime.getRuntime().availableProcessors(), 42L);
+  }
+
+  /**
+   * @param embeddings     word vectors to index
+   * @param m              number of links per word in the upper layers, twice as many in the bottom layer
+   * @param efConstruction number of candidates considered for the links of a word, more is slower and more accurate
+   * @param threads        number of threads that insert words
+   * @param seed           seed for the random layers of the words
+   * @return an index of all the words
+   * @throws IOException if the words could not be indexed
+   */
+  public static HnswIndex build(WordEmbeddings embeddings, int m, int efConstruction, int threads, long seed)
+      throws IOException {
+    if(m < 2 || efConstruction < 1 || threads < 1){
+      throw new IllegalArgumentException("m must be at least 2, efConstruction and threads at least 1");
+    }
+    Vectors vectors = Vectors.of(embeddings);
+    Random random = new Random(seed);
+    double levelMultiplier = 1.0 / Math.log(m);
+    byte[] levels = new byte[vectors.size()];
+    for(int node = 0; node < levels.length; node++){
+      levels[node] = (byte) Math.min(Byte.MAX_VALUE, (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier));
+    }
+    HnswIndex index = new HnswIndex(vectors, m, levels);
+    Object[] locks = new Object[4096];
+    for(int i = 0; i < locks.length; i++){
+      locks[i] = new Object();
+    }
+    index.locks = locks;
+    if(threads == 1){
+      for(int node = 0; node < levels.length; node++){
+        index.insert(node, efConstruction);
+      }
+    }else{
+      AtomicInteger next = new AtomicInteger();
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try{
+        List<Future<?>> futures = new ArrayList<>();
+        for(int thread = 0; thread < threads; thread++){
+          futures.add(executor.submit(() -> {
+            for(int node = next.getAndIncrement(); node < levels.length; node = next.getAndIncrement()){
+              index.insert(node, efConstruction);
+            }
+          }));
+        }
+        for(Future<?> future : futures){
+          future.get();
+        }
+      }catch(InterruptedException e){
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while indexing word vectors", e);
+      }catch(ExecutionException e){
+        throw new IOException("Could not index word vectors", e.getCause());
+      }finally{
+        executor.shutdownNow();
+      }
+    }
+    index.locks = null;
+    return index;
+  }
+
+  /**
+   * @param file       index written by {@link #save(File)}
+   * @param embeddings the word vectors that the index was built for
+   * @return the index
+   * @throws IOException if the file cannot be read or was built for other word vectors
+   */
+  public static HnswIndex load(File file, WordEmbeddings embeddings) throws IOException {
+    Vectors vectors = Vectors.of(embeddings);
+    try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))){
+      if(in.readInt() != MAGIC){
+        throw new IOException(file + " is not a word vector index");
+      }
+      int version = in.readInt();
+      if(version != VERSION){
+        throw new IOException(file + " has unsupported index version " + version);
+      }
+      int size = in.readInt();
+      int m = in.readInt();
+      long fingerprint = in.readLong();
+      if(size != vectors.size() || fingerprint != vectors.getFingerprint()){
+        throw new IOException(file + " was built for other word vectors");
+      }
+      byte[] levels = new byte[size];
+      in.readFully(levels);
+      HnswIndex index = new HnswIndex(vectors, m, levels);
+      index.entryPoint = in.readInt();
+      index.maxLevel = in.readInt();
+      for(int node = 0; node < size; node++){
+        int count = in.readInt();
+        index.linkCounts0[node] = count;
+        for(int i = 0; i < count; i++){
+          index.links0[node * index.maxLinks0 + i] = in.readInt();
+        }
+        int[] upper = index.upperLinks[node];
+        if(upper != null){
+          for(int i = 0; i < upper.length; i++){
+            upper[i] = in.readInt();
+          }
+        }
+      }
+      return index;
+    }
+  }
+
+  /**
+   * Writes the graph, but not the vectors, to the file.
+   */
+  public void save(File file) throws IOException {
+    File tempFile = new File(file.getPath() + ".tmp");
+    try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))){
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(size);
+      out.writeInt(m);
+      out.writeLong(fingerprint);
+      out.write(levels);
+      out.writeInt(entryPoint);
+      out.writeInt(maxLevel);
+      for(int node = 0; node < size; node++){
+        out.writeInt(linkCounts0[node]);
+        for(int i = 0; i < linkCounts0[node]; i++){
+          out.writeInt(links0[node * maxLinks0 + i]);
+        }
+        int[] upper = upperLinks[node];
+        if(upper != null){
+          for(int link : upper){
+            out.writeInt(link);
+          }
+        }
+      }
+    }
+    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * @return number of indexed words
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if the index was built for the same words as the embeddings, in the same order
+   */
+  public boolean isFor(WordEmbeddings embeddings) {
+    return embeddings.size() == size && Vectors.getFingerprint(embeddings) == fingerprint;
+  }
+
+  /**
+   * @param word some word
+   * @return true if the word is indexed
+   */
+  public boolean contains(String word) {
+    return vectors.indexOf(word) >= 0;
+  }
+
+  /**
+   * @param node some node, from 0 to size - 1
+   * @return the word of the node
+   */
+  public String getWord(int node) {
+    return vectors.getWord(node);
+  }
+
+  public int getEfSearch() {
+    return efSearch;
+  }
+
+  /**
+   * @param efSearch number of candidates kept by a query, more is slower and more accurate
+   */
+  public void setEfSearch(int efSearch) {
+    this.efSearch = efSearch;
+  }
+
+  /**
+   * @param word     some word in the index
+   * @param maxWords maximum number of similar words
+   * @return the most similar other words, most similar first
+   */
+  public List<String> getSimilarWords(String word, int maxWords) {
+    return getSimilarWords(word, maxWords, efSearch);
+  }
+
+  /**
+   * @param word     some word in the index
+   * @param maxWords maximum number of similar words
+   * @param ef       number of candidates kept by the query
+   * @return the most similar other words, most similar first
+   */
+  public List<String> getSimilarWords(String word, int maxWords, int ef) {
+    int node = getNode(word);
+    // one more for the word itself
+    return toWords(search(other -> vectors.getSimilarity(node, other), maxWords + 1, Math.max(ef, maxWords + 1)),
+        node, maxWords);
+  }
+
+  /**
+   * @param vector   some vector with the dimensionality of the index
+   * @param maxWords maximum number of words
+   * @return the words most similar to the vector, most similar first
+   */
+  public List<String> getNearestWords(double[] vector, int maxWords) {
+    double norm = Math.sqrt(VectorMath.dot(vector, vector));
+    return toWords(search(other -> vectors.getSimilarity(other, vector, norm), maxWords, Math.max(efSearch, maxWords)),
+        -1, maxWords);
+  }
+
+  /**
+   * Compares the word with every indexed word, for the evaluation of approximate results.
+   *
+   * @param word     some word in the index
+   * @param maxWords maximum number of similar words
+   * @return the most similar other words, most similar first
+   */
+  public List<String> getExactSimilarWords(String word, int maxWords) {
+    int node = getNode(word);
+    ScoredHeap results = new ScoredHeap(maxWords + 1, false);
+    for(int other = 0; other < size; other++){
+      double similarity = vectors.getSimilarity(node, other);
+      if(results.size() < maxWords + 1){
+        results.push(similarity, other);
+      }else if(similarity > results.peekScore()){
+        results.pop();
+        results.push(similarity, other);
+      }
+    }
+    return toWords(results, node, maxWords);
+  }
+
+  private int getNode(String word) {
+    int node = vectors.indexOf(word);
+    if(node < 0){
+      throw new IllegalArgumentException("No vector for " + word);
+    }
+    return node;
+  }
+
+  private List<String> toWords(ScoredHeap results, int exclude, int maxWords) {
+    int[] nodes = new int[results.size()];
+    for(int i = nodes.length - 1; i >= 0; i--){
+      nodes[i] = results.pop();
+    }
+    List<String> words = new ArrayList<>(maxWords);
+    for(int node : nodes){
+      if(node != exclude && words.size() < maxWords){
+        words.add(vectors.getWord(node));
+      }
+    }
+    return words;
+  }
+
+  /**
+   * @return up to k nodes most similar to the query in a min heap
+   */
+  private ScoredHeap search(IntToDoubleFunction query, int k, int ef) {
+    int entry;
+    int topLevel;
+    if(locks == null){
+      entry = entryPoint;
+      topLevel = maxLevel;
+    }else{
+      synchronized(this){
+        entry = entryPoint;
+        topLevel = maxLevel;
+      }
+    }
+    if(entry < 0){
+      return new ScoredHeap(1, false);
+    }
+    double entrySimilarity = query.applyAsDouble(entry);
+    for(int level = topLevel; level > 0; level--){
+      entry = greedy(query, entry, entrySimilarity, level);
+      entrySimilarity = query.applyAsDouble(entry);
+    }
+    ScoredHeap results = searchLayer(query, entry, entrySimilarity, ef, 0);
+    while(results.size() > k){
+      results.pop();
+    }
+    return results;
+  }
+
+  private void insert(int node, int efConstruction) {
+    int level = levels[node];
+    int entry;
+    int topLevel;
+    synchronized(this){
+      if(entryPoint < 0){
+        entryPoint = node;
+        maxLevel = level;
+        return;
+      }
+      entry = entryPoint;
+      topLevel = maxLevel;
+    }
+    IntToDoubleFunction query = other -> vectors.getSimilarity(node, other);
+    double entrySimilarity = query.applyAsDouble(entry);
+    for(int layer = topLevel; layer > level; layer--){
+      entry = greedy(query, entry, entrySimilarity, layer);
+      entrySimilarity = query.applyAsDouble(entry);
+    }
+    for(int layer = Math.min(level, topLevel); layer >= 0; layer--){
+      ScoredHeap candidates = searchLayer(query, entry, entrySimilarity, efConstruction, layer);
+      int[] nodes = new int[candidates.size()];
+      double[] similarities = new double[nodes.length];
+      int count = 0;
+      while(candidates.size() > 0){
+        double similarity = candidates.peekScore();
+        int candidate = candidates.pop();
+        // another thread may already have linked the node into the graph
+        if(candidate != node){
+          similarities[count] = similarity;
+          nodes[count++] = candidate;
+        }
+      }
+      if(count == 0){
+        continue;
+      }
+      reverse(nodes, similarities, count);
+      int[] neighbors = selectNeighbors(nodes, similarities, count, m);
+      synchronized(lockOf(node)){
+        setLinks(node, layer, neighbors, neighbors.length);
+      }
+      for(int neighbor : neighbors){
+        addLink(neighbor, node, layer);
+      }
+      entry = nodes[0];
+      entrySimilarity = similarities[0];
+    }
+    if(level > topLevel){
+      synchronized(this){
+        if(level > maxLevel){
+          entryPoint = node;
+          maxLevel = level;
+        }
+      }
+    }
+  }
+
+  /**
+   * Links the neighbor to the node, and drops links of the neighbor when it has too many.
+   */
+  private void addLink(int neighbor, int node, int layer) {
+    synchronized(lockOf(neighbor)){
+      int max = layer == 0 ? maxLinks0 : m;
+      int[] links = new int[max + 1];
+      int count = getLinks(neighbor, layer, links);
+      for(int i = 0; i < count; i++){
+        if(links[i] == node){
+          return;
+        }
+      }
+      links[count++] = node;
+      if(count <= max){
+        setLinks(neighbor, layer, links, count);
+        return;
+      }
+      double[] similarities = new double[count];
+      for(int i = 0; i < count; i++){
+        similarities[i] = vectors.getSimilarity(neighbor, links[i]);
+      }
+      sortBySimilarity(links, similarities, count);
+      int[] kept = selectNeighbors(links, similarities, count, max);
+      setLinks(neighbor, layer, kept, kept.length);
+    }
+  }
+
+  /**
+   * Keeps a candidate only if it is more similar to the node than to the candidates already kept,
+   * which keeps links to several directions instead of to one dense cluster.
+   *
+   * @param nodes        candidates, most similar first
+   * @param similarities similarities of the candidates to the node
+   */
+  private int[] selectNeighbors(int[] nodes, double[] similarities, int count, int max) {
+    int[] selected = new int[Math.min(count, max)];
+    int selectedCount = 0;
+    for(int i = 0; i < count && selectedCount < selected.length; i++){
+      boolean keep = true;
+      for(int j = 0; j < selectedCount; j++){
+        if(vectors.getSimilarity(nodes[i], selected[j]) > similarities[i]){
+          keep = false;
+          break;
+        }
+      }
+      if(keep){
+        selected[selectedCount++] = nodes[i];
+      }
+    }
+    return selectedCount == selected.length ? selected : Arrays.copyOf(selected, selectedCount);
+  }
+
+  private int greedy(IntToDoubleFunction query, int entry, double entrySimilarity, int layer) {
+    int[] links = new int[m];
+    boolean changed = true;
+    while(changed){
+      changed = false;
+      int count = readLinks(entry, layer, links);
+      for(int i = 0; i < count; i++){
+        double similarity = query.applyAsDouble(links[i]);
+        if(similarity > entrySimilarity){
+          entrySimilarity = similarity;
+          entry = links[i];
+          changed = true;
+        }
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * @return the ef nodes most similar to the query that were found in the layer, in a min heap
+   */
+  private ScoredHeap searchLayer(IntToDoubleFunction query, int entry, double entrySimilarity, int ef, int layer) {
+    Visited seen = visited.get();
+    seen.clear();
+    seen.visit(entry);
+    ScoredHeap candidates = new ScoredHeap(ef, true);
+    ScoredHeap results = new ScoredHeap(ef + 1, false);
+    candidates.push(entrySimilarity, entry);
+    results.push(entrySimilarity, entry);
+    int[] links = new int[layer == 0 ? maxLinks0 : m];
+    while(candidates.size() > 0){
+      double similarity = candidates.peekScore();
+      if(results.size() >= ef && similarity < results.peekScore()){
+        break;
+      }
+      int candidate = candidates.pop();
+      int count = readLinks(candidate, layer, links);
+      for(int i = 0; i < count; i++){
+        int neighbor = links[i];
+        if(!seen.visit(neighbor)){
+          continue;
+        }
+        double neighborSimilarity = query.applyAsDouble(neighbor);
+        if(results.size() < ef || neighborSimilarity > results.peekScore()){
+          candidates.push(neighborSimilarity, neighbor);
+          results.push(neighborSimilarity, neighbor);
+          if(results.size() > ef){
+            results.pop();
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Copies the links of the node, under its lock while the graph is built.
+   */
+  private int readLinks(int node, int layer, int[] links) {
+    Object[] buildLocks = locks;
+    if(buildLocks == null){
+      return getLinks(node, layer, links);
+    }
+    synchronized(buildLocks[node & (buildLocks.length - 1)]){
+      return getLinks(node, layer, links);
+    }
+  }
+
+  private int getLinks(int node, int layer, int[] links) {
+    if(layer == 0){
+      int count = linkCounts0[node];
+      System.arraycopy(links0, node * maxLinks0, links, 0, count);
+      return count;
+    }
+    int[] upper = upperLinks[node];
+    if(upper == null || layer > levels[node]){
+      return 0;
+    }
+    int start = (layer - 1) * (m + 1);
+    int count = upper[start];
+    System.arraycopy(upper, start + 1, links, 0, count);
+    return count;
+  }
+
+  private void setLinks(int node, int layer, int[] links, int count) {
+    if(layer == 0){
+      System.arraycopy(links, 0, links0, node * maxLinks0, count);
+      linkCounts0[node] = count;
+      return;
+    }
+    int start = (layer - 1) * (m + 1);
+    int[] upper = upperLinks[node];
+    System.arraycopy(links, 0, upper, start + 1, count);
+    upper[start] = count;
+  }
+
+  private Object lockOf(int node) {
+    return locks[node & (locks.length - 1)];
+  }
+
+  private static void reverse(int[] nodes, double[] similarities, int count) {
+    for(int i = 0, j = count - 1; i < j; i++, j--){
+      int node = nodes[i];
+      nodes[i] = nodes[j];
+      nodes[j] = node;
+      double similarity = similarities[i];
+      similarities[i] = similarities[j];
+      similarities[j] = similarity;
+    }
+  }
+
+  private static void sortBySimilarity(int[] nodes, double[] similarities, int count) {
+    // insertion sort, most similar first; lists are a few dozen long
+    for(int i = 1; i < count; i++){
+      int node = nodes[i];
+      double similarity = similarities[i];
+      int j = i - 1;
+      while(j >= 0 && similarities[j] < similarity){
+        nodes[j + 1] = nodes[j];
+        similarities[j + 1] = similarities[j];
+        j--;
+      }
+      nodes[j + 1] = node;
+      similarities[j + 1] = similarity;
+    }
+  }
+
+  /**
+   * Binary heap of nodes by similarity, the most similar on top of a max heap.
+   */
+  private static final class ScoredHeap {
+    private final boolean max;
+    private double[] scores;
+    private int[] nodes;
+    private int size = 0;
+
+    private ScoredHeap(int capacity, boolean max) {
+      this.max = max;
+      this.scores = new double[Math.max(capacity, 1)];
+      this.nodes = new int[scores.length];
+    }
+
+    private int size() {
+      return size;
+    }
+
+    private double peekScore() {
+      return scores[0];
+    }
+
+    private void push(double score, int node) {
+      if(size == scores.length){
+        scores = Arrays.copyOf(scores, size * 2);
+        nodes = Arrays.copyOf(nodes, size * 2);
+      }
+      int i = size++;
+      while(i > 0){
+        int parent = (i - 1) >>> 1;
+        if(!before(score, scores[parent])){
+          break;
+        }
+        scores[i] = scores[parent];
+        nodes[i] = nodes[parent];
+        i = parent;
+      }
+      scores[i] = score;
+      nodes[i] = node;
+    }
+
+    private int pop() {
+      int top = nodes[0];
+      size--;
+      double score = scores[size];
+      int node = nodes[size];
+      int i = 0;
+      while(true){
+        int child = 2 * i + 1;
+        if(child >= size){
+          break;
+        }
+        if(child + 1 < size && before(scores[child + 1], scores[child])){
+          child++;
+        }
+        if(!before(scores[child], score)){
+          break;
+        }
+        scores[i] = scores[child];
+        nodes[i] = nodes[child];
+        i = child;
+      }
+      scores[i] = score;
+      nodes[i] = node;
+      return top;
+    }
+
+    private boolean before(double score1, double score2) {
+      return max ? score1 > score2 : score1 < score2;
+    }
+  }
+
+  /**
+   * Marks of visited nodes, cleared by starting a new generation.
+   */
+  private static final class Visited {
+    private final int[] marks;
+    private int generation = 0;
+
+    private Visited(int size) {
+      marks = new int[size];
+    }
+
+    private void clear() {
+      generation++;
+      if(generation == 0){
+        Arrays.fill(marks, 0);
+        generation = 1;
+      }
+    }
+
+    /**
+     * @return true if the node had not been visited
+     */
+    private boolean visit(int node) {
+      if(marks[node] == generation){
+        return false;
+      }
+      marks[node] = generation;
+      return true;
+    }
+  }
+
+  /**
+   * Indexed access to the vectors of word embeddings.
+   * A store keeps its own row order, words parsed onto the heap are sorted so that the order does not depend on a map.
+   */
+  abstract static class Vectors {
+
+    static Vectors of(WordEmbeddings embeddings) {
+      MappedEmbeddings store = embeddings.getStore();
+      return store != null ? new StoreVectors(store) : new HeapVectors(embeddings.getVectorMap());
+    }
+
+    abstract int size();
+
+    abstract int indexOf(String word);
+
+    abstract String getWord(int node);
+
+    abstract double getSimilarity(int node1, int node2);
+
+    abstract double getSimilarity(int node, double[] vector, double norm);
+
+    /**
+     * @return hash of the words in order, to check that a saved index belongs to the vectors
+     */
+    long getFingerprint() {
+      long fingerprint = size();
+      for(int node = 0; node < size(); node++){
+        fingerprint = fingerprint * 1000003L + getWord(node).hashCode();
+      }
+      return fingerprint;
+    }
+
+    /**
+     * @return the fingerprint of the vectors of the embeddings, without copying heap vectors
+     */
+    static long getFingerprint(WordEmbeddings embeddings) {
+      MappedEmbeddings store = embeddings.getStore();
+      if(store != null){
+        return new StoreVectors(store).getFingerprint();
+      }
+      String[] words = embeddings.getVectorMap().keySet().toArray(new String[0]);
+      Arrays.sort(words);
+      long fingerprint = words.length;
+      for(String word : words){
+        fingerprint = fingerprint * 1000003L + word.hashCode();
+      }
+      return fingerprint;
+    }
+
+    static double divide(double dot, double norms) {
+      return norms == 0.0 ? 0.0 : dot / norms;
+    }
+  }
+
+  private static final class StoreVectors extends Vectors {
+    private final MappedEmbeddings store;
+
+    private StoreVectors(MappedEmbeddings store) {
+      this.store = store;
+    }
+
+    @Override
+    int size() {
+      return store.size();
+    }
+
+    @Override
+    int indexOf(String word) {
+      return store.indexOf(word);
+    }
+
+    @Override
+    String getWord(int node) {
+      return store.getWord(node);
+    }
+
+    @Override
+    double getSimilarity(int node1, int node2) {
+      return divide(store.dot(node1, node2), store.getNorm(node1) * store.getNorm(node2));
+    }
+
+    @Override
+    double getSimilarity(int node, double[] vector, double norm) {
+      return divide(store.dot(node, vector), store.getNorm(node) * norm);
+    }
+  }
+
+  private static final class HeapVectors extends Vectors {
+    private final String[] words;
+    private final double[][] values;
+    private final double[] norms;
+
+    private HeapVectors(Map<String,WordVector> vectors) {
+      words = vectors.keySet().toArray(new String[vectors.size()]);
+      Arrays.sort(words);
+      values = new double[words.length][];
+      norms = new double[words.length];
+      for(int node = 0; node < words.length; node++){
+        values[node] = vectors.get(words[node]).vector;
+        norms[node] = Math.sqrt(VectorMath.dot(values[node], values[node]));
+      }
+    }
+
+    @Override
+    int size() {
+      return words.length;
+    }
+
+    @Override
+    int indexOf(String word) {
+      int node = Arrays.binarySearch(words, word);
+      return node >= 0 ? node : -1;
+    }
+
+    @Override
+    String getWord(int node) {
+      return words[node];
+    }
+
+    @Override
+    double getSimilarity(int node1, int node2) {
+      return divide(VectorMath.dot(values[node1], values[node2]), norms[node1] * norms[node2]);
+    }
+
+    @Override
+    double getSimilarity(int node, double[] vector, double norm) {
+      return divide(VectorMath.dot(values[node], vector), norms[node] * norm);
+    }
+  }
+}
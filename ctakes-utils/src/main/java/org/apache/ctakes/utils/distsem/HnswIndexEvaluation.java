@@ -0,0 +1,152 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the recall and the query time of an {@link HnswIndex} against an exact search.
+ * <p>
+ * Recall at k is the fraction of the exact k most similar words of a query that the index returns.
+ * Queries are a random sample of the indexed words.  The exact search compares every word,
+ * so it runs on several threads and dominates the time of the evaluation.
+ * </p>
+ * Usage: HnswIndexEvaluation vectorFile indexFile [queries [k [ef,ef,...]]]
+ * The index is built and saved when the index file does not exist.
+ */
+public class HnswIndexEvaluation {
+
+  public static void main(String[] args) throws IOException {
+    if(args.length < 2 || args.length > 5){
+      System.err.println("Usage: HnswIndexEvaluation <vectors> <index file> [<queries> [<k> [<ef,ef,...>]]]");
+      System.exit(1);
+    }
+    WordEmbeddings embeddings = WordVectorReader.getEmbeddings(new File(args[0]));
+    File indexFile = new File(args[1]);
+    int queryCount = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+    int k = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    String efValues = args.length > 4 ? args[4] : "10,20,50,100,200,400";
+
+    HnswIndex index;
+    if(indexFile.isFile()){
+      index = HnswIndex.load(indexFile, embeddings);
+    }else{
+      long start = System.currentTimeMillis();
+      index = HnswIndex.build(embeddings);
+      System.out.println("Built index in " + (System.currentTimeMillis() - start) / 1000 + " seconds");
+      index.save(indexFile);
+    }
+    HnswIndexEvaluation evaluation = new HnswIndexEvaluation(index, queryCount, k, 42L);
+    System.out.println("ef\trecall@" + k + "\tmean ms\tp99 ms");
+    for(String ef : efValues.split(",")){
+      evaluation.evaluate(Integer.parseInt(ef.trim()));
+      System.out.println(String.format("%s\t%.4f\t%.3f\t%.3f", ef.trim(), evaluation.getRecall(),
+          evaluation.getMeanMillis(), evaluation.getPercentileMillis(0.99)));
+    }
+  }
+
+  private final HnswIndex index;
+  private final int k;
+  private final List<String> queries;
+  private final List<List<String>> exact;
+  private double recall = 0.0;
+  private double[] millis = new double[0];
+
+  /**
+   * Samples the queries and finds their exact most similar words.
+   *
+   * @param index      index to evaluate
+   * @param queryCount number of query words
+   * @param k          number of similar words per query
+   * @param seed       seed for the sample of query words
+   */
+  public HnswIndexEvaluation(HnswIndex index, int queryCount, int k, long seed) throws IOException {
+    this.index = index;
+    this.k = k;
+    List<String> words = new ArrayList<>(index.size());
+    for(int node = 0; node < index.size(); node++){
+      words.add(index.getWord(node));
+    }
+    Collections.shuffle(words, new Random(seed));
+    queries = words.subList(0, Math.min(queryCount, words.size()));
+    exact = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try{
+      List<Future<List<String>>> futures = new ArrayList<>();
+      for(String query : queries){
+        futures.add(executor.submit(() -> index.getExactSimilarWords(query, k)));
+      }
+      for(Future<List<String>> future : futures){
+        exact.add(future.get());
+      }
+    }catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while searching exact neighbours", e);
+    }catch(ExecutionException e){
+      throw new IOException("Could not search exact neighbours", e.getCause());
+    }finally{
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Runs the queries on the index, one at a time so that the times are comparable.
+   *
+   * @param ef number of candidates kept by a query
+   */
+  public void evaluate(int ef) {
+    int found = 0;
+    int expected = 0;
+    millis = new double[queries.size()];
+    for(int i = 0; i < queries.size(); i++){
+      long start = System.nanoTime();
+      List<String> approximate = index.getSimilarWords(queries.get(i), k, ef);
+      millis[i] = (System.nanoTime() - start) / 1e6;
+      Set<String> exactWords = new HashSet<>(exact.get(i));
+      for(String word : approximate){
+        if(exactWords.contains(word)){
+          found++;
+        }
+      }
+      expected += exactWords.size();
+    }
+    Arrays.sort(millis);
+    recall = expected == 0 ? 1.0 : (double) found / expected;
+  }
+
+  /**
+   * @return recall at k of the last evaluation
+   */
+  public double getRecall() {
+    return recall;
+  }
+
+  public double getMeanMillis() {
+    double sum = 0.0;
+    for(double time : millis){
+      sum += time;
+    }
+    return millis.length == 0 ? 0.0 : sum / millis.length;
+  }
+
+  /**
+   * @param percentile fraction of queries, e.g. 0.99
+   * @return the query time that the fraction of queries of the last evaluation did not exceed
+   */
+  public double getPercentileMillis(double percentile) {
+    if(millis.length == 0){
+      return 0.0;
+    }
+    return millis[Math.min(millis.length - 1, (int) Math.ceil(percentile * millis.length) - 1)];
+  }
+}
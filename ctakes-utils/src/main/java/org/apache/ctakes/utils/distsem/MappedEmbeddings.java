@@ -0,0 +1,288 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Word vectors in a memory-mapped matrix of float32 values, as written by {@link WordVectorConverter}.
+ * <p>
+ * Only the vocabulary index is read onto the heap: the utf-8 bytes of the words, their hash codes and norms,
+ * and an open addressing table of row numbers, about 20 bytes per word plus the words themselves.
+ * Vector values are read from the mapped file when they are used, so a large embedding costs neither heap
+ * nor parse time, and the operating system shares the pages between processes that map the same file.
+ * </p>
+ * Lookups and vector operations do not change any state and may be called from several threads.
+ */
+public class MappedEmbeddings {
+
+  /**
+   * Extension of a store converted next to a text vector file, see {@link #getStoreFile(File)}.
+   */
+  public static final String FILE_EXTENSION = ".f32";
+
+  // file layout, little endian:
+  // header     int magic, int version, int rows, int dimensions, long vocabulary offset, long reserved
+  // matrix     float[rows * dimensions], row major
+  // vocabulary double[rows] norms, int[rows] String hash codes, int[rows + 1] word offsets, utf-8 word bytes
+  static final int MAGIC = 0x424d4543;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+
+  private final int rows;
+  private final int dimensionality;
+  private final int rowsPerChunk;
+  private final FloatBuffer[] chunks;
+  private final double[] norms;
+  private final int[] hashes;
+  private final int[] offsets;
+  private final byte[] words;
+  private final int[] table;
+  private final int mask;
+
+  private MappedEmbeddings(int rows, int dimensionality, int rowsPerChunk, FloatBuffer[] chunks,
+      double[] norms, int[] hashes, int[] offsets, byte[] words) {
+    this.rows = rows;
+    this.dimensionality = dimensionality;
+    this.rowsPerChunk = rowsPerChunk;
+    this.chunks = chunks;
+    this.norms = norms;
+    this.hashes = hashes;
+    this.offsets = offsets;
+    this.words = words;
+    int capacity = 2;
+    while(capacity < rows * 2){
+      capacity <<= 1;
+    }
+    this.table = new int[capacity];
+    this.mask = capacity - 1;
+    Arrays.fill(table, -1);
+    for(int row = 0; row < rows; row++){
+      int slot = mix(hashes[row]) & mask;
+      while(table[slot] >= 0){
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = row;
+    }
+  }
+
+  /**
+   * @param file store written by {@link WordVectorConverter}
+   * @return the store with its matrix mapped into memory
+   * @throws IOException if the file cannot be read or is not a store
+   */
+  public static MappedEmbeddings open(File file) throws IOException {
+    try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+      ByteBuffer header = read(channel, 0, HEADER_SIZE);
+      if(header.getInt() != MAGIC){
+        throw new IOException(file + " is not a word vector store");
+      }
+      int version = header.getInt();
+      if(version != VERSION){
+        throw new IOException(file + " has unsupported store version " + version);
+      }
+      int rows = header.getInt();
+      int dimensionality = header.getInt();
+      long vocabularyOffset = header.getLong();
+      long rowBytes = (long) dimensionality * Float.BYTES;
+      if(rows < 0 || dimensionality <= 0 || vocabularyOffset != HEADER_SIZE + rows * rowBytes){
+        throw new IOException(file + " has a corrupt store header");
+      }
+
+      // a mapped buffer holds at most 2 GB, so split the matrix on row boundaries
+      int rowsPerChunk = (int) Math.max(1, Integer.MAX_VALUE / rowBytes);
+      FloatBuffer[] chunks = new FloatBuffer[(rows + rowsPerChunk - 1) / rowsPerChunk];
+      for(int chunk = 0; chunk < chunks.length; chunk++){
+        long firstRow = (long) chunk * rowsPerChunk;
+        long chunkRows = Math.min(rowsPerChunk, rows - firstRow);
+        chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + firstRow * rowBytes, chunkRows * rowBytes)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .asFloatBuffer();
+      }
+
+      long position = vocabularyOffset;
+      double[] norms = new double[rows];
+      read(channel, position, rows * Double.BYTES).asDoubleBuffer().get(norms);
+      position += rows * Double.BYTES;
+      int[] hashes = new int[rows];
+      read(channel, position, rows * Integer.BYTES).asIntBuffer().get(hashes);
+      position += rows * Integer.BYTES;
+      int[] offsets = new int[rows + 1];
+      read(channel, position, (rows + 1) * Integer.BYTES).asIntBuffer().get(offsets);
+      position += (rows + 1) * Integer.BYTES;
+      byte[] words = new byte[offsets[rows]];
+      read(channel, position, words.length).get(words);
+      return new MappedEmbeddings(rows, dimensionality, rowsPerChunk, chunks, norms, hashes, offsets, words);
+    }
+  }
+
+  /**
+   * @param file some file
+   * @return true if the file begins like a store written by {@link WordVectorConverter}
+   */
+  public static boolean isStore(File file) {
+    if(!file.isFile() || file.length() < HEADER_SIZE){
+      return false;
+    }
+    try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+      return read(channel, 0, Integer.BYTES).getInt() == MAGIC;
+    }catch(IOException e){
+      return false;
+    }
+  }
+
+  /**
+   * @param textFile word vectors in text format
+   * @return the file that a store converted from the text file is written to by default
+   */
+  public static File getStoreFile(File textFile) {
+    return new File(textFile.getPath() + FILE_EXTENSION);
+  }
+
+  /**
+   * @return number of words
+   */
+  public int size() {
+    return rows;
+  }
+
+  public int getDimensionality() {
+    return dimensionality;
+  }
+
+  /**
+   * @param word some word
+   * @return the row of the word, or -1 if the word has no vector
+   */
+  public int indexOf(String word) {
+    int hash = word.hashCode();
+    byte[] bytes = null;
+    for(int slot = mix(hash) & mask; table[slot] >= 0; slot = (slot + 1) & mask){
+      int row = table[slot];
+      if(hashes[row] != hash){
+        continue;
+      }
+      if(bytes == null){
+        bytes = word.getBytes(StandardCharsets.UTF_8);
+      }
+      if(matches(row, bytes)){
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  public boolean contains(String word) {
+    return indexOf(word) >= 0;
+  }
+
+  /**
+   * @param row row of a word
+   * @return the word
+   */
+  public String getWord(int row) {
+    return new String(words, offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+  }
+
+  public float getValue(int row, int dim) {
+    return chunks[row / rowsPerChunk].get((row % rowsPerChunk) * dimensionality + dim);
+  }
+
+  /**
+   * @return euclidean length of the vector in the row
+   */
+  public double getNorm(int row) {
+    return norms[row];
+  }
+
+  /**
+   * Copies the vector in the row into the array.
+   */
+  public void copyTo(int row, double[] vector) {
+    FloatBuffer chunk = chunks[row / rowsPerChunk];
+    int start = (row % rowsPerChunk) * dimensionality;
+    for(int dim = 0; dim < dimensionality; dim++){
+      vector[dim] = chunk.get(start + dim);
+    }
+  }
+
+  /**
+   * Adds the vector in the row to the sum.
+   */
+  public void addTo(int row, double[] sum) {
+    FloatBuffer chunk = chunks[row / rowsPerChunk];
+    int start = (row % rowsPerChunk) * dimensionality;
+    for(int dim = 0; dim < dimensionality; dim++){
+      sum[dim] += chunk.get(start + dim);
+    }
+  }
+
+  /**
+   * @return dot product of the vector in the row and the given vector
+   */
+  public double dot(int row, double[] vector) {
+    FloatBuffer chunk = chunks[row / rowsPerChunk];
+    int start = (row % rowsPerChunk) * dimensionality;
+    double dot = 0.0;
+    for(int dim = 0; dim < dimensionality; dim++){
+      dot += chunk.get(start + dim) * vector[dim];
+    }
+    return dot;
+  }
+
+  /**
+   * @return dot product of the vectors in the two rows
+   */
+  public double dot(int row1, int row2) {
+    FloatBuffer chunk1 = chunks[row1 / rowsPerChunk];
+    FloatBuffer chunk2 = chunks[row2 / rowsPerChunk];
+    int start1 = (row1 % rowsPerChunk) * dimensionality;
+    int start2 = (row2 % rowsPerChunk) * dimensionality;
+    double dot = 0.0;
+    for(int dim = 0; dim < dimensionality; dim++){
+      dot += (double) chunk1.get(start1 + dim) * chunk2.get(start2 + dim);
+    }
+    return dot;
+  }
+
+  /**
+   * @return cosine similarity of the vectors in the two rows
+   */
+  public double getSimilarity(int row1, int row2) {
+    return dot(row1, row2) / (norms[row1] * norms[row2]);
+  }
+
+  private boolean matches(int row, byte[] bytes) {
+    int start = offsets[row];
+    if(offsets[row + 1] - start != bytes.length){
+      return false;
+    }
+    for(int i = 0; i < bytes.length; i++){
+      if(words[start + i] != bytes[i]){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int mix(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while(buffer.hasRemaining()){
+      if(channel.read(buffer, position + buffer.position()) < 0){
+        throw new IOException("Word vector store is truncated");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+}
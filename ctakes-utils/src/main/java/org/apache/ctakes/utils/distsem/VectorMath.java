@@ -0,0 +1,31 @@
+package org.apache.ctakes.utils.distsem;
+
+/**
+ * Vector operations on primitive arrays, for features that combine word vectors.
+ */
+public final class VectorMath {
+
+  private VectorMath() {
+  }
+
+  /**
+   * Adds the vector to the sum.
+   */
+  public static void add(double[] sum, double[] vector) {
+    for(int dim = 0; dim < sum.length; dim++){
+      sum[dim] += vector[dim];
+    }
+  }
+
+  public static double dot(double[] vector1, double[] vector2) {
+    double dot = 0.0;
+    for(int dim = 0; dim < vector1.length; dim++){
+      dot += vector1[dim] * vector2[dim];
+    }
+    return dot;
+  }
+
+  public static double cosine(double[] vector1, double[] vector2) {
+    return dot(vector1, vector2) / (Math.sqrt(dot(vector1, vector1)) * Math.sqrt(dot(vector2, vector2)));
+  }
+}
@@ -6,9 +6,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Word vectors, either parsed onto the heap by {@link WordVectorReader}
+ * or read from a {@link MappedEmbeddings} store.
+ */
 public class WordEmbeddings {
 
   private Map<String,WordVector> vectors = null;
+  private MappedEmbeddings store = null;
+  private HnswIndex index = null;
   private int dimensionality = 0;
   private WordVector meanVector = null;
   private WordVector rawMeanVector = null;
@@ -24,7 +30,17 @@ public class WordEmbeddings {
     this.vectors = vectors;
   }
 
+  public WordEmbeddings(MappedEmbeddings store){
+    this.store = store;
+    this.dimensionality = store.getDimensionality();
+    this.meanVector = new WordVector("_mean_", new double[this.dimensionality]);
+    this.rawMeanVector = new WordVector("_mean_raw", new double[this.dimensionality]);
+  }
+
   public double getSimilarity(String word1, String word2){
+    if(store != null){
+      return store.getSimilarity(getIndex(word1), getIndex(word2));
+    }
     WordVector vec1 = getVector(word1);
     WordVector vec2 = getVector(word2);
     
@@ -39,6 +55,9 @@ public class WordEmbeddings {
   }
 
   public void add(String line){
+    if(store != null){
+      throw new UnsupportedOperationException("Cannot add to a mapped word vector store");
+    }
     int wordBreak = line.indexOf(' ');
     String word = line.substring(0, wordBreak);
     String[] dims = line.substring(wordBreak+1).split(" ");
@@ -57,66 +76,181 @@ public class WordEmbeddings {
   }
   
   public boolean containsKey(String word){
+    if(store != null){
+      return store.contains(word);
+    }
     return vectors.containsKey(word);
   }
   
   public WordVector getVector(String word){
+    if(store != null){
+      int index = store.indexOf(word);
+      if(index < 0){
+        return null;
+      }
+      double[] vector = new double[dimensionality];
+      store.copyTo(index, vector);
+      return new WordVector(word, vector);
+    }
     if(vectors != null){
       return vectors.get(word);
     }
     return null;
   }
 
+  /**
+   * Copies the vector of the word into the array without allocating a {@link WordVector}.
+   * @return false if there is no vector for the word
+   */
+  public boolean copyVector(String word, double[] vector){
+    if(store != null){
+      int index = store.indexOf(word);
+      if(index < 0){
+        return false;
+      }
+      store.copyTo(index, vector);
+      return true;
+    }
+    WordVector wordVector = vectors.get(word);
+    if(wordVector == null){
+      return false;
+    }
+    System.arraycopy(wordVector.vector, 0, vector, 0, wordVector.size);
+    return true;
+  }
+
+  /**
+   * Adds the vector of the word to the sum without allocating a {@link WordVector}.
+   * @return false if there is no vector for the word
+   */
+  public boolean addVector(String word, double[] sum){
+    if(store != null){
+      int index = store.indexOf(word);
+      if(index < 0){
+        return false;
+      }
+      store.addTo(index, sum);
+      return true;
+    }
+    WordVector wordVector = vectors.get(word);
+    if(wordVector == null){
+      return false;
+    }
+    VectorMath.add(sum, wordVector.vector);
+    return true;
+  }
+
+  /**
+   * @return number of words with vectors
+   */
+  public int size(){
+    return store != null ? store.size() : vectors.size();
+  }
+
   public int getDimensionality(){
     return this.dimensionality;
   }
   
+  /**
+   * @param index approximate index of these vectors that {@link #getSimilarWords(String, int)} queries
+   *              instead of comparing every word, or null to compare every word
+   * @throws IllegalArgumentException if the index was built for other word vectors
+   */
+  public void setSimilarWordIndex(HnswIndex index){
+    if(index != null && !index.isFor(this)){
+      throw new IllegalArgumentException("The index was built for other word vectors");
+    }
+    this.index = index;
+  }
+
+  public HnswIndex getSimilarWordIndex(){
+    return index;
+  }
+
   public List<String> getSimilarWords(String word, int maxWords) {
+    HnswIndex similarWordIndex = this.index;
+    // words without a vector take the linear path, which fails for them as it always has
+    if(similarWordIndex != null && similarWordIndex.contains(word)){
+      return similarWordIndex.getSimilarWords(word, maxWords);
+    }
     double[] sims = new double[maxWords];
     List<String> words = new ArrayList<>(20);
     Arrays.fill(sims, -1);
+    if(store != null){
+      int index = getIndex(word);
+      for(int comp = 0; comp < store.size(); comp++){
+        double sim = store.getSimilarity(index, comp);
+        if(comp == index || (words.size() > 0 && sim < sims[maxWords-1])){
+          // skip before creating the string of the word
+          continue;
+        }
+        addSimilarWord(words, sims, maxWords, store.getWord(comp), sim);
+      }
+      return words;
+    }
     for(String comp : vectors.keySet()){
       double sim = getSimilarity(word, comp);
       if(word.equals(comp)){
         continue;
-      }else if(words.size() == 0){
-        words.add(comp);
-        sims[0] = sim;
-        continue;
-      }else if(sim < sims[maxWords-1]){
-        // most words won't be greater than the minimum similarity -- quit right away
-        continue;
       }
-      for(int i = Math.min(maxWords-1, words.size()); i >= 0; i--){
-        // compare the similarity.
-        // if we're here we know that sim > sims[i], just seeing if we can keep going backwards
-        if(i > 0 && sim > sims[i-1]){
-          // shift over the score and the word
-          sims[i] = sims[i-1];
-          if(words.size() <= i){
-            words.add(words.get(i-1));
-          }else{
-            words.set(i, words.get(i-1));
-          }
+      addSimilarWord(words, sims, maxWords, comp, sim);
+    }
+    return words;
+  }
+
+  private static void addSimilarWord(List<String> words, double[] sims, int maxWords, String comp, double sim) {
+    if(words.size() == 0){
+      words.add(comp);
+      sims[0] = sim;
+      return;
+    }else if(sim < sims[maxWords-1]){
+      // most words won't be greater than the minimum similarity -- quit right away
+      return;
+    }
+    for(int i = Math.min(maxWords-1, words.size()); i >= 0; i--){
+      // compare the similarity.
+      // if we're here we know that sim > sims[i], just seeing if we can keep going backwards
+      if(i > 0 && sim > sims[i-1]){
+        // shift over the score and the word
+        sims[i] = sims[i-1];
+        if(words.size() <= i){
+          words.add(words.get(i-1));
+        }else{
+          words.set(i, words.get(i-1));
+        }
+      }else{
+        // found our position for our new word:
+        sims[i] = sim;
+        if(words.size() <= i){
+          words.add(comp);
         }else{
-          // found our position for our new word:
-          sims[i] = sim;
-          if(words.size() <= i){
-            words.add(comp);
-          }else{
-            words.set(i, comp);
-          }
-          break;
+          words.set(i, comp);
         }
+        break;
       }
     }
-    return words;
   }
   
   public WordVector getMeanVector(){
     for(int i = 0; i < this.rawMeanVector.getLength(); i++){
-      this.meanVector.vector[i] = this.rawMeanVector.vector[i] / vectors.size();
+      this.meanVector.vector[i] = this.rawMeanVector.vector[i] / size();
     }
     return this.meanVector;
   }
+
+  MappedEmbeddings getStore(){
+    return store;
+  }
+
+  Map<String,WordVector> getVectorMap(){
+    return vectors;
+  }
+
+  private int getIndex(String word){
+    int index = store.indexOf(word);
+    if(index < 0){
+      throw new IllegalArgumentException("No vector for " + word);
+    }
+    return index;
+  }
 }
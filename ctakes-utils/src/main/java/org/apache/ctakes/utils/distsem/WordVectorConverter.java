@@ -0,0 +1,183 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts word vectors in text format to a {@link MappedEmbeddings} store.
+ * <p>
+ * Each line of the text holds a word and its values separated by single spaces.
+ * An optional first line with the number of words and the number of dimensions, as written by word2vec,
+ * is skipped.  A word that appears more than once keeps its first row and its last vector,
+ * the same as {@link WordVectorReader}.  Values are stored as float32.
+ * </p>
+ * Usage: WordVectorConverter textFile [storeFile]
+ * The store is written next to the text file with the extension {@link MappedEmbeddings#FILE_EXTENSION}
+ * when no store file is given, where {@link WordVectorReader#getEmbeddings(File)} finds it.
+ */
+public class WordVectorConverter {
+
+  public static void main(String[] args) throws IOException {
+    if(args.length < 1 || args.length > 2){
+      System.err.println("Usage: WordVectorConverter <text vectors> [<store file>]");
+      System.exit(1);
+    }
+    File textFile = new File(args[0]);
+    File storeFile = args.length == 2 ? new File(args[1]) : MappedEmbeddings.getStoreFile(textFile);
+    long start = System.currentTimeMillis();
+    int rows = convert(textFile, storeFile);
+    System.out.println("Wrote " + rows + " word vectors to " + storeFile + " in "
+        + (System.currentTimeMillis() - start) / 1000 + " seconds");
+  }
+
+  /**
+   * @param textFile  word vectors in text format
+   * @param storeFile file to write the store to, replaced only once the conversion is complete
+   * @return the number of words in the store
+   * @throws IOException if the text cannot be read or the store cannot be written
+   */
+  public static int convert(File textFile, File storeFile) throws IOException {
+    try(InputStream in = new FileInputStream(textFile)){
+      return convert(in, storeFile);
+    }
+  }
+
+  /**
+   * @param in        word vectors in text format, not closed
+   * @param storeFile file to write the store to, replaced only once the conversion is complete
+   * @return the number of words in the store
+   * @throws IOException if the text cannot be read or the store cannot be written
+   */
+  public static int convert(InputStream in, File storeFile) throws IOException {
+    File tempFile = new File(storeFile.getPath() + ".tmp");
+    int rows;
+    try(FileChannel channel = FileChannel.open(tempFile.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+      rows = write(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), channel);
+    }catch(IOException e){
+      Files.deleteIfExists(tempFile.toPath());
+      throw e;
+    }
+    Files.move(tempFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    return rows;
+  }
+
+  private static int write(BufferedReader reader, FileChannel channel) throws IOException {
+    Map<String,Integer> rowOfWord = new HashMap<>();
+    ByteArrayOutputStream words = new ByteArrayOutputStream();
+    int[] offsets = new int[1024];
+    int[] hashes = new int[1024];
+    double[] norms = new double[1024];
+    int dimensionality = -1;
+    ByteBuffer row = null;
+    int rows = 0;
+    int lineNumber = 0;
+    String line;
+    while((line = reader.readLine()) != null){
+      lineNumber++;
+      line = line.trim();
+      if(line.isEmpty()){
+        continue;
+      }
+      String[] fields = line.split(" ");
+      if(dimensionality < 0 && isHeader(fields)){
+        dimensionality = Integer.parseInt(fields[1]);
+        continue;
+      }
+      if(dimensionality < 0){
+        dimensionality = fields.length - 1;
+      }
+      if(fields.length - 1 != dimensionality){
+        throw new IOException("Line " + lineNumber + " has " + (fields.length - 1) + " values, expected " + dimensionality);
+      }
+      if(row == null){
+        row = ByteBuffer.allocate(dimensionality * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      }
+      row.clear();
+      double norm = 0.0;
+      for(int dim = 0; dim < dimensionality; dim++){
+        float value;
+        try{
+          value = Float.parseFloat(fields[dim + 1]);
+        }catch(NumberFormatException e){
+          throw new IOException("Line " + lineNumber + " has a value that is not a number: " + fields[dim + 1]);
+        }
+        row.putFloat(value);
+        norm += (double) value * value;
+      }
+      row.flip();
+
+      String word = fields[0];
+      Integer existing = rowOfWord.get(word);
+      int index = existing != null ? existing : rows;
+      writeFully(channel, row, MappedEmbeddings.HEADER_SIZE + (long) index * dimensionality * Float.BYTES);
+      if(existing == null){
+        if(rows + 1 >= offsets.length){
+          offsets = Arrays.copyOf(offsets, offsets.length * 2);
+          hashes = Arrays.copyOf(hashes, hashes.length * 2);
+          norms = Arrays.copyOf(norms, norms.length * 2);
+        }
+        rowOfWord.put(word, rows);
+        hashes[rows] = word.hashCode();
+        words.write(word.getBytes(StandardCharsets.UTF_8));
+        offsets[rows + 1] = words.size();
+        rows++;
+      }
+      norms[index] = Math.sqrt(norm);
+    }
+    if(dimensionality <= 0){
+      throw new IOException("No word vectors to convert");
+    }
+
+    long vocabularyOffset = MappedEmbeddings.HEADER_SIZE + (long) rows * dimensionality * Float.BYTES;
+    long position = vocabularyOffset;
+    ByteBuffer buffer = ByteBuffer.allocate(rows * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asDoubleBuffer().put(norms, 0, rows);
+    position += writeFully(channel, buffer, position);
+    buffer = ByteBuffer.allocate(rows * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asIntBuffer().put(hashes, 0, rows);
+    position += writeFully(channel, buffer, position);
+    buffer = ByteBuffer.allocate((rows + 1) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asIntBuffer().put(offsets, 0, rows + 1);
+    position += writeFully(channel, buffer, position);
+    writeFully(channel, ByteBuffer.wrap(words.toByteArray()), position);
+
+    ByteBuffer header = ByteBuffer.allocate(MappedEmbeddings.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MappedEmbeddings.MAGIC)
+        .putInt(MappedEmbeddings.VERSION)
+        .putInt(rows)
+        .putInt(dimensionality)
+        .putLong(vocabularyOffset)
+        .putLong(0L);
+    header.flip();
+    writeFully(channel, header, 0);
+    return rows;
+  }
+
+  private static boolean isHeader(String[] fields) {
+    return fields.length == 2 && fields[0].matches("\\d+") && fields[1].matches("\\d+");
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    int length = buffer.remaining();
+    while(buffer.hasRemaining()){
+      channel.write(buffer, position + length - buffer.remaining());
+    }
+    return length;
+  }
+}
@@ -1,6 +1,7 @@
 package org.apache.ctakes.utils.distsem;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,7 +33,22 @@ public class WordVectorReader {
   }
   
   public static WordEmbeddings getEmbeddings(String fn) throws IOException{
-    WordVectorReader reader = new WordVectorReader(new FileInputStream(fn));
+    return getEmbeddings(new File(fn));
+  }
+
+  /**
+   * Maps the file if it is a {@link MappedEmbeddings} store, or if a store converted from it by
+   * {@link WordVectorConverter} is next to it and is not older; otherwise parses the text format.
+   */
+  public static WordEmbeddings getEmbeddings(File file) throws IOException{
+    if(MappedEmbeddings.isStore(file)){
+      return new WordEmbeddings(MappedEmbeddings.open(file));
+    }
+    File storeFile = MappedEmbeddings.getStoreFile(file);
+    if(storeFile.lastModified() >= file.lastModified() && MappedEmbeddings.isStore(storeFile)){
+      return new WordEmbeddings(MappedEmbeddings.open(storeFile));
+    }
+    WordVectorReader reader = new WordVectorReader(new FileInputStream(file));
     return reader.getEmbeddings();
   }
   
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.utils.kernel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Computes symmetric gram matrices in parallel, writing into a {@link GramMatrixFile}.
+ * <p>
+ * The upper triangle is split into square tiles of rows and columns,
+ * so the instances of a tile are reused while they are in cache.
+ * Tiles are split recursively across a fork join pool.
+ * </p>
+ * The kernel function must be thread safe.
+ */
+final public class GramMatrixEngine {
+
+   static public final int DEFAULT_TILE_SIZE = 64;
+
+   private final ForkJoinPool _pool;
+   private final int _tileSize;
+
+   /**
+    * Uses the common fork join pool and default tile size.
+    */
+   public GramMatrixEngine() {
+      this( ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE );
+   }
+
+   /**
+    * @param pool     pool in which tiles are computed
+    * @param tileSize number of rows and columns in a tile
+    */
+   public GramMatrixEngine( final ForkJoinPool pool, final int tileSize ) {
+      if ( tileSize <= 0 ) {
+         throw new IllegalArgumentException( "Tile size must be positive: " + tileSize );
+      }
+      _pool = pool;
+      _tileSize = tileSize;
+   }
+
+   /**
+    * Computes the gram matrix of instances with a ctakes kernel into a new file.
+    *
+    * @param instances       instances, e.g. libsvm vectors for {@link PolyKernel}
+    * @param ids             id of each instance
+    * @param kernel          thread safe kernel
+    * @param file            file to create
+    * @param singlePrecision true to store floats rather than doubles
+    * @return the filled gram matrix, which should be closed
+    * @throws IOException if the file cannot be created
+    */
+   public <T> GramMatrixFile compute( final List<T> instances, final long[] ids, final Kernel kernel,
+                                      final File file, final boolean singlePrecision ) throws IOException {
+      return compute( instances, ids, kernel::eval, file, singlePrecision );
+   }
+
+   /**
+    * Computes the gram matrix of instances into a new file.
+    *
+    * @param instances       instances
+    * @param ids             id of each instance
+    * @param kernel          thread safe kernel function
+    * @param file            file to create
+    * @param singlePrecision true to store floats rather than doubles
+    * @return the filled gram matrix, which should be closed
+    * @throws IOException if the file cannot be created
+    */
+   public <T> GramMatrixFile compute( final List<T> instances, final long[] ids,
+                                      final ToDoubleBiFunction<? super T, ? super T> kernel,
+                                      final File file, final boolean singlePrecision ) throws IOException {
+      if ( instances.size() != ids.length ) {
+         throw new IllegalArgumentException( instances.size() + " instances but " + ids.length + " ids" );
+      }
+      final GramMatrixFile matrix = GramMatrixFile.create( file, ids, singlePrecision );
+      fill( instances, kernel, matrix );
+      matrix.flush();
+      return matrix;
+   }
+
+   /**
+    * Fills the upper triangle of a gram matrix.
+    *
+    * @param instances instances in matrix order
+    * @param kernel    thread safe kernel function
+    * @param matrix    writable matrix with one row per instance
+    */
+   public <T> void fill( final List<T> instances, final ToDoubleBiFunction<? super T, ? super T> kernel,
+                         final GramMatrixFile matrix ) {
+      if ( instances.size() != matrix.size() ) {
+         throw new IllegalArgumentException( instances.size() + " instances for a matrix of " + matrix.size() );
+      }
+      final int tileRows = (instances.size() + _tileSize - 1) / _tileSize;
+      final int tileCount = tileRows * (tileRows + 1) / 2;
+      final int[] firstRows = new int[ tileCount ];
+      final int[] firstColumns = new int[ tileCount ];
+      int tile = 0;
+      for ( int row = 0; row < tileRows; row++ ) {
+         for ( int column = row; column < tileRows; column++ ) {
+            firstRows[ tile ] = row * _tileSize;
+            firstColumns[ tile ] = column * _tileSize;
+            tile++;
+         }
+      }
+      _pool.invoke( new TileTask<>( instances, kernel, matrix, firstRows, firstColumns, 0, tileCount ) );
+   }
+
+
+   /**
+    * Computes a range of tiles, splitting the range in two until it holds a single tile.
+    */
+   private final class TileTask<T> extends RecursiveAction {
+      static private final long serialVersionUID = 1L;
+      private final List<T> _instances;
+      private final ToDoubleBiFunction<? super T, ? super T> _kernel;
+      private final GramMatrixFile _matrix;
+      private final int[] _firstRows;
+      private final int[] _firstColumns;
+      private final int _begin;
+      private final int _end;
+
+      private TileTask( final List<T> instances, final ToDoubleBiFunction<? super T, ? super T> kernel,
+                        final GramMatrixFile matrix, final int[] firstRows, final int[] firstColumns,
+                        final int begin, final int end ) {
+         _instances = instances;
+         _kernel = kernel;
+         _matrix = matrix;
+         _firstRows = firstRows;
+         _firstColumns = firstColumns;
+         _begin = begin;
+         _end = end;
+      }
+
+      @Override
+      protected void compute() {
+         if ( _end - _begin > 1 ) {
+            final int middle = (_begin + _end) >>> 1;
+            invokeAll( new TileTask<>( _instances, _kernel, _matrix, _firstRows, _firstColumns, _begin, middle ),
+                  new TileTask<>( _instances, _kernel, _matrix, _firstRows, _firstColumns, middle, _end ) );
+            return;
+         }
+         if ( _end == _begin ) {
+            return;
+         }
+         final int size = _instances.size();
+         final int rowEnd = Math.min( size, _firstRows[ _begin ] + _tileSize );
+         final int columnEnd = Math.min( size, _firstColumns[ _begin ] + _tileSize );
+         for ( int row = _firstRows[ _begin ]; row < rowEnd; row++ ) {
+            final T instance = _instances.get( row );
+            for ( int column = Math.max( row, _firstColumns[ _begin ] ); column < columnEnd; column++ ) {
+               _matrix.set( row, column, _kernel.applyAsDouble( instance, _instances.get( column ) ) );
+            }
+         }
+      }
+   }
+
+}
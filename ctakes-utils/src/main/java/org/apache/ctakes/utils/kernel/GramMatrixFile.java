@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.utils.kernel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Symmetric gram matrix held in a memory-mapped file.
+ * <p>
+ * The file has a header of magic number, version, bytes per value and the number of instances,
+ * followed by the id of each instance and then the upper triangle of the matrix, row by row, as floats or doubles.
+ * Files larger than 2GB are mapped in several regions.
+ * </p>
+ * Values in different cells may be set concurrently.
+ */
+final public class GramMatrixFile implements Closeable {
+
+   static private final int MAGIC = 0x4752414D;  // "GRAM"
+   static private final int VERSION = 1;
+   static private final int HEADER_BYTES = 4 * Integer.BYTES;
+   // a multiple of the largest value size, so no value crosses regions
+   static private final long REGION_BYTES = 1L << 30;
+
+   private final File _file;
+   private final boolean _writable;
+   private final int _valueBytes;
+   private final int _size;
+   private final long[] _ids;
+   private final long _dataStart;
+   private final MappedByteBuffer[] _regions;
+   private Map<Long, Integer> _idIndices;
+
+   /**
+    * Creates a new gram matrix file, overwriting any existing file.  All values are initially 0.
+    *
+    * @param file            file to create
+    * @param ids             id of the instance for each row and column
+    * @param singlePrecision true to store values as floats, false for doubles
+    * @return gram matrix that can be written
+    * @throws IOException if the file cannot be created or mapped
+    */
+   static public GramMatrixFile create( final File file, final long[] ids, final boolean singlePrecision )
+         throws IOException {
+      final int valueBytes = singlePrecision ? Float.BYTES : Double.BYTES;
+      final long dataStart = HEADER_BYTES + (long)ids.length * Long.BYTES;
+      final long length = dataStart + getCellCount( ids.length ) * valueBytes;
+      try ( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) ) {
+         raf.setLength( 0 );
+         raf.setLength( length );
+         final MappedByteBuffer[] regions = map( raf.getChannel(), FileChannel.MapMode.READ_WRITE, length );
+         final GramMatrixFile matrix = new GramMatrixFile( file, true, valueBytes, ids.clone(), regions );
+         regions[ 0 ].putInt( 0, MAGIC );
+         regions[ 0 ].putInt( Integer.BYTES, VERSION );
+         regions[ 0 ].putInt( 2 * Integer.BYTES, valueBytes );
+         regions[ 0 ].putInt( 3 * Integer.BYTES, ids.length );
+         for ( int i = 0; i < ids.length; i++ ) {
+            matrix.putLong( HEADER_BYTES + (long)i * Long.BYTES, ids[ i ] );
+         }
+         return matrix;
+      }
+   }
+
+   /**
+    * @param file gram matrix file written by {@link #create(File, long[], boolean)}
+    * @return read only gram matrix
+    * @throws IOException if the file cannot be read or is not a gram matrix file
+    */
+   static public GramMatrixFile open( final File file ) throws IOException {
+      try ( RandomAccessFile raf = new RandomAccessFile( file, "r" ) ) {
+         if ( raf.length() < HEADER_BYTES || raf.readInt() != MAGIC ) {
+            throw new IOException( file.getPath() + " is not a gram matrix file" );
+         }
+         final int version = raf.readInt();
+         if ( version != VERSION ) {
+            throw new IOException( "Unsupported gram matrix file version " + version + " in " + file.getPath() );
+         }
+         final int valueBytes = raf.readInt();
+         final int size = raf.readInt();
+         final long length = HEADER_BYTES + (long)size * Long.BYTES + getCellCount( size ) * valueBytes;
+         if ( (valueBytes != Float.BYTES && valueBytes != Double.BYTES) || size < 0 || raf.length() < length ) {
+            throw new IOException( "Corrupt gram matrix file " + file.getPath() );
+         }
+         final MappedByteBuffer[] regions = map( raf.getChannel(), FileChannel.MapMode.READ_ONLY, length );
+         final long[] ids = new long[ size ];
+         final GramMatrixFile matrix = new GramMatrixFile( file, false, valueBytes, ids, regions );
+         for ( int i = 0; i < size; i++ ) {
+            ids[ i ] = matrix.getLong( HEADER_BYTES + (long)i * Long.BYTES );
+         }
+         return matrix;
+      }
+   }
+
+   private GramMatrixFile( final File file, final boolean writable, final int valueBytes, final long[] ids,
+                           final MappedByteBuffer[] regions ) {
+      _file = file;
+      _writable = writable;
+      _valueBytes = valueBytes;
+      _size = ids.length;
+      _ids = ids;
+      _dataStart = HEADER_BYTES + (long)ids.length * Long.BYTES;
+      _regions = regions;
+   }
+
+   static private MappedByteBuffer[] map( final FileChannel channel, final FileChannel.MapMode mode,
+                                          final long length ) throws IOException {
+      final int count = (int)Math.max( 1, (length + REGION_BYTES - 1) / REGION_BYTES );
+      final MappedByteBuffer[] regions = new MappedByteBuffer[ count ];
+      for ( int i = 0; i < count; i++ ) {
+         final long start = i * REGION_BYTES;
+         regions[ i ] = channel.map( mode, start, Math.min( REGION_BYTES, length - start ) );
+      }
+      return regions;
+   }
+
+   /**
+    * @param size number of instances
+    * @return number of cells in the upper triangle, including the diagonal
+    */
+   static public long getCellCount( final int size ) {
+      return (long)size * (size + 1) / 2;
+   }
+
+   /**
+    * @return the mapped file
+    */
+   public File getFile() {
+      return _file;
+   }
+
+   /**
+    * @return number of instances, the number of rows and columns
+    */
+   public int size() {
+      return _size;
+   }
+
+   /**
+    * @return true if values are stored as floats
+    */
+   public boolean isSinglePrecision() {
+      return _valueBytes == Float.BYTES;
+   }
+
+   /**
+    * @param index row or column index
+    * @return id of the instance
+    */
+   public long getId( final int index ) {
+      return _ids[ index ];
+   }
+
+   /**
+    * @param id some instance id
+    * @return row and column index of the instance, or -1 if the matrix does not hold the instance
+    */
+   public synchronized int indexOf( final long id ) {
+      if ( _idIndices == null ) {
+         _idIndices = new HashMap<>( _size * 2 );
+         for ( int i = 0; i < _size; i++ ) {
+            _idIndices.put( _ids[ i ], i );
+         }
+      }
+      final Integer index = _idIndices.get( id );
+      return index == null ? -1 : index;
+   }
+
+   /**
+    * @param row    row index
+    * @param column column index
+    * @return value of the cell, the matrix is symmetric
+    */
+   public double get( final int row, final int column ) {
+      final long position = getPosition( row, column );
+      final MappedByteBuffer region = _regions[ (int)(position / REGION_BYTES) ];
+      final int offset = (int)(position % REGION_BYTES);
+      return isSinglePrecision() ? region.getFloat( offset ) : region.getDouble( offset );
+   }
+
+   /**
+    * Sets the cell, which is also the cell at column, row.
+    *
+    * @param row    row index
+    * @param column column index
+    * @param value  value of the cell, rounded to a float for single precision files
+    */
+   public void set( final int row, final int column, final double value ) {
+      if ( !_writable ) {
+         throw new UnsupportedOperationException( _file.getPath() + " was opened read only" );
+      }
+      final long position = getPosition( row, column );
+      final MappedByteBuffer region = _regions[ (int)(position / REGION_BYTES) ];
+      final int offset = (int)(position % REGION_BYTES);
+      if ( isSinglePrecision() ) {
+         region.putFloat( offset, (float)value );
+      } else {
+         region.putDouble( offset, value );
+      }
+   }
+
+   /**
+    * Writes changes to the file.
+    */
+   public void flush() {
+      if ( _writable ) {
+         for ( MappedByteBuffer region : _regions ) {
+            region.force();
+         }
+      }
+   }
+
+   /**
+    * Writes changes to the file.  The mapping itself is released when the matrix is garbage collected.
+    */
+   @Override
+   public void close() {
+      flush();
+   }
+
+   private long getPosition( final int row, final int column ) {
+      if ( row < 0 || column < 0 || row >= _size || column >= _size ) {
+         throw new IndexOutOfBoundsException( "Cell " + row + "," + column + " of " + _size + " x " + _size );
+      }
+      final long i = Math.min( row, column );
+      final long j = Math.max( row, column );
+      // rows of the upper triangle before row i hold n + (n-1) + ... + (n-i+1) cells
+      final long cell = i * _size - i * (i - 1) / 2 + (j - i);
+      return _dataStart + cell * _valueBytes;
+   }
+
+   private void putLong( final long position, final long value ) {
+      _regions[ (int)(position / REGION_BYTES) ].putLong( (int)(position % REGION_BYTES), value );
+   }
+
+   private long getLong( final long position ) {
+      return _regions[ (int)(position / REGION_BYTES) ].getLong( (int)(position % REGION_BYTES) );
+   }
+
+}
@@ -0,0 +1,154 @@
+package org.apache.ctakes.utils.distsem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HnswIndexTest {
+
+  private static final int WORD_COUNT = 600;
+  private static final int DIMENSIONALITY = 16;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRecallOnOneThread() throws IOException {
+    assertRecall(1);
+  }
+
+  @Test
+  public void testRecallOnSeveralThreads() throws IOException {
+    assertRecall(4);
+  }
+
+  @Test
+  public void testSaveAndLoad() throws IOException {
+    WordEmbeddings embeddings = createEmbeddings(11L, "w");
+    HnswIndex index = HnswIndex.build(embeddings, 8, 100, 2, 42L);
+    File indexFile = folder.newFile("vectors" + HnswIndex.FILE_EXTENSION);
+    index.save(indexFile);
+    HnswIndex loaded = HnswIndex.load(indexFile, embeddings);
+    assertEquals(index.size(), loaded.size());
+    for(int node = 0; node < index.size(); node++){
+      String word = index.getWord(node);
+      assertEquals(word, loaded.getWord(node));
+      assertEquals(word, index.getSimilarWords(word, 10), loaded.getSimilarWords(word, 10));
+    }
+  }
+
+  @Test
+  public void testOtherVectorsAreRejected() throws IOException {
+    WordEmbeddings embeddings = createEmbeddings(11L, "w");
+    HnswIndex index = HnswIndex.build(embeddings, 8, 100, 1, 42L);
+    File indexFile = folder.newFile("vectors" + HnswIndex.FILE_EXTENSION);
+    index.save(indexFile);
+    WordEmbeddings other = createEmbeddings(11L, "v");
+    try{
+      HnswIndex.load(indexFile, other);
+      fail("An index of other words should not load");
+    }catch(IOException e){
+      // expected
+    }
+    assertTrue(index.isFor(embeddings));
+    assertFalse(index.isFor(other));
+    try{
+      other.setSimilarWordIndex(index);
+      fail("An index of other words should not be set");
+    }catch(IllegalArgumentException e){
+      // expected
+    }
+    embeddings.setSimilarWordIndex(index);
+    assertSame(index, embeddings.getSimilarWordIndex());
+  }
+
+  @Test
+  public void testStoreIndexMatchesItsStore() throws IOException {
+    WordEmbeddings store = createStore(createEmbeddings(11L, "w"));
+    HnswIndex index = HnswIndex.build(store, 8, 100, 1, 42L);
+    assertTrue(index.isFor(store));
+    File indexFile = folder.newFile("store" + HnswIndex.FILE_EXTENSION);
+    index.save(indexFile);
+    assertEquals(index.size(), HnswIndex.load(indexFile, store).size());
+  }
+
+  @Test
+  public void testUnknownWordTakesTheLinearPath() throws IOException {
+    assertSameUnknownWordFailure(createEmbeddings(11L, "w"));
+    assertSameUnknownWordFailure(createStore(createEmbeddings(11L, "w")));
+  }
+
+  private static void assertRecall(int threads) throws IOException {
+    WordEmbeddings embeddings = createEmbeddings(7L, "w");
+    HnswIndex index = HnswIndex.build(embeddings, 8, 100, threads, 42L);
+    assertEquals(WORD_COUNT, index.size());
+    HnswIndexEvaluation evaluation = new HnswIndexEvaluation(index, 100, 10, 3L);
+    evaluation.evaluate(HnswIndex.DEFAULT_EF_SEARCH);
+    assertTrue("recall@10 of " + evaluation.getRecall(), evaluation.getRecall() >= 0.95);
+
+    // the index answers getSimilarWords once it is set
+    String word = index.getWord(0);
+    embeddings.setSimilarWordIndex(index);
+    assertEquals(index.getSimilarWords(word, 10), embeddings.getSimilarWords(word, 10));
+  }
+
+  private static void assertSameUnknownWordFailure(WordEmbeddings embeddings) throws IOException {
+    Class<?> linearFailure = getFailure(embeddings);
+    embeddings.setSimilarWordIndex(HnswIndex.build(embeddings, 8, 100, 1, 42L));
+    assertEquals(linearFailure, getFailure(embeddings));
+  }
+
+  private static Class<?> getFailure(WordEmbeddings embeddings) {
+    try{
+      embeddings.getSimilarWords("unknown", 5);
+      return null;
+    }catch(RuntimeException e){
+      return e.getClass();
+    }
+  }
+
+  /**
+   * @return seeded random vectors of words prefix0 to prefix599
+   */
+  private static WordEmbeddings createEmbeddings(long seed, String prefix) {
+    Random random = new Random(seed);
+    Map<String,WordVector> vectors = new HashMap<>();
+    for(int i = 0; i < WORD_COUNT; i++){
+      String word = prefix + i;
+      double[] vector = new double[DIMENSIONALITY];
+      for(int d = 0; d < DIMENSIONALITY; d++){
+        vector[d] = random.nextGaussian();
+      }
+      vectors.put(word, new WordVector(word, vector));
+    }
+    return new WordEmbeddings(vectors);
+  }
+
+  private WordEmbeddings createStore(WordEmbeddings embeddings) throws IOException {
+    StringBuilder text = new StringBuilder();
+    for(Map.Entry<String,WordVector> entry : embeddings.getVectorMap().entrySet()){
+      text.append(entry.getKey());
+      for(double value : entry.getValue().vector){
+        text.append(' ').append((float) value);
+      }
+      text.append('\n');
+    }
+    File storeFile = new File(folder.getRoot(), "vectors" + MappedEmbeddings.FILE_EXTENSION);
+    WordVectorConverter.convert(new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), storeFile);
+    return new WordEmbeddings(MappedEmbeddings.open(storeFile));
+  }
+}
@@ -79,6 +79,10 @@ import org.apache.uima.resource.ResourceInitializationException;
  * <li>possible: polarity=1, confidence = 0.5
  * <li>affirmed: polarity=1, confidence = 1
  * </ul>
+ * <li>useTriggerAutomaton : find the triggers of all rules with a single scan
+ * of each sentence, default = true. If false, the regular expression of every
+ * rule is run over the sentence for every named entity. Both find the same
+ * triggers.
  * 
  * Added support for negating arbitrary annotations. Set the targetTypeName to
  * an annotation type. Will see if it is negated; if so will set the negated and
@@ -99,6 +103,7 @@ public class NegexAnnotator extends JCasAnnotator_ImplBase {
 	private boolean checkPossibilities = true;
 	private boolean storeAsInterval = false;
 	private String targetTypeName = null;
+	private NegexTriggerAutomaton triggerAutomaton = null;
 
 	@Override
 	public void initialize(UimaContext aContext)
@@ -117,6 +122,14 @@ public class NegexAnnotator extends JCasAnnotator_ImplBase {
 				storeAsInterval);
 		targetTypeName = (String) aContext
 				.getConfigParameterValue("targetTypeName");
+		if (getBooleanConfigParam(aContext, "useTriggerAutomaton", true)) {
+			try {
+				triggerAutomaton = new NegexTriggerAutomaton(listNegexRules);
+			} catch (IllegalArgumentException e) {
+				log.warn("using regular expressions for negex rules: "
+						+ e.getMessage());
+			}
+		}
 	}
 
 	private boolean getBooleanConfigParam(UimaContext aContext, String param,
@@ -266,10 +279,16 @@ public class NegexAnnotator extends JCasAnnotator_ImplBase {
 		while (sentenceIter.hasNext()) {
 			Sentence s = (Sentence) sentenceIter.next();
 			FSIterator neIter = targetIdx.subiterator(s);
+			// scan the sentence for triggers once, when it has a target
+			NegexTriggerAutomaton.SentenceTriggers triggers = null;
 			while (neIter.hasNext()) {
 				Annotation ne = (Annotation) neIter.next();
-				if (filter == null || filter.filter(ne))
-					checkNegation(aJCas, s, ne);
+				if (filter == null || filter.filter(ne)) {
+					if (triggers == null && triggerAutomaton != null)
+						triggers = triggerAutomaton.scan("."
+								+ s.getCoveredText() + ".");
+					checkNegation(aJCas, s, ne, triggers);
+				}
 				// checkNegation2(aJCas, s, ne);
 			}
 		}
@@ -464,54 +483,21 @@ public class NegexAnnotator extends JCasAnnotator_ImplBase {
 	 *            the sentence in which we will look
 	 * @param ne
 	 *            the named entity whose negation status will be checked.
-	 * @param checkPoss
-	 *            should possibility be checked?
-	 * @param negPoss
-	 *            should possiblities be negated?
+	 * @param triggers
+	 *            triggers of the sentence, null to run the negex rules'
+	 *            regular expressions
 	 */
-	private void checkNegation(JCas aJCas, Sentence s, Annotation ne) {
+	private void checkNegation(JCas aJCas, Sentence s, Annotation ne,
+			NegexTriggerAutomaton.SentenceTriggers triggers) {
 		if (storeAsInterval && ne instanceof IdentifiedAnnotation) {
 			// default is affirmed, which is coded as confidence = 1
 			((IdentifiedAnnotation) ne).setConfidence(1);
 		}
-		// need to add . on either side due to the way the regexs are built
-		String sentence = "." + s.getCoveredText() + ".";
-		// allocate array of tokens
-		// this maps each character of the sentence to a token
-		NegexToken[] tokens = new NegexToken[sentence.length()];
-		// char buffer for modify the sentence
-		// we want to 'black out' trigger words already found and the phrase we
-		// were looking for
-		CharBuffer buf = CharBuffer.wrap(sentence.toCharArray());
 		// calculate location of the ne relative to the sentence
 		int neRelStart = ne.getBegin() - s.getBegin() + 1;
 		int neRelEnd = ne.getEnd() - s.getBegin() + 1;
-		// black out the ne in the sentence buffer
-		for (int i = neRelStart; i < neRelEnd; i++) {
-			// black out the named entity from the char buffer
-			buf.put(i, '_');
-		}
-		// look for negex rules in the sentence
-		for (NegexRule rule : this.listNegexRules) {
-			Matcher m = rule.getPattern().matcher(buf);
-			while (m.find() == true) {
-				// see if the range has not already been marked
-				boolean bUnoccupied = true;
-				for (int i = m.start(); i < m.end() && bUnoccupied; i++)
-					bUnoccupied = tokens[i] == null;
-				if (bUnoccupied) {
-					// mark the range in the sentence with this token
-					// black it out so other rules do not match
-					NegexToken t = new NegexToken(m.start(), m.end(), rule);
-					for (int i = m.start(); i < m.end() && bUnoccupied; i++) {
-						// black out this range from the char buffer
-						buf.put(i, '_');
-						// add the token to the array
-						tokens[i] = t;
-					}
-				}
-			}
-		}
+		NegexToken[] tokens = triggers != null ? triggers.getTokens(
+				neRelStart, neRelEnd) : findTokens(s, neRelStart, neRelEnd);
 		// prenegation
 		// look for a PREN rule before the ne, without any intervening stop tags
 		NegexToken t = this.findTokenByTag("[PREN]", new String[] { "[CONJ]",
@@ -546,6 +532,56 @@ public class NegexAnnotator extends JCasAnnotator_ImplBase {
 		}
 	}
 
+	/**
+	 * run the regular expression of each negex rule over the sentence
+	 * 
+	 * @param s
+	 *            the sentence in which we will look
+	 * @param neRelStart
+	 *            start of the named entity in the padded sentence
+	 * @param neRelEnd
+	 *            end of the named entity in the padded sentence
+	 * @return the token found at each character of the padded sentence
+	 */
+	private NegexToken[] findTokens(Sentence s, int neRelStart, int neRelEnd) {
+		// need to add . on either side due to the way the regexs are built
+		String sentence = "." + s.getCoveredText() + ".";
+		// allocate array of tokens
+		// this maps each character of the sentence to a token
+		NegexToken[] tokens = new NegexToken[sentence.length()];
+		// char buffer for modify the sentence
+		// we want to 'black out' trigger words already found and the phrase we
+		// were looking for
+		CharBuffer buf = CharBuffer.wrap(sentence.toCharArray());
+		// black out the ne in the sentence buffer
+		for (int i = neRelStart; i < neRelEnd; i++) {
+			// black out the named entity from the char buffer
+			buf.put(i, '_');
+		}
+		// look for negex rules in the sentence
+		for (NegexRule rule : this.listNegexRules) {
+			Matcher m = rule.getPattern().matcher(buf);
+			while (m.find() == true) {
+				// see if the range has not already been marked
+				boolean bUnoccupied = true;
+				for (int i = m.start(); i < m.end() && bUnoccupied; i++)
+					bUnoccupied = tokens[i] == null;
+				if (bUnoccupied) {
+					// mark the range in the sentence with this token
+					// black it out so other rules do not match
+					NegexToken t = new NegexToken(m.start(), m.end(), rule);
+					for (int i = m.start(); i < m.end() && bUnoccupied; i++) {
+						// black out this range from the char buffer
+						buf.put(i, '_');
+						// add the token to the array
+						tokens[i] = t;
+					}
+				}
+			}
+		}
+		return tokens;
+	}
+
 	private void checkNegation2(JCas aJCas, Sentence s,
 			IdentifiedAnnotation ne, boolean negPoss) {
 		// Sorter s = new Sorter();
@@ -0,0 +1,335 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.annotators;
+
+import org.apache.ctakes.ytex.uima.annotators.NegexAnnotator.NegexRule;
+import org.apache.ctakes.ytex.uima.annotators.NegexAnnotator.NegexToken;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the triggers of all negex rules in a sentence with a single Aho-Corasick scan.
+ * <p>
+ * Each negex rule is a regular expression of a trigger phrase, with whitespace runs between its words,
+ * between a leading and a trailing punctuation or whitespace character.
+ * The automaton scans the sentence once for every trigger phrase, ignoring ascii case and collapsing whitespace runs,
+ * and keeps each occurrence as a candidate for the rules with that phrase.
+ * The triggers for a named entity are then chosen from the candidates alone,
+ * exactly as {@link NegexAnnotator} chooses them by running the rules' regular expressions in order
+ * over the sentence with the named entity and the triggers already found blacked out.
+ * </p>
+ * The automaton is thread safe.  Sentence triggers are not.
+ */
+final public class NegexTriggerAutomaton {
+
+   static private final Pattern WHITESPACE_RUN = Pattern.compile( Pattern.quote( "\\s+" ) );
+   static private final String REGEX_META_CHARS = "\\.[]{}()*+?^$|";
+   static private final String PUNCTUATION = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+   private final List<NegexRule> _rules;
+   // for each phrase, the indices of the rules with the phrase, and the number of characters in the phrase
+   private final int[][] _phraseRules;
+   private final int[] _phraseLengths;
+   // ascii characters of the phrases map to an alphabet index, all other characters to -1
+   private final int[] _alphabet = new int[ 128 ];
+   private final int[][] _transitions;
+   // phrases that end in each state
+   private final int[][] _outputs;
+
+   /**
+    * @param rules negex rules in the order in which they are applied
+    * @throws IllegalArgumentException if a rule phrase is not literal text
+    */
+   public NegexTriggerAutomaton( final List<NegexRule> rules ) {
+      _rules = new ArrayList<>( rules );
+      final Map<String, List<Integer>> phraseRules = new LinkedHashMap<>();
+      for ( int i = 0; i < _rules.size(); i++ ) {
+         final String phrase = getPhrase( _rules.get( i ) );
+         phraseRules.computeIfAbsent( phrase, p -> new ArrayList<>() ).add( i );
+      }
+      final List<String> phrases = new ArrayList<>( phraseRules.keySet() );
+      _phraseRules = new int[ phrases.size() ][];
+      _phraseLengths = new int[ phrases.size() ];
+      Arrays.fill( _alphabet, -1 );
+      int alphabetSize = 0;
+      for ( int p = 0; p < phrases.size(); p++ ) {
+         final String phrase = phrases.get( p );
+         _phraseRules[ p ] = phraseRules.get( phrase ).stream().mapToInt( Integer::intValue ).toArray();
+         _phraseLengths[ p ] = phrase.length();
+         for ( char c : phrase.toCharArray() ) {
+            if ( _alphabet[ c ] < 0 ) {
+               _alphabet[ c ] = alphabetSize++;
+            }
+         }
+      }
+      // trie
+      final List<int[]> children = new ArrayList<>();
+      final List<List<Integer>> outputs = new ArrayList<>();
+      children.add( newState( alphabetSize ) );
+      outputs.add( new ArrayList<>() );
+      for ( int p = 0; p < phrases.size(); p++ ) {
+         int state = 0;
+         for ( char c : phrases.get( p ).toCharArray() ) {
+            final int symbol = _alphabet[ c ];
+            if ( children.get( state )[ symbol ] < 0 ) {
+               children.get( state )[ symbol ] = children.size();
+               children.add( newState( alphabetSize ) );
+               outputs.add( new ArrayList<>() );
+            }
+            state = children.get( state )[ symbol ];
+         }
+         outputs.get( state ).add( p );
+      }
+      // breadth first failure links, completing the transitions of each state
+      final int stateCount = children.size();
+      _transitions = new int[ stateCount ][];
+      final int[] failures = new int[ stateCount ];
+      final Queue<Integer> queue = new ArrayDeque<>();
+      _transitions[ 0 ] = children.get( 0 ).clone();
+      for ( int symbol = 0; symbol < alphabetSize; symbol++ ) {
+         if ( _transitions[ 0 ][ symbol ] < 0 ) {
+            _transitions[ 0 ][ symbol ] = 0;
+         } else {
+            queue.add( _transitions[ 0 ][ symbol ] );
+         }
+      }
+      while ( !queue.isEmpty() ) {
+         final int state = queue.remove();
+         _transitions[ state ] = children.get( state ).clone();
+         for ( int symbol = 0; symbol < alphabetSize; symbol++ ) {
+            final int child = _transitions[ state ][ symbol ];
+            if ( child < 0 ) {
+               _transitions[ state ][ symbol ] = _transitions[ failures[ state ] ][ symbol ];
+            } else {
+               failures[ child ] = state == 0 ? 0 : _transitions[ failures[ state ] ][ symbol ];
+               outputs.get( child ).addAll( outputs.get( failures[ child ] ) );
+               queue.add( child );
+            }
+         }
+      }
+      _outputs = new int[ stateCount ][];
+      for ( int state = 0; state < stateCount; state++ ) {
+         _outputs[ state ] = outputs.get( state ).stream().mapToInt( Integer::intValue ).toArray();
+      }
+   }
+
+   static private int[] newState( final int alphabetSize ) {
+      final int[] state = new int[ alphabetSize ];
+      Arrays.fill( state, -1 );
+      return state;
+   }
+
+   /**
+    * @param rule negex rule whose rule text is the trigger words joined by whitespace run expressions
+    * @return the trigger words in lower case joined by single spaces
+    */
+   static private String getPhrase( final NegexRule rule ) {
+      final String[] words = WHITESPACE_RUN.split( rule.getRule() );
+      final StringBuilder sb = new StringBuilder();
+      for ( String word : words ) {
+         if ( word.isEmpty() ) {
+            throw new IllegalArgumentException( "Trigger is not literal text: " + rule );
+         }
+         for ( char c : word.toCharArray() ) {
+            if ( c >= 128 || REGEX_META_CHARS.indexOf( c ) >= 0 || isWhitespace( c ) ) {
+               throw new IllegalArgumentException( "Trigger is not literal text: " + rule );
+            }
+         }
+         if ( sb.length() > 0 ) {
+            sb.append( ' ' );
+         }
+         sb.append( toLowerCase( word ) );
+      }
+      if ( sb.length() == 0 ) {
+         throw new IllegalArgumentException( "Empty trigger: " + rule );
+      }
+      return sb.toString();
+   }
+
+   /**
+    * @param sentence sentence text padded with a character on either side, as {@link NegexAnnotator} pads it
+    * @return every occurrence of every trigger phrase in the sentence
+    */
+   public SentenceTriggers scan( final String sentence ) {
+      final List<int[]> candidates = new ArrayList<>();
+      // character index of each normalized character, whitespace runs are a single space
+      final int[] positions = new int[ sentence.length() ];
+      int length = 0;
+      int state = 0;
+      for ( int i = 0; i < sentence.length(); i++ ) {
+         char c = sentence.charAt( i );
+         if ( isWhitespace( c ) ) {
+            if ( i > 0 && isWhitespace( sentence.charAt( i - 1 ) ) ) {
+               continue;
+            }
+            c = ' ';
+         } else {
+            c = toLowerCase( c );
+         }
+         positions[ length++ ] = i;
+         final int symbol = c < 128 ? _alphabet[ c ] : -1;
+         state = symbol < 0 ? 0 : _transitions[ state ][ symbol ];
+         for ( int phrase : _outputs[ state ] ) {
+            final int start = positions[ length - _phraseLengths[ phrase ] ];
+            for ( int rule : _phraseRules[ phrase ] ) {
+               candidates.add( new int[] { rule, start, i + 1 } );
+            }
+         }
+      }
+      // rules in order, the occurrences of each rule from left to right
+      candidates.sort( Comparator.<int[]>comparingInt( c -> c[ 0 ] ).thenComparingInt( c -> c[ 1 ] ) );
+      return new SentenceTriggers( sentence, candidates );
+   }
+
+   /**
+    * @return true if the character is matched by \s
+    */
+   static private boolean isWhitespace( final char c ) {
+      return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+   }
+
+   static private boolean isPunctuation( final char c ) {
+      return PUNCTUATION.indexOf( c ) >= 0;
+   }
+
+   /**
+    * @return true if the character is matched by a rule's leading character class
+    */
+   static private boolean isLeading( final char c ) {
+      return (isPunctuation( c ) && c != '[' && c != ']') || isWhitespace( c );
+   }
+
+   /**
+    * @return true if the character is matched by a rule's trailing character class
+    */
+   static private boolean isTrailing( final char c ) {
+      return (isPunctuation( c ) && c != '_') || isWhitespace( c );
+   }
+
+   /**
+    * Case insensitive matching without unicode case only folds ascii letters.
+    */
+   static private char toLowerCase( final char c ) {
+      return c >= 'A' && c <= 'Z' ? (char)(c + ('a' - 'A')) : c;
+   }
+
+   static private String toLowerCase( final String text ) {
+      final char[] chars = text.toCharArray();
+      for ( int i = 0; i < chars.length; i++ ) {
+         chars[ i ] = toLowerCase( chars[ i ] );
+      }
+      return new String( chars );
+   }
+
+
+   /**
+    * The trigger phrase occurrences of one sentence.
+    */
+   final public class SentenceTriggers {
+      private final String _sentence;
+      // rule index, first and last + 1 character of the phrase, by rule and then position
+      private final int[][] _candidates;
+      private final NegexToken[] _tokens;
+      private final List<NegexToken> _found = new ArrayList<>();
+
+      private SentenceTriggers( final String sentence, final List<int[]> candidates ) {
+         _sentence = sentence;
+         _candidates = candidates.toArray( new int[ candidates.size() ][] );
+         _tokens = new NegexToken[ sentence.length() ];
+      }
+
+      /**
+       * The returned array is reused by the next call.
+       *
+       * @param neRelStart index of the first character of the named entity in the padded sentence
+       * @param neRelEnd   index of the character after the named entity in the padded sentence
+       * @return for each character of the padded sentence, the trigger token that covers it or null
+       */
+      public NegexToken[] getTokens( final int neRelStart, final int neRelEnd ) {
+         for ( NegexToken token : _found ) {
+            Arrays.fill( _tokens, token.getStart(), token.getEnd(), null );
+         }
+         _found.clear();
+         int rule = -1;
+         int from = 0;
+         for ( int[] candidate : _candidates ) {
+            if ( candidate[ 0 ] != rule ) {
+               rule = candidate[ 0 ];
+               from = 0;
+            }
+            // the match includes the leading and trailing characters
+            final int start = candidate[ 1 ] - 1;
+            final int end = candidate[ 2 ] + 1;
+            if ( start < from || end > _sentence.length()
+                 || !isMatch( candidate[ 1 ], candidate[ 2 ], neRelStart, neRelEnd ) ) {
+               continue;
+            }
+            // the regex continues after the match whether or not the range is free
+            from = end;
+            if ( isFree( start, end ) ) {
+               final NegexToken token = new NegexToken( start, end, _rules.get( rule ) );
+               Arrays.fill( _tokens, start, end, token );
+               _found.add( token );
+            }
+         }
+         return _tokens;
+      }
+
+      /**
+       * @return true if the rule's regex matches the phrase with the named entity and previous triggers blacked out
+       */
+      private boolean isMatch( final int phraseStart, final int phraseEnd, final int neRelStart, final int neRelEnd ) {
+         for ( int i = phraseStart; i < phraseEnd; i++ ) {
+            if ( isBlackedOut( i, neRelStart, neRelEnd ) ) {
+               return false;
+            }
+         }
+         final int leading = phraseStart - 1;
+         if ( !isBlackedOut( leading, neRelStart, neRelEnd ) && !isLeading( _sentence.charAt( leading ) ) ) {
+            return false;
+         }
+         return !isBlackedOut( phraseEnd, neRelStart, neRelEnd ) && isTrailing( _sentence.charAt( phraseEnd ) );
+      }
+
+      /**
+       * Blacked out characters are underscores, a leading but not a trailing character.
+       */
+      private boolean isBlackedOut( final int i, final int neRelStart, final int neRelEnd ) {
+         return (i >= neRelStart && i < neRelEnd) || _tokens[ i ] != null;
+      }
+
+      private boolean isFree( final int start, final int end ) {
+         for ( int i = start; i < end; i++ ) {
+            if ( _tokens[ i ] != null ) {
+               return false;
+            }
+         }
+         return true;
+      }
+   }
+
+}
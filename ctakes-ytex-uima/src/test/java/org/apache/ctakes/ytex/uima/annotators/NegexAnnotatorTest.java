@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.annotators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ctakes.typesystem.type.refsem.OntologyConcept;
+import org.apache.ctakes.typesystem.type.textsem.ContextAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.EntityMention;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.factory.TypeSystemDescriptionFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * TODO get rid of hard-coded path to Types.xml - load from classpath
+ */
+public class NegexAnnotatorTest {
+	private static final String TYPE_SYSTEM = "src/main/resources/org/apache/ctakes/ytex/types/TypeSystem.xml";
+	private static final String TEXT = "No evidence of pneumonia.\nPatient reports cough, possible  EDEMA.\nDenies [fever] or rash; r/o sepsis";
+	private static final String[] ENTITIES = { "pneumonia", "cough", "EDEMA",
+			"fever", "rash", "sepsis" };
+
+	/**
+	 * Verify that the trigger automaton negates the same named entities as
+	 * the negex regular expressions
+	 */
+	@Test
+	public void testTriggerAutomaton() throws UIMAException {
+		List<String> automaton = negate(true);
+		List<String> regex = negate(false);
+		Assert.assertEquals(regex, automaton);
+		Assert.assertEquals("pneumonia -1 0", automaton.get(0));
+		Assert.assertEquals("cough 0 0", automaton.get(1));
+		Assert.assertEquals("fever -1 0", automaton.get(3));
+		Assert.assertEquals("rash -1 0", automaton.get(4));
+		Assert.assertEquals("sepsis -1 -1", automaton.get(5));
+	}
+
+	/**
+	 * @return the covered text, polarity and confidence of each entity, then
+	 *         the scope and offsets of each context annotation
+	 */
+	private List<String> negate(boolean useTriggerAutomaton)
+			throws UIMAException {
+		AnalysisEngine engine = AnalysisEngineFactory.createEngine(
+				NegexAnnotator.class, TypeSystemDescriptionFactory
+						.createTypeSystemDescriptionFromPath(TYPE_SYSTEM),
+				"useTriggerAutomaton", useTriggerAutomaton);
+		JCas jCas = JCasFactory.createJCasFromPath(TYPE_SYSTEM);
+		jCas.setDocumentText(TEXT);
+		int begin = 0;
+		for (String sentence : TEXT.split("\n")) {
+			new Sentence(jCas, begin, begin + sentence.length()).addToIndexes();
+			begin += sentence.length() + 1;
+		}
+		for (String entity : ENTITIES) {
+			EntityMention em = new EntityMention(jCas, TEXT.indexOf(entity),
+					TEXT.indexOf(entity) + entity.length());
+			FSArray concepts = new FSArray(jCas, 1);
+			concepts.set(0, new OntologyConcept(jCas));
+			em.setOntologyConceptArr(concepts);
+			em.addToIndexes();
+		}
+		engine.process(jCas);
+		List<String> results = new ArrayList<String>();
+		for (EntityMention em : JCasUtil.select(jCas, EntityMention.class)) {
+			results.add(em.getCoveredText() + " " + em.getPolarity() + " "
+					+ (int) em.getConfidence());
+		}
+		for (ContextAnnotation nec : JCasUtil.select(jCas,
+				ContextAnnotation.class)) {
+			results.add(nec.getScope() + " " + nec.getBegin() + " "
+					+ nec.getEnd() + " " + nec.getFocusText());
+		}
+		return results;
+	}
+}
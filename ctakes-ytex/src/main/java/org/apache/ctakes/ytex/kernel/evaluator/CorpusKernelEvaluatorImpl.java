@@ -18,6 +18,8 @@
  */
 package org.apache.ctakes.ytex.kernel.evaluator;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -42,6 +44,8 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.ctakes.utils.kernel.GramMatrixEngine;
+import org.apache.ctakes.utils.kernel.GramMatrixFile;
 import org.apache.ctakes.ytex.dao.DBUtil;
 import org.apache.ctakes.ytex.kernel.dao.KernelEvaluationDao;
 import org.apache.ctakes.ytex.kernel.model.KernelEvaluation;
@@ -141,6 +145,18 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 				.withDescription(
 						"for parallelization, parameter that determines which slice we work on.  If this is not specified, nMod threads will be started to evaluate all slices in parallel.")
 				.hasArg().create("slice"));
+		options.addOption(OptionBuilder
+				.withArgName("gramMatrix.bin")
+				.hasArg()
+				.withDescription(
+						"write the gram matrix to the specified memory-mapped file instead of the database.  Slices are ignored, all processors are used.")
+				.create("gramMatrix"));
+		options.addOption(OptionBuilder
+				.withArgName("yes/no")
+				.hasArg()
+				.withDescription(
+						"store the gram matrix file as floats rather than doubles? default no.")
+				.create("singlePrecision"));
 		options.addOption(new Option("help", "print this message"));
 		return options;
 	}
@@ -198,6 +214,16 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 			nSlice = Integer.parseInt(strSlice);
 		}
 		Map<Long, Node> instanceMap = null;
+		String gramMatrixFile = line.getOptionValue("gramMatrix");
+		if (gramMatrixFile != null
+				&& corpusEvaluator instanceof CorpusKernelEvaluatorImpl) {
+			CorpusKernelEvaluatorImpl evaluatorImpl = (CorpusKernelEvaluatorImpl) corpusEvaluator;
+			evaluatorImpl.setGramMatrixFile(gramMatrixFile);
+			evaluatorImpl.setSinglePrecision("yes".equalsIgnoreCase(line
+					.getOptionValue("singlePrecision", "no"))
+					|| "true".equalsIgnoreCase(line.getOptionValue(
+							"singlePrecision", "no")));
+		}
 		if (loadInstanceMap != null) {
 			instanceMap = builder.loadInstanceTrees(loadInstanceMap);
 		} else {
@@ -226,6 +252,8 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 
 	private int foldId = 0;
 
+	private String gramMatrixFile;
+
 	private String instanceIDQuery;
 
 	private Kernel instanceKernel;
@@ -243,6 +271,7 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 	private double param1 = 0;
 
 	private String param2 = DBUtil.getEmptyString();	
+	private boolean singlePrecision = false;
 	private PlatformTransactionManager transactionManager;
 	private TreeMappingInfo treeMappingInfo;
 	private TransactionTemplate txTemplate;
@@ -276,6 +305,10 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 	@Override
 	public void evaluateKernelOnCorpus(Map<Long, Node> instanceIDMap, int nMod,
 			boolean evalTest) throws InterruptedException {
+		if (gramMatrixFile != null) {
+			evaluateGramMatrix(instanceIDMap, evalTest);
+			return;
+		}
 		ExecutorService svc = Executors.newFixedThreadPool(nMod);
 		List<Callable<Object>> taskList = new ArrayList<Callable<Object>>(nMod);
 		for (int nSlice = 1; nSlice <= nMod; nSlice++) {
@@ -289,6 +322,10 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 
 	public void evaluateKernelOnCorpus(final Map<Long, Node> instanceIDMap,
 			int nMod, int nSlice, boolean evalTest) {
+		if (gramMatrixFile != null) {
+			evaluateGramMatrix(instanceIDMap, evalTest);
+			return;
+		}
 		KernelEvaluation kernelEvaluationTmp = new KernelEvaluation();
 		kernelEvaluationTmp.setExperiment(this.getExperiment());
 		kernelEvaluationTmp.setFoldId(this.getFoldId());
@@ -358,6 +395,50 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 		}
 	}
 
+	/**
+	 * evaluate the kernel on all pairs of instances in parallel and write the
+	 * symmetric gram matrix to {@link #getGramMatrixFile()}, bypassing the
+	 * kernel_eval_instance table. Instances are in ascending instance id order.
+	 * Instances without a tree are left at 0.
+	 * 
+	 * @param instanceIDMap
+	 *            instance trees
+	 * @param evalTest
+	 *            include test instances
+	 */
+	private void evaluateGramMatrix(final Map<Long, Node> instanceIDMap,
+			boolean evalTest) {
+		final List<Long> documentIds = new ArrayList<Long>();
+		final List<Long> testDocumentIds = new ArrayList<Long>();
+		loadDocumentIds(documentIds, testDocumentIds, instanceIDQuery);
+		SortedSet<Long> instanceIds = new TreeSet<Long>(documentIds);
+		if (evalTest) {
+			instanceIds.addAll(testDocumentIds);
+		}
+		long[] ids = new long[instanceIds.size()];
+		List<Node> nodes = new ArrayList<Node>(instanceIds.size());
+		int index = 0;
+		for (long instanceId : instanceIds) {
+			ids[index++] = instanceId;
+			nodes.add(instanceIDMap.get(instanceId));
+		}
+		if (log.isInfoEnabled())
+			log.info("evaluating gram matrix of " + ids.length
+					+ " instances into " + gramMatrixFile);
+		GramMatrixFile gramMatrix = null;
+		try {
+			gramMatrix = new GramMatrixEngine().compute(nodes, ids,
+					(root1, root2) -> root1 == null || root2 == null ? 0
+							: instanceKernel.evaluate(root1, root2),
+					new File(gramMatrixFile), singlePrecision);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			if (gramMatrix != null)
+				gramMatrix.close();
+		}
+	}
+
 	public DataSource getDataSource() {
 		return dataSource;
 	}
@@ -370,6 +451,10 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 		return foldId;
 	}
 
+	public String getGramMatrixFile() {
+		return gramMatrixFile;
+	}
+
 	public String getInstanceIDQuery() {
 		return instanceIDQuery;
 	}
@@ -402,6 +487,10 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 		return param2;
 	}
 
+	public boolean isSinglePrecision() {
+		return singlePrecision;
+	}
+
 	public PlatformTransactionManager getTransactionManager() {
 		return transactionManager;
 	}
@@ -467,6 +556,15 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 		this.foldId = foldId;
 	}
 
+	/**
+	 * @param gramMatrixFile
+	 *            if set, the gram matrix is written to this memory-mapped
+	 *            file instead of the database
+	 */
+	public void setGramMatrixFile(String gramMatrixFile) {
+		this.gramMatrixFile = gramMatrixFile;
+	}
+
 	public void setInstanceIDQuery(String instanceIDQuery) {
 		this.instanceIDQuery = instanceIDQuery;
 	}
@@ -499,6 +597,10 @@ public class CorpusKernelEvaluatorImpl implements CorpusKernelEvaluator {
 		this.param2 = param2;
 	}
 
+	public void setSinglePrecision(boolean singlePrecision) {
+		this.singlePrecision = singlePrecision;
+	}
+
 	public void setTransactionManager(
 			PlatformTransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
@@ -19,6 +19,7 @@
 package org.apache.ctakes.ytex.libsvm;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -40,6 +41,7 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.ctakes.utils.kernel.GramMatrixFile;
 import org.apache.ctakes.ytex.kernel.FileUtil;
 import org.apache.ctakes.ytex.kernel.InstanceData;
 import org.apache.ctakes.ytex.kernel.KernelContextHolder;
@@ -58,6 +60,9 @@ import com.google.common.collect.BiMap;
  * kernel_eval table) - required
  * <li>outdir directory where files will be place - optional defaults to current
  * directory
+ * <li>gramMatrixFile gram matrix file written by CorpusKernelEvaluatorImpl -
+ * optional. If specified, kernel evaluations are read from this file instead
+ * of the kernel_eval tables, and scope is ignored.
  * <p/>
  * Output to outdir following files:
  * <li>train_data.txt - for each class label, a symmetric gram matrix for
@@ -110,6 +115,8 @@ public class LibSVMGramMatrixExporterImpl implements LibSVMGramMatrixExporter {
 	 * 
 	 * @param gramMatrix
 	 *            square symmetric matrix with all available instance data
+	 * @param gramMatrixFile
+	 *            if not null, used instead of gramMatrix
 	 * @param instanceIdToClassMap
 	 *            folds
 	 * @param train
@@ -122,7 +129,7 @@ public class LibSVMGramMatrixExporterImpl implements LibSVMGramMatrixExporter {
 	 * @throws IOException
 	 */
 	private void exportFold(double[][] gramMatrix,
-			Map<Boolean, SortedMap<Long, String>> instanceIdToClassMap,
+			GramMatrixFile gramMatrixFile, Map<Boolean, SortedMap<Long, String>> instanceIdToClassMap,
 			boolean train, Map<Long, Integer> mapInstanceIdToIndex,
 			String filePrefix, Map<String, Integer> mapClassToIndex)
 			throws IOException {
@@ -178,7 +185,9 @@ public class LibSVMGramMatrixExporterImpl implements LibSVMGramMatrixExporter {
 					// write value - gramMatrix is symmetric, so this will work
 					// both ways
 					w.write(Double
-							.toString(gramMatrix[rowInstanceIndex][colInstanceIndex]));
+							.toString(gramMatrixFile != null ? gramMatrixFile
+									.get(rowInstanceIndex, colInstanceIndex)
+									: gramMatrix[rowInstanceIndex][colInstanceIndex]));
 				}
 				// don't want carriage return, even on windows
 				w.write("\n");
@@ -200,21 +209,35 @@ public class LibSVMGramMatrixExporterImpl implements LibSVMGramMatrixExporter {
 	/**
 	 * Load the gram matrix based on scope. Write the gram matrix for each fold.
 	 * Generate 4 files per fold: train_data.txt, train_id.txt, test_data.txt,
-	 * test_id.txt.
+	 * test_id.txt. If gramMatrixFile is not null, kernel evaluations are read
+	 * from it instead of the database.
 	 * 
 	 */
 	private void exportGramMatrices(String name, String experiment,
 			double param1, String param2, String scope, String splitName,
 			String outdir, InstanceData instanceData,
-			Map<String, BiMap<String, Integer>> labelToClassIndexMap)
-			throws IOException {
+			Map<String, BiMap<String, Integer>> labelToClassIndexMap,
+			GramMatrixFile gramMatrixFile) throws IOException {
 		// the full, symmetric gram matrix
 		double[][] gramMatrix = null;
 		// the set of all instance ids
 		SortedSet<Long> instanceIds = new TreeSet<Long>();
 		// map of instance id to index in gramMatrix
 		Map<Long, Integer> mapInstanceIdToIndex = new HashMap<Long, Integer>();
-		if (scope == null || scope.length() == 0) {
+		if (gramMatrixFile != null) {
+			// the file holds all instances - map instance ids to file indices
+			for (long instanceId : instanceData.getAllInstanceIds(null, 0, 0)) {
+				int index = gramMatrixFile.indexOf(instanceId);
+				if (index < 0) {
+					throw new IOException("instance " + instanceId
+							+ " is not in gram matrix file "
+							+ gramMatrixFile.getFile());
+				}
+				mapInstanceIdToIndex.put(instanceId, index);
+			}
+			// don't load gram matrices for any scope
+			scope = "file";
+		} else if (scope == null || scope.length() == 0) {
 			// empty scope - load gram matrix
 			gramMatrix = loadGramMatrix(name, experiment, param1, param2,
 					splitName, null, 0, 0, instanceData, instanceIds,
@@ -244,19 +267,19 @@ public class LibSVMGramMatrixExporterImpl implements LibSVMGramMatrixExporter {
 								param2, splitName, label, run, fold,
 								instanceData, instanceIds, mapInstanceIdToIndex);
 					}
-					if (gramMatrix != null) {
+					if (gramMatrix != null || gramMatrixFile != null) {
 						// get folds
 						Map<Boolean, SortedMap<Long, String>> foldMap = instanceData
 								.getLabelToInstanceMap().get(label).get(run)
 								.get(fold);
 						// export training fold
-						exportFold(gramMatrix, foldMap, true,
+						exportFold(gramMatrix, gramMatrixFile, foldMap, true,
 								mapInstanceIdToIndex,
 								FileUtil.getDataFilePrefix(outdir, label, run,
 										fold, true),
 								labelToClassIndexMap.get(label));
 						// export test fold
-						exportFold(gramMatrix, foldMap, false,
+						exportFold(gramMatrix, gramMatrixFile, foldMap, false,
 								mapInstanceIdToIndex,
 								FileUtil.getDataFilePrefix(outdir, label, run,
 										fold, false),
@@ -288,8 +311,20 @@ public class LibSVMGramMatrixExporterImpl implements LibSVMGramMatrixExporter {
 		Map<String, BiMap<String, Integer>> labelToClassIndexMap = new HashMap<String, BiMap<String, Integer>>();
 		kernelUtil.fillLabelToClassToIndexMap(
 				instanceData.getLabelToClassMap(), labelToClassIndexMap);
-		exportGramMatrices(name, experiment, param1, param2, scope, splitName,
-				outdir, instanceData, labelToClassIndexMap);
+		String gramMatrixFileName = props.getProperty("gramMatrixFile");
+		GramMatrixFile gramMatrixFile = null;
+		try {
+			if (gramMatrixFileName != null && gramMatrixFileName.length() > 0) {
+				gramMatrixFile = GramMatrixFile.open(new File(
+						gramMatrixFileName));
+			}
+			exportGramMatrices(name, experiment, param1, param2, scope,
+					splitName, outdir, instanceData, labelToClassIndexMap,
+					gramMatrixFile);
+		} finally {
+			if (gramMatrixFile != null)
+				gramMatrixFile.close();
+		}
 	}
 
 	public DataSource getDataSource() {
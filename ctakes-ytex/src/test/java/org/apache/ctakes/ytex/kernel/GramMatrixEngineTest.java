@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import libsvm.svm_node;
+
+import org.apache.ctakes.utils.kernel.GramMatrixEngine;
+import org.apache.ctakes.utils.kernel.GramMatrixFile;
+import org.apache.ctakes.utils.kernel.PolyKernel;
+import org.apache.ctakes.utils.kernel.RBFKernel;
+import org.apache.ctakes.ytex.kernel.evaluator.Kernel;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GramMatrixEngineTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSameAsPairwiseEvaluation() throws IOException {
+		List<svm_node[]> vectors = createVectors(150, new Random(1019));
+		long[] ids = createIds(vectors.size());
+		PolyKernel kernel = new PolyKernel(2, 1.0, true);
+		File file = folder.newFile("poly.gram");
+		GramMatrixEngine engine = new GramMatrixEngine(new ForkJoinPool(4), 16);
+		GramMatrixFile matrix = engine.compute(vectors, ids, kernel, file,
+				false);
+		matrix.close();
+		GramMatrixFile reopened = GramMatrixFile.open(file);
+		assertEquals(vectors.size(), reopened.size());
+		for (int i = 0; i < vectors.size(); i++) {
+			assertEquals(ids[i], reopened.getId(i));
+			assertEquals(i, reopened.indexOf(ids[i]));
+			for (int j = 0; j < vectors.size(); j++) {
+				assertEquals(kernel.eval(vectors.get(i), vectors.get(j)),
+						reopened.get(i, j), 0);
+			}
+		}
+		assertEquals(-1, reopened.indexOf(-5));
+		reopened.close();
+	}
+
+	@Test
+	public void testSinglePrecisionWithYtexKernel() throws IOException {
+		List<svm_node[]> vectors = createVectors(37, new Random(7));
+		long[] ids = createIds(vectors.size());
+		final RBFKernel rbf = new RBFKernel(0.5);
+		Kernel kernel = new Kernel() {
+			@Override
+			public double evaluate(Object o1, Object o2) {
+				return rbf.eval(o1, o2);
+			}
+		};
+		File file = folder.newFile("rbf.gram");
+		// tiles do not divide the instances evenly
+		GramMatrixFile matrix = new GramMatrixEngine(new ForkJoinPool(3), 10)
+				.compute(vectors, ids, kernel::evaluate, file, true);
+		for (int i = 0; i < vectors.size(); i++) {
+			for (int j = 0; j < vectors.size(); j++) {
+				assertEquals(
+						(float) kernel.evaluate(vectors.get(i), vectors.get(j)),
+						matrix.get(i, j), 0);
+			}
+		}
+		matrix.close();
+		assertEquals(true, GramMatrixFile.open(file).isSinglePrecision());
+	}
+
+	private static long[] createIds(int size) {
+		long[] ids = new long[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = 1000 + 3 * i;
+		}
+		return ids;
+	}
+
+	private static List<svm_node[]> createVectors(int count, Random random) {
+		List<svm_node[]> vectors = new ArrayList<svm_node[]>(count);
+		for (int i = 0; i < count; i++) {
+			List<svm_node> nodes = new ArrayList<svm_node>();
+			for (int index = 1; index < 40; index++) {
+				if (random.nextInt(4) == 0) {
+					svm_node node = new svm_node();
+					node.index = index;
+					node.value = random.nextDouble();
+					nodes.add(node);
+				}
+			}
+			vectors.add(nodes.toArray(new svm_node[nodes.size()]));
+		}
+		return vectors;
+	}
+}